@@ -19,6 +19,12 @@ module tornado.annotation {
   requires transitive jdk.internal.vm.ci;
   requires transitive org.objectweb.asm;
   requires transitive tornado.runtime;
+  // Only needed by the annotation processor, which runs inside javac
+  requires static java.compiler;
+  requires static jdk.compiler;
 
   exports uk.ac.manchester.tornado.annotation;
+
+  // The processor is registered in META-INF/services and loaded from the processor path. A
+  // provides clause would make the javax.annotation.processing module mandatory at runtime.
 }
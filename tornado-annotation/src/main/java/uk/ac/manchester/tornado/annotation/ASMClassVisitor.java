@@ -20,63 +20,150 @@ package uk.ac.manchester.tornado.annotation;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
 import jdk.vm.ci.meta.ResolvedJavaMethod;
+import jdk.vm.ci.meta.ResolvedJavaType;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
-import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
 import uk.ac.manchester.tornado.runtime.ASMClassVisitorProvider;
 import uk.ac.manchester.tornado.runtime.common.ParallelAnnotationProvider;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 
 public class ASMClassVisitor extends ClassVisitor implements ASMClassVisitorProvider {
-  private List<ParallelAnnotationProvider> parallelAnnotations;
-  private ResolvedJavaMethod resolvedJavaMethod;
+
+  private static final ParallelAnnotationProvider[] NO_ANNOTATIONS =
+      new ParallelAnnotationProvider[0];
+
+  /**
+   * Annotations of all methods of the classes already inspected. Each class is read once, from its
+   * compile-time index if there is one, or from its class file otherwise.
+   */
+  private static final Map<ResolvedJavaType, Map<String, ParallelAnnotationProvider[]>>
+      classAnnotations = new ConcurrentHashMap<>();
+
+  private Map<String, List<ParallelAnnotationProvider>> methodAnnotations;
+  private String annotationName;
+  private ToIntFunction<Label> labelOffsets;
 
   public ASMClassVisitor() {
     super(Opcodes.ASM9);
   }
 
-  public ASMClassVisitor(int i, ClassVisitor classVisitor, ResolvedJavaMethod resolvedJavaMethod) {
-    super(i, classVisitor);
-    parallelAnnotations = new ArrayList<>();
-    this.resolvedJavaMethod = resolvedJavaMethod;
+  private ASMClassVisitor(String annotationName, ToIntFunction<Label> labelOffsets) {
+    super(Opcodes.ASM9);
+    this.methodAnnotations = new LinkedHashMap<>();
+    this.annotationName = annotationName;
+    this.labelOffsets = labelOffsets;
   }
 
   @Override
   public MethodVisitor visitMethod(
       int access, String name, String descriptor, String signature, String[] exceptions) {
-    if (name.equals(resolvedJavaMethod.getName())
-        && descriptor.equals(resolvedJavaMethod.getSignature().toMethodDescriptor())) {
-      return new ASMMethodVisitor(
-          api,
-          cv.visitMethod(access, name, descriptor, signature, exceptions),
-          parallelAnnotations);
-    }
-    return null;
+    List<ParallelAnnotationProvider> parallelAnnotations = new ArrayList<>();
+    methodAnnotations.put(methodKey(name, descriptor), parallelAnnotations);
+    return new ASMMethodVisitor(api, null, parallelAnnotations, annotationName, labelOffsets);
+  }
+
+  static String methodKey(String name, String descriptor) {
+    return name + descriptor;
+  }
+
+  /**
+   * Parses a class file and collects the local variables annotated with the given annotation in
+   * all of its methods.
+   *
+   * @param classFile Bytes of the class file.
+   * @param annotationName Fully qualified name of the annotation.
+   * @return Annotations per method. Methods without annotations are not included.
+   */
+  static Map<String, ParallelAnnotationProvider[]> readClassFile(
+      byte[] classFile, String annotationName) {
+    Map<Label, Integer> offsets = new IdentityHashMap<>();
+    ClassReader classReader =
+        new ClassReader(classFile) {
+          @Override
+          protected Label readLabel(int bytecodeOffset, Label[] labels) {
+            Label label = super.readLabel(bytecodeOffset, labels);
+            offsets.put(label, bytecodeOffset);
+            return label;
+          }
+        };
+    ASMClassVisitor visitor = new ASMClassVisitor(annotationName, offsets::get);
+    classReader.accept(visitor, ClassReader.SKIP_FRAMES);
+
+    Map<String, ParallelAnnotationProvider[]> annotatedMethods = new LinkedHashMap<>();
+    visitor.methodAnnotations.forEach(
+        (method, annotations) -> {
+          if (!annotations.isEmpty()) {
+            annotatedMethods.put(method, annotations.toArray(NO_ANNOTATIONS));
+          }
+        });
+    return annotatedMethods;
   }
 
   @Override
   public ParallelAnnotationProvider[] getParallelAnnotations(ResolvedJavaMethod method) {
-    String methodClassFile =
-        method.getDeclaringClass().getName().replaceFirst("L", "").replaceFirst(";", ".class");
-    InputStream inputStream =
-        ClassLoader.getSystemClassLoader().getResourceAsStream(methodClassFile);
-    try {
-      ClassReader classReader = new ClassReader(inputStream);
-      ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
-      ASMClassVisitor visitor = new ASMClassVisitor(Opcodes.ASM9, cw, method);
-      classReader.accept(visitor, 0);
+    Map<String, ParallelAnnotationProvider[]> annotatedMethods =
+        classAnnotations.computeIfAbsent(
+            method.getDeclaringClass(), ASMClassVisitor::loadClassAnnotations);
+    return annotatedMethods.getOrDefault(
+        methodKey(method.getName(), method.getSignature().toMethodDescriptor()), NO_ANNOTATIONS);
+  }
 
-      ParallelAnnotationProvider[] parallelAnnotation =
-          new ParallelAnnotationProvider[visitor.parallelAnnotations.size()];
-      return visitor.parallelAnnotations.toArray(parallelAnnotation);
+  private static Map<String, ParallelAnnotationProvider[]> loadClassAnnotations(
+      ResolvedJavaType type) {
+    String typeName = type.getName();
+    String internalName = typeName.substring(1, typeName.length() - 1);
+    String methodClassFile = internalName + ".class";
+    try {
+      byte[] classFile;
+      try (InputStream inputStream = getResourceAsStream(methodClassFile)) {
+        if (inputStream == null) {
+          throw new TornadoRuntimeException(
+              "[ERROR] Class reader could not be instantiated for class file: " + methodClassFile);
+        }
+        classFile = inputStream.readAllBytes();
+      }
+      if (TornadoOptions.PARALLEL_ANNOTATION_INDEX) {
+        try (InputStream index =
+            getResourceAsStream(ParallelAnnotationIndex.resourceName(internalName))) {
+          if (index != null) {
+            Map<String, ParallelAnnotationProvider[]> indexedMethods =
+                ParallelAnnotationIndex.read(index, ParallelAnnotationIndex.checksum(classFile));
+            if (indexedMethods != null) {
+              return indexedMethods;
+            }
+          }
+        }
+      }
+      return readClassFile(classFile, ASMMethodVisitor.parallelAnnotationClassPath);
     } catch (IOException e) {
-      e.printStackTrace();
       throw new TornadoRuntimeException(
           "[ERROR] Class reader could not be instantiated for class file: " + methodClassFile);
     }
   }
+
+  /**
+   * Task methods can be loaded by class loaders other than the system one (e.g., application
+   * servers), so the context class loader of the thread is searched first.
+   */
+  private static InputStream getResourceAsStream(String name) {
+    ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    if (contextClassLoader != null) {
+      InputStream inputStream = contextClassLoader.getResourceAsStream(name);
+      if (inputStream != null) {
+        return inputStream;
+      }
+    }
+    return ClassLoader.getSystemClassLoader().getResourceAsStream(name);
+  }
 }
@@ -18,6 +18,7 @@
 package uk.ac.manchester.tornado.annotation;
 
 import java.util.List;
+import java.util.function.ToIntFunction;
 import org.objectweb.asm.AnnotationVisitor;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
@@ -27,13 +28,35 @@ import uk.ac.manchester.tornado.runtime.common.ParallelAnnotationProvider;
 public class ASMMethodVisitor extends MethodVisitor {
 
   private final List<ParallelAnnotationProvider> parallelAnnotations;
+  private final String annotationName;
+  private final ToIntFunction<Label> labelOffsets;
   static String parallelAnnotationClassPath =
       System.getProperty("tornado.load.annotation.parallel");
 
   public ASMMethodVisitor(
       int api, MethodVisitor methodVisitor, List<ParallelAnnotationProvider> parallelAnnotations) {
+    this(api, methodVisitor, parallelAnnotations, parallelAnnotationClassPath, Label::getOffset);
+  }
+
+  /**
+   * Creates a visitor that collects the local variables of a method annotated with the given
+   * annotation.
+   *
+   * @param annotationName Fully qualified name of the annotation to collect.
+   * @param labelOffsets Returns the bytecode offset of a label. The offsets of the labels are only
+   *     resolved by ASM when the method is written, so readers that do not write the class provide
+   *     the offsets seen while reading it.
+   */
+  ASMMethodVisitor(
+      int api,
+      MethodVisitor methodVisitor,
+      List<ParallelAnnotationProvider> parallelAnnotations,
+      String annotationName,
+      ToIntFunction<Label> labelOffsets) {
     super(api, methodVisitor);
     this.parallelAnnotations = parallelAnnotations;
+    this.annotationName = annotationName;
+    this.labelOffsets = labelOffsets;
   }
 
   @Override
@@ -45,12 +68,13 @@ public class ASMMethodVisitor extends MethodVisitor {
       int[] index,
       String descriptor,
       boolean visible) {
-    String annotationName = descriptor.replaceFirst("L", "").replace(";", "").replace("/", ".");
+    String visitedAnnotation = descriptor.replaceFirst("L", "").replace(";", "").replace("/", ".");
 
-    if (parallelAnnotationClassPath.equals(annotationName)) {
+    if (annotationName.equals(visitedAnnotation)) {
+      int startOffset = labelOffsets.applyAsInt(start[0]);
       ParallelAnnotationProvider parallelAnnotation =
           new ParallelAnnotation(
-              start[0].getOffset(), end[0].getOffset() - start[0].getOffset(), index[0]);
+              startOffset, labelOffsets.applyAsInt(end[0]) - startOffset, index[0]);
       parallelAnnotations.add(parallelAnnotation);
     }
 
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.annotation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import uk.ac.manchester.tornado.runtime.common.ParallelAnnotationProvider;
+
+/**
+ * Compact index of the local variables annotated with {@code @Parallel} in the methods of a class.
+ * The index is emitted at compile time by {@link ParallelAnnotationIndexProcessor} and it is read
+ * by {@link ASMClassVisitor} instead of parsing the class file.
+ *
+ * <p>The first line stores the CRC32 of the class file the index was built from, so an index that
+ * does not correspond to the loaded class file is ignored. Each following line contains a method
+ * (name and descriptor) and its annotated ranges as {@code start:length:index}.
+ */
+final class ParallelAnnotationIndex {
+
+  /**
+   * Indexes are placed under META-INF, which is not a package, so they can be loaded from named
+   * modules that do not open their packages.
+   */
+  static final String INDEX_DIRECTORY = "META-INF/tornado/parallel/";
+
+  private static final String INDEX_EXTENSION = ".idx";
+  private static final String HEADER = "crc32 ";
+
+  private ParallelAnnotationIndex() {}
+
+  static String resourceName(String internalClassName) {
+    return INDEX_DIRECTORY + internalClassName + INDEX_EXTENSION;
+  }
+
+  static long checksum(byte[] classFile) {
+    CRC32 crc = new CRC32();
+    crc.update(classFile);
+    return crc.getValue();
+  }
+
+  static String write(long checksum, Map<String, ParallelAnnotationProvider[]> methods) {
+    StringBuilder index = new StringBuilder(HEADER).append(Long.toHexString(checksum)).append('\n');
+    methods.forEach(
+        (method, annotations) -> {
+          index.append(method);
+          for (ParallelAnnotationProvider annotation : annotations) {
+            index
+                .append(' ')
+                .append(annotation.getStart())
+                .append(':')
+                .append(annotation.getLength())
+                .append(':')
+                .append(annotation.getIndex());
+          }
+          index.append('\n');
+        });
+    return index.toString();
+  }
+
+  /**
+   * Reads an index.
+   *
+   * @param inputStream Contents of the index.
+   * @param checksum CRC32 of the class file loaded by the runtime.
+   * @return Annotations per method, or {@code null} if the index was built from another version of
+   *     the class file.
+   */
+  static Map<String, ParallelAnnotationProvider[]> read(InputStream inputStream, long checksum)
+      throws IOException {
+    BufferedReader reader =
+        new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    String header = reader.readLine();
+    if (header == null || !header.equals(HEADER + Long.toHexString(checksum))) {
+      return null;
+    }
+    Map<String, ParallelAnnotationProvider[]> methods = new HashMap<>();
+    for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+      String[] fields = line.split(" ");
+      ParallelAnnotationProvider[] annotations = new ParallelAnnotationProvider[fields.length - 1];
+      for (int i = 1; i < fields.length; i++) {
+        String[] range = fields[i].split(":");
+        annotations[i - 1] =
+            new ParallelAnnotation(
+                Integer.parseInt(range[0]), Integer.parseInt(range[1]), Integer.parseInt(range[2]));
+      }
+      methods.put(fields[0], annotations);
+    }
+    return methods;
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.annotation;
+
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import uk.ac.manchester.tornado.runtime.common.ParallelAnnotationProvider;
+
+/**
+ * Annotation processor that emits, for every compiled class with {@code @Parallel} loops, a {@link
+ * ParallelAnnotationIndex} with the bytecode ranges of the annotated local variables. The bytecode
+ * offsets are only known once javac has generated the class, so the processor registers a listener
+ * that reads each class file right after it is written.
+ *
+ * <p>How to use? Add the {@code tornado-annotation} jar to the annotation processor path of the
+ * project that contains the task methods. The processor is registered in META-INF/services, so it is
+ * found on {@code -processorpath} but not on {@code --processor-module-path}.
+ */
+@SupportedAnnotationTypes("*")
+public class ParallelAnnotationIndexProcessor extends AbstractProcessor implements TaskListener {
+
+  private static final String PARALLEL_ANNOTATION =
+      "uk.ac.manchester.tornado.api.annotations.Parallel";
+
+  @Override
+  public synchronized void init(ProcessingEnvironment processingEnv) {
+    super.init(processingEnv);
+    JavacTask.instance(processingEnv).addTaskListener(this);
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    // Indexes are emitted after code generation
+    return false;
+  }
+
+  @Override
+  public void finished(TaskEvent event) {
+    if (event.getKind() == TaskEvent.Kind.GENERATE && event.getTypeElement() != null) {
+      writeIndex(event.getTypeElement());
+    }
+  }
+
+  private void writeIndex(TypeElement type) {
+    PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+    if (packageElement == null) {
+      // module-info
+      return;
+    }
+    String packageName = packageElement.getQualifiedName().toString();
+    String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+    String relativeName =
+        packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+    try {
+      FileObject classFileObject =
+          processingEnv
+              .getFiler()
+              .getResource(StandardLocation.CLASS_OUTPUT, packageName, relativeName + ".class");
+      byte[] classFile;
+      try (InputStream inputStream = classFileObject.openInputStream()) {
+        classFile = inputStream.readAllBytes();
+      }
+      Map<String, ParallelAnnotationProvider[]> annotatedMethods =
+          ASMClassVisitor.readClassFile(classFile, PARALLEL_ANNOTATION);
+      if (annotatedMethods.isEmpty()) {
+        return;
+      }
+      String internalName = binaryName.replace('.', '/');
+      FileObject indexFileObject =
+          processingEnv
+              .getFiler()
+              .createResource(
+                  StandardLocation.CLASS_OUTPUT,
+                  "",
+                  ParallelAnnotationIndex.resourceName(internalName),
+                  type);
+      try (Writer writer = indexFileObject.openWriter()) {
+        writer.write(
+            ParallelAnnotationIndex.write(
+                ParallelAnnotationIndex.checksum(classFile), annotatedMethods));
+      }
+    } catch (IOException | RuntimeException e) {
+      // The runtime falls back to parsing the class file
+      processingEnv
+          .getMessager()
+          .printMessage(
+              Diagnostic.Kind.NOTE,
+              "Index of @Parallel loops not generated for " + binaryName + ": " + e.getMessage());
+    }
+  }
+}
@@ -16,6 +16,8 @@
  *
  */
 module tornado.api {
+  requires jdk.incubator.vector;
+
   exports uk.ac.manchester.tornado.api;
   exports uk.ac.manchester.tornado.api.annotations;
   exports uk.ac.manchester.tornado.api.common;
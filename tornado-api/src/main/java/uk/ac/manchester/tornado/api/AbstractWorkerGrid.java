@@ -17,12 +17,15 @@
  */
 package uk.ac.manchester.tornado.api;
 
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+
 public abstract class AbstractWorkerGrid implements WorkerGrid {
 
   protected long[] globalWork;
   protected long[] localWork;
   protected long[] numOfWorkgroups;
   protected long[] globalOffset;
+  protected int[] coarseness;
 
   protected AbstractWorkerGrid(long x, long y, long z) {
     globalWork = new long[] {x, y, z};
@@ -65,6 +68,19 @@ public abstract class AbstractWorkerGrid implements WorkerGrid {
     globalOffset = new long[] {x, y, z};
   }
 
+  @Override
+  public void setCoarseness(int x, int y, int z) {
+    if (x < 1 || y < 1 || z < 1) {
+      throw new TornadoRuntimeException("[error] The coarseness must be greater than 0");
+    }
+    coarseness = new int[] {x, y, z};
+  }
+
+  @Override
+  public int[] getCoarseness() {
+    return coarseness;
+  }
+
   private void calculateNumberOfWorkgroups() {
     numOfWorkgroups = new long[globalWork.length];
     for (int i = 0; i < globalWork.length; i++) {
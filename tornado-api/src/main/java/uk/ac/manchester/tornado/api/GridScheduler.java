@@ -19,6 +19,7 @@ package uk.ac.manchester.tornado.api;
 
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
 
 public class GridScheduler {
 
@@ -37,6 +38,23 @@ public class GridScheduler {
     gridTaskMap.put(taskName, workerGrid);
   }
 
+  /**
+   * Sets the thread-coarsening factors of the worker grid of a task.
+   *
+   * @param taskName Name of the task ({@code <task-graph>.<task>}).
+   * @param x Coarsening factor of the first dimension.
+   * @param y Coarsening factor of the second dimension.
+   * @param z Coarsening factor of the third dimension.
+   * @see WorkerGrid#setCoarseness(int, int, int)
+   */
+  public void setCoarseness(String taskName, int x, int y, int z) {
+    WorkerGrid workerGrid = gridTaskMap.get(taskName);
+    if (workerGrid == null) {
+      throw new TornadoRuntimeException("[error] No worker grid defined for task " + taskName);
+    }
+    workerGrid.setCoarseness(x, y, z);
+  }
+
   public WorkerGrid get(String taskName) {
     return gridTaskMap.get(taskName);
   }
@@ -18,6 +18,7 @@
 package uk.ac.manchester.tornado.api;
 
 import java.util.Collection;
+import java.util.Set;
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
@@ -63,6 +64,18 @@ public class ImmutableTaskGraph {
     taskGraph.freeDeviceMemory();
   }
 
+  String getTaskGraphName() {
+    return taskGraph.getTaskGraphName();
+  }
+
+  Set<String> getConsumedTaskGraphNames() {
+    return taskGraph.getConsumedTaskGraphNames();
+  }
+
+  void updateConsumedObjectStates(ImmutableTaskGraph producer) {
+    taskGraph.updateConsumedObjectStates(producer.taskGraph);
+  }
+
   void transferToHost(Object... objects) {
     taskGraph.syncRuntimeTransferToHost(objects);
   }
@@ -163,6 +176,14 @@ public class ImmutableTaskGraph {
     return taskGraph.getOutputs();
   }
 
+  Set<Object> getAccessedObjects() {
+    return taskGraph.getAccessedObjects();
+  }
+
+  Set<Object> getWrittenObjects() {
+    return taskGraph.getWrittenObjects();
+  }
+
   void enableProfiler(ProfilerMode profilerMode) {
     taskGraph.enableProfiler(profilerMode);
   }
@@ -195,6 +216,22 @@ public class ImmutableTaskGraph {
     taskGraph.withoutPrintKernel();
   }
 
+  void withShapePolymorphicKernels() {
+    taskGraph.withShapePolymorphicKernels();
+  }
+
+  void withoutShapePolymorphicKernels() {
+    taskGraph.withoutShapePolymorphicKernels();
+  }
+
+  void withSharedVirtualMemory() {
+    taskGraph.withSharedVirtualMemory();
+  }
+
+  void withoutSharedVirtualMemory() {
+    taskGraph.withoutSharedVirtualMemory();
+  }
+
   void withCompilerFlags(TornadoVMBackendType backendType, String compilerFlags) {
     taskGraph.withCompilerFlags(backendType, compilerFlags);
   }
@@ -17,6 +17,12 @@
  */
 package uk.ac.manchester.tornado.api;
 
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.LongArray;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.api.types.utils.SegmentAtomics;
+
 /**
  * Context of TornadoVM execution to exploit kernel-parallel applications, in which the parallelism
  * is implicit.
@@ -36,9 +42,18 @@ package uk.ac.manchester.tornado.api;
  *       is that the tasks within a {@link TaskGraph} that use {@link KernelContext} must be {@link
  *       GridScheduler}.
  * </ul>
+ *
+ * <p>The sub-group methods (e.g., {@link #subGroupShuffle(int, int)}) must be reached by all
+ * threads of the sub-group. In PTX, a sub-group is a warp, and the local work-group size must be a
+ * multiple of 32. When the kernel runs in Java, each thread is a sub-group of size one.
  */
 public class KernelContext implements ExecutionContext {
 
+  // Position of the first element of a native array in its segment, in elements
+  private static final long INT_BASE_INDEX = TornadoNativeArray.ARRAY_HEADER / Integer.BYTES;
+  private static final long LONG_BASE_INDEX = TornadoNativeArray.ARRAY_HEADER / Long.BYTES;
+  private static final long FLOAT_BASE_INDEX = TornadoNativeArray.ARRAY_HEADER / Float.BYTES;
+
   /**
    * It returns the thread identifier for the first dimension.
    *
@@ -165,4 +180,557 @@ public class KernelContext implements ExecutionContext {
   public double[] allocateDoubleLocalArray(int size) {
     return new double[size];
   }
+
+  /**
+   * It returns the identifier of the sub-group of the thread within its work-group. Sub-groups
+   * are known as warps in CUDA and wavefronts in AMD GPUs.
+   *
+   * <p>OpenCL equivalent: get_sub_group_id()
+   *
+   * <p>PTX equivalent: linear thread id within the block / WARP_SZ
+   */
+  public int subGroupId() {
+    return 0;
+  }
+
+  /**
+   * It returns the identifier of the thread within its sub-group.
+   *
+   * <p>OpenCL equivalent: get_sub_group_local_id()
+   *
+   * <p>PTX equivalent: linear thread id within the block % WARP_SZ
+   */
+  public int subGroupLocalId() {
+    return 0;
+  }
+
+  /**
+   * It returns the number of threads of the sub-group.
+   *
+   * <p>OpenCL equivalent: get_sub_group_size()
+   *
+   * <p>PTX equivalent: WARP_SZ
+   */
+  public int subGroupSize() {
+    return 1;
+  }
+
+  /**
+   * It returns the number of sub-groups of the work-group.
+   *
+   * <p>OpenCL equivalent: get_num_sub_groups()
+   *
+   * <p>PTX equivalent: ceil(ntid.x * ntid.y * ntid.z / WARP_SZ)
+   */
+  public int numSubGroups() {
+    return 1;
+  }
+
+  /**
+   * It returns the value of a thread of the sub-group, identified by its sub-group local id.
+   *
+   * <p>OpenCL equivalent: sub_group_shuffle or intel_sub_group_shuffle
+   *
+   * <p>PTX equivalent: shfl.sync.idx.b32
+   *
+   * @param value value of the current thread
+   * @param lane sub-group local id of the source thread
+   * @return the value of the source thread
+   */
+  public int subGroupShuffle(int value, int lane) {
+    return value;
+  }
+
+  /**
+   * It returns the value of a thread of the sub-group, identified by its sub-group local id.
+   *
+   * <p>OpenCL equivalent: sub_group_shuffle or intel_sub_group_shuffle
+   *
+   * <p>PTX equivalent: shfl.sync.idx.b32
+   *
+   * @param value value of the current thread
+   * @param lane sub-group local id of the source thread
+   * @return the value of the source thread
+   */
+  public float subGroupShuffle(float value, int lane) {
+    return value;
+  }
+
+  /**
+   * It returns the value of the thread of the sub-group whose sub-group local id is the id of
+   * the current thread xor a mask.
+   *
+   * <p>OpenCL equivalent: sub_group_shuffle_xor or intel_sub_group_shuffle_xor
+   *
+   * <p>PTX equivalent: shfl.sync.bfly.b32
+   *
+   * @param value value of the current thread
+   * @param mask mask applied to the sub-group local id
+   * @return the value of the source thread
+   */
+  public int subGroupShuffleXor(int value, int mask) {
+    return value;
+  }
+
+  /**
+   * It returns the value of the thread of the sub-group whose sub-group local id is the id of
+   * the current thread xor a mask.
+   *
+   * <p>OpenCL equivalent: sub_group_shuffle_xor or intel_sub_group_shuffle_xor
+   *
+   * <p>PTX equivalent: shfl.sync.bfly.b32
+   *
+   * @param value value of the current thread
+   * @param mask mask applied to the sub-group local id
+   * @return the value of the source thread
+   */
+  public float subGroupShuffleXor(float value, int mask) {
+    return value;
+  }
+
+  /**
+   * It returns the value of a thread of the sub-group to all threads of the sub-group. The
+   * lane must be the same for all threads of the sub-group.
+   *
+   * <p>OpenCL equivalent: sub_group_broadcast(value, lane)
+   *
+   * <p>PTX equivalent: shfl.sync.idx.b32
+   *
+   * @param value value of the current thread
+   * @param lane sub-group local id of the source thread
+   * @return the value of the source thread
+   */
+  public int subGroupBroadcast(int value, int lane) {
+    return value;
+  }
+
+  /**
+   * It returns the value of a thread of the sub-group to all threads of the sub-group. The
+   * lane must be the same for all threads of the sub-group.
+   *
+   * <p>OpenCL equivalent: sub_group_broadcast(value, lane)
+   *
+   * <p>PTX equivalent: shfl.sync.idx.b32
+   *
+   * @param value value of the current thread
+   * @param lane sub-group local id of the source thread
+   * @return the value of the source thread
+   */
+  public float subGroupBroadcast(float value, int lane) {
+    return value;
+  }
+
+  /**
+   * It returns the sum of a value over all threads of the sub-group.
+   *
+   * <p>OpenCL equivalent: sub_group_reduce_add(value)
+   *
+   * <p>PTX equivalent: butterfly reduction with shfl.sync.bfly.b32
+   *
+   * @param value value of the current thread
+   * @return the sum of the sub-group
+   */
+  public int subGroupReduceAdd(int value) {
+    return value;
+  }
+
+  /**
+   * It returns the sum of a value over all threads of the sub-group.
+   *
+   * <p>OpenCL equivalent: sub_group_reduce_add(value)
+   *
+   * <p>PTX equivalent: butterfly reduction with shfl.sync.bfly.b32
+   *
+   * @param value value of the current thread
+   * @return the sum of the sub-group
+   */
+  public float subGroupReduceAdd(float value) {
+    return value;
+  }
+
+  /**
+   * It returns the minimum of a value over all threads of the sub-group.
+   *
+   * <p>OpenCL equivalent: sub_group_reduce_min(value)
+   *
+   * <p>PTX equivalent: butterfly reduction with shfl.sync.bfly.b32
+   *
+   * @param value value of the current thread
+   * @return the minimum of the sub-group
+   */
+  public int subGroupReduceMin(int value) {
+    return value;
+  }
+
+  /**
+   * It returns the minimum of a value over all threads of the sub-group.
+   *
+   * <p>OpenCL equivalent: sub_group_reduce_min(value)
+   *
+   * <p>PTX equivalent: butterfly reduction with shfl.sync.bfly.b32
+   *
+   * @param value value of the current thread
+   * @return the minimum of the sub-group
+   */
+  public float subGroupReduceMin(float value) {
+    return value;
+  }
+
+  /**
+   * It returns the maximum of a value over all threads of the sub-group.
+   *
+   * <p>OpenCL equivalent: sub_group_reduce_max(value)
+   *
+   * <p>PTX equivalent: butterfly reduction with shfl.sync.bfly.b32
+   *
+   * @param value value of the current thread
+   * @return the maximum of the sub-group
+   */
+  public int subGroupReduceMax(int value) {
+    return value;
+  }
+
+  /**
+   * It returns the maximum of a value over all threads of the sub-group.
+   *
+   * <p>OpenCL equivalent: sub_group_reduce_max(value)
+   *
+   * <p>PTX equivalent: butterfly reduction with shfl.sync.bfly.b32
+   *
+   * @param value value of the current thread
+   * @return the maximum of the sub-group
+   */
+  public float subGroupReduceMax(float value) {
+    return value;
+  }
+
+  /**
+   * It returns the sum of a value over the threads of the sub-group with a lower or equal
+   * sub-group local id.
+   *
+   * <p>OpenCL equivalent: sub_group_scan_inclusive_add(value)
+   *
+   * <p>PTX equivalent: scan with shfl.sync.up.b32
+   *
+   * @param value value of the current thread
+   * @return the inclusive prefix sum
+   */
+  public int subGroupScanInclusiveAdd(int value) {
+    return value;
+  }
+
+  /**
+   * It returns the sum of a value over the threads of the sub-group with a lower or equal
+   * sub-group local id.
+   *
+   * <p>OpenCL equivalent: sub_group_scan_inclusive_add(value)
+   *
+   * <p>PTX equivalent: scan with shfl.sync.up.b32
+   *
+   * @param value value of the current thread
+   * @return the inclusive prefix sum
+   */
+  public float subGroupScanInclusiveAdd(float value) {
+    return value;
+  }
+
+  /**
+   * It returns the sum of a value over the threads of the sub-group with a lower sub-group
+   * local id.
+   *
+   * <p>OpenCL equivalent: sub_group_scan_exclusive_add(value)
+   *
+   * <p>PTX equivalent: scan with shfl.sync.up.b32
+   *
+   * @param value value of the current thread
+   * @return the exclusive prefix sum
+   */
+  public int subGroupScanExclusiveAdd(int value) {
+    return 0;
+  }
+
+  /**
+   * It returns the sum of a value over the threads of the sub-group with a lower sub-group
+   * local id.
+   *
+   * <p>OpenCL equivalent: sub_group_scan_exclusive_add(value)
+   *
+   * <p>PTX equivalent: scan with shfl.sync.up.b32
+   *
+   * @param value value of the current thread
+   * @return the exclusive prefix sum
+   */
+  public float subGroupScanExclusiveAdd(float value) {
+    return 0.0f;
+  }
+
+  /**
+   * It returns a mask with the bit of each thread of the sub-group whose predicate is true. Bit
+   * i of the mask corresponds to the thread with sub-group local id i.
+   *
+   * <p>OpenCL equivalent: sub_group_ballot(predicate)
+   *
+   * <p>PTX equivalent: vote.sync.ballot.b32
+   *
+   * @param predicate predicate of the current thread
+   * @return the mask of the sub-group
+   */
+  public long subGroupBallot(boolean predicate) {
+    return predicate ? 1L : 0L;
+  }
+
+  /**
+   * Atomically adds a value to an element of an {@link IntArray} in global memory.
+   *
+   * <p>OpenCL equivalent: atomic_add
+   *
+   * <p>PTX equivalent: atom.global.add
+   *
+   * @param array array in global memory
+   * @param index index of the element
+   * @param value value to add
+   * @return the value of the element before the update
+   */
+  public int atomicAdd(IntArray array, int index, int value) {
+    return SegmentAtomics.getAndAdd(array.getSegmentWithHeader(), INT_BASE_INDEX + index, value);
+  }
+
+  /**
+   * Atomically adds a value to an element of a {@link LongArray} in global memory.
+   *
+   * <p>OpenCL equivalent: atom_add
+   *
+   * <p>PTX equivalent: atom.global.add
+   *
+   * @param array array in global memory
+   * @param index index of the element
+   * @param value value to add
+   * @return the value of the element before the update
+   */
+  public long atomicAdd(LongArray array, int index, long value) {
+    return SegmentAtomics.getAndAdd(array.getSegmentWithHeader(), LONG_BASE_INDEX + index, value);
+  }
+
+  /**
+   * Atomically adds a value to an element of a {@link FloatArray} in global memory.
+   *
+   * <p>OpenCL equivalent: compare-and-exchange loop with atomic_cmpxchg
+   *
+   * <p>PTX equivalent: atom.global.add
+   *
+   * @param array array in global memory
+   * @param index index of the element
+   * @param value value to add
+   * @return the value of the element before the update
+   */
+  public float atomicAdd(FloatArray array, int index, float value) {
+    return SegmentAtomics.getAndAdd(array.getSegmentWithHeader(), FLOAT_BASE_INDEX + index, value);
+  }
+
+  /**
+   * Atomically stores the minimum of a value and an element of an {@link IntArray}
+   * in global memory.
+   *
+   * <p>OpenCL equivalent: atomic_min
+   *
+   * <p>PTX equivalent: atom.global.min
+   *
+   * @param array array in global memory
+   * @param index index of the element
+   * @param value value to compare with the element
+   * @return the value of the element before the update
+   */
+  public int atomicMin(IntArray array, int index, int value) {
+    return SegmentAtomics.getAndMin(array.getSegmentWithHeader(), INT_BASE_INDEX + index, value);
+  }
+
+  /**
+   * Atomically stores the minimum of a value and an element of a {@link LongArray}
+   * in global memory.
+   *
+   * <p>OpenCL equivalent: atom_min
+   *
+   * <p>PTX equivalent: atom.global.min
+   *
+   * @param array array in global memory
+   * @param index index of the element
+   * @param value value to compare with the element
+   * @return the value of the element before the update
+   */
+  public long atomicMin(LongArray array, int index, long value) {
+    return SegmentAtomics.getAndMin(array.getSegmentWithHeader(), LONG_BASE_INDEX + index, value);
+  }
+
+  /**
+   * Atomically stores the minimum of a value and an element of a {@link FloatArray}
+   * in global memory.
+   *
+   * <p>OpenCL equivalent: compare-and-exchange loop with atomic_cmpxchg
+   *
+   * <p>PTX equivalent: compare-and-exchange loop with atom.global.cas
+   *
+   * @param array array in global memory
+   * @param index index of the element
+   * @param value value to compare with the element
+   * @return the value of the element before the update
+   */
+  public float atomicMin(FloatArray array, int index, float value) {
+    return SegmentAtomics.getAndMin(array.getSegmentWithHeader(), FLOAT_BASE_INDEX + index, value);
+  }
+
+  /**
+   * Atomically stores the maximum of a value and an element of an {@link IntArray}
+   * in global memory.
+   *
+   * <p>OpenCL equivalent: atomic_max
+   *
+   * <p>PTX equivalent: atom.global.max
+   *
+   * @param array array in global memory
+   * @param index index of the element
+   * @param value value to compare with the element
+   * @return the value of the element before the update
+   */
+  public int atomicMax(IntArray array, int index, int value) {
+    return SegmentAtomics.getAndMax(array.getSegmentWithHeader(), INT_BASE_INDEX + index, value);
+  }
+
+  /**
+   * Atomically stores the maximum of a value and an element of a {@link LongArray}
+   * in global memory.
+   *
+   * <p>OpenCL equivalent: atom_max
+   *
+   * <p>PTX equivalent: atom.global.max
+   *
+   * @param array array in global memory
+   * @param index index of the element
+   * @param value value to compare with the element
+   * @return the value of the element before the update
+   */
+  public long atomicMax(LongArray array, int index, long value) {
+    return SegmentAtomics.getAndMax(array.getSegmentWithHeader(), LONG_BASE_INDEX + index, value);
+  }
+
+  /**
+   * Atomically stores the maximum of a value and an element of a {@link FloatArray}
+   * in global memory.
+   *
+   * <p>OpenCL equivalent: compare-and-exchange loop with atomic_cmpxchg
+   *
+   * <p>PTX equivalent: compare-and-exchange loop with atom.global.cas
+   *
+   * @param array array in global memory
+   * @param index index of the element
+   * @param value value to compare with the element
+   * @return the value of the element before the update
+   */
+  public float atomicMax(FloatArray array, int index, float value) {
+    return SegmentAtomics.getAndMax(array.getSegmentWithHeader(), FLOAT_BASE_INDEX + index, value);
+  }
+
+  /**
+   * Atomically replaces an element of an {@link IntArray} in global memory with a value.
+   *
+   * <p>OpenCL equivalent: atomic_xchg
+   *
+   * <p>PTX equivalent: atom.global.exch
+   *
+   * @param array array in global memory
+   * @param index index of the element
+   * @param value new value of the element
+   * @return the value of the element before the update
+   */
+  public int atomicExchange(IntArray array, int index, int value) {
+    return SegmentAtomics.getAndSet(array.getSegmentWithHeader(), INT_BASE_INDEX + index, value);
+  }
+
+  /**
+   * Atomically replaces an element of a {@link LongArray} in global memory with a value.
+   *
+   * <p>OpenCL equivalent: atom_xchg
+   *
+   * <p>PTX equivalent: atom.global.exch
+   *
+   * @param array array in global memory
+   * @param index index of the element
+   * @param value new value of the element
+   * @return the value of the element before the update
+   */
+  public long atomicExchange(LongArray array, int index, long value) {
+    return SegmentAtomics.getAndSet(array.getSegmentWithHeader(), LONG_BASE_INDEX + index, value);
+  }
+
+  /**
+   * Atomically replaces an element of a {@link FloatArray} in global memory with a value.
+   *
+   * <p>OpenCL equivalent: atomic_xchg
+   *
+   * <p>PTX equivalent: atom.global.exch
+   *
+   * @param array array in global memory
+   * @param index index of the element
+   * @param value new value of the element
+   * @return the value of the element before the update
+   */
+  public float atomicExchange(FloatArray array, int index, float value) {
+    return SegmentAtomics.getAndSet(array.getSegmentWithHeader(), FLOAT_BASE_INDEX + index, value);
+  }
+
+  /**
+   * Atomically replaces an element of an {@link IntArray} in global memory with a new value if the
+   * element is equal to an expected value.
+   *
+   * <p>OpenCL equivalent: atomic_cmpxchg
+   *
+   * <p>PTX equivalent: atom.global.cas
+   *
+   * @param array array in global memory
+   * @param index index of the element
+   * @param expected expected value of the element
+   * @param value new value of the element
+   * @return the value of the element before the operation
+   */
+  public int atomicCompareAndExchange(IntArray array, int index, int expected, int value) {
+    return SegmentAtomics.compareAndExchange(
+        array.getSegmentWithHeader(), INT_BASE_INDEX + index, expected, value);
+  }
+
+  /**
+   * Atomically replaces an element of a {@link LongArray} in global memory with a new value if the
+   * element is equal to an expected value.
+   *
+   * <p>OpenCL equivalent: atom_cmpxchg
+   *
+   * <p>PTX equivalent: atom.global.cas
+   *
+   * @param array array in global memory
+   * @param index index of the element
+   * @param expected expected value of the element
+   * @param value new value of the element
+   * @return the value of the element before the operation
+   */
+  public long atomicCompareAndExchange(LongArray array, int index, long expected, long value) {
+    return SegmentAtomics.compareAndExchange(
+        array.getSegmentWithHeader(), LONG_BASE_INDEX + index, expected, value);
+  }
+
+  /**
+   * Atomically replaces an element of a {@link FloatArray} in global memory with a new value if the
+   * element is equal to an expected value. The values are compared by their bit patterns.
+   *
+   * <p>OpenCL equivalent: atomic_cmpxchg
+   *
+   * <p>PTX equivalent: atom.global.cas
+   *
+   * @param array array in global memory
+   * @param index index of the element
+   * @param expected expected value of the element
+   * @param value new value of the element
+   * @return the value of the element before the operation
+   */
+  public float atomicCompareAndExchange(FloatArray array, int index, float expected, float value) {
+    return SegmentAtomics.compareAndExchange(
+        array.getSegmentWithHeader(), FLOAT_BASE_INDEX + index, expected, value);
+  }
 }
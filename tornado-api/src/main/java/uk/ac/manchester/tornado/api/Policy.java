@@ -50,7 +50,19 @@ public enum Policy {
    * provide a faster answer on which device is the most suitable for the task without waiting for
    * all executions to finish.
    */
-  LATENCY("Latency");
+  LATENCY("Latency"), //
+
+  /**
+   * Select the device with a static cost model instead of running the task-graph on every device.
+   * The TornadoVM runtime combines the code features extracted from the kernel sketches (arithmetic
+   * operations, memory accesses and loops), the input sizes and the device properties (compute
+   * units, clock frequency and memory bandwidth) to predict the execution time on each reachable
+   * device before the first execution. Every execution is timed and the observed time is used to
+   * refine the prediction, so the runtime may migrate the task-graph if the model was wrong.
+   *
+   * <p>This policy ignores the {@link DRMode}, since only the predicted device runs the code.
+   */
+  COST_MODEL("Cost_Model");
 
   private final String policyName;
 
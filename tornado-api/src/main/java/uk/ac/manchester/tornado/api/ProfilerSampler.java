@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api;
+
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan.TornadoExecutor;
+import uk.ac.manchester.tornado.api.profiler.ProfilerSampling;
+
+/**
+ * Decides which executions of an execution plan are profiled, following a {@link
+ * ProfilerSampling} policy, and accumulates the timers of the sampled executions.
+ */
+class ProfilerSampler {
+
+  private final ProfilerSampling sampling;
+
+  private long executionCount;
+  private long sampleCount;
+  private long lastSampleNanos;
+
+  private long totalTime;
+  private long deviceKernelTime;
+  private long dataTransfersTime;
+  private long deviceWriteTime;
+  private long deviceReadTime;
+  private long kernelDispatchTime;
+  private long dataTransferDispatchTime;
+  private long totalBytesCopyIn;
+  private long totalBytesCopyOut;
+
+  ProfilerSampler(ProfilerSampling sampling) {
+    this.sampling = sampling;
+  }
+
+  /**
+   * Counts a new execution and decides whether it runs with the profiler.
+   *
+   * @return true if the execution has to be profiled.
+   */
+  synchronized boolean sampleNextExecution() {
+    long execution = executionCount++;
+    if (sampling.getPeriod() > 0) {
+      return execution % sampling.getPeriod() == 0;
+    }
+    long now = System.nanoTime();
+    if (execution == 0 || now - lastSampleNanos >= sampling.getIntervalNanos()) {
+      lastSampleNanos = now;
+      return true;
+    }
+    return false;
+  }
+
+  /** Adds the timers of a profiled execution to the aggregates. */
+  synchronized void record(TornadoExecutor executor) {
+    sampleCount++;
+    totalTime += executor.getTotalTime();
+    deviceKernelTime += executor.getDeviceKernelTime();
+    dataTransfersTime += executor.getDataTransfersTime();
+    deviceWriteTime += executor.getDeviceWriteTime();
+    deviceReadTime += executor.getDeviceReadTime();
+    kernelDispatchTime += executor.getKernelDispatchTime();
+    dataTransferDispatchTime += executor.getDataTransferDispatchTime();
+    totalBytesCopyIn += executor.getTotalBytesCopyIn();
+    totalBytesCopyOut += executor.getTotalBytesCopyOut();
+  }
+
+  synchronized long getExecutionCount() {
+    return executionCount;
+  }
+
+  synchronized long getSampleCount() {
+    return sampleCount;
+  }
+
+  synchronized long getTotalTime() {
+    return totalTime;
+  }
+
+  synchronized long getDeviceKernelTime() {
+    return deviceKernelTime;
+  }
+
+  synchronized long getDataTransfersTime() {
+    return dataTransfersTime;
+  }
+
+  synchronized long getDeviceWriteTime() {
+    return deviceWriteTime;
+  }
+
+  synchronized long getDeviceReadTime() {
+    return deviceReadTime;
+  }
+
+  synchronized long getKernelDispatchTime() {
+    return kernelDispatchTime;
+  }
+
+  synchronized long getDataTransferDispatchTime() {
+    return dataTransferDispatchTime;
+  }
+
+  synchronized long getTotalBytesCopyIn() {
+    return totalBytesCopyIn;
+  }
+
+  synchronized long getTotalBytesCopyOut() {
+    return totalBytesCopyOut;
+  }
+}
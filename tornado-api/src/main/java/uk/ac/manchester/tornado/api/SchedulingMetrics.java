@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api;
+
+/**
+ * Queueing metrics of an execution plan in the device schedulers. They are accumulated from the
+ * first scheduled execution until the device memory of the plan is freed (e.g., when the plan is
+ * closed).
+ *
+ * @see SchedulingPolicy
+ * @since 1.0.8
+ */
+public final class SchedulingMetrics {
+
+  /** Metrics of a plan that has not been scheduled. */
+  public static final SchedulingMetrics EMPTY = new SchedulingMetrics(0, 0, 0, 0, 0, 0);
+
+  private final long dispatches;
+  private final long queuedDispatches;
+  private final long queueingDelayNanos;
+  private final long maxQueueingDelayNanos;
+  private final long admissionDelayNanos;
+  private final long drains;
+
+  public SchedulingMetrics(
+      long dispatches,
+      long queuedDispatches,
+      long queueingDelayNanos,
+      long maxQueueingDelayNanos,
+      long admissionDelayNanos,
+      long drains) {
+    this.dispatches = dispatches;
+    this.queuedDispatches = queuedDispatches;
+    this.queueingDelayNanos = queueingDelayNanos;
+    this.maxQueueingDelayNanos = maxQueueingDelayNanos;
+    this.admissionDelayNanos = admissionDelayNanos;
+    this.drains = drains;
+  }
+
+  /**
+   * @return the number of launches and transfers dispatched through the scheduler.
+   */
+  public long getDispatches() {
+    return dispatches;
+  }
+
+  /**
+   * @return the number of dispatches that waited because the device was saturated.
+   */
+  public long getQueuedDispatches() {
+    return queuedDispatches;
+  }
+
+  /**
+   * @return the total time in nanoseconds that the dispatches waited for the device.
+   */
+  public long getQueueingDelayNanos() {
+    return queueingDelayNanos;
+  }
+
+  /**
+   * @return the longest time in nanoseconds that a dispatch waited for the device.
+   */
+  public long getMaxQueueingDelayNanos() {
+    return maxQueueingDelayNanos;
+  }
+
+  /**
+   * @return the mean time in nanoseconds that a dispatch waited for the device.
+   */
+  public double getMeanQueueingDelayNanos() {
+    return dispatches == 0 ? 0 : (double) queueingDelayNanos / dispatches;
+  }
+
+  /**
+   * @return the total time in nanoseconds that the executions waited for device memory.
+   */
+  public long getAdmissionDelayNanos() {
+    return admissionDelayNanos;
+  }
+
+  /**
+   * @return the number of times the plan waited for its own commands in flight before dispatching.
+   */
+  public long getDrains() {
+    return drains;
+  }
+
+  /**
+   * Adds the metrics of two schedulers.
+   *
+   * @param other {@link SchedulingMetrics}
+   * @return a new {@link SchedulingMetrics}
+   */
+  public SchedulingMetrics add(SchedulingMetrics other) {
+    return new SchedulingMetrics(
+        dispatches + other.dispatches,
+        queuedDispatches + other.queuedDispatches,
+        queueingDelayNanos + other.queueingDelayNanos,
+        Math.max(maxQueueingDelayNanos, other.maxQueueingDelayNanos),
+        admissionDelayNanos + other.admissionDelayNanos,
+        drains + other.drains);
+  }
+
+  @Override
+  public String toString() {
+    return "SchedulingMetrics[dispatches="
+        + dispatches
+        + ", queued="
+        + queuedDispatches
+        + ", queueingDelay="
+        + queueingDelayNanos
+        + " ns, maxQueueingDelay="
+        + maxQueueingDelayNanos
+        + " ns, admissionDelay="
+        + admissionDelayNanos
+        + " ns, drains="
+        + drains
+        + "]";
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api;
+
+import java.time.Duration;
+import uk.ac.manchester.tornado.api.enums.PriorityClass;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+
+/**
+ * Policy to share a device between execution plans. The launches and data transfers of all plans
+ * that use the policy, or all plans when the {@code tornado.device.scheduler} option is enabled, go
+ * through a scheduler per device:
+ *
+ * <ul>
+ *   <li>Plans of a higher {@link PriorityClass} are dispatched first when the device is saturated.
+ *   <li>Plans within the same class are served by weighted fair queuing. Launches cost one unit and
+ *       transfers one unit per started MB.
+ *   <li>A plan never has more than {@link #getMaxInFlight()} commands in flight. When the limit is
+ *       reached, the plan waits for its previous commands before dispatching new ones.
+ *   <li>A plan is admitted on the device only if its data fits in the device memory left by the
+ *       other plans. It waits up to {@link #getAdmissionTimeout()} for the memory to be released.
+ * </ul>
+ *
+ * <p>Example: <code>
+ * executionPlan.withSchedulingPolicy(SchedulingPolicy.of(PriorityClass.BATCH).withMaxInFlight(8));
+ * </code>
+ *
+ * @since 1.0.8
+ */
+public final class SchedulingPolicy {
+
+  /** Policy of the plans that do not set one. */
+  public static final SchedulingPolicy DEFAULT = of(PriorityClass.NORMAL);
+
+  private final PriorityClass priorityClass;
+  private final int weight;
+  private final int maxInFlight;
+  private final long admissionTimeoutNanos;
+
+  private SchedulingPolicy(
+      PriorityClass priorityClass, int weight, int maxInFlight, long admissionTimeoutNanos) {
+    this.priorityClass = priorityClass;
+    this.weight = weight;
+    this.maxInFlight = maxInFlight;
+    this.admissionTimeoutNanos = admissionTimeoutNanos;
+  }
+
+  /**
+   * Creates a policy with weight 1, no limit of commands in flight and no admission timeout.
+   *
+   * @param priorityClass {@link PriorityClass} of the plan.
+   * @return {@link SchedulingPolicy}
+   */
+  public static SchedulingPolicy of(PriorityClass priorityClass) {
+    return new SchedulingPolicy(priorityClass, 1, 0, 0);
+  }
+
+  /**
+   * Sets the share of the device of the plan relative to the other plans of the same class. A plan
+   * with weight 2 dispatches twice as much work as a plan with weight 1 when both are waiting.
+   *
+   * @param weight positive weight.
+   * @return a new {@link SchedulingPolicy}
+   */
+  public SchedulingPolicy withWeight(int weight) {
+    if (weight < 1) {
+      throw new TornadoRuntimeException(
+          "[ERROR] The scheduling weight must be at least 1: " + weight);
+    }
+    return new SchedulingPolicy(priorityClass, weight, maxInFlight, admissionTimeoutNanos);
+  }
+
+  /**
+   * Sets the maximum number of launches and transfers of the plan that can be in flight on the
+   * device.
+   *
+   * @param maxInFlight maximum number of commands, or 0 for no limit.
+   * @return a new {@link SchedulingPolicy}
+   */
+  public SchedulingPolicy withMaxInFlight(int maxInFlight) {
+    if (maxInFlight < 0) {
+      throw new TornadoRuntimeException(
+          "[ERROR] The maximum number of commands in flight cannot be negative: " + maxInFlight);
+    }
+    return new SchedulingPolicy(priorityClass, weight, maxInFlight, admissionTimeoutNanos);
+  }
+
+  /**
+   * Sets how long an execution waits for device memory before it fails with a {@link
+   * uk.ac.manchester.tornado.api.exceptions.TornadoMemoryException}.
+   *
+   * @param timeout maximum waiting time. A zero duration fails immediately.
+   * @return a new {@link SchedulingPolicy}
+   */
+  public SchedulingPolicy withAdmissionTimeout(Duration timeout) {
+    if (timeout.isNegative()) {
+      throw new TornadoRuntimeException(
+          "[ERROR] The admission timeout cannot be negative: " + timeout);
+    }
+    return new SchedulingPolicy(priorityClass, weight, maxInFlight, timeout.toNanos());
+  }
+
+  public PriorityClass getPriorityClass() {
+    return priorityClass;
+  }
+
+  public int getWeight() {
+    return weight;
+  }
+
+  /**
+   * @return the maximum number of commands in flight, or 0 if there is no limit.
+   */
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  public Duration getAdmissionTimeout() {
+    return Duration.ofNanos(admissionTimeoutNanos);
+  }
+
+  @Override
+  public String toString() {
+    return "SchedulingPolicy[class="
+        + priorityClass
+        + ", weight="
+        + weight
+        + ", maxInFlight="
+        + maxInFlight
+        + ", admissionTimeout="
+        + getAdmissionTimeout()
+        + "]";
+  }
+}
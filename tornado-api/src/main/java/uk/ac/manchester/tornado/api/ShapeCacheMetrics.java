@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api;
+
+/**
+ * Counters of the shape-polymorphic kernel cache of a device. They are accumulated from the start
+ * of the application, or since the code cache of the device was last reset.
+ *
+ * @see TornadoExecutionPlan#withShapePolymorphicKernels()
+ * @since 1.0.8
+ */
+public final class ShapeCacheMetrics {
+
+  /** Metrics of a device without a shape-polymorphic kernel cache. */
+  public static final ShapeCacheMetrics EMPTY = new ShapeCacheMetrics(0, 0, 0);
+
+  private final int compilations;
+  private final int genericHits;
+  private final int specialisedHits;
+
+  public ShapeCacheMetrics(int compilations, int genericHits, int specialisedHits) {
+    this.compilations = compilations;
+    this.genericHits = genericHits;
+    this.specialisedHits = specialisedHits;
+  }
+
+  /**
+   * @return the number of compilations (size-generic and specialised) performed through the cache.
+   */
+  public int getCompilations() {
+    return compilations;
+  }
+
+  /**
+   * @return the number of launches served by a size-generic kernel without compilation.
+   */
+  public int getGenericHits() {
+    return genericHits;
+  }
+
+  /**
+   * @return the number of launches served by a kernel specialised for a hot shape.
+   */
+  public int getSpecialisedHits() {
+    return specialisedHits;
+  }
+
+  @Override
+  public String toString() {
+    return "ShapeCacheMetrics[compilations="
+        + compilations
+        + ", genericHits="
+        + genericHits
+        + ", specialisedHits="
+        + specialisedHits
+        + "]";
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api;
+
+/**
+ * One entry of the ring of a {@link TornadoStreamingPlan}. A slot owns a set of host objects and
+ * an immutable task-graph that computes on them. Each slot runs in its own execution plan, so the
+ * device buffers of different slots are independent and consecutive items of the stream can be
+ * transferred and computed concurrently.
+ *
+ * <p>Since every item brings new input data, the task-graph of a slot should transfer its inputs
+ * and outputs with {@link uk.ac.manchester.tornado.api.enums.DataTransferMode#EVERY_EXECUTION}.
+ * The name of the task-graph should include the index of the slot, so the task-graphs of the ring
+ * are distinct.
+ *
+ * @param <T> Type of the items of the stream.
+ * @param <R> Type of the results.
+ * @since 1.0.8
+ */
+public interface StreamSlot<T, R> {
+
+  /**
+   * Returns the task-graph of the slot. It is called once, when the streaming plan is created.
+   *
+   * @return {@link ImmutableTaskGraph}
+   */
+  ImmutableTaskGraph getTaskGraph();
+
+  /**
+   * Copies an item of the stream into the host objects of the slot. It is called from a thread of
+   * the streaming plan before the task-graph is executed.
+   *
+   * @param item Item of the stream.
+   */
+  void load(T item);
+
+  /**
+   * Builds the result of the last item from the host objects of the slot, after the task-graph has
+   * been executed. The slot is not reused until the result has been delivered, so a result may
+   * refer to the host objects of the slot until then.
+   *
+   * @return the result of the last item.
+   */
+  R getResult();
+}
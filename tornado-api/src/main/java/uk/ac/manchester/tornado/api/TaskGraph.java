@@ -680,6 +680,35 @@ public class TaskGraph implements TaskGraphInterface {
     return this;
   }
 
+  /**
+   * Tag a set of objects (Java objects) to be kept on the device after the execution of the
+   * task-graph, so a later task-graph of the same execution plan can consume them without a copy
+   * to the host.
+   *
+   * @param objects List of Java objects (usually arrays) to be kept on the device.
+   * @return {@link TaskGraph}
+   */
+  @Override
+  public TaskGraph persistOnDevice(Object... objects) {
+    taskGraphImpl.persistOnDevice(objects);
+    return this;
+  }
+
+  /**
+   * Tag a set of objects (Java objects) that a previous task-graph of the same execution plan
+   * persisted on the device. The device buffers are shared with that task-graph, so no data is
+   * transferred from the host. Both task-graphs must run on the same device.
+   *
+   * @param taskGraphName Name of the task-graph that persisted the objects.
+   * @param objects List of Java objects (usually arrays) to be consumed from the device.
+   * @return {@link TaskGraph}
+   */
+  @Override
+  public TaskGraph consumeFromDevice(String taskGraphName, Object... objects) {
+    taskGraphImpl.consumeFromDevice(taskGraphName, objects);
+    return this;
+  }
+
   /**
    * Function that closes a task-graph definition and creates an immutable task-graph ready for
    * execution.
@@ -709,6 +738,14 @@ public class TaskGraph implements TaskGraphInterface {
     taskGraphImpl.setDevice(device);
   }
 
+  Set<String> getConsumedTaskGraphNames() {
+    return taskGraphImpl.getConsumedTaskGraphNames();
+  }
+
+  void updateConsumedObjectStates(TaskGraph producerTaskGraph) {
+    taskGraphImpl.updateConsumedObjectStates(producerTaskGraph.taskGraphImpl);
+  }
+
   void withDevice(String taskName, TornadoDevice device) {
     taskGraphImpl.setDevice(taskName, device);
   }
@@ -765,6 +802,14 @@ public class TaskGraph implements TaskGraphInterface {
     return taskGraphImpl.getArgumentsLookup();
   }
 
+  Set<Object> getAccessedObjects() {
+    return taskGraphImpl.getAccessedObjects();
+  }
+
+  Set<Object> getWrittenObjects() {
+    return taskGraphImpl.getWrittenObjects();
+  }
+
   // *************************************************
   // Profiler Interface
   // *************************************************
@@ -856,6 +901,22 @@ public class TaskGraph implements TaskGraphInterface {
     taskGraphImpl.withoutPrintKernel();
   }
 
+  void withShapePolymorphicKernels() {
+    taskGraphImpl.withShapePolymorphicKernels();
+  }
+
+  void withoutShapePolymorphicKernels() {
+    taskGraphImpl.withoutShapePolymorphicKernels();
+  }
+
+  void withSharedVirtualMemory() {
+    taskGraphImpl.withSharedVirtualMemory();
+  }
+
+  void withoutSharedVirtualMemory() {
+    taskGraphImpl.withoutSharedVirtualMemory();
+  }
+
   void withCompilerFlags(TornadoVMBackendType backendType, String compilerFlags) {
     taskGraphImpl.withCompilerFlags(backendType, compilerFlags);
   }
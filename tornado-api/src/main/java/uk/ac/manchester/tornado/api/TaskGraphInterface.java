@@ -491,6 +491,27 @@ public interface TaskGraphInterface {
    */
   TaskGraphInterface transferToHost(int mode, Object... objects);
 
+  /**
+   * Tag a set of objects (Java objects) to be kept on the device after the execution of the
+   * task-graph. Persisted objects can be consumed, without a copy to the host, by a later task-graph
+   * of the same execution plan that runs on the same device (see {@link #consumeFromDevice}).
+   *
+   * @param objects List of Java objects (usually arrays) to be kept on the device.
+   * @return {@link TaskGraphInterface}
+   */
+  TaskGraphInterface persistOnDevice(Object... objects);
+
+  /**
+   * Tag a set of objects (Java objects) that are already present on the device because a previous
+   * task-graph of the same execution plan persisted them (see {@link #persistOnDevice}). The device
+   * buffers are shared with that task-graph and no data is transferred from the host.
+   *
+   * @param taskGraphName Name of the task-graph that persisted the objects.
+   * @param objects List of Java objects (usually arrays) to be consumed from the device.
+   * @return {@link TaskGraphInterface}
+   */
+  TaskGraphInterface consumeFromDevice(String taskGraphName, Object... objects);
+
   /**
    * Function that closes a task-graph definition and creates an immutable task-graph ready for
    * execution.
@@ -20,13 +20,20 @@ package uk.ac.manchester.tornado.api;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.profiler.ProfilerSampling;
 import uk.ac.manchester.tornado.api.runtime.ExecutorFrame;
 import uk.ac.manchester.tornado.api.runtime.TornadoRuntimeProvider;
 
@@ -50,6 +57,7 @@ public class TornadoExecutionPlan implements AutoCloseable {
   private final TornadoExecutor tornadoExecutor;
   private ProfilerMode profilerMode;
   private boolean disableProfiler;
+  private ProfilerSampler profilerSampler;
   private static final AtomicLong globalExecutionPlanCounter = new AtomicLong(0);
   private final ExecutorFrame executionPackage;
 
@@ -80,6 +88,21 @@ public class TornadoExecutionPlan implements AutoCloseable {
         .getDevice(deviceIndex);
   }
 
+  /**
+   * Creates a streaming plan that runs the task-graph of a {@link StreamSlot} for every item of a
+   * stream. The plan keeps a ring of {@code ringSize} slots to overlap the data transfers and the
+   * computation of consecutive items.
+   *
+   * @param ringSize Number of slots, that is, the maximum number of items in flight.
+   * @param slotFactory Function that creates the slot with the given index.
+   * @since 1.0.8
+   * @return {@link TornadoStreamingPlan}
+   */
+  public static <T, R> TornadoStreamingPlan<T, R> streaming(
+      int ringSize, IntFunction<? extends StreamSlot<T, R>> slotFactory) {
+    return new TornadoStreamingPlan<>(ringSize, slotFactory);
+  }
+
   /**
    * Method to return the total number of execution plans instantiated in a single JVM instance.
    *
@@ -107,13 +130,23 @@ public class TornadoExecutionPlan implements AutoCloseable {
    * @return {@link TornadoExecutionPlan}
    */
   public TornadoExecutionResult execute() {
+    ProfilerSampler sampler = this.profilerSampler;
+    boolean sampled = sampler == null || sampler.sampleNextExecution();
     checkProfilerEnabled();
-    tornadoExecutor.execute(executionPackage);
-    return new TornadoExecutionResult(new TornadoProfilerResult(tornadoExecutor));
+    tornadoExecutor.execute(executionPackage.withProfilerSampled(sampled));
+    if (sampler != null && sampled && isProfilerActive()) {
+      sampler.record(tornadoExecutor);
+    }
+    return new TornadoExecutionResult(
+        new TornadoProfilerResult(tornadoExecutor, sampler, sampled && isProfilerActive()));
+  }
+
+  private boolean isProfilerActive() {
+    return this.profilerMode != null && !this.disableProfiler;
   }
 
   private void checkProfilerEnabled() {
-    if (this.profilerMode != null && !this.disableProfiler) {
+    if (isProfilerActive()) {
       tornadoExecutor.enableProfiler(profilerMode);
     } else if (this.profilerMode != null) {
       tornadoExecutor.disableProfiler(profilerMode);
@@ -178,6 +211,34 @@ public class TornadoExecutionPlan implements AutoCloseable {
     return this;
   }
 
+  /**
+   * It enables independent immutable task-graphs of the execution plan to run concurrently. Two
+   * task-graphs depend on each other when one of them writes an object that the other one accesses,
+   * or when one consumes objects persisted on the device by the other. The TornadoVM runtime infers
+   * these dependencies from the arguments and the access modes of the tasks. Dependent task-graphs
+   * keep the order in which they were passed to the plan, while independent task-graphs run in
+   * separate threads, and thus, on separate command queues of the same device or on different
+   * devices. The call to {@link TornadoExecutionPlan#execute} returns when all task-graphs have
+   * finished.
+   *
+   * @return {@link TornadoExecutionPlan}
+   */
+  public TornadoExecutionPlan withConcurrentTaskGraphs() {
+    tornadoExecutor.withConcurrentTaskGraphs();
+    return this;
+  }
+
+  /**
+   * It disables the concurrent execution of independent immutable task-graphs. Task-graphs are
+   * executed one after another in the order in which they were passed to the plan.
+   *
+   * @return {@link TornadoExecutionPlan}
+   */
+  public TornadoExecutionPlan withoutConcurrentTaskGraphs() {
+    tornadoExecutor.withoutConcurrentTaskGraphs();
+    return this;
+  }
+
   /**
    * It obtains the device for a specific immutable task-graph. Note that, ideally, different task
    * immutable task-graph could be executed on different devices.
@@ -262,6 +323,25 @@ public class TornadoExecutionPlan implements AutoCloseable {
    */
   public TornadoExecutionPlan withProfiler(ProfilerMode profilerMode) {
     this.profilerMode = profilerMode;
+    this.profilerSampler = null;
+    disableProfiler = false;
+    return this;
+  }
+
+  /**
+   * Enables the profiler only for a sample of the executions of the plan. The rest of executions
+   * run without the profiler, and therefore without querying device timestamps. The timers of the
+   * sampled executions are accumulated and can be queried with {@link
+   * TornadoProfilerResult#getSampleCount()} and the {@code getSampled*} methods.
+   *
+   * @param profilerMode {@link ProfilerMode}
+   * @param sampling {@link ProfilerSampling} policy.
+   * @since 1.0.8
+   * @return {@link TornadoExecutionPlan}
+   */
+  public TornadoExecutionPlan withProfiler(ProfilerMode profilerMode, ProfilerSampling sampling) {
+    this.profilerMode = profilerMode;
+    this.profilerSampler = new ProfilerSampler(sampling);
     disableProfiler = false;
     return this;
   }
@@ -302,6 +382,43 @@ public class TornadoExecutionPlan implements AutoCloseable {
     return this;
   }
 
+  /**
+   * Shares the devices of this execution plan with the other plans through a device scheduler. The
+   * launches and data transfers are dispatched according to the priority class, the weight and the
+   * limit of commands in flight of the policy, and each execution is admitted only if its data fits
+   * in the device memory left by the other plans.
+   *
+   * @param schedulingPolicy {@link SchedulingPolicy}
+   * @since 1.0.8
+   * @return {@link TornadoExecutionPlan}
+   */
+  public TornadoExecutionPlan withSchedulingPolicy(SchedulingPolicy schedulingPolicy) {
+    executionPackage.withSchedulingPolicy(schedulingPolicy);
+    return this;
+  }
+
+  /**
+   * Removes the scheduling policy of the execution plan. The plan is only scheduled with the
+   * default policy if the {@code tornado.device.scheduler} option is enabled.
+   *
+   * @since 1.0.8
+   * @return {@link TornadoExecutionPlan}
+   */
+  public TornadoExecutionPlan withoutSchedulingPolicy() {
+    executionPackage.withSchedulingPolicy(null);
+    return this;
+  }
+
+  /**
+   * It returns the queueing metrics of the execution plan in the device schedulers.
+   *
+   * @since 1.0.8
+   * @return {@link SchedulingMetrics}
+   */
+  public SchedulingMetrics getSchedulingMetrics() {
+    return TornadoRuntimeProvider.getTornadoRuntime().getSchedulingMetrics(getId());
+  }
+
   /**
    * Reset the execution context for the current execution plan. The TornadoVM runtime system will
    * clean the code cache and all events associated with the current execution. It resets the
@@ -378,6 +495,60 @@ public class TornadoExecutionPlan implements AutoCloseable {
     return this;
   }
 
+  /**
+   * Compile size-generic (shape-polymorphic) kernels for all tasks in the execution plan. Array
+   * sizes and scalar parameters are passed as kernel arguments instead of being specialised as
+   * constants, so the same kernel can be reused when the input sizes change. Shapes that are
+   * executed frequently get their own specialised kernel variant, which is kept in a small
+   * per-task cache.
+   *
+   * @since 1.0.8
+   * @return {@link TornadoExecutionPlan}
+   */
+  public TornadoExecutionPlan withShapePolymorphicKernels() {
+    tornadoExecutor.withShapePolymorphicKernels();
+    return this;
+  }
+
+  /**
+   * Disable the compilation of shape-polymorphic kernels. Kernels are specialised with the sizes
+   * of the input arguments (default).
+   *
+   * @since 1.0.8
+   * @return {@link TornadoExecutionPlan}
+   */
+  public TornadoExecutionPlan withoutShapePolymorphicKernels() {
+    tornadoExecutor.withoutShapePolymorphicKernels();
+    return this;
+  }
+
+  /**
+   * Let devices with fine-grained system shared virtual memory (OpenCL 2.0, e.g., CPU OpenCL
+   * runtimes) access the off-heap data types (e.g., {@link
+   * uk.ac.manchester.tornado.api.types.arrays.FloatArray}) in place. Kernels receive the host
+   * pointers, and data transfers become synchronization points. Since the device reads the host
+   * memory directly, updates to the host data are visible to the kernels even for {@code
+   * FIRST_EXECUTION} transfers. Devices without this capability keep using device buffers.
+   *
+   * @since 1.0.8
+   * @return {@link TornadoExecutionPlan}
+   */
+  public TornadoExecutionPlan withSharedVirtualMemory() {
+    tornadoExecutor.withSharedVirtualMemory();
+    return this;
+  }
+
+  /**
+   * Use device buffers and copies for all data (default).
+   *
+   * @since 1.0.8
+   * @return {@link TornadoExecutionPlan}
+   */
+  public TornadoExecutionPlan withoutSharedVirtualMemory() {
+    tornadoExecutor.withoutSharedVirtualMemory();
+    return this;
+  }
+
   /**
    * Set compiler flags for each backend.
    *
@@ -399,6 +570,7 @@ public class TornadoExecutionPlan implements AutoCloseable {
   @Override
   public void close() throws TornadoExecutionPlanException {
     tornadoExecutor.freeDeviceMemory();
+    tornadoExecutor.withoutConcurrentTaskGraphs();
   }
 
   /**
@@ -412,16 +584,215 @@ public class TornadoExecutionPlan implements AutoCloseable {
 
   static class TornadoExecutor {
 
+    /**
+     * Identifiers for the task-graphs that run concurrently. They are negative, so they never
+     * collide with the identifiers of the execution plans.
+     */
+    private static final AtomicLong globalTaskGraphIdCounter = new AtomicLong(0);
+
     private final List<ImmutableTaskGraph> immutableTaskGraphList;
 
+    private boolean concurrentTaskGraphs;
+    private long[] taskGraphIds;
+    private List<List<Integer>> executionWaves;
+    private ExecutorService taskGraphThreads;
+    private int numTaskGraphThreads;
+
     TornadoExecutor(ImmutableTaskGraph... immutableTaskGraphs) {
       immutableTaskGraphList = new ArrayList<>();
       Collections.addAll(immutableTaskGraphList, immutableTaskGraphs);
     }
 
     void execute(ExecutorFrame executionPackage) {
+      if (concurrentTaskGraphs && immutableTaskGraphList.size() > 1) {
+        executeConcurrently(executionPackage);
+        return;
+      }
       immutableTaskGraphList.forEach(
-          immutableTaskGraph -> immutableTaskGraph.execute(executionPackage));
+          immutableTaskGraph -> {
+            updateConsumedObjectStates(immutableTaskGraph);
+            immutableTaskGraph.execute(executionPackage);
+          });
+    }
+
+    /**
+     * Executes the task-graphs wave by wave. All task-graphs of a wave are independent: the first
+     * one runs in the calling thread and the rest in the threads of the executor. A wave starts
+     * when all task-graphs of the previous wave have finished.
+     *
+     * @param executionPackage {@link ExecutorFrame} of the execution plan.
+     */
+    private void executeConcurrently(ExecutorFrame executionPackage) {
+      if (executionWaves == null) {
+        executionWaves = computeExecutionWaves();
+        createTaskGraphThreads();
+      }
+      for (List<Integer> wave : executionWaves) {
+        wave.forEach(index -> updateConsumedObjectStates(immutableTaskGraphList.get(index)));
+        List<Future<?>> pendingTaskGraphs = new ArrayList<>();
+        for (int index : wave.subList(1, wave.size())) {
+          pendingTaskGraphs.add(
+              taskGraphThreads.submit(() -> executeTaskGraph(index, executionPackage)));
+        }
+        RuntimeException failure = null;
+        try {
+          executeTaskGraph(wave.getFirst(), executionPackage);
+        } catch (RuntimeException e) {
+          failure = e;
+        }
+        failure = joinTaskGraphs(pendingTaskGraphs, failure);
+        if (failure != null) {
+          throw failure;
+        }
+      }
+    }
+
+    private void executeTaskGraph(int index, ExecutorFrame executionPackage) {
+      ExecutorFrame frame = executionPackage.withExecutionPlanId(taskGraphIds[index]);
+      immutableTaskGraphList.get(index).execute(frame);
+    }
+
+    private RuntimeException joinTaskGraphs(
+        List<Future<?>> pendingTaskGraphs, RuntimeException failure) {
+      for (Future<?> pendingTaskGraph : pendingTaskGraphs) {
+        try {
+          pendingTaskGraph.get();
+        } catch (ExecutionException e) {
+          if (e.getCause() instanceof Error error) {
+            throw error;
+          }
+          if (failure == null) {
+            failure =
+                e.getCause() instanceof RuntimeException runtimeException
+                    ? runtimeException
+                    : new TornadoRuntimeException(e);
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          if (failure == null) {
+            failure = new TornadoRuntimeException(e);
+          }
+        }
+      }
+      return failure;
+    }
+
+    /**
+     * Groups the task-graphs in waves of independent task-graphs. A task-graph is placed in the
+     * wave that follows the last wave with a task-graph it depends on, so dependent task-graphs
+     * keep the order of the execution plan.
+     *
+     * @return List of waves with the indexes of the task-graphs.
+     */
+    private List<List<Integer>> computeExecutionWaves() {
+      final int numTaskGraphs = immutableTaskGraphList.size();
+      List<Set<Object>> accessedObjects = new ArrayList<>();
+      List<Set<Object>> writtenObjects = new ArrayList<>();
+      for (ImmutableTaskGraph immutableTaskGraph : immutableTaskGraphList) {
+        accessedObjects.add(immutableTaskGraph.getAccessedObjects());
+        writtenObjects.add(immutableTaskGraph.getWrittenObjects());
+      }
+
+      int[] waveIndex = new int[numTaskGraphs];
+      List<List<Integer>> waves = new ArrayList<>();
+      for (int i = 0; i < numTaskGraphs; i++) {
+        for (int j = 0; j < i; j++) {
+          boolean dependent =
+              isConsumer(i, j)
+                  || isConsumer(j, i)
+                  || overlaps(writtenObjects.get(j), accessedObjects.get(i))
+                  || overlaps(writtenObjects.get(i), accessedObjects.get(j));
+          if (dependent) {
+            waveIndex[i] = Math.max(waveIndex[i], waveIndex[j] + 1);
+          }
+        }
+        if (waveIndex[i] == waves.size()) {
+          waves.add(new ArrayList<>());
+        }
+        waves.get(waveIndex[i]).add(i);
+      }
+      return waves;
+    }
+
+    private boolean isConsumer(int consumer, int producer) {
+      return immutableTaskGraphList
+          .get(consumer)
+          .getConsumedTaskGraphNames()
+          .contains(immutableTaskGraphList.get(producer).getTaskGraphName());
+    }
+
+    private static boolean overlaps(Set<Object> written, Set<Object> accessed) {
+      return written.stream().anyMatch(accessed::contains);
+    }
+
+    /**
+     * Threads are kept alive across executions because the command queues of the devices are
+     * created per thread.
+     */
+    private void createTaskGraphThreads() {
+      int numThreads = executionWaves.stream().mapToInt(List::size).max().orElse(1) - 1;
+      if (numThreads == numTaskGraphThreads) {
+        return;
+      }
+      shutdownTaskGraphThreads();
+      numTaskGraphThreads = numThreads;
+      if (numThreads > 0) {
+        taskGraphThreads =
+            Executors.newFixedThreadPool(
+                numThreads,
+                runnable -> {
+                  Thread thread = new Thread(runnable, "tornado-task-graph");
+                  thread.setDaemon(true);
+                  return thread;
+                });
+      }
+    }
+
+    void withConcurrentTaskGraphs() {
+      concurrentTaskGraphs = true;
+      executionWaves = null;
+      if (taskGraphIds == null) {
+        taskGraphIds = new long[immutableTaskGraphList.size()];
+        for (int i = 0; i < taskGraphIds.length; i++) {
+          taskGraphIds[i] = -globalTaskGraphIdCounter.incrementAndGet();
+        }
+      }
+    }
+
+    void withoutConcurrentTaskGraphs() {
+      concurrentTaskGraphs = false;
+      executionWaves = null;
+      shutdownTaskGraphThreads();
+    }
+
+    private void shutdownTaskGraphThreads() {
+      if (taskGraphThreads != null) {
+        taskGraphThreads.shutdown();
+        taskGraphThreads = null;
+      }
+      numTaskGraphThreads = 0;
+    }
+
+    /**
+     * Shares the device buffers persisted by previous task-graphs of this executor with a
+     * task-graph that consumes them.
+     *
+     * @param consumer {@link ImmutableTaskGraph} that consumes objects from the device.
+     */
+    private void updateConsumedObjectStates(ImmutableTaskGraph consumer) {
+      for (String producerName : consumer.getConsumedTaskGraphNames()) {
+        ImmutableTaskGraph producer =
+            immutableTaskGraphList.stream()
+                .filter(graph -> graph.getTaskGraphName().equals(producerName))
+                .findFirst()
+                .orElseThrow(
+                    () ->
+                        new TornadoRuntimeException(
+                            "[ERROR] Task-graph <"
+                                + producerName
+                                + "> is not part of the execution plan"));
+        consumer.updateConsumedObjectStates(producer);
+      }
     }
 
     void withGridScheduler(GridScheduler gridScheduler) {
@@ -453,11 +824,13 @@ public class TornadoExecutionPlan implements AutoCloseable {
      */
     void setDevice(TornadoDevice device) {
       immutableTaskGraphList.forEach(immutableTaskGraph -> immutableTaskGraph.withDevice(device));
+      executionWaves = null;
     }
 
     void setDevice(String taskName, TornadoDevice device) {
       immutableTaskGraphList.forEach(
           immutableTaskGraph -> immutableTaskGraph.withDevice(taskName, device));
+      executionWaves = null;
     }
 
     void withConcurrentDevices() {
@@ -642,6 +1015,22 @@ public class TornadoExecutionPlan implements AutoCloseable {
       immutableTaskGraphList.forEach(ImmutableTaskGraph::withoutPrintKernel);
     }
 
+    void withShapePolymorphicKernels() {
+      immutableTaskGraphList.forEach(ImmutableTaskGraph::withShapePolymorphicKernels);
+    }
+
+    void withoutShapePolymorphicKernels() {
+      immutableTaskGraphList.forEach(ImmutableTaskGraph::withoutShapePolymorphicKernels);
+    }
+
+    void withSharedVirtualMemory() {
+      immutableTaskGraphList.forEach(ImmutableTaskGraph::withSharedVirtualMemory);
+    }
+
+    void withoutSharedVirtualMemory() {
+      immutableTaskGraphList.forEach(ImmutableTaskGraph::withoutSharedVirtualMemory);
+    }
+
     void withCompilerFlags(TornadoVMBackendType backendType, String compilerFlags) {
       immutableTaskGraphList.forEach(
           immutableTaskGraph -> immutableTaskGraph.withCompilerFlags(backendType, compilerFlags));
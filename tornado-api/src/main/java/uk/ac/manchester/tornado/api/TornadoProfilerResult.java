@@ -20,6 +20,7 @@ package uk.ac.manchester.tornado.api;
 import uk.ac.manchester.tornado.api.TornadoExecutionPlan.TornadoExecutor;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
 import uk.ac.manchester.tornado.api.profiler.ProfilerInterface;
+import uk.ac.manchester.tornado.api.profiler.ProfilerSampling;
 
 /**
  * Object that stores all information related to profiling an executor. To be able to return all
@@ -37,9 +38,17 @@ import uk.ac.manchester.tornado.api.profiler.ProfilerInterface;
 public class TornadoProfilerResult implements ProfilerInterface {
 
   private final TornadoExecutor executor;
+  private final ProfilerSampler sampler;
+  private final boolean sampled;
 
   TornadoProfilerResult(TornadoExecutor executor) {
+    this(executor, null, true);
+  }
+
+  TornadoProfilerResult(TornadoExecutor executor, ProfilerSampler sampler, boolean sampled) {
     this.executor = executor;
+    this.sampler = sampler;
+    this.sampled = sampled;
   }
 
   /**
@@ -182,6 +191,129 @@ public class TornadoProfilerResult implements ProfilerInterface {
     return executor.getTotalBytesCopyOut();
   }
 
+  /**
+   * Returns true if the execution that produced this result ran with the profiler. With {@link
+   * TornadoExecutionPlan#withProfiler(ProfilerMode, ProfilerSampling)}, the timers of the
+   * executions that were not sampled are not measured.
+   *
+   * @since 1.0.8
+   * @return boolean
+   */
+  public boolean isSampled() {
+    return sampled;
+  }
+
+  /**
+   * Returns the number of executions of the execution plan since the profiler sampling was enabled.
+   *
+   * @since 1.0.8
+   * @return long
+   */
+  public long getExecutionCount() {
+    return sampler != null ? sampler.getExecutionCount() : 0;
+  }
+
+  /**
+   * Returns the number of profiled executions since the profiler sampling was enabled. The {@code
+   * getSampled*} methods return the sum of the timers over these executions.
+   *
+   * @since 1.0.8
+   * @return long
+   */
+  public long getSampleCount() {
+    return sampler != null ? sampler.getSampleCount() : 0;
+  }
+
+  /**
+   * Returns the sum of the end-to-end times (in ns) of the sampled executions.
+   *
+   * @since 1.0.8
+   * @return long
+   */
+  public long getSampledTotalTime() {
+    return sampler != null ? sampler.getTotalTime() : 0;
+  }
+
+  /**
+   * Returns the sum of the kernel times (in ns) of the sampled executions.
+   *
+   * @since 1.0.8
+   * @return long
+   */
+  public long getSampledDeviceKernelTime() {
+    return sampler != null ? sampler.getDeviceKernelTime() : 0;
+  }
+
+  /**
+   * Returns the sum of the data transfer times (in ns) of the sampled executions.
+   *
+   * @since 1.0.8
+   * @return long
+   */
+  public long getSampledDataTransfersTime() {
+    return sampler != null ? sampler.getDataTransfersTime() : 0;
+  }
+
+  /**
+   * Returns the sum of the host to device transfer times (in ns) of the sampled executions.
+   *
+   * @since 1.0.8
+   * @return long
+   */
+  public long getSampledDeviceWriteTime() {
+    return sampler != null ? sampler.getDeviceWriteTime() : 0;
+  }
+
+  /**
+   * Returns the sum of the device to host transfer times (in ns) of the sampled executions.
+   *
+   * @since 1.0.8
+   * @return long
+   */
+  public long getSampledDeviceReadTime() {
+    return sampler != null ? sampler.getDeviceReadTime() : 0;
+  }
+
+  /**
+   * Returns the sum of the kernel dispatch times (in ns) of the sampled executions.
+   *
+   * @since 1.0.8
+   * @return long
+   */
+  public long getSampledKernelDispatchTime() {
+    return sampler != null ? sampler.getKernelDispatchTime() : 0;
+  }
+
+  /**
+   * Returns the sum of the data transfer dispatch times (in ns) of the sampled executions.
+   *
+   * @since 1.0.8
+   * @return long
+   */
+  public long getSampledDataTransferDispatchTime() {
+    return sampler != null ? sampler.getDataTransferDispatchTime() : 0;
+  }
+
+  /**
+   * Returns the total number of bytes copied to the device by the sampled executions.
+   *
+   * @since 1.0.8
+   * @return long Number of bytes
+   */
+  public long getSampledTotalBytesCopyIn() {
+    return sampler != null ? sampler.getTotalBytesCopyIn() : 0;
+  }
+
+  /**
+   * Returns the total number of bytes copied to the host by the sampled executions.
+   *
+   * @since 1.0.8
+   * @return long Number of bytes
+   */
+  public long getSampledTotalBytesCopyOut() {
+    return sampler != null ? sampler.getTotalBytesCopyOut() : 0;
+  }
+
   TornadoExecutor getExecutor() {
     return executor;
   }
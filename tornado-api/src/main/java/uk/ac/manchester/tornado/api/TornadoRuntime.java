@@ -37,4 +37,21 @@ public interface TornadoRuntime {
   <D extends TornadoBackend> int getBackendIndex(Class<D> driverClass);
 
   boolean isProfilerEnabled();
+
+  /**
+   * Obtains the queueing metrics of an execution plan, added over all devices it runs on.
+   *
+   * @param executionPlanId identifier of the execution plan.
+   * @return {@link SchedulingMetrics}
+   */
+  SchedulingMetrics getSchedulingMetrics(long executionPlanId);
+
+  /**
+   * Obtains the counters of the shape-polymorphic kernel cache of a device.
+   *
+   * @param device {@link TornadoDevice}
+   * @return {@link ShapeCacheMetrics}, or {@link ShapeCacheMetrics#EMPTY} if the device does not
+   *     cache shape-polymorphic kernels.
+   */
+  ShapeCacheMetrics getShapeCacheMetrics(TornadoDevice device);
 }
@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+
+/**
+ * Execution plan that runs the same computation for every item of a stream. The plan keeps a ring
+ * of {@link StreamSlot}s, each one with its own host objects, task-graph and device buffers. Up to
+ * one item per slot is in flight, so the copy-in, the kernels and the copy-out of consecutive items
+ * overlap across the slots. Results are delivered in the order of the items.
+ *
+ * <p>The plan is a {@link Flow.Processor}: it subscribes to a publisher of items and publishes the
+ * results to a single subscriber. It requests one item from the publisher per free slot, and a slot
+ * is only freed once its result has been delivered, so a slow subscriber slows down the publisher.
+ * Alternatively, {@link #run(Iterator, Consumer)} processes the items of an iterator in the calling
+ * thread.
+ *
+ * <p>Example: <code>
+ * TornadoStreamingPlan&lt;Frame, Frame&gt; plan =
+ *     TornadoExecutionPlan.streaming(3, FilterSlot::new);
+ * publisher.subscribe(plan);
+ * plan.subscribe(resultSubscriber);
+ * </code>
+ *
+ * @param <T> Type of the items of the stream.
+ * @param <R> Type of the results.
+ * @since 1.0.8
+ */
+public final class TornadoStreamingPlan<T, R> implements Flow.Processor<T, R>, AutoCloseable {
+
+  private final List<StreamSlot<T, R>> slots;
+  private final List<TornadoExecutionPlan> plans;
+  private final List<CompletableFuture<R>> pending;
+  private final ExecutorService slotThreads;
+
+  // State of the Flow.Processor, guarded by this
+  private Flow.Subscription upstream;
+  private Flow.Subscriber<? super R> downstream;
+  private long demand;
+  private long head;
+  private long tail;
+  private boolean started;
+  private boolean upstreamDone;
+  private boolean terminated;
+  private boolean draining;
+
+  TornadoStreamingPlan(int ringSize, IntFunction<? extends StreamSlot<T, R>> slotFactory) {
+    if (ringSize < 1) {
+      throw new TornadoRuntimeException(
+          "[ERROR] The ring of a streaming plan needs at least one slot: " + ringSize);
+    }
+    slots = new ArrayList<>(ringSize);
+    plans = new ArrayList<>(ringSize);
+    pending = new ArrayList<>(Collections.nCopies(ringSize, null));
+    for (int i = 0; i < ringSize; i++) {
+      StreamSlot<T, R> slot = slotFactory.apply(i);
+      slots.add(slot);
+      plans.add(new TornadoExecutionPlan(slot.getTaskGraph()));
+    }
+    slotThreads =
+        Executors.newFixedThreadPool(
+            ringSize,
+            runnable -> {
+              Thread thread = new Thread(runnable, "tornado-stream-slot");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * It selects a specific device for the task-graphs of all slots.
+   *
+   * @param device {@link TornadoDevice}
+   * @return {@link TornadoStreamingPlan}
+   */
+  public TornadoStreamingPlan<T, R> withDevice(TornadoDevice device) {
+    plans.forEach(plan -> plan.withDevice(device));
+    return this;
+  }
+
+  /**
+   * It invokes the JIT compiler for the task-graphs of all slots.
+   *
+   * @return {@link TornadoStreamingPlan}
+   */
+  public TornadoStreamingPlan<T, R> withWarmUp() {
+    plans.forEach(TornadoExecutionPlan::withWarmUp);
+    return this;
+  }
+
+  /**
+   * @return the number of slots of the ring, that is, the maximum number of items in flight.
+   */
+  public int getRingSize() {
+    return slots.size();
+  }
+
+  private CompletableFuture<R> process(int index, T item) {
+    StreamSlot<T, R> slot = slots.get(index);
+    TornadoExecutionPlan plan = plans.get(index);
+    return CompletableFuture.supplyAsync(
+        () -> {
+          slot.load(item);
+          plan.execute();
+          return slot.getResult();
+        },
+        slotThreads);
+  }
+
+  /**
+   * Processes all items of an iterator and passes the results, in order, to the sink. The call
+   * returns when the last result has been consumed. While the sink consumes a result, the next
+   * items of the ring keep running.
+   *
+   * @param items Items of the stream.
+   * @param sink Consumer of the results.
+   */
+  public void run(Iterator<? extends T> items, Consumer<? super R> sink) {
+    final int ringSize = slots.size();
+    List<CompletableFuture<R>> inFlight = new ArrayList<>(Collections.nCopies(ringSize, null));
+    long submitted = 0;
+    long consumed = 0;
+    try {
+      while (items.hasNext()) {
+        int index = (int) (submitted % ringSize);
+        if (submitted - consumed == ringSize) {
+          sink.accept(inFlight.get(index).join());
+          consumed++;
+        }
+        inFlight.set(index, process(index, items.next()));
+        submitted++;
+      }
+      for (; consumed < submitted; consumed++) {
+        sink.accept(inFlight.get((int) (consumed % ringSize)).join());
+      }
+    } catch (CompletionException e) {
+      // Do not leave slots running before reporting the failure
+      inFlight.stream()
+          .filter(future -> future != null)
+          .forEach(future -> future.handle((result, error) -> null).join());
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new TornadoRuntimeException(e);
+    }
+  }
+
+  @Override
+  public synchronized void subscribe(Flow.Subscriber<? super R> subscriber) {
+    if (downstream != null) {
+      subscriber.onSubscribe(
+          new Flow.Subscription() {
+            @Override
+            public void request(long n) {}
+
+            @Override
+            public void cancel() {}
+          });
+      subscriber.onError(
+          new IllegalStateException("A streaming plan only supports one subscriber"));
+      return;
+    }
+    downstream = subscriber;
+    subscriber.onSubscribe(new ResultSubscription());
+    start();
+  }
+
+  @Override
+  public synchronized void onSubscribe(Flow.Subscription subscription) {
+    if (upstream != null) {
+      subscription.cancel();
+      return;
+    }
+    upstream = subscription;
+    start();
+  }
+
+  private void start() {
+    if (!started && upstream != null && downstream != null) {
+      started = true;
+      upstream.request(slots.size());
+    }
+  }
+
+  @Override
+  public synchronized void onNext(T item) {
+    if (terminated) {
+      return;
+    }
+    if (tail - head == slots.size()) {
+      fail(new IllegalStateException("The publisher sent more items than requested"));
+      return;
+    }
+    int index = (int) (tail % slots.size());
+    tail++;
+    CompletableFuture<R> future = process(index, item);
+    pending.set(index, future);
+    future.whenComplete((result, error) -> drain());
+  }
+
+  @Override
+  public synchronized void onError(Throwable throwable) {
+    if (!terminated && downstream != null) {
+      terminated = true;
+      downstream.onError(throwable);
+    }
+  }
+
+  @Override
+  public synchronized void onComplete() {
+    upstreamDone = true;
+    drain();
+  }
+
+  private void fail(Throwable throwable) {
+    terminated = true;
+    upstream.cancel();
+    downstream.onError(throwable);
+  }
+
+  /** Delivers, in order, the results of the slots that finished while there is demand for them. */
+  private synchronized void drain() {
+    if (draining) {
+      return;
+    }
+    draining = true;
+    try {
+      while (!terminated && head < tail && demand > 0) {
+        int index = (int) (head % slots.size());
+        CompletableFuture<R> future = pending.get(index);
+        if (!future.isDone()) {
+          return;
+        }
+        R result;
+        try {
+          result = future.join();
+        } catch (CompletionException | CancellationException e) {
+          fail(e.getCause() != null ? e.getCause() : e);
+          return;
+        }
+        pending.set(index, null);
+        head++;
+        demand--;
+        downstream.onNext(result);
+        // The slot is free again
+        if (!upstreamDone && !terminated) {
+          upstream.request(1);
+        }
+      }
+      if (!terminated && upstreamDone && head == tail && downstream != null) {
+        terminated = true;
+        downstream.onComplete();
+      }
+    } finally {
+      draining = false;
+    }
+  }
+
+  private final class ResultSubscription implements Flow.Subscription {
+
+    @Override
+    public void request(long n) {
+      synchronized (TornadoStreamingPlan.this) {
+        if (terminated) {
+          return;
+        }
+        if (n <= 0) {
+          if (upstream != null) {
+            upstream.cancel();
+          }
+          terminated = true;
+          downstream.onError(new IllegalArgumentException("Non-positive request: " + n));
+          return;
+        }
+        demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+        drain();
+      }
+    }
+
+    @Override
+    public void cancel() {
+      synchronized (TornadoStreamingPlan.this) {
+        terminated = true;
+        if (upstream != null) {
+          upstream.cancel();
+        }
+      }
+    }
+  }
+
+  /**
+   * Waits for the items in flight and releases the device memory of all slots.
+   *
+   * @throws TornadoExecutionPlanException
+   */
+  @Override
+  public void close() throws TornadoExecutionPlanException {
+    synchronized (this) {
+      if (!terminated) {
+        terminated = true;
+        if (upstream != null) {
+          upstream.cancel();
+        }
+      }
+    }
+    slotThreads.shutdown();
+    try {
+      slotThreads.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    for (TornadoExecutionPlan plan : plans) {
+      plan.close();
+    }
+  }
+}
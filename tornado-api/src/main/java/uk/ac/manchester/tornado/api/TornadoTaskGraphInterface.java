@@ -71,6 +71,14 @@ public interface TornadoTaskGraphInterface extends ProfilerInterface {
 
   void transferToHost(int mode, Object... objects);
 
+  void persistOnDevice(Object... objects);
+
+  void consumeFromDevice(String taskGraphName, Object... objects);
+
+  Set<String> getConsumedTaskGraphNames();
+
+  void updateConsumedObjectStates(TornadoTaskGraphInterface producerTaskGraph);
+
   void dump();
 
   void warmup();
@@ -99,6 +107,10 @@ public interface TornadoTaskGraphInterface extends ProfilerInterface {
 
   Set<Object> getArgumentsLookup();
 
+  Set<Object> getAccessedObjects();
+
+  Set<Object> getWrittenObjects();
+
   TornadoTaskGraphInterface createImmutableTaskGraph();
 
   Collection<?> getOutputs();
@@ -119,6 +131,14 @@ public interface TornadoTaskGraphInterface extends ProfilerInterface {
 
   void withoutPrintKernel();
 
+  void withShapePolymorphicKernels();
+
+  void withoutShapePolymorphicKernels();
+
+  void withSharedVirtualMemory();
+
+  void withoutSharedVirtualMemory();
+
   void withGridScheduler(GridScheduler gridScheduler);
 
   long getCurrentDeviceMemoryUsage();
@@ -89,4 +89,26 @@ public interface WorkerGrid {
    * @param z
    */
   void setGlobalOffset(long x, long y, long z);
+
+  /**
+   * Sets the thread-coarsening factor per dimension: the number of loop iterations that each thread
+   * processes in tasks expressed with parallel loops ({@link
+   * uk.ac.manchester.tornado.api.annotations.Parallel}). The number of threads launched per
+   * dimension is the global work divided by the factor. Factors can be changed between executions
+   * without recompiling the task, so they can be explored by an auto-tuning search. Tasks written
+   * with the {@link KernelContext} API are not coarsened.
+   *
+   * @param x
+   * @param y
+   * @param z
+   */
+  void setCoarseness(int x, int y, int z);
+
+  /**
+   * Returns an array of 3 elements with the thread-coarsening factor per dimension, or null if it
+   * has not been set.
+   *
+   * @return {@link int[]}
+   */
+  int[] getCoarseness();
 }
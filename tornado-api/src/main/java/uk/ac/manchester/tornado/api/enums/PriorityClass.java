@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.enums;
+
+import uk.ac.manchester.tornado.api.SchedulingPolicy;
+
+/**
+ * Priority classes of the execution plans that share a device. When the device is saturated, the
+ * launches and data transfers of a higher class are dispatched before the ones of a lower class.
+ * Plans within the same class share the device by weighted fair queuing.
+ *
+ * @see SchedulingPolicy
+ * @since 1.0.8
+ */
+public enum PriorityClass {
+
+  /** Interactive plans that are sensitive to the latency of each execution. */
+  LATENCY_SENSITIVE, //
+
+  /** Default class for the plans that do not set a priority. */
+  NORMAL, //
+
+  /** Throughput-oriented plans that only use the device when the other classes do not need it. */
+  BATCH;
+}
@@ -38,4 +38,34 @@ public interface DeviceBufferState {
   void setPartialCopySize(long partialCopySize);
 
   long getPartialCopySize();
+
+  /**
+   * Marks the device buffer as shared: the buffer is owned by the state of another task-graph that
+   * persisted it on the device, so this state may use it but must never release it.
+   */
+  void setSharedBuffer(boolean sharedBuffer);
+
+  boolean isSharedBuffer();
+
+  /**
+   * Requests the buffer to be backed by shared virtual memory when the device supports it. It is
+   * set by the runtime before each allocation from the execution plan configuration.
+   */
+  void setSharedVirtualMemory(boolean sharedVirtualMemory);
+
+  boolean isSharedVirtualMemory();
+
+  /**
+   * Marks the device copy as modified by a kernel of the given execution plan, so it has to be
+   * copied back to the host before the buffer can be evicted from the device.
+   */
+  void markDirty(long executionPlanId);
+
+  /** The device and the host copies are in sync after a full transfer in either direction. */
+  void clearDirty();
+
+  boolean isDirty();
+
+  /** Execution plan that last modified the device copy. Only valid if {@link #isDirty()}. */
+  long getDirtyPlanId();
 }
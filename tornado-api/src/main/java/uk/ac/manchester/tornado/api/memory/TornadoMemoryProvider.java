@@ -20,4 +20,17 @@ package uk.ac.manchester.tornado.api.memory;
 public interface TornadoMemoryProvider {
 
   long getHeapSize();
+
+  /**
+   * Number of buffers evicted from the device to make room for other allocations when the device
+   * memory is oversubscribed ({@code -Dtornado.device.memory.eviction=True}).
+   */
+  default long getNumEvictions() {
+    return 0;
+  }
+
+  /** Bytes copied back to the host when evicting buffers modified on the device. */
+  default long getSpilledBytes() {
+    return 0;
+  }
 }
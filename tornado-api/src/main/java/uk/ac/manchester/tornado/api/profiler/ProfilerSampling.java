@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.profiler;
+
+import java.time.Duration;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+
+/**
+ * Policy to select which executions of an execution plan are profiled. Executions that are not
+ * sampled run without the profiler, so they do not query event timestamps or record timers.
+ *
+ * <p>Example: <code>
+ * executionPlan.withProfiler(ProfilerMode.SILENT, ProfilerSampling.everyNExecutions(100));
+ * </code>
+ *
+ * @since 1.0.8
+ */
+public final class ProfilerSampling {
+
+  private final int period;
+  private final long intervalNanos;
+
+  private ProfilerSampling(int period, long intervalNanos) {
+    this.period = period;
+    this.intervalNanos = intervalNanos;
+  }
+
+  /**
+   * Profiles one out of every {@code n} executions. The first execution is always profiled.
+   *
+   * @param n number of executions per sample. A value of 1 profiles all executions.
+   * @return {@link ProfilerSampling}
+   */
+  public static ProfilerSampling everyNExecutions(int n) {
+    if (n < 1) {
+      throw new TornadoRuntimeException("[ERROR] The sampling period must be at least 1: " + n);
+    }
+    return new ProfilerSampling(n, 0);
+  }
+
+  /**
+   * Profiles at most one execution per time interval. The first execution is always profiled, and
+   * the next sample is the first execution that starts once the interval has elapsed.
+   *
+   * @param interval minimum time between two profiled executions.
+   * @return {@link ProfilerSampling}
+   */
+  public static ProfilerSampling atMostEvery(Duration interval) {
+    if (interval.isNegative() || interval.isZero()) {
+      throw new TornadoRuntimeException(
+          "[ERROR] The sampling interval must be positive: " + interval);
+    }
+    return new ProfilerSampling(0, interval.toNanos());
+  }
+
+  /**
+   * @return the number of executions per sample, or 0 if the sampling is time-based.
+   */
+  public int getPeriod() {
+    return period;
+  }
+
+  /**
+   * @return the minimum time in nanoseconds between two samples, or 0 if the sampling is based on
+   *     the number of executions.
+   */
+  public long getIntervalNanos() {
+    return intervalNanos;
+  }
+
+  @Override
+  public String toString() {
+    return period > 0
+        ? "ProfilerSampling[1/" + period + " executions]"
+        : "ProfilerSampling[every " + Duration.ofNanos(intervalNanos) + "]";
+  }
+}
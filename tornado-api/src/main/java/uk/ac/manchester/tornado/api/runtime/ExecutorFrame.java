@@ -20,17 +20,23 @@ package uk.ac.manchester.tornado.api.runtime;
 import uk.ac.manchester.tornado.api.DRMode;
 import uk.ac.manchester.tornado.api.GridScheduler;
 import uk.ac.manchester.tornado.api.Policy;
+import uk.ac.manchester.tornado.api.SchedulingPolicy;
 
 /** Class to store all objects and parameters related to the dispatch of an execution plan. */
 public class ExecutorFrame {
 
   private final long executionPlanId;
+  private long tenantId;
+  private SchedulingPolicy schedulingPolicy;
   private DRMode dynamicReconfigurationMode;
   private Policy dynamicReconfigurationPolicy;
   private GridScheduler gridScheduler;
+  private boolean profilerSampled;
 
   public ExecutorFrame(long id) {
     this.executionPlanId = id;
+    this.tenantId = id;
+    this.profilerSampled = true;
   }
 
   public ExecutorFrame withPolicy(Policy policy) {
@@ -48,6 +54,43 @@ public class ExecutorFrame {
     return this;
   }
 
+  public ExecutorFrame withSchedulingPolicy(SchedulingPolicy schedulingPolicy) {
+    this.schedulingPolicy = schedulingPolicy;
+    return this;
+  }
+
+  /**
+   * Marks whether the profiler records the next dispatch of the frame. The flag belongs to the
+   * execution plan, so sampling one plan never turns the profiler on or off for other plans.
+   *
+   * @param sampled true if the profiler records the dispatch.
+   * @return {@link ExecutorFrame}
+   */
+  public ExecutorFrame withProfilerSampled(boolean sampled) {
+    this.profilerSampled = sampled;
+    return this;
+  }
+
+  /**
+   * Creates a frame with the same configuration as this one, but with a different execution
+   * identifier. The runtime keeps command queues, events and kernel frames per identifier, so
+   * task-graphs executed concurrently within the same plan use separate identifiers.
+   *
+   * @param id Execution identifier of the new frame.
+   * @return {@link ExecutorFrame}
+   */
+  public ExecutorFrame withExecutionPlanId(long id) {
+    ExecutorFrame frame =
+        new ExecutorFrame(id)
+            .withPolicy(dynamicReconfigurationPolicy)
+            .withMode(dynamicReconfigurationMode)
+            .withGridScheduler(gridScheduler)
+            .withSchedulingPolicy(schedulingPolicy)
+            .withProfilerSampled(profilerSampled);
+    frame.tenantId = tenantId;
+    return frame;
+  }
+
   public Policy getDynamicReconfigurationPolicy() {
     return dynamicReconfigurationPolicy;
   }
@@ -63,4 +106,21 @@ public class ExecutorFrame {
   public long getExecutionPlanId() {
     return this.executionPlanId;
   }
+
+  /**
+   * @return the identifier of the execution plan that owns the frame. It is the same for all the
+   *     task-graphs of the plan, even when they run concurrently with separate execution
+   *     identifiers.
+   */
+  public long getTenantId() {
+    return tenantId;
+  }
+
+  public SchedulingPolicy getSchedulingPolicy() {
+    return schedulingPolicy;
+  }
+
+  public boolean isProfilerSampled() {
+    return profilerSampled;
+  }
 }
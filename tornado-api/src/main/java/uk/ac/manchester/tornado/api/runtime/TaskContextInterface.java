@@ -54,5 +54,9 @@ public interface TaskContextInterface {
 
   void setPrintKernelFlag(boolean printKernelEnabled);
 
+  boolean isShapePolymorphicEnabled();
+
+  void setShapePolymorphicFlag(boolean shapePolymorphicEnabled);
+
   void resetThreadBlocks();
 }
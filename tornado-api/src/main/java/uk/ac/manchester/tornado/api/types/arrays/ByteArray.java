@@ -56,7 +56,7 @@ public final class ByteArray extends TornadoNativeArray {
     baseIndex = arrayHeaderSize / BYTE_BYTES;
     segmentByteSize = numberOfElements * BYTE_BYTES + arrayHeaderSize;
 
-    segment = Arena.ofAuto().allocate(segmentByteSize, 1);
+    segment = Arena.ofAuto().allocate(segmentByteSize, TornadoNativeArray.SEGMENT_ALIGNMENT);
     segment.setAtIndex(JAVA_INT, 0, numberOfElements);
   }
 
@@ -56,7 +56,7 @@ public final class CharArray extends TornadoNativeArray {
     baseIndex = arrayHeaderSize / CHAR_BYTES;
     segmentByteSize = numberOfElements * CHAR_BYTES + arrayHeaderSize;
 
-    segment = Arena.ofAuto().allocate(segmentByteSize, 1);
+    segment = Arena.ofAuto().allocate(segmentByteSize, TornadoNativeArray.SEGMENT_ALIGNMENT);
     segment.setAtIndex(JAVA_INT, 0, numberOfElements);
   }
 
@@ -58,7 +58,7 @@ public final class DoubleArray extends TornadoNativeArray {
     baseIndex = arrayHeaderSize / DOUBLE_BYTES;
     segmentByteSize = numberOfElements * DOUBLE_BYTES + arrayHeaderSize;
 
-    segment = Arena.ofAuto().allocate(segmentByteSize, 1);
+    segment = Arena.ofAuto().allocate(segmentByteSize, TornadoNativeArray.SEGMENT_ALIGNMENT);
     segment.setAtIndex(JAVA_INT, 0, numberOfElements);
   }
 
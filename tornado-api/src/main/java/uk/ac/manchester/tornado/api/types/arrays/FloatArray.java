@@ -58,7 +58,7 @@ public final class FloatArray extends TornadoNativeArray {
     baseIndex = arrayHeaderSize / FLOAT_BYTES;
     segmentByteSize = numberOfElements * FLOAT_BYTES + arrayHeaderSize;
 
-    segment = Arena.ofAuto().allocate(segmentByteSize, 1);
+    segment = Arena.ofAuto().allocate(segmentByteSize, TornadoNativeArray.SEGMENT_ALIGNMENT);
     segment.setAtIndex(JAVA_INT, 0, numberOfElements);
   }
 
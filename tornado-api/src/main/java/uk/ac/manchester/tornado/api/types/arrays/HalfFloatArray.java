@@ -26,6 +26,7 @@ import java.util.Arrays;
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
 import uk.ac.manchester.tornado.api.types.HalfFloat;
+import uk.ac.manchester.tornado.api.types.utils.HalfFloatConversions;
 
 /**
  * This class represents an array of half floats (float16 types) stored in native memory. The half
@@ -60,7 +61,7 @@ public final class HalfFloatArray extends TornadoNativeArray {
     baseIndex = arrayHeaderSize / HALF_FLOAT_BYTES;
     segmentByteSize = numberOfElements * HALF_FLOAT_BYTES + arrayHeaderSize;
 
-    segment = Arena.ofAuto().allocate(segmentByteSize, 1);
+    segment = Arena.ofAuto().allocate(segmentByteSize, TornadoNativeArray.SEGMENT_ALIGNMENT);
     segment.setAtIndex(JAVA_INT, 0, numberOfElements);
   }
 
@@ -155,11 +156,63 @@ public final class HalfFloatArray extends TornadoNativeArray {
    *     HalfFloatArray} instance.
    */
   public short[] toShortArray() {
-    short[] outputArray = new short[getSize()];
-    for (int i = 0; i < getSize(); i++) {
-      outputArray[i] = get(i).getHalfFloatValue();
+    return getSegment().toArray(JAVA_SHORT);
+  }
+
+  /**
+   * Creates a new instance of the {@link HalfFloatArray} class from a {@link FloatArray}, converting
+   * every element to float-16.
+   *
+   * @param values The {@link FloatArray} to convert.
+   * @return A new {@link HalfFloatArray} instance with the converted values.
+   */
+  public static HalfFloatArray fromFloatArray(FloatArray values) {
+    HalfFloatArray array = new HalfFloatArray(values.getSize());
+    array.copyFrom(values);
+    return array;
+  }
+
+  /**
+   * Converts all the elements of a {@link FloatArray} to float-16 and stores them in the {@link
+   * HalfFloatArray} instance. The conversion uses SIMD instructions of the host when available.
+   *
+   * @param values The {@link FloatArray} to convert. It must have the same size as this array.
+   */
+  public void copyFrom(FloatArray values) {
+    checkSameSize(values.getSize());
+    HalfFloatConversions.floatToHalf(
+        values.getSegment(), 0, segment, arrayHeaderSize, numberOfElements);
+  }
+
+  /**
+   * Converts all the elements of the {@link HalfFloatArray} instance to float-32 and stores them in
+   * a {@link FloatArray}. The conversion uses SIMD instructions of the host when available.
+   *
+   * @param output The {@link FloatArray} in which the values are stored. It must have the same size
+   *     as this array.
+   */
+  public void copyTo(FloatArray output) {
+    checkSameSize(output.getSize());
+    HalfFloatConversions.halfToFloat(
+        segment, arrayHeaderSize, output.getSegment(), 0, numberOfElements);
+  }
+
+  /**
+   * Converts the elements of the {@link HalfFloatArray} instance to a new {@link FloatArray}.
+   *
+   * @return A new {@link FloatArray} with the float-32 values.
+   */
+  public FloatArray toFloatArray() {
+    FloatArray output = new FloatArray(numberOfElements);
+    copyTo(output);
+    return output;
+  }
+
+  private void checkSameSize(int size) {
+    if (size != numberOfElements) {
+      throw new IllegalArgumentException(
+          "Size mismatch: expected " + numberOfElements + " elements but got " + size);
     }
-    return outputArray;
   }
 
   /**
@@ -184,10 +237,54 @@ public final class HalfFloatArray extends TornadoNativeArray {
     return new HalfFloat(halfFloatValue);
   }
 
+  /**
+   * Sets the float-16 value, in its short representation, at a specified index of the {@link
+   * HalfFloatArray} instance. This accessor does not allocate a {@link HalfFloat} object.
+   *
+   * @param index The index at which to set the value.
+   * @param value The float-16 bits to store at the specified index.
+   */
+  public void setShort(int index, short value) {
+    segment.setAtIndex(JAVA_SHORT, baseIndex + index, value);
+  }
+
+  /**
+   * Gets the float-16 value, in its short representation, stored at the specified index of the
+   * {@link HalfFloatArray} instance. This accessor does not allocate a {@link HalfFloat} object.
+   *
+   * @param index The index of which to retrieve the value.
+   * @return The float-16 bits stored at the specified index.
+   */
+  public short getShort(int index) {
+    return segment.getAtIndex(JAVA_SHORT, baseIndex + index);
+  }
+
+  /**
+   * Converts a float value to float-16 and stores it at a specified index of the {@link
+   * HalfFloatArray} instance.
+   *
+   * @param index The index at which to set the value.
+   * @param value The float value to convert and store.
+   */
+  public void setFloat(int index, float value) {
+    segment.setAtIndex(JAVA_SHORT, baseIndex + index, Float.floatToFloat16(value));
+  }
+
+  /**
+   * Gets the value stored at the specified index of the {@link HalfFloatArray} instance, converted
+   * to float-32.
+   *
+   * @param index The index of which to retrieve the value.
+   * @return The float-32 value.
+   */
+  public float getFloat(int index) {
+    return Float.float16ToFloat(segment.getAtIndex(JAVA_SHORT, baseIndex + index));
+  }
+
   /** Sets all the values of the {@link HalfFloatArray} instance to zero. */
   @Override
   public void clear() {
-    init(new HalfFloat(0.0f));
+    init((short) 0);
   }
 
   @Override
@@ -202,8 +299,18 @@ public final class HalfFloatArray extends TornadoNativeArray {
    *     with.
    */
   public void init(HalfFloat value) {
+    init(value.getHalfFloatValue());
+  }
+
+  /**
+   * Initializes all the elements of the {@link HalfFloatArray} instance with a specified float-16
+   * value, in its short representation.
+   *
+   * @param value The float-16 bits to initialize the {@link HalfFloatArray} instance with.
+   */
+  public void init(short value) {
     for (int i = 0; i < getSize(); i++) {
-      segment.setAtIndex(JAVA_SHORT, baseIndex + i, value.getHalfFloatValue());
+      segment.setAtIndex(JAVA_SHORT, baseIndex + i, value);
     }
   }
 
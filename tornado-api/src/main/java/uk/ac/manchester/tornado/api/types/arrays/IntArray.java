@@ -55,7 +55,7 @@ public final class IntArray extends TornadoNativeArray {
     baseIndex = arrayHeaderSize / INT_BYTES;
     segmentByteSize = numberOfElements * INT_BYTES + arrayHeaderSize;
 
-    segment = Arena.ofAuto().allocate(segmentByteSize, 1);
+    segment = Arena.ofAuto().allocate(segmentByteSize, TornadoNativeArray.SEGMENT_ALIGNMENT);
     segment.setAtIndex(JAVA_INT, 0, numberOfElements);
   }
 
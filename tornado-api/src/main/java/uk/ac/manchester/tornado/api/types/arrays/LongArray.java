@@ -56,7 +56,7 @@ public final class LongArray extends TornadoNativeArray {
     baseIndex = arrayHeaderSize / LONG_BYTES;
 
     segmentByteSize = numberOfElements * LONG_BYTES + arrayHeaderSize;
-    segment = Arena.ofAuto().allocate(segmentByteSize, 1);
+    segment = Arena.ofAuto().allocate(segmentByteSize, TornadoNativeArray.SEGMENT_ALIGNMENT);
     segment.setAtIndex(JAVA_INT, 0, numberOfElements);
   }
 
@@ -57,7 +57,7 @@ public final class ShortArray extends TornadoNativeArray {
     baseIndex = arrayHeaderSize / SHORT_BYTES;
     segmentByteSize = numberOfElements * SHORT_BYTES + arrayHeaderSize;
 
-    segment = Arena.ofAuto().allocate(segmentByteSize, 1);
+    segment = Arena.ofAuto().allocate(segmentByteSize, TornadoNativeArray.SEGMENT_ALIGNMENT);
     segment.setAtIndex(JAVA_INT, 0, numberOfElements);
   }
 
@@ -49,6 +49,14 @@ permits ByteArray,
   public static final long ARRAY_HEADER =
       Long.parseLong(System.getProperty("tornado.panama.objectHeader", "24"));
 
+  /**
+   * The alignment in bytes of the memory segments allocated for the native arrays. The default
+   * value is 1, but it can be configured through the "tornado.panama.segmentAlignment" system
+   * property (e.g., 4096 for zero-copy host buffers on OpenCL devices).
+   */
+  public static final long SEGMENT_ALIGNMENT =
+      Long.parseLong(System.getProperty("tornado.panama.segmentAlignment", "1"));
+
   /**
    * Returns the number of elements stored in the native array.
    *
@@ -24,6 +24,7 @@ import java.util.Arrays;
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
 import uk.ac.manchester.tornado.api.types.HalfFloat;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.HalfFloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 
@@ -51,11 +52,7 @@ public final class TensorFP16 extends Tensor {
   }
 
   public void init(HalfFloat value) {
-    for (int i = 0; i < getSize(); i++) {
-      tensorStorage
-          .getSegmentWithHeader()
-          .setAtIndex(JAVA_SHORT, getBaseIndex() + i, value.getHalfFloatValue());
-    }
+    tensorStorage.init(value.getHalfFloatValue());
   }
 
   public void set(int index, HalfFloat value) {
@@ -80,6 +77,68 @@ public final class TensorFP16 extends Tensor {
     return new HalfFloat(halfFloatValue);
   }
 
+  /**
+   * Sets the float-16 value, in its short representation, at the specified index. This accessor
+   * does not allocate a {@link HalfFloat} object.
+   *
+   * @param index The index at which to set the value.
+   * @param value The float-16 bits to store.
+   */
+  public void setShort(int index, short value) {
+    tensorStorage.setShort(index, value);
+  }
+
+  /**
+   * Gets the float-16 value, in its short representation, stored at the specified index. This
+   * accessor does not allocate a {@link HalfFloat} object.
+   *
+   * @param index The index of which to retrieve the value.
+   * @return The float-16 bits.
+   */
+  public short getShort(int index) {
+    return tensorStorage.getShort(index);
+  }
+
+  /**
+   * Converts a float value to float-16 and stores it at the specified index.
+   *
+   * @param index The index at which to set the value.
+   * @param value The float value to store.
+   */
+  public void setFloat(int index, float value) {
+    tensorStorage.setFloat(index, value);
+  }
+
+  /**
+   * Gets the value stored at the specified index converted to float-32.
+   *
+   * @param index The index of which to retrieve the value.
+   * @return The float-32 value.
+   */
+  public float getFloat(int index) {
+    return tensorStorage.getFloat(index);
+  }
+
+  /**
+   * Converts all the elements of a {@link FloatArray} to float-16 and stores them in the tensor.
+   *
+   * @param values The {@link FloatArray} to convert, with the same number of elements as the
+   *     tensor.
+   */
+  public void copyFrom(FloatArray values) {
+    tensorStorage.copyFrom(values);
+  }
+
+  /**
+   * Converts all the elements of the tensor to float-32 and stores them in a {@link FloatArray}.
+   *
+   * @param output The {@link FloatArray} in which the values are stored, with the same number of
+   *     elements as the tensor.
+   */
+  public void copyTo(FloatArray output) {
+    tensorStorage.copyTo(output);
+  }
+
   @Override
   public int getSize() {
     return numberOfElements;
@@ -107,7 +166,7 @@ public final class TensorFP16 extends Tensor {
 
   @Override
   protected void clear() {
-    init(new HalfFloat(0));
+    tensorStorage.init((short) 0);
   }
 
   @Override
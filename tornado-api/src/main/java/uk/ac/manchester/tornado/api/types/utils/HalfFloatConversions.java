@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.utils;
+
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT_UNALIGNED;
+import static java.lang.foreign.ValueLayout.JAVA_SHORT_UNALIGNED;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteOrder;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Bulk conversions between float-32 and float-16 values stored in {@link MemorySegment}s. The
+ * conversions are implemented with the Vector API and produce the same results as {@link
+ * Float#floatToFloat16(float)} (round to nearest even) and {@link Float#float16ToFloat(short)} for
+ * all non-NaN values. NaN values are converted to quiet NaNs: the sign and payload bits are kept
+ * and the quiet bit is set, so signaling NaNs are quieted as the hardware conversions do.
+ */
+public final class HalfFloatConversions {
+
+  private static final ByteOrder ORDER = ByteOrder.nativeOrder();
+  private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Integer> INT_SPECIES =
+      VectorSpecies.of(int.class, FLOAT_SPECIES.vectorShape());
+
+  // The vector loops need a short species with the same number of lanes (half the bit size)
+  private static final boolean VECTORIZE = FLOAT_SPECIES.vectorBitSize() >= 128;
+  private static final VectorSpecies<Short> SHORT_SPECIES =
+      VECTORIZE
+          ? VectorSpecies.of(
+              short.class, VectorShape.forBitSize(FLOAT_SPECIES.vectorBitSize() / 2))
+          : null;
+
+  // Bit patterns used by the conversions
+  private static final int FLOAT_EXPONENT_MASK = 0x7f800000;
+  private static final int HALF_OVERFLOW = 0x477ff000; // 65520.0f: max half + 1/2 ulp
+  private static final int HALF_MIN_NORMAL = 0x38800000; // 2^-14
+  private static final int HALF_INFINITY = 0x7c00;
+  private static final int SUBNORMAL_MAGIC = 0x3f000000; // 0.5f
+  private static final int REBIAS = (127 - 15) << 23;
+  private static final int SHIFTED_HALF_EXPONENT = HALF_INFINITY << 13;
+  private static final int FLOAT_QUIET_NAN = 0x00400000;
+  private static final int HALF_QUIET_NAN = 0x0200;
+
+  private HalfFloatConversions() {}
+
+  /**
+   * Converts {@code length} float-32 values into float-16 values.
+   *
+   * @param src Segment with the float values.
+   * @param srcOffset Offset, in bytes, of the first float in the source segment.
+   * @param dst Segment in which the half float values are stored.
+   * @param dstOffset Offset, in bytes, of the first half float in the destination segment.
+   * @param length Number of elements to convert.
+   */
+  public static void floatToHalf(
+      MemorySegment src, long srcOffset, MemorySegment dst, long dstOffset, int length) {
+    int i = 0;
+    if (VECTORIZE) {
+      final int bound = FLOAT_SPECIES.loopBound(length);
+      for (; i < bound; i += FLOAT_SPECIES.length()) {
+        IntVector bits =
+            FloatVector.fromMemorySegment(
+                    FLOAT_SPECIES, src, srcOffset + (long) i * Float.BYTES, ORDER)
+                .reinterpretAsInts();
+        ((ShortVector) floatBitsToHalf(bits).convertShape(VectorOperators.I2S, SHORT_SPECIES, 0))
+            .intoMemorySegment(dst, dstOffset + (long) i * Short.BYTES, ORDER);
+      }
+    }
+    for (; i < length; i++) {
+      float value = src.get(JAVA_FLOAT_UNALIGNED, srcOffset + (long) i * Float.BYTES);
+      dst.set(JAVA_SHORT_UNALIGNED, dstOffset + (long) i * Short.BYTES, toHalf(value));
+    }
+  }
+
+  /**
+   * Converts {@code length} float-16 values into float-32 values.
+   *
+   * @param src Segment with the half float values.
+   * @param srcOffset Offset, in bytes, of the first half float in the source segment.
+   * @param dst Segment in which the float values are stored.
+   * @param dstOffset Offset, in bytes, of the first float in the destination segment.
+   * @param length Number of elements to convert.
+   */
+  public static void halfToFloat(
+      MemorySegment src, long srcOffset, MemorySegment dst, long dstOffset, int length) {
+    int i = 0;
+    if (VECTORIZE) {
+      final int bound = FLOAT_SPECIES.loopBound(length);
+      for (; i < bound; i += FLOAT_SPECIES.length()) {
+        IntVector half =
+            (IntVector)
+                ShortVector.fromMemorySegment(
+                        SHORT_SPECIES, src, srcOffset + (long) i * Short.BYTES, ORDER)
+                    .convertShape(VectorOperators.S2I, INT_SPECIES, 0);
+        halfBitsToFloat(half.and(0xffff))
+            .reinterpretAsFloats()
+            .intoMemorySegment(dst, dstOffset + (long) i * Float.BYTES, ORDER);
+      }
+    }
+    for (; i < length; i++) {
+      short value = src.get(JAVA_SHORT_UNALIGNED, srcOffset + (long) i * Short.BYTES);
+      dst.set(JAVA_FLOAT_UNALIGNED, dstOffset + (long) i * Float.BYTES, toFloat(value));
+    }
+  }
+
+  private static short toHalf(float value) {
+    if (Float.isNaN(value)) {
+      // Same payload bits as the vector loop, which intrinsics of Float.floatToFloat16 may drop
+      int bits = Float.floatToRawIntBits(value);
+      return (short)
+          ((bits >>> 16) & 0x8000
+              | (bits & 0x007fe000) >> 13
+              | (bits & 0x00001ff0) >> 4
+              | (bits & 0x0000000f)
+              | HALF_INFINITY
+              | HALF_QUIET_NAN);
+    }
+    return Float.floatToFloat16(value);
+  }
+
+  private static float toFloat(short half) {
+    float value = Float.float16ToFloat(half);
+    return Float.isNaN(value)
+        ? Float.intBitsToFloat(Float.floatToRawIntBits(value) | FLOAT_QUIET_NAN)
+        : value;
+  }
+
+  private static IntVector floatBitsToHalf(IntVector bits) {
+    final IntVector sign = bits.and(0x80000000).lanewise(VectorOperators.LSHR, 16);
+    final IntVector abs = bits.and(0x7fffffff);
+
+    // Normal half values: round to nearest even on the 13 discarded mantissa bits
+    final IntVector mantissaOdd = abs.lanewise(VectorOperators.LSHR, 13).and(1);
+    final IntVector normal =
+        abs.add(0xfff - REBIAS).add(mantissaOdd).lanewise(VectorOperators.LSHR, 13);
+
+    // Subnormal half values (and zeros): the FP addition performs the rounding
+    final IntVector subnormal =
+        abs.reinterpretAsFloats()
+            .add(Float.intBitsToFloat(SUBNORMAL_MAGIC))
+            .reinterpretAsInts()
+            .sub(SUBNORMAL_MAGIC);
+
+    // NaN: keep the payload bits in the same way as Float.floatToFloat16 and set the quiet bit
+    final IntVector nan =
+        abs.and(0x007fe000)
+            .lanewise(VectorOperators.LSHR, 13)
+            .or(abs.and(0x00001ff0).lanewise(VectorOperators.LSHR, 4))
+            .or(abs.and(0x0000000f))
+            .or(HALF_INFINITY | HALF_QUIET_NAN);
+
+    final VectorMask<Integer> isNormal = abs.compare(VectorOperators.GE, HALF_MIN_NORMAL);
+    final VectorMask<Integer> isOverflow = abs.compare(VectorOperators.GE, HALF_OVERFLOW);
+    final VectorMask<Integer> isNaN = abs.compare(VectorOperators.GT, FLOAT_EXPONENT_MASK);
+    return subnormal
+        .blend(normal, isNormal)
+        .blend(HALF_INFINITY, isOverflow)
+        .blend(nan, isNaN)
+        .or(sign);
+  }
+
+  private static IntVector halfBitsToFloat(IntVector half) {
+    final IntVector shifted = half.and(0x7fff).lanewise(VectorOperators.LSHL, 13);
+    final IntVector exponent = shifted.and(SHIFTED_HALF_EXPONENT);
+    final IntVector rebiased = shifted.add(REBIAS);
+
+    // Infinity and NaN: move to the float-32 maximum exponent. NaN values are quieted.
+    final IntVector infNaN = rebiased.add(REBIAS);
+    final IntVector quietNaN = infNaN.or(FLOAT_QUIET_NAN);
+    // Zero and subnormal values: renormalise with an FP subtraction
+    final IntVector subnormal =
+        rebiased
+            .add(1 << 23)
+            .reinterpretAsFloats()
+            .sub(Float.intBitsToFloat(HALF_MIN_NORMAL))
+            .reinterpretAsInts();
+
+    return rebiased
+        .blend(infNaN, exponent.compare(VectorOperators.EQ, SHIFTED_HALF_EXPONENT))
+        .blend(quietNaN, shifted.compare(VectorOperators.GT, SHIFTED_HALF_EXPONENT))
+        .blend(subnormal, exponent.compare(VectorOperators.EQ, 0))
+        .or(half.and(0x8000).lanewise(VectorOperators.LSHL, 16));
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.utils;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Atomic read-modify-write operations on the elements of a {@link MemorySegment}. The index is the
+ * position of the element in the segment, counted in elements of the accessed type. Every method
+ * returns the value of the element before the update.
+ *
+ * <p>These methods back the atomics of {@link uk.ac.manchester.tornado.api.KernelContext} over
+ * native arrays. The TornadoVM JIT compiler replaces them with the atomic instructions of each
+ * backend, and the implementations in this class are used when the kernel runs on the JVM.
+ *
+ * <p>The float operations work on the bit pattern of the element, so {@link
+ * #compareAndExchange(MemorySegment, long, float, float)} compares the raw bits of the values.
+ *
+ * @since 1.0.8
+ */
+public final class SegmentAtomics {
+
+  private static final VarHandle INT_HANDLE = ValueLayout.JAVA_INT.arrayElementVarHandle();
+  private static final VarHandle LONG_HANDLE = ValueLayout.JAVA_LONG.arrayElementVarHandle();
+
+  private SegmentAtomics() {}
+
+  public static int getAndAdd(MemorySegment segment, long index, int value) {
+    return (int) INT_HANDLE.getAndAdd(segment, index, value);
+  }
+
+  public static int getAndMin(MemorySegment segment, long index, int value) {
+    int current = (int) INT_HANDLE.getVolatile(segment, index);
+    while (value < current) {
+      int witness = (int) INT_HANDLE.compareAndExchange(segment, index, current, value);
+      if (witness == current) {
+        break;
+      }
+      current = witness;
+    }
+    return current;
+  }
+
+  public static int getAndMax(MemorySegment segment, long index, int value) {
+    int current = (int) INT_HANDLE.getVolatile(segment, index);
+    while (value > current) {
+      int witness = (int) INT_HANDLE.compareAndExchange(segment, index, current, value);
+      if (witness == current) {
+        break;
+      }
+      current = witness;
+    }
+    return current;
+  }
+
+  public static int getAndSet(MemorySegment segment, long index, int value) {
+    return (int) INT_HANDLE.getAndSet(segment, index, value);
+  }
+
+  public static int compareAndExchange(
+      MemorySegment segment, long index, int expected, int value) {
+    return (int) INT_HANDLE.compareAndExchange(segment, index, expected, value);
+  }
+
+  public static long getAndAdd(MemorySegment segment, long index, long value) {
+    return (long) LONG_HANDLE.getAndAdd(segment, index, value);
+  }
+
+  public static long getAndMin(MemorySegment segment, long index, long value) {
+    long current = (long) LONG_HANDLE.getVolatile(segment, index);
+    while (value < current) {
+      long witness = (long) LONG_HANDLE.compareAndExchange(segment, index, current, value);
+      if (witness == current) {
+        break;
+      }
+      current = witness;
+    }
+    return current;
+  }
+
+  public static long getAndMax(MemorySegment segment, long index, long value) {
+    long current = (long) LONG_HANDLE.getVolatile(segment, index);
+    while (value > current) {
+      long witness = (long) LONG_HANDLE.compareAndExchange(segment, index, current, value);
+      if (witness == current) {
+        break;
+      }
+      current = witness;
+    }
+    return current;
+  }
+
+  public static long getAndSet(MemorySegment segment, long index, long value) {
+    return (long) LONG_HANDLE.getAndSet(segment, index, value);
+  }
+
+  public static long compareAndExchange(
+      MemorySegment segment, long index, long expected, long value) {
+    return (long) LONG_HANDLE.compareAndExchange(segment, index, expected, value);
+  }
+
+  private static float updateFloat(
+      MemorySegment segment, long index, float value, FloatOperation operation) {
+    int current = (int) INT_HANDLE.getVolatile(segment, index);
+    while (true) {
+      float old = Float.intBitsToFloat(current);
+      int next = Float.floatToRawIntBits(operation.apply(old, value));
+      int witness = (int) INT_HANDLE.compareAndExchange(segment, index, current, next);
+      if (witness == current) {
+        return old;
+      }
+      current = witness;
+    }
+  }
+
+  public static float getAndAdd(MemorySegment segment, long index, float value) {
+    return updateFloat(segment, index, value, Float::sum);
+  }
+
+  public static float getAndMin(MemorySegment segment, long index, float value) {
+    return updateFloat(segment, index, value, Math::min);
+  }
+
+  public static float getAndMax(MemorySegment segment, long index, float value) {
+    return updateFloat(segment, index, value, Math::max);
+  }
+
+  public static float getAndSet(MemorySegment segment, long index, float value) {
+    return Float.intBitsToFloat(
+        (int) INT_HANDLE.getAndSet(segment, index, Float.floatToRawIntBits(value)));
+  }
+
+  public static float compareAndExchange(
+      MemorySegment segment, long index, float expected, float value) {
+    return Float.intBitsToFloat(
+        (int)
+            INT_HANDLE.compareAndExchange(
+                segment, index, Float.floatToRawIntBits(expected), Float.floatToRawIntBits(value)));
+  }
+
+  @FunctionalInterface
+  private interface FloatOperation {
+    float apply(float a, float b);
+  }
+}
@@ -93,5 +93,44 @@ public class LinearAlgebraArrays {
       out.set(i, t);
     }
   }
+
+  public static void spmvEll(
+      final FloatArray val,
+      final IntArray cols,
+      final int width,
+      final FloatArray vec,
+      final int dim,
+      final FloatArray out) {
+    for (@Parallel int i = 0; i < dim; i++) {
+      float t = 0.0f;
+      for (int k = 0; k < width; k++) {
+        final int index = k * dim + i;
+        t += val.get(index) * vec.get(cols.get(index));
+      }
+      out.set(i, t);
+    }
+  }
+
+  public static void spmvSellCSigma(
+      final FloatArray val,
+      final IntArray cols,
+      final IntArray slices,
+      final IntArray rowOrder,
+      final int sliceHeight,
+      final FloatArray vec,
+      final int dim,
+      final FloatArray out) {
+    for (@Parallel int i = 0; i < dim; i++) {
+      final int slice = i / sliceHeight;
+      final int start = slices.get(slice) + (i % sliceHeight);
+      final int width = (slices.get(slice + 1) - slices.get(slice)) / sliceHeight;
+      float t = 0.0f;
+      for (int k = 0; k < width; k++) {
+        final int index = start + k * sliceHeight;
+        t += val.get(index) * vec.get(cols.get(index));
+      }
+      out.set(rowOrder.get(i), t);
+    }
+  }
   // CHECKSTYLE:ON
 }
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.benchmarks.atomics;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import uk.ac.manchester.tornado.api.GridScheduler;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.WorkerGrid1D;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+
+/**
+ * Level-synchronous breadth-first search over a graph in CSR format. Each execution expands one
+ * level: the threads of the vertices in the frontier claim their unvisited neighbours with an
+ * atomic compare-and-exchange and count them with an atomic add. The host runs one execution per
+ * level until no vertex is discovered.
+ *
+ * <p>How to run in isolation? <code>
+ * tornado -jar tornado-benchmarks/target/jmhbenchmarks.jar uk.ac.manchester.tornado.benchmarks.atomics.JMHBfs
+ * </code>
+ */
+public class JMHBfs {
+
+  private static final int SOURCE = 0;
+
+  /** Resets the levels of the vertices before the first level of a search. */
+  public static void reset(KernelContext context, IntArray levels, IntArray control) {
+    int v = context.globalIdx;
+    if (control.get(0) == 0) {
+      levels.set(v, v == SOURCE ? 0 : -1);
+    }
+  }
+
+  public static void expand(
+      KernelContext context, IntArray rowPtr, IntArray cols, IntArray levels, IntArray control) {
+    int v = context.globalIdx;
+    int level = control.get(0);
+    if (levels.get(v) == level) {
+      for (int e = rowPtr.get(v); e < rowPtr.get(v + 1); e++) {
+        if (context.atomicCompareAndExchange(levels, cols.get(e), -1, level + 1) == -1) {
+          context.atomicAdd(control, 1, 1);
+        }
+      }
+    }
+  }
+
+  public static void bfsJava(IntArray rowPtr, IntArray cols, int[] levels, int[] queue) {
+    Arrays.fill(levels, -1);
+    levels[SOURCE] = 0;
+    queue[0] = SOURCE;
+    int head = 0;
+    int tail = 1;
+    while (head < tail) {
+      int v = queue[head++];
+      for (int e = rowPtr.get(v); e < rowPtr.get(v + 1); e++) {
+        int u = cols.get(e);
+        if (levels[u] == -1) {
+          levels[u] = levels[v] + 1;
+          queue[tail++] = u;
+        }
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class BenchmarkSetup {
+
+    private int numVertices = Integer.parseInt(System.getProperty("x", "1048576"));
+    private int degree = Integer.parseInt(System.getProperty("degree", "8"));
+    private IntArray rowPtr;
+    private IntArray cols;
+    private IntArray levels;
+    private IntArray control;
+    private int[] levelsJava;
+    private int[] queue;
+
+    private TornadoExecutionPlan executor;
+
+    @Setup(Level.Trial)
+    public void doSetup() {
+      // Ring plus pseudo-random edges, so the graph is connected and has a small diameter
+      rowPtr = new IntArray(numVertices + 1);
+      cols = new IntArray(numVertices * degree);
+      for (int v = 0; v < numVertices; v++) {
+        rowPtr.set(v, v * degree);
+        cols.set(v * degree, (v + 1) % numVertices);
+        for (int k = 1; k < degree; k++) {
+          long hash = (v * 2654435761L + k * 40503L) & Integer.MAX_VALUE;
+          cols.set(v * degree + k, (int) (hash % numVertices));
+        }
+      }
+      rowPtr.set(numVertices, numVertices * degree);
+      levels = new IntArray(numVertices);
+      control = new IntArray(2);
+      levelsJava = new int[numVertices];
+      queue = new int[numVertices];
+
+      TaskGraph taskGraph =
+          new TaskGraph("benchmark") //
+              .transferToDevice(DataTransferMode.FIRST_EXECUTION, rowPtr, cols, levels) //
+              .transferToDevice(DataTransferMode.EVERY_EXECUTION, control) //
+              .task("reset", JMHBfs::reset, new KernelContext(), levels, control) //
+              .task("expand", JMHBfs::expand, new KernelContext(), rowPtr, cols, levels, control) //
+              .transferToHost(DataTransferMode.EVERY_EXECUTION, control);
+      ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+      WorkerGrid1D worker = new WorkerGrid1D(numVertices);
+      GridScheduler gridScheduler = new GridScheduler();
+      gridScheduler.setWorkerGrid("benchmark.reset", worker);
+      gridScheduler.setWorkerGrid("benchmark.expand", worker);
+      executor = new TornadoExecutionPlan(immutableTaskGraph);
+      executor.withGridScheduler(gridScheduler).withWarmUp();
+    }
+
+    /** Runs one search and returns the number of levels. */
+    int bfsTornado() {
+      control.set(0, 0);
+      do {
+        control.set(1, 0);
+        executor.execute();
+        control.set(0, control.get(0) + 1);
+      } while (control.get(1) > 0);
+      return control.get(0);
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Fork(1)
+  public void bfsJava(BenchmarkSetup state, Blackhole blackhole) {
+    bfsJava(state.rowPtr, state.cols, state.levelsJava, state.queue);
+    blackhole.consume(state.levelsJava);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Fork(1)
+  public void bfsTornado(BenchmarkSetup state, Blackhole blackhole) {
+    blackhole.consume(state.bfsTornado());
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt =
+        new OptionsBuilder() //
+            .include(JMHBfs.class.getName() + ".*") //
+            .mode(Mode.AverageTime) //
+            .timeUnit(TimeUnit.NANOSECONDS) //
+            .warmupTime(TimeValue.seconds(30)) //
+            .warmupIterations(2) //
+            .measurementTime(TimeValue.seconds(30)) //
+            .measurementIterations(5) //
+            .forks(1) //
+            .build();
+    new Runner(opt).run();
+  }
+}
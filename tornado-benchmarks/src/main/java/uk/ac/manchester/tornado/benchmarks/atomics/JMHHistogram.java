@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.benchmarks.atomics;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import uk.ac.manchester.tornado.api.GridScheduler;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.WorkerGrid1D;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+
+/**
+ * Histogram with global-memory atomics from the {@link KernelContext}. Every thread adds one
+ * element to its bin, so a small number of bins stresses the contention of the atomic units.
+ *
+ * <p>How to run in isolation? <code>
+ * tornado -jar tornado-benchmarks/target/jmhbenchmarks.jar uk.ac.manchester.tornado.benchmarks.atomics.JMHHistogram
+ * </code>
+ */
+public class JMHHistogram {
+
+  public static void histogram(KernelContext context, IntArray input, IntArray bins) {
+    int i = context.globalIdx;
+    context.atomicAdd(bins, input.get(i) % bins.getSize(), 1);
+  }
+
+  public static void histogramJava(IntArray input, IntArray bins) {
+    for (int i = 0; i < input.getSize(); i++) {
+      int bin = input.get(i) % bins.getSize();
+      bins.set(bin, bins.get(bin) + 1);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class BenchmarkSetup {
+
+    private int numElements = Integer.parseInt(System.getProperty("x", "16777216"));
+    private int numBins = Integer.parseInt(System.getProperty("bins", "256"));
+    private IntArray input;
+    private IntArray bins;
+
+    private TornadoExecutionPlan executor;
+
+    @Setup(Level.Trial)
+    public void doSetup() {
+      input = new IntArray(numElements);
+      bins = new IntArray(numBins);
+      // Skewed distribution: half of the elements fall in the first bins
+      for (int i = 0; i < numElements; i++) {
+        input.set(i, (i % 2 == 0) ? (i % 8) : (int) ((i * 2654435761L) >>> 8) & Integer.MAX_VALUE);
+      }
+
+      TaskGraph taskGraph =
+          new TaskGraph("benchmark") //
+              .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+              .transferToDevice(DataTransferMode.EVERY_EXECUTION, bins) //
+              .task("histogram", JMHHistogram::histogram, new KernelContext(), input, bins) //
+              .transferToHost(DataTransferMode.EVERY_EXECUTION, bins);
+      ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+      GridScheduler gridScheduler =
+          new GridScheduler("benchmark.histogram", new WorkerGrid1D(numElements));
+      executor = new TornadoExecutionPlan(immutableTaskGraph);
+      executor.withGridScheduler(gridScheduler).withWarmUp();
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Fork(1)
+  public void histogramJava(BenchmarkSetup state, Blackhole blackhole) {
+    state.bins.init(0);
+    histogramJava(state.input, state.bins);
+    blackhole.consume(state.bins);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Fork(1)
+  public void histogramTornado(BenchmarkSetup state, Blackhole blackhole) {
+    state.bins.init(0);
+    state.executor.execute();
+    blackhole.consume(state.bins);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt =
+        new OptionsBuilder() //
+            .include(JMHHistogram.class.getName() + ".*") //
+            .mode(Mode.AverageTime) //
+            .timeUnit(TimeUnit.NANOSECONDS) //
+            .warmupTime(TimeValue.seconds(30)) //
+            .warmupIterations(2) //
+            .measurementTime(TimeValue.seconds(30)) //
+            .measurementIterations(5) //
+            .forks(1) //
+            .build();
+    new Runner(opt).run();
+  }
+}
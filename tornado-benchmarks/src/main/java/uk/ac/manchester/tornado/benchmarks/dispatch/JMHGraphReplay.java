@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.benchmarks.dispatch;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+
+/**
+ * Host overhead of a task-graph with many small kernels: one launch per task (default) vs. the
+ * replay of the recorded launches with a single enqueue ({@code -Dtornado.replay=true}). The
+ * launches are contiguous, since the inputs are only copied in the first execution. Each mode runs
+ * in its own fork because the option is read at start-up.
+ *
+ * <p>How to run in isolation? <code>
+ * tornado -jar tornado-benchmarks/target/jmhbenchmarks.jar uk.ac.manchester.tornado.benchmarks.dispatch.JMHGraphReplay
+ * </code>
+ */
+public class JMHGraphReplay {
+
+  public static void scaleAdd(FloatArray a, FloatArray b) {
+    for (@Parallel int i = 0; i < b.getSize(); i++) {
+      b.set(i, b.get(i) * 0.5f + a.get(i));
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class BenchmarkSetup {
+
+    private int numElements = Integer.parseInt(System.getProperty("x", "256"));
+    private int numTasks = Integer.parseInt(System.getProperty("tasks", "32"));
+    private FloatArray a;
+    private FloatArray b;
+
+    private TornadoExecutionPlan executor;
+
+    @Setup(Level.Trial)
+    public void doSetup() {
+      a = new FloatArray(numElements);
+      b = new FloatArray(numElements);
+      a.init(1.0f);
+
+      TaskGraph taskGraph =
+          new TaskGraph("benchmark") //
+              .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b);
+      for (int i = 0; i < numTasks; i++) {
+        taskGraph.task("t" + i, JMHGraphReplay::scaleAdd, a, b);
+      }
+      taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, b);
+      ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+      executor = new TornadoExecutionPlan(immutableTaskGraph);
+      executor.withWarmUp();
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Fork(1)
+  public void dispatchEachLaunch(BenchmarkSetup state, Blackhole blackhole) {
+    state.executor.execute();
+    blackhole.consume(state.b);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Fork(
+      value = 1,
+      jvmArgsAppend = {"-Dtornado.replay=true"})
+  public void replayLaunches(BenchmarkSetup state, Blackhole blackhole) {
+    state.executor.execute();
+    blackhole.consume(state.b);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt =
+        new OptionsBuilder() //
+            .include(JMHGraphReplay.class.getName() + ".*") //
+            .mode(Mode.AverageTime) //
+            .timeUnit(TimeUnit.NANOSECONDS) //
+            .warmupTime(TimeValue.seconds(30)) //
+            .warmupIterations(2) //
+            .measurementTime(TimeValue.seconds(30)) //
+            .measurementIterations(5) //
+            .forks(1) //
+            .build();
+    new Runner(opt).run();
+  }
+}
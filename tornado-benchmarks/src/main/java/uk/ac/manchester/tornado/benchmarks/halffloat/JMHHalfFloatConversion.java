@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.benchmarks.halffloat;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import uk.ac.manchester.tornado.api.types.HalfFloat;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.HalfFloatArray;
+import uk.ac.manchester.tornado.api.types.tensors.Shape;
+import uk.ac.manchester.tornado.api.types.tensors.TensorFP16;
+
+/**
+ * Host-side FP16 conversions: per-element access through {@link HalfFloat} objects vs. primitive
+ * accessors vs. bulk SIMD conversion.
+ *
+ * <p>How to run in isolation? <code>
+ * tornado -jar tornado-benchmarks/target/jmhbenchmarks.jar uk.ac.manchester.tornado.benchmarks.halffloat.JMHHalfFloatConversion
+ * </code>
+ */
+public class JMHHalfFloatConversion {
+  @State(Scope.Thread)
+  public static class BenchmarkSetup {
+
+    private int numElements = Integer.parseInt(System.getProperty("x", "16777216"));
+    private FloatArray input;
+    private FloatArray output;
+    private HalfFloatArray halfArray;
+    private TensorFP16 tensor;
+
+    @Setup(Level.Trial)
+    public void doSetup() {
+      input = new FloatArray(numElements);
+      output = new FloatArray(numElements);
+      halfArray = new HalfFloatArray(numElements);
+      tensor = new TensorFP16(new Shape(numElements));
+      for (int i = 0; i < numElements; i++) {
+        input.set(i, (i % 2048) * 0.25f - 256.0f);
+      }
+      halfArray.copyFrom(input);
+      tensor.copyFrom(input);
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Fork(1)
+  public void toHalfWithObjects(BenchmarkSetup state, Blackhole blackhole) {
+    for (int i = 0; i < state.numElements; i++) {
+      state.halfArray.set(i, new HalfFloat(state.input.get(i)));
+    }
+    blackhole.consume(state.halfArray);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Fork(1)
+  public void toHalfWithAccessors(BenchmarkSetup state, Blackhole blackhole) {
+    for (int i = 0; i < state.numElements; i++) {
+      state.halfArray.setFloat(i, state.input.get(i));
+    }
+    blackhole.consume(state.halfArray);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Fork(1)
+  public void toHalfBulk(BenchmarkSetup state, Blackhole blackhole) {
+    state.halfArray.copyFrom(state.input);
+    blackhole.consume(state.halfArray);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Fork(1)
+  public void toFloatWithObjects(BenchmarkSetup state, Blackhole blackhole) {
+    for (int i = 0; i < state.numElements; i++) {
+      state.output.set(i, state.halfArray.get(i).getFloat32());
+    }
+    blackhole.consume(state.output);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Fork(1)
+  public void toFloatWithAccessors(BenchmarkSetup state, Blackhole blackhole) {
+    for (int i = 0; i < state.numElements; i++) {
+      state.output.set(i, state.halfArray.getFloat(i));
+    }
+    blackhole.consume(state.output);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Fork(1)
+  public void toFloatBulk(BenchmarkSetup state, Blackhole blackhole) {
+    state.halfArray.copyTo(state.output);
+    blackhole.consume(state.output);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Fork(1)
+  public void tensorWithObjects(BenchmarkSetup state, Blackhole blackhole) {
+    for (int i = 0; i < state.numElements; i++) {
+      state.tensor.set(i, new HalfFloat(state.input.get(i)));
+    }
+    blackhole.consume(state.tensor);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Fork(1)
+  public void tensorBulk(BenchmarkSetup state, Blackhole blackhole) {
+    state.tensor.copyFrom(state.input);
+    blackhole.consume(state.tensor);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt =
+        new OptionsBuilder() //
+            .include(JMHHalfFloatConversion.class.getName() + ".*") //
+            .mode(Mode.AverageTime) //
+            .timeUnit(TimeUnit.NANOSECONDS) //
+            .warmupTime(TimeValue.seconds(10)) //
+            .warmupIterations(2) //
+            .measurementTime(TimeValue.seconds(10)) //
+            .measurementIterations(5) //
+            .forks(1) //
+            .build();
+    new Runner(opt).run();
+  }
+}
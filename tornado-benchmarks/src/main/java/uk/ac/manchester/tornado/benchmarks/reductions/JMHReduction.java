@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.benchmarks.reductions;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.annotations.Reduce;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.math.TornadoMath;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+
+/**
+ * Reductions with {@link Reduce}: one element per thread plus a sequential final task (default)
+ * vs. single-pass reductions with several elements per thread ({@code
+ * -Dtornado.reduce.singlepass=true}). Each mode runs in its own fork because the option is read at
+ * start-up.
+ *
+ * <p>How to run in isolation? <code>
+ * tornado -jar tornado-benchmarks/target/jmhbenchmarks.jar uk.ac.manchester.tornado.benchmarks.reductions.JMHReduction
+ * </code>
+ */
+public class JMHReduction {
+
+  public static void reduceAdd(FloatArray input, @Reduce FloatArray result) {
+    result.set(0, 0.0f);
+    for (@Parallel int i = 0; i < input.getSize(); i++) {
+      result.set(0, result.get(0) + input.get(i));
+    }
+  }
+
+  public static void reduceMax(FloatArray input, @Reduce FloatArray result) {
+    result.set(0, Float.MIN_VALUE);
+    for (@Parallel int i = 0; i < input.getSize(); i++) {
+      result.set(0, TornadoMath.max(result.get(0), input.get(i)));
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class BenchmarkSetup {
+
+    private int numElements = Integer.parseInt(System.getProperty("x", "67108864"));
+    private FloatArray input;
+    private FloatArray sum;
+    private FloatArray max;
+
+    private TornadoExecutionPlan executorAdd;
+    private TornadoExecutionPlan executorMax;
+
+    @Setup(Level.Trial)
+    public void doSetup() {
+      input = new FloatArray(numElements);
+      sum = new FloatArray(1);
+      max = new FloatArray(1);
+      for (int i = 0; i < numElements; i++) {
+        input.set(i, (i % 1024) * 0.001f);
+      }
+
+      TaskGraph taskGraphAdd =
+          new TaskGraph("benchmarkAdd") //
+              .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+              .task("reduceAdd", JMHReduction::reduceAdd, input, sum) //
+              .transferToHost(DataTransferMode.EVERY_EXECUTION, sum);
+      ImmutableTaskGraph immutableTaskGraphAdd = taskGraphAdd.snapshot();
+      executorAdd = new TornadoExecutionPlan(immutableTaskGraphAdd);
+      executorAdd.withWarmUp();
+
+      TaskGraph taskGraphMax =
+          new TaskGraph("benchmarkMax") //
+              .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+              .task("reduceMax", JMHReduction::reduceMax, input, max) //
+              .transferToHost(DataTransferMode.EVERY_EXECUTION, max);
+      ImmutableTaskGraph immutableTaskGraphMax = taskGraphMax.snapshot();
+      executorMax = new TornadoExecutionPlan(immutableTaskGraphMax);
+      executorMax.withWarmUp();
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Fork(1)
+  public void reduceAddTornado(BenchmarkSetup state, Blackhole blackhole) {
+    state.executorAdd.execute();
+    blackhole.consume(state.sum);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Fork(
+      value = 1,
+      jvmArgsAppend = {"-Dtornado.reduce.singlepass=true"})
+  public void reduceAddTornadoSinglePass(BenchmarkSetup state, Blackhole blackhole) {
+    state.executorAdd.execute();
+    blackhole.consume(state.sum);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Fork(1)
+  public void reduceMaxTornado(BenchmarkSetup state, Blackhole blackhole) {
+    state.executorMax.execute();
+    blackhole.consume(state.max);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Fork(
+      value = 1,
+      jvmArgsAppend = {"-Dtornado.reduce.singlepass=true"})
+  public void reduceMaxTornadoSinglePass(BenchmarkSetup state, Blackhole blackhole) {
+    state.executorMax.execute();
+    blackhole.consume(state.max);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt =
+        new OptionsBuilder() //
+            .include(JMHReduction.class.getName() + ".*") //
+            .mode(Mode.AverageTime) //
+            .timeUnit(TimeUnit.NANOSECONDS) //
+            .warmupTime(TimeValue.seconds(30)) //
+            .warmupIterations(2) //
+            .measurementTime(TimeValue.seconds(30)) //
+            .measurementIterations(5) //
+            .forks(1) //
+            .build();
+    new Runner(opt).run();
+  }
+}
@@ -23,11 +23,13 @@ import uk.ac.manchester.tornado.benchmarks.BenchmarkDriver;
 import uk.ac.manchester.tornado.benchmarks.BenchmarkRunner;
 import uk.ac.manchester.tornado.matrix.SparseMatrixUtils;
 import uk.ac.manchester.tornado.matrix.SparseMatrixUtils.CSRMatrix;
+import uk.ac.manchester.tornado.matrix.SparseMatrixUtils.SparseFormat;
 
 public class Benchmark extends BenchmarkRunner {
 
   private CSRMatrix<FloatArray> matrix;
   private String path;
+  private SparseFormat format;
 
   public static void initData(final FloatArray v) {
     final Random rand = new Random();
@@ -49,6 +51,21 @@ public class Benchmark extends BenchmarkRunner {
       matrix = SparseMatrixUtils.loadMatrixF(Benchmark.class.getResourceAsStream(path));
       iterations = Integer.parseInt(System.getProperty("spmv.iterations", "1400"));
     }
+    format = parseFormat(System.getProperty("spmv.format", "csr"), matrix);
+  }
+
+  /**
+   * Parses the sparse format of the TornadoVM kernel: csr, ell, sell or auto. The auto format is
+   * selected from the row-length statistics of the matrix.
+   */
+  public static SparseFormat parseFormat(String name, CSRMatrix<FloatArray> matrix) {
+    return switch (name.toLowerCase()) {
+      case "csr" -> SparseFormat.CSR;
+      case "ell" -> SparseFormat.ELL;
+      case "sell" -> SparseFormat.SELL_C_SIGMA;
+      case "auto" -> SparseMatrixUtils.selectFormat(matrix);
+      default -> throw new IllegalArgumentException("Unknown sparse format: " + name);
+    };
   }
 
   @Override
@@ -58,12 +75,13 @@ public class Benchmark extends BenchmarkRunner {
 
   @Override
   protected String getIdString() {
-    return String.format("%s-%d-%d-%s", getName(), iterations, matrix.size, path);
+    return String.format(
+        "%s-%d-%d-%s-%s", getName(), iterations, matrix.size, path, format.name().toLowerCase());
   }
 
   @Override
   protected String getConfigString() {
-    return String.format("matrix=%s", path);
+    return String.format("matrix=%s, format=%s", path, format.name().toLowerCase());
   }
 
   @Override
@@ -73,6 +91,6 @@ public class Benchmark extends BenchmarkRunner {
 
   @Override
   protected BenchmarkDriver getTornadoDriver() {
-    return new SpmvTornado(iterations, matrix);
+    return new SpmvTornado(iterations, matrix, format);
   }
 }
@@ -20,6 +20,7 @@ package uk.ac.manchester.tornado.benchmarks.spmv;
 import static uk.ac.manchester.tornado.benchmarks.LinearAlgebraArrays.spmv;
 import static uk.ac.manchester.tornado.benchmarks.spmv.Benchmark.initData;
 
+import java.io.File;
 import java.util.concurrent.TimeUnit;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -28,6 +29,7 @@ import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -39,22 +41,26 @@ import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.openjdk.jmh.runner.options.TimeValue;
 import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
-import uk.ac.manchester.tornado.api.TaskGraph;
 import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
-import uk.ac.manchester.tornado.api.enums.DataTransferMode;
 import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
-import uk.ac.manchester.tornado.benchmarks.LinearAlgebraArrays;
 import uk.ac.manchester.tornado.matrix.SparseMatrixUtils;
+import uk.ac.manchester.tornado.matrix.SparseMatrixUtils.SparseFormat;
 
 /**
  * How to run in isolation? <code>
  * tornado -jar tornado-benchmarks/target/jmhbenchmarks.jar uk.ac.manchester.tornado.benchmarks.spmv.JMHSpmv
  * </code>
+ *
+ * <p>The TornadoVM kernel runs for each sparse format (csr, ell, sell and auto). A matrix in the
+ * file system can be compared with -Dspmv.matrix=/path/to/matrix.mtx.
  */
 public class JMHSpmv {
 
   @State(Scope.Thread)
   public static class BenchmarkSetup {
+    @Param({"csr", "ell", "sell", "auto"})
+    private String format;
+
     private SparseMatrixUtils.CSRMatrix<FloatArray> matrix;
     private FloatArray v;
     private FloatArray y;
@@ -63,27 +69,20 @@ public class JMHSpmv {
     @Setup(Level.Trial)
     public void doSetup() {
       String path = System.getProperty("spmv.matrix", "/bcsstk32.mtx");
-      matrix =
-          SparseMatrixUtils.loadMatrixF(
-              uk.ac.manchester.tornado.benchmarks.spmv.Benchmark.class.getResourceAsStream(path));
+      if (new File(path).isFile()) {
+        matrix = SparseMatrixUtils.loadMatrixF(path);
+      } else {
+        matrix =
+            SparseMatrixUtils.loadMatrixF(
+                uk.ac.manchester.tornado.benchmarks.spmv.Benchmark.class.getResourceAsStream(path));
+      }
       v = new FloatArray(matrix.size);
       y = new FloatArray(matrix.size);
       initData(v);
-      TaskGraph taskGraph =
-          new TaskGraph("benchmark") //
-              .transferToDevice(
-                  DataTransferMode.EVERY_EXECUTION, matrix.vals, matrix.cols, matrix.rows, v, y) //
-              .task(
-                  "spmv",
-                  LinearAlgebraArrays::spmv,
-                  matrix.vals,
-                  matrix.cols,
-                  matrix.rows,
-                  v,
-                  matrix.size,
-                  y) //
-              .transferToHost(DataTransferMode.EVERY_EXECUTION, y);
-      ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+      SparseFormat sparseFormat =
+          uk.ac.manchester.tornado.benchmarks.spmv.Benchmark.parseFormat(format, matrix);
+      ImmutableTaskGraph immutableTaskGraph =
+          SpmvTornado.createTaskGraph(matrix, sparseFormat, v, y).snapshot();
       executor = new TornadoExecutionPlan(immutableTaskGraph);
       executor.withWarmUp();
     }
@@ -28,23 +28,97 @@ import uk.ac.manchester.tornado.api.enums.DataTransferMode;
 import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.benchmarks.BenchmarkDriver;
 import uk.ac.manchester.tornado.benchmarks.LinearAlgebraArrays;
+import uk.ac.manchester.tornado.matrix.SparseMatrixUtils;
 import uk.ac.manchester.tornado.matrix.SparseMatrixUtils.CSRMatrix;
+import uk.ac.manchester.tornado.matrix.SparseMatrixUtils.ELLMatrix;
+import uk.ac.manchester.tornado.matrix.SparseMatrixUtils.SellCSigmaMatrix;
+import uk.ac.manchester.tornado.matrix.SparseMatrixUtils.SparseFormat;
 
 /**
  * How to run? <code>
  * tornado -m tornado.benchmarks/uk.ac.manchester.tornado.benchmarks.BenchmarkRunner spmv
  * </code>
+ *
+ * <p>The sparse format of the kernel is selected with -Dspmv.format=csr|ell|sell|auto.
  */
 public class SpmvTornado extends BenchmarkDriver {
 
   private final CSRMatrix<FloatArray> matrix;
+  private final SparseFormat format;
 
   private FloatArray v;
   private FloatArray y;
 
   public SpmvTornado(int iterations, CSRMatrix<FloatArray> matrix) {
+    this(iterations, matrix, SparseFormat.CSR);
+  }
+
+  public SpmvTornado(int iterations, CSRMatrix<FloatArray> matrix, SparseFormat format) {
     super(iterations);
     this.matrix = matrix;
+    this.format = format;
+  }
+
+  /** Builds the SpMV task-graph for a sparse format. The result is in the original row order. */
+  public static TaskGraph createTaskGraph(
+      CSRMatrix<FloatArray> matrix, SparseFormat format, FloatArray v, FloatArray y) {
+    TaskGraph taskGraph = new TaskGraph("benchmark");
+    switch (format) {
+      case ELL -> {
+        ELLMatrix ell = SparseMatrixUtils.toELL(matrix);
+        taskGraph
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, ell.vals, ell.cols, v) //
+            .task(
+                "spmv",
+                LinearAlgebraArrays::spmvEll,
+                ell.vals,
+                ell.cols,
+                ell.width,
+                v,
+                ell.size,
+                y);
+      }
+      case SELL_C_SIGMA -> {
+        SellCSigmaMatrix sell =
+            SparseMatrixUtils.toSellCSigma(
+                matrix,
+                SparseMatrixUtils.SELL_DEFAULT_SLICE_HEIGHT,
+                SparseMatrixUtils.SELL_DEFAULT_SIGMA);
+        taskGraph
+            .transferToDevice(
+                DataTransferMode.EVERY_EXECUTION,
+                sell.vals,
+                sell.cols,
+                sell.slices,
+                sell.rowOrder,
+                v) //
+            .task(
+                "spmv",
+                LinearAlgebraArrays::spmvSellCSigma,
+                sell.vals,
+                sell.cols,
+                sell.slices,
+                sell.rowOrder,
+                sell.sliceHeight,
+                v,
+                sell.size,
+                y);
+      }
+      default ->
+          taskGraph
+              .transferToDevice(
+                  DataTransferMode.EVERY_EXECUTION, matrix.vals, matrix.cols, matrix.rows, v, y) //
+              .task(
+                  "spmv",
+                  LinearAlgebraArrays::spmv,
+                  matrix.vals,
+                  matrix.cols,
+                  matrix.rows,
+                  v,
+                  matrix.size,
+                  y);
+    }
+    return taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, y);
   }
 
   @Override
@@ -52,20 +126,7 @@ public class SpmvTornado extends BenchmarkDriver {
     v = new FloatArray(matrix.size);
     y = new FloatArray(matrix.size);
     initData(v);
-    taskGraph =
-        new TaskGraph("benchmark") //
-            .transferToDevice(
-                DataTransferMode.EVERY_EXECUTION, matrix.vals, matrix.cols, matrix.rows, v, y) //
-            .task(
-                "spmv",
-                LinearAlgebraArrays::spmv,
-                matrix.vals,
-                matrix.cols,
-                matrix.rows,
-                v,
-                matrix.size,
-                y) //
-            .transferToHost(DataTransferMode.EVERY_EXECUTION, y);
+    taskGraph = createTaskGraph(matrix, format, v, y);
 
     immutableTaskGraph = taskGraph.snapshot();
     executionPlan = new TornadoExecutionPlan(immutableTaskGraph);
@@ -0,0 +1,198 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.common;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException;
+import uk.ac.manchester.tornado.api.memory.DeviceBufferState;
+import uk.ac.manchester.tornado.api.memory.XPUBuffer;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Device-wide registry of the buffers allocated on a device, ordered by last use. It is used to
+ * oversubscribe the device memory: when an allocation does not fit, the least-recently-used buffers
+ * that are not in use by a running task-graph are evicted until the allocation succeeds.
+ *
+ * <p>A buffer is in use from its allocation until its deallocation in the same execution. Only
+ * buffers that survive an execution (locked buffers, e.g., {@code FIRST_EXECUTION} transfers or
+ * persisted objects) can be evicted. An evicted buffer is copied back to the host if a kernel
+ * modified it, and its state is reset, so the next execution allocates and transfers it again.
+ * Buffers shared with other states (e.g., consumed by another task-graph) are never evicted.
+ *
+ * <p>Eviction is enabled with {@code -Dtornado.device.memory.eviction=True}.
+ */
+public class TornadoBufferEvictionManager {
+
+  private final TornadoLogger logger = new TornadoLogger(this.getClass());
+
+  /** Access-ordered map: iteration starts at the least-recently-used state. */
+  private final LinkedHashMap<DeviceBufferState, Residency> residentStates;
+
+  private long numEvictions;
+  private long spilledBytes;
+
+  private static final class Residency {
+    private final Object object;
+    private boolean inUse;
+
+    private Residency(Object object) {
+      this.object = object;
+    }
+  }
+
+  public TornadoBufferEvictionManager() {
+    this.residentStates = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  /**
+   * Allocates the device buffer for an object. If the device runs out of memory and eviction is
+   * enabled, it evicts cold buffers and retries until the allocation succeeds or no buffer can be
+   * evicted.
+   *
+   * @param buffer Buffer to allocate.
+   * @param object Host object.
+   * @param batchSize Batch size, or 0 to allocate the whole object.
+   * @throws TornadoOutOfMemoryException if there is not enough device memory.
+   */
+  public void allocate(XPUBuffer buffer, Object object, long batchSize) {
+    while (true) {
+      try {
+        buffer.allocate(object, batchSize);
+        return;
+      } catch (TornadoOutOfMemoryException e) {
+        if (!TornadoOptions.DEVICE_MEMORY_EVICTION || !evictLeastRecentlyUsed()) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  /** Registers a use of the state. The buffer cannot be evicted until it is released. */
+  public synchronized void acquire(DeviceBufferState state, Object object) {
+    if (!TornadoOptions.DEVICE_MEMORY_EVICTION || state.isAtomicRegionPresent()) {
+      return;
+    }
+    Residency residency = residentStates.get(state);
+    if (residency == null) {
+      residency = new Residency(object);
+      residentStates.put(state, residency);
+    }
+    residency.inUse = true;
+  }
+
+  /**
+   * Ends the use of the state. Locked buffers stay resident on the device and become candidates
+   * for eviction. Any other buffer is released by the device, so it is no longer tracked.
+   */
+  public synchronized void release(DeviceBufferState state) {
+    if (!TornadoOptions.DEVICE_MEMORY_EVICTION) {
+      return;
+    }
+    if (state.isLockedBuffer() && state.hasObjectBuffer()) {
+      Residency residency = residentStates.get(state);
+      if (residency != null) {
+        residency.inUse = false;
+      }
+    } else {
+      residentStates.remove(state);
+    }
+  }
+
+  private boolean isBufferShared(DeviceBufferState state) {
+    if (state.isSharedBuffer()) {
+      return true;
+    }
+    XPUBuffer buffer = state.getXPUBuffer();
+    for (DeviceBufferState other : residentStates.keySet()) {
+      if (other != state && other.getXPUBuffer() == buffer) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isEvictable(DeviceBufferState state, Residency residency) {
+    return !residency.inUse
+        && state.isLockedBuffer()
+        && !state.isSharedVirtualMemory()
+        && !isBufferShared(state);
+  }
+
+  /**
+   * Evicts the least-recently-used buffer that is not in use.
+   *
+   * @return true if a buffer was evicted.
+   */
+  synchronized boolean evictLeastRecentlyUsed() {
+    Iterator<Map.Entry<DeviceBufferState, Residency>> iterator =
+        residentStates.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<DeviceBufferState, Residency> entry = iterator.next();
+      DeviceBufferState state = entry.getKey();
+      if (!state.hasObjectBuffer()) {
+        // The buffer was unlinked or released outside the device (e.g., shared buffers)
+        if (!entry.getValue().inUse) {
+          iterator.remove();
+        }
+        continue;
+      }
+      if (isEvictable(state, entry.getValue())) {
+        iterator.remove();
+        evict(state, entry.getValue().object);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void evict(DeviceBufferState state, Object object) {
+    XPUBuffer buffer = state.getXPUBuffer();
+    long size = buffer.size();
+    boolean dirty = state.isDirty();
+    if (dirty) {
+      buffer.read(state.getDirtyPlanId(), object);
+      spilledBytes += size;
+    }
+    buffer.markAsFreeBuffer();
+    buffer.deallocate();
+    state.setXPUBuffer(null);
+    state.setContents(false);
+    state.clearDirty();
+    numEvictions++;
+    logger.debug("Evicted buffer of %d bytes (dirty=%s)", size, dirty);
+  }
+
+  /** @return Number of buffers evicted from the device. */
+  public synchronized long getNumEvictions() {
+    return numEvictions;
+  }
+
+  /** @return Total bytes copied back to the host when evicting modified buffers. */
+  public synchronized long getSpilledBytes() {
+    return spilledBytes;
+  }
+}
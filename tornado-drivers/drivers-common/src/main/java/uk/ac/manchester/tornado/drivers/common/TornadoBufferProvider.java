@@ -31,6 +31,7 @@ import uk.ac.manchester.tornado.api.TornadoTargetDevice;
 import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
 import uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.jfr.DeviceBufferEvent;
 
 /**
  * This class implements a cache of allocated buffers on the device and also handles the logic to
@@ -45,6 +46,7 @@ public abstract class TornadoBufferProvider {
   protected final List<BufferContainer> freeBuffers;
   protected final List<BufferContainer> usedBuffers;
   protected long currentMemoryAvailable;
+  private final TornadoBufferEvictionManager evictionManager;
 
   private static final String RESET = "\u001B[0m";
   public static final String YELLOW = "\u001B[33m";
@@ -58,6 +60,11 @@ public abstract class TornadoBufferProvider {
     this.usedBuffers = new ArrayList<>();
     this.freeBuffers = new ArrayList<>();
     currentMemoryAvailable = TornadoOptions.DEVICE_AVAILABLE_MEMORY;
+    evictionManager = new TornadoBufferEvictionManager();
+  }
+
+  public TornadoBufferEvictionManager getEvictionManager() {
+    return evictionManager;
   }
 
   protected abstract long allocateBuffer(long size);
@@ -65,13 +72,29 @@ public abstract class TornadoBufferProvider {
   protected abstract void releaseBuffer(long buffer);
 
   private synchronized long allocate(long size) {
+    DeviceBufferEvent bufferEvent = new DeviceBufferEvent();
+    bufferEvent.begin();
     long buffer = allocateBuffer(size);
     currentMemoryAvailable -= size;
     BufferContainer bufferInfo = new BufferContainer(buffer, size);
     usedBuffers.add(bufferInfo);
+    bufferEvent.record(
+        DeviceBufferEvent.ALLOCATE, deviceContext.getDeviceName(), size, currentMemoryAvailable);
     return bufferInfo.buffer;
   }
 
+  private void release(BufferContainer bufferInfo) {
+    DeviceBufferEvent bufferEvent = new DeviceBufferEvent();
+    bufferEvent.begin();
+    currentMemoryAvailable += bufferInfo.size;
+    releaseBuffer(bufferInfo.buffer);
+    bufferEvent.record(
+        DeviceBufferEvent.RELEASE,
+        deviceContext.getDeviceName(),
+        bufferInfo.size,
+        currentMemoryAvailable);
+  }
+
   private synchronized void freeBuffers(long size) {
     // Attempts to free buffers of given size.
     long remainingSize = size;
@@ -80,8 +103,7 @@ public abstract class TornadoBufferProvider {
       TornadoInternalError.guarantee(
           !usedBuffers.contains(bufferInfo), "This buffer should not be used");
       remainingSize -= bufferInfo.size;
-      currentMemoryAvailable += bufferInfo.size;
-      releaseBuffer(bufferInfo.buffer);
+      release(bufferInfo);
     }
   }
 
@@ -92,9 +114,8 @@ public abstract class TornadoBufferProvider {
       BufferContainer bufferInfo = freeBuffers.removeFirst();
       TornadoInternalError.guarantee(
           !usedBuffers.contains(bufferInfo), "This buffer should not be used");
-      currentMemoryAvailable += bufferInfo.size;
       spaceDeallocated += bufferInfo.size;
-      releaseBuffer(bufferInfo.buffer);
+      release(bufferInfo);
     }
     return spaceDeallocated;
   }
@@ -103,6 +124,10 @@ public abstract class TornadoBufferProvider {
     BufferContainer buffer = freeBuffers.get(freeBufferIndex);
     usedBuffers.add(buffer);
     freeBuffers.remove(buffer);
+    DeviceBufferEvent bufferEvent = new DeviceBufferEvent();
+    bufferEvent.begin();
+    bufferEvent.record(
+        DeviceBufferEvent.REUSE, deviceContext.getDeviceName(), buffer.size, currentMemoryAvailable);
     return buffer;
   }
 
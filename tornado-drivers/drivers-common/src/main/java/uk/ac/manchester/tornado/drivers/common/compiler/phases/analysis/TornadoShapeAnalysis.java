@@ -28,13 +28,18 @@ import org.graalvm.compiler.graph.NodeBitMap;
 import org.graalvm.compiler.nodes.ConstantNode;
 import org.graalvm.compiler.nodes.GraphState;
 import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.ParameterNode;
+import org.graalvm.compiler.nodes.PiNode;
 import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.java.ArrayLengthNode;
+import org.graalvm.compiler.nodes.java.LoadFieldNode;
 import org.graalvm.compiler.nodes.loop.LoopEx;
 import org.graalvm.compiler.nodes.loop.LoopFragmentInside;
 import org.graalvm.compiler.nodes.loop.LoopsData;
 import org.graalvm.compiler.phases.BasePhase;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.domain.ArgumentDomain;
 import uk.ac.manchester.tornado.runtime.domain.DomainTree;
 import uk.ac.manchester.tornado.runtime.domain.IntDomain;
 import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelRangeNode;
@@ -81,9 +86,49 @@ public class TornadoShapeAnalysis extends BasePhase<TornadoHighTierContext> {
     return dimensions;
   }
 
+  private static ValueNode skipPiNodes(ValueNode value) {
+    ValueNode node = value;
+    while (node instanceof PiNode piNode) {
+      node = piNode.getOriginalNode();
+    }
+    return node;
+  }
+
+  /**
+   * For shape-polymorphic kernels, the upper bound of a parallel loop is not a constant, but a
+   * value that comes from the task arguments: the size of a native array, the length of a Java
+   * array or a scalar parameter.
+   *
+   * @return {@link ArgumentDomain} or null if the bound is not directly taken from a parameter.
+   */
+  private static ArgumentDomain createArgumentDomain(ParallelRangeNode range) {
+    final int offset = getIntegerValue(range.offset().value());
+    final int stride = getIntegerValue(range.stride().value());
+    if (offset == Integer.MIN_VALUE || stride == Integer.MIN_VALUE) {
+      return null;
+    }
+    ValueNode bound = skipPiNodes(range.value());
+    if (bound instanceof ParameterNode parameterNode) {
+      return new ArgumentDomain(
+          offset, stride, parameterNode.index(), ArgumentDomain.BoundKind.SCALAR_VALUE);
+    } else if (bound instanceof ArrayLengthNode arrayLengthNode
+        && skipPiNodes(arrayLengthNode.array()) instanceof ParameterNode parameterNode) {
+      return new ArgumentDomain(
+          offset, stride, parameterNode.index(), ArgumentDomain.BoundKind.ARRAY_LENGTH);
+    } else if (bound instanceof LoadFieldNode loadFieldNode
+        && loadFieldNode.field().getName().equals("numberOfElements")
+        && skipPiNodes(loadFieldNode.object()) instanceof ParameterNode parameterNode) {
+      return new ArgumentDomain(
+          offset, stride, parameterNode.index(), ArgumentDomain.BoundKind.NATIVE_ARRAY_SIZE);
+    }
+    return null;
+  }
+
   private void setDomainTree(
       int dimensions, List<ParallelRangeNode> ranges, TornadoHighTierContext context) {
     final DomainTree domainTree = new DomainTree(dimensions);
+    final boolean shapePolymorphic =
+        context.getMeta().isShapePolymorphicEnabled() && !context.isGridSchedulerEnabled();
 
     int lastIndex = -1;
     boolean valid = true;
@@ -100,8 +145,15 @@ public class TornadoShapeAnalysis extends BasePhase<TornadoHighTierContext> {
                 getIntegerValue(range.offset().value()),
                 getIntegerValue(range.stride().value()),
                 getIntegerValue(range.value())));
+      } else if (index != lastIndex && shapePolymorphic && createArgumentDomain(range) != null) {
+        domainTree.set(index, createArgumentDomain(range));
       } else {
         valid = false;
+        if (shapePolymorphic) {
+          // The loop bound cannot be passed as a kernel argument. The runtime falls back
+          // to a kernel specialised for the current sizes.
+          context.getMeta().requireShapeSpecialisation();
+        }
         logger.info("unsupported multiple parallel loops");
         break;
       }
@@ -111,7 +163,11 @@ public class TornadoShapeAnalysis extends BasePhase<TornadoHighTierContext> {
     if (valid) {
       logger.trace("loop nest depth = %d\n", domainTree.getDepth());
       logger.debug("discovered parallel domain: %s\n", domainTree);
-      context.getMeta().setDomain(domainTree);
+      if (domainTree.isArgumentDependent()) {
+        context.getMeta().setArgumentDependentDomain(domainTree, context.getArgs());
+      } else {
+        context.getMeta().setDomain(domainTree);
+      }
     }
   }
 
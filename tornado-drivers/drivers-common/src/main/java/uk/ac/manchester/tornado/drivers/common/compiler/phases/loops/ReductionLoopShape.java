@@ -0,0 +1,139 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.common.compiler.phases.loops;
+
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopExitNode;
+import org.graalvm.compiler.nodes.NodeView;
+import org.graalvm.compiler.nodes.PhiNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.ValueProxyNode;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
+import org.graalvm.compiler.nodes.util.GraphUtil;
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
+
+/**
+ * Shape of the parallel loop that encloses a GPU reduction once the thread scheduler has turned it
+ * into a grid-stride loop ({@code for (i = first; i < end; i += stride)}).
+ *
+ * <p>Single-pass reduction snippets are instantiated after the exit of this loop, so every thread
+ * runs the work-group combine once, after it has accumulated all the elements that it visits.
+ *
+ * @param first value of the induction variable in the first iteration.
+ * @param end exclusive upper bound of the loop.
+ * @param stride loop stride.
+ * @param exit the only exit of the loop.
+ */
+public record ReductionLoopShape(
+    ValueNode first, ValueNode end, ValueNode stride, LoopExitNode exit) {
+
+  /**
+   * Inspects the loop driven by the given induction variable.
+   *
+   * @param inductionVariable loop phi used as the thread index by the reduction.
+   * @return the loop shape, or null if the loop is not a counted {@code i < end; i += stride} loop
+   *     with a single exit.
+   */
+  public static ReductionLoopShape analyse(ValueNode inductionVariable) {
+    if (!(inductionVariable instanceof ValuePhiNode phi)
+        || !(phi.merge() instanceof LoopBeginNode loopBegin)
+        || phi.valueCount() != 2
+        || loopBegin.loopExits().count() != 1) {
+      return null;
+    }
+
+    ValueNode stride = null;
+    if (phi.valueAt(1) instanceof AddNode increment) {
+      if (increment.getX() == phi) {
+        stride = increment.getY();
+      } else if (increment.getY() == phi) {
+        stride = increment.getX();
+      }
+    }
+    if (stride == null || isLoopPhi(stride, loopBegin)) {
+      return null;
+    }
+
+    for (IntegerLessThanNode condition : phi.usages().filter(IntegerLessThanNode.class)) {
+      if (condition.getX() == phi && !isLoopPhi(condition.getY(), loopBegin)) {
+        return new ReductionLoopShape(
+            phi.valueAt(0), condition.getY(), stride, loopBegin.loopExits().first());
+      }
+    }
+    return null;
+  }
+
+  private static boolean isLoopPhi(ValueNode value, LoopBeginNode loopBegin) {
+    return value instanceof PhiNode phi && phi.merge() == loopBegin;
+  }
+
+  /**
+   * Accumulates, in a new phi of the loop, the value that a reduction combines in every iteration.
+   *
+   * @param reduction node that combines the previous result of the reduction with {@code element}.
+   * @param element value combined in every iteration.
+   * @param identity identity of the reduction operation, used as the initial value.
+   * @return the accumulated value, available after the loop exit.
+   */
+  public ValueNode accumulate(ValueNode reduction, ValueNode element, ValueNode identity) {
+    Node previous = null;
+    for (Node input : reduction.inputs()) {
+      if (input != element) {
+        previous = input;
+      }
+    }
+    if (previous == null || !reduction.inputs().contains(element)) {
+      throw new TornadoBailoutRuntimeException(
+          "Single-pass reduction not supported for the operation " + reduction);
+    }
+
+    StructuredGraph graph = exit.graph();
+    ValuePhiNode accumulator =
+        graph.addWithoutUnique(
+            new ValuePhiNode(reduction.stamp(NodeView.DEFAULT), exit.loopBegin()));
+    accumulator.addInput(identity);
+    ValueNode combined = (ValueNode) reduction.copyWithInputs(true);
+    combined.replaceFirstInput(previous, accumulator);
+    accumulator.addInput(combined);
+    return graph.unique(new ValueProxyNode(accumulator, exit));
+  }
+
+  /**
+   * Moves the reduction node from the loop body to the loop exit, where it can be replaced with a
+   * snippet that runs once per thread.
+   *
+   * @param reduction fixed node of the reduction inside the loop.
+   */
+  public void moveAfterExit(FixedWithNextNode reduction) {
+    GraphUtil.unlinkFixedNode(reduction);
+    // The inputs computed inside the loop are not used after the exit
+    reduction.clearInputs();
+    exit.graph().addAfterFixed(exit, reduction);
+  }
+}
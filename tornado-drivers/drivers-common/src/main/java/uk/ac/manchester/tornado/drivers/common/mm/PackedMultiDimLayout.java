@@ -0,0 +1,227 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.common.mm;
+
+import static uk.ac.manchester.tornado.runtime.TornadoCoreRuntime.getVMConfig;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.reflect.Array;
+import jdk.vm.ci.meta.JavaKind;
+import uk.ac.manchester.tornado.api.exceptions.TornadoMemoryException;
+
+/**
+ * Contiguous device layout for two-dimensional Java arrays of primitives.
+ *
+ * <p>The device image of an array {@code T[][]} consists of a table of row addresses (with the
+ * same header as a {@code long[]}) followed by every row, each one with its own array header and
+ * aligned to {@link #ALIGNMENT} bytes:
+ *
+ * <pre>
+ * | header | addr_0 ... addr_n-1 | pad | header | row_0 | pad | header | row_1 | ... |
+ * </pre>
+ *
+ * <p>Addresses in the table are the base address of the device buffer plus the offset of each row,
+ * so the generated kernels access rows exactly as they do with one buffer per row. The image is
+ * built in an off-heap staging segment that is not moved by the GC and that is reused across
+ * transfers, so the whole array is copied with a single transfer in each direction.
+ */
+public final class PackedMultiDimLayout {
+
+  /** Alignment, in bytes, of every row within the device buffer. */
+  public static final int ALIGNMENT = 64;
+
+  private final JavaKind elementKind;
+  private final ValueLayout elementLayout;
+  private final int tableHeaderSize;
+  private final int rowHeaderSize;
+  private final int lengthOffset;
+
+  private long[] rowOffsets;
+  private int firstRow;
+  private int numRows;
+  private long totalSize;
+  private MemorySegment staging;
+
+  public PackedMultiDimLayout(JavaKind elementKind) {
+    this.elementKind = elementKind;
+    this.elementLayout = valueLayout(elementKind);
+    this.tableHeaderSize = getVMConfig().getArrayBaseOffset(JavaKind.Long);
+    this.rowHeaderSize = getVMConfig().getArrayBaseOffset(elementKind);
+    this.lengthOffset = getVMConfig().arrayOopDescLengthOffset();
+    this.rowOffsets = new long[0];
+  }
+
+  /**
+   * Returns the {@link JavaKind} of the elements of a two-dimensional array of primitives.
+   *
+   * @param array Two-dimensional array.
+   * @return {@link JavaKind}
+   */
+  public static JavaKind elementKindOf(Object array) {
+    Class<?> rowType = array.getClass().getComponentType();
+    if (rowType == null || !rowType.isArray() || !rowType.getComponentType().isPrimitive()) {
+      throw new TornadoMemoryException(
+          "[ERROR] Packed layout requires a two-dimensional array of primitives: "
+              + array.getClass().getName());
+    }
+    return JavaKind.fromJavaClass(rowType.getComponentType());
+  }
+
+  private static ValueLayout valueLayout(JavaKind kind) {
+    return switch (kind) {
+      case Byte -> ValueLayout.JAVA_BYTE;
+      case Char -> ValueLayout.JAVA_CHAR;
+      case Short -> ValueLayout.JAVA_SHORT;
+      case Int -> ValueLayout.JAVA_INT;
+      case Float -> ValueLayout.JAVA_FLOAT;
+      case Long -> ValueLayout.JAVA_LONG;
+      case Double -> ValueLayout.JAVA_DOUBLE;
+      default -> throw new TornadoMemoryException("[ERROR] Unsupported element kind: " + kind);
+    };
+  }
+
+  private static long align(long value) {
+    return (value + ALIGNMENT - 1) & -ALIGNMENT;
+  }
+
+  /**
+   * Returns the number of bytes of the elements of one row, if all rows of the array have the same
+   * length, or -1 if the array is jagged.
+   */
+  public long rectangularRowBytes(Object array) {
+    final int rows = Array.getLength(array);
+    if (rows == 0) {
+      return -1;
+    }
+    final int columns = Array.getLength(Array.get(array, 0));
+    for (int i = 1; i < rows; i++) {
+      if (Array.getLength(Array.get(array, i)) != columns) {
+        return -1;
+      }
+    }
+    return (long) columns * elementKind.getByteCount();
+  }
+
+  /**
+   * Computes the offsets of rows {@code [firstRow, firstRow + numRows)} of the given array.
+   *
+   * @return Total size, in bytes, of the device image.
+   */
+  public long compute(Object array, int firstRow, int numRows) {
+    if (firstRow < 0 || numRows < 0 || firstRow + numRows > Array.getLength(array)) {
+      throw new TornadoMemoryException(
+          "[ERROR] Invalid row range [" + firstRow + ", " + (firstRow + numRows) + ")");
+    }
+    this.firstRow = firstRow;
+    this.numRows = numRows;
+    if (rowOffsets.length < numRows) {
+      rowOffsets = new long[numRows];
+    }
+    long offset = align(tableHeaderSize + (long) numRows * Long.BYTES);
+    for (int i = 0; i < numRows; i++) {
+      rowOffsets[i] = offset;
+      int length = Array.getLength(Array.get(array, firstRow + i));
+      offset = align(offset + rowHeaderSize + (long) length * elementKind.getByteCount());
+    }
+    totalSize = offset;
+    return totalSize;
+  }
+
+  /** Total size, in bytes, of the last computed device image. */
+  public long size() {
+    return totalSize;
+  }
+
+  public int getFirstRow() {
+    return firstRow;
+  }
+
+  public int getNumRows() {
+    return numRows;
+  }
+
+  /**
+   * Returns the offset, in bytes, of the elements of a row of the last computed chunk within the
+   * device image.
+   *
+   * @param i Index of the row within the chunk.
+   */
+  public long rowDataOffset(int i) {
+    return rowOffsets[i] + rowHeaderSize;
+  }
+
+  /** Returns the number of bytes of the elements of a row. */
+  public long rowDataBytes(Object row) {
+    return (long) Array.getLength(row) * elementKind.getByteCount();
+  }
+
+  /** Returns the staging segment, growing it if it is smaller than the device image. */
+  public MemorySegment staging() {
+    if (staging == null || staging.byteSize() < totalSize) {
+      staging = Arena.ofAuto().allocate(totalSize, ALIGNMENT);
+    }
+    return staging;
+  }
+
+  /**
+   * Builds the device image of the rows in the staging segment.
+   *
+   * @param array Host array.
+   * @param deviceBase Base address of the device buffer, used to build the table of rows.
+   * @return Staging segment with the device image.
+   */
+  public MemorySegment gather(Object array, long deviceBase) {
+    final MemorySegment segment = staging();
+    segment.asSlice(0, tableHeaderSize).fill((byte) 0);
+    segment.set(ValueLayout.JAVA_INT_UNALIGNED, lengthOffset, numRows);
+    for (int i = 0; i < numRows; i++) {
+      final Object row = Array.get(array, firstRow + i);
+      final int length = Array.getLength(row);
+      final long rowOffset = rowOffsets[i];
+      segment.set(
+          ValueLayout.JAVA_LONG_UNALIGNED,
+          tableHeaderSize + (long) i * Long.BYTES,
+          deviceBase + rowOffset);
+      segment.asSlice(rowOffset, rowHeaderSize).fill((byte) 0);
+      segment.set(ValueLayout.JAVA_INT_UNALIGNED, rowOffset + lengthOffset, length);
+      MemorySegment.copy(row, 0, segment, elementLayout, rowOffset + rowHeaderSize, length);
+    }
+    return segment;
+  }
+
+  /**
+   * Copies the rows of the device image, previously read into the staging segment, back into the
+   * host array.
+   */
+  public void scatter(Object array) {
+    final MemorySegment segment = staging();
+    for (int i = 0; i < numRows; i++) {
+      final Object row = Array.get(array, firstRow + i);
+      MemorySegment.copy(
+          segment, elementLayout, rowOffsets[i] + rowHeaderSize, row, 0, Array.getLength(row));
+    }
+  }
+}
@@ -38,6 +38,18 @@
 #include "OCLCommandQueue.h"
 #include "ocl_log.h"
 
+/*
+ * Event lists are passed as [count, e0, e1, ...]. A negative count requests the command to be
+ * enqueued without waiting for events and without returning an event (event-free dispatch).
+ */
+static inline bool isEventRequested(const jlong *eventsArray) {
+    return eventsArray == NULL || eventsArray[0] >= 0;
+}
+
+static inline jsize numberOfWaitEvents(const jlong *eventsArray) {
+    return (eventsArray != NULL && eventsArray[0] > 0) ? (jsize) eventsArray[0] : 0;
+}
+
 /*
  * Class:     uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue
  * Method:    clReleaseCommandQueue
@@ -103,13 +115,14 @@ JNIEXPORT jlong JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQ
 
     jlong *javaArrayEvents = static_cast<jlong *>((array4 != NULL) ? env->GetPrimitiveArrayCritical(array4, NULL) : NULL);
     jlong *events = (array4 != NULL) ? &javaArrayEvents[1] : NULL;
-    jsize numEvents = (array4 != NULL) ? javaArrayEvents[0] : 0;
+    jsize numEvents = numberOfWaitEvents(javaArrayEvents);
+    bool eventRequested = isEventRequested(javaArrayEvents);
 
     cl_event kernelEvent = NULL;
-    cl_int status = clEnqueueNDRangeKernel((cl_command_queue) queue_id, (cl_kernel) kernel_id, (cl_uint) work_dim, (size_t*) global_work_offset, (size_t*) global_work_size, (size_t*) local_work_size, (cl_uint) numEvents, (numEvents == 0) ? NULL : (cl_event*) events, &kernelEvent);
+    cl_int status = clEnqueueNDRangeKernel((cl_command_queue) queue_id, (cl_kernel) kernel_id, (cl_uint) work_dim, (size_t*) global_work_offset, (size_t*) global_work_size, (size_t*) local_work_size, (cl_uint) numEvents, (numEvents == 0) ? NULL : (cl_event*) events, eventRequested ? &kernelEvent : NULL);
     LOG_OCL_AND_VALIDATE("clEnqueueNDRangeKernel", status);
 
-	if (PRINT_KERNEL_EVENTS) {
+	if (PRINT_KERNEL_EVENTS && eventRequested) {
 		long kernelTime = getElapsedTimeEvent(kernelEvent);
 		printf("Kernel time: %ld (ns) \n", kernelTime);
 	}
@@ -193,6 +206,48 @@ JNIEXPORT jlong JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQ
     return (jlong) event;
 }
 
+/*
+ * Class:     uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue
+ * Method:    clEnqueueMapBuffer
+ * Signature: (JJJJJ[J)J
+ *
+ * Blocking map of a buffer region. It returns the mapped host pointer.
+ */
+JNIEXPORT jlong JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue_clEnqueueMapBuffer
+(JNIEnv *env, jclass clazz, jlong queue_id, jlong device_ptr, jlong map_flags, jlong offset, jlong num_bytes, jlongArray array) {
+    jlong *arrayEvents = static_cast<jlong *>((array != NULL) ? env->GetPrimitiveArrayCritical(array, NULL) : NULL);
+    jlong *events = (array != NULL) ? &arrayEvents[1] : NULL;
+    jsize len = (array != NULL) ? arrayEvents[0] : 0;
+    cl_int status;
+    void *mapped = clEnqueueMapBuffer((cl_command_queue) queue_id, (cl_mem) device_ptr, CL_TRUE, (cl_map_flags) map_flags,
+                                      (size_t) offset, (size_t) num_bytes, (cl_uint) len, (len == 0) ? NULL : (cl_event *) events, NULL, &status);
+    LOG_OCL_AND_VALIDATE("clEnqueueMapBuffer", status);
+    if (array != NULL) {
+        env->ReleasePrimitiveArrayCritical(array, arrayEvents, JNI_ABORT);
+    }
+    return (jlong) mapped;
+}
+
+/*
+ * Class:     uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue
+ * Method:    clEnqueueUnmapMemObject
+ * Signature: (JJJ[J)J
+ */
+JNIEXPORT jlong JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue_clEnqueueUnmapMemObject
+(JNIEnv *env, jclass clazz, jlong queue_id, jlong device_ptr, jlong mapped_ptr, jlongArray array) {
+    jlong *arrayEvents = static_cast<jlong *>((array != NULL) ? env->GetPrimitiveArrayCritical(array, NULL) : NULL);
+    jlong *events = (array != NULL) ? &arrayEvents[1] : NULL;
+    jsize len = (array != NULL) ? arrayEvents[0] : 0;
+    cl_event event;
+    cl_int status = clEnqueueUnmapMemObject((cl_command_queue) queue_id, (cl_mem) device_ptr, (void *) mapped_ptr,
+                                            (cl_uint) len, (len == 0) ? NULL : (cl_event *) events, &event);
+    LOG_OCL_AND_VALIDATE("clEnqueueUnmapMemObject", status);
+    if (array != NULL) {
+        env->ReleasePrimitiveArrayCritical(array, arrayEvents, JNI_ABORT);
+    }
+    return (jlong) event;
+}
+
 jlong transferFromHostToDevice(JNIEnv * env, jclass javaClass,
                                jlong commandQueue,          // Pointer to the OpenCL Command Queue
                                jbyteArray hostArray,        // Host Array
@@ -207,19 +262,20 @@ jlong transferFromHostToDevice(JNIEnv * env, jclass javaClass,
     cl_bool blocking_write = blocking ? CL_TRUE : CL_FALSE;
     jlong *arrayEvents = static_cast<jlong *>((javaArrayEvents != NULL) ? env->GetPrimitiveArrayCritical(javaArrayEvents, NULL) : NULL);
     jlong *events = (javaArrayEvents != NULL) ? &arrayEvents[1] : NULL;
-    jsize numberOfEvents = (javaArrayEvents != NULL) ? arrayEvents[0] : 0;
+    jsize numberOfEvents = numberOfWaitEvents(arrayEvents);
+    bool eventRequested = isEventRequested(arrayEvents);
 
     jbyte *buffer = static_cast<jbyte *>(env->GetPrimitiveArrayCritical(hostArray, NULL));
     if (PRINT_DATA_SIZES) {
         std::cout << "[TornadoVM JNI] transferFromHostToDevice from " << deviceOffset << " (" << numBytes << ") from buffer: " << buffer << std::endl;
     }
-    cl_event event;
+    cl_event event = NULL;
     /* we must wait irrespective of jboolean blocking flag or we risk Java GC/OpenCL Runtime race condition */
     cl_int status = clEnqueueWriteBuffer((cl_command_queue) commandQueue, (cl_mem) devicePtr, CL_TRUE,
                                          (size_t) deviceOffset, (size_t) numBytes, &buffer[hostOffset], (cl_uint) numberOfEvents,
-                                         (cl_event *) events, &event);
+                                         (numberOfEvents == 0) ? NULL : (cl_event *) events, eventRequested ? &event : NULL);
     LOG_OCL_AND_VALIDATE("clEnqueueWriteBuffer", status);
-    if (PRINT_DATA_TIMES) {
+    if (PRINT_DATA_TIMES && eventRequested) {
         long writeTime = getElapsedTimeEvent(event);
         std::cout << "[TornadoVM-JNI] H2D time: " << writeTime << " (ns)" << std::endl;
     }
@@ -313,12 +369,13 @@ JNIEXPORT jlong JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQ
     cl_bool blocking_write = blocking ? CL_TRUE : CL_FALSE;
     jlong *arrayEvents = static_cast<jlong *>((javaArrayEvents != NULL) ? env->GetPrimitiveArrayCritical(javaArrayEvents, NULL) : NULL);
     jlong *events = (javaArrayEvents != NULL) ? &arrayEvents[1] : NULL;
-    jsize numberOfEvents = (javaArrayEvents != NULL) ? arrayEvents[0] : 0;
+    jsize numberOfEvents = numberOfWaitEvents(arrayEvents);
+    bool eventRequested = isEventRequested(arrayEvents);
 
     if (PRINT_DATA_SIZES) {
         std::cout << "[TornadoVM JNI] transferSegmentFromHostToDevice from offset: " << offset << " (bytes=" << numBytes << ") from buffer: " << hostBufferPointer << std::endl;
     }
-    cl_event event;
+    cl_event event = NULL;
     cl_int status = clEnqueueWriteBuffer((cl_command_queue) commandQueue,
                                          (cl_mem) devicePtr,
                                          blocking_write,
@@ -326,10 +383,10 @@ JNIEXPORT jlong JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQ
                                          (size_t) numBytes,
                                          (void*) (hostBufferPointer + hostOffset),
                                          (cl_uint) numberOfEvents,
-                                         (cl_event *) events,
-                                         &event);
+                                         (numberOfEvents == 0) ? NULL : (cl_event *) events,
+                                         eventRequested ? &event : NULL);
     LOG_OCL_AND_VALIDATE("clEnqueueWriteBuffer", status);
-    if (PRINT_DATA_TIMES) {
+    if (PRINT_DATA_TIMES && eventRequested) {
         long writeTime = getElapsedTimeEvent(event);
         std::cout << "[TornadoVM-JNI] H2D time: " << writeTime << " (ns)" << std::endl;
     }
@@ -353,21 +410,23 @@ jlong transferFromDeviceToHost(JNIEnv *env, jclass javaClass,
     cl_bool blocking_read = blocking ? CL_TRUE : CL_FALSE;
     jlong *eventsArray = static_cast<jlong *>((javaArrayEvents != NULL) ? env->GetPrimitiveArrayCritical(javaArrayEvents, NULL) : NULL);
     jlong *events = (javaArrayEvents != NULL) ? &eventsArray[1] : NULL;
-    jsize num_events = (javaArrayEvents != NULL) ? eventsArray[0] : 0;
+    jsize num_events = numberOfWaitEvents(eventsArray);
+    bool eventRequested = isEventRequested(eventsArray);
     jbyte *buffer = static_cast<jbyte *>(env->GetPrimitiveArrayCritical(hostArray, NULL));
     if (PRINT_DATA_SIZES) {
         std::cout << "[TornadoVM JNI] transferFromDeviceToHost from " << offset << " (" << numBytes << ") from buffer: " << buffer << std::endl;
     }
-    cl_event readEvent;
+    cl_event readEvent = NULL;
     /* we must wait irrespective of jboolean blocking flag or we risk Java GC/OpenCL Runtime race condition */
     cl_int status = clEnqueueReadBuffer((cl_command_queue) commandQueue, (cl_mem) devicePtr, CL_TRUE,
                                         (size_t) offset, (size_t) numBytes, (void *) &buffer[hostOffset],
-                                        (cl_uint) num_events, (cl_event *) events, &readEvent);
+                                        (cl_uint) num_events, (num_events == 0) ? NULL : (cl_event *) events,
+                                        eventRequested ? &readEvent : NULL);
     if (status != CL_SUCCESS) {
         printf("[ERROR] clEnqueueReadBuffer, code = %d n", status);
     }
     LOG_OCL_AND_VALIDATE("clEnqueueReadBuffer", status);
-    if (PRINT_DATA_TIMES) {
+    if (PRINT_DATA_TIMES && eventRequested) {
         long readTime = getElapsedTimeEvent(readEvent); /* clWaitForEvents call a side effect of this call so safe to not wait */
         std::cout << "[TornadoVM-JNI] D2H time: " << readTime << " (ns)" << std::endl;
     }
@@ -470,12 +529,13 @@ JNIEXPORT jlong JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQ
      cl_bool blocking_read = blocking ? CL_TRUE : CL_FALSE;
      jlong *eventsArray = static_cast<jlong *>((javaArrayEvents != NULL) ? env->GetPrimitiveArrayCritical(javaArrayEvents, NULL) : NULL);
      jlong *eventWaitList = (javaArrayEvents != NULL) ? &eventsArray[1] : NULL;
-     jsize num_events = (javaArrayEvents != NULL) ? eventsArray[0] : 0;
+     jsize num_events = numberOfWaitEvents(eventsArray);
+     bool eventRequested = isEventRequested(eventsArray);
 
      if (PRINT_DATA_SIZES) {
          std::cout << "[TornadoVM JNI] transferSegmentFromDeviceToHost from offset: " << offset << " (bytes=" << numBytes << ") from buffer: " << hostBufferPointer << std::endl;
      }
-     cl_event readEvent;
+     cl_event readEvent = NULL;
      cl_int status = clEnqueueReadBuffer((cl_command_queue) commandQueue,
                                          (cl_mem) devicePtr,
                                          blocking_read,
@@ -483,8 +543,8 @@ JNIEXPORT jlong JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQ
                                          (size_t) numBytes,
                                          (void *) (hostBufferPointer + hostOffset),
                                          (cl_uint) num_events,
-                                         (cl_event *) eventWaitList, // check this array for multiple events
-                                         &readEvent);
+                                         (num_events == 0) ? NULL : (cl_event *) eventWaitList,
+                                         eventRequested ? &readEvent : NULL);
      if (status != CL_SUCCESS) {
          printf("[ERROR] clEnqueueReadBuffer, code = %d n", status);
      }
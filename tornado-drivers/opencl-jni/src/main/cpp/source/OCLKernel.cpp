@@ -78,3 +78,20 @@ JNIEXPORT void JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLKernel_cl
     LOG_OCL_AND_VALIDATE("clGetKernelInfo", status);
     env->ReleasePrimitiveArrayCritical(array, value, 0);
 }
+
+/*
+ * Class:     uk_ac_manchester_tornado_drivers_opencl_OCLKernel
+ * Method:    clSetKernelArgSVMPointer
+ * Signature: (JIJ)I
+ */
+JNIEXPORT jint JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLKernel_clSetKernelArgSVMPointer
+(JNIEnv *env, jclass clazz, jlong kernel_id, jint index, jlong pointer) {
+    #if CL_TARGET_OPENCL_VERSION >= 200
+        cl_int status = clSetKernelArgSVMPointer((cl_kernel) kernel_id, (cl_uint) index, (const void *) pointer);
+    #else
+        // Built against OpenCL 1.x headers: the argument cannot be set
+        cl_int status = CL_INVALID_OPERATION;
+    #endif
+    LOG_OCL_AND_VALIDATE("clSetKernelArgSVMPointer", status);
+    return (jint) status;
+}
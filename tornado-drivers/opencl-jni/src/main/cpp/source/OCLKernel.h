@@ -56,6 +56,14 @@ JNIEXPORT void JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLKernel_cl
 JNIEXPORT void JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLKernel_clGetKernelInfo
         (JNIEnv *, jclass, jlong, jint, jbyteArray);
 
+/*
+ * Class:     uk_ac_manchester_tornado_drivers_opencl_OCLKernel
+ * Method:    clSetKernelArgSVMPointer
+ * Signature: (JIJ)I
+ */
+JNIEXPORT jint JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLKernel_clSetKernelArgSVMPointer
+        (JNIEnv *, jclass, jlong, jint, jlong);
+
 #ifdef __cplusplus
 }
 #endif
@@ -51,6 +51,7 @@ import uk.ac.manchester.tornado.drivers.opencl.enums.OCLBuildStatus;
 import uk.ac.manchester.tornado.drivers.opencl.enums.OCLDeviceType;
 import uk.ac.manchester.tornado.drivers.opencl.exceptions.OCLException;
 import uk.ac.manchester.tornado.drivers.opencl.graal.OCLInstalledCode;
+import uk.ac.manchester.tornado.runtime.common.KernelShapeCache;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.Tornado;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
@@ -97,6 +98,9 @@ public class OCLCodeCache {
 
   private final ConcurrentHashMap<String, OCLInstalledCode> cache;
   private final OCLDeviceContextInterface deviceContext;
+  private final KernelShapeCache shapeCache;
+  // Variant key (see KernelShapeCache#variantKey) -> shape-polymorphic kernel
+  private final ConcurrentHashMap<String, OCLInstalledCode> shapeVariants;
   private String fpgaName;
   private String fpgaCompiler;
   private String compilationFlags;
@@ -115,6 +119,8 @@ public class OCLCodeCache {
   public OCLCodeCache(OCLDeviceContextInterface deviceContext) {
     this.deviceContext = deviceContext;
     cache = new ConcurrentHashMap<>();
+    shapeVariants = new ConcurrentHashMap<>();
+    shapeCache = new KernelShapeCache(this::evictShapeVariant);
     pendingTasks = new ConcurrentHashMap<>();
     linkObjectFiles = new ArrayList<>();
 
@@ -635,6 +641,36 @@ public class OCLCodeCache {
 
   public OCLInstalledCode installSource(
       TaskDataContext meta, String id, String entryPoint, byte[] source) {
+    final OCLInstalledCode code = buildSource(meta, id, entryPoint, source);
+    if (code.isValid()) {
+      installCodeInCodeCache(code.getProgram(), id, entryPoint, code);
+    }
+    return code;
+  }
+
+  /**
+   * Installs a shape-polymorphic variant of a kernel. Variants of a task share the task-id and the
+   * entry point, so they are indexed by their variant key instead, and they are invalidated when
+   * the {@link KernelShapeCache} evicts them.
+   */
+  public OCLInstalledCode installShapeVariant(
+      TaskDataContext meta, String id, String entryPoint, byte[] source, String variantKey) {
+    final OCLInstalledCode code = buildSource(meta, id, entryPoint, source);
+    if (code.isValid()) {
+      shapeVariants.put(variantKey, code);
+    }
+    return code;
+  }
+
+  private void evictShapeVariant(String variantKey) {
+    OCLInstalledCode code = shapeVariants.remove(variantKey);
+    if (code != null) {
+      code.invalidate();
+    }
+  }
+
+  private OCLInstalledCode buildSource(
+      TaskDataContext meta, String id, String entryPoint, byte[] source) {
 
     logger.info("Installing code for %s into code cache", entryPoint);
 
@@ -689,7 +725,6 @@ public class OCLCodeCache {
             entryPoint, source, (OCLDeviceContext) deviceContext, program, kernel, isSPIRVBinary);
     if (status == CL_BUILD_SUCCESS) {
       logger.debug("\tOpenCL Kernel id = 0x%x", kernel.getOclKernelID());
-      installCodeInCodeCache(program, id, entryPoint, code);
     } else {
       logger.warn("\tunable to compile %s", entryPoint);
       code.invalidate();
@@ -798,6 +833,15 @@ public class OCLCodeCache {
       code.invalidate();
     }
     cache.clear();
+    shapeCache.reset();
+    for (OCLInstalledCode code : shapeVariants.values()) {
+      code.invalidate();
+    }
+    shapeVariants.clear();
+  }
+
+  public KernelShapeCache getShapeCache() {
+    return shapeCache;
   }
 
   public OCLInstalledCode installEntryPointForBinaryForFPGAs(
@@ -0,0 +1,302 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.MethodHandle;
+import uk.ac.manchester.tornado.drivers.opencl.exceptions.OCLException;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+
+/**
+ * Kernel launches of an execution plan recorded into a {@code cl_khr_command_buffer}. The buffer
+ * is recorded once, while the launches are also dispatched as usual, and it is then replayed with
+ * a single {@code clEnqueueCommandBufferKHR} call per execution.
+ *
+ * <p>Kernel arguments are captured by the driver when a command is recorded, so a command buffer
+ * is only valid as long as the buffers and scalars passed to its kernels do not change. The
+ * interpreter checks this before every replay and records a new command buffer otherwise.
+ *
+ * <p>The extension entry points are resolved with {@code clGetExtensionFunctionAddressForPlatform}
+ * and called through Foreign Function & Memory downcalls.
+ */
+public final class OCLCommandBuffer {
+
+  private static final TornadoLogger logger = new TornadoLogger(OCLCommandBuffer.class);
+
+  private static final String EXTENSION = "cl_khr_command_buffer";
+  private static final int CL_SUCCESS = 0;
+
+  private final Functions functions;
+  private final Arena arena;
+  private final MemorySegment workSizes;
+  private final MemorySegment syncPoints;
+  private final MemorySegment queue;
+  private final MemorySegment errorCode;
+
+  private long commandBufferPtr;
+  private int numCommands;
+  private boolean failed;
+  private boolean finalized;
+
+  OCLCommandBuffer(Functions functions) {
+    this.functions = functions;
+    this.arena = Arena.ofShared();
+    this.workSizes = arena.allocate(9 * JAVA_LONG.byteSize(), JAVA_LONG.byteAlignment());
+    this.syncPoints = arena.allocate(2 * JAVA_INT.byteSize(), JAVA_INT.byteAlignment());
+    this.queue = arena.allocate(JAVA_LONG.byteSize(), JAVA_LONG.byteAlignment());
+    this.errorCode = arena.allocate(JAVA_INT.byteSize(), JAVA_INT.byteAlignment());
+  }
+
+  /**
+   * Resolves the {@code cl_khr_command_buffer} entry points of a platform.
+   *
+   * @return the entry points, or null if the device does not expose the extension or they cannot
+   *     be resolved.
+   */
+  static Functions lookup(OCLPlatform platform, OCLTargetDevice device) {
+    String extensions = device.getDeviceExtensions();
+    if (extensions == null || !extensions.contains(EXTENSION)) {
+      return null;
+    }
+    try {
+      Linker linker = Linker.nativeLinker();
+      MethodHandle getAddress =
+          OCLForeignBindings.downcall(
+              linker,
+              OCLForeignBindings.lookupOpenCL(),
+              "clGetExtensionFunctionAddressForPlatform",
+              FunctionDescriptor.of(ADDRESS, JAVA_LONG, ADDRESS));
+      try (Arena names = Arena.ofConfined()) {
+        long platformPtr = platform.getOclPlatformPtr();
+        return new Functions(
+            extension(
+                linker,
+                getAddress,
+                names,
+                platformPtr,
+                "clCreateCommandBufferKHR",
+                FunctionDescriptor.of(JAVA_LONG, JAVA_INT, ADDRESS, ADDRESS, ADDRESS)),
+            extension(
+                linker,
+                getAddress,
+                names,
+                platformPtr,
+                "clCommandNDRangeKernelKHR",
+                FunctionDescriptor.of(
+                    JAVA_INT,
+                    JAVA_LONG,
+                    JAVA_LONG,
+                    ADDRESS,
+                    JAVA_LONG,
+                    JAVA_INT,
+                    ADDRESS,
+                    ADDRESS,
+                    ADDRESS,
+                    JAVA_INT,
+                    ADDRESS,
+                    ADDRESS,
+                    ADDRESS)),
+            extension(
+                linker,
+                getAddress,
+                names,
+                platformPtr,
+                "clFinalizeCommandBufferKHR",
+                FunctionDescriptor.of(JAVA_INT, JAVA_LONG)),
+            extension(
+                linker,
+                getAddress,
+                names,
+                platformPtr,
+                "clEnqueueCommandBufferKHR",
+                FunctionDescriptor.of(
+                    JAVA_INT, JAVA_INT, ADDRESS, JAVA_LONG, JAVA_INT, ADDRESS, ADDRESS)),
+            extension(
+                linker,
+                getAddress,
+                names,
+                platformPtr,
+                "clReleaseCommandBufferKHR",
+                FunctionDescriptor.of(JAVA_INT, JAVA_LONG)));
+      }
+    } catch (Throwable t) {
+      logger.warn("%s is not available, kernel launches are not replayed: %s", EXTENSION, t);
+      return null;
+    }
+  }
+
+  private static MethodHandle extension(
+      Linker linker,
+      MethodHandle getAddress,
+      Arena names,
+      long platformPtr,
+      String name,
+      FunctionDescriptor descriptor)
+      throws Throwable {
+    MemorySegment address =
+        (MemorySegment) getAddress.invokeExact(platformPtr, names.allocateUtf8String(name));
+    if (address.equals(MemorySegment.NULL)) {
+      throw new IllegalArgumentException("symbol not found: " + name);
+    }
+    return linker.downcallHandle(address, descriptor);
+  }
+
+  private static void validate(String name, int status) throws OCLException {
+    if (status != CL_SUCCESS) {
+      throw new OCLException(name + " returned " + status);
+    }
+  }
+
+  private MemorySegment workSizes(int base, long[] values, int dim) {
+    if (values == null) {
+      return MemorySegment.NULL;
+    }
+    for (int i = 0; i < dim; i++) {
+      workSizes.setAtIndex(JAVA_LONG, base + i, values[i]);
+    }
+    return workSizes.asSlice(base * JAVA_LONG.byteSize());
+  }
+
+  /**
+   * Records a kernel launch. The command buffer is created on the first launch, for the command
+   * queue that issues it. Each command waits for the previous one, so the recorded launches keep
+   * the order of the in-order queue they replace.
+   */
+  void recordNDRangeKernel(
+      long queuePtr,
+      OCLKernel kernel,
+      int dim,
+      long[] globalWorkOffset,
+      long[] globalWorkSize,
+      long[] localWorkSize) {
+    if (failed || finalized) {
+      return;
+    }
+    try {
+      if (commandBufferPtr == 0) {
+        queue.set(JAVA_LONG, 0, queuePtr);
+        commandBufferPtr =
+            (long) functions.create().invokeExact(1, queue, MemorySegment.NULL, errorCode);
+        validate("clCreateCommandBufferKHR", errorCode.get(JAVA_INT, 0));
+      }
+      int status =
+          (int)
+              functions.ndRange().invokeExact(
+                  commandBufferPtr,
+                  0L,
+                  MemorySegment.NULL,
+                  kernel.getOclKernelID(),
+                  dim,
+                  workSizes(0, globalWorkOffset, dim),
+                  workSizes(3, globalWorkSize, dim),
+                  workSizes(6, localWorkSize, dim),
+                  numCommands == 0 ? 0 : 1,
+                  numCommands == 0 ? MemorySegment.NULL : syncPoints,
+                  syncPoints.asSlice(JAVA_INT.byteSize()),
+                  MemorySegment.NULL);
+      validate("clCommandNDRangeKernelKHR", status);
+      syncPoints.set(JAVA_INT, 0, syncPoints.get(JAVA_INT, JAVA_INT.byteSize()));
+      numCommands++;
+    } catch (Throwable t) {
+      logger.warn("Unable to record kernel %s: %s", kernel.getName(), t.getMessage());
+      failed = true;
+    }
+  }
+
+  /**
+   * Closes the recording.
+   *
+   * @return true if every launch was recorded and the command buffer can be replayed.
+   */
+  boolean finish() {
+    if (failed || numCommands == 0) {
+      return false;
+    }
+    try {
+      int status = (int) functions.finalizeBuffer().invokeExact(commandBufferPtr);
+      validate("clFinalizeCommandBufferKHR", status);
+      finalized = true;
+    } catch (Throwable t) {
+      logger.warn("Unable to finalize the command buffer: %s", t.getMessage());
+      failed = true;
+    }
+    return finalized;
+  }
+
+  /**
+   * Enqueues the recorded launches on the command queue of the calling thread.
+   *
+   * @return true if the command buffer was enqueued.
+   */
+  boolean enqueue(long queuePtr) {
+    if (!finalized || failed) {
+      return false;
+    }
+    try {
+      queue.set(JAVA_LONG, 0, queuePtr);
+      int status =
+          (int)
+              functions.enqueue().invokeExact(
+                  1, queue, commandBufferPtr, 0, MemorySegment.NULL, MemorySegment.NULL);
+      validate("clEnqueueCommandBufferKHR", status);
+      return true;
+    } catch (Throwable t) {
+      logger.warn("Unable to replay the command buffer: %s", t.getMessage());
+      failed = true;
+      return false;
+    }
+  }
+
+  int getNumCommands() {
+    return numCommands;
+  }
+
+  void release() {
+    if (commandBufferPtr != 0) {
+      try {
+        validate(
+            "clReleaseCommandBufferKHR", (int) functions.release().invokeExact(commandBufferPtr));
+      } catch (Throwable t) {
+        logger.warn("Unable to release the command buffer: %s", t.getMessage());
+      }
+      commandBufferPtr = 0;
+    }
+    arena.close();
+  }
+
+  /** Entry points of {@code cl_khr_command_buffer} for one platform. */
+  record Functions(
+      MethodHandle create,
+      MethodHandle ndRange,
+      MethodHandle finalizeBuffer,
+      MethodHandle enqueue,
+      MethodHandle release) {}
+}
@@ -27,6 +27,7 @@ import static uk.ac.manchester.tornado.api.exceptions.TornadoInternalError.guara
 import static uk.ac.manchester.tornado.drivers.opencl.enums.OCLCommandQueueInfo.CL_QUEUE_CONTEXT;
 import static uk.ac.manchester.tornado.drivers.opencl.enums.OCLCommandQueueInfo.CL_QUEUE_DEVICE;
 
+import java.lang.foreign.MemorySegment;
 import java.nio.ByteBuffer;
 import uk.ac.manchester.tornado.api.common.Event;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
@@ -38,6 +39,12 @@ import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
 public class OCLCommandQueue extends CommandQueue {
 
   protected static final Event EMPTY_EVENT = new EmptyEvent();
+
+  /**
+   * Event list that enqueues a command without a wait list and without returning an event. The
+   * enqueue calls return 0 in this case.
+   */
+  static final long[] NO_EVENT = {-1};
   private TornadoLogger logger = new TornadoLogger(this.getClass());
 
   private final long commandQueuePtr;
@@ -50,12 +57,16 @@ public class OCLCommandQueue extends CommandQueue {
   private final long properties;
   private final int openclVersion;
 
+  /** Native scratch memory for the foreign bindings. It is null when the JNI path is used. */
+  private final OCLForeignBindings.Scratch scratch;
+
   public OCLCommandQueue(long commandQueuePtr, long properties, int version) {
     this.commandQueuePtr = commandQueuePtr;
     this.properties = properties;
     this.buffer = ByteBuffer.allocate(128);
     this.buffer.order(OpenCL.BYTE_ORDER);
     this.openclVersion = version;
+    this.scratch = OCLForeignBindings.isEnabled() ? new OCLForeignBindings.Scratch() : null;
   }
 
   public long getCommandQueuePtr() {
@@ -279,6 +290,18 @@ public class OCLCommandQueue extends CommandQueue {
 
   static native void clFinish(long queueId) throws OCLException;
 
+  /**
+   * Blocking map of a region of an OpenCL buffer into the host address space.
+   *
+   * @return the mapped host pointer.
+   */
+  static native long clEnqueueMapBuffer(
+      long queueId, long devicePtr, long mapFlags, long offset, long bytes, long[] events)
+      throws OCLException;
+
+  static native long clEnqueueUnmapMemObject(
+      long queueId, long devicePtr, long mappedPointer, long[] events) throws OCLException;
+
   public void flushEvents() {
     try {
       clFlush(commandQueuePtr);
@@ -330,6 +353,9 @@ public class OCLCommandQueue extends CommandQueue {
   public void cleanup() {
     try {
       clReleaseCommandQueue(commandQueuePtr);
+      if (scratch != null) {
+        scratch.release();
+      }
     } catch (OCLException e) {
       e.printStackTrace();
       throw new TornadoBailoutRuntimeException(e.getMessage());
@@ -349,6 +375,17 @@ public class OCLCommandQueue extends CommandQueue {
       long[] localWorkSize,
       long[] waitEvents) {
     try {
+      if (scratch != null) {
+        return OCLForeignBindings.clEnqueueNDRangeKernel(
+            commandQueuePtr,
+            kernel.getOclKernelID(),
+            dim,
+            (openclVersion > 100) ? globalWorkOffset : null,
+            globalWorkSize,
+            localWorkSize,
+            waitEvents,
+            scratch);
+      }
       return clEnqueueNDRangeKernel(
           commandQueuePtr,
           kernel.getOclKernelID(),
@@ -499,6 +536,17 @@ public class OCLCommandQueue extends CommandQueue {
       long[] waitEvents) {
     guarantee(hostPointer != 0, "null segment");
     try {
+      if (scratch != null) {
+        return OCLForeignBindings.enqueueWriteBuffer(
+            commandQueuePtr,
+            devicePtr,
+            blocking,
+            offset,
+            bytes,
+            MemorySegment.ofAddress(hostPointer + hostOffset),
+            waitEvents,
+            scratch);
+      }
       return writeArrayToDevice(
           commandQueuePtr, hostPointer, hostOffset, blocking, offset, bytes, devicePtr, waitEvents);
     } catch (OCLException e) {
@@ -643,6 +691,17 @@ public class OCLCommandQueue extends CommandQueue {
       long[] waitEvents) {
     guarantee(hostPointer != 0, "segment is null");
     try {
+      if (scratch != null) {
+        return OCLForeignBindings.enqueueReadBuffer(
+            commandQueuePtr,
+            devicePtr,
+            blocking,
+            offset,
+            bytes,
+            MemorySegment.ofAddress(hostPointer + hostOffset),
+            waitEvents,
+            scratch);
+      }
       return readArrayFromDeviceOffHeap(
           commandQueuePtr, hostPointer, hostOffset, blocking, offset, bytes, devicePtr, waitEvents);
     } catch (OCLException e) {
@@ -651,6 +710,25 @@ public class OCLCommandQueue extends CommandQueue {
     }
   }
 
+  public long enqueueMapBuffer(
+      long devicePtr, long mapFlags, long offset, long bytes, long[] waitEvents) {
+    try {
+      return clEnqueueMapBuffer(commandQueuePtr, devicePtr, mapFlags, offset, bytes, waitEvents);
+    } catch (OCLException e) {
+      logger.error(e.getMessage());
+      throw new TornadoBailoutRuntimeException(e.getMessage());
+    }
+  }
+
+  public long enqueueUnmapMemObject(long devicePtr, long mappedPointer, long[] waitEvents) {
+    try {
+      return clEnqueueUnmapMemObject(commandQueuePtr, devicePtr, mappedPointer, waitEvents);
+    } catch (OCLException e) {
+      logger.error(e.getMessage());
+      throw new TornadoBailoutRuntimeException(e.getMessage());
+    }
+  }
+
   public void finish() {
     try {
       clFinish(commandQueuePtr);
@@ -688,6 +766,10 @@ public class OCLCommandQueue extends CommandQueue {
 
   private long enqueueBarrier_OCLv1_2(long[] waitEvents) {
     try {
+      if (scratch != null) {
+        return OCLForeignBindings.clEnqueueBarrierWithWaitList(
+            commandQueuePtr, waitEvents, scratch);
+      }
       return clEnqueueBarrierWithWaitList(commandQueuePtr, waitEvents);
     } catch (OCLException e) {
       logger.fatal(e.getMessage());
@@ -705,6 +787,9 @@ public class OCLCommandQueue extends CommandQueue {
 
   private long enqueueMarker12(long[] waitEvents) {
     try {
+      if (scratch != null) {
+        return OCLForeignBindings.clEnqueueMarkerWithWaitList(commandQueuePtr, waitEvents, scratch);
+      }
       return clEnqueueMarkerWithWaitList(commandQueuePtr, waitEvents);
     } catch (OCLException e) {
       logger.fatal(e.getMessage());
@@ -225,7 +225,7 @@ public class OCLContext implements OCLContextInterface {
     return createBuffer(flags, bytes, 0L);
   }
 
-  private OCLBufferResult createBuffer(long flags, long bytes, long hostPointer) {
+  public OCLBufferResult createBuffer(long flags, long bytes, long hostPointer) {
     try {
       final OCLBufferResult result = createBuffer(contextID, flags, bytes, hostPointer);
       logger.info(
@@ -37,6 +37,7 @@ import java.util.Arrays;
 import uk.ac.manchester.tornado.drivers.opencl.enums.OCLDeviceInfo;
 import uk.ac.manchester.tornado.drivers.opencl.enums.OCLDeviceType;
 import uk.ac.manchester.tornado.drivers.opencl.enums.OCLLocalMemType;
+import uk.ac.manchester.tornado.drivers.opencl.enums.OCLSVMCapabilities;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 
@@ -63,6 +64,7 @@ public class OCLDevice implements OCLTargetDevice {
   private long doubleFPConfig;
   private long singleFPConfig;
   private int deviceMemoryBaseAlignment;
+  private long deviceSVMCapabilities;
   private String version;
   private OCLDeviceType deviceType;
 
@@ -103,6 +105,7 @@ public class OCLDevice implements OCLTargetDevice {
     this.doubleFPConfig = INIT_VALUE;
     this.singleFPConfig = INIT_VALUE;
     this.deviceMemoryBaseAlignment = INIT_VALUE;
+    this.deviceSVMCapabilities = INIT_VALUE;
     this.maxWorkItemSizes = null;
     this.name = null;
     this.version = null;
@@ -402,6 +405,29 @@ public class OCLDevice implements OCLTargetDevice {
     return deviceAddressBits;
   }
 
+  /**
+   * @return the {@code CL_DEVICE_SVM_CAPABILITIES} bit field, or 0 for devices older than OpenCL
+   *     2.0.
+   */
+  public long getDeviceSVMCapabilities() {
+    if (deviceSVMCapabilities != INIT_VALUE) {
+      return deviceSVMCapabilities;
+    }
+    if (deviceVersion() < 200) {
+      deviceSVMCapabilities = 0;
+    } else {
+      queryOpenCLAPI(OCLDeviceInfo.CL_DEVICE_SVM_CAPABILITIES.getValue());
+      deviceSVMCapabilities = buffer.getLong();
+    }
+    return deviceSVMCapabilities;
+  }
+
+  @Override
+  public boolean isSystemSVMSupported() {
+    return (getDeviceSVMCapabilities() & OCLSVMCapabilities.CL_DEVICE_SVM_FINE_GRAIN_SYSTEM) != 0;
+  }
+
+  @Override
   public boolean hasDeviceUnifiedMemory() {
     queryOpenCLAPI(OCLDeviceInfo.CL_DEVICE_HOST_UNIFIED_MEMORY.getValue());
     return buffer.getInt() == OpenCL.CL_TRUE;
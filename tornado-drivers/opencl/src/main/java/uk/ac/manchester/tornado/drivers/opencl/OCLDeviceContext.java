@@ -41,6 +41,7 @@ import uk.ac.manchester.tornado.drivers.common.TornadoBufferProvider;
 import uk.ac.manchester.tornado.drivers.common.power.PowerMetric;
 import uk.ac.manchester.tornado.drivers.common.utils.EventDescriptor;
 import uk.ac.manchester.tornado.drivers.opencl.enums.OCLDeviceType;
+import uk.ac.manchester.tornado.drivers.opencl.enums.OCLMapFlags;
 import uk.ac.manchester.tornado.drivers.opencl.graal.OCLInstalledCode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.compiler.OCLCompilationResult;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLMemoryManager;
@@ -53,6 +54,18 @@ import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
 
 public class OCLDeviceContext implements OCLDeviceContextInterface {
 
+  /**
+   * Kernel launches and transfers can be enqueued without an OpenCL event when nothing reads it:
+   * the command queue is in-order, the interpreter does not track dependencies and events are not
+   * dumped. The profiler is checked on every enqueue, since it can be enabled per execution plan
+   * (see {@link #isEventFreeDispatch(long)}).
+   */
+  private static final boolean EVENT_FREE_DISPATCH =
+      TornadoOptions.OPENCL_EVENT_FREE_DISPATCH
+          && !TornadoOptions.VM_USE_DEPS
+          && !TornadoOptions.ENABLE_OOO_EXECUTION
+          && !TornadoOptions.DUMP_EVENTS;
+
   private final OCLTargetDevice device;
 
   /**
@@ -67,9 +80,18 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
   private final OCLCodeCache codeCache;
   private final Map<Long, OCLEventPool> oclEventPool;
   private final TornadoBufferProvider bufferProvider;
+
+  /** Kernel launches recorded for each execution plan (see {@link OCLCommandBuffer}). */
+  private final Map<Long, OCLCommandBuffer> commandBuffers;
+
+  private OCLCommandBuffer.Functions commandBufferFunctions;
+  private boolean commandBufferLookupDone;
   private boolean wasReset;
   private Set<Long> executionIDs;
 
+  /** Execution plans whose current execution is not profiled (e.g., not sampled). */
+  private final Set<Long> plansWithoutProfiler;
+
   public OCLDeviceContext(OCLTargetDevice device, OCLContext context) {
     this.device = device;
     this.context = context;
@@ -78,8 +100,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
     this.oclEventPool = new ConcurrentHashMap<>();
     this.bufferProvider = new OCLBufferProvider(this);
     this.commandQueueTable = new ConcurrentHashMap<>();
+    this.commandBuffers = new ConcurrentHashMap<>();
     this.device.setDeviceContext(this);
     this.executionIDs = Collections.synchronizedSet(new HashSet<>());
+    this.plansWithoutProfiler = ConcurrentHashMap.newKeySet();
     if (isDeviceContextOfNvidia()) {
       this.powerMetric = new OCLNvidiaPowerMetric(this);
     } else {
@@ -197,18 +221,110 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
-        commandQueue.enqueueNDRangeKernel(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    int event =
+        registerEvent(
+            eventFree,
+            eventPool,
+            commandQueue.enqueueNDRangeKernel(
+                kernel,
+                dim,
+                globalWorkOffset,
+                globalWorkSize,
+                localWorkSize,
+                waitList(eventFree, eventPool, waitEvents, commandQueue)),
+            EventDescriptor.DESC_PARALLEL_KERNEL,
+            commandQueue);
+    if (!commandBuffers.isEmpty()) {
+      OCLCommandBuffer commandBuffer = commandBuffers.get(executionPlanId);
+      if (commandBuffer != null) {
+        commandBuffer.recordNDRangeKernel(
+            commandQueue.getCommandQueuePtr(),
             kernel,
             dim,
             globalWorkOffset,
             globalWorkSize,
-            localWorkSize,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
-        EventDescriptor.DESC_PARALLEL_KERNEL,
-        commandQueue);
+            localWorkSize);
+      }
+    }
+    return event;
+  }
+
+  /**
+   * Starts recording the kernel launches of an execution plan into a command buffer. The launches
+   * are still dispatched while they are recorded.
+   *
+   * @return false if the device does not support {@code cl_khr_command_buffer}.
+   */
+  @Override
+  public boolean beginLaunchRecording(long executionPlanId) {
+    OCLCommandBuffer.Functions functions = getCommandBufferFunctions();
+    if (functions == null) {
+      return false;
+    }
+    discardLaunchRecording(executionPlanId);
+    commandBuffers.put(executionPlanId, new OCLCommandBuffer(functions));
+    return true;
+  }
+
+  /**
+   * Stops recording the kernel launches of an execution plan.
+   *
+   * @return true if the recorded launches can be replayed.
+   */
+  @Override
+  public boolean endLaunchRecording(long executionPlanId) {
+    OCLCommandBuffer commandBuffer = commandBuffers.get(executionPlanId);
+    if (commandBuffer != null && commandBuffer.finish()) {
+      return true;
+    }
+    discardLaunchRecording(executionPlanId);
+    return false;
+  }
+
+  /**
+   * Enqueues the recorded kernel launches of an execution plan with a single call.
+   *
+   * @return false if there is no recording, or it could not be enqueued.
+   */
+  @Override
+  public boolean replayLaunches(long executionPlanId) {
+    OCLCommandBuffer commandBuffer = commandBuffers.get(executionPlanId);
+    return commandBuffer != null
+        && commandBuffer.enqueue(getCommandQueue(executionPlanId).getCommandQueuePtr());
+  }
+
+  @Override
+  public void discardLaunchRecording(long executionPlanId) {
+    OCLCommandBuffer commandBuffer = commandBuffers.remove(executionPlanId);
+    if (commandBuffer != null) {
+      commandBuffer.release();
+    }
+  }
+
+  /**
+   * Sets whether the profiler records the current execution of an execution plan. The launch and
+   * transfer paths only wait for and query events of the plan when it is enabled.
+   */
+  @Override
+  public void setProfilerEnabled(long executionPlanId, boolean enabled) {
+    if (enabled) {
+      plansWithoutProfiler.remove(executionPlanId);
+    } else {
+      plansWithoutProfiler.add(executionPlanId);
+    }
+  }
+
+  public boolean isProfilerEnabled(long executionPlanId) {
+    return TornadoOptions.isProfilerEnabled() && !plansWithoutProfiler.contains(executionPlanId);
+  }
+
+  private synchronized OCLCommandBuffer.Functions getCommandBufferFunctions() {
+    if (!commandBufferLookupDone) {
+      commandBufferFunctions = OCLCommandBuffer.lookup(context.getPlatform(), device);
+      commandBufferLookupDone = true;
+    }
+    return commandBufferFunctions;
   }
 
   public long getPowerUsage() {
@@ -236,7 +352,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueWrite(
             bufferId,
             OpenCLBlocking.FALSE,
@@ -244,9 +363,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_WRITE_BYTE,
         commandQueue);
   }
@@ -261,7 +378,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueWrite(
             bufferId,
             OpenCLBlocking.FALSE,
@@ -269,9 +389,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_WRITE_BYTE,
         commandQueue);
   }
@@ -286,7 +404,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueWrite(
             bufferId,
             OpenCLBlocking.FALSE,
@@ -294,9 +415,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_WRITE_INT,
         commandQueue);
   }
@@ -311,7 +430,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueWrite(
             bufferId,
             OpenCLBlocking.FALSE,
@@ -319,9 +441,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_WRITE_LONG,
         commandQueue);
   }
@@ -336,7 +456,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueWrite(
             bufferId,
             OpenCLBlocking.FALSE,
@@ -344,9 +467,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_WRITE_SHORT,
         commandQueue);
   }
@@ -361,7 +482,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueWrite(
             bufferId,
             OpenCLBlocking.FALSE,
@@ -369,9 +493,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_WRITE_FLOAT,
         commandQueue);
   }
@@ -386,7 +508,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueWrite(
             bufferId,
             OpenCLBlocking.FALSE,
@@ -394,9 +519,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_WRITE_DOUBLE,
         commandQueue);
   }
@@ -422,6 +545,40 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
     return oclEventPool.get(executionPlanId);
   }
 
+  /**
+   * Returns whether the commands of an execution plan are enqueued without events. It is evaluated
+   * once per enqueue, so the wait list and the registration of a command always agree even if the
+   * profiler of the plan is switched concurrently.
+   */
+  private boolean isEventFreeDispatch(long executionPlanId) {
+    return EVENT_FREE_DISPATCH && !isProfilerEnabled(executionPlanId);
+  }
+
+  private static long[] waitList(
+      boolean eventFree, OCLEventPool eventPool, int[] waitEvents, OCLCommandQueue commandQueue) {
+    if (eventFree) {
+      return OCLCommandQueue.NO_EVENT;
+    }
+    return eventPool.serialiseEvents(waitEvents, commandQueue) ? eventPool.waitEventsBuffer : null;
+  }
+
+  /**
+   * Registers the event of a command in the event pool.
+   *
+   * @return the index of the event in the pool, or -1 if the command was enqueued without an event.
+   */
+  private static int registerEvent(
+      boolean eventFree,
+      OCLEventPool eventPool,
+      long oclEvent,
+      EventDescriptor descriptor,
+      OCLCommandQueue commandQueue) {
+    if (oclEvent == 0 && eventFree) {
+      return -1;
+    }
+    return eventPool.registerEvent(oclEvent, descriptor, commandQueue);
+  }
+
   public int enqueueWriteBuffer(
       long executionPlanId,
       long bufferId,
@@ -432,6 +589,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
     long eventId =
         commandQueue.enqueueWrite(
             bufferId,
@@ -440,10 +598,9 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             hostPointer,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null);
-    return eventPool.registerEvent(eventId, EventDescriptor.DESC_WRITE_SEGMENT, commandQueue);
+            waitList(eventFree, eventPool, waitEvents, commandQueue));
+    return registerEvent(
+        eventFree, eventPool, eventId, EventDescriptor.DESC_WRITE_SEGMENT, commandQueue);
   }
 
   /*
@@ -460,7 +617,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueRead(
             bufferId,
             OpenCLBlocking.FALSE,
@@ -468,9 +628,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_READ_BYTE,
         commandQueue);
   }
@@ -485,7 +643,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueRead(
             bufferId,
             OpenCLBlocking.FALSE,
@@ -493,9 +654,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_READ_BYTE,
         commandQueue);
   }
@@ -510,7 +669,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueRead(
             bufferId,
             OpenCLBlocking.FALSE,
@@ -518,9 +680,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_READ_INT,
         commandQueue);
   }
@@ -535,7 +695,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueRead(
             bufferId,
             OpenCLBlocking.FALSE,
@@ -543,9 +706,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_READ_LONG,
         commandQueue);
   }
@@ -560,7 +721,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueRead(
             bufferId,
             OpenCLBlocking.FALSE,
@@ -568,9 +732,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_READ_FLOAT,
         commandQueue);
   }
@@ -585,7 +747,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueRead(
             bufferId,
             OpenCLBlocking.FALSE,
@@ -593,9 +758,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_READ_DOUBLE,
         commandQueue);
   }
@@ -610,7 +773,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueRead(
             bufferId,
             OpenCLBlocking.FALSE,
@@ -618,9 +784,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_READ_SHORT,
         commandQueue);
   }
@@ -635,7 +799,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueRead(
             bufferId,
             OpenCLBlocking.FALSE,
@@ -643,9 +810,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             hostPointer,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_READ_SEGMENT,
         commandQueue);
   }
@@ -663,7 +828,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueWrite(
             bufferId,
             OpenCLBlocking.TRUE,
@@ -671,9 +839,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_WRITE_BYTE,
         commandQueue);
   }
@@ -688,7 +854,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueWrite(
             bufferId,
             OpenCLBlocking.TRUE,
@@ -696,9 +865,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_WRITE_BYTE,
         commandQueue);
   }
@@ -713,7 +880,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueWrite(
             bufferId,
             OpenCLBlocking.TRUE,
@@ -721,9 +891,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_WRITE_INT,
         commandQueue);
   }
@@ -738,7 +906,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueWrite(
             bufferId,
             OpenCLBlocking.TRUE,
@@ -746,9 +917,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_WRITE_LONG,
         commandQueue);
   }
@@ -763,7 +932,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueWrite(
             bufferId,
             OpenCLBlocking.TRUE,
@@ -771,9 +943,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_WRITE_SHORT,
         commandQueue);
   }
@@ -788,7 +958,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueWrite(
             bufferId,
             OpenCLBlocking.TRUE,
@@ -796,9 +969,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_WRITE_FLOAT,
         commandQueue);
   }
@@ -813,7 +984,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueWrite(
             bufferId,
             OpenCLBlocking.TRUE,
@@ -821,9 +995,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_WRITE_DOUBLE,
         commandQueue);
   }
@@ -838,7 +1010,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueWrite(
             bufferId,
             OpenCLBlocking.TRUE,
@@ -846,9 +1021,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             hostPointer,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_WRITE_SEGMENT,
         commandQueue);
   }
@@ -866,7 +1039,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueRead(
             bufferId,
             OpenCLBlocking.TRUE,
@@ -874,9 +1050,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_READ_BYTE,
         commandQueue);
   }
@@ -891,7 +1065,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueRead(
             bufferId,
             OpenCLBlocking.TRUE,
@@ -899,9 +1076,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_READ_BYTE,
         commandQueue);
   }
@@ -916,7 +1091,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueRead(
             bufferId,
             OpenCLBlocking.TRUE,
@@ -924,9 +1102,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_READ_INT,
         commandQueue);
   }
@@ -941,7 +1117,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueRead(
             bufferId,
             OpenCLBlocking.TRUE,
@@ -949,9 +1128,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_READ_LONG,
         commandQueue);
   }
@@ -966,7 +1143,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueRead(
             bufferId,
             OpenCLBlocking.TRUE,
@@ -974,9 +1154,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_READ_FLOAT,
         commandQueue);
   }
@@ -991,7 +1169,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueRead(
             bufferId,
             OpenCLBlocking.TRUE,
@@ -999,9 +1180,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_READ_DOUBLE,
         commandQueue);
   }
@@ -1016,7 +1195,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueRead(
             bufferId,
             OpenCLBlocking.TRUE,
@@ -1024,9 +1206,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             array,
             hostOffset,
-            eventPool.serialiseEvents(waitEvents, commandQueue)
-                ? eventPool.waitEventsBuffer
-                : null),
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
         EventDescriptor.DESC_READ_SHORT,
         commandQueue);
   }
@@ -1041,7 +1221,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
       int[] waitEvents) {
     OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-    return eventPool.registerEvent(
+    boolean eventFree = isEventFreeDispatch(executionPlanId);
+    return registerEvent(
+        eventFree,
+        eventPool,
         commandQueue.enqueueRead(
             bufferId,
             OpenCLBlocking.TRUE,
@@ -1049,10 +1232,70 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
             bytes,
             hostPointer,
             hostOffset,
+            waitList(eventFree, eventPool, waitEvents, commandQueue)),
+        EventDescriptor.DESC_READ_SEGMENT,
+        commandQueue);
+  }
+
+  /**
+   * Makes the host copy of a {@code CL_MEM_USE_HOST_PTR} buffer visible to the device. The region
+   * is mapped with {@code CL_MAP_WRITE_INVALIDATE_REGION}, so the device contents are not copied
+   * back, and unmapped. Devices that share memory with the host do not copy any data.
+   *
+   * @return the event of the unmap operation.
+   */
+  public int syncHostBufferToDevice(
+      long executionPlanId, long bufferId, long offset, long bytes, int[] waitEvents) {
+    return mapAndUnmapHostBuffer(
+        executionPlanId,
+        bufferId,
+        OCLMapFlags.CL_MAP_WRITE_INVALIDATE_REGION,
+        offset,
+        bytes,
+        waitEvents,
+        EventDescriptor.DESC_WRITE_SEGMENT);
+  }
+
+  /**
+   * Makes the device contents of a {@code CL_MEM_USE_HOST_PTR} buffer visible in its host
+   * pointer. The map is blocking, so the data is available on return.
+   *
+   * @return the event of the unmap operation.
+   */
+  public int syncDeviceToHostBuffer(
+      long executionPlanId, long bufferId, long offset, long bytes, int[] waitEvents) {
+    return mapAndUnmapHostBuffer(
+        executionPlanId,
+        bufferId,
+        OCLMapFlags.CL_MAP_READ,
+        offset,
+        bytes,
+        waitEvents,
+        EventDescriptor.DESC_READ_SEGMENT);
+  }
+
+  private int mapAndUnmapHostBuffer(
+      long executionPlanId,
+      long bufferId,
+      long mapFlags,
+      long offset,
+      long bytes,
+      int[] waitEvents,
+      EventDescriptor descriptor) {
+    OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
+    OCLEventPool eventPool = getOCLEventPool(executionPlanId);
+    long mappedPointer =
+        commandQueue.enqueueMapBuffer(
+            bufferId,
+            mapFlags,
+            offset,
+            bytes,
             eventPool.serialiseEvents(waitEvents, commandQueue)
                 ? eventPool.waitEventsBuffer
-                : null),
-        EventDescriptor.DESC_READ_SEGMENT,
+                : null);
+    return eventPool.registerEvent(
+        commandQueue.enqueueUnmapMemObject(bufferId, mappedPointer, null),
+        descriptor,
         commandQueue);
   }
 
@@ -1082,6 +1325,8 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
 
   @Override
   public void reset(long executionPlanId) {
+    discardLaunchRecording(executionPlanId);
+    plansWithoutProfiler.remove(executionPlanId);
     OCLEventPool eventPool = getOCLEventPool(executionPlanId);
     eventPool.reset();
     oclEventPool.remove(executionPlanId);
@@ -1225,6 +1470,13 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
     return codeCache.installSource(meta, id, entryPoint, code);
   }
 
+  @Override
+  public OCLInstalledCode installShapeVariant(OCLCompilationResult result, String variantKey) {
+    String entryPoint = checkKernelName(result.getName());
+    return codeCache.installShapeVariant(
+        result.getMeta(), result.getId(), entryPoint, result.getTargetCode(), variantKey);
+  }
+
   @Override
   public OCLInstalledCode installCode(
       String id, String entryPoint, byte[] code, boolean printKernel) {
@@ -48,6 +48,8 @@ public interface OCLDeviceContextInterface extends TornadoDeviceContext {
 
   OCLInstalledCode installCode(TaskDataContext meta, String id, String entryPoint, byte[] code);
 
+  OCLInstalledCode installShapeVariant(OCLCompilationResult result, String variantKey);
+
   boolean isKernelAvailable();
 
   void reset(long executionPlanId);
@@ -85,4 +87,20 @@ public interface OCLDeviceContextInterface extends TornadoDeviceContext {
   OCLProgram createProgramWithBinary(byte[] binary, long[] lengths);
 
   OCLProgram createProgramWithIL(byte[] binary, long[] lengths);
+
+  default boolean beginLaunchRecording(long executionPlanId) {
+    return false;
+  }
+
+  default boolean endLaunchRecording(long executionPlanId) {
+    return false;
+  }
+
+  default boolean replayLaunches(long executionPlanId) {
+    return false;
+  }
+
+  default void discardLaunchRecording(long executionPlanId) {}
+
+  default void setProfilerEnabled(long executionPlanId, boolean enabled) {}
 }
@@ -0,0 +1,431 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SymbolLookup;
+import java.lang.invoke.MethodHandle;
+import uk.ac.manchester.tornado.drivers.opencl.exceptions.OCLException;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Downcall bindings for the OpenCL calls issued on every kernel launch and data transfer. They
+ * replace the JNI entry points of {@link OCLCommandQueue} and {@link OCLKernel} when {@code
+ * -Dtornado.opencl.ffm=true} is set.
+ *
+ * <p>OpenCL handles ({@code cl_command_queue}, {@code cl_kernel}, {@code cl_mem} and {@code
+ * cl_event}) are kept as {@code long} values, as in the rest of the driver, and are passed as
+ * 64-bit integers. Work sizes, wait lists and the returned event live in a {@link Scratch} owned
+ * by each command queue, so a launch does not allocate or pin any Java array.
+ */
+final class OCLForeignBindings {
+
+  private static final TornadoLogger logger = new TornadoLogger(OCLForeignBindings.class);
+
+  static final int CL_SUCCESS = 0;
+  private static final int CL_INVALID_OPERATION = -59;
+  private static final int CL_TRUE = 1;
+  private static final int CL_FALSE = 0;
+
+  private static final MethodHandle CL_ENQUEUE_ND_RANGE_KERNEL;
+  private static final MethodHandle CL_SET_KERNEL_ARG;
+  private static final MethodHandle CL_SET_KERNEL_ARG_SVM_POINTER;
+  private static final MethodHandle CL_ENQUEUE_WRITE_BUFFER;
+  private static final MethodHandle CL_ENQUEUE_READ_BUFFER;
+  private static final MethodHandle CL_ENQUEUE_MARKER_WITH_WAIT_LIST;
+  private static final MethodHandle CL_ENQUEUE_BARRIER_WITH_WAIT_LIST;
+
+  private static final boolean AVAILABLE;
+
+  static {
+    MethodHandle ndRange = null;
+    MethodHandle setArg = null;
+    MethodHandle setArgSVMPointer = null;
+    MethodHandle write = null;
+    MethodHandle read = null;
+    MethodHandle marker = null;
+    MethodHandle barrier = null;
+    boolean available = false;
+    if (TornadoOptions.OPENCL_FOREIGN_BINDINGS) {
+      try {
+        Linker linker = Linker.nativeLinker();
+        SymbolLookup lookup = lookupOpenCL();
+        FunctionDescriptor transfer =
+            FunctionDescriptor.of(
+                JAVA_INT,
+                JAVA_LONG,
+                JAVA_LONG,
+                JAVA_INT,
+                JAVA_LONG,
+                JAVA_LONG,
+                ADDRESS,
+                JAVA_INT,
+                ADDRESS,
+                ADDRESS);
+        FunctionDescriptor waitList =
+            FunctionDescriptor.of(JAVA_INT, JAVA_LONG, JAVA_INT, ADDRESS, ADDRESS);
+        ndRange =
+            downcall(
+                linker,
+                lookup,
+                "clEnqueueNDRangeKernel",
+                FunctionDescriptor.of(
+                    JAVA_INT,
+                    JAVA_LONG,
+                    JAVA_LONG,
+                    JAVA_INT,
+                    ADDRESS,
+                    ADDRESS,
+                    ADDRESS,
+                    JAVA_INT,
+                    ADDRESS,
+                    ADDRESS));
+        setArg =
+            downcall(
+                linker,
+                lookup,
+                "clSetKernelArg",
+                FunctionDescriptor.of(JAVA_INT, JAVA_LONG, JAVA_INT, JAVA_LONG, ADDRESS));
+        // OpenCL 2.0: ICD loaders for OpenCL 1.x do not export it
+        FunctionDescriptor setArgPointer =
+            FunctionDescriptor.of(JAVA_INT, JAVA_LONG, JAVA_INT, JAVA_LONG);
+        setArgSVMPointer =
+            lookup
+                .find("clSetKernelArgSVMPointer")
+                .map(symbol -> linker.downcallHandle(symbol, setArgPointer))
+                .orElse(null);
+        write = downcall(linker, lookup, "clEnqueueWriteBuffer", transfer);
+        read = downcall(linker, lookup, "clEnqueueReadBuffer", transfer);
+        marker = downcall(linker, lookup, "clEnqueueMarkerWithWaitList", waitList);
+        barrier = downcall(linker, lookup, "clEnqueueBarrierWithWaitList", waitList);
+        available = true;
+      } catch (IllegalArgumentException | UnsupportedOperationException e) {
+        logger.warn("OpenCL foreign bindings unavailable, falling back to JNI: %s", e.getMessage());
+      }
+    }
+    CL_ENQUEUE_ND_RANGE_KERNEL = ndRange;
+    CL_SET_KERNEL_ARG = setArg;
+    CL_SET_KERNEL_ARG_SVM_POINTER = setArgSVMPointer;
+    CL_ENQUEUE_WRITE_BUFFER = write;
+    CL_ENQUEUE_READ_BUFFER = read;
+    CL_ENQUEUE_MARKER_WITH_WAIT_LIST = marker;
+    CL_ENQUEUE_BARRIER_WITH_WAIT_LIST = barrier;
+    AVAILABLE = available;
+  }
+
+  private OCLForeignBindings() {}
+
+  /**
+   * @return true when {@code tornado.opencl.ffm} is enabled and all the OpenCL symbols were
+   *     resolved.
+   */
+  static boolean isEnabled() {
+    return AVAILABLE;
+  }
+
+  /**
+   * The OpenCL JNI library is linked against the ICD loader, so the loader lookup of this class
+   * resolves the OpenCL symbols once {@link OpenCL} has been initialised. The system library is
+   * only used as a fallback.
+   */
+  static SymbolLookup lookupOpenCL() {
+    SymbolLookup loaderLookup = SymbolLookup.loaderLookup();
+    if (loaderLookup.find("clEnqueueNDRangeKernel").isPresent()) {
+      return loaderLookup;
+    }
+    String os = System.getProperty("os.name").toLowerCase();
+    String library;
+    if (os.startsWith("mac")) {
+      library = "/System/Library/Frameworks/OpenCL.framework/OpenCL";
+    } else if (os.startsWith("windows")) {
+      library = "OpenCL";
+    } else {
+      library = "libOpenCL.so.1";
+    }
+    return SymbolLookup.libraryLookup(library, Arena.global());
+  }
+
+  static MethodHandle downcall(
+      Linker linker, SymbolLookup lookup, String name, FunctionDescriptor descriptor) {
+    MemorySegment symbol =
+        lookup
+            .find(name)
+            .orElseThrow(() -> new IllegalArgumentException("symbol not found: " + name));
+    return linker.downcallHandle(symbol, descriptor);
+  }
+
+  private static void validate(String name, int status) throws OCLException {
+    if (status != CL_SUCCESS) {
+      throw new OCLException(name + " returned " + status);
+    }
+  }
+
+  static long clEnqueueNDRangeKernel(
+      long queueId,
+      long kernelId,
+      int dim,
+      long[] globalWorkOffset,
+      long[] globalWorkSize,
+      long[] localWorkSize,
+      long[] events,
+      Scratch scratch)
+      throws OCLException {
+    MemorySegment offset = scratch.workSizes(Scratch.OFFSET, globalWorkOffset, dim);
+    MemorySegment global = scratch.workSizes(Scratch.GLOBAL, globalWorkSize, dim);
+    MemorySegment local = scratch.workSizes(Scratch.LOCAL, localWorkSize, dim);
+    int numEvents = scratch.waitList(events);
+    int status;
+    try {
+      status =
+          (int)
+              CL_ENQUEUE_ND_RANGE_KERNEL.invokeExact(
+                  queueId,
+                  kernelId,
+                  dim,
+                  offset,
+                  global,
+                  local,
+                  numEvents,
+                  scratch.waitListSegment(numEvents),
+                  scratch.eventOut(events));
+    } catch (Throwable t) {
+      throw new OCLException(t.getMessage());
+    }
+    validate("clEnqueueNDRangeKernel", status);
+    return scratch.eventResult(events);
+  }
+
+  static long enqueueWriteBuffer(
+      long queueId,
+      long devicePtr,
+      boolean blocking,
+      long offset,
+      long bytes,
+      MemorySegment host,
+      long[] events,
+      Scratch scratch)
+      throws OCLException {
+    int numEvents = scratch.waitList(events);
+    int status;
+    try {
+      status =
+          (int)
+              CL_ENQUEUE_WRITE_BUFFER.invokeExact(
+                  queueId,
+                  devicePtr,
+                  blocking ? CL_TRUE : CL_FALSE,
+                  offset,
+                  bytes,
+                  host,
+                  numEvents,
+                  scratch.waitListSegment(numEvents),
+                  scratch.eventOut(events));
+    } catch (Throwable t) {
+      throw new OCLException(t.getMessage());
+    }
+    validate("clEnqueueWriteBuffer", status);
+    return scratch.eventResult(events);
+  }
+
+  static long enqueueReadBuffer(
+      long queueId,
+      long devicePtr,
+      boolean blocking,
+      long offset,
+      long bytes,
+      MemorySegment host,
+      long[] events,
+      Scratch scratch)
+      throws OCLException {
+    int numEvents = scratch.waitList(events);
+    int status;
+    try {
+      status =
+          (int)
+              CL_ENQUEUE_READ_BUFFER.invokeExact(
+                  queueId,
+                  devicePtr,
+                  blocking ? CL_TRUE : CL_FALSE,
+                  offset,
+                  bytes,
+                  host,
+                  numEvents,
+                  scratch.waitListSegment(numEvents),
+                  scratch.eventOut(events));
+    } catch (Throwable t) {
+      throw new OCLException(t.getMessage());
+    }
+    validate("clEnqueueReadBuffer", status);
+    return scratch.eventResult(events);
+  }
+
+  static long clEnqueueMarkerWithWaitList(long queueId, long[] events, Scratch scratch)
+      throws OCLException {
+    int numEvents = scratch.waitList(events);
+    int status;
+    try {
+      status =
+          (int)
+              CL_ENQUEUE_MARKER_WITH_WAIT_LIST.invokeExact(
+                  queueId, numEvents, scratch.waitListSegment(numEvents), scratch.event);
+    } catch (Throwable t) {
+      throw new OCLException(t.getMessage());
+    }
+    validate("clEnqueueMarkerWithWaitList", status);
+    return scratch.event.get(JAVA_LONG, 0);
+  }
+
+  static long clEnqueueBarrierWithWaitList(long queueId, long[] events, Scratch scratch)
+      throws OCLException {
+    int numEvents = scratch.waitList(events);
+    int status;
+    try {
+      status =
+          (int)
+              CL_ENQUEUE_BARRIER_WITH_WAIT_LIST.invokeExact(
+                  queueId, numEvents, scratch.waitListSegment(numEvents), scratch.event);
+    } catch (Throwable t) {
+      throw new OCLException(t.getMessage());
+    }
+    validate("clEnqueueBarrierWithWaitList", status);
+    return scratch.event.get(JAVA_LONG, 0);
+  }
+
+  /**
+   * Sets a kernel argument. A {@link MemorySegment#NULL} value is used for local memory regions
+   * and unused arguments.
+   */
+  static void clSetKernelArg(long kernelId, int index, long size, MemorySegment value)
+      throws OCLException {
+    int status;
+    try {
+      status = (int) CL_SET_KERNEL_ARG.invokeExact(kernelId, index, size, value);
+    } catch (Throwable t) {
+      throw new OCLException(t.getMessage());
+    }
+    validate("clSetKernelArg", status);
+  }
+
+  /**
+   * Passes a shared virtual memory pointer as a kernel argument. It fails with {@code
+   * CL_INVALID_OPERATION} when the OpenCL library does not provide the call.
+   */
+  static void clSetKernelArgSVMPointer(long kernelId, int index, long pointer)
+      throws OCLException {
+    int status;
+    if (CL_SET_KERNEL_ARG_SVM_POINTER == null) {
+      status = CL_INVALID_OPERATION;
+    } else {
+      try {
+        status = (int) CL_SET_KERNEL_ARG_SVM_POINTER.invokeExact(kernelId, index, pointer);
+      } catch (Throwable t) {
+        throw new OCLException(t.getMessage());
+      }
+    }
+    validate("clSetKernelArgSVMPointer", status);
+  }
+
+  /**
+   * Native memory reused across calls on the same command queue. Command queues are created per
+   * thread (see {@link OCLCommandQueueTable}), so the scratch is never used concurrently.
+   */
+  static final class Scratch {
+
+    private static final int OFFSET = 0;
+    private static final int GLOBAL = 3;
+    private static final int LOCAL = 6;
+
+    private final Arena arena;
+    private final MemorySegment workSizes;
+    private final MemorySegment event;
+    private MemorySegment waitList;
+
+    Scratch() {
+      this.arena = Arena.ofShared();
+      this.workSizes = arena.allocate(9 * JAVA_LONG.byteSize(), JAVA_LONG.byteAlignment());
+      this.event = arena.allocate(JAVA_LONG.byteSize(), JAVA_LONG.byteAlignment());
+      this.waitList = allocateLongs(TornadoOptions.MAX_WAIT_EVENTS);
+    }
+
+    private MemorySegment allocateLongs(long count) {
+      return arena.allocate(count * JAVA_LONG.byteSize(), JAVA_LONG.byteAlignment());
+    }
+
+    private MemorySegment workSizes(int base, long[] values, int dim) {
+      if (values == null) {
+        return MemorySegment.NULL;
+      }
+      for (int i = 0; i < dim; i++) {
+        workSizes.setAtIndex(JAVA_LONG, base + i, values[i]);
+      }
+      return workSizes.asSlice(base * JAVA_LONG.byteSize());
+    }
+
+    /**
+     * Copies an event list in the driver's {@code [count, e0, e1, ...]} format into the native
+     * wait list.
+     *
+     * @return the number of events to wait for.
+     */
+    private int waitList(long[] events) {
+      if (events == null || events[0] <= 0) {
+        return 0;
+      }
+      int numEvents = (int) events[0];
+      if (waitList.byteSize() < numEvents * JAVA_LONG.byteSize()) {
+        waitList = allocateLongs(numEvents);
+      }
+      MemorySegment.copy(events, 1, waitList, JAVA_LONG, 0, numEvents);
+      return numEvents;
+    }
+
+    /**
+     * A negative count in the event list requests no returned event, see {@link
+     * OCLCommandQueue#NO_EVENT}.
+     */
+    private MemorySegment eventOut(long[] events) {
+      return events != null && events[0] < 0 ? MemorySegment.NULL : event;
+    }
+
+    private long eventResult(long[] events) {
+      return events != null && events[0] < 0 ? 0 : event.get(JAVA_LONG, 0);
+    }
+
+    private MemorySegment waitListSegment(int numEvents) {
+      return numEvents == 0 ? MemorySegment.NULL : waitList;
+    }
+
+    void release() {
+      arena.close();
+    }
+  }
+}
@@ -25,6 +25,8 @@ package uk.ac.manchester.tornado.drivers.opencl;
 
 import static uk.ac.manchester.tornado.api.exceptions.TornadoInternalError.guarantee;
 
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
@@ -40,6 +42,9 @@ public class OCLKernel {
   private String kernelName;
   private final TornadoLogger logger;
 
+  /** Native copy of the last argument value, used by the foreign bindings. */
+  private MemorySegment argumentSegment;
+
   public OCLKernel(long id, OCLDeviceContext deviceContext) {
     this.oclKernelID = id;
     this.deviceContext = deviceContext;
@@ -59,8 +64,20 @@ public class OCLKernel {
 
   static native void clGetKernelInfo(long kernelId, int info, byte[] buffer) throws OCLException;
 
+  static native int clSetKernelArgSVMPointer(long kernelId, int index, long pointer)
+      throws OCLException;
+
   public void setArg(int index, ByteBuffer buffer) {
     try {
+      if (OCLForeignBindings.isEnabled()) {
+        int size = buffer.position();
+        if (argumentSegment == null || argumentSegment.byteSize() < size) {
+          argumentSegment = Arena.ofAuto().allocate(Math.max(size, Long.BYTES), Long.BYTES);
+        }
+        MemorySegment.copy(MemorySegment.ofArray(buffer.array()), 0, argumentSegment, 0, size);
+        OCLForeignBindings.clSetKernelArg(oclKernelID, index, size, argumentSegment);
+        return;
+      }
       clSetKernelArg(oclKernelID, index, buffer.position(), buffer.array());
     } catch (OCLException e) {
       logger.error(e.getMessage());
@@ -76,8 +93,33 @@ public class OCLKernel {
     }
   }
 
+  /**
+   * Passes a shared virtual memory pointer as a kernel argument (OpenCL 2.0).
+   *
+   * @param index argument index
+   * @param pointer host address usable by the device
+   */
+  public void setArgSVMPointer(int index, long pointer) {
+    try {
+      if (OCLForeignBindings.isEnabled()) {
+        OCLForeignBindings.clSetKernelArgSVMPointer(oclKernelID, index, pointer);
+        return;
+      }
+      int status = clSetKernelArgSVMPointer(oclKernelID, index, pointer);
+      if (status != OCLForeignBindings.CL_SUCCESS) {
+        throw new OCLException("clSetKernelArgSVMPointer returned " + status);
+      }
+    } catch (OCLException e) {
+      logger.error(e.getMessage());
+    }
+  }
+
   public void setArgUnused(int index) {
     try {
+      if (OCLForeignBindings.isEnabled()) {
+        OCLForeignBindings.clSetKernelArg(oclKernelID, index, 8, MemorySegment.NULL);
+        return;
+      }
       clSetKernelArg(oclKernelID, index, 8, null);
     } catch (OCLException e) {
       logger.error(e.getMessage());
@@ -94,6 +136,10 @@ public class OCLKernel {
     long maxSize = deviceContext.getDevice().getDeviceLocalMemorySize();
     guarantee(size <= maxSize, "local allocation is too large for device");
     try {
+      if (OCLForeignBindings.isEnabled()) {
+        OCLForeignBindings.clSetKernelArg(oclKernelID, index, size, MemorySegment.NULL);
+        return;
+      }
       clSetKernelArg(oclKernelID, index, size, null);
     } catch (OCLException e) {
       logger.error(e.getMessage());
@@ -101,6 +101,10 @@ public class OCLPlatform implements TornadoPlatformInterface {
     return devices;
   }
 
+  public long getOclPlatformPtr() {
+    return oclPlatformPtr;
+  }
+
   public OCLContext createContext() {
     OCLContext contextObject;
     final LongBuffer deviceIds = LongBuffer.allocate(devices.size());
@@ -53,9 +53,20 @@ public class OCLTargetDescription extends TargetDescription {
   private final boolean supportsFP64;
   private final String extensions;
   private final boolean supportsInt64Atomics;
+  private final boolean supportsInt64ExtendedAtomics;
 
   private final boolean supportsF16;
 
+  private final boolean supportsKhrSubgroups;
+
+  private final boolean supportsSubgroups;
+
+  private final boolean supportsIntelSubgroups;
+
+  private final boolean supportsKhrSubgroupShuffle;
+
+  private final boolean supportsKhrSubgroupBallot;
+
   public OCLTargetDescription(Architecture arch, boolean supportsFP64, String extensions) {
     this(
         arch,
@@ -79,7 +90,13 @@ public class OCLTargetDescription extends TargetDescription {
     this.supportsFP64 = supportsFP64;
     this.extensions = extensions;
     supportsInt64Atomics = extensions.contains("cl_khr_int64_base_atomics");
+    supportsInt64ExtendedAtomics = extensions.contains("cl_khr_int64_extended_atomics");
     supportsF16 = extensions.contains("cl_khr_fp16");
+    supportsKhrSubgroups = extensions.contains("cl_khr_subgroups");
+    supportsIntelSubgroups = extensions.contains("cl_intel_subgroups");
+    supportsSubgroups = supportsKhrSubgroups || supportsIntelSubgroups;
+    supportsKhrSubgroupShuffle = extensions.contains("cl_khr_subgroup_shuffle");
+    supportsKhrSubgroupBallot = extensions.contains("cl_khr_subgroup_ballot");
   }
 
   // @formatter:on
@@ -118,6 +135,39 @@ public class OCLTargetDescription extends TargetDescription {
     return supportsInt64Atomics;
   }
 
+  /** Returns true if the device supports 64-bit atomic min, max, and, or and xor. */
+  public boolean supportsInt64ExtendedAtomics() {
+    return supportsInt64ExtendedAtomics;
+  }
+
+  /** Returns true if the device exposes the Khronos sub-group extension. */
+  public boolean supportsKhrSubgroups() {
+    return supportsKhrSubgroups;
+  }
+
+  /**
+   * Returns true if the device provides the sub-group built-ins (get_sub_group_id,
+   * sub_group_reduce_*), either through cl_khr_subgroups or cl_intel_subgroups.
+   */
+  public boolean supportsSubgroups() {
+    return supportsSubgroups;
+  }
+
+  /** Returns true if the device provides intel_sub_group_shuffle and intel_sub_group_shuffle_xor. */
+  public boolean supportsIntelSubgroups() {
+    return supportsIntelSubgroups;
+  }
+
+  /** Returns true if the device provides sub_group_shuffle and sub_group_shuffle_xor. */
+  public boolean supportsKhrSubgroupShuffle() {
+    return supportsKhrSubgroupShuffle;
+  }
+
+  /** Returns true if the device provides sub_group_ballot. */
+  public boolean supportsKhrSubgroupBallot() {
+    return supportsKhrSubgroupBallot;
+  }
+
   public String getExtensions() {
     return extensions;
   }
@@ -62,4 +62,16 @@ public interface OCLTargetDevice extends TornadoTargetDevice {
   int deviceVersion();
 
   boolean isSPIRVSupported();
+
+  /**
+   * @return true if the device supports fine-grained system shared virtual memory, i.e. kernels can
+   *     access any host allocation through its host pointer.
+   */
+  boolean isSystemSVMSupported();
+
+  /**
+   * @return true if the device and the host share a unified memory subsystem
+   *     ({@code CL_DEVICE_HOST_UNIFIED_MEMORY}).
+   */
+  boolean hasDeviceUnifiedMemory();
 }
@@ -55,12 +55,63 @@ public class OpenCLIntrinsics {
    */
   public static native void globalBarrier();
 
+  /**
+   * <code>
+   * mem_fence(CLK_GLOBAL_MEM_FENCE);
+   * </code>
+   */
+  public static native void globalMemFence();
+
+  /**
+   * Atomically increments the 32-bit counter stored in the given element of the array and returns
+   * its previous value. Used by single-pass reductions to detect the last work-group.
+   */
+  public static native int reductionTicket(int[] array, int index);
+
+  public static native int reductionTicket(long[] array, int index);
+
+  public static native int reductionTicket(float[] array, int index);
+
+  public static native int reductionTicket(double[] array, int index);
+
   public static native void printf();
 
   public static native void printEmpty();
 
   public static native void createLocalMemory(int[] array, int size);
 
+  // Sub-group built-ins (cl_khr_subgroups / cl_intel_subgroups)
+
+  public static native int get_sub_group_id();
+
+  public static native int get_sub_group_local_id();
+
+  public static native int get_num_sub_groups();
+
+  public static native int sub_group_reduce_add(int value);
+
+  public static native long sub_group_reduce_add(long value);
+
+  public static native float sub_group_reduce_add(float value);
+
+  public static native double sub_group_reduce_add(double value);
+
+  public static native int sub_group_reduce_min(int value);
+
+  public static native long sub_group_reduce_min(long value);
+
+  public static native float sub_group_reduce_min(float value);
+
+  public static native double sub_group_reduce_min(double value);
+
+  public static native int sub_group_reduce_max(int value);
+
+  public static native long sub_group_reduce_max(long value);
+
+  public static native float sub_group_reduce_max(float value);
+
+  public static native double sub_group_reduce_max(double value);
+
   public static int fmax(float a, float b) {
     return 0;
   }
@@ -106,6 +106,9 @@ public enum OCLDeviceInfo {
   CL_DEVICE_IMAGE_PITCH_ALIGNMENT(0x104A),
   CL_DEVICE_IMAGE_BASE_ADDRESS_ALIGNMENT(0x104B),
 
+  // OpenCL 2.0
+  CL_DEVICE_SVM_CAPABILITIES(0x1053),
+
   // OpenCL 2.1
   CL_DEVICE_IL_VERSION(0x105B),
   CL_DEVICE_MAX_NUM_SUB_GROUPS(0x105C),
@@ -367,6 +370,9 @@ public enum OCLDeviceInfo {
       case 0x104B:
         result = OCLDeviceInfo.CL_DEVICE_IMAGE_BASE_ADDRESS_ALIGNMENT;
         break;
+      case 0x1053:
+        result = OCLDeviceInfo.CL_DEVICE_SVM_CAPABILITIES;
+        break;
     }
     return result;
   }
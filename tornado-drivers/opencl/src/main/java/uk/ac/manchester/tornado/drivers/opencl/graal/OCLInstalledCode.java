@@ -48,7 +48,6 @@ import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
-import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
 
 public class OCLInstalledCode extends InstalledCode implements TornadoInstalledCode {
@@ -196,7 +195,10 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
         // We do not set any kernel context argument. This is only for the Java side.
         continue;
       }
-      if (isBoxedPrimitive(arg.getValue()) || arg.getValue().getClass().isPrimitive()) {
+      if (arg.isReferenceType()
+          && deviceContext.getMemoryManager().isSVMPointer((long) arg.getValue())) {
+        kernel.setArgSVMPointer(index + argIndex, (long) arg.getValue());
+      } else if (isBoxedPrimitive(arg.getValue()) || arg.getValue().getClass().isPrimitive()) {
         buffer.clear();
         PrimitiveSerialiser.put(buffer, arg.getValue());
         kernel.setArg(index + argIndex, buffer);
@@ -320,7 +322,7 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
           deviceContext.enqueueNDRangeKernel(
               executionPlanId, kernel, 1, null, meta.getGlobalWork(), meta.getLocalWork(), null);
     }
-    if (TornadoOptions.isProfilerEnabled()) {
+    if (deviceContext.isProfilerEnabled(executionPlanId)) {
       Event tornadoKernelEvent = deviceContext.resolveEvent(executionPlanId, task);
       tornadoKernelEvent.waitForEvents(executionPlanId);
       long timer = meta.getProfiler().getTimer(ProfilerType.TOTAL_KERNEL_TIME);
@@ -393,7 +395,7 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
       int kernelContextWriteEventId,
       TaskDataContext meta,
       OCLKernelStackFrame callWrapper) {
-    if (TornadoOptions.isProfilerEnabled()) {
+    if (deviceContext.isProfilerEnabled(executionPlanId)) {
       TornadoProfiler profiler = meta.getProfiler();
       Event event = deviceContext.resolveEvent(executionPlanId, kernelContextWriteEventId);
       event.waitForEvents(executionPlanId);
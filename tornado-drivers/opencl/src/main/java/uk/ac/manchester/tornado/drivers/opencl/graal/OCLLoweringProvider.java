@@ -90,6 +90,7 @@ import org.graalvm.compiler.phases.util.Providers;
 import org.graalvm.compiler.replacements.DefaultJavaLoweringProvider;
 import org.graalvm.compiler.replacements.SnippetCounter;
 import org.graalvm.word.LocationIdentity;
+import uk.ac.manchester.tornado.drivers.common.compiler.phases.loops.ReductionLoopShape;
 import uk.ac.manchester.tornado.drivers.opencl.OCLTargetDescription;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLKind;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.AtomicAddNode;
@@ -101,15 +102,18 @@ import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.GroupIdNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.LocalArrayNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.LocalThreadIdNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.LocalThreadSizeNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLAtomicArrayNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.calc.DivNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.vector.LoadIndexedVectorNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.snippets.ReduceCPUSnippets;
 import uk.ac.manchester.tornado.drivers.opencl.graal.snippets.ReduceGPUSnippets;
 import uk.ac.manchester.tornado.runtime.TornadoVMConfigAccess;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.graal.nodes.GetGroupIdFixedWithNextNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.GlobalGroupSizeFixedWithNextNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.LocalGroupSizeFixedWithNextNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.NewArrayNonVirtualizableNode;
+import uk.ac.manchester.tornado.runtime.graal.nodes.ReductionTicketNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.StoreAtomicIndexedNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.ThreadIdFixedWithNextNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.ThreadLocalIdFixedWithNextNode;
@@ -162,7 +166,9 @@ public class OCLLoweringProvider extends DefaultJavaLoweringProvider {
   private void initializeSnippets(
       OptionValues options, SnippetCounter.Group.Factory factory, Providers providers) {
     this.cpuReduceSnippets = new ReduceCPUSnippets.Templates(options, providers);
-    this.gpuReduceSnippets = new ReduceGPUSnippets.Templates(options, providers);
+    boolean subGroups =
+        TornadoOptions.REDUCE_USE_SUBGROUPS && ((OCLTargetDescription) target).supportsSubgroups();
+    this.gpuReduceSnippets = new ReduceGPUSnippets.Templates(options, providers, subGroups);
   }
 
   @Override
@@ -209,6 +215,8 @@ public class OCLLoweringProvider extends DefaultJavaLoweringProvider {
       lowerGlobalGroupSizeNode((GlobalGroupSizeFixedWithNextNode) node);
     } else if (node instanceof LocalGroupSizeFixedWithNextNode) {
       lowerLocalGroupSizeNode((LocalGroupSizeFixedWithNextNode) node);
+    } else if (node instanceof ReductionTicketNode) {
+      lowerReductionTicketNode((ReductionTicketNode) node);
     } else {
       super.lower(node, tool);
     }
@@ -308,6 +316,29 @@ public class OCLLoweringProvider extends DefaultJavaLoweringProvider {
       } else if (node instanceof WriteAtomicNode writeAtomicNode) {
         cpuReduceSnippets.lower(writeAtomicNode, threadID, oclIdNode, startIndexNode, tool);
       }
+    } else if (TornadoOptions.REDUCE_SINGLE_PASS) {
+      ReductionLoopShape loopShape = ReductionLoopShape.analyse(threadID);
+      if (node instanceof StoreAtomicIndexedNode storeAtomicIndexedNode) {
+        gpuReduceSnippets.lowerSinglePass(
+            storeAtomicIndexedNode,
+            storeAtomicIndexedNode.elementKind(),
+            storeAtomicIndexedNode.value(),
+            storeAtomicIndexedNode.getExtraOperation(),
+            storeAtomicIndexedNode.array(),
+            storeAtomicIndexedNode.getInputArray(),
+            loopShape,
+            tool);
+      } else if (node instanceof WriteAtomicNode writeAtomicNode) {
+        gpuReduceSnippets.lowerSinglePass(
+            writeAtomicNode,
+            writeAtomicNode.getElementKind(),
+            writeAtomicNode.value(),
+            writeAtomicNode.getExtraOperation(),
+            writeAtomicNode.getOutArray(),
+            writeAtomicNode.getInputArray(),
+            loopShape,
+            tool);
+      }
     } else {
       if (node instanceof StoreAtomicIndexedNode storeAtomicIndexedNode) {
         gpuReduceSnippets.lower(storeAtomicIndexedNode, threadID, oclGlobalSize, tool);
@@ -352,6 +383,21 @@ public class OCLLoweringProvider extends DefaultJavaLoweringProvider {
     graph.replaceFixedWithFloating(threadLocalIdNode, localThreadIdNode);
   }
 
+  private void lowerReductionTicketNode(ReductionTicketNode ticketNode) {
+    StructuredGraph graph = ticketNode.graph();
+    AddressNode address =
+        createArrayAddress(graph, ticketNode.array(), ticketNode.elementKind(), ticketNode.index());
+    OCLAtomicArrayNode atomicNode =
+        graph.add(
+            new OCLAtomicArrayNode(
+                OCLAtomicArrayNode.Operation.ADD,
+                JavaKind.Int,
+                address,
+                ConstantNode.forInt(1, graph),
+                null));
+    graph.replaceFixedWithFixed(ticketNode, atomicNode);
+  }
+
   private void lowerGetGroupIdNode(GetGroupIdFixedWithNextNode getGroupIdNode) {
     StructuredGraph graph = getGroupIdNode.graph();
     GroupIdNode groupIdNode =
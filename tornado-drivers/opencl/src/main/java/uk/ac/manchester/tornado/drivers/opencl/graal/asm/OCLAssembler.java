@@ -78,6 +78,22 @@ public final class OCLAssembler extends Assembler {
       emitLine("#pragma OPENCL EXTENSION cl_khr_int64_base_atomics : enable  ");
     }
 
+    if (((OCLTargetDescription) target).supportsInt64ExtendedAtomics()) {
+      emitLine("#pragma OPENCL EXTENSION cl_khr_int64_extended_atomics : enable  ");
+    }
+
+    if (((OCLTargetDescription) target).supportsKhrSubgroups()) {
+      emitLine("#pragma OPENCL EXTENSION cl_khr_subgroups : enable  ");
+    }
+
+    if (((OCLTargetDescription) target).supportsKhrSubgroupShuffle()) {
+      emitLine("#pragma OPENCL EXTENSION cl_khr_subgroup_shuffle : enable  ");
+    }
+
+    if (((OCLTargetDescription) target).supportsKhrSubgroupBallot()) {
+      emitLine("#pragma OPENCL EXTENSION cl_khr_subgroup_ballot : enable  ");
+    }
+
     if (EMIT_INTRINSICS) {
       emitAtomicIntrinsics();
     }
@@ -591,6 +607,15 @@ public final class OCLAssembler extends Assembler {
   public static class OCLNullaryIntrinsic extends OCLNullaryOp {
     // @formatter:off
 
+    public static final OCLNullaryIntrinsic SUB_GROUP_ID =
+        new OCLNullaryIntrinsic("get_sub_group_id");
+    public static final OCLNullaryIntrinsic SUB_GROUP_LOCAL_ID =
+        new OCLNullaryIntrinsic("get_sub_group_local_id");
+    public static final OCLNullaryIntrinsic NUM_SUB_GROUPS =
+        new OCLNullaryIntrinsic("get_num_sub_groups");
+    public static final OCLNullaryIntrinsic SUB_GROUP_SIZE =
+        new OCLNullaryIntrinsic("get_sub_group_size");
+
     // @formatter:on
     protected OCLNullaryIntrinsic(String opcode) {
       super(opcode);
@@ -699,6 +724,17 @@ public final class OCLAssembler extends Assembler {
     public static final OCLUnaryIntrinsic MEMORY_ORDER_RELAXED =
         new OCLUnaryIntrinsic("memory_order_relaxed");
 
+    public static final OCLUnaryIntrinsic SUB_GROUP_REDUCE_ADD =
+        new OCLUnaryIntrinsic("sub_group_reduce_add");
+    public static final OCLUnaryIntrinsic SUB_GROUP_REDUCE_MIN =
+        new OCLUnaryIntrinsic("sub_group_reduce_min");
+    public static final OCLUnaryIntrinsic SUB_GROUP_REDUCE_MAX =
+        new OCLUnaryIntrinsic("sub_group_reduce_max");
+    public static final OCLUnaryIntrinsic SUB_GROUP_SCAN_INCLUSIVE_ADD =
+        new OCLUnaryIntrinsic("sub_group_scan_inclusive_add");
+    public static final OCLUnaryIntrinsic SUB_GROUP_SCAN_EXCLUSIVE_ADD =
+        new OCLUnaryIntrinsic("sub_group_scan_exclusive_add");
+
     public static final OCLUnaryIntrinsic BARRIER = new OCLUnaryIntrinsic("barrier");
     public static final OCLUnaryIntrinsic MEM_FENCE = new OCLUnaryIntrinsic("mem_fence");
     public static final OCLUnaryIntrinsic READ_MEM_FENCE = new OCLUnaryIntrinsic("read_mem_fence");
@@ -792,6 +828,10 @@ public final class OCLAssembler extends Assembler {
     public static final OCLUnaryTemplate NEW_SHORT_ARRAY =
         new OCLUnaryTemplate("short[]", "short[%s]");
 
+    // The first 64 bits of the uint4 ballot mask
+    public static final OCLUnaryTemplate SUB_GROUP_BALLOT =
+        new OCLUnaryTemplate("sub_group_ballot", "as_long(sub_group_ballot(%s).s01)");
+
     // @formatter:on
     private final String template;
 
@@ -879,6 +919,17 @@ public final class OCLAssembler extends Assembler {
     public static final OCLBinaryIntrinsic ATOMIC_OR = new OCLBinaryIntrinsic("atomic_or");
     public static final OCLBinaryIntrinsic ATOMIC_XOR = new OCLBinaryIntrinsic("atomic_xor");
 
+    public static final OCLBinaryIntrinsic SUB_GROUP_BROADCAST =
+        new OCLBinaryIntrinsic("sub_group_broadcast");
+    public static final OCLBinaryIntrinsic SUB_GROUP_SHUFFLE =
+        new OCLBinaryIntrinsic("sub_group_shuffle");
+    public static final OCLBinaryIntrinsic SUB_GROUP_SHUFFLE_XOR =
+        new OCLBinaryIntrinsic("sub_group_shuffle_xor");
+    public static final OCLBinaryIntrinsic INTEL_SUB_GROUP_SHUFFLE =
+        new OCLBinaryIntrinsic("intel_sub_group_shuffle");
+    public static final OCLBinaryIntrinsic INTEL_SUB_GROUP_SHUFFLE_XOR =
+        new OCLBinaryIntrinsic("intel_sub_group_shuffle_xor");
+
     public static final OCLBinaryIntrinsic VLOAD2 = new OCLBinaryIntrinsic("vload2");
     public static final OCLBinaryIntrinsic VLOAD3 = new OCLBinaryIntrinsic("vload3");
     public static final OCLBinaryIntrinsic VLOAD4 = new OCLBinaryIntrinsic("vload4");
@@ -227,7 +227,7 @@ public class OCLCompiler {
       graph.maybeCompress();
 
       final TornadoLowTierContext lowTierContext =
-          new TornadoLowTierContext(providers, backend, meta);
+          new TornadoLowTierContext(providers, backend, meta, args);
       suites.getLowTier().apply(graph, lowTierContext);
 
       getDebugContext()
@@ -51,9 +51,11 @@ import uk.ac.manchester.tornado.drivers.common.compiler.phases.memalloc.TornadoN
 import uk.ac.manchester.tornado.drivers.common.compiler.phases.memalloc.TornadoPrivateArrayPiRemoval;
 import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoBatchGlobalIndexOffset;
 import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoHalfFloatReplacement;
+import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoLocalMemoryTiling;
 import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoOpenCLIntrinsicsReplacements;
 import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoParallelScheduler;
 import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoTaskSpecialisation;
+import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoThreadCoarsening;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoHighTier;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoInliningPolicy;
@@ -110,7 +112,13 @@ public class OCLHighTier extends TornadoHighTier {
 
     appendPhase(new TornadoShapeAnalysis());
     appendPhase(canonicalizer);
-    appendPhase(new TornadoParallelScheduler());
+    TornadoParallelScheduler parallelScheduler = new TornadoParallelScheduler();
+    if (TornadoOptions.OPENCL_LOCAL_MEMORY_TILING) {
+      appendPhase(new TornadoLocalMemoryTiling());
+    }
+
+    appendPhase(new TornadoThreadCoarsening(parallelScheduler));
+    appendPhase(parallelScheduler);
 
     appendPhase(new SchedulePhase(SchedulePhase.SchedulingStrategy.EARLIEST));
 
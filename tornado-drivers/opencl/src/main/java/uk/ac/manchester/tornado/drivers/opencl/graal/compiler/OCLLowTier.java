@@ -47,6 +47,7 @@ import uk.ac.manchester.tornado.drivers.opencl.graal.phases.OCLFPGAPragmaPhase;
 import uk.ac.manchester.tornado.drivers.opencl.graal.phases.OCLFPGAThreadScheduler;
 import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoAtomicsParametersPhase;
 import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoAtomicsScheduling;
+import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoAutoVectorization;
 import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoFixedArrayCopyPhase;
 import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoHalfFloatVectorOffset;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
@@ -83,6 +84,10 @@ public class OCLLowTier extends TornadoLowTier {
 
     appendPhase(new TornadoFixedArrayCopyPhase());
 
+    if (TornadoOptions.OPENCL_AUTO_VECTORIZE) {
+      appendPhase(new TornadoAutoVectorization());
+    }
+
     appendPhase(new AddressLoweringByNodePhase(addressLowering));
 
     appendPhase(new DeadCodeEliminationPhase(DeadCodeEliminationPhase.Optionality.Required));
@@ -43,6 +43,7 @@ import static uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLIntUnaryInt
 
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
+import java.util.Map;
 import jdk.vm.ci.meta.JavaConstant;
 import jdk.vm.ci.meta.JavaKind;
 import jdk.vm.ci.meta.ResolvedJavaMethod;
@@ -76,6 +77,7 @@ import uk.ac.manchester.tornado.api.KernelContext;
 import uk.ac.manchester.tornado.api.TornadoVMIntrinsics;
 import uk.ac.manchester.tornado.api.exceptions.Debug;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.types.utils.SegmentAtomics;
 import uk.ac.manchester.tornado.drivers.opencl.graal.OCLArchitecture;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLKind;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.AtomicAddNodeTemplate;
@@ -84,6 +86,7 @@ import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.GetAtomicNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.GlobalThreadIdNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.IncAtomicNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.LocalArrayNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLAtomicArrayNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLBarrierNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLFPBinaryIntrinsicNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLFPUnaryIntrinsicNode;
@@ -107,6 +110,7 @@ public class OCLGraphBuilderPlugins {
     registerTornadoVMAtomicsPlugins(plugins);
     // Register KernelContext Plugins
     registerKernelContextPlugins(plugins);
+    OCLSubGroupPlugins.registerPlugins(plugins);
 
     OCLMathPlugins.registerTornadoMathPlugins(plugins);
     OCLVectorPlugins.registerPlugins(ps, plugins);
@@ -117,6 +121,7 @@ public class OCLGraphBuilderPlugins {
     OCLHalfFloatPlugins.registerPlugins(ps, plugins);
 
     registerMemoryAccessPlugins(plugins);
+    registerSegmentAtomicsPlugins(plugins);
   }
 
   private static void registerTornadoVMAtomicsPlugins(Registration r) {
@@ -447,6 +452,72 @@ public class OCLGraphBuilderPlugins {
     }
   }
 
+  private static AddressNode segmentElementAddress(
+      GraphBuilderContext b, ValueNode segment, ValueNode index, JavaKind kind) {
+    MulNode mulNode = b.append(new MulNode(index, ConstantNode.forInt(kind.getByteCount())));
+    return b.append(new OffsetAddressNode(segment, mulNode));
+  }
+
+  private static void registerSegmentAtomicsPlugins(InvocationPlugins plugins) {
+    Registration r = new Registration(plugins, SegmentAtomics.class);
+
+    final Map<String, OCLAtomicArrayNode.Operation> operations =
+        Map.of(
+            "getAndAdd", OCLAtomicArrayNode.Operation.ADD,
+            "getAndMin", OCLAtomicArrayNode.Operation.MIN,
+            "getAndMax", OCLAtomicArrayNode.Operation.MAX,
+            "getAndSet", OCLAtomicArrayNode.Operation.EXCHANGE);
+
+    for (JavaKind kind : new JavaKind[] {JavaKind.Int, JavaKind.Long, JavaKind.Float}) {
+      operations.forEach(
+          (name, operation) ->
+              r.register(
+                  new InvocationPlugin(name, MemorySegment.class, long.class, kind.toJavaClass()) {
+                    @Override
+                    public boolean apply(
+                        GraphBuilderContext b,
+                        ResolvedJavaMethod targetMethod,
+                        Receiver receiver,
+                        ValueNode segment,
+                        ValueNode index,
+                        ValueNode value) {
+                      AddressNode address = segmentElementAddress(b, segment, index, kind);
+                      b.addPush(
+                          kind, new OCLAtomicArrayNode(operation, kind, address, value, null));
+                      return true;
+                    }
+                  }));
+      r.register(
+          new InvocationPlugin(
+              "compareAndExchange",
+              MemorySegment.class,
+              long.class,
+              kind.toJavaClass(),
+              kind.toJavaClass()) {
+            @Override
+            public boolean apply(
+                GraphBuilderContext b,
+                ResolvedJavaMethod targetMethod,
+                Receiver receiver,
+                ValueNode segment,
+                ValueNode index,
+                ValueNode expected,
+                ValueNode value) {
+              AddressNode address = segmentElementAddress(b, segment, index, kind);
+              b.addPush(
+                  kind,
+                  new OCLAtomicArrayNode(
+                      OCLAtomicArrayNode.Operation.COMPARE_AND_EXCHANGE,
+                      kind,
+                      address,
+                      value,
+                      expected));
+              return true;
+            }
+          });
+    }
+  }
+
   private static void registerTornadoVMIntrinsicsPlugins(InvocationPlugins plugins) {
     final InvocationPlugin printfPlugin =
         new InvocationPlugin("printf", String.class, Object[].class) {
@@ -0,0 +1,143 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.graal.compiler.plugins;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderContext;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugin;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugin.Receiver;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins.Registration;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.SubGroupBallotNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.SubGroupQueryNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.SubGroupReduceNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.SubGroupScanNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.SubGroupShuffleNode;
+
+/**
+ * Plugins for the sub-group methods of the {@link KernelContext}. They map to the built-ins of
+ * cl_khr_subgroups and its shuffle and ballot extensions, or to cl_intel_subgroups.
+ */
+public class OCLSubGroupPlugins {
+
+  public static void registerPlugins(InvocationPlugins plugins) {
+    Registration r = new Registration(plugins, KernelContext.class);
+
+    registerQuery(r, "subGroupId", SubGroupQueryNode.Query.SUB_GROUP_ID);
+    registerQuery(r, "subGroupLocalId", SubGroupQueryNode.Query.SUB_GROUP_LOCAL_ID);
+    registerQuery(r, "subGroupSize", SubGroupQueryNode.Query.SUB_GROUP_SIZE);
+    registerQuery(r, "numSubGroups", SubGroupQueryNode.Query.NUM_SUB_GROUPS);
+    registerBallot(r);
+
+    for (JavaKind kind : new JavaKind[] {JavaKind.Int, JavaKind.Float}) {
+      registerShuffle(r, "subGroupShuffle", kind, SubGroupShuffleNode.Operation.SHUFFLE);
+      registerShuffle(r, "subGroupShuffleXor", kind, SubGroupShuffleNode.Operation.SHUFFLE_XOR);
+      registerShuffle(r, "subGroupBroadcast", kind, SubGroupShuffleNode.Operation.BROADCAST);
+      registerReduce(r, "subGroupReduceAdd", kind, SubGroupReduceNode.Operation.ADD);
+      registerReduce(r, "subGroupReduceMin", kind, SubGroupReduceNode.Operation.MIN);
+      registerReduce(r, "subGroupReduceMax", kind, SubGroupReduceNode.Operation.MAX);
+      registerScan(r, "subGroupScanInclusiveAdd", kind, SubGroupScanNode.Operation.INCLUSIVE_ADD);
+      registerScan(r, "subGroupScanExclusiveAdd", kind, SubGroupScanNode.Operation.EXCLUSIVE_ADD);
+    }
+  }
+
+  private static void registerQuery(Registration r, String name, SubGroupQueryNode.Query query) {
+    r.register(
+        new InvocationPlugin(name, Receiver.class) {
+          @Override
+          public boolean apply(
+              GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver) {
+            b.addPush(JavaKind.Int, new SubGroupQueryNode(query));
+            return true;
+          }
+        });
+  }
+
+  private static void registerBallot(Registration r) {
+    r.register(
+        new InvocationPlugin("subGroupBallot", Receiver.class, boolean.class) {
+          @Override
+          public boolean apply(
+              GraphBuilderContext b,
+              ResolvedJavaMethod targetMethod,
+              Receiver receiver,
+              ValueNode predicate) {
+            b.addPush(JavaKind.Long, new SubGroupBallotNode(predicate));
+            return true;
+          }
+        });
+  }
+
+  private static void registerShuffle(
+      Registration r, String name, JavaKind kind, SubGroupShuffleNode.Operation operation) {
+    r.register(
+        new InvocationPlugin(name, Receiver.class, kind.toJavaClass(), int.class) {
+          @Override
+          public boolean apply(
+              GraphBuilderContext b,
+              ResolvedJavaMethod targetMethod,
+              Receiver receiver,
+              ValueNode value,
+              ValueNode lane) {
+            b.addPush(kind, new SubGroupShuffleNode(operation, value, lane));
+            return true;
+          }
+        });
+  }
+
+  private static void registerReduce(
+      Registration r, String name, JavaKind kind, SubGroupReduceNode.Operation operation) {
+    r.register(
+        new InvocationPlugin(name, Receiver.class, kind.toJavaClass()) {
+          @Override
+          public boolean apply(
+              GraphBuilderContext b,
+              ResolvedJavaMethod targetMethod,
+              Receiver receiver,
+              ValueNode value) {
+            b.addPush(kind, new SubGroupReduceNode(operation, value));
+            return true;
+          }
+        });
+  }
+
+  private static void registerScan(
+      Registration r, String name, JavaKind kind, SubGroupScanNode.Operation operation) {
+    r.register(
+        new InvocationPlugin(name, Receiver.class, kind.toJavaClass()) {
+          @Override
+          public boolean apply(
+              GraphBuilderContext b,
+              ResolvedJavaMethod targetMethod,
+              Receiver receiver,
+              ValueNode value) {
+            b.addPush(kind, new SubGroupScanNode(operation, value));
+            return true;
+          }
+        });
+  }
+}
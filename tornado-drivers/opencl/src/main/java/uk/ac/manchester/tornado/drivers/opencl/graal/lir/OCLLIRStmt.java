@@ -623,6 +623,140 @@ public class OCLLIRStmt {
     }
   }
 
+  @Opcode("ATOMIC_ARRAY")
+  public static class AtomicArrayStmt extends AbstractInstruction {
+
+    public static final LIRInstructionClass<AtomicArrayStmt> TYPE =
+        LIRInstructionClass.create(AtomicArrayStmt.class);
+
+    @Def protected AllocatableValue result;
+    @Use protected OCLAddressCast cast;
+    @Use protected MemoryAccess address;
+    @Use protected Value value;
+    @Use protected Value expected;
+
+    private final String function;
+
+    /**
+     * Atomic read-modify-write of an element in global memory with a built-in function (e.g.,
+     * atomic_add). The expected value is only used by the compare-and-exchange functions.
+     */
+    public AtomicArrayStmt(
+        AllocatableValue result,
+        String function,
+        OCLAddressCast cast,
+        MemoryAccess address,
+        Value value,
+        Value expected) {
+      super(TYPE);
+      this.result = result;
+      this.function = function;
+      this.cast = cast;
+      this.address = address;
+      this.value = value;
+      this.expected = expected;
+    }
+
+    @Override
+    public void emitCode(OCLCompilationResultBuilder crb, OCLAssembler asm) {
+      asm.indent();
+      asm.emitValue(crb, result);
+      asm.space();
+      asm.assign();
+      asm.space();
+      asm.emit(function + "(");
+      cast.emit(crb, asm);
+      asm.space();
+      address.emit(crb, asm);
+      asm.emit(", ");
+      if (expected != null) {
+        asm.emitValue(crb, expected);
+        asm.emit(", ");
+      }
+      asm.emitValue(crb, value);
+      asm.emit(")");
+      asm.delimiter();
+      asm.eol();
+    }
+  }
+
+  @Opcode("ATOMIC_ARRAY_FLOAT")
+  public static class AtomicFloatArrayStmt extends AbstractInstruction {
+
+    public static final LIRInstructionClass<AtomicFloatArrayStmt> TYPE =
+        LIRInstructionClass.create(AtomicFloatArrayStmt.class);
+
+    @Def protected AllocatableValue result;
+    @Use protected OCLAddressCast floatCast;
+    @Use protected OCLAddressCast intCast;
+    @Use protected MemoryAccess address;
+    @Use protected Value value;
+    @Use protected Value expected;
+
+    private final String update;
+
+    /**
+     * Atomic update of a float element in global memory. OpenCL has no float atomics other than
+     * atomic_xchg, so the update is a compare-and-exchange loop over the bits of the element. The
+     * update is a format string over the old value and the operand (e.g., "%s + %s"). A null update
+     * emits a single compare-and-exchange with the expected value.
+     */
+    public AtomicFloatArrayStmt(
+        AllocatableValue result,
+        String update,
+        OCLAddressCast floatCast,
+        OCLAddressCast intCast,
+        MemoryAccess address,
+        Value value,
+        Value expected) {
+      super(TYPE);
+      this.result = result;
+      this.update = update;
+      this.floatCast = floatCast;
+      this.intCast = intCast;
+      this.address = address;
+      this.value = value;
+      this.expected = expected;
+    }
+
+    private void emitIntPointer(OCLCompilationResultBuilder crb, OCLAssembler asm) {
+      intCast.emit(crb, asm);
+      asm.space();
+      address.emit(crb, asm);
+    }
+
+    @Override
+    public void emitCode(OCLCompilationResultBuilder crb, OCLAssembler asm) {
+      final String old = asm.getStringValue(crb, result);
+      final String operand = asm.getStringValue(crb, value);
+      asm.indent();
+      if (update == null) {
+        asm.emit(old + " = as_float(atomic_cmpxchg(");
+        emitIntPointer(crb, asm);
+        asm.emit(", as_int(" + asm.getStringValue(crb, expected) + "), as_int(" + operand + ")))");
+        asm.delimiter();
+        asm.eol();
+        return;
+      }
+      asm.emit("do { " + old + " = *(");
+      floatCast.emit(crb, asm);
+      asm.space();
+      address.emit(crb, asm);
+      asm.emit("); } while (atomic_cmpxchg(");
+      emitIntPointer(crb, asm);
+      asm.emit(
+          ", as_int("
+              + old
+              + "), as_int("
+              + String.format(update, old, operand)
+              + ")) != as_int("
+              + old
+              + "))");
+      asm.delimiter();
+      asm.eol();
+    }
+  }
+
   @Opcode("ATOMIC_ADD_FLOAT_STORE")
   public static class StoreAtomicAddFloatStmt extends AbstractInstruction {
 
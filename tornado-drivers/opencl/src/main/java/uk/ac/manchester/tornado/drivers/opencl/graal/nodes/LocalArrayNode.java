@@ -53,6 +53,7 @@ public class LocalArrayNode extends FixedNode implements LIRLowerable, MarkLocal
   protected OCLArchitecture.OCLMemoryBase memoryRegister;
   protected OCLAssembler.OCLBinaryTemplate arrayTemplate;
   private OCLKind kind;
+  private boolean fixedLength;
 
   public LocalArrayNode(
       OCLArchitecture.OCLMemoryBase memoryRegister,
@@ -85,6 +86,15 @@ public class LocalArrayNode extends FixedNode implements LIRLowerable, MarkLocal
     return length;
   }
 
+  public void setFixedLength(boolean fixedLength) {
+    this.fixedLength = fixedLength;
+  }
+
+  @Override
+  public boolean hasFixedLength() {
+    return fixedLength;
+  }
+
   @Override
   public void generate(NodeLIRBuilderTool gen) {
     final Value lengthValue = gen.operand(length);
@@ -0,0 +1,156 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.graal.nodes;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.lir.Variable;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+import org.graalvm.compiler.nodeinfo.InputType;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.memory.AbstractMemoryCheckpoint;
+import org.graalvm.compiler.nodes.memory.SingleMemoryKill;
+import org.graalvm.compiler.nodes.memory.address.AddressNode;
+import org.graalvm.compiler.nodes.spi.LIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import org.graalvm.word.LocationIdentity;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLKind;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLLIRStmt;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLUnary.MemoryAccess;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLUnary.OCLAddressCast;
+import uk.ac.manchester.tornado.runtime.graal.nodes.interfaces.MarkAtomicArrayAccess;
+
+/**
+ * Atomic read-modify-write of an element of a native array in global memory (e.g.,
+ * atomic_add(&array[index], value)). The node returns the value of the element before the update.
+ */
+@NodeInfo(nameTemplate = "Atomic{p#operation/s}")
+public class OCLAtomicArrayNode extends AbstractMemoryCheckpoint
+    implements LIRLowerable, SingleMemoryKill, MarkAtomicArrayAccess {
+
+  public static final NodeClass<OCLAtomicArrayNode> TYPE =
+      NodeClass.create(OCLAtomicArrayNode.class);
+
+  @Input(InputType.Association)
+  protected AddressNode address;
+
+  @Input protected ValueNode value;
+  @OptionalInput protected ValueNode expected;
+
+  private final Operation operation;
+  private final JavaKind elementKind;
+
+  public OCLAtomicArrayNode(
+      Operation operation,
+      JavaKind elementKind,
+      AddressNode address,
+      ValueNode value,
+      ValueNode expected) {
+    super(TYPE, StampFactory.forKind(elementKind));
+    this.operation = operation;
+    this.elementKind = elementKind;
+    this.address = address;
+    this.value = value;
+    this.expected = expected;
+  }
+
+  @Override
+  public LocationIdentity getKilledLocationIdentity() {
+    return LocationIdentity.any();
+  }
+
+  @Override
+  public void generate(NodeLIRBuilderTool gen) {
+    LIRGeneratorTool tool = gen.getLIRGeneratorTool();
+    LIRKind kind = tool.getLIRKind(stamp);
+    Variable result = tool.newVariable(kind);
+    MemoryAccess memoryAccess = (MemoryAccess) gen.operand(address);
+    OCLAddressCast cast = new OCLAddressCast(memoryAccess.getBase(), kind);
+    Value expectedValue = expected == null ? null : gen.operand(expected);
+
+    switch (elementKind) {
+      case Int, Long -> {
+        String function =
+            elementKind == JavaKind.Int ? operation.intFunction : operation.longFunction;
+        tool.append(
+            new OCLLIRStmt.AtomicArrayStmt(
+                result, function, cast, memoryAccess, gen.operand(value), expectedValue));
+      }
+      case Float -> {
+        if (operation == Operation.EXCHANGE) {
+          tool.append(
+              new OCLLIRStmt.AtomicArrayStmt(
+                  result, operation.intFunction, cast, memoryAccess, gen.operand(value), null));
+        } else {
+          OCLAddressCast intCast =
+              new OCLAddressCast(memoryAccess.getBase(), LIRKind.value(OCLKind.INT));
+          tool.append(
+              new OCLLIRStmt.AtomicFloatArrayStmt(
+                  result,
+                  operation.floatUpdate,
+                  cast,
+                  intCast,
+                  memoryAccess,
+                  gen.operand(value),
+                  expectedValue));
+        }
+      }
+      default ->
+          throw new TornadoRuntimeException(
+              "Atomic operations are not supported for elements of type " + elementKind);
+    }
+    gen.setResult(this, result);
+  }
+
+  public Operation getOperation() {
+    return operation;
+  }
+
+  public JavaKind getElementKind() {
+    return elementKind;
+  }
+
+  public enum Operation {
+    ADD("atomic_add", "atom_add", "%s + %s"),
+    MIN("atomic_min", "atom_min", "fmin(%s, %s)"),
+    MAX("atomic_max", "atom_max", "fmax(%s, %s)"),
+    EXCHANGE("atomic_xchg", "atom_xchg", null),
+    COMPARE_AND_EXCHANGE("atomic_cmpxchg", "atom_cmpxchg", null);
+
+    private final String intFunction;
+    private final String longFunction;
+    private final String floatUpdate;
+
+    Operation(String intFunction, String longFunction, String floatUpdate) {
+      this.intFunction = intFunction;
+      this.longFunction = longFunction;
+      this.floatUpdate = floatUpdate;
+    }
+  }
+}
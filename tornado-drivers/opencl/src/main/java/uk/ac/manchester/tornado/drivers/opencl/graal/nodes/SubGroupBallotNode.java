@@ -0,0 +1,76 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.graal.nodes;
+
+import jdk.vm.ci.meta.JavaKind;
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.lir.Variable;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.spi.LIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
+import uk.ac.manchester.tornado.drivers.opencl.OCLTargetDescription;
+import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryTemplate;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLLIRStmt;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLUnary;
+
+/**
+ * Returns a mask with a bit set for every work-item of the sub-group whose predicate is true
+ * (sub_group_ballot). Only the first 64 work-items of the sub-group are represented in the mask.
+ */
+@NodeInfo
+public class SubGroupBallotNode extends FixedWithNextNode implements LIRLowerable {
+
+  public static final NodeClass<SubGroupBallotNode> TYPE =
+      NodeClass.create(SubGroupBallotNode.class);
+
+  @Input protected ValueNode predicate;
+
+  public SubGroupBallotNode(ValueNode predicate) {
+    super(TYPE, StampFactory.forKind(JavaKind.Long));
+    this.predicate = predicate;
+  }
+
+  @Override
+  public void generate(NodeLIRBuilderTool gen) {
+    LIRGeneratorTool tool = gen.getLIRGeneratorTool();
+    if (!((OCLTargetDescription) tool.target()).supportsKhrSubgroupBallot()) {
+      throw new TornadoBailoutRuntimeException(
+          "Sub-group ballot requires the cl_khr_subgroup_ballot extension");
+    }
+    Variable result = tool.newVariable(tool.getLIRKind(stamp));
+    tool.append(
+        new OCLLIRStmt.AssignStmt(
+            result,
+            new OCLUnary.Expr(
+                OCLUnaryTemplate.SUB_GROUP_BALLOT,
+                tool.getLIRKind(stamp),
+                gen.operand(predicate))));
+    gen.setResult(this, result);
+  }
+}
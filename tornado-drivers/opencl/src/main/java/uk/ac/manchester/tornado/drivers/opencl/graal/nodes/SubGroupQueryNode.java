@@ -0,0 +1,79 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.graal.nodes;
+
+import jdk.vm.ci.meta.JavaKind;
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.lir.Variable;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.spi.LIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLNullaryIntrinsic;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLLIRStmt;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLNullary;
+
+/** Queries the sub-group layout of the current work-group (e.g., get_sub_group_id()). */
+@NodeInfo
+public class SubGroupQueryNode extends FixedWithNextNode implements LIRLowerable {
+
+  public static final NodeClass<SubGroupQueryNode> TYPE =
+      NodeClass.create(SubGroupQueryNode.class);
+
+  private final Query query;
+
+  public SubGroupQueryNode(Query query) {
+    super(TYPE, StampFactory.forKind(JavaKind.Int));
+    this.query = query;
+  }
+
+  @Override
+  public void generate(NodeLIRBuilderTool gen) {
+    LIRGeneratorTool tool = gen.getLIRGeneratorTool();
+    Variable result = tool.newVariable(tool.getLIRKind(stamp));
+    tool.append(
+        new OCLLIRStmt.AssignStmt(
+            result, new OCLNullary.Intrinsic(query.intrinsic, tool.getLIRKind(stamp))));
+    gen.setResult(this, result);
+  }
+
+  public Query getQuery() {
+    return query;
+  }
+
+  public enum Query {
+    SUB_GROUP_ID(OCLNullaryIntrinsic.SUB_GROUP_ID),
+    SUB_GROUP_LOCAL_ID(OCLNullaryIntrinsic.SUB_GROUP_LOCAL_ID),
+    NUM_SUB_GROUPS(OCLNullaryIntrinsic.NUM_SUB_GROUPS),
+    SUB_GROUP_SIZE(OCLNullaryIntrinsic.SUB_GROUP_SIZE);
+
+    private final OCLNullaryIntrinsic intrinsic;
+
+    Query(OCLNullaryIntrinsic intrinsic) {
+      this.intrinsic = intrinsic;
+    }
+  }
+}
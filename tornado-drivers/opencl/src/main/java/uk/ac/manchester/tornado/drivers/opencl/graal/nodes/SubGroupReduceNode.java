@@ -0,0 +1,86 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.graal.nodes;
+
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.lir.Variable;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.NodeView;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.spi.LIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLLIRStmt;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLUnary;
+
+/**
+ * Reduces a value across all work-items of the sub-group (e.g., sub_group_reduce_add(x)). Every
+ * work-item of the sub-group receives the result.
+ */
+@NodeInfo
+public class SubGroupReduceNode extends FixedWithNextNode implements LIRLowerable {
+
+  public static final NodeClass<SubGroupReduceNode> TYPE =
+      NodeClass.create(SubGroupReduceNode.class);
+
+  @Input protected ValueNode value;
+
+  private final Operation operation;
+
+  public SubGroupReduceNode(Operation operation, ValueNode value) {
+    super(TYPE, value.stamp(NodeView.DEFAULT).unrestricted());
+    this.operation = operation;
+    this.value = value;
+  }
+
+  @Override
+  public void generate(NodeLIRBuilderTool gen) {
+    LIRGeneratorTool tool = gen.getLIRGeneratorTool();
+    Variable result = tool.newVariable(tool.getLIRKind(stamp));
+    tool.append(
+        new OCLLIRStmt.AssignStmt(
+            result,
+            new OCLUnary.Intrinsic(
+                operation.intrinsic, tool.getLIRKind(stamp), gen.operand(value))));
+    gen.setResult(this, result);
+  }
+
+  public Operation getOperation() {
+    return operation;
+  }
+
+  public enum Operation {
+    ADD(OCLUnaryIntrinsic.SUB_GROUP_REDUCE_ADD),
+    MIN(OCLUnaryIntrinsic.SUB_GROUP_REDUCE_MIN),
+    MAX(OCLUnaryIntrinsic.SUB_GROUP_REDUCE_MAX);
+
+    private final OCLUnaryIntrinsic intrinsic;
+
+    Operation(OCLUnaryIntrinsic intrinsic) {
+      this.intrinsic = intrinsic;
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.graal.nodes;
+
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.lir.Variable;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.NodeView;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.spi.LIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLLIRStmt;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLUnary;
+
+/**
+ * Computes the prefix sum of a value over the work-items of the sub-group, ordered by their
+ * sub-group local id (e.g., sub_group_scan_inclusive_add(x)).
+ */
+@NodeInfo
+public class SubGroupScanNode extends FixedWithNextNode implements LIRLowerable {
+
+  public static final NodeClass<SubGroupScanNode> TYPE = NodeClass.create(SubGroupScanNode.class);
+
+  @Input protected ValueNode value;
+
+  private final Operation operation;
+
+  public SubGroupScanNode(Operation operation, ValueNode value) {
+    super(TYPE, value.stamp(NodeView.DEFAULT).unrestricted());
+    this.operation = operation;
+    this.value = value;
+  }
+
+  @Override
+  public void generate(NodeLIRBuilderTool gen) {
+    LIRGeneratorTool tool = gen.getLIRGeneratorTool();
+    Variable result = tool.newVariable(tool.getLIRKind(stamp));
+    tool.append(
+        new OCLLIRStmt.AssignStmt(
+            result,
+            new OCLUnary.Intrinsic(
+                operation.intrinsic, tool.getLIRKind(stamp), gen.operand(value))));
+    gen.setResult(this, result);
+  }
+
+  public Operation getOperation() {
+    return operation;
+  }
+
+  public enum Operation {
+    INCLUSIVE_ADD(OCLUnaryIntrinsic.SUB_GROUP_SCAN_INCLUSIVE_ADD),
+    EXCLUSIVE_ADD(OCLUnaryIntrinsic.SUB_GROUP_SCAN_EXCLUSIVE_ADD);
+
+    private final OCLUnaryIntrinsic intrinsic;
+
+    Operation(OCLUnaryIntrinsic intrinsic) {
+      this.intrinsic = intrinsic;
+    }
+  }
+}
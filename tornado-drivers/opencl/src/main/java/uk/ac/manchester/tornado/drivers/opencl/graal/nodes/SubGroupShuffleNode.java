@@ -0,0 +1,102 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.graal.nodes;
+
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.lir.Variable;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.NodeView;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.spi.LIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
+import uk.ac.manchester.tornado.drivers.opencl.OCLTargetDescription;
+import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLBinaryIntrinsic;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLBinary;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLLIRStmt;
+
+/**
+ * Reads a value from another work-item of the sub-group (e.g., sub_group_shuffle(x, lane)). The
+ * shuffles use the Khronos built-ins when the device exposes cl_khr_subgroup_shuffle, and the
+ * Intel built-ins otherwise.
+ */
+@NodeInfo(nameTemplate = "SubGroup{p#operation/s}")
+public class SubGroupShuffleNode extends FixedWithNextNode implements LIRLowerable {
+
+  public static final NodeClass<SubGroupShuffleNode> TYPE =
+      NodeClass.create(SubGroupShuffleNode.class);
+
+  @Input protected ValueNode value;
+  @Input protected ValueNode lane;
+
+  private final Operation operation;
+
+  public SubGroupShuffleNode(Operation operation, ValueNode value, ValueNode lane) {
+    super(TYPE, value.stamp(NodeView.DEFAULT).unrestricted());
+    this.operation = operation;
+    this.value = value;
+    this.lane = lane;
+  }
+
+  private OCLBinaryIntrinsic selectIntrinsic(OCLTargetDescription target) {
+    if (operation == Operation.BROADCAST && target.supportsSubgroups()) {
+      return OCLBinaryIntrinsic.SUB_GROUP_BROADCAST;
+    } else if (target.supportsKhrSubgroupShuffle()) {
+      return operation == Operation.SHUFFLE_XOR
+          ? OCLBinaryIntrinsic.SUB_GROUP_SHUFFLE_XOR
+          : OCLBinaryIntrinsic.SUB_GROUP_SHUFFLE;
+    } else if (target.supportsIntelSubgroups()) {
+      return operation == Operation.SHUFFLE_XOR
+          ? OCLBinaryIntrinsic.INTEL_SUB_GROUP_SHUFFLE_XOR
+          : OCLBinaryIntrinsic.INTEL_SUB_GROUP_SHUFFLE;
+    }
+    throw new TornadoBailoutRuntimeException(
+        "Sub-group " + operation + " is not supported by the OpenCL device");
+  }
+
+  @Override
+  public void generate(NodeLIRBuilderTool gen) {
+    LIRGeneratorTool tool = gen.getLIRGeneratorTool();
+    OCLBinaryIntrinsic intrinsic = selectIntrinsic((OCLTargetDescription) tool.target());
+    Variable result = tool.newVariable(tool.getLIRKind(stamp));
+    tool.append(
+        new OCLLIRStmt.AssignStmt(
+            result,
+            new OCLBinary.Intrinsic(
+                intrinsic, tool.getLIRKind(stamp), gen.operand(value), gen.operand(lane))));
+    gen.setResult(this, result);
+  }
+
+  public Operation getOperation() {
+    return operation;
+  }
+
+  public enum Operation {
+    SHUFFLE,
+    SHUFFLE_XOR,
+    BROADCAST
+  }
+}
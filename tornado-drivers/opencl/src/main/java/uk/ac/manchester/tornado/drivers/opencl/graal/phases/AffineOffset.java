@@ -0,0 +1,93 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.graal.phases;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.LeftShiftNode;
+import org.graalvm.compiler.nodes.calc.MulNode;
+import org.graalvm.compiler.nodes.calc.SignExtendNode;
+import org.graalvm.compiler.nodes.calc.SubNode;
+import org.graalvm.compiler.nodes.calc.ZeroExtendNode;
+
+/** An address offset in the form {@code constant + sum(coefficient * term)}. */
+final class AffineOffset {
+  private final Map<ValueNode, Long> terms = new HashMap<>();
+  private long constant;
+
+  static AffineOffset of(ValueNode value) {
+    AffineOffset offset = new AffineOffset();
+    offset.add(value, 1);
+    offset.terms.values().removeIf(c -> c == 0);
+    return offset;
+  }
+
+  private void add(ValueNode value, long scale) {
+    if (isIntegerConstant(value)) {
+      constant += scale * value.asJavaConstant().asLong();
+    } else if (value instanceof AddNode add) {
+      add(add.getX(), scale);
+      add(add.getY(), scale);
+    } else if (value instanceof SubNode sub) {
+      add(sub.getX(), scale);
+      add(sub.getY(), -scale);
+    } else if (value instanceof MulNode mul && isIntegerConstant(mul.getY())) {
+      add(mul.getX(), scale * mul.getY().asJavaConstant().asLong());
+    } else if (value instanceof MulNode mul && isIntegerConstant(mul.getX())) {
+      add(mul.getY(), scale * mul.getX().asJavaConstant().asLong());
+    } else if (value instanceof LeftShiftNode shift
+        && isIntegerConstant(shift.getY())
+        && shift.getY().asJavaConstant().asLong() < Integer.SIZE) {
+      add(shift.getX(), scale << shift.getY().asJavaConstant().asLong());
+    } else if (value instanceof SignExtendNode extend) {
+      add(extend.getValue(), scale);
+    } else if (value instanceof ZeroExtendNode extend) {
+      add(extend.getValue(), scale);
+    } else {
+      terms.merge(value, scale, Long::sum);
+    }
+  }
+
+  private static boolean isIntegerConstant(ValueNode value) {
+    return value.isJavaConstant() && value.asJavaConstant().getJavaKind().isNumericInteger();
+  }
+
+  /** Returns the non-zero coefficients of the offset, indexed by term. */
+  Map<ValueNode, Long> terms() {
+    return Collections.unmodifiableMap(terms);
+  }
+
+  /** Returns the coefficient of the given term, or zero if the offset does not use it. */
+  long coefficientOf(ValueNode term) {
+    return terms.getOrDefault(term, 0L);
+  }
+
+  /** Returns {@code other - this} if both offsets only differ by a constant. */
+  Long distance(AffineOffset other) {
+    return terms.equals(other.terms) ? other.constant - constant : null;
+  }
+}
@@ -0,0 +1,378 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.graal.phases;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import jdk.vm.ci.meta.JavaKind;
+import org.graalvm.compiler.core.common.type.FloatStamp;
+import org.graalvm.compiler.core.common.type.IntegerStamp;
+import org.graalvm.compiler.core.common.type.Stamp;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.graph.Position;
+import org.graalvm.compiler.nodeinfo.InputType;
+import org.graalvm.compiler.nodes.AbstractBeginNode;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.GraphState;
+import org.graalvm.compiler.nodes.NodeView;
+import org.graalvm.compiler.nodes.ParameterNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.memory.FixedAccessNode;
+import org.graalvm.compiler.nodes.memory.ReadNode;
+import org.graalvm.compiler.nodes.memory.WriteNode;
+import org.graalvm.compiler.nodes.memory.address.OffsetAddressNode;
+import org.graalvm.compiler.nodes.util.GraphUtil;
+import org.graalvm.compiler.phases.BasePhase;
+import org.graalvm.word.LocationIdentity;
+import uk.ac.manchester.tornado.drivers.opencl.graal.OCLStampFactory;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLKind;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.vector.VectorLoadElementNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.vector.VectorValueNode;
+import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
+import uk.ac.manchester.tornado.runtime.graal.phases.TornadoLowTierContext;
+
+/**
+ * Straight-line vectorization of unit-stride memory accesses. Within a sequence of fixed nodes,
+ * runs of scalar reads (or writes) whose addresses share the same kernel parameter as base and
+ * whose offsets differ by exactly one element are merged into a single vector access. The backend
+ * emits these as {@code vloadN}/{@code vstoreN}, which only require the alignment of the element
+ * type, so no runtime alignment check is needed. Accesses that do not form a complete run are left
+ * as scalar code.
+ *
+ * <p>The typical sources of such runs are {@code TornadoPartialLoopUnroll} and thread coarsening
+ * with a consecutive layout. Distinct kernel parameters are assumed not to overlap, so the phase is
+ * skipped when the same object is passed to the task through two parameters.
+ */
+public class TornadoAutoVectorization extends BasePhase<TornadoLowTierContext> {
+
+  private static final int[] WIDTHS = {16, 8, 4, 2};
+
+  @Override
+  public Optional<NotApplicable> notApplicableTo(GraphState graphState) {
+    return ALWAYS_APPLICABLE;
+  }
+
+  @Override
+  protected void run(StructuredGraph graph, TornadoLowTierContext context) {
+    if (!graph.isAfterStage(GraphState.StageFlag.FIXED_READS)) {
+      // Memory edges are still present: vector accesses could not be inserted safely.
+      return;
+    }
+    if (!context.hasArgs() || hasAliasedArguments(graph, context.getArgs())) {
+      // Accesses through different parameters may overlap.
+      return;
+    }
+    for (AbstractBeginNode begin : graph.getNodes().filter(AbstractBeginNode.class).snapshot()) {
+      List<FixedAccessNode> window = new ArrayList<>();
+      FixedNode current = begin.next();
+      while (current instanceof FixedWithNextNode) {
+        if (current instanceof ReadNode || current instanceof WriteNode) {
+          window.add((FixedAccessNode) current);
+        } else {
+          vectorizeWindow(graph, window);
+          window = new ArrayList<>();
+        }
+        current = ((FixedWithNextNode) current).next();
+      }
+      vectorizeWindow(graph, window);
+    }
+  }
+
+  /** Checks whether an object is passed to the task through more than one parameter. */
+  private static boolean hasAliasedArguments(StructuredGraph graph, Object[] args) {
+    Set<Object> arguments = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (ParameterNode parameter : graph.getNodes(ParameterNode.TYPE)) {
+      if (parameter.getStackKind() != JavaKind.Object || parameter.index() >= args.length) {
+        continue;
+      }
+      Object arg = args[parameter.index()];
+      if (arg == null || RuntimeUtilities.isBoxedPrimitiveClass(arg.getClass())) {
+        continue;
+      }
+      if (!arguments.add(arg)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void vectorizeWindow(StructuredGraph graph, List<FixedAccessNode> window) {
+    if (window.size() < 2) {
+      return;
+    }
+    List<Access> accesses = new ArrayList<>();
+    for (int i = 0; i < window.size(); i++) {
+      accesses.add(Access.of(window.get(i), i));
+    }
+
+    for (int i = 0; i < accesses.size(); i++) {
+      Access first = accesses.get(i);
+      if (first.elementKind == null || first.merged) {
+        continue;
+      }
+      for (int width : WIDTHS) {
+        Access[] lanes = findLanes(accesses, first, width);
+        if (lanes != null && !hasConflicts(accesses, lanes)) {
+          if (first.node instanceof ReadNode) {
+            mergeReads(graph, lanes);
+          } else {
+            mergeWrites(graph, lanes);
+          }
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Looks for {@code width - 1} accesses following {@code first} that cover the next consecutive
+   * elements of the same array.
+   */
+  private static Access[] findLanes(List<Access> accesses, Access first, int width) {
+    Access[] lanes = new Access[width];
+    lanes[0] = first;
+    int found = 1;
+    for (int j = first.position + 1; j < accesses.size() && found < width; j++) {
+      Access candidate = accesses.get(j);
+      if (candidate.merged || !first.isCompatible(candidate)) {
+        continue;
+      }
+      Long delta = first.offset.distance(candidate.offset);
+      if (delta == null || delta % first.elementKind.getSizeInBytes() != 0) {
+        continue;
+      }
+      long lane = delta / first.elementKind.getSizeInBytes();
+      if (lane > 0 && lane < width && lanes[(int) lane] == null) {
+        lanes[(int) lane] = candidate;
+        found++;
+      }
+    }
+    return (found == width) ? lanes : null;
+  }
+
+  /**
+   * Merging moves every read of the group up to the first one, and every write of the group down to
+   * the last one. This is only legal when no other access to the same array sits in between (reads
+   * do not conflict with other reads). Accesses whose base is not a kernel parameter are treated as
+   * conflicting.
+   */
+  private static boolean hasConflicts(List<Access> accesses, Access[] lanes) {
+    int from = Integer.MAX_VALUE;
+    int to = -1;
+    for (Access lane : lanes) {
+      from = Math.min(from, lane.position);
+      to = Math.max(to, lane.position);
+    }
+    boolean isRead = lanes[0].node instanceof ReadNode;
+    for (int k = from + 1; k < to; k++) {
+      Access other = accesses.get(k);
+      if (isLane(lanes, other) || (isRead && other.node instanceof ReadNode)) {
+        continue;
+      }
+      if (other.base == lanes[0].base || !(other.base instanceof ParameterNode)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isLane(Access[] lanes, Access access) {
+    for (Access lane : lanes) {
+      if (lane == access) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void mergeReads(StructuredGraph graph, Access[] lanes) {
+    OCLKind vectorKind = lanes[0].elementKind.vectorKind(lanes.length);
+    ReadNode first = (ReadNode) lanes[0].node;
+    ReadNode vectorRead =
+        graph.add(
+            new ReadNode(
+                first.getAddress(),
+                LocationIdentity.any(),
+                OCLStampFactory.getStampFor(vectorKind),
+                first.getBarrierType(),
+                first.getMemoryOrder()));
+    graph.addBeforeFixed(first, vectorRead);
+    for (int i = 0; i < lanes.length; i++) {
+      ReadNode read = (ReadNode) lanes[i].node;
+      OffsetAddressNode address = (OffsetAddressNode) read.getAddress();
+      VectorLoadElementNode element =
+          graph.addOrUnique(
+              new VectorLoadElementNode(
+                  lanes[0].elementKind.scalar, vectorRead, ConstantNode.forInt(i, graph)));
+      graph.replaceFixedWithFloating(read, element);
+      GraphUtil.tryKillUnused(address);
+      lanes[i].merged = true;
+    }
+  }
+
+  private static void mergeWrites(StructuredGraph graph, Access[] lanes) {
+    OCLKind vectorKind = lanes[0].elementKind.vectorKind(lanes.length);
+    WriteNode first = (WriteNode) lanes[0].node;
+    Access last = lanes[0];
+    for (Access lane : lanes) {
+      if (lane.position > last.position) {
+        last = lane;
+      }
+    }
+    WriteNode lastWrite = (WriteNode) last.node;
+    VectorValueNode vector = graph.addWithoutUnique(new VectorValueNode(vectorKind));
+    for (int i = 0; i < lanes.length; i++) {
+      vector.setElement(i, ((WriteNode) lanes[i].node).value());
+    }
+    WriteNode vectorWrite =
+        graph.add(
+            new WriteNode(
+                first.getAddress(),
+                first.getLocationIdentity(),
+                vector,
+                first.getBarrierType(),
+                first.getMemoryOrder()));
+    vectorWrite.setStateAfter(lastWrite.stateAfter());
+    graph.addAfterFixed(lastWrite, vectorWrite);
+    for (Access lane : lanes) {
+      WriteNode write = (WriteNode) lane.node;
+      OffsetAddressNode address = (OffsetAddressNode) write.getAddress();
+      graph.removeFixed(write);
+      GraphUtil.tryKillUnused(address);
+      lane.merged = true;
+    }
+  }
+
+  /** Element types for which the OpenCL backend provides vector loads, stores and assignments. */
+  private enum ElementKind {
+    INT(OCLKind.INT, OCLKind.INT2, OCLKind.INT4, OCLKind.INT8, OCLKind.INT16),
+    FLOAT(OCLKind.FLOAT, OCLKind.FLOAT2, OCLKind.FLOAT4, OCLKind.FLOAT8, OCLKind.FLOAT16),
+    DOUBLE(OCLKind.DOUBLE, OCLKind.DOUBLE2, OCLKind.DOUBLE4, OCLKind.DOUBLE8, OCLKind.DOUBLE16);
+
+    private final OCLKind scalar;
+    private final OCLKind[] vectors;
+
+    ElementKind(OCLKind scalar, OCLKind... vectors) {
+      this.scalar = scalar;
+      this.vectors = vectors;
+    }
+
+    int getSizeInBytes() {
+      return scalar.getSizeInBytes();
+    }
+
+    OCLKind vectorKind(int width) {
+      for (OCLKind vector : vectors) {
+        if (vector.getVectorLength() == width) {
+          return vector;
+        }
+      }
+      throw new IllegalArgumentException("Unsupported vector width: " + width);
+    }
+
+    static ElementKind fromStamp(Stamp stamp) {
+      if (stamp instanceof FloatStamp) {
+        return ((FloatStamp) stamp).getBits() == 32 ? FLOAT : DOUBLE;
+      } else if (stamp instanceof IntegerStamp && ((IntegerStamp) stamp).getBits() == 32) {
+        return INT;
+      }
+      return null;
+    }
+  }
+
+  /** A scalar memory access of a window, with its address split into a base and an offset. */
+  private static final class Access {
+    private final FixedAccessNode node;
+    private final int position;
+    private ValueNode base;
+    private AffineOffset offset;
+    private ElementKind elementKind;
+    private boolean merged;
+
+    private Access(FixedAccessNode node, int position) {
+      this.node = node;
+      this.position = position;
+    }
+
+    static Access of(FixedAccessNode node, int position) {
+      Access access = new Access(node, position);
+      if (node.getAddress() instanceof OffsetAddressNode address) {
+        access.base = address.getBase();
+        access.offset = AffineOffset.of(address.getOffset());
+        if (access.base instanceof ParameterNode && node.getGuard() == null) {
+          access.elementKind = elementKindOf(node);
+        }
+      }
+      return access;
+    }
+
+    private static ElementKind elementKindOf(FixedAccessNode node) {
+      if (node instanceof ReadNode read) {
+        if (read.getUsedAsNullCheck() || !hasOnlyValueUsages(read)) {
+          return null;
+        }
+        return ElementKind.fromStamp(read.stamp(NodeView.DEFAULT));
+      }
+      ValueNode value = ((WriteNode) node).value();
+      if (value instanceof ConstantNode) {
+        // Constant lanes are not materialised as operands of a vector assignment.
+        return null;
+      }
+      return ElementKind.fromStamp(value.stamp(NodeView.DEFAULT));
+    }
+
+    private static boolean hasOnlyValueUsages(ReadNode read) {
+      for (Node usage : read.usages()) {
+        for (Position position : usage.inputPositions()) {
+          if (position.get(usage) == read && position.getInputType() != InputType.Value) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+
+    boolean isCompatible(Access other) {
+      return other.elementKind == elementKind
+          && other.base == base
+          && other.node.getClass() == node.getClass()
+          && other.node.getBarrierType() == node.getBarrierType()
+          && Objects.equals(memoryOrder(other.node), memoryOrder(node));
+    }
+
+    private static Object memoryOrder(FixedAccessNode node) {
+      return (node instanceof ReadNode read)
+          ? read.getMemoryOrder()
+          : ((WriteNode) node).getMemoryOrder();
+    }
+  }
+}
@@ -0,0 +1,684 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.graal.phases;
+
+import static uk.ac.manchester.tornado.runtime.TornadoCoreRuntime.getDebugContext;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import jdk.vm.ci.meta.JavaKind;
+import org.graalvm.compiler.core.common.type.IntegerStamp;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.graph.NodeBitMap;
+import org.graalvm.compiler.graph.Position;
+import org.graalvm.compiler.nodeinfo.InputType;
+import org.graalvm.compiler.nodes.AbstractBeginNode;
+import org.graalvm.compiler.nodes.AbstractEndNode;
+import org.graalvm.compiler.nodes.BeginNode;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.ControlSplitNode;
+import org.graalvm.compiler.nodes.EndNode;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.GraphState;
+import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.LogicNode;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopExitNode;
+import org.graalvm.compiler.nodes.MergeNode;
+import org.graalvm.compiler.nodes.NodeView;
+import org.graalvm.compiler.nodes.ParameterNode;
+import org.graalvm.compiler.nodes.PhiNode;
+import org.graalvm.compiler.nodes.PiNode;
+import org.graalvm.compiler.nodes.ProfileData.BranchProbabilityData;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.VirtualState;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.AndNode;
+import org.graalvm.compiler.nodes.calc.IntegerEqualsNode;
+import org.graalvm.compiler.nodes.calc.MulNode;
+import org.graalvm.compiler.nodes.calc.SignExtendNode;
+import org.graalvm.compiler.nodes.calc.SubNode;
+import org.graalvm.compiler.nodes.extended.JavaReadNode;
+import org.graalvm.compiler.nodes.java.ArrayLengthNode;
+import org.graalvm.compiler.nodes.java.LoadFieldNode;
+import org.graalvm.compiler.nodes.java.LoadIndexedNode;
+import org.graalvm.compiler.nodes.java.StoreIndexedNode;
+import org.graalvm.compiler.nodes.loop.CountedLoopInfo;
+import org.graalvm.compiler.nodes.loop.InductionVariable;
+import org.graalvm.compiler.nodes.loop.LoopEx;
+import org.graalvm.compiler.nodes.loop.LoopsData;
+import org.graalvm.compiler.nodes.memory.address.OffsetAddressNode;
+import org.graalvm.compiler.phases.BasePhase;
+import uk.ac.manchester.tornado.api.enums.TornadoDeviceType;
+import uk.ac.manchester.tornado.drivers.opencl.graal.OCLArchitecture;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.LocalArrayNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.LocalThreadIdNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLBarrierNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLIntBinaryIntrinsicNode;
+import uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelRangeNode;
+import uk.ac.manchester.tornado.runtime.graal.nodes.TornadoLoopsData;
+import uk.ac.manchester.tornado.runtime.graal.nodes.calc.TornadoAddressArithmeticNode;
+import uk.ac.manchester.tornado.runtime.graal.phases.TornadoHighTierContext;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
+
+/**
+ * Local-memory tiling of two-dimensional parallel loop nests on GPUs. It runs before the {@link
+ * TornadoParallelScheduler} and looks for sequential counted loops directly nested in the inner
+ * parallel loop, such as the reduction loop of a matrix multiplication:
+ *
+ * <pre>{@code
+ * for (@Parallel int i = 0; i < n; i++)
+ *   for (@Parallel int j = 0; j < n; j++)
+ *     for (int k = 0; k < n; k++)
+ *       sum += a.get(i * n + k) * b.get(k * n + j);
+ * }</pre>
+ *
+ * <p>A read of a read-only parameter whose index is affine in the sequential induction variable
+ * and depends on only one of the parallel indices returns the same values to all threads of a
+ * work-group row (or column). Every {@code T} iterations, the threads of a {@code T x T}
+ * work-group cooperatively load the next {@code T} elements of each row into a local array,
+ * between two local barriers, and the original read is replaced with a read of the local array.
+ *
+ * <p>Barriers require all threads of a work-group to take the same path, so the phase only applies
+ * when the domain is not argument-dependent and divisible by the tile, the sequential loop is
+ * reached unconditionally from the parallel loops and its bounds do not depend on the thread. The
+ * tile size is the largest of 32, 16 and 8 that fits in the work-group limits and in the local
+ * memory of the device; the local work of the task is set to it.
+ */
+public class TornadoLocalMemoryTiling extends BasePhase<TornadoHighTierContext> {
+
+  private static final int[] TILE_SIZES = {32, 16, 8};
+
+  @Override
+  public Optional<NotApplicable> notApplicableTo(GraphState graphState) {
+    return ALWAYS_APPLICABLE;
+  }
+
+  @Override
+  protected void run(StructuredGraph graph, TornadoHighTierContext context) {
+    if (!isApplicable(context) || !graph.hasLoops()) {
+      return;
+    }
+    List<ParallelRangeNode> ranges = graph.getNodes().filter(ParallelRangeNode.class).snapshot();
+    if (ranges.size() != 2) {
+      return;
+    }
+
+    LoopsData loopsData = new TornadoLoopsData(graph);
+    loopsData.detectCountedLoops();
+    ParallelLoop[] parallelLoops = new ParallelLoop[2];
+    for (ParallelRangeNode range : ranges) {
+      ParallelLoop parallelLoop = ParallelLoop.of(loopsData, range);
+      if (parallelLoop == null || parallelLoops[range.index()] != null) {
+        return;
+      }
+      parallelLoops[range.index()] = parallelLoop;
+    }
+
+    final LoopEx innerLoop;
+    final LoopEx outerLoop;
+    if (parallelLoops[0].loop().parent() == parallelLoops[1].loop()) {
+      innerLoop = parallelLoops[0].loop();
+      outerLoop = parallelLoops[1].loop();
+    } else if (parallelLoops[1].loop().parent() == parallelLoops[0].loop()) {
+      innerLoop = parallelLoops[1].loop();
+      outerLoop = parallelLoops[0].loop();
+    } else {
+      return;
+    }
+    if (!isUniformlyReached(innerLoop.loopBegin().forwardEnd(), outerLoop.loopBegin())) {
+      return;
+    }
+
+    List<TiledLoop> tiledLoops = new ArrayList<>();
+    int bytesPerElement = 0;
+    for (LoopEx loop : loopsData.loops()) {
+      if (loop.parent() == innerLoop
+          && isUniformlyReached(loop.loopBegin().forwardEnd(), innerLoop.loopBegin())) {
+        TiledLoop tiledLoop = TiledLoop.analyse(loop, parallelLoops);
+        if (tiledLoop != null) {
+          tiledLoops.add(tiledLoop);
+          bytesPerElement += tiledLoop.bytesPerElement();
+        }
+      }
+    }
+    if (tiledLoops.isEmpty()) {
+      return;
+    }
+
+    int tile = selectTileSize(context, bytesPerElement);
+    if (tile == 0) {
+      return;
+    }
+    for (TiledLoop tiledLoop : tiledLoops) {
+      tiledLoop.apply(graph, tile);
+    }
+    context.getMeta().setLocalMemoryTile(tile);
+    getDebugContext().dump(DebugContext.BASIC_LEVEL, graph, "after local memory tiling T=" + tile);
+    graph.clearLastSchedule();
+  }
+
+  private static boolean isApplicable(TornadoHighTierContext context) {
+    if (!context.hasMeta() || context.isGridSchedulerEnabled()) {
+      return false;
+    }
+    TaskDataContext meta = context.getMeta();
+    DomainTree domain = meta.getDomain();
+    if (domain == null || domain.getDepth() != 2 || meta.hasArgumentDependentDomain()) {
+      return false;
+    }
+    // The tiled kernel needs one thread per iteration and a work-group of T x T threads
+    if (meta.shouldUseOpenCLDriverScheduling()
+        || meta.getNumThreads() > 0
+        || (meta.isLocalWorkDefined() && !meta.isLocalMemoryTiled())
+        || context.getBatchCompilationConfig().getBatchThreads() > 0) {
+      return false;
+    }
+    TornadoXPUDevice device = context.getDeviceMapping();
+    return device.getDeviceType() == TornadoDeviceType.GPU
+        && device.getPreferredSchedule() == TornadoSchedulingStrategy.PER_ACCELERATOR_ITERATION;
+  }
+
+  private static int selectTileSize(TornadoHighTierContext context, int bytesPerElement) {
+    DomainTree domain = context.getMeta().getDomain();
+    TornadoXPUDevice device = context.getDeviceMapping();
+    long maxWorkGroupSize = device.getPhysicalDevice().getDeviceMaxWorkGroupSize()[0];
+    long[] maxWorkItemSizes = device.getPhysicalDevice().getDeviceMaxWorkItemSizes();
+    long localMemorySize = device.getPhysicalDevice().getDeviceLocalMemorySize();
+    for (int tile : TILE_SIZES) {
+      boolean fits =
+          (long) tile * tile <= maxWorkGroupSize
+              && tile <= maxWorkItemSizes[0]
+              && tile <= maxWorkItemSizes[1]
+              && (long) tile * rowLength(tile) * bytesPerElement <= localMemorySize;
+      if (fits
+          && domain.get(0).cardinality() % tile == 0
+          && domain.get(1).cardinality() % tile == 0) {
+        return tile;
+      }
+    }
+    return 0;
+  }
+
+  /** Rows of the local arrays are padded by one element to avoid bank conflicts. */
+  private static int rowLength(int tile) {
+    return tile + 1;
+  }
+
+  /**
+   * Returns true if the path from the given node up to the begin of the parallel loop has no
+   * branches other than the exit test of the parallel loop, so all threads reach the node.
+   */
+  private static boolean isUniformlyReached(FixedNode node, LoopBeginNode parallelLoop) {
+    Node current = node;
+    while (current != parallelLoop) {
+      Node predecessor = current.predecessor();
+      if (predecessor == null) {
+        // Merges and loop headers
+        return false;
+      }
+      if (predecessor instanceof ControlSplitNode
+          && !(predecessor instanceof IfNode ifNode && isExitTest(ifNode, parallelLoop))) {
+        return false;
+      }
+      current = predecessor;
+    }
+    return true;
+  }
+
+  private static boolean isExitTest(IfNode ifNode, LoopBeginNode loopBegin) {
+    return isExitOf(ifNode.trueSuccessor(), loopBegin)
+        || isExitOf(ifNode.falseSuccessor(), loopBegin);
+  }
+
+  private static boolean isExitOf(AbstractBeginNode successor, LoopBeginNode loopBegin) {
+    return successor instanceof LoopExitNode exit && exit.loopBegin() == loopBegin;
+  }
+
+  /** Returns the parameter an array or address base is derived from, or null. */
+  private static ParameterNode rootParameter(ValueNode value) {
+    ValueNode current = value;
+    while (true) {
+      if (current instanceof ParameterNode parameterNode) {
+        return parameterNode;
+      } else if (current instanceof PiNode piNode) {
+        current = piNode.object();
+      } else if (current instanceof TornadoAddressArithmeticNode addressNode) {
+        current = addressNode.getBase();
+      } else if (current instanceof LoadFieldNode loadField) {
+        current = loadField.object();
+      } else {
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Returns true if the kernel only reads the parameter. Values loaded from fields of the
+   * parameter (e.g., the size of a native array) may be used freely; any other use of the
+   * parameter or of an address derived from it is considered a write.
+   */
+  private static boolean isReadOnly(ParameterNode parameter) {
+    Deque<Node> worklist = new ArrayDeque<>();
+    Set<Node> visited = new HashSet<>();
+    worklist.push(parameter);
+    while (!worklist.isEmpty()) {
+      Node node = worklist.pop();
+      if (!visited.add(node)) {
+        continue;
+      }
+      for (Node usage : node.usages()) {
+        if (usage instanceof PiNode
+            || usage instanceof TornadoAddressArithmeticNode
+            || usage instanceof OffsetAddressNode
+            || usage instanceof LoadFieldNode) {
+          worklist.push(usage);
+        } else if (usage instanceof JavaReadNode
+            || usage instanceof LoadIndexedNode
+            || usage instanceof ArrayLengthNode
+            || usage instanceof LogicNode
+            || usage instanceof VirtualState) {
+          continue;
+        } else if (!(node instanceof LoadFieldNode && !(usage instanceof FixedNode))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static boolean hasOnlyValueUsages(FixedWithNextNode read) {
+    for (Node usage : read.usages()) {
+      for (Position position : usage.inputPositions()) {
+        if (position.get(usage) == read && position.getInputType() != InputType.Value) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static boolean isSupportedKind(JavaKind kind) {
+    return kind == JavaKind.Int
+        || kind == JavaKind.Long
+        || kind == JavaKind.Float
+        || kind == JavaKind.Double;
+  }
+
+  /** A parallel loop and the induction variable that the scheduler maps to a thread-id. */
+  private record ParallelLoop(int dimension, ValuePhiNode phi, LoopEx loop) {
+
+    static ParallelLoop of(LoopsData loopsData, ParallelRangeNode range) {
+      if (range.index() > 1) {
+        return null;
+      }
+      for (ValuePhiNode phi : range.offset().usages().filter(ValuePhiNode.class)) {
+        if (phi.merge() instanceof LoopBeginNode loopBegin && phi.valueAt(0) == range.offset()) {
+          LoopEx loop = loopsData.loop(loopBegin);
+          return (loop != null) ? new ParallelLoop(range.index(), phi, loop) : null;
+        }
+      }
+      return null;
+    }
+  }
+
+  /** Parallel indices and loop-variant values reached from a value. */
+  private static final class Dependencies {
+    private final boolean[] parallel = new boolean[2];
+    private boolean loopVariant;
+  }
+
+  /** A sequential loop whose reads are staged in local memory. */
+  private static final class TiledLoop {
+    private final LoopEx loop;
+    private final ParallelLoop[] parallelLoops;
+    private final NodeBitMap loopNodes;
+    private final ValuePhiNode phi;
+    private final ValueNode init;
+    private final ValueNode limit;
+    private final boolean limitIncluded;
+    private final AbstractBeginNode body;
+    private final Map<List<Node>, Tile> tiles = new LinkedHashMap<>();
+
+    private TiledLoop(
+        LoopEx loop, ParallelLoop[] parallelLoops, ValuePhiNode phi, CountedLoopInfo counted) {
+      this.loop = loop;
+      this.parallelLoops = parallelLoops;
+      this.loopNodes = loop.whole().nodes();
+      this.phi = phi;
+      this.init = counted.getLimitCheckedIV().initNode();
+      this.body = counted.getBody();
+      this.limit = counted.getLimit();
+      this.limitIncluded = counted.isLimitIncluded();
+    }
+
+    static TiledLoop analyse(LoopEx loop, ParallelLoop[] parallelLoops) {
+      if (!loop.isCounted() || loop.counted().isInverted()) {
+        return null;
+      }
+      CountedLoopInfo counted = loop.counted();
+      InductionVariable iv = counted.getLimitCheckedIV();
+      if (!(iv.valueNode() instanceof ValuePhiNode phi)
+          || phi.merge() != loop.loopBegin()
+          || !(phi.stamp(NodeView.DEFAULT) instanceof IntegerStamp stamp)
+          || stamp.getBits() != Integer.SIZE
+          || !iv.isConstantStride()
+          || iv.constantStride() != 1) {
+        return null;
+      }
+
+      TiledLoop tiledLoop = new TiledLoop(loop, parallelLoops, phi, counted);
+      if (!tiledLoop.isUniform(iv.initNode()) || !tiledLoop.isUniform(counted.getLimit())) {
+        return null;
+      }
+      // Only reads executed in every iteration are staged
+      FixedNode current = tiledLoop.body.next();
+      while (current instanceof FixedWithNextNode node) {
+        tiledLoop.addRead(node);
+        current = node.next();
+      }
+      return tiledLoop.tiles.isEmpty() ? null : tiledLoop;
+    }
+
+    int bytesPerElement() {
+      int bytes = 0;
+      for (Tile tile : tiles.values()) {
+        bytes += tile.kind().getByteCount();
+      }
+      return bytes;
+    }
+
+    private void addRead(FixedWithNextNode read) {
+      final ValueNode array;
+      final ValueNode offset;
+      final JavaKind kind;
+      boolean reloadBase = false;
+      if (read instanceof LoadIndexedNode loadIndexed && loadIndexed.getBoundsCheck() == null) {
+        array = loadIndexed.array();
+        offset = loadIndexed.index();
+        kind = loadIndexed.elementKind();
+        if (!isUniform(array)) {
+          return;
+        }
+      } else if (read instanceof JavaReadNode javaRead
+          && javaRead.getGuard() == null
+          && !javaRead.getUsedAsNullCheck()
+          && javaRead.getAddress() instanceof OffsetAddressNode address) {
+        array = address.getBase();
+        offset = address.getOffset();
+        kind = javaRead.getReadKind();
+        if (!isUniform(array)) {
+          if (!isReloadable(array)) {
+            return;
+          }
+          reloadBase = true;
+        }
+      } else {
+        return;
+      }
+
+      ParameterNode parameter = rootParameter(array);
+      if (parameter == null
+          || !isSupportedKind(kind)
+          || !hasOnlyValueUsages(read)
+          || !(offset.stamp(NodeView.DEFAULT) instanceof IntegerStamp stamp)
+          || (stamp.getBits() != Integer.SIZE && stamp.getBits() != Long.SIZE)
+          || !isReadOnly(parameter)) {
+        return;
+      }
+
+      AffineOffset affineOffset = AffineOffset.of(offset);
+      long stride = affineOffset.coefficientOf(phi);
+      if (stride == 0) {
+        return;
+      }
+      Dependencies dependencies = new Dependencies();
+      for (ValueNode term : affineOffset.terms().keySet()) {
+        if (term != phi) {
+          collectDependencies(term, dependencies);
+        }
+      }
+      if (dependencies.loopVariant || (dependencies.parallel[0] && dependencies.parallel[1])) {
+        return;
+      }
+      // Threads that only differ in this dimension read the same elements
+      int shared = dependencies.parallel[1] ? 0 : 1;
+      Tile tile =
+          new Tile(read, array, offset, kind, stride, shared, reloadBase, new ArrayList<>());
+      tiles.computeIfAbsent(List.of(array, offset), key -> tile).reads().add(read);
+    }
+
+    /** Returns true if the value is the same for all threads of a work-group in an iteration. */
+    private boolean isUniform(ValueNode value) {
+      Dependencies dependencies = new Dependencies();
+      collectDependencies(value, dependencies);
+      return !dependencies.loopVariant && !dependencies.parallel[0] && !dependencies.parallel[1];
+    }
+
+    /**
+     * Returns true if the base is the segment of a native array loaded in the body of the loop,
+     * which can be loaded again before the tiles.
+     */
+    private boolean isReloadable(ValueNode base) {
+      return base instanceof TornadoAddressArithmeticNode addressNode
+          && addressNode.getOffset() instanceof LoadFieldNode loadField
+          && isUniform(loadField.object())
+          && isUniform(addressNode.getBase());
+    }
+
+    private void collectDependencies(ValueNode value, Dependencies dependencies) {
+      Deque<Node> worklist = new ArrayDeque<>();
+      Set<Node> visited = new HashSet<>();
+      worklist.push(value);
+      while (!worklist.isEmpty()) {
+        Node node = worklist.pop();
+        if (!visited.add(node)) {
+          continue;
+        }
+        if (node == parallelLoops[0].phi()) {
+          dependencies.parallel[0] = true;
+        } else if (node == parallelLoops[1].phi()) {
+          dependencies.parallel[1] = true;
+        } else if (node instanceof PhiNode
+            || (node instanceof FixedNode && loopNodes.isMarked(node))) {
+          dependencies.loopVariant = true;
+        } else if (!(node instanceof AbstractBeginNode) && !(node instanceof AbstractEndNode)) {
+          for (Node input : node.inputs()) {
+            if (!(input instanceof FrameState)) {
+              worklist.push(input);
+            }
+          }
+        }
+      }
+    }
+
+    /**
+     * Inserts the cooperative load of the tiles at the start of the body of the loop and replaces
+     * the reads with reads of the local arrays.
+     */
+    void apply(StructuredGraph graph, int tileSize) {
+      FrameState state = loop.loopBegin().stateAfter();
+      ValueNode[] localIds = new ValueNode[parallelLoops.length];
+      for (int dimension = 0; dimension < localIds.length; dimension++) {
+        localIds[dimension] =
+            graph.addOrUnique(new LocalThreadIdNode(ConstantNode.forInt(dimension, graph)));
+      }
+      ValueNode offsetInTile =
+          graph.addOrUnique(
+              new AndNode(
+                  graph.addOrUnique(new SubNode(phi, init)),
+                  ConstantNode.forInt(tileSize - 1, graph)));
+      ValueNode last =
+          limitIncluded
+              ? limit
+              : graph.addOrUnique(new SubNode(limit, ConstantNode.forInt(1, graph)));
+      ValueNode remaining = graph.addOrUnique(new SubNode(last, phi));
+
+      // if (((k - init) & (T - 1)) == 0) { barrier; load tiles; barrier; }
+      FixedNode next = body.next();
+      body.setNext(null);
+      BeginNode loadBegin = graph.add(new BeginNode());
+      BeginNode skipBegin = graph.add(new BeginNode());
+      EndNode loadEnd = graph.add(new EndNode());
+      EndNode skipEnd = graph.add(new EndNode());
+      MergeNode merge = graph.add(new MergeNode());
+      merge.addForwardEnd(loadEnd);
+      merge.addForwardEnd(skipEnd);
+      merge.setStateAfter(state);
+      merge.setNext(next);
+      LogicNode isTileStart =
+          graph.addOrUniqueWithInputs(
+              IntegerEqualsNode.create(
+                  offsetInTile, ConstantNode.forInt(0, graph), NodeView.DEFAULT));
+      IfNode ifNode =
+          graph.add(new IfNode(isTileStart, loadBegin, skipBegin, BranchProbabilityData.unknown()));
+      body.setNext(ifNode);
+      skipBegin.setNext(skipEnd);
+
+      FixedWithNextNode tail = loadBegin;
+      tail = append(tail, graph.add(new OCLBarrierNode(OCLBarrierNode.OCLMemFenceFlags.LOCAL)));
+      for (Tile tile : tiles.values()) {
+        tail = tile.apply(graph, tail, tileSize, localIds, offsetInTile, remaining, state);
+      }
+      tail = append(tail, graph.add(new OCLBarrierNode(OCLBarrierNode.OCLMemFenceFlags.LOCAL)));
+      tail.setNext(loadEnd);
+    }
+  }
+
+  private static FixedWithNextNode append(FixedWithNextNode tail, FixedWithNextNode node) {
+    tail.setNext(node);
+    return node;
+  }
+
+  /**
+   * Elements {@code offset + stride * (k + lane)} of a read, for {@code lane} in {@code [0, T)}.
+   * The thread {@code (l0, l1)} loads the element for lane {@code l[shared]} of the row {@code
+   * l[1 - shared]}.
+   */
+  private record Tile(
+      FixedWithNextNode read,
+      ValueNode array,
+      ValueNode offset,
+      JavaKind kind,
+      long stride,
+      int shared,
+      boolean reloadBase,
+      List<FixedWithNextNode> reads) {
+
+    FixedWithNextNode apply(
+        StructuredGraph graph,
+        FixedWithNextNode tail,
+        int tileSize,
+        ValueNode[] localIds,
+        ValueNode offsetInTile,
+        ValueNode remaining,
+        FrameState state) {
+      ValueNode lane = localIds[shared];
+      ValueNode row =
+          graph.addOrUnique(
+              new MulNode(localIds[1 - shared], ConstantNode.forInt(rowLength(tileSize), graph)));
+      LocalArrayNode localArray =
+          graph.addWithoutUnique(
+              new LocalArrayNode(
+                  OCLArchitecture.localSpace,
+                  kind,
+                  ConstantNode.forInt(tileSize * rowLength(tileSize), graph)));
+      localArray.setFixedLength(true);
+
+      // Lanes past the last iteration load the last element, so no access is out of bounds
+      ValueNode clampedLane =
+          graph.addOrUnique(
+              OCLIntBinaryIntrinsicNode.create(
+                  lane, remaining, OCLIntBinaryIntrinsicNode.Operation.MIN, JavaKind.Int));
+      int bits = ((IntegerStamp) offset.stamp(NodeView.DEFAULT)).getBits();
+      if (bits == Long.SIZE) {
+        clampedLane = graph.addOrUnique(new SignExtendNode(clampedLane, Long.SIZE));
+      }
+      ValueNode laneOffset =
+          graph.addOrUnique(
+              new AddNode(
+                  offset,
+                  graph.addOrUnique(
+                      new MulNode(clampedLane, ConstantNode.forIntegerBits(bits, stride, graph)))));
+
+      FixedWithNextNode load;
+      if (read instanceof LoadIndexedNode) {
+        load = graph.add(new LoadIndexedNode(null, array, laneOffset, null, kind));
+      } else {
+        ValueNode base = array;
+        if (reloadBase) {
+          TornadoAddressArithmeticNode addressNode = (TornadoAddressArithmeticNode) array;
+          LoadFieldNode loadField = (LoadFieldNode) addressNode.getOffset();
+          LoadFieldNode reload =
+              graph.add(LoadFieldNode.create(null, loadField.object(), loadField.field()));
+          tail = append(tail, reload);
+          base =
+              graph.addWithoutUnique(
+                  new TornadoAddressArithmeticNode(addressNode.getBase(), reload));
+        }
+        JavaReadNode javaRead = (JavaReadNode) read;
+        OffsetAddressNode address = graph.addOrUnique(new OffsetAddressNode(base, laneOffset));
+        load =
+            graph.add(
+                new JavaReadNode(
+                    javaRead.stamp(NodeView.DEFAULT),
+                    kind,
+                    address,
+                    javaRead.getLocationIdentity(),
+                    javaRead.getBarrierType(),
+                    javaRead.getMemoryOrder(),
+                    javaRead.isCompressible()));
+      }
+      tail = append(tail, load);
+      ValueNode storeIndex = graph.addOrUnique(new AddNode(row, lane));
+      StoreIndexedNode store =
+          graph.add(new StoreIndexedNode(localArray, storeIndex, null, null, kind, load));
+      store.setStateAfter(state);
+      tail = append(tail, store);
+
+      ValueNode readIndex = graph.addOrUnique(new AddNode(row, offsetInTile));
+      for (FixedWithNextNode original : reads) {
+        LoadIndexedNode localRead =
+            graph.add(new LoadIndexedNode(null, localArray, readIndex, null, kind));
+        graph.replaceFixedWithFixed(original, localRead);
+      }
+      return tail;
+    }
+  }
+}
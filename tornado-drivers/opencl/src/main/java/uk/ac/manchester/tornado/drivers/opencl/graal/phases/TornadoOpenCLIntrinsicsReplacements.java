@@ -53,7 +53,11 @@ import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.LocalArrayNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.LocalGroupSizeNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.LocalThreadIDFixedNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLBarrierNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLMemFenceNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OpenCLPrintf;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.SubGroupQueryNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.SubGroupReduceNode;
+import uk.ac.manchester.tornado.runtime.graal.nodes.ReductionTicketNode;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoHighTierContext;
 
 public class TornadoOpenCLIntrinsicsReplacements extends BasePhase<TornadoHighTierContext> {
@@ -102,6 +106,16 @@ public class TornadoOpenCLIntrinsicsReplacements extends BasePhase<TornadoHighTi
             graph.replaceFixed(invoke, barrier);
             break;
           }
+        case "Direct#OpenCLIntrinsics.globalMemFence":
+          {
+            OCLMemFenceNode fence =
+                graph.add(new OCLMemFenceNode(OCLBarrierNode.OCLMemFenceFlags.GLOBAL));
+            graph.replaceFixed(invoke, fence);
+            break;
+          }
+        case "Direct#OpenCLIntrinsics.reductionTicket":
+          replaceReductionTicket(graph, invoke);
+          break;
         case "Direct#OpenCLIntrinsics.get_local_id":
           {
             ConstantNode dimension = getConstantNodeFromArguments(invoke, 0);
@@ -140,6 +154,24 @@ public class TornadoOpenCLIntrinsicsReplacements extends BasePhase<TornadoHighTi
             graph.replaceFixed(invoke, groupIdNode);
             break;
           }
+        case "Direct#OpenCLIntrinsics.get_sub_group_id":
+          replaceSubGroupQuery(graph, invoke, SubGroupQueryNode.Query.SUB_GROUP_ID);
+          break;
+        case "Direct#OpenCLIntrinsics.get_sub_group_local_id":
+          replaceSubGroupQuery(graph, invoke, SubGroupQueryNode.Query.SUB_GROUP_LOCAL_ID);
+          break;
+        case "Direct#OpenCLIntrinsics.get_num_sub_groups":
+          replaceSubGroupQuery(graph, invoke, SubGroupQueryNode.Query.NUM_SUB_GROUPS);
+          break;
+        case "Direct#OpenCLIntrinsics.sub_group_reduce_add":
+          replaceSubGroupReduce(graph, invoke, SubGroupReduceNode.Operation.ADD);
+          break;
+        case "Direct#OpenCLIntrinsics.sub_group_reduce_min":
+          replaceSubGroupReduce(graph, invoke, SubGroupReduceNode.Operation.MIN);
+          break;
+        case "Direct#OpenCLIntrinsics.sub_group_reduce_max":
+          replaceSubGroupReduce(graph, invoke, SubGroupReduceNode.Operation.MAX);
+          break;
         case "Direct#OpenCLIntrinsics.printEmpty":
           OpenCLPrintf printfNode = graph.addOrUnique(new OpenCLPrintf("\"\""));
           graph.replaceFixed(invoke, printfNode);
@@ -148,6 +180,34 @@ public class TornadoOpenCLIntrinsicsReplacements extends BasePhase<TornadoHighTi
     }
   }
 
+  private void replaceSubGroupQuery(
+      StructuredGraph graph, InvokeNode invoke, SubGroupQueryNode.Query query) {
+    SubGroupQueryNode queryNode = graph.add(new SubGroupQueryNode(query));
+    graph.replaceFixed(invoke, queryNode);
+  }
+
+  private void replaceSubGroupReduce(
+      StructuredGraph graph, InvokeNode invoke, SubGroupReduceNode.Operation operation) {
+    ValueNode value = invoke.callTarget().arguments().get(0);
+    SubGroupReduceNode reduceNode = graph.add(new SubGroupReduceNode(operation, value));
+    graph.replaceFixed(invoke, reduceNode);
+  }
+
+  private void replaceReductionTicket(StructuredGraph graph, InvokeNode invoke) {
+    NodeInputList<ValueNode> arguments = invoke.callTarget().arguments();
+    JavaKind elementKind =
+        invoke
+            .callTarget()
+            .targetMethod()
+            .getSignature()
+            .getParameterType(0, null)
+            .getComponentType()
+            .getJavaKind();
+    ReductionTicketNode ticketNode =
+        graph.add(new ReductionTicketNode(arguments.get(0), arguments.get(1), elementKind));
+    graph.replaceFixed(invoke, ticketNode);
+  }
+
   private void lowerLocalInvokeNodeNewArray(
       StructuredGraph graph, int length, JavaKind elementKind, InvokeNode newArray) {
     LocalArrayNode localArrayNode;
@@ -170,12 +170,7 @@ public class TornadoParallelScheduler extends BasePhase<TornadoHighTierContext>
         .forEach(
             node -> {
               if (maxWorkItemSizes[node.index()] > 1) {
-                ParallelOffsetNode offset = node.offset();
-                ParallelStrideNode stride = node.stride();
-                ValueNode blockSize = replaceRangeNode(strategy, graph, node);
-                replaceOffsetNode(strategy, graph, offset, node, blockSize);
-                replaceStrideNode(strategy, graph, stride);
-
+                scheduleLoop(graph, node, strategy);
               } else {
                 serialiseLoop(node);
               }
@@ -188,6 +183,23 @@ public class TornadoParallelScheduler extends BasePhase<TornadoHighTierContext>
     graph.clearLastSchedule();
   }
 
+  /**
+   * Replaces the parallel nodes (range, offset and stride) of a loop with the thread
+   * identifiers of the given scheduling strategy.
+   *
+   * @param graph Graph of the task.
+   * @param range Parallel range of the loop.
+   * @param strategy {@link TornadoSchedulingStrategy}
+   */
+  void scheduleLoop(
+      StructuredGraph graph, ParallelRangeNode range, TornadoSchedulingStrategy strategy) {
+    ParallelOffsetNode offset = range.offset();
+    ParallelStrideNode stride = range.stride();
+    ValueNode blockSize = replaceRangeNode(strategy, graph, range);
+    replaceOffsetNode(strategy, graph, offset, range, blockSize);
+    replaceStrideNode(strategy, graph, stride);
+  }
+
   private void serialiseLoop(ParallelRangeNode range) {
     ParallelOffsetNode offset = range.offset();
     ParallelStrideNode stride = range.stride();
@@ -0,0 +1,101 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.graal.phases;
+
+import static uk.ac.manchester.tornado.runtime.TornadoCoreRuntime.getDebugContext;
+
+import java.util.Optional;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.nodes.GraphState;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.phases.BasePhase;
+import uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelRangeNode;
+import uk.ac.manchester.tornado.runtime.graal.phases.TornadoHighTierContext;
+import uk.ac.manchester.tornado.runtime.tasks.meta.Coarseness;
+
+/**
+ * Thread-coarsening phase. It runs before the {@link TornadoParallelScheduler} and schedules the
+ * parallel loops of tasks that request a coarsening layout ({@code <task>.coarseness.layout})
+ * different from the preferred schedule of the device:
+ *
+ * <ul>
+ *   <li>{@link Coarseness.Layout#CONSECUTIVE}: each thread processes a contiguous block of
+ *       iterations (as in {@link TornadoSchedulingStrategy#PER_CPU_BLOCK}).
+ *   <li>{@link Coarseness.Layout#STRIDED}: each thread processes the iterations separated by the
+ *       global number of threads (as in {@link
+ *       TornadoSchedulingStrategy#PER_ACCELERATOR_ITERATION}).
+ * </ul>
+ *
+ * <p>Both schedules cover the whole iteration space with any number of threads, so the
+ * coarsening factors only reduce the global work size computed by the kernel schedulers, and they
+ * can change without recompiling the kernel.
+ */
+public class TornadoThreadCoarsening extends BasePhase<TornadoHighTierContext> {
+
+  private final TornadoParallelScheduler parallelScheduler;
+
+  public TornadoThreadCoarsening(TornadoParallelScheduler parallelScheduler) {
+    this.parallelScheduler = parallelScheduler;
+  }
+
+  @Override
+  public Optional<NotApplicable> notApplicableTo(GraphState graphState) {
+    return ALWAYS_APPLICABLE;
+  }
+
+  @Override
+  protected void run(StructuredGraph graph, TornadoHighTierContext context) {
+    if (context.getMeta() == null || context.getMeta().getCoarseness() == null) {
+      return;
+    }
+    Coarseness.Layout layout = context.getMeta().getCoarseness().getLayout();
+    if (layout == null) {
+      return;
+    }
+
+    TornadoXPUDevice device = context.getDeviceMapping();
+    final TornadoSchedulingStrategy strategy =
+        (layout == Coarseness.Layout.CONSECUTIVE)
+            ? TornadoSchedulingStrategy.PER_CPU_BLOCK
+            : TornadoSchedulingStrategy.PER_ACCELERATOR_ITERATION;
+    if (strategy == device.getPreferredSchedule()) {
+      return;
+    }
+
+    long[] maxWorkItemSizes = device.getPhysicalDevice().getDeviceMaxWorkItemSizes();
+    for (ParallelRangeNode node : graph.getNodes().filter(ParallelRangeNode.class).snapshot()) {
+      if (maxWorkItemSizes[node.index()] > 1) {
+        parallelScheduler.scheduleLoop(graph, node, strategy);
+        getDebugContext()
+            .dump(
+                DebugContext.BASIC_LEVEL,
+                graph,
+                "after coarsening loop index=" + node.index() + " layout=" + layout);
+      }
+    }
+    graph.clearLastSchedule();
+  }
+}
@@ -27,7 +27,11 @@ package uk.ac.manchester.tornado.drivers.opencl.graal.snippets;
 
 import jdk.vm.ci.meta.JavaKind;
 import org.graalvm.compiler.api.replacements.Snippet;
+import org.graalvm.compiler.api.replacements.Snippet.ConstantParameter;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
 import org.graalvm.compiler.nodes.GraphState;
+import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.ValueNode;
 import org.graalvm.compiler.nodes.java.NewArrayNode;
 import org.graalvm.compiler.nodes.spi.LoweringTool;
@@ -38,7 +42,9 @@ import org.graalvm.compiler.replacements.SnippetTemplate.AbstractTemplates;
 import org.graalvm.compiler.replacements.SnippetTemplate.Arguments;
 import org.graalvm.compiler.replacements.SnippetTemplate.SnippetInfo;
 import org.graalvm.compiler.replacements.Snippets;
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.api.math.TornadoMath;
+import uk.ac.manchester.tornado.drivers.common.compiler.phases.loops.ReductionLoopShape;
 import uk.ac.manchester.tornado.drivers.opencl.builtins.OpenCLIntrinsics;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.GlobalThreadSizeNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLFPBinaryIntrinsicNode;
@@ -834,6 +840,488 @@ public class ReduceGPUSnippets implements Snippets {
     }
   }
 
+  // ==========================================================================
+  // Single-pass reductions (tornado.reduce.singlepass).
+  //
+  // The snippets are instantiated after the exit of the grid-stride loop, so
+  // each work-item first accumulates, in a register, all the elements that it
+  // visits and then runs the work-group combine once (with sub-group built-ins
+  // when the device provides them). The first work-item of each work-group
+  // stores the result of the group in outputArray[groupID + 1] and takes a
+  // ticket from the counter kept in outputArray[numGroups + 1]. The work-group
+  // that takes the last ticket folds the results of all groups into
+  // outputArray[0] and resets the counter, so the reduction completes in a
+  // single kernel.
+  // ==========================================================================
+
+  private static final int OPERATION_ADD = 0;
+  private static final int OPERATION_MUL = 1;
+  private static final int OPERATION_MAX = 2;
+  private static final int OPERATION_MIN = 3;
+
+  private static int identityInt(int operation) {
+    switch (operation) {
+      case OPERATION_ADD:
+        return 0;
+      case OPERATION_MUL:
+        return 1;
+      case OPERATION_MAX:
+        return Integer.MIN_VALUE;
+      default:
+        return Integer.MAX_VALUE;
+    }
+  }
+
+  private static long identityLong(int operation) {
+    switch (operation) {
+      case OPERATION_ADD:
+        return 0L;
+      case OPERATION_MUL:
+        return 1L;
+      case OPERATION_MAX:
+        return Long.MIN_VALUE;
+      default:
+        return Long.MAX_VALUE;
+    }
+  }
+
+  private static float identityFloat(int operation) {
+    switch (operation) {
+      case OPERATION_ADD:
+        return 0.0f;
+      case OPERATION_MUL:
+        return 1.0f;
+      case OPERATION_MAX:
+        return Float.NEGATIVE_INFINITY;
+      default:
+        return Float.POSITIVE_INFINITY;
+    }
+  }
+
+  private static double identityDouble(int operation) {
+    switch (operation) {
+      case OPERATION_ADD:
+        return 0.0;
+      case OPERATION_MUL:
+        return 1.0;
+      case OPERATION_MAX:
+        return Double.NEGATIVE_INFINITY;
+      default:
+        return Double.POSITIVE_INFINITY;
+    }
+  }
+
+  private static int combine(int operation, int a, int b) {
+    switch (operation) {
+      case OPERATION_ADD:
+        return a + b;
+      case OPERATION_MUL:
+        return a * b;
+      case OPERATION_MAX:
+        return TornadoMath.max(a, b);
+      default:
+        return TornadoMath.min(a, b);
+    }
+  }
+
+  private static long combine(int operation, long a, long b) {
+    switch (operation) {
+      case OPERATION_ADD:
+        return a + b;
+      case OPERATION_MUL:
+        return a * b;
+      case OPERATION_MAX:
+        return TornadoMath.max(a, b);
+      default:
+        return TornadoMath.min(a, b);
+    }
+  }
+
+  private static float combine(int operation, float a, float b) {
+    switch (operation) {
+      case OPERATION_ADD:
+        return a + b;
+      case OPERATION_MUL:
+        return a * b;
+      case OPERATION_MAX:
+        return TornadoMath.max(a, b);
+      default:
+        return TornadoMath.min(a, b);
+    }
+  }
+
+  private static double combine(int operation, double a, double b) {
+    switch (operation) {
+      case OPERATION_ADD:
+        return a + b;
+      case OPERATION_MUL:
+        return a * b;
+      case OPERATION_MAX:
+        return TornadoMath.max(a, b);
+      default:
+        return TornadoMath.min(a, b);
+    }
+  }
+
+  private static int subGroupReduce(int operation, int value) {
+    switch (operation) {
+      case OPERATION_ADD:
+        return OpenCLIntrinsics.sub_group_reduce_add(value);
+      case OPERATION_MAX:
+        return OpenCLIntrinsics.sub_group_reduce_max(value);
+      default:
+        return OpenCLIntrinsics.sub_group_reduce_min(value);
+    }
+  }
+
+  private static long subGroupReduce(int operation, long value) {
+    switch (operation) {
+      case OPERATION_ADD:
+        return OpenCLIntrinsics.sub_group_reduce_add(value);
+      case OPERATION_MAX:
+        return OpenCLIntrinsics.sub_group_reduce_max(value);
+      default:
+        return OpenCLIntrinsics.sub_group_reduce_min(value);
+    }
+  }
+
+  private static float subGroupReduce(int operation, float value) {
+    switch (operation) {
+      case OPERATION_ADD:
+        return OpenCLIntrinsics.sub_group_reduce_add(value);
+      case OPERATION_MAX:
+        return OpenCLIntrinsics.sub_group_reduce_max(value);
+      default:
+        return OpenCLIntrinsics.sub_group_reduce_min(value);
+    }
+  }
+
+  private static double subGroupReduce(int operation, double value) {
+    switch (operation) {
+      case OPERATION_ADD:
+        return OpenCLIntrinsics.sub_group_reduce_add(value);
+      case OPERATION_MAX:
+        return OpenCLIntrinsics.sub_group_reduce_max(value);
+      default:
+        return OpenCLIntrinsics.sub_group_reduce_min(value);
+    }
+  }
+
+  private static void workGroupReduce(
+      int operation, boolean subGroups, int value, int[] outputArray) {
+    int localIdx = OpenCLIntrinsics.get_local_id(0);
+
+    int[] localArray = (int[]) NewArrayNode.newUninitializedArray(int.class, LOCAL_WORK_GROUP_SIZE);
+
+    if (subGroups && operation != OPERATION_MUL) {
+      int partial = subGroupReduce(operation, value);
+      if (OpenCLIntrinsics.get_sub_group_local_id() == 0) {
+        localArray[OpenCLIntrinsics.get_sub_group_id()] = partial;
+      }
+      OpenCLIntrinsics.localBarrier();
+      if (localIdx == 0) {
+        int numSubGroups = OpenCLIntrinsics.get_num_sub_groups();
+        int result = localArray[0];
+        for (int i = 1; i < numSubGroups; i++) {
+          result = combine(operation, result, localArray[i]);
+        }
+        completeGroup(operation, result, outputArray);
+      }
+    } else {
+      int localGroupSize = OpenCLIntrinsics.get_local_size(0);
+      localArray[localIdx] = value;
+      for (int stride = (localGroupSize / 2); stride > 0; stride /= 2) {
+        OpenCLIntrinsics.localBarrier();
+        if (localIdx < stride) {
+          localArray[localIdx] =
+              combine(operation, localArray[localIdx], localArray[localIdx + stride]);
+        }
+      }
+      if (localIdx == 0) {
+        completeGroup(operation, localArray[0], outputArray);
+      }
+    }
+  }
+
+  /**
+   * Publishes the result of a work-group. The work-group that finishes last folds the results of
+   * all the work-groups into outputArray[0]. It runs on the first work-item of each work-group.
+   */
+  private static void completeGroup(int operation, int groupResult, int[] outputArray) {
+    int numGroups = OpenCLIntrinsics.get_global_size(0) / OpenCLIntrinsics.get_local_size(0);
+    outputArray[OpenCLIntrinsics.get_group_id(0) + 1] = groupResult;
+    OpenCLIntrinsics.globalMemFence();
+    if (OpenCLIntrinsics.reductionTicket(outputArray, numGroups + 1) == numGroups - 1) {
+      OpenCLIntrinsics.globalMemFence();
+      int result = outputArray[0];
+      for (int i = 1; i <= numGroups; i++) {
+        result = combine(operation, result, outputArray[i]);
+      }
+      outputArray[0] = result;
+      outputArray[numGroups + 1] = 0;
+    }
+  }
+
+  private static void workGroupReduce(
+      int operation, boolean subGroups, long value, long[] outputArray) {
+    int localIdx = OpenCLIntrinsics.get_local_id(0);
+
+    long[] localArray =
+        (long[]) NewArrayNode.newUninitializedArray(long.class, LOCAL_WORK_GROUP_SIZE);
+
+    if (subGroups && operation != OPERATION_MUL) {
+      long partial = subGroupReduce(operation, value);
+      if (OpenCLIntrinsics.get_sub_group_local_id() == 0) {
+        localArray[OpenCLIntrinsics.get_sub_group_id()] = partial;
+      }
+      OpenCLIntrinsics.localBarrier();
+      if (localIdx == 0) {
+        int numSubGroups = OpenCLIntrinsics.get_num_sub_groups();
+        long result = localArray[0];
+        for (int i = 1; i < numSubGroups; i++) {
+          result = combine(operation, result, localArray[i]);
+        }
+        completeGroup(operation, result, outputArray);
+      }
+    } else {
+      int localGroupSize = OpenCLIntrinsics.get_local_size(0);
+      localArray[localIdx] = value;
+      for (int stride = (localGroupSize / 2); stride > 0; stride /= 2) {
+        OpenCLIntrinsics.localBarrier();
+        if (localIdx < stride) {
+          localArray[localIdx] =
+              combine(operation, localArray[localIdx], localArray[localIdx + stride]);
+        }
+      }
+      if (localIdx == 0) {
+        completeGroup(operation, localArray[0], outputArray);
+      }
+    }
+  }
+
+  private static void completeGroup(int operation, long groupResult, long[] outputArray) {
+    int numGroups = OpenCLIntrinsics.get_global_size(0) / OpenCLIntrinsics.get_local_size(0);
+    outputArray[OpenCLIntrinsics.get_group_id(0) + 1] = groupResult;
+    OpenCLIntrinsics.globalMemFence();
+    if (OpenCLIntrinsics.reductionTicket(outputArray, numGroups + 1) == numGroups - 1) {
+      OpenCLIntrinsics.globalMemFence();
+      long result = outputArray[0];
+      for (int i = 1; i <= numGroups; i++) {
+        result = combine(operation, result, outputArray[i]);
+      }
+      outputArray[0] = result;
+      outputArray[numGroups + 1] = 0L;
+    }
+  }
+
+  private static void workGroupReduce(
+      int operation, boolean subGroups, float value, float[] outputArray) {
+    int localIdx = OpenCLIntrinsics.get_local_id(0);
+
+    float[] localArray =
+        (float[]) NewArrayNode.newUninitializedArray(float.class, LOCAL_WORK_GROUP_SIZE);
+
+    if (subGroups && operation != OPERATION_MUL) {
+      float partial = subGroupReduce(operation, value);
+      if (OpenCLIntrinsics.get_sub_group_local_id() == 0) {
+        localArray[OpenCLIntrinsics.get_sub_group_id()] = partial;
+      }
+      OpenCLIntrinsics.localBarrier();
+      if (localIdx == 0) {
+        int numSubGroups = OpenCLIntrinsics.get_num_sub_groups();
+        float result = localArray[0];
+        for (int i = 1; i < numSubGroups; i++) {
+          result = combine(operation, result, localArray[i]);
+        }
+        completeGroup(operation, result, outputArray);
+      }
+    } else {
+      int localGroupSize = OpenCLIntrinsics.get_local_size(0);
+      localArray[localIdx] = value;
+      for (int stride = (localGroupSize / 2); stride > 0; stride /= 2) {
+        OpenCLIntrinsics.localBarrier();
+        if (localIdx < stride) {
+          localArray[localIdx] =
+              combine(operation, localArray[localIdx], localArray[localIdx + stride]);
+        }
+      }
+      if (localIdx == 0) {
+        completeGroup(operation, localArray[0], outputArray);
+      }
+    }
+  }
+
+  private static void completeGroup(int operation, float groupResult, float[] outputArray) {
+    int numGroups = OpenCLIntrinsics.get_global_size(0) / OpenCLIntrinsics.get_local_size(0);
+    outputArray[OpenCLIntrinsics.get_group_id(0) + 1] = groupResult;
+    OpenCLIntrinsics.globalMemFence();
+    if (OpenCLIntrinsics.reductionTicket(outputArray, numGroups + 1) == numGroups - 1) {
+      OpenCLIntrinsics.globalMemFence();
+      float result = outputArray[0];
+      for (int i = 1; i <= numGroups; i++) {
+        result = combine(operation, result, outputArray[i]);
+      }
+      outputArray[0] = result;
+      outputArray[numGroups + 1] = 0.0f;
+    }
+  }
+
+  private static void workGroupReduce(
+      int operation, boolean subGroups, double value, double[] outputArray) {
+    int localIdx = OpenCLIntrinsics.get_local_id(0);
+
+    double[] localArray =
+        (double[]) NewArrayNode.newUninitializedArray(double.class, LOCAL_WORK_GROUP_SIZE);
+
+    if (subGroups && operation != OPERATION_MUL) {
+      double partial = subGroupReduce(operation, value);
+      if (OpenCLIntrinsics.get_sub_group_local_id() == 0) {
+        localArray[OpenCLIntrinsics.get_sub_group_id()] = partial;
+      }
+      OpenCLIntrinsics.localBarrier();
+      if (localIdx == 0) {
+        int numSubGroups = OpenCLIntrinsics.get_num_sub_groups();
+        double result = localArray[0];
+        for (int i = 1; i < numSubGroups; i++) {
+          result = combine(operation, result, localArray[i]);
+        }
+        completeGroup(operation, result, outputArray);
+      }
+    } else {
+      int localGroupSize = OpenCLIntrinsics.get_local_size(0);
+      localArray[localIdx] = value;
+      for (int stride = (localGroupSize / 2); stride > 0; stride /= 2) {
+        OpenCLIntrinsics.localBarrier();
+        if (localIdx < stride) {
+          localArray[localIdx] =
+              combine(operation, localArray[localIdx], localArray[localIdx + stride]);
+        }
+      }
+      if (localIdx == 0) {
+        completeGroup(operation, localArray[0], outputArray);
+      }
+    }
+  }
+
+  private static void completeGroup(int operation, double groupResult, double[] outputArray) {
+    int numGroups = OpenCLIntrinsics.get_global_size(0) / OpenCLIntrinsics.get_local_size(0);
+    outputArray[OpenCLIntrinsics.get_group_id(0) + 1] = groupResult;
+    OpenCLIntrinsics.globalMemFence();
+    if (OpenCLIntrinsics.reductionTicket(outputArray, numGroups + 1) == numGroups - 1) {
+      OpenCLIntrinsics.globalMemFence();
+      double result = outputArray[0];
+      for (int i = 1; i <= numGroups; i++) {
+        result = combine(operation, result, outputArray[i]);
+      }
+      outputArray[0] = result;
+      outputArray[numGroups + 1] = 0.0;
+    }
+  }
+
+  @Snippet
+  public static void singlePassReduceInt(
+      int[] inputArray,
+      int[] outputArray,
+      int first,
+      int end,
+      int stride,
+      @ConstantParameter int operation,
+      @ConstantParameter boolean subGroups) {
+    int acc = identityInt(operation);
+    for (int i = first; i < end; i += stride) {
+      acc = combine(operation, acc, inputArray[i]);
+    }
+    workGroupReduce(operation, subGroups, acc, outputArray);
+  }
+
+  @Snippet
+  public static void singlePassReduceIntCarrierValue(
+      int[] inputArray,
+      int[] outputArray,
+      int value,
+      @ConstantParameter int operation,
+      @ConstantParameter boolean subGroups) {
+    workGroupReduce(operation, subGroups, value, outputArray);
+  }
+
+  @Snippet
+  public static void singlePassReduceLong(
+      long[] inputArray,
+      long[] outputArray,
+      int first,
+      int end,
+      int stride,
+      @ConstantParameter int operation,
+      @ConstantParameter boolean subGroups) {
+    long acc = identityLong(operation);
+    for (int i = first; i < end; i += stride) {
+      acc = combine(operation, acc, inputArray[i]);
+    }
+    workGroupReduce(operation, subGroups, acc, outputArray);
+  }
+
+  @Snippet
+  public static void singlePassReduceLongCarrierValue(
+      long[] inputArray,
+      long[] outputArray,
+      long value,
+      @ConstantParameter int operation,
+      @ConstantParameter boolean subGroups) {
+    workGroupReduce(operation, subGroups, value, outputArray);
+  }
+
+  @Snippet
+  public static void singlePassReduceFloat(
+      float[] inputArray,
+      float[] outputArray,
+      int first,
+      int end,
+      int stride,
+      @ConstantParameter int operation,
+      @ConstantParameter boolean subGroups) {
+    float acc = identityFloat(operation);
+    for (int i = first; i < end; i += stride) {
+      acc = combine(operation, acc, inputArray[i]);
+    }
+    workGroupReduce(operation, subGroups, acc, outputArray);
+  }
+
+  @Snippet
+  public static void singlePassReduceFloatCarrierValue(
+      float[] inputArray,
+      float[] outputArray,
+      float value,
+      @ConstantParameter int operation,
+      @ConstantParameter boolean subGroups) {
+    workGroupReduce(operation, subGroups, value, outputArray);
+  }
+
+  @Snippet
+  public static void singlePassReduceDouble(
+      double[] inputArray,
+      double[] outputArray,
+      int first,
+      int end,
+      int stride,
+      @ConstantParameter int operation,
+      @ConstantParameter boolean subGroups) {
+    double acc = identityDouble(operation);
+    for (int i = first; i < end; i += stride) {
+      acc = combine(operation, acc, inputArray[i]);
+    }
+    workGroupReduce(operation, subGroups, acc, outputArray);
+  }
+
+  @Snippet
+  public static void singlePassReduceDoubleCarrierValue(
+      double[] inputArray,
+      double[] outputArray,
+      double value,
+      @ConstantParameter int operation,
+      @ConstantParameter boolean subGroups) {
+    workGroupReduce(operation, subGroups, value, outputArray);
+  }
+
   protected static class Tuple2<T0, T1> {
     T0 t0;
     T1 t1;
@@ -943,11 +1431,43 @@ public class ReduceGPUSnippets implements Snippets {
         partialReduceMinDoubleSnippetCarrierValue =
             new Tuple2<>(ReduceGPUSnippets.class, "partialReduceDoubleMinCarrierValue");
 
+    // Single-pass
+    private final Tuple2<Class<? extends ReduceGPUSnippets>, String> singlePassReduceIntSnippet =
+        new Tuple2<>(ReduceGPUSnippets.class, "singlePassReduceInt");
+    private final Tuple2<Class<? extends ReduceGPUSnippets>, String>
+        singlePassReduceIntSnippetCarrierValue =
+            new Tuple2<>(ReduceGPUSnippets.class, "singlePassReduceIntCarrierValue");
+    private final Tuple2<Class<? extends ReduceGPUSnippets>, String> singlePassReduceLongSnippet =
+        new Tuple2<>(ReduceGPUSnippets.class, "singlePassReduceLong");
+    private final Tuple2<Class<? extends ReduceGPUSnippets>, String>
+        singlePassReduceLongSnippetCarrierValue =
+            new Tuple2<>(ReduceGPUSnippets.class, "singlePassReduceLongCarrierValue");
+    private final Tuple2<Class<? extends ReduceGPUSnippets>, String> singlePassReduceFloatSnippet =
+        new Tuple2<>(ReduceGPUSnippets.class, "singlePassReduceFloat");
+    private final Tuple2<Class<? extends ReduceGPUSnippets>, String>
+        singlePassReduceFloatSnippetCarrierValue =
+            new Tuple2<>(ReduceGPUSnippets.class, "singlePassReduceFloatCarrierValue");
+    private final Tuple2<Class<? extends ReduceGPUSnippets>, String>
+        singlePassReduceDoubleSnippet =
+            new Tuple2<>(ReduceGPUSnippets.class, "singlePassReduceDouble");
+    private final Tuple2<Class<? extends ReduceGPUSnippets>, String>
+        singlePassReduceDoubleSnippetCarrierValue =
+            new Tuple2<>(ReduceGPUSnippets.class, "singlePassReduceDoubleCarrierValue");
+
     Providers providers;
 
-    public Templates(OptionValues options, Providers providers) {
+    private final boolean subGroups;
+
+    /**
+     * @param options Graal options.
+     * @param providers Graal providers.
+     * @param subGroups true if single-pass reductions can use the sub-group built-ins of the
+     *     target device.
+     */
+    public Templates(OptionValues options, Providers providers, boolean subGroups) {
       super(options, providers);
       this.providers = providers;
+      this.subGroups = subGroups;
     }
 
     private SnippetInfo snippet(Tuple2<Class<? extends ReduceGPUSnippets>, String> tuple2) {
@@ -1120,6 +1640,114 @@ public class ReduceGPUSnippets implements Snippets {
       return snippet;
     }
 
+    private SnippetInfo getSinglePassSnippet(JavaKind elementKind, ValueNode extra) {
+      return switch (elementKind) {
+        case Int ->
+            snippet(
+                extra == null
+                    ? singlePassReduceIntSnippet
+                    : singlePassReduceIntSnippetCarrierValue);
+        case Long ->
+            snippet(
+                extra == null
+                    ? singlePassReduceLongSnippet
+                    : singlePassReduceLongSnippetCarrierValue);
+        case Float ->
+            snippet(
+                extra == null
+                    ? singlePassReduceFloatSnippet
+                    : singlePassReduceFloatSnippetCarrierValue);
+        case Double ->
+            snippet(
+                extra == null
+                    ? singlePassReduceDoubleSnippet
+                    : singlePassReduceDoubleSnippetCarrierValue);
+        default ->
+            throw new RuntimeException("Reduce Operation no supported yet: snippet not installed");
+      };
+    }
+
+    private int getSinglePassOperation(ValueNode value) {
+      if (value instanceof TornadoReduceAddNode) {
+        return OPERATION_ADD;
+      } else if (value instanceof TornadoReduceMulNode) {
+        return OPERATION_MUL;
+      } else if (value instanceof OCLIntBinaryIntrinsicNode op) {
+        switch (op.operation()) {
+          case MAX:
+            return OPERATION_MAX;
+          case MIN:
+            return OPERATION_MIN;
+          default:
+            break;
+        }
+      } else if (value instanceof OCLFPBinaryIntrinsicNode op) {
+        switch (op.operation()) {
+          case FMAX:
+            return OPERATION_MAX;
+          case FMIN:
+            return OPERATION_MIN;
+          default:
+            break;
+        }
+      }
+      throw new RuntimeException("Reduce Operation no supported yet: snippet not installed");
+    }
+
+    private ValueNode getSinglePassIdentity(
+        JavaKind elementKind, int operation, StructuredGraph graph) {
+      return switch (elementKind) {
+        case Int -> ConstantNode.forInt(identityInt(operation), graph);
+        case Long -> ConstantNode.forLong(identityLong(operation), graph);
+        case Float -> ConstantNode.forFloat(identityFloat(operation), graph);
+        case Double -> ConstantNode.forDouble(identityDouble(operation), graph);
+        default ->
+            throw new RuntimeException("Reduce Operation no supported yet: snippet not installed");
+      };
+    }
+
+    /**
+     * Lowers a reduction with the single-pass snippets. The reduction is moved after the exit of
+     * the grid-stride loop: the snippet either visits the elements of the thread with the loop
+     * bounds, or receives the carried value accumulated by a new loop phi.
+     */
+    public void lowerSinglePass(
+        FixedWithNextNode reduceNode,
+        JavaKind elementKind,
+        ValueNode value,
+        ValueNode extra,
+        ValueNode outputArray,
+        ValueNode inputArray,
+        ReductionLoopShape loopShape,
+        LoweringTool tool) {
+      if (loopShape == null) {
+        throw new TornadoBailoutRuntimeException(
+            "Single-pass reductions need a grid-stride parallel loop with a single exit");
+      }
+      SnippetInfo snippet = getSinglePassSnippet(elementKind, extra);
+      int operation = getSinglePassOperation(value);
+
+      Arguments args =
+          new Arguments(snippet, GraphState.GuardsStage.AFTER_FSA, tool.getLoweringStage());
+      args.add("inputArray", inputArray);
+      args.add("outputArray", outputArray);
+      if (extra != null) {
+        ValueNode identity = getSinglePassIdentity(elementKind, operation, reduceNode.graph());
+        args.add("value", loopShape.accumulate(value, extra, identity));
+      } else {
+        args.add("first", loopShape.first());
+        args.add("end", loopShape.end());
+        args.add("stride", loopShape.stride());
+      }
+      args.addConst("operation", operation);
+      args.addConst("subGroups", subGroups);
+
+      loopShape.moveAfterExit(reduceNode);
+      SnippetTemplate template = template(tool, reduceNode, args);
+      template.instantiate(
+          tool.getMetaAccess(), reduceNode, SnippetTemplate.DEFAULT_REPLACER, args);
+    }
+
     public void lower(
         StoreAtomicIndexedNode storeAtomicIndexed,
         ValueNode globalId,
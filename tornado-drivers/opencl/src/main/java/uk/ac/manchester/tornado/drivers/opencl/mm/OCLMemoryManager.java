@@ -27,6 +27,7 @@ import static uk.ac.manchester.tornado.drivers.opencl.mm.OCLKernelStackFrame.RES
 import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.DEVICE_AVAILABLE_MEMORY;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import uk.ac.manchester.tornado.api.memory.TornadoMemoryProvider;
 import uk.ac.manchester.tornado.api.memory.XPUBuffer;
@@ -43,6 +44,9 @@ public class OCLMemoryManager implements TornadoMemoryProvider {
   private long constantPointer;
   private long atomicsRegion = -1;
 
+  /** Host pointers passed to kernels as shared virtual memory instead of {@code cl_mem}. */
+  private final Set<Long> svmPointers = ConcurrentHashMap.newKeySet();
+
   public OCLMemoryManager(final OCLDeviceContext deviceContext) {
     this.deviceContext = deviceContext;
   }
@@ -52,6 +56,16 @@ public class OCLMemoryManager implements TornadoMemoryProvider {
     return DEVICE_AVAILABLE_MEMORY;
   }
 
+  @Override
+  public long getNumEvictions() {
+    return deviceContext.getBufferProvider().getEvictionManager().getNumEvictions();
+  }
+
+  @Override
+  public long getSpilledBytes() {
+    return deviceContext.getBufferProvider().getEvictionManager().getSpilledBytes();
+  }
+
   public OCLKernelStackFrame createKernelStackFrame(
       long executionPlanId, final int numberOfArguments) {
     if (!oclKernelStackFrame.containsKey(executionPlanId)) {
@@ -91,10 +105,27 @@ public class OCLMemoryManager implements TornadoMemoryProvider {
     return deviceContext.getPlatformContext().createBuffer(flags, size);
   }
 
+  /** Creates a buffer over host memory, e.g. with {@code CL_MEM_USE_HOST_PTR}. */
+  public OCLContext.OCLBufferResult createBuffer(long size, long flags, long hostPointer) {
+    return deviceContext.getPlatformContext().createBuffer(flags, size, hostPointer);
+  }
+
   public void releaseBuffer(long bufferId) {
     deviceContext.getPlatformContext().releaseBuffer(bufferId);
   }
 
+  public void registerSVMPointer(long pointer) {
+    svmPointers.add(pointer);
+  }
+
+  public void unregisterSVMPointer(long pointer) {
+    svmPointers.remove(pointer);
+  }
+
+  public boolean isSVMPointer(long pointer) {
+    return svmPointers.contains(pointer);
+  }
+
   long toConstantAddress() {
     return constantPointer;
   }
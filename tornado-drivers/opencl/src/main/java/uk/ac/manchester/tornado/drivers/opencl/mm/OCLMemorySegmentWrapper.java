@@ -35,6 +35,7 @@ import uk.ac.manchester.tornado.api.types.images.TornadoImagesInterface;
 import uk.ac.manchester.tornado.api.types.matrix.TornadoMatrixInterface;
 import uk.ac.manchester.tornado.api.types.volumes.TornadoVolumesInterface;
 import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
+import uk.ac.manchester.tornado.drivers.opencl.enums.OCLMemFlags;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.common.exceptions.TornadoUnsupportedError;
@@ -51,6 +52,19 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
 
   private long subregionSize;
 
+  /**
+   * The OpenCL buffer was created with {@code CL_MEM_USE_HOST_PTR} over the host segment (see
+   * {@link #canUseHostPointer}). It is owned by this wrapper instead of the buffer provider, and
+   * transfers are map/unmap operations.
+   */
+  private boolean hostPointerBuffer;
+
+  /**
+   * The host segment is passed to kernels as a fine-grained system SVM pointer. There is no device
+   * buffer, and transfers are only synchronization points in the command queue.
+   */
+  private boolean sharedVirtualMemory;
+
   public OCLMemorySegmentWrapper(OCLDeviceContext deviceContext, long batchSize) {
     this.deviceContext = deviceContext;
     this.batchSize = batchSize;
@@ -69,6 +83,18 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
     onDevice = false;
   }
 
+  /**
+   * Uses the host segment in place through shared virtual memory. It must be called before {@link
+   * #allocate}, and only for devices that support fine-grained system SVM.
+   */
+  public void enableSharedVirtualMemory() {
+    this.sharedVirtualMemory = true;
+  }
+
+  public boolean isSharedVirtualMemory() {
+    return sharedVirtualMemory;
+  }
+
   @Override
   public long toBuffer() {
     return this.bufferId;
@@ -117,7 +143,19 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
     segment = getSegmentWithHeader(reference);
     final int returnEvent;
     final long numBytes = getSizeSubRegionSize() > 0 ? getSizeSubRegionSize() : bufferSize;
-    if (partialReadSize != 0) {
+    if (sharedVirtualMemory) {
+      // Wait for the commands that update the segment, then the host can read it
+      returnEvent = deviceContext.enqueueMarker(executionPlanId, useDeps ? events : null);
+      deviceContext.resolveEvent(executionPlanId, returnEvent).waitForEvents(executionPlanId);
+    } else if (hostPointerBuffer) {
+      // The device buffer aliases the segment, so device and host offsets are the same
+      returnEvent =
+          (partialReadSize != 0)
+              ? deviceContext.syncDeviceToHostBuffer(
+                  executionPlanId, toBuffer(), hostOffset, partialReadSize, useDeps ? events : null)
+              : deviceContext.syncDeviceToHostBuffer(
+                  executionPlanId, toBuffer(), 0, bufferSize, useDeps ? events : null);
+    } else if (partialReadSize != 0) {
       // Partial Copy Out due to an under demand copy by the user
       // in this case the host offset is equal to the device offset
       returnEvent =
@@ -160,7 +198,13 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
   public void write(long executionPlanId, Object reference) {
     MemorySegment segment;
     segment = getSegmentWithHeader(reference);
-    if (batchSize <= 0) {
+    if (sharedVirtualMemory) {
+      // Host writes are visible to the kernels enqueued afterwards
+      onDevice = true;
+      return;
+    } else if (hostPointerBuffer) {
+      deviceContext.syncHostBufferToDevice(executionPlanId, toBuffer(), 0, bufferSize, null);
+    } else if (batchSize <= 0) {
       deviceContext.writeBuffer(
           executionPlanId, toBuffer(), bufferOffset, bufferSize, segment.address(), 0, null);
     } else {
@@ -176,7 +220,13 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
     segment = getSegmentWithHeader(reference);
 
     final int returnEvent;
-    if (batchSize <= 0) {
+    if (sharedVirtualMemory) {
+      returnEvent = deviceContext.enqueueMarker(executionPlanId, (useDeps) ? events : null);
+    } else if (hostPointerBuffer) {
+      returnEvent =
+          deviceContext.syncDeviceToHostBuffer(
+              executionPlanId, toBuffer(), 0, bufferSize, (useDeps) ? events : null);
+    } else if (batchSize <= 0) {
       returnEvent =
           deviceContext.enqueueReadBuffer(
               executionPlanId,
@@ -206,7 +256,13 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
     segment = getSegmentWithHeader(reference);
 
     int internalEvent;
-    if (batchSize <= 0) {
+    if (sharedVirtualMemory) {
+      internalEvent = deviceContext.enqueueMarker(executionPlanId, (useDeps) ? events : null);
+    } else if (hostPointerBuffer) {
+      internalEvent =
+          deviceContext.syncHostBufferToDevice(
+              executionPlanId, toBuffer(), 0, bufferSize, (useDeps) ? events : null);
+    } else if (batchSize <= 0) {
       internalEvent =
           deviceContext.enqueueWriteBuffer(
               executionPlanId,
@@ -248,7 +304,22 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
     MemorySegment segment;
     segment = getSegmentWithHeader(reference);
 
-    if (batchSize <= 0) {
+    if (sharedVirtualMemory) {
+      bufferSize = segment.byteSize();
+      bufferId = segment.address();
+      deviceContext.getMemoryManager().registerSVMPointer(bufferId);
+    } else if (batchSize <= 0 && canUseHostPointer(segment)) {
+      bufferSize = segment.byteSize();
+      bufferId =
+          deviceContext
+              .getMemoryManager()
+              .createBuffer(
+                  bufferSize,
+                  OCLMemFlags.CL_MEM_READ_WRITE | OCLMemFlags.CL_MEM_USE_HOST_PTR,
+                  segment.address())
+              .getBuffer();
+      hostPointerBuffer = true;
+    } else if (batchSize <= 0) {
       bufferSize = segment.byteSize();
       bufferId = deviceContext.getBufferProvider().getOrAllocateBufferWithSize(bufferSize);
     } else {
@@ -268,11 +339,29 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
     }
   }
 
+  /**
+   * A host-pointer buffer is only used on devices that share memory with the host. On discrete
+   * devices the driver would stage every map/unmap through a hidden copy, so those keep the buffer
+   * provider and explicit transfers.
+   */
+  private boolean canUseHostPointer(MemorySegment segment) {
+    return TornadoOptions.OPENCL_USE_HOST_POINTER
+        && deviceContext.getDevice().hasDeviceUnifiedMemory()
+        && segment.address() % TornadoOptions.OPENCL_ARRAY_ALIGNMENT == 0;
+  }
+
   @Override
   public void markAsFreeBuffer() throws TornadoMemoryException {
     TornadoInternalError.guarantee(
         bufferId != INIT_VALUE, "Fatal error: trying to deallocate an invalid buffer");
-    deviceContext.getBufferProvider().markBufferReleased(bufferId);
+    if (sharedVirtualMemory) {
+      deviceContext.getMemoryManager().unregisterSVMPointer(bufferId);
+    } else if (hostPointerBuffer) {
+      deviceContext.getMemoryManager().releaseBuffer(bufferId);
+      hostPointerBuffer = false;
+    } else {
+      deviceContext.getBufferProvider().markBufferReleased(bufferId);
+    }
     bufferId = INIT_VALUE;
     bufferSize = INIT_VALUE;
 
@@ -23,13 +23,17 @@
  */
 package uk.ac.manchester.tornado.drivers.opencl.mm;
 
+import java.lang.foreign.MemorySegment;
 import java.lang.reflect.Array;
+import java.util.List;
 import java.util.function.Function;
 import jdk.vm.ci.meta.JavaKind;
 import uk.ac.manchester.tornado.api.exceptions.TornadoMemoryException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException;
+import uk.ac.manchester.tornado.drivers.common.mm.PackedMultiDimLayout;
 import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 
 public class OCLMultiDimArrayWrapper<T, E> extends OCLArrayWrapper<T> {
 
@@ -39,6 +43,14 @@ public class OCLMultiDimArrayWrapper<T, E> extends OCLArrayWrapper<T> {
   private OCLArrayWrapper<E>[] wrappers;
   private final OCLDeviceContext deviceContext;
 
+  // Packed mode: all rows are staged into a single device buffer
+  private final boolean packed;
+  private PackedMultiDimLayout layout;
+  private long packedBufferId = -1;
+  private long packedBufferSize;
+  private long rowBytes;
+  private int rowsPerChunk;
+
   public OCLMultiDimArrayWrapper(
       OCLDeviceContext device,
       Function<OCLDeviceContext, ? extends OCLArrayWrapper<E>> factory,
@@ -47,22 +59,28 @@ public class OCLMultiDimArrayWrapper<T, E> extends OCLArrayWrapper<T> {
     this.deviceContext = device;
     innerWrapperFactory = factory;
     tableWrapper = new OCLLongArrayWrapper(device, batchSize);
+    packed = TornadoOptions.PACKED_MULTIDIM_ARRAYS;
   }
 
   @Override
   public long toBuffer() {
-    return tableWrapper.toBuffer();
+    return packed ? packedBufferId : tableWrapper.toBuffer();
   }
 
   @Override
   public long size() {
-    return tableWrapper.size();
+    return packed ? packedBufferSize : tableWrapper.size();
   }
 
   @Override
   public void allocate(Object value, long batchSize)
       throws TornadoOutOfMemoryException, TornadoMemoryException {
 
+    if (packed) {
+      allocatePacked(value, batchSize);
+      return;
+    }
+
     if (batchSize > 0) {
       throw new TornadoMemoryException(
           "[ERROR] BatchSize Allocation currently not supported. BatchSize = "
@@ -110,6 +128,155 @@ public class OCLMultiDimArrayWrapper<T, E> extends OCLArrayWrapper<T> {
     return deviceContext.enqueueBarrier(executionPlanId);
   }
 
+  private void allocatePacked(Object value, long batchSize) {
+    layout = new PackedMultiDimLayout(PackedMultiDimLayout.elementKindOf(value));
+    final int rows = Array.getLength(value);
+    rowsPerChunk = rows;
+    if (batchSize > 0) {
+      rowBytes = layout.rectangularRowBytes(value);
+      if (rowBytes <= 0 || batchSize % rowBytes != 0) {
+        throw new TornadoMemoryException(
+            "[ERROR] Batch processing of multi-dimensional arrays requires rectangular arrays and a"
+                + " batch size multiple of the row size. BatchSize = "
+                + batchSize
+                + " (bytes)");
+      }
+      rowsPerChunk = (int) Math.min(rows, batchSize / rowBytes);
+    }
+    packedBufferSize = layout.compute(value, 0, rowsPerChunk);
+    if (packedBufferSize <= 0) {
+      throw new TornadoMemoryException("[ERROR] Bytes Allocated <= 0: " + packedBufferSize);
+    }
+    packedBufferId =
+        deviceContext.getBufferProvider().getOrAllocateBufferWithSize(packedBufferSize);
+  }
+
+  private void computeChunk(Object value, long hostOffset) {
+    int firstRow = (hostOffset > 0 && rowBytes > 0) ? (int) (hostOffset / rowBytes) : 0;
+    int numRows = Math.min(rowsPerChunk, Array.getLength(value) - firstRow);
+    layout.compute(value, firstRow, numRows);
+  }
+
+  private int writePacked(long executionPlanId, Object value, long hostOffset, int[] events) {
+    computeChunk(value, hostOffset);
+    MemorySegment staging = layout.gather(value, packedBufferId);
+    return deviceContext.enqueueWriteBuffer(
+        executionPlanId, packedBufferId, 0, layout.size(), staging.address(), 0, events);
+  }
+
+  private int readPacked(long executionPlanId, Object value, long hostOffset, int[] events) {
+    computeChunk(value, hostOffset);
+    MemorySegment staging = layout.staging();
+    int event =
+        deviceContext.readBuffer(
+            executionPlanId, packedBufferId, 0, layout.size(), staging.address(), 0, events);
+    layout.scatter(value);
+    return event;
+  }
+
+  /**
+   * Enqueues the read of the rows of the device image straight into the rows of the host array.
+   * Unlike {@link #readPacked}, it does not wait for the transfer: every row waits for the given
+   * events, and the returned barrier completes once all rows have been copied.
+   */
+  private int enqueueReadPacked(long executionPlanId, Object value, long hostOffset, int[] events) {
+    computeChunk(value, hostOffset);
+    for (int i = 0; i < layout.getNumRows(); i++) {
+      final Object row = Array.get(value, layout.getFirstRow() + i);
+      final long bytes = layout.rowDataBytes(row);
+      if (bytes > 0) {
+        enqueueReadRow(executionPlanId, layout.rowDataOffset(i), bytes, row, events);
+      }
+    }
+    return deviceContext.enqueueBarrier(executionPlanId);
+  }
+
+  private void enqueueReadRow(
+      long executionPlanId, long offset, long bytes, Object row, int[] events) {
+    final long id = packedBufferId;
+    switch (row) {
+      case byte[] r ->
+          deviceContext.enqueueReadBuffer(executionPlanId, id, offset, bytes, r, 0, events);
+      case char[] r ->
+          deviceContext.enqueueReadBuffer(executionPlanId, id, offset, bytes, r, 0, events);
+      case short[] r ->
+          deviceContext.enqueueReadBuffer(executionPlanId, id, offset, bytes, r, 0, events);
+      case int[] r ->
+          deviceContext.enqueueReadBuffer(executionPlanId, id, offset, bytes, r, 0, events);
+      case long[] r ->
+          deviceContext.enqueueReadBuffer(executionPlanId, id, offset, bytes, r, 0, events);
+      case float[] r ->
+          deviceContext.enqueueReadBuffer(executionPlanId, id, offset, bytes, r, 0, events);
+      case double[] r ->
+          deviceContext.enqueueReadBuffer(executionPlanId, id, offset, bytes, r, 0, events);
+      default ->
+          throw new TornadoMemoryException("[ERROR] Unsupported row type: " + row.getClass());
+    }
+  }
+
+  @Override
+  public List<Integer> enqueueWrite(
+      long executionPlanId,
+      Object value,
+      long batchSize,
+      long hostOffset,
+      int[] events,
+      boolean useDeps) {
+    if (!packed) {
+      return super.enqueueWrite(executionPlanId, value, batchSize, hostOffset, events, useDeps);
+    }
+    return List.of(writePacked(executionPlanId, value, hostOffset, useDeps ? events : null));
+  }
+
+  @Override
+  public int enqueueRead(
+      long executionPlanId, Object value, long hostOffset, int[] events, boolean useDeps) {
+    if (!packed) {
+      return super.enqueueRead(executionPlanId, value, hostOffset, events, useDeps);
+    }
+    int event = enqueueReadPacked(executionPlanId, value, hostOffset, useDeps ? events : null);
+    return useDeps ? event : -1;
+  }
+
+  @Override
+  public int read(
+      long executionPlanId,
+      Object value,
+      long hostOffset,
+      long partialReadSize,
+      int[] events,
+      boolean useDeps) {
+    if (!packed) {
+      return super.read(executionPlanId, value, hostOffset, partialReadSize, events, useDeps);
+    }
+    return readPacked(executionPlanId, value, hostOffset, useDeps ? events : null);
+  }
+
+  @Override
+  public void write(long executionPlanId, Object value) {
+    if (!packed) {
+      super.write(executionPlanId, value);
+      return;
+    }
+    layout.compute(value, 0, Math.min(rowsPerChunk, Array.getLength(value)));
+    MemorySegment staging = layout.gather(value, packedBufferId);
+    deviceContext.writeBuffer(
+        executionPlanId, packedBufferId, 0, layout.size(), staging.address(), 0, null);
+  }
+
+  @Override
+  public void markAsFreeBuffer() {
+    if (!packed) {
+      super.markAsFreeBuffer();
+      return;
+    }
+    if (packedBufferId != -1) {
+      deviceContext.getBufferProvider().markBufferReleased(packedBufferId);
+      packedBufferId = -1;
+      packedBufferSize = 0;
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private E[] innerCast(T value) {
     return (E[]) value;
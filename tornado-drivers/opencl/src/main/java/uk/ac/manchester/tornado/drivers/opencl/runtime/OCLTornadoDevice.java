@@ -46,6 +46,7 @@ import uk.ac.manchester.tornado.api.enums.TornadoDeviceType;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
+import uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException;
 import uk.ac.manchester.tornado.api.internal.annotations.Vector;
 import uk.ac.manchester.tornado.api.memory.DeviceBufferState;
 import uk.ac.manchester.tornado.api.memory.TornadoMemoryProvider;
@@ -87,6 +88,7 @@ import uk.ac.manchester.tornado.drivers.opencl.mm.OCLShortArrayWrapper;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLVectorWrapper;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLXPUBuffer;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.common.KernelShapeCache;
 import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
@@ -95,6 +97,7 @@ import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy;
 import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
 import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
+import uk.ac.manchester.tornado.runtime.jfr.CompilationEvent;
 import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
 import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
 import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
@@ -255,11 +258,33 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
         TornadoSketcher.lookup(
             resolvedMethod, task.meta().getBackendIndex(), task.meta().getDeviceIndex());
 
+    // Shape-polymorphic kernels are reused across input sizes
+    if (isShapePolymorphicTask(executable)
+        && !OCLBackend.isDeviceAnFPGAAccelerator(deviceContext)) {
+      return deviceContext
+          .getCodeCache()
+          .getShapeCache()
+          .lookupOrCompile(
+              executable,
+              resolvedMethod.getName(),
+              (t, variantKey) -> compileSketch(t, sketch, variantKey));
+    }
+
     // Return the code from the cache
     if (!task.shouldCompile() && deviceContext.isCached(task.getId(), resolvedMethod.getName())) {
       return deviceContext.getInstalledCode(task.getId(), resolvedMethod.getName());
     }
+    return compileSketch(executable, sketch, null);
+  }
 
+  private boolean isShapePolymorphicTask(CompilableTask task) {
+    return task.meta().isShapePolymorphicEnabled() && task.getBatchThreads() <= 0;
+  }
+
+  private TornadoInstalledCode compileSketch(
+      CompilableTask executable, Sketch sketch, String variantKey) {
+    final OCLDeviceContextInterface deviceContext = getDeviceContext();
+    final SchedulableTask task = executable;
     // copy meta data into task
     final TaskDataContext taskMeta = executable.meta();
     final Access[] sketchAccess = sketch.getArgumentsAccess();
@@ -269,6 +294,8 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
     try {
       OCLProviders providers = (OCLProviders) getBackend().getProviders();
       TornadoProfiler profiler = task.getProfiler();
+      CompilationEvent graalEvent = new CompilationEvent();
+      graalEvent.begin();
       profiler.start(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
       final OCLCompilationResult result =
           OCLCompiler.compileSketchForDevice(
@@ -290,10 +317,13 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
       }
 
       profiler.stop(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
+      graalEvent.record(CompilationEvent.GRAAL, taskMeta.getId(), this);
       profiler.sum(
           ProfilerType.TOTAL_GRAAL_COMPILE_TIME,
           profiler.getTaskTimer(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId()));
 
+      CompilationEvent driverEvent = new CompilationEvent();
+      driverEvent.begin();
       profiler.start(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
       // Compile the code
       OCLInstalledCode installedCode;
@@ -305,11 +335,15 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
                 result.getName(),
                 result.getTargetCode(),
                 task.meta().isPrintKernelEnabled());
+      } else if (variantKey != null) {
+        // B) shape-polymorphic variant for CPU multi-core or GPU
+        installedCode = deviceContext.installShapeVariant(result, variantKey);
       } else {
-        // B) for CPU multi-core or GPU
+        // C) for CPU multi-core or GPU
         installedCode = deviceContext.installCode(result);
       }
       profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+      driverEvent.record(CompilationEvent.DRIVER_BUILD, taskMeta.getId(), this);
       profiler.sum(
           ProfilerType.TOTAL_DRIVER_COMPILE_TIME,
           profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
@@ -407,6 +441,12 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
     }
   }
 
+  @Override
+  public KernelShapeCache getShapeCache() {
+    OCLCodeCache codeCache = getDeviceContext().getCodeCache();
+    return codeCache == null ? null : codeCache.getShapeCache();
+  }
+
   @Override
   public boolean isFullJITMode(SchedulableTask task) {
     final OCLDeviceContextInterface deviceContext = getDeviceContext();
@@ -662,8 +702,19 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
     buffer =
         createDeviceBuffer(
             object.getClass(), object, (OCLDeviceContext) getDeviceContext(), batchSize);
+    if (buffer instanceof OCLMemorySegmentWrapper segmentWrapper
+        && deviceObjectState.isSharedVirtualMemory()
+        && batchSize <= 0
+        && getPhysicalDevice().isSystemSVMSupported()) {
+      segmentWrapper.enableSharedVirtualMemory();
+    }
     deviceObjectState.setXPUBuffer(buffer);
-    buffer.allocate(object, batchSize);
+    try {
+      getDeviceContext().getBufferProvider().getEvictionManager().allocate(buffer, object, batchSize);
+    } catch (TornadoOutOfMemoryException e) {
+      deviceObjectState.setXPUBuffer(null);
+      throw e;
+    }
     return buffer;
   }
 
@@ -682,12 +733,14 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
     if (buffer.getClass() == AtomicsBuffer.class) {
       state.setAtomicRegion();
     }
+    getDeviceContext().getBufferProvider().getEvictionManager().acquire(state, object);
     return state.getXPUBuffer().size();
   }
 
   @Override
   public synchronized long deallocate(DeviceBufferState deviceBufferState) {
     long deallocatedSpace = 0;
+    getDeviceContext().getBufferProvider().getEvictionManager().release(deviceBufferState);
     if (deviceBufferState.isLockedBuffer()) {
       return deallocatedSpace;
     }
@@ -891,6 +944,31 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
     // OpenCL device context is shared by different threads, by default
   }
 
+  @Override
+  public boolean beginLaunchRecording(long executionPlanId) {
+    return getDeviceContext().beginLaunchRecording(executionPlanId);
+  }
+
+  @Override
+  public boolean endLaunchRecording(long executionPlanId) {
+    return getDeviceContext().endLaunchRecording(executionPlanId);
+  }
+
+  @Override
+  public boolean replayLaunches(long executionPlanId) {
+    return getDeviceContext().replayLaunches(executionPlanId);
+  }
+
+  @Override
+  public void discardLaunchRecording(long executionPlanId) {
+    getDeviceContext().discardLaunchRecording(executionPlanId);
+  }
+
+  @Override
+  public void setProfilerEnabled(long executionPlanId, boolean enabled) {
+    getDeviceContext().setProfilerEnabled(executionPlanId, enabled);
+  }
+
   @Override
   public void setAtomicRegion(XPUBuffer bufferAtomics) {
     reuseBuffer = bufferAtomics;
@@ -29,7 +29,6 @@ import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
 import uk.ac.manchester.tornado.drivers.opencl.OCLGridInfo;
 import uk.ac.manchester.tornado.drivers.opencl.OCLKernel;
-import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
 
 public abstract class OCLKernelScheduler {
@@ -71,7 +70,7 @@ public abstract class OCLKernelScheduler {
 
   private void updateProfiler(
       long executionPlanId, final int taskEvent, final TaskDataContext meta) {
-    if (TornadoOptions.isProfilerEnabled()) {
+    if (deviceContext.isProfilerEnabled(executionPlanId)) {
       Event tornadoKernelEvent = deviceContext.resolveEvent(executionPlanId, taskEvent);
       tornadoKernelEvent.waitForEvents(executionPlanId);
       long timer = meta.getProfiler().getTimer(ProfilerType.TOTAL_KERNEL_TIME);
@@ -100,9 +99,9 @@ public abstract class OCLKernelScheduler {
       long batchThreads) {
     if (meta.isWorkerGridAvailable()) {
       WorkerGrid grid = meta.getWorkerGrid(meta.getId());
-      long[] global = grid.getGlobalWork();
       long[] offset = grid.getGlobalOffset();
       long[] local = grid.getLocalWork();
+      long[] global = meta.coarsenGlobalWork(grid.getGlobalWork(), local);
       return deviceContext.enqueueNDRangeKernel(
           executionPlanId, kernel, grid.dimension(), offset, global, local, waitEvents);
     } else {
@@ -144,6 +143,19 @@ public abstract class OCLKernelScheduler {
     }
   }
 
+  /**
+   * Reduces the global work of a task by its thread-coarsening factors. The local work is computed
+   * afterwards from the coarsened global work, unless it has been defined by the user.
+   *
+   * @param meta TaskMetaData.
+   */
+  private void coarsenGlobalWork(final TaskDataContext meta) {
+    final long[] globalWork = meta.getGlobalWork();
+    final long[] coarsened =
+        meta.coarsenGlobalWork(globalWork, meta.isLocalWorkDefined() ? meta.getLocalWork() : null);
+    System.arraycopy(coarsened, 0, globalWork, 0, globalWork.length);
+  }
+
   public int submit(
       long executionPlanId,
       final OCLKernel kernel,
@@ -153,6 +165,7 @@ public abstract class OCLKernelScheduler {
     if (!meta.isWorkerGridAvailable()) {
       if (!meta.isGlobalWorkDefined()) {
         calculateGlobalWork(meta, batchThreads);
+        coarsenGlobalWork(meta);
       }
       if (!meta.isLocalWorkDefined()) {
         calculateLocalWork(meta);
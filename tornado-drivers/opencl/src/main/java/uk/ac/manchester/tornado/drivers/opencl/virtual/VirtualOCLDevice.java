@@ -178,6 +178,7 @@ public class VirtualOCLDevice implements OCLTargetDevice {
     return deviceAddressBits;
   }
 
+  @Override
   public boolean hasDeviceUnifiedMemory() {
     return false;
   }
@@ -207,6 +208,11 @@ public class VirtualOCLDevice implements OCLTargetDevice {
     return true;
   }
 
+  @Override
+  public boolean isSystemSVMSupported() {
+    return false;
+  }
+
   public int getWordSize() {
     return getDeviceAddressBits() >> 3;
   }
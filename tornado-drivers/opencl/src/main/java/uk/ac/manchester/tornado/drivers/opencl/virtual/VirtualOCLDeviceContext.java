@@ -216,6 +216,11 @@ public class VirtualOCLDeviceContext implements OCLDeviceContextInterface {
     return null;
   }
 
+  @Override
+  public OCLInstalledCode installShapeVariant(OCLCompilationResult result, String variantKey) {
+    return null;
+  }
+
   @Override
   public OCLInstalledCode installCode(
       String id, String entryPoint, byte[] code, boolean printKernel) {
@@ -26,16 +26,22 @@ package uk.ac.manchester.tornado.drivers.ptx;
 import java.util.concurrent.ConcurrentHashMap;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.drivers.ptx.graal.PTXInstalledCode;
+import uk.ac.manchester.tornado.runtime.common.KernelShapeCache;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 
 public class PTXCodeCache {
 
   private final PTXDeviceContext deviceContext;
   private final ConcurrentHashMap<String, PTXInstalledCode> cache;
+  private final KernelShapeCache shapeCache;
+  // Variant key (see KernelShapeCache#variantKey) -> shape-polymorphic kernel
+  private final ConcurrentHashMap<String, PTXInstalledCode> shapeVariants;
 
   public PTXCodeCache(PTXDeviceContext deviceContext) {
     this.deviceContext = deviceContext;
     cache = new ConcurrentHashMap<>();
+    shapeVariants = new ConcurrentHashMap<>();
+    shapeCache = new KernelShapeCache(this::evictShapeVariant);
   }
 
   public PTXInstalledCode installSource(
@@ -60,6 +66,40 @@ public class PTXCodeCache {
     return cache.get(name);
   }
 
+  /**
+   * Installs a shape-polymorphic variant of a kernel. Variants share the kernel name, so they are
+   * indexed by their variant key instead, and they are invalidated when the {@link
+   * KernelShapeCache} evicts them.
+   */
+  public PTXInstalledCode installShapeVariant(
+      String name,
+      byte[] targetCode,
+      String resolvedMethodName,
+      boolean debugKernel,
+      String variantKey) {
+    if (debugKernel) {
+      RuntimeUtilities.dumpKernel(targetCode);
+    }
+    PTXModule module = new PTXModule(resolvedMethodName, targetCode, name);
+    if (!module.isPTXJITSuccess()) {
+      throw new TornadoBailoutRuntimeException("PTX JIT compilation failed!");
+    }
+    PTXInstalledCode code = new PTXInstalledCode(name, module, deviceContext);
+    shapeVariants.put(variantKey, code);
+    return code;
+  }
+
+  private void evictShapeVariant(String variantKey) {
+    PTXInstalledCode code = shapeVariants.remove(variantKey);
+    if (code != null) {
+      code.invalidate();
+    }
+  }
+
+  public KernelShapeCache getShapeCache() {
+    return shapeCache;
+  }
+
   public PTXInstalledCode getCachedCode(String name) {
     return cache.get(name);
   }
@@ -73,5 +113,10 @@ public class PTXCodeCache {
       code.invalidate();
     }
     cache.clear();
+    shapeCache.reset();
+    for (PTXInstalledCode code : shapeVariants.values()) {
+      code.invalidate();
+    }
+    shapeVariants.clear();
   }
 }
@@ -69,6 +69,9 @@ public class PTXDeviceContext implements TornadoDeviceContext {
   private boolean wasReset;
   private Set<Long> executionIDs;
 
+  /** Execution plans whose current execution is not profiled (e.g., not sampled). */
+  private final Set<Long> plansWithoutProfiler;
+
   public PTXDeviceContext(PTXDevice device) {
     this.device = device;
     streamTable = new ConcurrentHashMap<>();
@@ -79,6 +82,7 @@ public class PTXDeviceContext implements TornadoDeviceContext {
     bufferProvider = new PTXBufferProvider(this);
     wasReset = false;
     executionIDs = Collections.synchronizedSet(new HashSet<>());
+    plansWithoutProfiler = ConcurrentHashMap.newKeySet();
   }
 
   @Override
@@ -245,8 +249,26 @@ public class PTXDeviceContext implements TornadoDeviceContext {
     sync(executionPlanId);
   }
 
+  /**
+   * Sets whether the profiler records the current execution of an execution plan. The launch and
+   * transfer paths only wait for and query events of the plan when it is enabled.
+   */
+  public void setProfilerEnabled(long executionPlanId, boolean enabled) {
+    if (enabled) {
+      plansWithoutProfiler.remove(executionPlanId);
+    } else {
+      plansWithoutProfiler.add(executionPlanId);
+    }
+    getStream(executionPlanId).setProfilerEnabled(isProfilerEnabled(executionPlanId));
+  }
+
+  public boolean isProfilerEnabled(long executionPlanId) {
+    return TornadoOptions.isProfilerEnabled() && !plansWithoutProfiler.contains(executionPlanId);
+  }
+
   @Override
   public void reset(long executionPlanId) {
+    plansWithoutProfiler.remove(executionPlanId);
     PTXStreamTable table = streamTable.get(executionPlanId);
     if (table != null) {
       table.cleanup(device);
@@ -270,14 +292,15 @@ public class PTXDeviceContext implements TornadoDeviceContext {
     int[] gridDimension = {1, 1, 1};
     if (taskMeta.isWorkerGridAvailable()) {
       WorkerGrid grid = taskMeta.getWorkerGrid(taskMeta.getId());
-      int[] global = Arrays.stream(grid.getGlobalWork()).mapToInt(l -> (int) l).toArray();
+      long[] globalWork = taskMeta.coarsenGlobalWork(grid.getGlobalWork(), grid.getLocalWork());
+      int[] global = Arrays.stream(globalWork).mapToInt(l -> (int) l).toArray();
       if (grid.getLocalWork() != null) {
         blockDimension = Arrays.stream(grid.getLocalWork()).mapToInt(l -> (int) l).toArray();
       } else {
 
         blockDimension =
             scheduler.calculateBlockDimension(
-                grid.getGlobalWork(),
+                globalWork,
                 module.getPotentialBlockSizeMaxOccupancy(),
                 grid.dimension(),
                 module.javaName);
@@ -289,7 +312,7 @@ public class PTXDeviceContext implements TornadoDeviceContext {
       if (!checkedDimensions) {
         blockDimension =
             scheduler.calculateBlockDimension(
-                grid.getGlobalWork(),
+                globalWork,
                 module.getPotentialBlockSizeMaxOccupancy(),
                 grid.dimension(),
                 module.javaName);
@@ -368,7 +391,7 @@ public class PTXDeviceContext implements TornadoDeviceContext {
       int kernelContextWriteEventId,
       TaskDataContext meta,
       PTXKernelStackFrame callWrapper) {
-    if (TornadoOptions.isProfilerEnabled()) {
+    if (isProfilerEnabled(executionPlanId)) {
       TornadoProfiler profiler = meta.getProfiler();
       Event event = resolveEvent(executionPlanId, kernelContextWriteEventId);
       event.waitForEvents(executionPlanId);
@@ -386,7 +409,7 @@ public class PTXDeviceContext implements TornadoDeviceContext {
 
   private void updateProfiler(
       long executionPlanId, final int taskEvent, final TaskDataContext meta) {
-    if (TornadoOptions.isProfilerEnabled()) {
+    if (isProfilerEnabled(executionPlanId)) {
       Event tornadoKernelEvent = resolveEvent(executionPlanId, taskEvent);
       tornadoKernelEvent.waitForEvents(executionPlanId);
       long timer = meta.getProfiler().getTimer(ProfilerType.TOTAL_KERNEL_TIME);
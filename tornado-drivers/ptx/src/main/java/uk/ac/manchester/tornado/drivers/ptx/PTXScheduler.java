@@ -53,6 +53,9 @@ public class PTXScheduler {
           (batchThreads <= 0) ? (long) (meta.getDomain().get(i).cardinality()) : batchThreads;
       globalWork[i] = value;
     }
+    final long[] coarsened =
+        meta.coarsenGlobalWork(globalWork, meta.isLocalWorkDefined() ? meta.getLocalWork() : null);
+    System.arraycopy(coarsened, 0, globalWork, 0, globalWork.length);
   }
 
   public int[] calculateBlockDimension(PTXModule module, TaskDataContext taskMeta) {
@@ -42,10 +42,20 @@ public class PTXStream {
   private final byte[] streamPool;
   private final PTXEventPool ptxEventPool;
   private boolean isDestroy;
+  private boolean isProfilerEnabled;
 
   public PTXStream() {
     streamPool = cuCreateStream();
     this.ptxEventPool = new PTXEventPool(EVENT_WINDOW);
+    this.isProfilerEnabled = TornadoOptions.isProfilerEnabled();
+  }
+
+  /**
+   * Sets whether the events recorded in this stream keep timing information, following the
+   * profiler decision for the current execution.
+   */
+  public void setProfilerEnabled(boolean isProfilerEnabled) {
+    this.isProfilerEnabled = isProfilerEnabled;
   }
 
   // @formatter:off
@@ -176,7 +186,7 @@ public class PTXStream {
 
   private int registerEvent(EventDescriptor descriptorId) {
     return ptxEventPool.registerEvent(
-        cuEventCreateAndRecord(TornadoOptions.isProfilerEnabled(), streamPool), descriptorId);
+        cuEventCreateAndRecord(isProfilerEnabled, streamPool), descriptorId);
   }
 
   private int registerEvent(byte[][] eventWrapper, EventDescriptor descriptorId) {
@@ -53,6 +53,25 @@ public class PTXIntrinsics {
    */
   public static native void globalBarrier();
 
+  /**
+   * <code>
+   * membar.gl;
+   * </code>
+   */
+  public static native void globalMemFence();
+
+  /**
+   * Atomically increments the 32-bit counter stored in the given element of the array and returns
+   * its previous value. Used by single-pass reductions to detect the last block.
+   */
+  public static native int reductionTicket(int[] array, int index);
+
+  public static native int reductionTicket(long[] array, int index);
+
+  public static native int reductionTicket(float[] array, int index);
+
+  public static native int reductionTicket(double[] array, int index);
+
   public static native void printf();
 
   public static native void printEmpty();
@@ -86,6 +86,7 @@ import org.graalvm.compiler.phases.util.Providers;
 import org.graalvm.compiler.replacements.DefaultJavaLoweringProvider;
 import org.graalvm.compiler.replacements.SnippetCounter;
 import org.graalvm.word.LocationIdentity;
+import uk.ac.manchester.tornado.drivers.common.compiler.phases.loops.ReductionLoopShape;
 import uk.ac.manchester.tornado.drivers.providers.TornadoMemoryOrder;
 import uk.ac.manchester.tornado.drivers.ptx.graal.lir.PTXKind;
 import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.CastNode;
@@ -96,14 +97,17 @@ import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.GroupIdNode;
 import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.LocalArrayNode;
 import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.LocalThreadIdNode;
 import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.LocalThreadSizeNode;
+import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.PTXAtomicArrayNode;
 import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.calc.DivNode;
 import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.vector.LoadIndexedVectorNode;
 import uk.ac.manchester.tornado.drivers.ptx.graal.snippets.PTXGPUReduceSnippets;
 import uk.ac.manchester.tornado.runtime.TornadoVMConfigAccess;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.graal.nodes.GetGroupIdFixedWithNextNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.GlobalGroupSizeFixedWithNextNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.LocalGroupSizeFixedWithNextNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.NewArrayNonVirtualizableNode;
+import uk.ac.manchester.tornado.runtime.graal.nodes.ReductionTicketNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.StoreAtomicIndexedNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.ThreadIdFixedWithNextNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.ThreadLocalIdFixedWithNextNode;
@@ -277,6 +281,8 @@ public class PTXLoweringProvider extends DefaultJavaLoweringProvider {
       lowerGlobalGroupSizeNode((GlobalGroupSizeFixedWithNextNode) node);
     } else if (node instanceof LocalGroupSizeFixedWithNextNode) {
       lowerLocalGroupSizeNode((LocalGroupSizeFixedWithNextNode) node);
+    } else if (node instanceof ReductionTicketNode) {
+      lowerReductionTicketNode((ReductionTicketNode) node);
     } else {
       super.lower(node, tool);
     }
@@ -400,7 +406,30 @@ public class PTXLoweringProvider extends DefaultJavaLoweringProvider {
         break;
       }
     }
-    if (node instanceof StoreAtomicIndexedNode storeAtomicIndexedNode) {
+    if (TornadoOptions.REDUCE_SINGLE_PASS) {
+      ReductionLoopShape loopShape = ReductionLoopShape.analyse(threadID);
+      if (node instanceof StoreAtomicIndexedNode storeAtomicIndexedNode) {
+        gpuReduceSnippets.lowerSinglePass(
+            storeAtomicIndexedNode,
+            storeAtomicIndexedNode.elementKind(),
+            storeAtomicIndexedNode.value(),
+            storeAtomicIndexedNode.getExtraOperation(),
+            storeAtomicIndexedNode.array(),
+            storeAtomicIndexedNode.getInputArray(),
+            loopShape,
+            tool);
+      } else if (node instanceof WriteAtomicNode writeAtomicNode) {
+        gpuReduceSnippets.lowerSinglePass(
+            writeAtomicNode,
+            writeAtomicNode.getElementKind(),
+            writeAtomicNode.value(),
+            writeAtomicNode.getExtraOperation(),
+            writeAtomicNode.getOutArray(),
+            writeAtomicNode.getInputArray(),
+            loopShape,
+            tool);
+      }
+    } else if (node instanceof StoreAtomicIndexedNode storeAtomicIndexedNode) {
       gpuReduceSnippets.lower(storeAtomicIndexedNode, threadID, tool);
     } else if (node instanceof WriteAtomicNode writeAtomicNode) {
       gpuReduceSnippets.lower(writeAtomicNode, threadID, tool);
@@ -442,6 +471,21 @@ public class PTXLoweringProvider extends DefaultJavaLoweringProvider {
     graph.replaceFixedWithFloating(threadLocalIdNode, localThreadIdNode);
   }
 
+  private void lowerReductionTicketNode(ReductionTicketNode ticketNode) {
+    StructuredGraph graph = ticketNode.graph();
+    AddressNode address =
+        createArrayAddress(graph, ticketNode.array(), ticketNode.elementKind(), ticketNode.index());
+    PTXAtomicArrayNode atomicNode =
+        graph.add(
+            new PTXAtomicArrayNode(
+                PTXAtomicArrayNode.Operation.ADD,
+                JavaKind.Int,
+                address,
+                ConstantNode.forInt(1, graph),
+                null));
+    graph.replaceFixedWithFixed(ticketNode, atomicNode);
+  }
+
   private void lowerGetGroupIdNode(GetGroupIdFixedWithNextNode getGroupIdNode) {
     StructuredGraph graph = getGroupIdNode.graph();
     GroupIdNode groupIdNode =
@@ -556,6 +556,8 @@ public class PTXAssembler extends Assembler {
     // @formatter:off
     public static final PTXUnaryIntrinsic BARRIER_SYNC =
         new PTXUnaryIntrinsic("barrier.sync", null, false, false);
+    public static final PTXUnaryIntrinsic MEMBAR_GL =
+        new PTXUnaryIntrinsic("membar.gl", null, false, false);
 
     public static final PTXUnaryIntrinsic ABS = new PTXUnaryIntrinsic("abs", null);
     public static final PTXUnaryIntrinsic EXP2 = new PTXUnaryIntrinsic("ex2.approx", null);
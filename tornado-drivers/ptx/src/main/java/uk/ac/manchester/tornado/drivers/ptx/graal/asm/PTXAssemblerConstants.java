@@ -95,6 +95,10 @@ public class PTXAssemblerConstants {
 
   public static final String CALL = "call";
 
+  // Member mask of the warp-level instructions (shfl.sync, vote.sync) with every thread of the warp
+  public static final String FULL_WARP_MASK = "0xffffffff";
+  public static final int WARP_SIZE = 32;
+
   /**
    * This constant number corresponds to the calculation of the (pi/180) number, which is used to
    * convert degrees to radians.
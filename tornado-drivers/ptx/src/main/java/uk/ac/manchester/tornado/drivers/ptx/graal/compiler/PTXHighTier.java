@@ -55,6 +55,7 @@ import uk.ac.manchester.tornado.drivers.ptx.graal.phases.TornadoHalfFloatReplace
 import uk.ac.manchester.tornado.drivers.ptx.graal.phases.TornadoPTXIntrinsicsReplacements;
 import uk.ac.manchester.tornado.drivers.ptx.graal.phases.TornadoParallelScheduler;
 import uk.ac.manchester.tornado.drivers.ptx.graal.phases.TornadoTaskSpecialisation;
+import uk.ac.manchester.tornado.drivers.ptx.graal.phases.TornadoThreadCoarsening;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoHighTier;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoInliningPolicy;
@@ -110,7 +111,9 @@ public class PTXHighTier extends TornadoHighTier {
 
     appendPhase(new TornadoShapeAnalysis());
     appendPhase(canonicalizer);
-    appendPhase(new TornadoParallelScheduler());
+    TornadoParallelScheduler parallelScheduler = new TornadoParallelScheduler();
+    appendPhase(new TornadoThreadCoarsening(parallelScheduler));
+    appendPhase(parallelScheduler);
     appendPhase(new SchedulePhase(SchedulePhase.SchedulingStrategy.EARLIEST));
 
     LoopPolicies loopPolicies = new DefaultLoopPolicies();
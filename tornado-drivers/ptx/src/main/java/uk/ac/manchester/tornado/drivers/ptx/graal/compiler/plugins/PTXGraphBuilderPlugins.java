@@ -41,6 +41,7 @@ import static uk.ac.manchester.tornado.drivers.ptx.graal.nodes.PTXIntUnaryIntrin
 
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
+import java.util.Map;
 import jdk.vm.ci.meta.JavaConstant;
 import jdk.vm.ci.meta.JavaKind;
 import jdk.vm.ci.meta.ResolvedJavaMethod;
@@ -70,9 +71,11 @@ import org.graalvm.word.LocationIdentity;
 import uk.ac.manchester.tornado.api.KernelContext;
 import uk.ac.manchester.tornado.api.exceptions.Debug;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.types.utils.SegmentAtomics;
 import uk.ac.manchester.tornado.drivers.ptx.graal.PTXArchitecture;
 import uk.ac.manchester.tornado.drivers.ptx.graal.lir.PTXKind;
 import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.LocalArrayNode;
+import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.PTXAtomicArrayNode;
 import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.PTXBarrierNode;
 import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.PTXFPBinaryIntrinsicNode;
 import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.PTXFPUnaryIntrinsicNode;
@@ -94,7 +97,9 @@ public class PTXGraphBuilderPlugins {
     PTXVectorPlugins.registerPlugins(ps, plugins);
     PTXHalfFloatPlugin.registerPlugins(ps, plugins);
     registerMemoryAccessPlugins(plugins);
+    registerSegmentAtomicsPlugins(plugins);
     registerKernelContextPlugins(plugins);
+    PTXSubGroupPlugins.registerPlugins(plugins);
   }
 
   private static void registerTornadoInstrinsicsPlugins(InvocationPlugins plugins) {
@@ -614,6 +619,72 @@ public class PTXGraphBuilderPlugins {
     }
   }
 
+  private static AddressNode segmentElementAddress(
+      GraphBuilderContext b, ValueNode segment, ValueNode index, JavaKind kind) {
+    MulNode mulNode = b.append(new MulNode(index, ConstantNode.forInt(kind.getByteCount())));
+    return b.append(new OffsetAddressNode(segment, mulNode));
+  }
+
+  private static void registerSegmentAtomicsPlugins(InvocationPlugins plugins) {
+    Registration r = new Registration(plugins, SegmentAtomics.class);
+
+    final Map<String, PTXAtomicArrayNode.Operation> operations =
+        Map.of(
+            "getAndAdd", PTXAtomicArrayNode.Operation.ADD,
+            "getAndMin", PTXAtomicArrayNode.Operation.MIN,
+            "getAndMax", PTXAtomicArrayNode.Operation.MAX,
+            "getAndSet", PTXAtomicArrayNode.Operation.EXCHANGE);
+
+    for (JavaKind kind : new JavaKind[] {JavaKind.Int, JavaKind.Long, JavaKind.Float}) {
+      operations.forEach(
+          (name, operation) ->
+              r.register(
+                  new InvocationPlugin(name, MemorySegment.class, long.class, kind.toJavaClass()) {
+                    @Override
+                    public boolean apply(
+                        GraphBuilderContext b,
+                        ResolvedJavaMethod targetMethod,
+                        Receiver receiver,
+                        ValueNode segment,
+                        ValueNode index,
+                        ValueNode value) {
+                      AddressNode address = segmentElementAddress(b, segment, index, kind);
+                      b.addPush(
+                          kind, new PTXAtomicArrayNode(operation, kind, address, value, null));
+                      return true;
+                    }
+                  }));
+      r.register(
+          new InvocationPlugin(
+              "compareAndExchange",
+              MemorySegment.class,
+              long.class,
+              kind.toJavaClass(),
+              kind.toJavaClass()) {
+            @Override
+            public boolean apply(
+                GraphBuilderContext b,
+                ResolvedJavaMethod targetMethod,
+                Receiver receiver,
+                ValueNode segment,
+                ValueNode index,
+                ValueNode expected,
+                ValueNode value) {
+              AddressNode address = segmentElementAddress(b, segment, index, kind);
+              b.addPush(
+                  kind,
+                  new PTXAtomicArrayNode(
+                      PTXAtomicArrayNode.Operation.COMPARE_AND_EXCHANGE,
+                      kind,
+                      address,
+                      value,
+                      expected));
+              return true;
+            }
+          });
+    }
+  }
+
   public static void registerNewInstancePlugins(Plugins plugins) {
     plugins.appendNodePlugin(new PTXVectorNodePlugin());
   }
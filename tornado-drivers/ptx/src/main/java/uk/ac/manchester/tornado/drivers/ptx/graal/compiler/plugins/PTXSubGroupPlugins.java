@@ -0,0 +1,295 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.ptx.graal.compiler.plugins;
+
+import static uk.ac.manchester.tornado.drivers.ptx.graal.asm.PTXAssemblerConstants.WARP_SIZE;
+import static uk.ac.manchester.tornado.drivers.ptx.graal.nodes.PTXFPBinaryIntrinsicNode.Operation.FMAX;
+import static uk.ac.manchester.tornado.drivers.ptx.graal.nodes.PTXFPBinaryIntrinsicNode.Operation.FMIN;
+import static uk.ac.manchester.tornado.drivers.ptx.graal.nodes.PTXIntBinaryIntrinsicNode.Operation.MAX;
+import static uk.ac.manchester.tornado.drivers.ptx.graal.nodes.PTXIntBinaryIntrinsicNode.Operation.MIN;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.AndNode;
+import org.graalvm.compiler.nodes.calc.ConditionalNode;
+import org.graalvm.compiler.nodes.calc.IntegerEqualsNode;
+import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
+import org.graalvm.compiler.nodes.calc.MulNode;
+import org.graalvm.compiler.nodes.calc.UnsignedRightShiftNode;
+import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderContext;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugin;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugin.Receiver;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins.Registration;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.LocalThreadIdNode;
+import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.LocalThreadSizeNode;
+import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.PTXBallotNode;
+import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.PTXFPBinaryIntrinsicNode;
+import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.PTXIntBinaryIntrinsicNode;
+import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.PTXShuffleNode;
+
+/**
+ * Plugins for the sub-group methods of the {@link KernelContext}. In PTX a sub-group is a warp of
+ * 32 threads, formed from the linear thread id within the block. The collectives (reductions and
+ * scans) are expanded into a sequence of warp shuffles.
+ */
+public class PTXSubGroupPlugins {
+
+  private static final int WARP_SHIFT = Integer.numberOfTrailingZeros(WARP_SIZE);
+
+  public static void registerPlugins(InvocationPlugins plugins) {
+    Registration r = new Registration(plugins, KernelContext.class);
+
+    registerQueries(r);
+    registerBallot(r);
+    for (JavaKind kind : new JavaKind[] {JavaKind.Int, JavaKind.Float}) {
+      registerShuffles(r, kind);
+      registerCollectives(r, kind);
+    }
+  }
+
+  private static ValueNode linearLocalId(GraphBuilderContext b) {
+    // tid.x + ntid.x * (tid.y + ntid.y * tid.z)
+    ValueNode z = b.append(new LocalThreadIdNode(ConstantNode.forInt(2)));
+    ValueNode y = b.append(new LocalThreadIdNode(ConstantNode.forInt(1)));
+    ValueNode x = b.append(new LocalThreadIdNode(ConstantNode.forInt(0)));
+    ValueNode sizeY = b.append(new LocalThreadSizeNode(ConstantNode.forInt(1)));
+    ValueNode sizeX = b.append(new LocalThreadSizeNode(ConstantNode.forInt(0)));
+    ValueNode plane = b.append(new AddNode(y, b.append(new MulNode(sizeY, z))));
+    return b.append(new AddNode(x, b.append(new MulNode(sizeX, plane))));
+  }
+
+  private static ValueNode laneId(GraphBuilderContext b) {
+    return b.append(new AndNode(linearLocalId(b), ConstantNode.forInt(WARP_SIZE - 1)));
+  }
+
+  private static ValueNode warpId(GraphBuilderContext b) {
+    return b.append(new UnsignedRightShiftNode(linearLocalId(b), ConstantNode.forInt(WARP_SHIFT)));
+  }
+
+  private static ValueNode numWarps(GraphBuilderContext b) {
+    ValueNode blockSize = b.append(new LocalThreadSizeNode(ConstantNode.forInt(0)));
+    for (int dimension = 1; dimension < 3; dimension++) {
+      ValueNode size = b.append(new LocalThreadSizeNode(ConstantNode.forInt(dimension)));
+      blockSize = b.append(new MulNode(blockSize, size));
+    }
+    ValueNode rounded = b.append(new AddNode(blockSize, ConstantNode.forInt(WARP_SIZE - 1)));
+    return b.append(new UnsignedRightShiftNode(rounded, ConstantNode.forInt(WARP_SHIFT)));
+  }
+
+  private static void registerQueries(Registration r) {
+    r.register(
+        new InvocationPlugin("subGroupId", Receiver.class) {
+          @Override
+          public boolean apply(
+              GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver) {
+            b.push(JavaKind.Int, warpId(b));
+            return true;
+          }
+        });
+    r.register(
+        new InvocationPlugin("subGroupLocalId", Receiver.class) {
+          @Override
+          public boolean apply(
+              GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver) {
+            b.push(JavaKind.Int, laneId(b));
+            return true;
+          }
+        });
+    r.register(
+        new InvocationPlugin("subGroupSize", Receiver.class) {
+          @Override
+          public boolean apply(
+              GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver) {
+            b.push(JavaKind.Int, ConstantNode.forInt(WARP_SIZE, b.getGraph()));
+            return true;
+          }
+        });
+    r.register(
+        new InvocationPlugin("numSubGroups", Receiver.class) {
+          @Override
+          public boolean apply(
+              GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver) {
+            b.push(JavaKind.Int, numWarps(b));
+            return true;
+          }
+        });
+  }
+
+  private static void registerBallot(Registration r) {
+    r.register(
+        new InvocationPlugin("subGroupBallot", Receiver.class, boolean.class) {
+          @Override
+          public boolean apply(
+              GraphBuilderContext b,
+              ResolvedJavaMethod targetMethod,
+              Receiver receiver,
+              ValueNode predicate) {
+            b.addPush(JavaKind.Long, new PTXBallotNode(predicate));
+            return true;
+          }
+        });
+  }
+
+  private static void registerShuffle(
+      Registration r, String name, JavaKind kind, PTXShuffleNode.Mode mode) {
+    Class<?> type = kind.toJavaClass();
+    r.register(
+        new InvocationPlugin(name, Receiver.class, type, int.class) {
+          @Override
+          public boolean apply(
+              GraphBuilderContext b,
+              ResolvedJavaMethod targetMethod,
+              Receiver receiver,
+              ValueNode value,
+              ValueNode lane) {
+            b.addPush(kind, new PTXShuffleNode(mode, value, lane));
+            return true;
+          }
+        });
+  }
+
+  private static void registerShuffles(Registration r, JavaKind kind) {
+    registerShuffle(r, "subGroupShuffle", kind, PTXShuffleNode.Mode.IDX);
+    registerShuffle(r, "subGroupBroadcast", kind, PTXShuffleNode.Mode.IDX);
+    registerShuffle(r, "subGroupShuffleXor", kind, PTXShuffleNode.Mode.BFLY);
+  }
+
+  private static ValueNode shuffle(
+      GraphBuilderContext b, PTXShuffleNode.Mode mode, ValueNode value, int lane) {
+    return b.add(new PTXShuffleNode(mode, value, ConstantNode.forInt(lane, b.getGraph())));
+  }
+
+  private static ValueNode zero(GraphBuilderContext b, JavaKind kind) {
+    return kind == JavaKind.Float
+        ? ConstantNode.forFloat(0.0f, b.getGraph())
+        : ConstantNode.forInt(0, b.getGraph());
+  }
+
+  private static ValueNode combine(
+      GraphBuilderContext b, Operation operation, JavaKind kind, ValueNode x, ValueNode y) {
+    return switch (operation) {
+      case ADD -> b.append(new AddNode(x, y));
+      case MIN ->
+          kind == JavaKind.Float
+              ? b.append(PTXFPBinaryIntrinsicNode.create(x, y, FMIN, kind))
+              : b.append(PTXIntBinaryIntrinsicNode.create(x, y, MIN, kind));
+      case MAX ->
+          kind == JavaKind.Float
+              ? b.append(PTXFPBinaryIntrinsicNode.create(x, y, FMAX, kind))
+              : b.append(PTXIntBinaryIntrinsicNode.create(x, y, MAX, kind));
+    };
+  }
+
+  private static ValueNode reduce(
+      GraphBuilderContext b, Operation operation, JavaKind kind, ValueNode value) {
+    // Butterfly reduction: every thread of the warp ends up with the result
+    ValueNode result = value;
+    for (int offset = WARP_SIZE / 2; offset > 0; offset >>= 1) {
+      ValueNode other = shuffle(b, PTXShuffleNode.Mode.BFLY, result, offset);
+      result = combine(b, operation, kind, result, other);
+    }
+    return result;
+  }
+
+  private static ValueNode inclusiveScan(GraphBuilderContext b, JavaKind kind, ValueNode value) {
+    // Kogge-Stone scan: the first lanes keep their own value in shfl.up, so it is not added
+    ValueNode lane = laneId(b);
+    ValueNode result = value;
+    for (int offset = 1; offset < WARP_SIZE; offset <<= 1) {
+      ValueNode other = shuffle(b, PTXShuffleNode.Mode.UP, result, offset);
+      IntegerLessThanNode isFirstLane =
+          b.append(new IntegerLessThanNode(lane, ConstantNode.forInt(offset, b.getGraph())));
+      ValueNode addend = b.append(new ConditionalNode(isFirstLane, zero(b, kind), other));
+      result = b.append(new AddNode(result, addend));
+    }
+    return result;
+  }
+
+  private static ValueNode exclusiveScan(GraphBuilderContext b, JavaKind kind, ValueNode value) {
+    ValueNode inclusive = inclusiveScan(b, kind, value);
+    ValueNode previous = shuffle(b, PTXShuffleNode.Mode.UP, inclusive, 1);
+    IntegerEqualsNode isLaneZero =
+        b.append(new IntegerEqualsNode(laneId(b), ConstantNode.forInt(0, b.getGraph())));
+    return b.append(new ConditionalNode(isLaneZero, zero(b, kind), previous));
+  }
+
+  private static void registerCollectives(Registration r, JavaKind kind) {
+    Class<?> type = kind.toJavaClass();
+    for (Operation operation : Operation.values()) {
+      r.register(
+          new InvocationPlugin("subGroupReduce" + operation.suffix, Receiver.class, type) {
+            @Override
+            public boolean apply(
+                GraphBuilderContext b,
+                ResolvedJavaMethod targetMethod,
+                Receiver receiver,
+                ValueNode value) {
+              b.push(kind, reduce(b, operation, kind, value));
+              return true;
+            }
+          });
+    }
+    r.register(
+        new InvocationPlugin("subGroupScanInclusiveAdd", Receiver.class, type) {
+          @Override
+          public boolean apply(
+              GraphBuilderContext b,
+              ResolvedJavaMethod targetMethod,
+              Receiver receiver,
+              ValueNode value) {
+            b.push(kind, inclusiveScan(b, kind, value));
+            return true;
+          }
+        });
+    r.register(
+        new InvocationPlugin("subGroupScanExclusiveAdd", Receiver.class, type) {
+          @Override
+          public boolean apply(
+              GraphBuilderContext b,
+              ResolvedJavaMethod targetMethod,
+              Receiver receiver,
+              ValueNode value) {
+            b.push(kind, exclusiveScan(b, kind, value));
+            return true;
+          }
+        });
+  }
+
+  private enum Operation {
+    ADD("Add"),
+    MIN("Min"),
+    MAX("Max");
+
+    private final String suffix;
+
+    Operation(String suffix) {
+      this.suffix = suffix;
+    }
+  }
+}
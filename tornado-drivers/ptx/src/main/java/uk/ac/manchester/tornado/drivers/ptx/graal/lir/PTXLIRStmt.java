@@ -31,12 +31,15 @@ import static uk.ac.manchester.tornado.drivers.ptx.graal.asm.PTXAssembler.PTXBin
 import static uk.ac.manchester.tornado.drivers.ptx.graal.asm.PTXAssembler.PTXBinaryOp.MUL_LO;
 import static uk.ac.manchester.tornado.drivers.ptx.graal.asm.PTXAssembler.PTXBinaryOp.SUB;
 import static uk.ac.manchester.tornado.drivers.ptx.graal.asm.PTXAssemblerConstants.ASSIGN;
+import static uk.ac.manchester.tornado.drivers.ptx.graal.asm.PTXAssemblerConstants.BRANCH;
+import static uk.ac.manchester.tornado.drivers.ptx.graal.asm.PTXAssemblerConstants.COLON;
 import static uk.ac.manchester.tornado.drivers.ptx.graal.asm.PTXAssemblerConstants.COMMA;
 import static uk.ac.manchester.tornado.drivers.ptx.graal.asm.PTXAssemblerConstants.CONVERT;
 import static uk.ac.manchester.tornado.drivers.ptx.graal.asm.PTXAssemblerConstants.CONVERT_RN;
 import static uk.ac.manchester.tornado.drivers.ptx.graal.asm.PTXAssemblerConstants.CURLY_BRACKETS_CLOSE;
 import static uk.ac.manchester.tornado.drivers.ptx.graal.asm.PTXAssemblerConstants.CURLY_BRACKETS_OPEN;
 import static uk.ac.manchester.tornado.drivers.ptx.graal.asm.PTXAssemblerConstants.DOT;
+import static uk.ac.manchester.tornado.drivers.ptx.graal.asm.PTXAssemblerConstants.FULL_WARP_MASK;
 import static uk.ac.manchester.tornado.drivers.ptx.graal.asm.PTXAssemblerConstants.GLOBAL_MEM_MODIFIER;
 import static uk.ac.manchester.tornado.drivers.ptx.graal.asm.PTXAssemblerConstants.MOVE;
 import static uk.ac.manchester.tornado.drivers.ptx.graal.asm.PTXAssemblerConstants.NEGATION;
@@ -49,6 +52,7 @@ import static uk.ac.manchester.tornado.drivers.ptx.graal.asm.PTXAssemblerConstan
 import static uk.ac.manchester.tornado.drivers.ptx.graal.asm.PTXAssemblerConstants.VECTOR;
 
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
 import jdk.vm.ci.meta.Value;
 import org.graalvm.compiler.lir.ConstantValue;
 import org.graalvm.compiler.lir.LIRInstruction;
@@ -631,6 +635,289 @@ public class PTXLIRStmt {
     }
   }
 
+  @Opcode("ATOMIC_ARRAY")
+  public static class AtomicArrayStmt extends AbstractInstruction {
+
+    public static final LIRInstructionClass<AtomicArrayStmt> TYPE =
+        LIRInstructionClass.create(AtomicArrayStmt.class);
+
+    @Def protected Variable result;
+    @Use protected PTXUnary.MemoryAccess address;
+    @Use protected Value value;
+    @Use protected Value expected;
+
+    private final String operation;
+    private final String type;
+
+    /**
+     * Atomic read-modify-write of an element in global memory (e.g., atom.global.add.s32). The
+     * expected value is only used by atom.cas.
+     */
+    public AtomicArrayStmt(
+        Variable result,
+        String operation,
+        String type,
+        PTXUnary.MemoryAccess address,
+        Value value,
+        Value expected) {
+      super(TYPE);
+      this.result = result;
+      this.operation = operation;
+      this.type = type;
+      this.address = address;
+      this.value = value;
+      this.expected = expected;
+    }
+
+    @Override
+    public void emitCode(PTXCompilationResultBuilder crb, PTXAssembler asm) {
+      // atom.global.add.s32 %rsi3, [%rud5], %rsi2;
+      asm.emitSymbol(TAB);
+      asm.emit("atom" + DOT + GLOBAL_MEM_MODIFIER + DOT + operation + DOT + type);
+      asm.emitSymbol(TAB);
+      asm.emitValue(result);
+      asm.emitSymbol(COMMA);
+      asm.space();
+      address.emit(crb, asm, null);
+      asm.emitSymbol(COMMA);
+      asm.space();
+      if (expected != null) {
+        asm.emitValueOrOp(crb, expected, null);
+        asm.emitSymbol(COMMA);
+        asm.space();
+      }
+      asm.emitValueOrOp(crb, value, null);
+      asm.delimiter();
+      asm.eol();
+    }
+  }
+
+  @Opcode("ATOMIC_ARRAY_FLOAT_LOOP")
+  public static class AtomicFloatArrayLoopStmt extends AbstractInstruction {
+
+    public static final LIRInstructionClass<AtomicFloatArrayLoopStmt> TYPE =
+        LIRInstructionClass.create(AtomicFloatArrayLoopStmt.class);
+
+    private static final AtomicInteger LABEL_COUNTER = new AtomicInteger();
+
+    @Def protected Variable result;
+    @Temp protected Variable assumed;
+    @Temp protected Variable updated;
+    @Temp protected Variable predicate;
+    @Use protected PTXUnary.MemoryAccess address;
+    @Use protected Value value;
+
+    private final String operation;
+
+    /**
+     * Atomic update of a float element in global memory for the operations without a PTX atomic
+     * instruction (e.g., min.f32). The update is a compare-and-swap loop over the bits of the
+     * element.
+     */
+    public AtomicFloatArrayLoopStmt(
+        Variable result,
+        Variable assumed,
+        Variable updated,
+        Variable predicate,
+        String operation,
+        PTXUnary.MemoryAccess address,
+        Value value) {
+      super(TYPE);
+      this.result = result;
+      this.assumed = assumed;
+      this.updated = updated;
+      this.predicate = predicate;
+      this.operation = operation;
+      this.address = address;
+      this.value = value;
+    }
+
+    private void emitInstruction(PTXAssembler asm, String instruction) {
+      asm.emitSymbol(TAB);
+      asm.emit(instruction);
+      asm.emitSymbol(TAB);
+    }
+
+    private void emitOperandSeparator(PTXAssembler asm) {
+      asm.emitSymbol(COMMA);
+      asm.space();
+    }
+
+    @Override
+    public void emitCode(PTXCompilationResultBuilder crb, PTXAssembler asm) {
+      final String label = "ATOMIC_LOOP_" + LABEL_COUNTER.getAndIncrement();
+
+      emitInstruction(asm, "ld" + DOT + GLOBAL_MEM_MODIFIER + DOT + "f32");
+      asm.emitValue(result);
+      emitOperandSeparator(asm);
+      address.emit(crb, asm, null);
+      asm.delimiter();
+      asm.eol();
+
+      asm.emit(label + COLON);
+      asm.eol();
+
+      emitInstruction(asm, MOVE + DOT + "f32");
+      asm.emitValue(assumed);
+      emitOperandSeparator(asm);
+      asm.emitValue(result);
+      asm.delimiter();
+      asm.eol();
+
+      emitInstruction(asm, operation + DOT + "f32");
+      asm.emitValue(updated);
+      emitOperandSeparator(asm);
+      asm.emitValue(assumed);
+      emitOperandSeparator(asm);
+      asm.emitValueOrOp(crb, value, null);
+      asm.delimiter();
+      asm.eol();
+
+      emitInstruction(asm, "atom" + DOT + GLOBAL_MEM_MODIFIER + DOT + "cas" + DOT + "b32");
+      asm.emitValue(result);
+      emitOperandSeparator(asm);
+      address.emit(crb, asm, null);
+      emitOperandSeparator(asm);
+      asm.emitValue(assumed);
+      emitOperandSeparator(asm);
+      asm.emitValue(updated);
+      asm.delimiter();
+      asm.eol();
+
+      emitInstruction(asm, "setp" + DOT + "ne" + DOT + "b32");
+      asm.emitValue(predicate);
+      emitOperandSeparator(asm);
+      asm.emitValue(result);
+      emitOperandSeparator(asm);
+      asm.emitValue(assumed);
+      asm.delimiter();
+      asm.eol();
+
+      asm.emitSymbol(TAB);
+      asm.emit(OP_GUARD);
+      asm.emitValue(predicate);
+      asm.space();
+      asm.emit(BRANCH);
+      asm.emitSymbol(TAB);
+      asm.emit(label);
+      asm.delimiter();
+      asm.eol();
+    }
+  }
+
+  @Opcode("SHUFFLE")
+  public static class ShuffleStmt extends AbstractInstruction {
+
+    public static final LIRInstructionClass<ShuffleStmt> TYPE =
+        LIRInstructionClass.create(ShuffleStmt.class);
+
+    @Def protected Variable result;
+    @Use protected Value value;
+    @Use protected Value lane;
+
+    private final String mode;
+    private final String clamp;
+
+    /**
+     * Exchanges a 32-bit value between the threads of a warp (e.g., shfl.sync.bfly.b32). All the
+     * threads of the warp take part in the exchange.
+     */
+    public ShuffleStmt(Variable result, String mode, String clamp, Value value, Value lane) {
+      super(TYPE);
+      this.result = result;
+      this.mode = mode;
+      this.clamp = clamp;
+      this.value = value;
+      this.lane = lane;
+    }
+
+    @Override
+    public void emitCode(PTXCompilationResultBuilder crb, PTXAssembler asm) {
+      // shfl.sync.bfly.b32 %rsi3, %rsi2, %rsi1, 0x1f, 0xffffffff;
+      asm.emitSymbol(TAB);
+      asm.emit("shfl" + DOT + "sync" + DOT + mode + DOT + "b32");
+      asm.emitSymbol(TAB);
+      asm.emitValue(result);
+      asm.emitSymbol(COMMA);
+      asm.space();
+      asm.emitValueOrOp(crb, value, null);
+      asm.emitSymbol(COMMA);
+      asm.space();
+      asm.emitValueOrOp(crb, lane, null);
+      asm.emitSymbol(COMMA);
+      asm.space();
+      asm.emit(clamp);
+      asm.emitSymbol(COMMA);
+      asm.space();
+      asm.emit(FULL_WARP_MASK);
+      asm.delimiter();
+      asm.eol();
+    }
+  }
+
+  @Opcode("BALLOT")
+  public static class BallotStmt extends AbstractInstruction {
+
+    public static final LIRInstructionClass<BallotStmt> TYPE =
+        LIRInstructionClass.create(BallotStmt.class);
+
+    @Def protected Variable result;
+    @Temp protected Variable predicate;
+    @Temp protected Variable mask;
+    @Use protected Value value;
+
+    /**
+     * Collects a predicate of every thread of the warp into a bit mask (vote.sync.ballot.b32). The
+     * mask is widened to 64 bits, the size of the sub-group masks in the API.
+     */
+    public BallotStmt(Variable result, Variable predicate, Variable mask, Value value) {
+      super(TYPE);
+      this.result = result;
+      this.predicate = predicate;
+      this.mask = mask;
+      this.value = value;
+    }
+
+    @Override
+    public void emitCode(PTXCompilationResultBuilder crb, PTXAssembler asm) {
+      asm.emitSymbol(TAB);
+      asm.emit("setp" + DOT + "ne" + DOT + value.getPlatformKind());
+      asm.emitSymbol(TAB);
+      asm.emitValue(predicate);
+      asm.emitSymbol(COMMA);
+      asm.space();
+      asm.emitValueOrOp(crb, value, null);
+      asm.emitSymbol(COMMA);
+      asm.space();
+      asm.emit("0");
+      asm.delimiter();
+      asm.eol();
+
+      asm.emitSymbol(TAB);
+      asm.emit("vote" + DOT + "sync" + DOT + "ballot" + DOT + "b32");
+      asm.emitSymbol(TAB);
+      asm.emitValue(mask);
+      asm.emitSymbol(COMMA);
+      asm.space();
+      asm.emitValue(predicate);
+      asm.emitSymbol(COMMA);
+      asm.space();
+      asm.emit(FULL_WARP_MASK);
+      asm.delimiter();
+      asm.eol();
+
+      asm.emitSymbol(TAB);
+      asm.emit(CONVERT + DOT + "u64" + DOT + "u32");
+      asm.emitSymbol(TAB);
+      asm.emitValue(result);
+      asm.emitSymbol(COMMA);
+      asm.space();
+      asm.emitValue(mask);
+      asm.delimiter();
+      asm.eol();
+    }
+  }
+
   @Opcode("STORE")
   public static class StoreStmt extends AbstractInstruction {
 
@@ -112,6 +112,18 @@ public class PTXUnary {
     }
   }
 
+  public static class MemoryBarrier extends PTXUnary.UnaryConsumer {
+
+    public MemoryBarrier(PTXAssembler.PTXUnaryOp opcode) {
+      super(opcode, LIRKind.Illegal, null);
+    }
+
+    @Override
+    public void emit(PTXCompilationResultBuilder crb, PTXAssembler asm, Variable dest) {
+      opcode.emitOpcode(asm);
+    }
+  }
+
   public static class MemoryAccess extends UnaryConsumer {
 
     private final PTXMemoryBase base;
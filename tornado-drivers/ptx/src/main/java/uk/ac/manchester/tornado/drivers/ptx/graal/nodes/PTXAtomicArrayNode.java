@@ -0,0 +1,155 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.ptx.graal.nodes;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.lir.Variable;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+import org.graalvm.compiler.nodeinfo.InputType;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.memory.AbstractMemoryCheckpoint;
+import org.graalvm.compiler.nodes.memory.SingleMemoryKill;
+import org.graalvm.compiler.nodes.memory.address.AddressNode;
+import org.graalvm.compiler.nodes.spi.LIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import org.graalvm.word.LocationIdentity;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.drivers.ptx.graal.lir.PTXKind;
+import uk.ac.manchester.tornado.drivers.ptx.graal.lir.PTXLIRStmt;
+import uk.ac.manchester.tornado.drivers.ptx.graal.lir.PTXUnary;
+import uk.ac.manchester.tornado.runtime.graal.nodes.interfaces.MarkAtomicArrayAccess;
+
+/**
+ * Atomic read-modify-write of an element of a native array in global memory (e.g.,
+ * atom.global.add.s32). The node returns the value of the element before the update.
+ */
+@NodeInfo(nameTemplate = "Atomic{p#operation/s}")
+public class PTXAtomicArrayNode extends AbstractMemoryCheckpoint
+    implements LIRLowerable, SingleMemoryKill, MarkAtomicArrayAccess {
+
+  public static final NodeClass<PTXAtomicArrayNode> TYPE =
+      NodeClass.create(PTXAtomicArrayNode.class);
+
+  @Input(InputType.Association)
+  protected AddressNode address;
+
+  @Input protected ValueNode value;
+  @OptionalInput protected ValueNode expected;
+
+  private final Operation operation;
+  private final JavaKind elementKind;
+
+  public PTXAtomicArrayNode(
+      Operation operation,
+      JavaKind elementKind,
+      AddressNode address,
+      ValueNode value,
+      ValueNode expected) {
+    super(TYPE, StampFactory.forKind(elementKind));
+    this.operation = operation;
+    this.elementKind = elementKind;
+    this.address = address;
+    this.value = value;
+    this.expected = expected;
+  }
+
+  @Override
+  public LocationIdentity getKilledLocationIdentity() {
+    return LocationIdentity.any();
+  }
+
+  @Override
+  public void generate(NodeLIRBuilderTool gen) {
+    LIRGeneratorTool tool = gen.getLIRGeneratorTool();
+    Variable result = tool.newVariable(tool.getLIRKind(stamp));
+    PTXUnary.MemoryAccess memoryAccess = (PTXUnary.MemoryAccess) gen.operand(address);
+    Value expectedValue = expected == null ? null : gen.operand(expected);
+
+    String type =
+        switch (elementKind) {
+          case Int -> operation.intType;
+          case Long -> operation.longType;
+          case Float -> operation.floatType;
+          default ->
+              throw new TornadoRuntimeException(
+                  "Atomic operations are not supported for elements of type " + elementKind);
+        };
+
+    if (type != null) {
+      tool.append(
+          new PTXLIRStmt.AtomicArrayStmt(
+              result,
+              operation.instruction,
+              type,
+              memoryAccess,
+              gen.operand(value),
+              expectedValue));
+    } else {
+      // There is no atomic min and max for floats
+      tool.append(
+          new PTXLIRStmt.AtomicFloatArrayLoopStmt(
+              result,
+              tool.newVariable(LIRKind.value(PTXKind.F32)),
+              tool.newVariable(LIRKind.value(PTXKind.F32)),
+              tool.newVariable(LIRKind.value(PTXKind.PRED)),
+              operation.instruction,
+              memoryAccess,
+              gen.operand(value)));
+    }
+    gen.setResult(this, result);
+  }
+
+  public Operation getOperation() {
+    return operation;
+  }
+
+  public JavaKind getElementKind() {
+    return elementKind;
+  }
+
+  public enum Operation {
+    ADD("add", "s32", "u64", "f32"),
+    MIN("min", "s32", "s64", null),
+    MAX("max", "s32", "s64", null),
+    EXCHANGE("exch", "b32", "b64", "b32"),
+    COMPARE_AND_EXCHANGE("cas", "b32", "b64", "b32");
+
+    private final String instruction;
+    private final String intType;
+    private final String longType;
+    private final String floatType;
+
+    Operation(String instruction, String intType, String longType, String floatType) {
+      this.instruction = instruction;
+      this.intType = intType;
+      this.longType = longType;
+      this.floatType = floatType;
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.ptx.graal.nodes;
+
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.lir.Variable;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.NodeView;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.spi.LIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import uk.ac.manchester.tornado.drivers.ptx.graal.lir.PTXLIRStmt;
+
+/**
+ * Reads a 32-bit value from another thread of the warp (e.g., shfl.sync.idx.b32). The node is fixed
+ * because every thread of the warp must execute the shuffle.
+ */
+@NodeInfo(nameTemplate = "Shuffle{p#mode/s}")
+public class PTXShuffleNode extends FixedWithNextNode implements LIRLowerable {
+
+  public static final NodeClass<PTXShuffleNode> TYPE = NodeClass.create(PTXShuffleNode.class);
+
+  @Input protected ValueNode value;
+  @Input protected ValueNode lane;
+
+  private final Mode mode;
+
+  public PTXShuffleNode(Mode mode, ValueNode value, ValueNode lane) {
+    super(TYPE, value.stamp(NodeView.DEFAULT).unrestricted());
+    this.mode = mode;
+    this.value = value;
+    this.lane = lane;
+  }
+
+  @Override
+  public void generate(NodeLIRBuilderTool gen) {
+    LIRGeneratorTool tool = gen.getLIRGeneratorTool();
+    Variable result = tool.newVariable(tool.getLIRKind(stamp));
+    tool.append(
+        new PTXLIRStmt.ShuffleStmt(
+            result, mode.instruction, mode.clamp, gen.operand(value), gen.operand(lane)));
+    gen.setResult(this, result);
+  }
+
+  public Mode getMode() {
+    return mode;
+  }
+
+  public enum Mode {
+    // Read from the given lane
+    IDX("idx", "0x1f"),
+    // Read from the lane at the given distance below, keeping the own value in the first lanes
+    UP("up", "0x0"),
+    // Read from the lane whose id is the own id xor the given mask
+    BFLY("bfly", "0x1f");
+
+    private final String instruction;
+    private final String clamp;
+
+    Mode(String instruction, String clamp) {
+      this.instruction = instruction;
+      this.clamp = clamp;
+    }
+  }
+}
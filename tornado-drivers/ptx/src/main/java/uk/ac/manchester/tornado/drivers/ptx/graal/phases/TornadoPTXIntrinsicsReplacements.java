@@ -49,6 +49,8 @@ import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.LocalArrayNode;
 import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.LocalGroupSizeNode;
 import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.LocalThreadIDFixedNode;
 import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.PTXBarrierNode;
+import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.PTXMemFenceNode;
+import uk.ac.manchester.tornado.runtime.graal.nodes.ReductionTicketNode;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoHighTierContext;
 
 public class TornadoPTXIntrinsicsReplacements extends BasePhase<TornadoHighTierContext> {
@@ -95,6 +97,15 @@ public class TornadoPTXIntrinsicsReplacements extends BasePhase<TornadoHighTierC
             graph.replaceFixed(invoke, barrier);
             break;
           }
+        case "Direct#PTXIntrinsics.globalMemFence":
+          {
+            PTXMemFenceNode fence = graph.add(new PTXMemFenceNode());
+            graph.replaceFixed(invoke, fence);
+            break;
+          }
+        case "Direct#PTXIntrinsics.reductionTicket":
+          replaceReductionTicket(graph, invoke);
+          break;
         case "Direct#PTXIntrinsics.get_local_id":
           {
             ConstantNode dimension = getConstantNodeFromArguments(invoke, 0);
@@ -140,6 +151,21 @@ public class TornadoPTXIntrinsicsReplacements extends BasePhase<TornadoHighTierC
     }
   }
 
+  private void replaceReductionTicket(StructuredGraph graph, InvokeNode invoke) {
+    NodeInputList<ValueNode> arguments = invoke.callTarget().arguments();
+    JavaKind elementKind =
+        invoke
+            .callTarget()
+            .targetMethod()
+            .getSignature()
+            .getParameterType(0, null)
+            .getComponentType()
+            .getJavaKind();
+    ReductionTicketNode ticketNode =
+        graph.add(new ReductionTicketNode(arguments.get(0), arguments.get(1), elementKind));
+    graph.replaceFixed(invoke, ticketNode);
+  }
+
   private void lowerLocalInvokeNodeNewArray(
       StructuredGraph graph, int length, JavaKind elementKind, InvokeNode newArray) {
     LocalArrayNode localArrayNode;
@@ -79,6 +79,7 @@ public class TornadoTaskSpecialisation extends BasePhase<TornadoHighTierContext>
   private int index;
   private boolean gridScheduling;
   private boolean printOnce = true;
+  private boolean shapePolymorphic;
 
   public TornadoTaskSpecialisation(CanonicalizerPhase canonicalizer) {
     this.canonicalizer = canonicalizer;
@@ -192,6 +193,12 @@ public class TornadoTaskSpecialisation extends BasePhase<TornadoHighTierContext>
     return constant;
   }
 
+  private static boolean isArraySizeNode(Node node) {
+    return node instanceof ArrayLengthNode
+        || (node instanceof LoadFieldNode loadField
+            && loadField.field().getName().equals("numberOfElements"));
+  }
+
   private void printWarningMessageForDynamicLoopBounds() {
     if (printOnce) {
       System.out.println(WARNING_GRID_SCHEDULER_DYNAMIC_LOOP_BOUNDS);
@@ -200,6 +207,10 @@ public class TornadoTaskSpecialisation extends BasePhase<TornadoHighTierContext>
   }
 
   private void evaluate(final StructuredGraph graph, final Node node, final Object value) {
+    if (shapePolymorphic && isArraySizeNode(node)) {
+      // Shape-polymorphic kernels read the array sizes from the device buffers.
+      return;
+    }
     if (node instanceof ArrayLengthNode) {
       ArrayLengthNode arrayLength = (ArrayLengthNode) node;
       int length = Array.getLength(value);
@@ -317,6 +328,9 @@ public class TornadoTaskSpecialisation extends BasePhase<TornadoHighTierContext>
             graph.addOrUnique(new PTXKernelContextAccessNode(constantValue));
         parameterNode.replaceAtUsages(kernelContextAccessNode);
         index++;
+      } else if (shapePolymorphic) {
+        // Shape-polymorphic kernels receive the scalar values as kernel arguments.
+        return;
       } else {
         var value = args[parameterNode.index()];
         ConstantNode primitiveConstant = createPrimitiveConstantFromObjectParameter(value, graph);
@@ -377,6 +391,8 @@ public class TornadoTaskSpecialisation extends BasePhase<TornadoHighTierContext>
     boolean hasWork = true;
     this.batchThreads = context.getBatchCompilationConfig().getBatchThreads();
     this.gridScheduling = context.isGridSchedulerEnabled();
+    this.shapePolymorphic =
+        context.hasMeta() && context.getMeta().isShapePolymorphicEnabled() && batchThreads <= 0;
 
     while (hasWork) {
       final Graph.Mark mark = graph.getMark();
@@ -420,7 +436,7 @@ public class TornadoTaskSpecialisation extends BasePhase<TornadoHighTierContext>
       hasWork =
           (lastNodeCount != graph.getNodeCount()
                   || graph.getNewNodes(mark).isNotEmpty()
-                  || hasPanamaArraySizeNode(graph))
+                  || (!shapePolymorphic && hasPanamaArraySizeNode(graph)))
               && (iterations < MAX_ITERATIONS);
       lastNodeCount = graph.getNodeCount();
       iterations++;
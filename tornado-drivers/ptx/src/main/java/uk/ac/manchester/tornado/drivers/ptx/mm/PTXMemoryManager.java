@@ -45,6 +45,16 @@ public class PTXMemoryManager implements TornadoMemoryProvider {
     return DEVICE_AVAILABLE_MEMORY;
   }
 
+  @Override
+  public long getNumEvictions() {
+    return deviceContext.getBufferProvider().getEvictionManager().getNumEvictions();
+  }
+
+  @Override
+  public long getSpilledBytes() {
+    return deviceContext.getBufferProvider().getEvictionManager().getSpilledBytes();
+  }
+
   public PTXKernelStackFrame createCallWrapper(final long threadId, final int maxArgs) {
     if (!ptxKernelStackFrame.containsKey(threadId)) {
       long kernelCallBuffer =
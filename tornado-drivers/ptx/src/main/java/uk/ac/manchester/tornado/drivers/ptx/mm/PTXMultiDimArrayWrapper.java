@@ -23,14 +23,18 @@
  */
 package uk.ac.manchester.tornado.drivers.ptx.mm;
 
+import java.lang.foreign.MemorySegment;
 import java.lang.reflect.Array;
 import java.util.Arrays;
+import java.util.List;
 import java.util.function.Function;
 import jdk.vm.ci.meta.JavaKind;
 import uk.ac.manchester.tornado.api.exceptions.TornadoMemoryException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException;
+import uk.ac.manchester.tornado.drivers.common.mm.PackedMultiDimLayout;
 import uk.ac.manchester.tornado.drivers.ptx.PTXDeviceContext;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 
 public class PTXMultiDimArrayWrapper<T, E> extends PTXArrayWrapper<T> {
 
@@ -41,6 +45,14 @@ public class PTXMultiDimArrayWrapper<T, E> extends PTXArrayWrapper<T> {
   private PTXArrayWrapper<E>[] wrappers;
   private long setSubRegionSize;
 
+  // Packed mode: all rows are staged into a single device buffer
+  private final boolean packed;
+  private PackedMultiDimLayout layout;
+  private long packedBuffer = -1;
+  private long packedBufferSize;
+  private long rowBytes;
+  private int rowsPerChunk;
+
   public PTXMultiDimArrayWrapper(
       PTXDeviceContext device,
       Function<PTXDeviceContext, ? extends PTXArrayWrapper<E>> factory,
@@ -54,21 +66,22 @@ public class PTXMultiDimArrayWrapper<T, E> extends PTXArrayWrapper<T> {
     this.deviceContext = device;
     innerWrapperFactory = factory;
     tableWrapper = new PTXLongArrayWrapper(device);
+    packed = TornadoOptions.PACKED_MULTIDIM_ARRAYS;
   }
 
   @Override
   public long toBuffer() {
-    return tableWrapper.toBuffer();
+    return packed ? packedBuffer : tableWrapper.toBuffer();
   }
 
   @Override
   public long getBufferOffset() {
-    return tableWrapper.getBufferOffset();
+    return packed ? 0 : tableWrapper.getBufferOffset();
   }
 
   @Override
   public long size() {
-    return tableWrapper.size();
+    return packed ? packedBufferSize : tableWrapper.size();
   }
 
   @Override
@@ -95,6 +108,11 @@ public class PTXMultiDimArrayWrapper<T, E> extends PTXArrayWrapper<T> {
   public void allocate(Object value, long batchSize)
       throws TornadoOutOfMemoryException, TornadoMemoryException {
 
+    if (packed) {
+      allocatePacked(value, batchSize);
+      return;
+    }
+
     if (batchSize > 0) {
       throw new TornadoMemoryException(
           "[ERROR] BatchSize Allocation currently not supported. BatchSize = "
@@ -125,8 +143,149 @@ public class PTXMultiDimArrayWrapper<T, E> extends PTXArrayWrapper<T> {
     }
   }
 
+  private void allocatePacked(Object value, long batchSize) {
+    layout = new PackedMultiDimLayout(PackedMultiDimLayout.elementKindOf(value));
+    final int rows = Array.getLength(value);
+    rowsPerChunk = rows;
+    if (batchSize > 0) {
+      rowBytes = layout.rectangularRowBytes(value);
+      if (rowBytes <= 0 || batchSize % rowBytes != 0) {
+        throw new TornadoMemoryException(
+            "[ERROR] Batch processing of multi-dimensional arrays requires rectangular arrays and a"
+                + " batch size multiple of the row size. BatchSize = "
+                + batchSize
+                + " (bytes)");
+      }
+      rowsPerChunk = (int) Math.min(rows, batchSize / rowBytes);
+    }
+    packedBufferSize = layout.compute(value, 0, rowsPerChunk);
+    if (packedBufferSize <= 0) {
+      throw new TornadoMemoryException("[ERROR] Bytes Allocated <= 0: " + packedBufferSize);
+    }
+    packedBuffer = deviceContext.getBufferProvider().getOrAllocateBufferWithSize(packedBufferSize);
+  }
+
+  private void computeChunk(Object value, long hostOffset) {
+    int firstRow = (hostOffset > 0 && rowBytes > 0) ? (int) (hostOffset / rowBytes) : 0;
+    int numRows = Math.min(rowsPerChunk, Array.getLength(value) - firstRow);
+    layout.compute(value, firstRow, numRows);
+  }
+
+  private int writePacked(long executionPlanId, Object value, long hostOffset, int[] events) {
+    computeChunk(value, hostOffset);
+    MemorySegment staging = layout.gather(value, packedBuffer);
+    return deviceContext.enqueueWriteBuffer(
+        executionPlanId, packedBuffer, layout.size(), staging.address(), 0, events);
+  }
+
+  private int readPacked(long executionPlanId, Object value, long hostOffset, int[] events) {
+    computeChunk(value, hostOffset);
+    MemorySegment staging = layout.staging();
+    int event =
+        deviceContext.readBuffer(
+            executionPlanId, packedBuffer, layout.size(), staging.address(), 0, events);
+    layout.scatter(value);
+    return event;
+  }
+
+  /**
+   * Enqueues the read of the rows of the device image straight into the rows of the host array.
+   * Unlike {@link #readPacked}, it does not wait for the transfer: every row waits for the given
+   * events, and the returned barrier completes once all rows have been copied.
+   */
+  private int enqueueReadPacked(long executionPlanId, Object value, long hostOffset, int[] events) {
+    computeChunk(value, hostOffset);
+    for (int i = 0; i < layout.getNumRows(); i++) {
+      final Object row = Array.get(value, layout.getFirstRow() + i);
+      final long bytes = layout.rowDataBytes(row);
+      if (bytes > 0) {
+        enqueueReadRow(executionPlanId, packedBuffer + layout.rowDataOffset(i), bytes, row, events);
+      }
+    }
+    return deviceContext.enqueueBarrier(executionPlanId);
+  }
+
+  private void enqueueReadRow(
+      long executionPlanId, long address, long bytes, Object row, int[] events) {
+    switch (row) {
+      case byte[] r ->
+          deviceContext.enqueueReadBuffer(executionPlanId, address, bytes, r, 0, events);
+      case char[] r ->
+          deviceContext.enqueueReadBuffer(executionPlanId, address, bytes, r, 0, events);
+      case short[] r ->
+          deviceContext.enqueueReadBuffer(executionPlanId, address, bytes, r, 0, events);
+      case int[] r ->
+          deviceContext.enqueueReadBuffer(executionPlanId, address, bytes, r, 0, events);
+      case long[] r ->
+          deviceContext.enqueueReadBuffer(executionPlanId, address, bytes, r, 0, events);
+      case float[] r ->
+          deviceContext.enqueueReadBuffer(executionPlanId, address, bytes, r, 0, events);
+      case double[] r ->
+          deviceContext.enqueueReadBuffer(executionPlanId, address, bytes, r, 0, events);
+      default ->
+          throw new TornadoMemoryException("[ERROR] Unsupported row type: " + row.getClass());
+    }
+  }
+
+  @Override
+  public List<Integer> enqueueWrite(
+      long executionPlanId,
+      Object reference,
+      long batchSize,
+      long hostOffset,
+      int[] events,
+      boolean useDeps) {
+    if (!packed) {
+      return super.enqueueWrite(executionPlanId, reference, batchSize, hostOffset, events, useDeps);
+    }
+    return List.of(writePacked(executionPlanId, reference, hostOffset, useDeps ? events : null));
+  }
+
+  @Override
+  public int enqueueRead(
+      long executionPlanId, Object value, long hostOffset, int[] events, boolean useDeps) {
+    if (!packed) {
+      return super.enqueueRead(executionPlanId, value, hostOffset, events, useDeps);
+    }
+    return enqueueReadPacked(executionPlanId, value, hostOffset, useDeps ? events : null);
+  }
+
+  @Override
+  public int read(
+      long executionPlanId,
+      Object reference,
+      long hostOffset,
+      long partialReadSize,
+      int[] events,
+      boolean useDeps) {
+    if (!packed) {
+      return super.read(executionPlanId, reference, hostOffset, partialReadSize, events, useDeps);
+    }
+    return readPacked(executionPlanId, reference, hostOffset, useDeps ? events : null);
+  }
+
+  @Override
+  public void write(long executionPlanId, Object reference) {
+    if (!packed) {
+      super.write(executionPlanId, reference);
+      return;
+    }
+    layout.compute(reference, 0, Math.min(rowsPerChunk, Array.getLength(reference)));
+    MemorySegment staging = layout.gather(reference, packedBuffer);
+    deviceContext.writeBuffer(
+        executionPlanId, packedBuffer, layout.size(), staging.address(), 0, null);
+  }
+
   @Override
   public void markAsFreeBuffer() throws TornadoMemoryException {
+    if (packed) {
+      if (packedBuffer != -1) {
+        deviceContext.getBufferProvider().markBufferReleased(packedBuffer);
+        packedBuffer = -1;
+        packedBufferSize = 0;
+      }
+      return;
+    }
     deallocateElements();
     tableWrapper.markAsFreeBuffer();
     wrappers = null;
@@ -43,6 +43,7 @@ import uk.ac.manchester.tornado.api.enums.TornadoDeviceType;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
+import uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException;
 import uk.ac.manchester.tornado.api.internal.annotations.Vector;
 import uk.ac.manchester.tornado.api.memory.DeviceBufferState;
 import uk.ac.manchester.tornado.api.memory.TornadoMemoryProvider;
@@ -79,6 +80,7 @@ import uk.ac.manchester.tornado.drivers.ptx.mm.PTXObjectWrapper;
 import uk.ac.manchester.tornado.drivers.ptx.mm.PTXShortArrayWrapper;
 import uk.ac.manchester.tornado.drivers.ptx.mm.PTXVectorWrapper;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.common.KernelShapeCache;
 import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
@@ -87,6 +89,7 @@ import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy;
 import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
 import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
+import uk.ac.manchester.tornado.runtime.jfr.CompilationEvent;
 import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
 import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
 import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
@@ -179,6 +182,18 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
         TornadoSketcher.lookup(
             resolvedMethod, task.meta().getBackendIndex(), task.meta().getDeviceIndex());
 
+    // Shape-polymorphic kernels are reused across input sizes
+    if (executable.meta().isShapePolymorphicEnabled() && executable.getBatchThreads() <= 0) {
+      return deviceContext
+          .getCodeCache()
+          .getShapeCache()
+          .lookupOrCompile(
+              executable,
+              resolvedMethod.getName(),
+              (t, variantKey) ->
+                  compileShapeVariant(t, sketch, resolvedMethod.getName(), variantKey));
+    }
+
     // copy meta data into task
     final TaskDataContext taskMeta = executable.meta();
     final Access[] sketchAccess = sketch.getArgumentsAccess();
@@ -189,11 +204,14 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
       PTXCompilationResult result;
       if (!deviceContext.isCached(resolvedMethod.getName(), executable)) {
         PTXProviders providers = (PTXProviders) getBackend().getProviders();
+        CompilationEvent graalEvent = new CompilationEvent();
+        graalEvent.begin();
         profiler.start(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
         result =
             PTXCompiler.compileSketchForDevice(
                 sketch, executable, providers, getBackend(), executable.getProfiler());
         profiler.stop(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
+        graalEvent.record(CompilationEvent.GRAAL, taskMeta.getId(), this);
         profiler.sum(
             ProfilerType.TOTAL_GRAAL_COMPILE_TIME,
             profiler.getTaskTimer(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId()));
@@ -203,10 +221,13 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
                 buildKernelName(resolvedMethod.getName(), executable), taskMeta);
       }
 
+      CompilationEvent driverEvent = new CompilationEvent();
+      driverEvent.begin();
       profiler.start(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
       TornadoInstalledCode installedCode =
           deviceContext.installCode(result, resolvedMethod.getName());
       profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+      driverEvent.record(CompilationEvent.DRIVER_BUILD, taskMeta.getId(), this);
       profiler.sum(
           ProfilerType.TOTAL_DRIVER_COMPILE_TIME,
           profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
@@ -222,6 +243,50 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
     }
   }
 
+  private TornadoInstalledCode compileShapeVariant(
+      CompilableTask executable, Sketch sketch, String methodName, String variantKey) {
+    final PTXDeviceContext deviceContext = getDeviceContext();
+    final TornadoProfiler profiler = executable.getProfiler();
+    final TaskDataContext taskMeta = executable.meta();
+    final Access[] sketchAccess = sketch.getArgumentsAccess();
+    System.arraycopy(sketchAccess, 0, taskMeta.getArgumentsAccess(), 0, sketchAccess.length);
+    try {
+      PTXProviders providers = (PTXProviders) getBackend().getProviders();
+      CompilationEvent graalEvent = new CompilationEvent();
+      graalEvent.begin();
+      profiler.start(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
+      PTXCompilationResult result =
+          PTXCompiler.compileSketchForDevice(sketch, executable, providers, getBackend(), profiler);
+      profiler.stop(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
+      graalEvent.record(CompilationEvent.GRAAL, taskMeta.getId(), this);
+      profiler.sum(
+          ProfilerType.TOTAL_GRAAL_COMPILE_TIME,
+          profiler.getTaskTimer(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId()));
+
+      CompilationEvent driverEvent = new CompilationEvent();
+      driverEvent.begin();
+      profiler.start(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+      TornadoInstalledCode installedCode =
+          deviceContext
+              .getCodeCache()
+              .installShapeVariant(
+                  result.getName(),
+                  result.getTargetCode(),
+                  methodName,
+                  taskMeta.isPrintKernelEnabled(),
+                  variantKey);
+      profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+      driverEvent.record(CompilationEvent.DRIVER_BUILD, taskMeta.getId(), this);
+      profiler.sum(
+          ProfilerType.TOTAL_DRIVER_COMPILE_TIME,
+          profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+      return installedCode;
+    } catch (Exception e) {
+      logger.fatal("unable to compile %s for device %s\n", executable.getId(), getDeviceName());
+      throw new TornadoBailoutRuntimeException("[Error During the Task Compilation] ", e);
+    }
+  }
+
   private TornadoInstalledCode compilePreBuiltTask(SchedulableTask task) {
     final PTXDeviceContext deviceContext = getDeviceContext();
     final PrebuiltTask executable = (PrebuiltTask) task;
@@ -244,6 +309,11 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
     return null;
   }
 
+  @Override
+  public KernelShapeCache getShapeCache() {
+    return getDeviceContext().getCodeCache().getShapeCache();
+  }
+
   @Override
   public boolean isFullJITMode(SchedulableTask task) {
     return true;
@@ -332,19 +402,29 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
           "A device memory leak might be occurring.");
       buffer = createDeviceBuffer(object.getClass(), object, batchSize);
       state.setXPUBuffer(buffer);
-      buffer.allocate(object, batchSize);
+      try {
+        getDeviceContext()
+            .getBufferProvider()
+            .getEvictionManager()
+            .allocate(buffer, object, batchSize);
+      } catch (TornadoOutOfMemoryException e) {
+        state.setXPUBuffer(null);
+        throw e;
+      }
     } else {
       buffer = state.getXPUBuffer();
       if (batchSize != 0) {
         buffer.setSizeSubRegion(batchSize);
       }
     }
+    getDeviceContext().getBufferProvider().getEvictionManager().acquire(state, object);
     return state.getXPUBuffer().size();
   }
 
   @Override
   public synchronized long deallocate(DeviceBufferState deviceBufferState) {
     long deallocatedSpace = 0;
+    getDeviceContext().getBufferProvider().getEvictionManager().release(deviceBufferState);
     if (deviceBufferState.isLockedBuffer()) {
       return deallocatedSpace;
     }
@@ -703,6 +783,11 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
     device.getPTXContext().enablePTXContext();
   }
 
+  @Override
+  public void setProfilerEnabled(long executionPlanId, boolean enabled) {
+    getDeviceContext().setProfilerEnabled(executionPlanId, enabled);
+  }
+
   @Override
   public void setAtomicRegion(XPUBuffer bufferAtomics) {}
 
@@ -19,6 +19,7 @@ module tornado.drivers.spirv {
   exports uk.ac.manchester.tornado.drivers.spirv.graal.lir;
   exports uk.ac.manchester.tornado.drivers.spirv.graal.meta;
   exports uk.ac.manchester.tornado.drivers.spirv.graal.nodes;
+  exports uk.ac.manchester.tornado.drivers.spirv.graal.nodes.calc;
   exports uk.ac.manchester.tornado.drivers.spirv.graal.nodes.vector;
   exports uk.ac.manchester.tornado.drivers.spirv.graal.phases;
   exports uk.ac.manchester.tornado.drivers.spirv.mm;
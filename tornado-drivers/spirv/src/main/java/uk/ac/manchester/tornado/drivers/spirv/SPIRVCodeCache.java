@@ -23,8 +23,10 @@
  */
 package uk.ac.manchester.tornado.drivers.spirv;
 
+import java.io.ByteArrayOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.file.FileSystems;
@@ -32,8 +34,14 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.concurrent.ConcurrentHashMap;
+import uk.ac.manchester.beehivespirvtoolkit.lib.SPIRVTool;
+import uk.ac.manchester.beehivespirvtoolkit.lib.disassembler.Disassembler;
+import uk.ac.manchester.beehivespirvtoolkit.lib.disassembler.SPIRVDisassemblerOptions;
+import uk.ac.manchester.beehivespirvtoolkit.lib.disassembler.SPVFileReader;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.drivers.spirv.graal.SPIRVInstalledCode;
+import uk.ac.manchester.tornado.drivers.spirv.optimizer.SPIRVOptimizer;
+import uk.ac.manchester.tornado.runtime.common.KernelShapeCache;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
 
@@ -41,10 +49,21 @@ public abstract class SPIRVCodeCache {
 
   protected final SPIRVDeviceContext deviceContext;
   protected final ConcurrentHashMap<String, SPIRVInstalledCode> cache;
+  protected final KernelShapeCache shapeCache;
+  // Variant key (see KernelShapeCache#variantKey) -> shape-polymorphic kernel
+  private final ConcurrentHashMap<String, SPIRVInstalledCode> shapeVariants;
+  private final SPIRVOptimizer optimizer;
 
   protected SPIRVCodeCache(SPIRVDeviceContext deviceContext) {
     this.deviceContext = deviceContext;
     cache = new ConcurrentHashMap<>();
+    shapeVariants = new ConcurrentHashMap<>();
+    shapeCache = new KernelShapeCache(this::evictShapeVariant);
+    optimizer = new SPIRVOptimizer();
+  }
+
+  public KernelShapeCache getShapeCache() {
+    return shapeCache;
   }
 
   public SPIRVInstalledCode getCachedCode(String name) {
@@ -60,6 +79,11 @@ public abstract class SPIRVCodeCache {
       code.invalidate();
     }
     cache.clear();
+    shapeCache.reset();
+    for (SPIRVInstalledCode code : shapeVariants.values()) {
+      code.invalidate();
+    }
+    shapeVariants.clear();
   }
 
   public SPIRVInstalledCode getInstalledCode(String id, String entryPoint) {
@@ -84,18 +108,15 @@ public abstract class SPIRVCodeCache {
     }
   }
 
-  protected String createSPIRVTempDirectoryName() {
+  protected static String createSPIRVTempDirectoryName() {
     String tempDirectory = System.getProperty("java.io.tmpdir");
     String user = System.getProperty("user.name");
     String pathSeparator = FileSystems.getDefault().getSeparator();
     return tempDirectory + pathSeparator + user + pathSeparator + "tornadoVM-spirv";
   }
 
-  public SPIRVInstalledCode installSPIRVBinary(
-      TaskDataContext meta, String id, String entryPoint, byte[] binary) {
-    if (binary == null || binary.length == 0) {
-      throw new RuntimeException("[ERROR] SPIR-V Binary Module is Empty");
-    }
+  /** Stores a SPIR-V binary in the temp directory of the SPIR-V backend and returns its path. */
+  protected String dumpBinaryToFile(String id, String entryPoint, byte[] binary) {
     ByteBuffer buffer = ByteBuffer.allocate(binary.length);
     buffer.order(ByteOrder.LITTLE_ENDIAN);
     buffer.put(binary);
@@ -111,14 +132,105 @@ public abstract class SPIRVCodeCache {
     String pathSeparator = FileSystems.getDefault().getSeparator();
     String spirvFile =
         spirvTempDirectory + pathSeparator + timeStamp + "-" + id + entryPoint + ".spv";
+    writeBufferToFile(buffer, spirvFile);
+    return spirvFile;
+  }
+
+  /**
+   * Disassembles a SPIR-V binary. The disassembler of the SPIR-V toolkit reads from a file, so the
+   * binary is written to a temporary file that is removed afterwards.
+   */
+  public static String disassemble(byte[] binary) {
+    try {
+      Path directory = Files.createDirectories(Paths.get(createSPIRVTempDirectoryName()));
+      Path spirvFile = Files.createTempFile(directory, "disassemble-", ".spv");
+      try {
+        Files.write(spirvFile, binary);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (PrintStream printStream = new PrintStream(output)) {
+          SPVFileReader reader = new SPVFileReader(spirvFile.toString());
+          SPIRVDisassemblerOptions disassemblerOptions =
+              new SPIRVDisassemblerOptions(true, true, false, true, false);
+          SPIRVTool spirvTool = new Disassembler(reader, printStream, disassemblerOptions);
+          spirvTool.run();
+        }
+        return output.toString();
+      } finally {
+        Files.deleteIfExists(spirvFile);
+      }
+    } catch (Exception e) {
+      throw new TornadoBailoutRuntimeException(e.getMessage());
+    }
+  }
+
+  /**
+   * Installs a SPIR-V binary generated by the backend. The module is optimized (see {@link
+   * SPIRVOptimizer}) and passed to the dispatcher from memory. It is only stored in the temp
+   * directory when debugging is enabled.
+   */
+  public SPIRVInstalledCode installSPIRVBinary(
+      TaskDataContext meta, String id, String entryPoint, byte[] binary) {
+    SPIRVInstalledCode code = buildSPIRVBinary(meta, id, entryPoint, binary);
+    cache.put(id + "-" + entryPoint, code);
+    return code;
+  }
+
+  /**
+   * Installs a shape-polymorphic variant of a kernel. Variants of a task share the task-id and the
+   * entry point, so they are indexed by their variant key instead, and they are invalidated when
+   * the {@link KernelShapeCache} evicts them.
+   */
+  public SPIRVInstalledCode installShapeVariant(
+      TaskDataContext meta, String id, String entryPoint, byte[] binary, String variantKey) {
+    SPIRVInstalledCode code = buildSPIRVBinary(meta, id, entryPoint, binary);
+    shapeVariants.put(variantKey, code);
+    return code;
+  }
+
+  private void evictShapeVariant(String variantKey) {
+    SPIRVInstalledCode code = shapeVariants.remove(variantKey);
+    if (code != null) {
+      code.invalidate();
+    }
+  }
+
+  private SPIRVInstalledCode buildSPIRVBinary(
+      TaskDataContext meta, String id, String entryPoint, byte[] binary) {
+    if (binary == null || binary.length == 0) {
+      throw new RuntimeException("[ERROR] SPIR-V Binary Module is Empty");
+    }
+    if (TornadoOptions.SPIRV_OPTIMIZER) {
+      binary = optimizer.optimize(id + "." + entryPoint, binary);
+    }
     if (TornadoOptions.DEBUG) {
-      System.out.println("SPIR-V Binary File: " + spirvFile);
+      System.out.println("SPIR-V Binary File: " + dumpBinaryToFile(id, entryPoint, binary));
     }
+    return install(meta, id, entryPoint, binary);
+  }
 
-    writeBufferToFile(buffer, spirvFile);
-    return installSPIRVBinary(meta, id, entryPoint, spirvFile);
+  /** Installs a pre-built SPIR-V binary from a file, as provided by the user. */
+  public SPIRVInstalledCode installSPIRVBinary(
+      TaskDataContext meta, String id, String entryPoint, String pathToFile) {
+    checkBinaryFileExists(pathToFile);
+    try {
+      SPIRVInstalledCode code =
+          install(meta, id, entryPoint, Files.readAllBytes(Paths.get(pathToFile)));
+      cache.put(id + "-" + entryPoint, code);
+      return code;
+    } catch (IOException e) {
+      throw new TornadoBailoutRuntimeException(e.getMessage());
+    }
+  }
+
+  private SPIRVInstalledCode install(
+      TaskDataContext meta, String id, String entryPoint, byte[] binary) {
+    if (meta.isPrintKernelEnabled()) {
+      System.out.println(disassemble(binary));
+    }
+    return installSPIRVModule(meta, id, entryPoint, binary);
   }
 
-  public abstract SPIRVInstalledCode installSPIRVBinary(
-      TaskDataContext meta, String id, String entryPoint, String pathToFile);
+  /** Creates the program or module for the dispatcher from a SPIR-V binary in memory. */
+  protected abstract SPIRVInstalledCode installSPIRVModule(
+      TaskDataContext meta, String id, String entryPoint, byte[] binary);
 }
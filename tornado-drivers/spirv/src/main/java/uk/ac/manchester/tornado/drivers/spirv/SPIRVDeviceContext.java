@@ -48,6 +48,7 @@ import uk.ac.manchester.tornado.drivers.spirv.runtime.SPIRVTornadoDevice;
 import uk.ac.manchester.tornado.drivers.spirv.timestamps.LevelZeroTransferTimeStamp;
 import uk.ac.manchester.tornado.drivers.spirv.timestamps.TimeStamp;
 import uk.ac.manchester.tornado.runtime.EmptyEvent;
+import uk.ac.manchester.tornado.runtime.common.KernelShapeCache;
 import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
@@ -71,10 +72,14 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
 
   private Set<Long> executionIds;
 
+  /** Execution plans whose current execution is not profiled (e.g., not sampled). */
+  private final Set<Long> plansWithoutProfiler;
+
   protected SPIRVDeviceContext(SPIRVDevice device, SPIRVContext context) {
     init(device);
     this.spirvContext = context;
     this.executionIds = Collections.synchronizedSet(new HashSet<>());
+    this.plansWithoutProfiler = ConcurrentHashMap.newKeySet();
   }
 
   private void init(SPIRVDevice device) {
@@ -152,9 +157,26 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
     return tornadoDevice;
   }
 
+  /**
+   * Sets whether the profiler records the current execution of an execution plan. The launch and
+   * transfer paths only create timers and query events of the plan when it is enabled.
+   */
+  public void setProfilerEnabled(long executionPlanId, boolean enabled) {
+    if (enabled) {
+      plansWithoutProfiler.remove(executionPlanId);
+    } else {
+      plansWithoutProfiler.add(executionPlanId);
+    }
+  }
+
+  public boolean isProfilerEnabled(long executionPlanId) {
+    return TornadoOptions.isProfilerEnabled() && !plansWithoutProfiler.contains(executionPlanId);
+  }
+
   @Override
   public void reset(long executionPlanId) {
     executionIds.remove(executionPlanId);
+    plansWithoutProfiler.remove(executionPlanId);
     spirvContext.reset(executionPlanId, getDeviceIndex());
     spirvEventPool.remove(executionPlanId);
     getMemoryManager().releaseKernelStackFrame(executionPlanId);
@@ -170,7 +192,7 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
       byte[] value,
       long hostOffset,
       int[] waitEvents) {
-    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers();
+    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers(executionPlanId);
     executionIds.add(executionPlanId);
     spirvContext.readBuffer(
         executionPlanId,
@@ -194,7 +216,7 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
       int[] value,
       long hostOffset,
       int[] waitEvents) {
-    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers();
+    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers(executionPlanId);
     executionIds.add(executionPlanId);
     spirvContext.readBuffer(
         executionPlanId,
@@ -218,7 +240,7 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
       float[] value,
       long hostOffset,
       int[] waitEvents) {
-    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers();
+    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers(executionPlanId);
     executionIds.add(executionPlanId);
     spirvContext.readBuffer(
         executionPlanId,
@@ -242,7 +264,7 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
       double[] value,
       long hostOffset,
       int[] waitEvents) {
-    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers();
+    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers(executionPlanId);
     executionIds.add(executionPlanId);
     spirvContext.readBuffer(
         executionPlanId,
@@ -266,7 +288,7 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
       long[] value,
       long hostOffset,
       int[] waitEvents) {
-    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers();
+    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers(executionPlanId);
     executionIds.add(executionPlanId);
     spirvContext.readBuffer(
         executionPlanId,
@@ -290,7 +312,7 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
       short[] value,
       long hostOffset,
       int[] waitEvents) {
-    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers();
+    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers(executionPlanId);
     executionIds.add(executionPlanId);
     spirvContext.readBuffer(
         executionPlanId,
@@ -314,7 +336,7 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
       char[] value,
       long hostOffset,
       int[] waitEvents) {
-    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers();
+    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers(executionPlanId);
     executionIds.add(executionPlanId);
     spirvContext.readBuffer(
         executionPlanId,
@@ -338,7 +360,7 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
       long offHeapSegmentAddress,
       long hostOffset,
       int[] waitEvents) {
-    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers();
+    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers(executionPlanId);
     executionIds.add(executionPlanId);
     spirvContext.readBuffer(
         executionPlanId,
@@ -530,8 +552,8 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
     throw new TornadoRuntimeException("Unimplemented");
   }
 
-  private ProfilerTransfer createStartAndStopBufferTimers() {
-    if (this instanceof SPIRVLevelZeroDeviceContext && TornadoOptions.isProfilerEnabled()) {
+  private ProfilerTransfer createStartAndStopBufferTimers(long executionPlanId) {
+    if (this instanceof SPIRVLevelZeroDeviceContext && isProfilerEnabled(executionPlanId)) {
       LevelZeroTransferTimeStamp start =
           new LevelZeroTransferTimeStamp(spirvContext, (LevelZeroDevice) device.getDeviceRuntime());
       LevelZeroTransferTimeStamp stop =
@@ -557,7 +579,7 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
       byte[] value,
       long hostOffset,
       int[] waitEvents) {
-    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers();
+    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers(executionPlanId);
     executionIds.add(executionPlanId);
     spirvContext.enqueueWriteBuffer(
         executionPlanId,
@@ -581,7 +603,7 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
       int[] value,
       long hostOffset,
       int[] waitEvents) {
-    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers();
+    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers(executionPlanId);
     executionIds.add(executionPlanId);
     spirvContext.enqueueWriteBuffer(
         executionPlanId,
@@ -605,7 +627,7 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
       float[] value,
       long hostOffset,
       int[] waitEvents) {
-    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers();
+    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers(executionPlanId);
     executionIds.add(executionPlanId);
     spirvContext.enqueueWriteBuffer(
         executionPlanId,
@@ -629,7 +651,7 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
       double[] value,
       long hostOffset,
       int[] waitEvents) {
-    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers();
+    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers(executionPlanId);
     executionIds.add(executionPlanId);
     spirvContext.enqueueWriteBuffer(
         executionPlanId,
@@ -653,7 +675,7 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
       long[] value,
       long hostOffset,
       int[] waitEvents) {
-    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers();
+    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers(executionPlanId);
     executionIds.add(executionPlanId);
     spirvContext.enqueueWriteBuffer(
         executionPlanId,
@@ -677,7 +699,7 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
       short[] value,
       long hostOffset,
       int[] waitEvents) {
-    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers();
+    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers(executionPlanId);
     executionIds.add(executionPlanId);
     spirvContext.enqueueWriteBuffer(
         executionPlanId,
@@ -701,7 +723,7 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
       char[] value,
       long hostOffset,
       int[] waitEvents) {
-    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers();
+    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers(executionPlanId);
     executionIds.add(executionPlanId);
     spirvContext.enqueueWriteBuffer(
         executionPlanId,
@@ -725,7 +747,7 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
       long value,
       long hostOffset,
       int[] waitEvents) {
-    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers();
+    ProfilerTransfer profilerTransfer = createStartAndStopBufferTimers(executionPlanId);
     executionIds.add(executionPlanId);
     spirvContext.enqueueWriteBuffer(
         executionPlanId,
@@ -761,6 +783,11 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
     return codeCache.installSPIRVBinary(meta, id, entryPoint, code);
   }
 
+  public SPIRVInstalledCode installShapeVariant(SPIRVCompilationResult result, String variantKey) {
+    return codeCache.installShapeVariant(
+        result.getMeta(), result.getId(), result.getName(), result.getSPIRVBinary(), variantKey);
+  }
+
   public SPIRVInstalledCode installBinary(
       TaskDataContext meta, String id, String entryPoint, String pathToFile) {
     return codeCache.installSPIRVBinary(meta, id, entryPoint, pathToFile);
@@ -779,6 +806,10 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
     return codeCache.getInstalledCode(id, entryPoint);
   }
 
+  public KernelShapeCache getShapeCache() {
+    return codeCache.getShapeCache();
+  }
+
   public int enqueueMarker(long executionPlanId) {
     executionIds.add(executionPlanId);
     spirvContext.enqueueBarrier(executionPlanId, getDeviceIndex());
@@ -798,7 +829,7 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
       SPIRVEventPool eventPool = getEventPool(executionPlanId);
       LinkedList<TimeStamp> list = eventPool.getTimers(eventId);
       EventDescriptor eventDescriptor = eventPool.getDescriptor(eventId);
-      if (TornadoOptions.isProfilerEnabled()) {
+      if (isProfilerEnabled(executionPlanId)) {
         return new SPIRVLevelZeroEvent(eventDescriptor, eventId, list.get(0), list.get(1));
       } else {
         return new SPIRVLevelZeroEvent(eventDescriptor, eventId, null, null);
@@ -23,11 +23,6 @@
  */
 package uk.ac.manchester.tornado.drivers.spirv;
 
-import java.io.FileNotFoundException;
-import uk.ac.manchester.beehivespirvtoolkit.lib.SPIRVTool;
-import uk.ac.manchester.beehivespirvtoolkit.lib.disassembler.Disassembler;
-import uk.ac.manchester.beehivespirvtoolkit.lib.disassembler.SPIRVDisassemblerOptions;
-import uk.ac.manchester.beehivespirvtoolkit.lib.disassembler.SPVFileReader;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.drivers.common.logging.Logger;
@@ -56,8 +51,8 @@ public class SPIRVLevelZeroCodeCache extends SPIRVCodeCache {
   }
 
   @Override
-  public synchronized SPIRVInstalledCode installSPIRVBinary(
-      TaskDataContext meta, String id, String entryPoint, String pathToFile) {
+  protected synchronized SPIRVInstalledCode installSPIRVModule(
+      TaskDataContext meta, String id, String entryPoint, byte[] binary) {
     ZeModuleHandle module = new ZeModuleHandle();
     ZeModuleDescriptor moduleDesc = new ZeModuleDescriptor();
     ZeBuildLogHandle buildLog = new ZeBuildLogHandle();
@@ -65,8 +60,6 @@ public class SPIRVLevelZeroCodeCache extends SPIRVCodeCache {
     final String compilerFlags = meta.getCompilerFlags(TornadoVMBackendType.SPIRV);
     moduleDesc.setBuildFlags(compilerFlags);
 
-    checkBinaryFileExists(pathToFile);
-
     SPIRVContext spirvContext = deviceContext.getSpirvContext();
     SPIRVLevelZeroContext levelZeroContext = (SPIRVLevelZeroContext) spirvContext;
     LevelZeroContext context = levelZeroContext.getLevelZeroContext();
@@ -78,14 +71,17 @@ public class SPIRVLevelZeroCodeCache extends SPIRVCodeCache {
     TornadoLogger logger = new TornadoLogger(this.getClass());
     logger.debug("\tSPIR-V/LeveZero compiler flags = %s", compilerFlags);
 
-    int result =
-        context.zeModuleCreate(
-            context.getDefaultContextPtr(),
-            device.getDeviceHandlerPtr(),
-            moduleDesc,
-            module,
-            buildLog,
-            pathToFile);
+    int result;
+    try (SPIRVMemoryFile moduleFile = SPIRVMemoryFile.create(id + "-" + entryPoint, binary)) {
+      result =
+          context.zeModuleCreate(
+              context.getDefaultContextPtr(),
+              device.getDeviceHandlerPtr(),
+              moduleDesc,
+              module,
+              buildLog,
+              moduleFile.getPath());
+    }
     LevelZeroUtils.errorLog("zeModuleCreate", result);
 
     if (result != ZeResult.ZE_RESULT_SUCCESS) {
@@ -101,23 +97,6 @@ public class SPIRVLevelZeroCodeCache extends SPIRVCodeCache {
       throw new TornadoBailoutRuntimeException("[Build SPIR-V ERROR]" + errorMessage[0]);
     }
 
-    if (meta.isPrintKernelEnabled()) {
-      SPVFileReader reader;
-      try {
-        reader = new SPVFileReader(pathToFile);
-      } catch (FileNotFoundException e) {
-        throw new TornadoBailoutRuntimeException(e.getMessage());
-      }
-      SPIRVDisassemblerOptions disassemblerOptions =
-          new SPIRVDisassemblerOptions(true, true, false, true, false);
-      SPIRVTool spirvTool = new Disassembler(reader, System.out, disassemblerOptions);
-      try {
-        spirvTool.run();
-      } catch (Exception e) {
-        throw new TornadoBailoutRuntimeException(e.getMessage());
-      }
-    }
-
     // Create Module Object
     LevelZeroModule levelZeroModule = new LevelZeroModule(module, moduleDesc, buildLog);
 
@@ -138,12 +117,9 @@ public class SPIRVLevelZeroCodeCache extends SPIRVCodeCache {
     LevelZeroKernel levelZeroKernel = new LevelZeroKernel(kernelDesc, kernel, levelZeroModule);
 
     SPIRVModule spirvModule =
-        new SPIRVLevelZeroModule(levelZeroModule, levelZeroKernel, entryPoint, pathToFile);
+        new SPIRVLevelZeroModule(levelZeroModule, levelZeroKernel, entryPoint, binary);
     SPIRVInstalledCode installedCode =
         new SPIRVLevelZeroInstalledCode(id, spirvModule, deviceContext);
-
-    // Install module in the code cache
-    cache.put(id + "-" + entryPoint, installedCode);
     return installedCode;
   }
 }
@@ -31,17 +31,17 @@ public class SPIRVLevelZeroModule implements SPIRVModule {
   private final LevelZeroModule levelZeroModule;
   private final LevelZeroKernel kernel;
   private final String entryPoint;
-  private final String pathToSPIRVBinary;
+  private final byte[] spirvBinary;
 
   public SPIRVLevelZeroModule(
       LevelZeroModule levelZeroModule,
       LevelZeroKernel kernel,
       String entryPoint,
-      String pathToSPIRVBinary) {
+      byte[] spirvBinary) {
     this.levelZeroModule = levelZeroModule;
     this.kernel = kernel;
     this.entryPoint = entryPoint;
-    this.pathToSPIRVBinary = pathToSPIRVBinary;
+    this.spirvBinary = spirvBinary;
   }
 
   public LevelZeroModule getLevelZeroModule() {
@@ -58,7 +58,7 @@ public class SPIRVLevelZeroModule implements SPIRVModule {
   }
 
   @Override
-  public String getPathToSPIRVBinary() {
-    return pathToSPIRVBinary;
+  public byte[] getSPIRVBinary() {
+    return spirvBinary;
   }
 }
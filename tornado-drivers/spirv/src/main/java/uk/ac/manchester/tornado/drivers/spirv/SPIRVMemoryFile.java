@@ -0,0 +1,136 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.spirv;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.SymbolLookup;
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
+
+/**
+ * Anonymous in-memory file that holds a SPIR-V binary. The Level Zero bindings only create modules
+ * from a path, so on Linux the binary is written to a file created with {@code memfd_create} and
+ * passed as {@code /proc/self/fd/<fd>}: the module is never stored in a filesystem. On other
+ * platforms, a temporary file is used and removed when this object is closed.
+ */
+final class SPIRVMemoryFile implements AutoCloseable {
+
+  private static final int MFD_CLOEXEC = 1;
+
+  private static final MethodHandle MEMFD_CREATE;
+  private static final MethodHandle CLOSE;
+
+  static {
+    MethodHandle memfdCreate = null;
+    MethodHandle close = null;
+    try {
+      Linker linker = Linker.nativeLinker();
+      memfdCreate =
+          downcall(linker, "memfd_create", FunctionDescriptor.of(JAVA_INT, ADDRESS, JAVA_INT));
+      close = downcall(linker, "close", FunctionDescriptor.of(JAVA_INT, JAVA_INT));
+    } catch (IllegalArgumentException | UnsupportedOperationException e) {
+      memfdCreate = null;
+    }
+    MEMFD_CREATE = memfdCreate;
+    CLOSE = close;
+  }
+
+  private final Path path;
+  private final int fileDescriptor;
+
+  private SPIRVMemoryFile(Path path, int fileDescriptor) {
+    this.path = path;
+    this.fileDescriptor = fileDescriptor;
+  }
+
+  static SPIRVMemoryFile create(String name, byte[] binary) {
+    if (MEMFD_CREATE != null && CLOSE != null) {
+      int fileDescriptor = createMemoryFile(name);
+      if (fileDescriptor >= 0) {
+        Path path = Paths.get("/proc/self/fd/" + fileDescriptor);
+        try {
+          Files.write(path, binary);
+          return new SPIRVMemoryFile(path, fileDescriptor);
+        } catch (IOException e) {
+          closeFileDescriptor(fileDescriptor);
+        }
+      }
+    }
+    try {
+      Path path = Files.createTempFile(name, ".spv");
+      Files.write(path, binary);
+      return new SPIRVMemoryFile(path, -1);
+    } catch (IOException e) {
+      throw new TornadoBailoutRuntimeException(
+          "Error - Exception when creating the SPIR-V module file: " + e.getMessage());
+    }
+  }
+
+  private static MethodHandle downcall(Linker linker, String name, FunctionDescriptor descriptor) {
+    SymbolLookup libc = linker.defaultLookup();
+    return libc.find(name).map(symbol -> linker.downcallHandle(symbol, descriptor)).orElse(null);
+  }
+
+  private static int createMemoryFile(String name) {
+    try (Arena arena = Arena.ofConfined()) {
+      return (int) MEMFD_CREATE.invokeExact(arena.allocateUtf8String(name), MFD_CLOEXEC);
+    } catch (Throwable e) {
+      return -1;
+    }
+  }
+
+  private static void closeFileDescriptor(int fileDescriptor) {
+    try {
+      int unused = (int) CLOSE.invokeExact(fileDescriptor);
+    } catch (Throwable e) {
+      // The descriptor is released when the process exits
+    }
+  }
+
+  String getPath() {
+    return path.toString();
+  }
+
+  @Override
+  public void close() {
+    if (fileDescriptor >= 0) {
+      closeFileDescriptor(fileDescriptor);
+    } else {
+      try {
+        Files.deleteIfExists(path);
+      } catch (IOException e) {
+        // Temporary files are removed by the operating system
+      }
+    }
+  }
+}
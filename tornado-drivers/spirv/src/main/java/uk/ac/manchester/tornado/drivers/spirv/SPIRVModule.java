@@ -25,7 +25,8 @@ package uk.ac.manchester.tornado.drivers.spirv;
 
 public interface SPIRVModule {
 
-  String getPathToSPIRVBinary();
+  /** Returns the SPIR-V binary installed in the dispatcher, after optimizations. */
+  byte[] getSPIRVBinary();
 
   String getEntryPoint();
 }
@@ -27,12 +27,12 @@ public class SPIRVOCLModule implements SPIRVModule {
 
   private final long kernelPointer;
   private final String entryPoint;
-  private final String pathToSPIRVBinary;
+  private final byte[] spirvBinary;
 
-  public SPIRVOCLModule(long kernel, String entryPoint, String pathToSPIRVBinary) {
+  public SPIRVOCLModule(long kernel, String entryPoint, byte[] spirvBinary) {
     this.kernelPointer = kernel;
     this.entryPoint = entryPoint;
-    this.pathToSPIRVBinary = pathToSPIRVBinary;
+    this.spirvBinary = spirvBinary;
   }
 
   public long getKernelPointer() {
@@ -45,7 +45,7 @@ public class SPIRVOCLModule implements SPIRVModule {
   }
 
   @Override
-  public String getPathToSPIRVBinary() {
-    return pathToSPIRVBinary;
+  public byte[] getSPIRVBinary() {
+    return spirvBinary;
   }
 }
@@ -147,7 +147,12 @@ public class SPIRVLevelZeroInstalledCode extends SPIRVInstalledCode {
       WorkerGrid worker = meta.getWorkerGrid(meta.getId());
       int dims = worker.dimension();
 
-      System.arraycopy(worker.getGlobalWork(), 0, globalWork, 0, dims);
+      System.arraycopy(
+          meta.coarsenGlobalWork(worker.getGlobalWork(), worker.getLocalWork()),
+          0,
+          globalWork,
+          0,
+          dims);
 
       if (worker.getLocalWork() != null) {
         System.arraycopy(worker.getLocalWork(), 0, localWork, 0, dims);
@@ -247,7 +252,8 @@ public class SPIRVLevelZeroInstalledCode extends SPIRVInstalledCode {
                 .getCommandQueueForDevice(executionPlanId, deviceContext.getDeviceIndex());
     LevelZeroCommandList commandList = commandQueue.getCommandList();
 
-    if (TornadoOptions.isProfilerEnabled()) {
+    kernelTimeStamp = null;
+    if (deviceContext.isProfilerEnabled(executionPlanId)) {
       kernelTimeStamp = new LevelZeroKernelTimeStamp(deviceContext, commandList, commandQueue);
       kernelTimeStamp.createEventTimer();
     }
@@ -324,7 +330,7 @@ public class SPIRVLevelZeroInstalledCode extends SPIRVInstalledCode {
     launchKernelWithLevelZero(
         executionPlanId, kernel, deviceThreadScheduling, threadBlockDispatcher);
 
-    if (TornadoOptions.isProfilerEnabled()) {
+    if (deviceContext.isProfilerEnabled(executionPlanId)) {
       kernelTimeStamp.solveEvent(executionPlanId, meta);
     }
 
@@ -412,6 +418,9 @@ public class SPIRVLevelZeroInstalledCode extends SPIRVInstalledCode {
       }
       globalWork[i] = value;
     }
+    final long[] coarsened =
+        meta.coarsenGlobalWork(globalWork, meta.isLocalWorkDefined() ? meta.getLocalWork() : null);
+    System.arraycopy(coarsened, 0, globalWork, 0, globalWork.length);
   }
 
   private void checkLocalWorkGroupFitsOnDevice(final TaskDataContext meta) {
@@ -42,7 +42,6 @@ import uk.ac.manchester.tornado.drivers.spirv.mm.SPIRVKernelStackFrame;
 import uk.ac.manchester.tornado.drivers.spirv.ocl.SPIRVOCLNativeDispatcher;
 import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
-import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
 
 public class SPIRVOCLInstalledCode extends SPIRVInstalledCode {
@@ -199,7 +198,7 @@ public class SPIRVOCLInstalledCode extends SPIRVInstalledCode {
           kernelPointer, //
           workerGrid.dimension(),
           workerGrid.getGlobalOffset(),
-          workerGrid.getGlobalWork(),
+          meta.coarsenGlobalWork(workerGrid.getGlobalWork(), workerGrid.getLocalWork()),
           workerGrid.getLocalWork(), //
           waitEvents,
           kernelEvent); //
@@ -222,7 +221,7 @@ public class SPIRVOCLInstalledCode extends SPIRVInstalledCode {
 
   private void updateProfiler(
       long executionPlanId, final int taskEvent, final TaskDataContext meta) {
-    if (TornadoOptions.isProfilerEnabled()) {
+    if (deviceContext.isProfilerEnabled(executionPlanId)) {
       Event tornadoKernelEvent = deviceContext.resolveEvent(executionPlanId, taskEvent);
       tornadoKernelEvent.waitForEvents(executionPlanId);
       long timer = meta.getProfiler().getTimer(ProfilerType.TOTAL_KERNEL_TIME);
@@ -261,7 +260,12 @@ public class SPIRVOCLInstalledCode extends SPIRVInstalledCode {
     } else {
       checkLocalWorkGroupFitsOnDevice(meta);
       WorkerGrid worker = meta.getWorkerGrid(meta.getId());
-      System.arraycopy(worker.getGlobalWork(), 0, gwg, 0, gwg.length);
+      System.arraycopy(
+          meta.coarsenGlobalWork(worker.getGlobalWork(), worker.getLocalWork()),
+          0,
+          gwg,
+          0,
+          gwg.length);
       if (worker.getLocalWork() != null) {
         System.arraycopy(worker.getLocalWork(), 0, lwg, 0, lwg.length);
       }
@@ -348,6 +352,9 @@ public class SPIRVOCLInstalledCode extends SPIRVInstalledCode {
       }
       globalWork[i] = value;
     }
+    final long[] coarsened =
+        meta.coarsenGlobalWork(globalWork, meta.isLocalWorkDefined() ? meta.getLocalWork() : null);
+    System.arraycopy(coarsened, 0, globalWork, 0, globalWork.length);
   }
 
   private void checkLocalWorkGroupFitsOnDevice(final TaskDataContext meta) {
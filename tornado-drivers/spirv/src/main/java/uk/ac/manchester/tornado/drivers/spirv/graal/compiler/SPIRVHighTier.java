@@ -56,6 +56,7 @@ import uk.ac.manchester.tornado.drivers.spirv.graal.phases.TornadoHalfFloatRepla
 import uk.ac.manchester.tornado.drivers.spirv.graal.phases.TornadoParallelScheduler;
 import uk.ac.manchester.tornado.drivers.spirv.graal.phases.TornadoSPIRVIntrinsicsReplacements;
 import uk.ac.manchester.tornado.drivers.spirv.graal.phases.TornadoTaskSpecialization;
+import uk.ac.manchester.tornado.drivers.spirv.graal.phases.TornadoThreadCoarsening;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoHighTier;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoInliningPolicy;
@@ -112,7 +113,9 @@ public class SPIRVHighTier extends TornadoHighTier {
 
     appendPhase(new TornadoShapeAnalysis());
     appendPhase(canonicalizer);
-    appendPhase(new TornadoParallelScheduler());
+    TornadoParallelScheduler parallelScheduler = new TornadoParallelScheduler();
+    appendPhase(new TornadoThreadCoarsening(parallelScheduler));
+    appendPhase(parallelScheduler);
     appendPhase(new SchedulePhase(SchedulePhase.SchedulingStrategy.EARLIEST));
 
     if (!deviceContext.isPlatformFPGA()) {
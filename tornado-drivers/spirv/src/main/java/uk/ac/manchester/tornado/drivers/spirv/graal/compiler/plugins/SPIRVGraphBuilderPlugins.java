@@ -65,7 +65,9 @@ import org.graalvm.compiler.nodes.memory.address.OffsetAddressNode;
 import org.graalvm.compiler.replacements.InlineDuringParsingPlugin;
 import org.graalvm.word.LocationIdentity;
 import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.types.utils.SegmentAtomics;
 import uk.ac.manchester.tornado.drivers.common.logging.Logger;
 import uk.ac.manchester.tornado.drivers.spirv.graal.SPIRVArchitecture;
 import uk.ac.manchester.tornado.drivers.spirv.graal.lir.SPIRVKind;
@@ -103,6 +105,7 @@ public class SPIRVGraphBuilderPlugins {
 
     // Register plugins for the new API
     registerKernelContextPlugins(invocationPlugins);
+    SPIRVSubGroupPlugins.registerPlugins(invocationPlugins);
 
     SPIRVMathPlugins.registerTornadoMathPlugins(invocationPlugins);
     SPIRVVectorPlugins.registerPlugins(plugins, invocationPlugins);
@@ -110,6 +113,59 @@ public class SPIRVGraphBuilderPlugins {
     SPIRVHalfFloatPlugins.registerPlugins(plugins, invocationPlugins);
     // Register plugins for Off-Heap Arrays with Panama
     registerMemoryAccessPlugins(invocationPlugins);
+    registerSegmentAtomicsPlugins(invocationPlugins);
+  }
+
+  private static TornadoBailoutRuntimeException unsupportedAtomic(ResolvedJavaMethod method) {
+    return new TornadoBailoutRuntimeException(
+        "[UNSUPPORTED] KernelContext atomics are not supported by the SPIR-V backend: "
+            + method.format("%H.%n(%p)"));
+  }
+
+  /**
+   * The SPIR-V backend does not emit OpAtomic* instructions yet. Compiling the host implementation
+   * of {@link SegmentAtomics} would produce plain loads and stores, so the compilation bails out
+   * instead.
+   */
+  private static void registerSegmentAtomicsPlugins(InvocationPlugins plugins) {
+    Registration r = new Registration(plugins, SegmentAtomics.class);
+
+    for (JavaKind kind : new JavaKind[] {JavaKind.Int, JavaKind.Long, JavaKind.Float}) {
+      for (String name : new String[] {"getAndAdd", "getAndMin", "getAndMax", "getAndSet"}) {
+        r.register(
+            new InvocationPlugin(name, MemorySegment.class, long.class, kind.toJavaClass()) {
+              @Override
+              public boolean apply(
+                  GraphBuilderContext b,
+                  ResolvedJavaMethod targetMethod,
+                  Receiver receiver,
+                  ValueNode segment,
+                  ValueNode index,
+                  ValueNode value) {
+                throw unsupportedAtomic(targetMethod);
+              }
+            });
+      }
+      r.register(
+          new InvocationPlugin(
+              "compareAndExchange",
+              MemorySegment.class,
+              long.class,
+              kind.toJavaClass(),
+              kind.toJavaClass()) {
+            @Override
+            public boolean apply(
+                GraphBuilderContext b,
+                ResolvedJavaMethod targetMethod,
+                Receiver receiver,
+                ValueNode segment,
+                ValueNode index,
+                ValueNode expected,
+                ValueNode value) {
+              throw unsupportedAtomic(targetMethod);
+            }
+          });
+    }
   }
 
   private static void registerOpenCLBuiltinPlugins(InvocationPlugins plugins) {
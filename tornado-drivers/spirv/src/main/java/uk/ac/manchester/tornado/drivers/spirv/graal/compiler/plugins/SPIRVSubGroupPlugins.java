@@ -0,0 +1,121 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.spirv.graal.compiler.plugins;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderContext;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugin;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugin.Receiver;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins.Registration;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
+
+/**
+ * Plugins for the sub-group methods of the {@link KernelContext}. The SPIR-V backend does not emit
+ * the OpGroupNonUniform* instructions yet, and compiling the Java implementation would treat every
+ * thread as a sub-group of size one. These plugins reject the methods so the compilation bails
+ * out.
+ */
+public class SPIRVSubGroupPlugins {
+
+  private static final String[] QUERIES = {
+    "subGroupId", "subGroupLocalId", "subGroupSize", "numSubGroups"
+  };
+
+  private static final String[] SHUFFLES = {
+    "subGroupShuffle", "subGroupShuffleXor", "subGroupBroadcast"
+  };
+
+  private static final String[] COLLECTIVES = {
+    "subGroupReduceAdd",
+    "subGroupReduceMin",
+    "subGroupReduceMax",
+    "subGroupScanInclusiveAdd",
+    "subGroupScanExclusiveAdd"
+  };
+
+  public static void registerPlugins(InvocationPlugins plugins) {
+    Registration r = new Registration(plugins, KernelContext.class);
+
+    for (String name : QUERIES) {
+      r.register(
+          new InvocationPlugin(name, Receiver.class) {
+            @Override
+            public boolean apply(
+                GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver) {
+              throw unsupported(targetMethod);
+            }
+          });
+    }
+    r.register(
+        new InvocationPlugin("subGroupBallot", Receiver.class, boolean.class) {
+          @Override
+          public boolean apply(
+              GraphBuilderContext b,
+              ResolvedJavaMethod targetMethod,
+              Receiver receiver,
+              ValueNode predicate) {
+            throw unsupported(targetMethod);
+          }
+        });
+    for (JavaKind kind : new JavaKind[] {JavaKind.Int, JavaKind.Float}) {
+      for (String name : SHUFFLES) {
+        r.register(
+            new InvocationPlugin(name, Receiver.class, kind.toJavaClass(), int.class) {
+              @Override
+              public boolean apply(
+                  GraphBuilderContext b,
+                  ResolvedJavaMethod targetMethod,
+                  Receiver receiver,
+                  ValueNode value,
+                  ValueNode lane) {
+                throw unsupported(targetMethod);
+              }
+            });
+      }
+      for (String name : COLLECTIVES) {
+        r.register(
+            new InvocationPlugin(name, Receiver.class, kind.toJavaClass()) {
+              @Override
+              public boolean apply(
+                  GraphBuilderContext b,
+                  ResolvedJavaMethod targetMethod,
+                  Receiver receiver,
+                  ValueNode value) {
+                throw unsupported(targetMethod);
+              }
+            });
+      }
+    }
+  }
+
+  private static TornadoBailoutRuntimeException unsupported(ResolvedJavaMethod method) {
+    return new TornadoBailoutRuntimeException(
+        "[UNSUPPORTED] Sub-group operations are not supported by the SPIR-V backend: "
+            + method.format("%H.%n(%p)"));
+  }
+}
@@ -27,16 +27,22 @@ package uk.ac.manchester.tornado.drivers.spirv.graal.phases;
 import static uk.ac.manchester.tornado.runtime.TornadoCoreRuntime.getDebugContext;
 
 import java.util.Optional;
+import jdk.vm.ci.meta.JavaKind;
 import org.graalvm.compiler.debug.DebugContext;
 import org.graalvm.compiler.nodes.ConstantNode;
 import org.graalvm.compiler.nodes.GraphState;
 import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
 import org.graalvm.compiler.nodes.calc.AddNode;
 import org.graalvm.compiler.nodes.calc.MulNode;
+import org.graalvm.compiler.nodes.calc.SubNode;
 import org.graalvm.compiler.phases.BasePhase;
 import uk.ac.manchester.tornado.drivers.spirv.graal.nodes.GlobalThreadIdNode;
 import uk.ac.manchester.tornado.drivers.spirv.graal.nodes.GlobalThreadSizeNode;
+import uk.ac.manchester.tornado.drivers.spirv.graal.nodes.SPIRVIntBinaryIntrinsicNode;
+import uk.ac.manchester.tornado.drivers.spirv.graal.nodes.calc.DivNode;
 import uk.ac.manchester.tornado.drivers.spirv.runtime.SPIRVTornadoDevice;
+import uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy;
 import uk.ac.manchester.tornado.runtime.graal.nodes.AbstractParallelNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelOffsetNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelRangeNode;
@@ -71,6 +77,76 @@ public class TornadoParallelScheduler extends BasePhase<TornadoHighTierContext>
     range.replaceAtUsages(range.value());
   }
 
+  // Block scheduling with stride: each thread processes a contiguous block of iterations
+  private ValueNode buildBlockSize(StructuredGraph graph, ParallelRangeNode range) {
+    final ValueNode rangeByStride =
+        graph.addOrUnique(DivNode.create(range.value(), range.stride().value()));
+    final SubNode trueRange = graph.addOrUnique(new SubNode(rangeByStride, range.offset().value()));
+    final ConstantNode index = ConstantNode.forInt(range.index(), graph);
+    final GlobalThreadSizeNode threadCount = graph.addOrUnique(new GlobalThreadSizeNode(index));
+    final SubNode threadCountM1 =
+        graph.addOrUnique(new SubNode(threadCount, ConstantNode.forInt(1, graph)));
+    final AddNode adjustedTrueRange = graph.addOrUnique(new AddNode(trueRange, threadCountM1));
+    final ValueNode div = graph.addOrUnique(DivNode.create(adjustedTrueRange, threadCount));
+    return graph.addOrUnique(new MulNode(div, range.stride().value()));
+  }
+
+  private ValueNode replaceRangePerBlock(StructuredGraph graph, ParallelRangeNode range) {
+    ValueNode blockSize = buildBlockSize(graph, range);
+    final GlobalThreadIdNode threadId =
+        graph.addOrUnique(new GlobalThreadIdNode(ConstantNode.forInt(range.index(), graph)));
+    final MulNode newOffset = graph.addOrUnique(new MulNode(threadId, blockSize));
+    final AddNode newRange = graph.addOrUnique(new AddNode(newOffset, blockSize));
+    final MulNode stride = graph.addOrUnique(new MulNode(newRange, range.stride().value()));
+    final ValueNode adjustedRange =
+        graph.addOrUnique(
+            SPIRVIntBinaryIntrinsicNode.create(
+                stride,
+                range.value(),
+                SPIRVIntBinaryIntrinsicNode.SPIRVIntOperation.MIN,
+                JavaKind.Int));
+    range.replaceAtUsages(adjustedRange);
+    range.safeDelete();
+    return blockSize;
+  }
+
+  private void replaceOffsetPerBlock(
+      StructuredGraph graph, ParallelOffsetNode offset, ValueNode blockSize) {
+    final GlobalThreadIdNode threadId =
+        graph.addOrUnique(new GlobalThreadIdNode(ConstantNode.forInt(offset.index(), graph)));
+    final MulNode newOffset = graph.addOrUnique(new MulNode(threadId, blockSize));
+    offset.replaceAtUsages(newOffset);
+    offset.safeDelete();
+  }
+
+  private void replaceStridePerBlock(ParallelStrideNode stride) {
+    stride.replaceAtUsages(stride.value());
+    stride.safeDelete();
+  }
+
+  /**
+   * Replaces the parallel nodes (range, offset and stride) of a loop with the thread
+   * identifiers of the given scheduling strategy.
+   *
+   * @param graph Graph of the task.
+   * @param range Parallel range of the loop.
+   * @param strategy {@link TornadoSchedulingStrategy}
+   */
+  void scheduleLoop(
+      StructuredGraph graph, ParallelRangeNode range, TornadoSchedulingStrategy strategy) {
+    ParallelOffsetNode offset = range.offset();
+    ParallelStrideNode stride = range.stride();
+    if (strategy == TornadoSchedulingStrategy.PER_CPU_BLOCK) {
+      ValueNode blockSize = replaceRangePerBlock(graph, range);
+      replaceOffsetPerBlock(graph, offset, blockSize);
+      replaceStridePerBlock(stride);
+    } else {
+      replaceRangeNode(range);
+      replaceOffsetNode(graph, offset, range);
+      replaceStrideNode(graph, stride);
+    }
+  }
+
   @Override
   protected void run(StructuredGraph graph, TornadoHighTierContext context) {
     if (context.getMeta() == null) {
@@ -86,12 +162,8 @@ public class TornadoParallelScheduler extends BasePhase<TornadoHighTierContext>
         .forEach(
             parallelRange -> {
               if (maxWorkItemSizes[parallelRange.index()] > 1) {
-                ParallelOffsetNode offset = parallelRange.offset();
-                ParallelStrideNode stride = parallelRange.stride();
-                replaceRangeNode(parallelRange);
-                replaceOffsetNode(graph, offset, parallelRange);
-                replaceStrideNode(graph, stride);
-
+                scheduleLoop(
+                    graph, parallelRange, TornadoSchedulingStrategy.PER_ACCELERATOR_ITERATION);
               } else {
                 serialiseLoop(parallelRange);
               }
@@ -81,6 +81,7 @@ public class TornadoTaskSpecialization extends BasePhase<TornadoHighTierContext>
   private boolean gridScheduling;
   private int index;
   private boolean printOnce = true;
+  private boolean shapePolymorphic;
 
   public TornadoTaskSpecialization(CanonicalizerPhase canonicalizer) {
     this.canonicalizer = canonicalizer;
@@ -190,6 +191,12 @@ public class TornadoTaskSpecialization extends BasePhase<TornadoHighTierContext>
     return constant;
   }
 
+  private static boolean isArraySizeNode(Node node) {
+    return node instanceof ArrayLengthNode
+        || (node instanceof LoadFieldNode loadField
+            && loadField.field().getName().equals("numberOfElements"));
+  }
+
   private void printWarningMessageForDynamicLoopBounds() {
     if (printOnce) {
       System.out.println(WARNING_GRID_SCHEDULER_DYNAMIC_LOOP_BOUNDS);
@@ -198,6 +205,10 @@ public class TornadoTaskSpecialization extends BasePhase<TornadoHighTierContext>
   }
 
   private void evaluate(final StructuredGraph graph, final Node node, final Object value) {
+    if (shapePolymorphic && isArraySizeNode(node)) {
+      // Shape-polymorphic kernels read the array sizes from the device buffers.
+      return;
+    }
     if (node instanceof ArrayLengthNode arrayLength) {
       int length = Array.getLength(value);
 
@@ -315,6 +326,9 @@ public class TornadoTaskSpecialization extends BasePhase<TornadoHighTierContext>
             graph.addOrUnique(new SPIRVKernelContextAccessNode(constantValue));
         parameterNode.replaceAtUsages(kernelContextAccessNode);
         index++;
+      } else if (shapePolymorphic) {
+        // Shape-polymorphic kernels receive the scalar values as kernel arguments.
+        return;
       } else {
         var value = args[parameterNode.index()];
         ConstantNode primitiveConstant = createPrimitiveConstantFromObjectParameter(value, graph);
@@ -379,6 +393,8 @@ public class TornadoTaskSpecialization extends BasePhase<TornadoHighTierContext>
     boolean hasWork = true;
     this.batchThreads = context.getBatchCompilationConfig().getBatchThreads();
     this.gridScheduling = context.isGridSchedulerEnabled();
+    this.shapePolymorphic =
+        context.hasMeta() && context.getMeta().isShapePolymorphicEnabled() && batchThreads <= 0;
 
     while (hasWork) {
       final Graph.Mark mark = graph.getMark();
@@ -422,7 +438,7 @@ public class TornadoTaskSpecialization extends BasePhase<TornadoHighTierContext>
       hasWork =
           (lastNodeCount != graph.getNodeCount()
                   || graph.getNewNodes(mark).isNotEmpty()
-                  || hasPanamaArraySizeNode(graph))
+                  || (!shapePolymorphic && hasPanamaArraySizeNode(graph)))
               && (iterations < MAX_ITERATIONS);
       lastNodeCount = graph.getNodeCount();
       iterations++;
@@ -0,0 +1,95 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.spirv.graal.phases;
+
+import static uk.ac.manchester.tornado.runtime.TornadoCoreRuntime.getDebugContext;
+
+import java.util.Optional;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.nodes.GraphState;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.phases.BasePhase;
+import uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelRangeNode;
+import uk.ac.manchester.tornado.runtime.graal.phases.TornadoHighTierContext;
+import uk.ac.manchester.tornado.runtime.tasks.meta.Coarseness;
+
+/**
+ * Thread-coarsening phase. It runs before the {@link TornadoParallelScheduler} and, when a task
+ * requests the {@link Coarseness.Layout#CONSECUTIVE} layout ({@code <task>.coarseness.layout}),
+ * it schedules its parallel loops in blocks of contiguous iterations per thread instead of the
+ * default grid-stride loops. The block size is computed from the number of threads launched, so
+ * the coarsening factors applied by the kernel schedulers do not require recompilation.
+ */
+public class TornadoThreadCoarsening extends BasePhase<TornadoHighTierContext> {
+
+  private final TornadoParallelScheduler parallelScheduler;
+
+  public TornadoThreadCoarsening(TornadoParallelScheduler parallelScheduler) {
+    this.parallelScheduler = parallelScheduler;
+  }
+
+  @Override
+  public Optional<NotApplicable> notApplicableTo(GraphState graphState) {
+    return ALWAYS_APPLICABLE;
+  }
+
+  @Override
+  protected void run(StructuredGraph graph, TornadoHighTierContext context) {
+    if (context.getMeta() == null || context.getMeta().getCoarseness() == null) {
+      return;
+    }
+    Coarseness.Layout layout = context.getMeta().getCoarseness().getLayout();
+    if (layout == null) {
+      return;
+    }
+
+    TornadoXPUDevice device = context.getDeviceMapping();
+    final TornadoSchedulingStrategy strategy =
+        (layout == Coarseness.Layout.CONSECUTIVE)
+            ? TornadoSchedulingStrategy.PER_CPU_BLOCK
+            : TornadoSchedulingStrategy.PER_ACCELERATOR_ITERATION;
+    TornadoSchedulingStrategy preferred = device.getPreferredSchedule();
+    if (preferred == null) {
+      preferred = TornadoSchedulingStrategy.PER_ACCELERATOR_ITERATION;
+    }
+    if (strategy == preferred) {
+      return;
+    }
+
+    long[] maxWorkItemSizes = device.getPhysicalDevice().getDeviceMaxWorkItemSizes();
+    for (ParallelRangeNode node : graph.getNodes().filter(ParallelRangeNode.class).snapshot()) {
+      if (maxWorkItemSizes[node.index()] > 1) {
+        parallelScheduler.scheduleLoop(graph, node, strategy);
+        getDebugContext()
+            .dump(
+                DebugContext.BASIC_LEVEL,
+                graph,
+                "after coarsening loop index=" + node.index() + " layout=" + layout);
+      }
+    }
+    graph.clearLastSchedule();
+  }
+}
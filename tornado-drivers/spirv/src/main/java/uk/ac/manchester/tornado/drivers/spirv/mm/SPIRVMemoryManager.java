@@ -46,6 +46,16 @@ public class SPIRVMemoryManager implements TornadoMemoryProvider {
     return DEVICE_AVAILABLE_MEMORY;
   }
 
+  @Override
+  public long getNumEvictions() {
+    return deviceContext.getBufferProvider().getEvictionManager().getNumEvictions();
+  }
+
+  @Override
+  public long getSpilledBytes() {
+    return deviceContext.getBufferProvider().getEvictionManager().getSpilledBytes();
+  }
+
   public SPIRVKernelStackFrame createKernelStackFrame(long threadId, final int maxArgs) {
     if (!spirvKernelStackFrame.containsKey(threadId)) {
       long kernelCallBuffer =
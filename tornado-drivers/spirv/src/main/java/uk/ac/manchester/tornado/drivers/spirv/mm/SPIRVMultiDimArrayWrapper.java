@@ -23,13 +23,17 @@
  */
 package uk.ac.manchester.tornado.drivers.spirv.mm;
 
+import java.lang.foreign.MemorySegment;
 import java.lang.reflect.Array;
+import java.util.List;
 import java.util.function.Function;
 import jdk.vm.ci.meta.JavaKind;
 import uk.ac.manchester.tornado.api.exceptions.TornadoMemoryException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException;
+import uk.ac.manchester.tornado.drivers.common.mm.PackedMultiDimLayout;
 import uk.ac.manchester.tornado.drivers.spirv.SPIRVDeviceContext;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 
 public class SPIRVMultiDimArrayWrapper<T, E> extends SPIRVArrayWrapper<T> {
 
@@ -39,6 +43,14 @@ public class SPIRVMultiDimArrayWrapper<T, E> extends SPIRVArrayWrapper<T> {
   private SPIRVArrayWrapper<E>[] wrappers;
   private final SPIRVDeviceContext deviceContext;
 
+  // Packed mode: all rows are staged into a single device buffer
+  private final boolean packed;
+  private PackedMultiDimLayout layout;
+  private long packedBufferId = -1;
+  private long packedBufferSize;
+  private long rowBytes;
+  private int rowsPerChunk;
+
   public SPIRVMultiDimArrayWrapper(
       SPIRVDeviceContext deviceContext,
       Function<SPIRVDeviceContext, ? extends SPIRVArrayWrapper<E>> innerWrapperFactory,
@@ -47,16 +59,17 @@ public class SPIRVMultiDimArrayWrapper<T, E> extends SPIRVArrayWrapper<T> {
     this.deviceContext = deviceContext;
     this.innerWrapperFactory = innerWrapperFactory;
     this.tableWrapper = new SPIRVLongArrayWrapper(deviceContext, batchSize);
+    this.packed = TornadoOptions.PACKED_MULTIDIM_ARRAYS;
   }
 
   @Override
   public long toBuffer() {
-    return tableWrapper.toBuffer();
+    return packed ? packedBufferId : tableWrapper.toBuffer();
   }
 
   @Override
   public long size() {
-    return tableWrapper.size();
+    return packed ? packedBufferSize : tableWrapper.size();
   }
 
   private E[] innerCast(T value) {
@@ -80,6 +93,10 @@ public class SPIRVMultiDimArrayWrapper<T, E> extends SPIRVArrayWrapper<T> {
   @Override
   public void allocate(Object value, long batchSize)
       throws TornadoOutOfMemoryException, TornadoMemoryException {
+    if (packed) {
+      allocatePacked(value, batchSize);
+      return;
+    }
     if (batchSize > 0) {
       throw new TornadoMemoryException(
           "[ERROR] BatchSize Allocation currently not supported. BatchSize = "
@@ -96,6 +113,114 @@ public class SPIRVMultiDimArrayWrapper<T, E> extends SPIRVArrayWrapper<T> {
     allocateElements((T) value, batchSize);
   }
 
+  private void allocatePacked(Object value, long batchSize) {
+    layout = new PackedMultiDimLayout(PackedMultiDimLayout.elementKindOf(value));
+    final int rows = Array.getLength(value);
+    rowsPerChunk = rows;
+    if (batchSize > 0) {
+      rowBytes = layout.rectangularRowBytes(value);
+      if (rowBytes <= 0 || batchSize % rowBytes != 0) {
+        throw new TornadoMemoryException(
+            "[ERROR] Batch processing of multi-dimensional arrays requires rectangular arrays and a"
+                + " batch size multiple of the row size. BatchSize = "
+                + batchSize
+                + " (bytes)");
+      }
+      rowsPerChunk = (int) Math.min(rows, batchSize / rowBytes);
+    }
+    packedBufferSize = layout.compute(value, 0, rowsPerChunk);
+    if (packedBufferSize <= 0) {
+      throw new TornadoMemoryException("[ERROR] Bytes Allocated <= 0: " + packedBufferSize);
+    }
+    packedBufferId =
+        deviceContext.getBufferProvider().getOrAllocateBufferWithSize(packedBufferSize);
+  }
+
+  private void computeChunk(Object value, long hostOffset) {
+    int firstRow = (hostOffset > 0 && rowBytes > 0) ? (int) (hostOffset / rowBytes) : 0;
+    int numRows = Math.min(rowsPerChunk, Array.getLength(value) - firstRow);
+    layout.compute(value, firstRow, numRows);
+  }
+
+  private int writePacked(long executionPlanId, Object value, long hostOffset, int[] events) {
+    computeChunk(value, hostOffset);
+    MemorySegment staging = layout.gather(value, packedBufferId);
+    return deviceContext.enqueueWriteBuffer(
+        executionPlanId, packedBufferId, 0, layout.size(), staging.address(), 0, events);
+  }
+
+  private int readPacked(long executionPlanId, Object value, long hostOffset, int[] events) {
+    computeChunk(value, hostOffset);
+    MemorySegment staging = layout.staging();
+    int event =
+        deviceContext.readBuffer(
+            executionPlanId, packedBufferId, 0, layout.size(), staging.address(), 0, events);
+    layout.scatter(value);
+    return event;
+  }
+
+  @Override
+  public List<Integer> enqueueWrite(
+      long executionPlanId,
+      Object value,
+      long batchSize,
+      long hostOffset,
+      int[] events,
+      boolean useDeps) {
+    if (!packed) {
+      return super.enqueueWrite(executionPlanId, value, batchSize, hostOffset, events, useDeps);
+    }
+    return List.of(writePacked(executionPlanId, value, hostOffset, useDeps ? events : null));
+  }
+
+  @Override
+  public int enqueueRead(
+      long executionPlanId, Object value, long hostOffset, int[] events, boolean useDeps) {
+    if (!packed) {
+      return super.enqueueRead(executionPlanId, value, hostOffset, events, useDeps);
+    }
+    return readPacked(executionPlanId, value, hostOffset, useDeps ? events : null);
+  }
+
+  @Override
+  public int read(
+      long executionPlanId,
+      Object value,
+      long hostOffset,
+      long partialReadSize,
+      int[] events,
+      boolean useDeps) {
+    if (!packed) {
+      return super.read(executionPlanId, value, hostOffset, partialReadSize, events, useDeps);
+    }
+    return readPacked(executionPlanId, value, hostOffset, useDeps ? events : null);
+  }
+
+  @Override
+  public void write(long executionPlanId, Object value) {
+    if (!packed) {
+      super.write(executionPlanId, value);
+      return;
+    }
+    layout.compute(value, 0, Math.min(rowsPerChunk, Array.getLength(value)));
+    MemorySegment staging = layout.gather(value, packedBufferId);
+    deviceContext.writeBuffer(
+        executionPlanId, packedBufferId, 0, layout.size(), staging.address(), 0, null);
+  }
+
+  @Override
+  public void markAsFreeBuffer() {
+    if (!packed) {
+      super.markAsFreeBuffer();
+      return;
+    }
+    if (packedBufferId != -1) {
+      deviceContext.getBufferProvider().markBufferReleased(packedBufferId);
+      packedBufferId = -1;
+      packedBufferSize = 0;
+    }
+  }
+
   private int readElements(long executionPlanId, T values) {
     final E[] elements = innerCast(values);
     // XXX: Offset is 0
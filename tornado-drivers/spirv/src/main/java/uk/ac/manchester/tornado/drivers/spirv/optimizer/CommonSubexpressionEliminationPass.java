@@ -0,0 +1,100 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.spirv.optimizer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Removes instructions that compute the same value as a previous one: duplicated constants in the
+ * global scope, and pure instructions (address computations, conversions, arithmetic, relational
+ * and bit operations) with the same operands within a basic block. Instructions with decorations
+ * are kept, since the decorations may change their semantics.
+ */
+public class CommonSubexpressionEliminationPass implements SPIRVOptimizationPass {
+
+  private record ValueKey(int[] words) {
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof ValueKey other && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(words);
+    }
+  }
+
+  @Override
+  public String getName() {
+    return "CommonSubexpressionElimination";
+  }
+
+  @Override
+  public int run(SPIRVBinaryModule module) {
+    Set<Integer> pinned = module.getPinnedIds();
+    Set<Integer> decorated = module.getDecoratedIds();
+    Map<ValueKey, Integer> globalValues = new HashMap<>();
+    Map<ValueKey, Integer> blockValues = new HashMap<>();
+    boolean inFunction = false;
+    int changes = 0;
+    Iterator<SPIRVInstruction> iterator = module.getInstructions().iterator();
+    while (iterator.hasNext()) {
+      SPIRVInstruction instruction = iterator.next();
+      int opcode = instruction.getOpcode();
+      if (opcode == SPIRVOpcode.OP_FUNCTION) {
+        inFunction = true;
+      }
+      if (opcode == SPIRVOpcode.OP_LABEL || opcode == SPIRVOpcode.OP_FUNCTION_END) {
+        blockValues.clear();
+        continue;
+      }
+
+      Map<ValueKey, Integer> values;
+      if (!inFunction && SPIRVOpcode.isConstant(opcode)) {
+        values = globalValues;
+      } else if (inFunction && SPIRVOpcode.isPure(opcode)) {
+        values = blockValues;
+      } else {
+        continue;
+      }
+      int result = instruction.getResult();
+      if (pinned.contains(result) || decorated.contains(result)) {
+        continue;
+      }
+      ValueKey key = new ValueKey(module.resolvedKey(instruction));
+      Integer previous = values.putIfAbsent(key, result);
+      if (previous != null) {
+        module.replaceAllUses(result, previous);
+        iterator.remove();
+        changes++;
+      }
+    }
+    module.commit();
+    return changes;
+  }
+}
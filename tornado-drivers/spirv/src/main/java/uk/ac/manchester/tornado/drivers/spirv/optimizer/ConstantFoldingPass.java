@@ -0,0 +1,177 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.spirv.optimizer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+
+/**
+ * Evaluates integer arithmetic and bit operations whose operands are 32-bit or 64-bit {@code
+ * OpConstant} values, and replaces them with a constant. New constants are declared before the
+ * first function of the module, reusing an existing constant with the same type and value when
+ * possible. Shifts by an amount out of the range of the type are not folded, since their result
+ * is undefined.
+ */
+public class ConstantFoldingPass implements SPIRVOptimizationPass {
+
+  private record ConstantKey(int type, long value) {}
+
+  @Override
+  public String getName() {
+    return "ConstantFolding";
+  }
+
+  private static boolean isFoldable(int opcode) {
+    return switch (opcode) {
+      case SPIRVOpcode.OP_S_NEGATE,
+          SPIRVOpcode.OP_NOT,
+          SPIRVOpcode.OP_I_ADD,
+          SPIRVOpcode.OP_I_SUB,
+          SPIRVOpcode.OP_I_MUL,
+          SPIRVOpcode.OP_SHIFT_RIGHT_LOGICAL,
+          SPIRVOpcode.OP_SHIFT_RIGHT_ARITHMETIC,
+          SPIRVOpcode.OP_SHIFT_LEFT_LOGICAL,
+          SPIRVOpcode.OP_BITWISE_OR,
+          SPIRVOpcode.OP_BITWISE_XOR,
+          SPIRVOpcode.OP_BITWISE_AND ->
+          true;
+      default -> false;
+    };
+  }
+
+  private static OptionalLong evaluate(int opcode, int width, long[] values) {
+    long a = values[0];
+    long b = values.length > 1 ? values[1] : 0;
+    long result;
+    switch (opcode) {
+      case SPIRVOpcode.OP_S_NEGATE -> result = -a;
+      case SPIRVOpcode.OP_NOT -> result = ~a;
+      case SPIRVOpcode.OP_I_ADD -> result = a + b;
+      case SPIRVOpcode.OP_I_SUB -> result = a - b;
+      case SPIRVOpcode.OP_I_MUL -> result = a * b;
+      case SPIRVOpcode.OP_BITWISE_OR -> result = a | b;
+      case SPIRVOpcode.OP_BITWISE_XOR -> result = a ^ b;
+      case SPIRVOpcode.OP_BITWISE_AND -> result = a & b;
+      default -> {
+        if (b < 0 || b >= width) {
+          return OptionalLong.empty();
+        }
+        int shift = (int) b;
+        if (opcode == SPIRVOpcode.OP_SHIFT_LEFT_LOGICAL) {
+          result = a << shift;
+        } else if (opcode == SPIRVOpcode.OP_SHIFT_RIGHT_ARITHMETIC) {
+          result = a >> shift;
+        } else {
+          result = width == 32 ? (a & 0xFFFFFFFFL) >>> shift : a >>> shift;
+        }
+      }
+    }
+    return OptionalLong.of(width == 32 ? (int) result : result);
+  }
+
+  @Override
+  public int run(SPIRVBinaryModule module) {
+    List<SPIRVInstruction> instructions = module.getInstructions();
+    Map<Integer, Integer> integerWidths = new HashMap<>();
+    Map<Integer, ConstantKey> constants = new HashMap<>();
+    Map<ConstantKey, Integer> constantIds = new HashMap<>();
+    int firstFunction = -1;
+    for (int i = 0; i < instructions.size(); i++) {
+      SPIRVInstruction instruction = instructions.get(i);
+      int[] operands = instruction.getOperands();
+      if (instruction.getOpcode() == SPIRVOpcode.OP_TYPE_INT
+          && (operands[1] == 32 || operands[1] == 64)) {
+        integerWidths.put(operands[0], operands[1]);
+      } else if (instruction.getOpcode() == SPIRVOpcode.OP_CONSTANT
+          && integerWidths.containsKey(operands[0])) {
+        long value =
+            integerWidths.get(operands[0]) == 32
+                ? operands[2]
+                : (operands[2] & 0xFFFFFFFFL) | ((long) operands[3] << 32);
+        ConstantKey key = new ConstantKey(operands[0], value);
+        constants.put(operands[1], key);
+        constantIds.putIfAbsent(key, operands[1]);
+      } else if (instruction.getOpcode() == SPIRVOpcode.OP_FUNCTION && firstFunction < 0) {
+        firstFunction = i;
+      }
+    }
+    if (firstFunction < 0 || constants.isEmpty()) {
+      return 0;
+    }
+
+    Set<Integer> pinned = module.getPinnedIds();
+    Set<SPIRVInstruction> folded = Collections.newSetFromMap(new IdentityHashMap<>());
+    List<SPIRVInstruction> newConstants = new ArrayList<>();
+    for (int i = firstFunction; i < instructions.size(); i++) {
+      SPIRVInstruction instruction = instructions.get(i);
+      int type = instruction.getResultType();
+      if (!isFoldable(instruction.getOpcode())
+          || !integerWidths.containsKey(type)
+          || pinned.contains(instruction.getResult())) {
+        continue;
+      }
+      int[] indices = instruction.getIdOperandIndices();
+      long[] values = new long[indices.length];
+      boolean allConstants = true;
+      for (int j = 0; j < indices.length && allConstants; j++) {
+        ConstantKey constant = constants.get(module.resolve(instruction.getOperands()[indices[j]]));
+        allConstants = constant != null;
+        values[j] = allConstants ? constant.value() : 0;
+      }
+      int width = integerWidths.get(type);
+      OptionalLong result =
+          allConstants ? evaluate(instruction.getOpcode(), width, values) : OptionalLong.empty();
+      if (result.isEmpty()) {
+        continue;
+      }
+
+      ConstantKey key = new ConstantKey(type, result.getAsLong());
+      Integer constantId = constantIds.get(key);
+      if (constantId == null) {
+        constantId = module.newId();
+        long value = key.value();
+        newConstants.add(
+            width == 32
+                ? new SPIRVInstruction(SPIRVOpcode.OP_CONSTANT, type, constantId, (int) value)
+                : new SPIRVInstruction(
+                    SPIRVOpcode.OP_CONSTANT, type, constantId, (int) value, (int) (value >>> 32)));
+        constantIds.put(key, constantId);
+        constants.put(constantId, key);
+      }
+      module.replaceAllUses(instruction.getResult(), constantId);
+      folded.add(instruction);
+    }
+
+    instructions.removeIf(folded::contains);
+    instructions.addAll(firstFunction, newConstants);
+    module.commit();
+    return folded.size();
+  }
+}
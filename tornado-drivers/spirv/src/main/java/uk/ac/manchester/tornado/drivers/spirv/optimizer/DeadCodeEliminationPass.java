@@ -0,0 +1,108 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.spirv.optimizer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Removes pure instructions, loads, phis and constants whose result is not used, and
+ * function-local variables that are only written. The names and decorations of the removed values
+ * are removed as well. The pass iterates until no more instructions can be removed, since removing
+ * an instruction may leave its operands unused.
+ */
+public class DeadCodeEliminationPass implements SPIRVOptimizationPass {
+
+  @Override
+  public String getName() {
+    return "DeadCodeElimination";
+  }
+
+  private static boolean isRemovableValue(SPIRVInstruction instruction) {
+    int opcode = instruction.getOpcode();
+    return SPIRVOpcode.isPure(opcode)
+        || SPIRVOpcode.isConstant(opcode)
+        || opcode == SPIRVOpcode.OP_PHI
+        || (opcode == SPIRVOpcode.OP_LOAD && !LoadStoreForwardingPass.isVolatileLoad(instruction));
+  }
+
+  @Override
+  public int run(SPIRVBinaryModule module) {
+    int changes = 0;
+    boolean changed = true;
+    while (changed) {
+      Map<Integer, Integer> uses = module.countUses();
+      Set<Integer> pinned = module.getPinnedIds();
+
+      // Local variables that are only used as the pointer of non-volatile stores
+      Map<Integer, Integer> storeUses = new HashMap<>();
+      for (SPIRVInstruction instruction : module.getInstructions()) {
+        if (LoadStoreForwardingPass.isLocalVariable(instruction)) {
+          storeUses.put(instruction.getResult(), 0);
+        }
+      }
+      for (SPIRVInstruction instruction : module.getInstructions()) {
+        if (instruction.getOpcode() == SPIRVOpcode.OP_STORE
+            && !LoadStoreForwardingPass.isVolatileStore(instruction)) {
+          storeUses.computeIfPresent(instruction.getOperands()[0], (id, count) -> count + 1);
+        }
+      }
+      storeUses
+          .entrySet()
+          .removeIf(
+              entry ->
+                  pinned.contains(entry.getKey())
+                      || !entry.getValue().equals(uses.getOrDefault(entry.getKey(), 0)));
+
+      int before = module.getInstructions().size();
+      module
+          .getInstructions()
+          .removeIf(
+              instruction -> {
+                boolean dead;
+                if (instruction.getOpcode() == SPIRVOpcode.OP_STORE) {
+                  dead = storeUses.containsKey(instruction.getOperands()[0]);
+                } else if (LoadStoreForwardingPass.isLocalVariable(instruction)) {
+                  dead = storeUses.containsKey(instruction.getResult());
+                } else {
+                  int result = instruction.getResult();
+                  dead =
+                      isRemovableValue(instruction)
+                          && !pinned.contains(result)
+                          && uses.getOrDefault(result, 0) == 0;
+                }
+                if (dead) {
+                  module.markRemoved(instruction);
+                }
+                return dead;
+              });
+      int removed = before - module.getInstructions().size();
+      changes += removed;
+      changed = removed > 0;
+    }
+    module.commit();
+    return changes;
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.spirv.optimizer;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Forwards the value of an {@code OpStore} to the following {@code OpLoad} instructions of the same
+ * variable in a basic block, and reuses the result of a load for the following loads. Only
+ * function-local variables whose address is used exclusively by loads and stores are considered,
+ * so no other instruction can access them in between.
+ *
+ * <p>This removes most of the loads that remain when the code generator allocates virtual registers
+ * as local variables (i.e., with {@code -Dtornado.spirv.loadstore=False}).
+ */
+public class LoadStoreForwardingPass implements SPIRVOptimizationPass {
+
+  @Override
+  public String getName() {
+    return "LoadStoreForwarding";
+  }
+
+  static boolean isVolatileLoad(SPIRVInstruction load) {
+    int[] operands = load.getOperands();
+    return operands.length > 3 && (operands[3] & SPIRVOpcode.MEMORY_ACCESS_VOLATILE) != 0;
+  }
+
+  static boolean isVolatileStore(SPIRVInstruction store) {
+    int[] operands = store.getOperands();
+    return operands.length > 2 && (operands[2] & SPIRVOpcode.MEMORY_ACCESS_VOLATILE) != 0;
+  }
+
+  static boolean isLocalVariable(SPIRVInstruction instruction) {
+    return instruction.getOpcode() == SPIRVOpcode.OP_VARIABLE
+        && instruction.getOperands()[2] == SPIRVOpcode.STORAGE_CLASS_FUNCTION;
+  }
+
+  private static Set<Integer> findPromotableVariables(SPIRVBinaryModule module) {
+    Set<Integer> variables = new HashSet<>();
+    for (SPIRVInstruction instruction : module.getInstructions()) {
+      if (isLocalVariable(instruction) && instruction.getOperands().length == 3) {
+        variables.add(instruction.getResult());
+      }
+    }
+    for (SPIRVInstruction instruction : module.getInstructions()) {
+      int opcode = instruction.getOpcode();
+      if (!instruction.hasKnownLayout() || SPIRVOpcode.isAnnotation(opcode)) {
+        continue;
+      }
+      int[] indices = instruction.getIdOperandIndices();
+      for (int i = 0; i < indices.length; i++) {
+        int id = instruction.getOperands()[indices[i]];
+        if (variables.contains(id)) {
+          boolean pointerOperand =
+              i == 0
+                  && ((opcode == SPIRVOpcode.OP_LOAD && !isVolatileLoad(instruction))
+                      || (opcode == SPIRVOpcode.OP_STORE && !isVolatileStore(instruction)));
+          if (!pointerOperand) {
+            variables.remove(id);
+          }
+        }
+      }
+    }
+    variables.removeAll(module.getPinnedIds());
+    return variables;
+  }
+
+  @Override
+  public int run(SPIRVBinaryModule module) {
+    Set<Integer> variables = findPromotableVariables(module);
+    if (variables.isEmpty()) {
+      return 0;
+    }
+    Set<Integer> pinned = module.getPinnedIds();
+    Map<Integer, Integer> available = new HashMap<>();
+    int changes = 0;
+    Iterator<SPIRVInstruction> iterator = module.getInstructions().iterator();
+    while (iterator.hasNext()) {
+      SPIRVInstruction instruction = iterator.next();
+      switch (instruction.getOpcode()) {
+        case SPIRVOpcode.OP_LABEL, SPIRVOpcode.OP_FUNCTION, SPIRVOpcode.OP_FUNCTION_END ->
+            available.clear();
+        case SPIRVOpcode.OP_STORE -> {
+          int pointer = instruction.getOperands()[0];
+          if (variables.contains(pointer)) {
+            available.put(pointer, module.resolve(instruction.getOperands()[1]));
+          }
+        }
+        case SPIRVOpcode.OP_LOAD -> {
+          int pointer = instruction.getOperands()[2];
+          if (variables.contains(pointer)) {
+            Integer value = available.get(pointer);
+            int result = instruction.getResult();
+            if (value != null && !pinned.contains(result)) {
+              module.replaceAllUses(result, value);
+              iterator.remove();
+              changes++;
+            } else {
+              available.put(pointer, result);
+            }
+          }
+        }
+        default -> {}
+      }
+    }
+    module.commit();
+    return changes;
+  }
+}
@@ -0,0 +1,244 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.spirv.optimizer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+
+/**
+ * Word-level representation of a SPIR-V binary module, as emitted by the beehive SPIR-V toolkit.
+ * It keeps the five words of the header and the list of instructions, and offers the bookkeeping
+ * shared by the optimization passes: replacing values, removing instructions and creating new
+ * ids.
+ */
+public final class SPIRVBinaryModule {
+
+  private static final int MAGIC_NUMBER = 0x07230203;
+  private static final int HEADER_WORDS = 5;
+  private static final int BOUND_WORD = 3;
+
+  private final int[] header;
+  private final List<SPIRVInstruction> instructions;
+
+  /** Pending replacements of values: every use of the key id is replaced by the value id. */
+  private final Map<Integer, Integer> replacements = new HashMap<>();
+
+  /** Results of removed instructions, whose names and decorations have to be removed as well. */
+  private final Set<Integer> removedIds = new HashSet<>();
+
+  private SPIRVBinaryModule(int[] header, List<SPIRVInstruction> instructions) {
+    this.header = header;
+    this.instructions = instructions;
+  }
+
+  public static SPIRVBinaryModule parse(byte[] binary) {
+    if (binary.length < HEADER_WORDS * Integer.BYTES || binary.length % Integer.BYTES != 0) {
+      throw new TornadoRuntimeException(
+          "[ERROR] Invalid SPIR-V binary of " + binary.length + " bytes");
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(binary).order(ByteOrder.LITTLE_ENDIAN);
+    if (buffer.getInt(0) != MAGIC_NUMBER) {
+      buffer.order(ByteOrder.BIG_ENDIAN);
+      if (buffer.getInt(0) != MAGIC_NUMBER) {
+        throw new TornadoRuntimeException("[ERROR] Invalid SPIR-V magic number");
+      }
+    }
+    int[] header = new int[HEADER_WORDS];
+    for (int i = 0; i < HEADER_WORDS; i++) {
+      header[i] = buffer.getInt();
+    }
+    List<SPIRVInstruction> instructions = new ArrayList<>();
+    while (buffer.hasRemaining()) {
+      int first = buffer.getInt();
+      int wordCount = first >>> 16;
+      if (wordCount == 0 || buffer.remaining() < (wordCount - 1) * Integer.BYTES) {
+        throw new TornadoRuntimeException("[ERROR] Malformed SPIR-V instruction");
+      }
+      int[] operands = new int[wordCount - 1];
+      for (int i = 0; i < operands.length; i++) {
+        operands[i] = buffer.getInt();
+      }
+      instructions.add(new SPIRVInstruction(first & 0xFFFF, operands));
+    }
+    return new SPIRVBinaryModule(header, instructions);
+  }
+
+  public byte[] toBinary() {
+    ByteBuffer buffer =
+        ByteBuffer.allocate(getWordCount() * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    for (int word : header) {
+      buffer.putInt(word);
+    }
+    for (SPIRVInstruction instruction : instructions) {
+      buffer.putInt((instruction.getWordCount() << 16) | instruction.getOpcode());
+      for (int operand : instruction.getOperands()) {
+        buffer.putInt(operand);
+      }
+    }
+    return buffer.array();
+  }
+
+  public List<SPIRVInstruction> getInstructions() {
+    return instructions;
+  }
+
+  public int getWordCount() {
+    int words = HEADER_WORDS;
+    for (SPIRVInstruction instruction : instructions) {
+      words += instruction.getWordCount();
+    }
+    return words;
+  }
+
+  /** Returns a new id, increasing the bound of the module. */
+  public int newId() {
+    return header[BOUND_WORD]++;
+  }
+
+  /**
+   * Returns the ids that appear in instructions whose layout is unknown to the optimizer. These
+   * values cannot be replaced or removed.
+   */
+  public Set<Integer> getPinnedIds() {
+    Set<Integer> pinned = new HashSet<>();
+    for (SPIRVInstruction instruction : instructions) {
+      if (!instruction.hasKnownLayout()) {
+        for (int word : instruction.getOperands()) {
+          pinned.add(word);
+        }
+      }
+    }
+    return pinned;
+  }
+
+  /** Counts the uses of each id as an operand, ignoring names and decorations. */
+  public Map<Integer, Integer> countUses() {
+    Map<Integer, Integer> uses = new HashMap<>();
+    for (SPIRVInstruction instruction : instructions) {
+      if (SPIRVOpcode.isAnnotation(instruction.getOpcode())) {
+        continue;
+      }
+      if (instruction.hasKnownLayout()) {
+        for (int index : instruction.getIdOperandIndices()) {
+          uses.merge(instruction.getOperands()[index], 1, Integer::sum);
+        }
+      } else {
+        for (int word : instruction.getOperands()) {
+          uses.merge(word, 1, Integer::sum);
+        }
+      }
+    }
+    return uses;
+  }
+
+  /**
+   * Returns a copy of the operands of an instruction, excluding the result, in which the ids are
+   * resolved with the pending replacements. Two pure instructions with the same key compute the
+   * same value.
+   */
+  public int[] resolvedKey(SPIRVInstruction instruction) {
+    int[] operands = instruction.getOperands();
+    int[] key = new int[operands.length + 1];
+    key[0] = instruction.getOpcode();
+    System.arraycopy(operands, 0, key, 1, operands.length);
+    for (int index : instruction.getIdOperandIndices()) {
+      key[index + 1] = resolve(operands[index]);
+    }
+    if (SPIRVOpcode.hasResult(instruction.getOpcode())) {
+      int resultIndex = SPIRVOpcode.hasResultType(instruction.getOpcode()) ? 1 : 0;
+      key[resultIndex + 1] = 0;
+    }
+    return key;
+  }
+
+  /** Returns the ids that are the target of an {@code OpDecorate}. */
+  public Set<Integer> getDecoratedIds() {
+    Set<Integer> decorated = new HashSet<>();
+    for (SPIRVInstruction instruction : instructions) {
+      if (instruction.getOpcode() == SPIRVOpcode.OP_DECORATE) {
+        decorated.add(instruction.getOperands()[0]);
+      }
+    }
+    return decorated;
+  }
+
+  /** Records that every use of {@code id} has to be replaced by {@code value}. */
+  public void replaceAllUses(int id, int value) {
+    replacements.put(id, value);
+    removedIds.add(id);
+  }
+
+  /** Returns the value that currently replaces {@code id}, or {@code id} itself. */
+  public int resolve(int id) {
+    Integer value = replacements.get(id);
+    while (value != null) {
+      id = value;
+      value = replacements.get(id);
+    }
+    return id;
+  }
+
+  /** Marks the result of a removed instruction so that its names and decorations are dropped. */
+  public void markRemoved(SPIRVInstruction instruction) {
+    int result = instruction.getResult();
+    if (result != 0) {
+      removedIds.add(result);
+    }
+  }
+
+  /**
+   * Applies the pending replacements to the operands of all instructions, and removes the names and
+   * decorations of the removed values.
+   */
+  public void commit() {
+    if (!replacements.isEmpty()) {
+      for (SPIRVInstruction instruction : instructions) {
+        if (instruction.hasKnownLayout() && !SPIRVOpcode.isAnnotation(instruction.getOpcode())) {
+          for (int index : instruction.getIdOperandIndices()) {
+            int id = instruction.getOperands()[index];
+            int value = resolve(id);
+            if (value != id) {
+              instruction.setOperand(index, value);
+            }
+          }
+        }
+      }
+      replacements.clear();
+    }
+    if (!removedIds.isEmpty()) {
+      instructions.removeIf(
+          instruction ->
+              SPIRVOpcode.isAnnotation(instruction.getOpcode())
+                  && removedIds.contains(instruction.getOperands()[0]));
+      removedIds.clear();
+    }
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.spirv.optimizer;
+
+import java.util.Arrays;
+
+/**
+ * Instruction of a {@link SPIRVBinaryModule}. The operands are the words that follow the first word
+ * (word count and opcode) of the instruction in the binary.
+ *
+ * <p>The passes only rewrite instructions whose operand layout is described in {@link
+ * SPIRVOpcode}. Any word of an instruction with an unknown layout may be an id, so the ids it
+ * refers to are never replaced or removed.
+ */
+public final class SPIRVInstruction {
+
+  private final int opcode;
+  private final int[] operands;
+
+  public SPIRVInstruction(int opcode, int... operands) {
+    this.opcode = opcode;
+    this.operands = operands;
+  }
+
+  public int getOpcode() {
+    return opcode;
+  }
+
+  public int[] getOperands() {
+    return operands;
+  }
+
+  public int getWordCount() {
+    return operands.length + 1;
+  }
+
+  public boolean hasKnownLayout() {
+    return SPIRVOpcode.hasKnownLayout(opcode);
+  }
+
+  public int getResultType() {
+    return SPIRVOpcode.hasResultType(opcode) ? operands[0] : 0;
+  }
+
+  public int getResult() {
+    if (!SPIRVOpcode.hasResult(opcode)) {
+      return 0;
+    }
+    return SPIRVOpcode.hasResultType(opcode) ? operands[1] : operands[0];
+  }
+
+  /** Index in {@link #getOperands()} of the first operand after the result type and result. */
+  public int getFirstOperandIndex() {
+    return (SPIRVOpcode.hasResultType(opcode) ? 1 : 0) + (SPIRVOpcode.hasResult(opcode) ? 1 : 0);
+  }
+
+  /** Indices in {@link #getOperands()} of the operands that are ids (excluding the result type). */
+  public int[] getIdOperandIndices() {
+    int first = getFirstOperandIndex();
+    int layout = SPIRVOpcode.idOperandLayout(opcode);
+    int count;
+    int start = first;
+    switch (layout) {
+      case SPIRVOpcode.ALL_IDS -> count = operands.length - first;
+      case SPIRVOpcode.EXT_INST -> {
+        // Set id, literal instruction number, and then the ids of the operands
+        int[] indices = new int[operands.length - first - 1];
+        indices[0] = first;
+        for (int i = 1; i < indices.length; i++) {
+          indices[i] = first + 1 + i;
+        }
+        return indices;
+      }
+      case SPIRVOpcode.ENTRY_POINT -> {
+        // Execution model, function, name, and then the interface variables
+        int nameEnd = 2;
+        while (nameEnd < operands.length && !hasZeroByte(operands[nameEnd])) {
+          nameEnd++;
+        }
+        int[] indices = new int[Math.max(1, operands.length - nameEnd)];
+        indices[0] = 1;
+        for (int i = 1; i < indices.length; i++) {
+          indices[i] = nameEnd + i;
+        }
+        return indices;
+      }
+      case SPIRVOpcode.LITERAL_THEN_IDS -> {
+        // e.g., the storage class of a variable followed by its optional initializer
+        start = first + 1;
+        count = operands.length - start;
+      }
+      default -> count = Math.min(layout, operands.length - first);
+    }
+    int[] indices = new int[Math.max(0, count)];
+    for (int i = 0; i < indices.length; i++) {
+      indices[i] = start + i;
+    }
+    return indices;
+  }
+
+  /** Literal strings are nul-terminated, so the last word of a string has a zero byte. */
+  private static boolean hasZeroByte(int word) {
+    return (word & 0xFF) == 0
+        || (word & 0xFF00) == 0
+        || (word & 0xFF0000) == 0
+        || (word & 0xFF000000) == 0;
+  }
+
+  public int getIdOperand(int position) {
+    return operands[getIdOperandIndices()[position]];
+  }
+
+  void setOperand(int index, int value) {
+    operands[index] = value;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    return o instanceof SPIRVInstruction other
+        && opcode == other.opcode
+        && Arrays.equals(operands, other.operands);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * opcode + Arrays.hashCode(operands);
+  }
+
+  @Override
+  public String toString() {
+    return SPIRVOpcode.name(opcode) + " " + Arrays.toString(operands);
+  }
+}
@@ -0,0 +1,294 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.spirv.optimizer;
+
+/**
+ * Opcodes of the SPIR-V specification used by the optimization passes, and the layout of their
+ * operands.
+ */
+public final class SPIRVOpcode {
+
+  public static final int OP_SOURCE_EXTENSION = 4;
+  public static final int OP_NAME = 5;
+  public static final int OP_MEMBER_NAME = 6;
+  public static final int OP_EXTENSION = 10;
+  public static final int OP_EXT_INST_IMPORT = 11;
+  public static final int OP_EXT_INST = 12;
+  public static final int OP_MEMORY_MODEL = 14;
+  public static final int OP_ENTRY_POINT = 15;
+  public static final int OP_EXECUTION_MODE = 16;
+  public static final int OP_CAPABILITY = 17;
+  public static final int OP_TYPE_VOID = 19;
+  public static final int OP_TYPE_BOOL = 20;
+  public static final int OP_TYPE_INT = 21;
+  public static final int OP_TYPE_FLOAT = 22;
+  public static final int OP_TYPE_VECTOR = 23;
+  public static final int OP_TYPE_ARRAY = 28;
+  public static final int OP_TYPE_STRUCT = 30;
+  public static final int OP_TYPE_POINTER = 32;
+  public static final int OP_TYPE_FUNCTION = 33;
+  public static final int OP_CONSTANT_TRUE = 41;
+  public static final int OP_CONSTANT_FALSE = 42;
+  public static final int OP_CONSTANT = 43;
+  public static final int OP_CONSTANT_COMPOSITE = 44;
+  public static final int OP_CONSTANT_NULL = 46;
+  public static final int OP_FUNCTION = 54;
+  public static final int OP_FUNCTION_PARAMETER = 55;
+  public static final int OP_FUNCTION_END = 56;
+  public static final int OP_FUNCTION_CALL = 57;
+  public static final int OP_VARIABLE = 59;
+  public static final int OP_LOAD = 61;
+  public static final int OP_STORE = 62;
+  public static final int OP_ACCESS_CHAIN = 65;
+  public static final int OP_IN_BOUNDS_ACCESS_CHAIN = 66;
+  public static final int OP_PTR_ACCESS_CHAIN = 67;
+  public static final int OP_IN_BOUNDS_PTR_ACCESS_CHAIN = 70;
+  public static final int OP_DECORATE = 71;
+  public static final int OP_MEMBER_DECORATE = 72;
+  public static final int OP_VECTOR_EXTRACT_DYNAMIC = 77;
+  public static final int OP_VECTOR_INSERT_DYNAMIC = 78;
+  public static final int OP_VECTOR_SHUFFLE = 79;
+  public static final int OP_COMPOSITE_CONSTRUCT = 80;
+  public static final int OP_COMPOSITE_EXTRACT = 81;
+  public static final int OP_COMPOSITE_INSERT = 82;
+  public static final int OP_COPY_OBJECT = 83;
+  public static final int OP_CONVERT_F_TO_U = 109;
+  public static final int OP_GENERIC_CAST_TO_PTR_EXPLICIT = 123;
+  public static final int OP_BITCAST = 124;
+  public static final int OP_S_NEGATE = 126;
+  public static final int OP_I_ADD = 128;
+  public static final int OP_I_SUB = 130;
+  public static final int OP_I_MUL = 132;
+  public static final int OP_S_MUL_EXTENDED = 152;
+  public static final int OP_ANY = 154;
+  public static final int OP_F_UNORD_GREATER_THAN_EQUAL = 191;
+  public static final int OP_SHIFT_RIGHT_LOGICAL = 194;
+  public static final int OP_SHIFT_RIGHT_ARITHMETIC = 195;
+  public static final int OP_SHIFT_LEFT_LOGICAL = 196;
+  public static final int OP_BITWISE_OR = 197;
+  public static final int OP_BITWISE_XOR = 198;
+  public static final int OP_BITWISE_AND = 199;
+  public static final int OP_NOT = 200;
+  public static final int OP_BIT_COUNT = 205;
+  public static final int OP_CONTROL_BARRIER = 224;
+  public static final int OP_MEMORY_BARRIER = 225;
+  public static final int OP_ATOMIC_LOAD = 227;
+  public static final int OP_ATOMIC_STORE = 228;
+  public static final int OP_ATOMIC_XOR = 242;
+  public static final int OP_PHI = 245;
+  public static final int OP_LOOP_MERGE = 246;
+  public static final int OP_SELECTION_MERGE = 247;
+  public static final int OP_LABEL = 248;
+  public static final int OP_BRANCH = 249;
+  public static final int OP_BRANCH_CONDITIONAL = 250;
+  public static final int OP_KILL = 252;
+  public static final int OP_RETURN = 253;
+  public static final int OP_RETURN_VALUE = 254;
+  public static final int OP_UNREACHABLE = 255;
+
+  public static final int STORAGE_CLASS_FUNCTION = 7;
+  public static final int MEMORY_ACCESS_VOLATILE = 0x1;
+
+  /** All operands after the result are ids. */
+  static final int ALL_IDS = Integer.MAX_VALUE;
+  /** The operands of the instruction are not described: any word may be an id. */
+  static final int UNKNOWN = -1;
+  /** Layout of {@code OpExtInst}. */
+  static final int EXT_INST = -2;
+  /** One literal after the result, and then ids ({@code OpVariable}, {@code OpTypePointer}). */
+  static final int LITERAL_THEN_IDS = -3;
+  /** Layout of {@code OpEntryPoint}. */
+  static final int ENTRY_POINT = -4;
+
+  private SPIRVOpcode() {}
+
+  static boolean hasResultType(int opcode) {
+    return hasKnownLayout(opcode) && !hasResultOnly(opcode) && !hasNoResult(opcode);
+  }
+
+  static boolean hasResult(int opcode) {
+    return hasKnownLayout(opcode) && !hasNoResult(opcode);
+  }
+
+  private static boolean hasResultOnly(int opcode) {
+    return switch (opcode) {
+      case OP_EXT_INST_IMPORT,
+          OP_TYPE_VOID,
+          OP_TYPE_BOOL,
+          OP_TYPE_INT,
+          OP_TYPE_FLOAT,
+          OP_TYPE_VECTOR,
+          OP_TYPE_ARRAY,
+          OP_TYPE_STRUCT,
+          OP_TYPE_POINTER,
+          OP_TYPE_FUNCTION,
+          OP_LABEL ->
+          true;
+      default -> false;
+    };
+  }
+
+  private static boolean hasNoResult(int opcode) {
+    return switch (opcode) {
+      case OP_SOURCE_EXTENSION,
+          OP_NAME,
+          OP_MEMBER_NAME,
+          OP_EXTENSION,
+          OP_MEMORY_MODEL,
+          OP_ENTRY_POINT,
+          OP_EXECUTION_MODE,
+          OP_CAPABILITY,
+          OP_FUNCTION_END,
+          OP_STORE,
+          OP_DECORATE,
+          OP_MEMBER_DECORATE,
+          OP_CONTROL_BARRIER,
+          OP_MEMORY_BARRIER,
+          OP_ATOMIC_STORE,
+          OP_LOOP_MERGE,
+          OP_SELECTION_MERGE,
+          OP_BRANCH,
+          OP_BRANCH_CONDITIONAL,
+          OP_KILL,
+          OP_RETURN,
+          OP_RETURN_VALUE,
+          OP_UNREACHABLE ->
+          true;
+      default -> false;
+    };
+  }
+
+  static boolean hasKnownLayout(int opcode) {
+    return idOperandLayout(opcode) != UNKNOWN;
+  }
+
+  /**
+   * Returns the number of leading id operands after the result, or one of {@link #ALL_IDS}, {@link
+   * #EXT_INST}, {@link #LITERAL_THEN_IDS}, {@link #ENTRY_POINT} and {@link #UNKNOWN}.
+   */
+  static int idOperandLayout(int opcode) {
+    if (isPure(opcode)) {
+      return switch (opcode) {
+        case OP_VECTOR_SHUFFLE, OP_COMPOSITE_INSERT -> 2;
+        case OP_COMPOSITE_EXTRACT, OP_GENERIC_CAST_TO_PTR_EXPLICIT -> 1;
+        default -> ALL_IDS;
+      };
+    }
+    if (opcode >= OP_ATOMIC_LOAD && opcode <= OP_ATOMIC_XOR) {
+      return ALL_IDS;
+    }
+    return switch (opcode) {
+      case OP_SOURCE_EXTENSION,
+          OP_EXTENSION,
+          OP_EXT_INST_IMPORT,
+          OP_MEMORY_MODEL,
+          OP_CAPABILITY,
+          OP_TYPE_VOID,
+          OP_TYPE_BOOL,
+          OP_TYPE_INT,
+          OP_TYPE_FLOAT,
+          OP_CONSTANT_TRUE,
+          OP_CONSTANT_FALSE,
+          OP_CONSTANT,
+          OP_CONSTANT_NULL,
+          OP_FUNCTION_PARAMETER,
+          OP_FUNCTION_END,
+          OP_LABEL,
+          OP_KILL,
+          OP_RETURN,
+          OP_UNREACHABLE ->
+          0;
+      case OP_NAME,
+          OP_MEMBER_NAME,
+          OP_EXECUTION_MODE,
+          OP_TYPE_VECTOR,
+          OP_DECORATE,
+          OP_MEMBER_DECORATE,
+          OP_LOAD,
+          OP_SELECTION_MERGE,
+          OP_BRANCH,
+          OP_RETURN_VALUE ->
+          1;
+      case OP_STORE, OP_LOOP_MERGE -> 2;
+      case OP_BRANCH_CONDITIONAL -> 3;
+      case OP_TYPE_ARRAY,
+          OP_TYPE_STRUCT,
+          OP_TYPE_FUNCTION,
+          OP_CONSTANT_COMPOSITE,
+          OP_FUNCTION_CALL,
+          OP_CONTROL_BARRIER,
+          OP_MEMORY_BARRIER,
+          OP_PHI ->
+          ALL_IDS;
+      case OP_EXT_INST -> EXT_INST;
+      case OP_ENTRY_POINT -> ENTRY_POINT;
+      case OP_TYPE_POINTER, OP_FUNCTION, OP_VARIABLE -> LITERAL_THEN_IDS;
+      default -> UNKNOWN;
+    };
+  }
+
+  /**
+   * Instructions without side effects whose result only depends on their operands: address
+   * computations, composites, conversions, arithmetic, relational and bit operations.
+   */
+  static boolean isPure(int opcode) {
+    return switch (opcode) {
+      case OP_ACCESS_CHAIN,
+          OP_IN_BOUNDS_ACCESS_CHAIN,
+          OP_PTR_ACCESS_CHAIN,
+          OP_IN_BOUNDS_PTR_ACCESS_CHAIN ->
+          true;
+      default ->
+          (opcode >= OP_VECTOR_EXTRACT_DYNAMIC && opcode <= OP_COPY_OBJECT)
+              || (opcode >= OP_CONVERT_F_TO_U && opcode <= OP_BITCAST)
+              || (opcode >= OP_S_NEGATE && opcode <= OP_S_MUL_EXTENDED)
+              || (opcode >= OP_ANY && opcode <= OP_F_UNORD_GREATER_THAN_EQUAL)
+              || (opcode >= OP_SHIFT_RIGHT_LOGICAL && opcode <= OP_BIT_COUNT);
+    };
+  }
+
+  static boolean isConstant(int opcode) {
+    return switch (opcode) {
+      case OP_CONSTANT_TRUE,
+          OP_CONSTANT_FALSE,
+          OP_CONSTANT,
+          OP_CONSTANT_COMPOSITE,
+          OP_CONSTANT_NULL ->
+          true;
+      default -> false;
+    };
+  }
+
+  /** Debug and annotation instructions: their target is not a use of the value. */
+  static boolean isAnnotation(int opcode) {
+    return opcode == OP_NAME
+        || opcode == OP_MEMBER_NAME
+        || opcode == OP_DECORATE
+        || opcode == OP_MEMBER_DECORATE;
+  }
+
+  static String name(int opcode) {
+    return "Op#" + opcode;
+  }
+}
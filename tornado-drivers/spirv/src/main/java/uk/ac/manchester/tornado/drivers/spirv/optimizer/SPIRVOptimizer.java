@@ -0,0 +1,93 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.spirv.optimizer;
+
+import java.util.List;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Optimization pipeline for the SPIR-V modules generated by the backend. It runs before the module
+ * is installed on the OpenCL or Level Zero dispatchers, and it is enabled with {@code
+ * -Dtornado.spirv.optimizer=True} (default). The size of the module and the time of each pass are
+ * reported with {@code -Dtornado.spirv.optimizer.report=True}.
+ *
+ * <p>If a module cannot be parsed, the original binary is installed.
+ */
+public final class SPIRVOptimizer {
+
+  private static final TornadoLogger logger = new TornadoLogger(SPIRVOptimizer.class);
+
+  private final List<SPIRVOptimizationPass> passes;
+
+  public SPIRVOptimizer() {
+    this(
+        List.of(
+            new LoadStoreForwardingPass(),
+            new ConstantFoldingPass(),
+            new CommonSubexpressionEliminationPass(),
+            new DeadCodeEliminationPass()));
+  }
+
+  public SPIRVOptimizer(List<SPIRVOptimizationPass> passes) {
+    this.passes = passes;
+  }
+
+  public byte[] optimize(String name, byte[] binary) {
+    long start = System.nanoTime();
+    SPIRVBinaryModule module;
+    try {
+      module = SPIRVBinaryModule.parse(binary);
+    } catch (TornadoRuntimeException e) {
+      logger.warn("SPIR-V optimizer skipped for %s: %s", name, e.getMessage());
+      return binary;
+    }
+    int instructionsBefore = module.getInstructions().size();
+
+    StringBuilder report = new StringBuilder();
+    for (SPIRVOptimizationPass pass : passes) {
+      long passStart = System.nanoTime();
+      int changes = pass.run(module);
+      long passTime = System.nanoTime() - passStart;
+      report.append(
+          String.format(
+              "\t%-32s %6d changes %10.3f ms%n", pass.getName(), changes, passTime * 1e-6));
+    }
+
+    byte[] optimized = module.toBinary();
+    if (TornadoOptions.SPIRV_OPTIMIZER_REPORT) {
+      System.out.printf(
+          "[SPIR-V Optimizer] %s: %d -> %d bytes, %d -> %d instructions, %.3f ms%n%s",
+          name,
+          binary.length,
+          optimized.length,
+          instructionsBefore,
+          module.getInstructions().size(),
+          (System.nanoTime() - start) * 1e-6,
+          report);
+    }
+    return optimized;
+  }
+}
@@ -39,6 +39,7 @@ import uk.ac.manchester.tornado.api.enums.TornadoDeviceType;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
+import uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
 import uk.ac.manchester.tornado.api.internal.annotations.Vector;
 import uk.ac.manchester.tornado.api.memory.DeviceBufferState;
@@ -69,6 +70,7 @@ import uk.ac.manchester.tornado.drivers.spirv.mm.SPIRVObjectWrapper;
 import uk.ac.manchester.tornado.drivers.spirv.mm.SPIRVShortArrayWrapper;
 import uk.ac.manchester.tornado.drivers.spirv.mm.SPIRVVectorWrapper;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.common.KernelShapeCache;
 import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
@@ -77,6 +79,7 @@ import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy;
 import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
 import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
+import uk.ac.manchester.tornado.runtime.jfr.CompilationEvent;
 import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
 import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
 import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
@@ -146,7 +149,6 @@ public class SPIRVTornadoDevice implements TornadoXPUDevice {
   }
 
   private TornadoInstalledCode compileTask(CompilableTask task) {
-    TornadoProfiler profiler = task.getProfiler();
     final SPIRVDeviceContext deviceContext = getDeviceContext();
 
     final ResolvedJavaMethod resolvedMethod =
@@ -155,14 +157,30 @@ public class SPIRVTornadoDevice implements TornadoXPUDevice {
         TornadoSketcher.lookup(
             resolvedMethod, task.meta().getBackendIndex(), task.meta().getDeviceIndex());
 
-    // copy meta data into task
-    final TaskDataContext taskMeta = task.meta();
+    // Shape-polymorphic kernels are reused across input sizes
+    if (task.meta().isShapePolymorphicEnabled() && task.getBatchThreads() <= 0) {
+      return deviceContext
+          .getShapeCache()
+          .lookupOrCompile(
+              task,
+              resolvedMethod.getName(),
+              (t, variantKey) -> compileSketch(t, sketch, variantKey));
+    }
 
     // Return the code from the cache
     if (!task.shouldCompile() && deviceContext.isCached(task.getId(), resolvedMethod.getName())) {
       return deviceContext.getInstalledCode(task.getId(), resolvedMethod.getName());
     }
+    return compileSketch(task, sketch, null);
+  }
 
+  private TornadoInstalledCode compileSketch(
+      CompilableTask task, Sketch sketch, String variantKey) {
+    final TornadoProfiler profiler = task.getProfiler();
+    final SPIRVDeviceContext deviceContext = getDeviceContext();
+
+    // copy meta data into task
+    final TaskDataContext taskMeta = task.meta();
     final Access[] sketchAccess = sketch.getArgumentsAccess();
     final Access[] taskAccess = taskMeta.getArgumentsAccess();
 
@@ -172,18 +190,27 @@ public class SPIRVTornadoDevice implements TornadoXPUDevice {
       SPIRVCompilationResult result;
       // Compile the code and insert the SPIR-V binary into the code cache
       SPIRVProviders providers = (SPIRVProviders) getBackend().getProviders();
+      CompilationEvent graalEvent = new CompilationEvent();
+      graalEvent.begin();
       profiler.start(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
       result =
           SPIRVCompiler.compileSketchForDevice(
               sketch, task, providers, getBackend(), task.getProfiler());
       profiler.stop(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
+      graalEvent.record(CompilationEvent.GRAAL, taskMeta.getId(), this);
       profiler.sum(
           ProfilerType.TOTAL_GRAAL_COMPILE_TIME,
           profiler.getTaskTimer(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId()));
 
+      CompilationEvent driverEvent = new CompilationEvent();
+      driverEvent.begin();
       profiler.start(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
-      TornadoInstalledCode installedCode = deviceContext.installBinary(result);
+      TornadoInstalledCode installedCode =
+          variantKey == null
+              ? deviceContext.installBinary(result)
+              : deviceContext.installShapeVariant(result, variantKey);
       profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+      driverEvent.record(CompilationEvent.DRIVER_BUILD, taskMeta.getId(), this);
       profiler.sum(
           ProfilerType.TOTAL_DRIVER_COMPILE_TIME,
           profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
@@ -201,6 +228,11 @@ public class SPIRVTornadoDevice implements TornadoXPUDevice {
     }
   }
 
+  @Override
+  public KernelShapeCache getShapeCache() {
+    return getDeviceContext().getShapeCache();
+  }
+
   @Override
   public boolean isFullJITMode(SchedulableTask task) {
     return false;
@@ -247,6 +279,11 @@ public class SPIRVTornadoDevice implements TornadoXPUDevice {
     // empty method
   }
 
+  @Override
+  public void setProfilerEnabled(long executionPlanId, boolean enabled) {
+    getDeviceContext().setProfilerEnabled(executionPlanId, enabled);
+  }
+
   @Override
   public void setAtomicRegion(XPUBuffer bufferAtomics) {
     throw new RuntimeException("Unsupported");
@@ -377,7 +414,12 @@ public class SPIRVTornadoDevice implements TornadoXPUDevice {
         "A device memory leak might be occurring.");
     buffer = createDeviceBuffer(object.getClass(), object, getDeviceContext(), batchSize);
     state.setXPUBuffer(buffer);
-    buffer.allocate(object, batchSize);
+    try {
+      getDeviceContext().getBufferProvider().getEvictionManager().allocate(buffer, object, batchSize);
+    } catch (TornadoOutOfMemoryException e) {
+      state.setXPUBuffer(null);
+      throw e;
+    }
     return buffer;
   }
 
@@ -396,12 +438,14 @@ public class SPIRVTornadoDevice implements TornadoXPUDevice {
     if (buffer.getClass() == AtomicsBuffer.class) {
       state.setAtomicRegion();
     }
+    getDeviceContext().getBufferProvider().getEvictionManager().acquire(state, object);
     return state.getXPUBuffer().size();
   }
 
   @Override
   public synchronized long deallocate(DeviceBufferState deviceBufferState) {
     long deallocatedSpace = 0;
+    getDeviceContext().getBufferProvider().getEvictionManager().release(deviceBufferState);
     if (deviceBufferState.isLockedBuffer()) {
       return deallocatedSpace;
     }
@@ -0,0 +1,431 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.spirv.optimizer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Host-side tests of the {@link SPIRVOptimizer} and its passes. The modules are hand-built word
+ * streams with a single kernel, so no device or SPIR-V toolkit is needed.
+ *
+ * <p>How to run? <code>
+ * mvn -Pjdk21,spirv-backend test -pl tornado-drivers/spirv -am
+ * </code>
+ */
+public class TestSPIRVOptimizer {
+
+  private static final int MAGIC_NUMBER = 0x07230203;
+  private static final int VERSION_1_2 = 0x00010200;
+  private static final int BOUND = 100;
+
+  private static final int OP_ATOMIC_I_ADD = 234;
+  private static final int EXECUTION_MODEL_KERNEL = 6;
+  private static final int STORAGE_CLASS_INPUT = 1;
+  private static final int STORAGE_CLASS_CROSS_WORKGROUP = 5;
+  private static final int DECORATION_BUILTIN = 11;
+  private static final int DECORATION_NO_CONTRACTION = 42;
+  private static final int BUILTIN_GLOBAL_INVOCATION_ID = 28;
+
+  // Types shared by all the modules
+  private static final int VOID = 1;
+  private static final int INT = 2;
+  private static final int INT_FUNCTION_POINTER = 3;
+  private static final int KERNEL_TYPE = 4;
+  private static final int LONG = 5;
+  private static final int INT_GLOBAL_POINTER = 6;
+  private static final int LONG_VECTOR = 7;
+  private static final int LONG_GLOBAL_POINTER = 8;
+  private static final int LONG_VECTOR_INPUT_POINTER = 9;
+
+  // Kernel, parameters and first block
+  private static final int KERNEL = 30;
+  private static final int INT_PARAMETER = 31;
+  private static final int LONG_PARAMETER = 32;
+  private static final int ENTRY_BLOCK = 33;
+
+  private static int[] op(int opcode, int... operands) {
+    int[] instruction = new int[operands.length + 1];
+    instruction[0] = opcode;
+    System.arraycopy(operands, 0, instruction, 1, operands.length);
+    return instruction;
+  }
+
+  /** Encodes a nul-terminated literal string, padded to a whole number of words. */
+  private static int[] literal(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    int[] words = new int[bytes.length / Integer.BYTES + 1];
+    for (int i = 0; i < bytes.length; i++) {
+      words[i / Integer.BYTES] |= (bytes[i] & 0xFF) << (8 * (i % Integer.BYTES));
+    }
+    return words;
+  }
+
+  private static int[] entryPoint(int function, String name, int... interfaces) {
+    int[] nameWords = literal(name);
+    int[] operands = new int[2 + nameWords.length + interfaces.length];
+    operands[0] = EXECUTION_MODEL_KERNEL;
+    operands[1] = function;
+    System.arraycopy(nameWords, 0, operands, 2, nameWords.length);
+    System.arraycopy(interfaces, 0, operands, 2 + nameWords.length, interfaces.length);
+    return op(SPIRVOpcode.OP_ENTRY_POINT, operands);
+  }
+
+  private static int[] pointer(int id, int storageClass, int type) {
+    return op(SPIRVOpcode.OP_TYPE_POINTER, id, storageClass, type);
+  }
+
+  private static int[] name(int id, String name) {
+    int[] nameWords = literal(name);
+    int[] operands = new int[1 + nameWords.length];
+    operands[0] = id;
+    System.arraycopy(nameWords, 0, operands, 1, nameWords.length);
+    return op(SPIRVOpcode.OP_NAME, operands);
+  }
+
+  private static int[] localVariable(int id) {
+    return op(
+        SPIRVOpcode.OP_VARIABLE, INT_FUNCTION_POINTER, id, SPIRVOpcode.STORAGE_CLASS_FUNCTION);
+  }
+
+  private static int[] constant(int type, int id, long value) {
+    return type == LONG
+        ? op(SPIRVOpcode.OP_CONSTANT, type, id, (int) value, (int) (value >>> 32))
+        : op(SPIRVOpcode.OP_CONSTANT, type, id, (int) value);
+  }
+
+  /**
+   * Builds a module with the shared types, the given global instructions, and a kernel with two
+   * global pointer parameters whose body starts in {@link #ENTRY_BLOCK}.
+   */
+  private static byte[] kernel(List<int[]> globals, int[]... body) {
+    List<int[]> instructions = new ArrayList<>();
+    instructions.add(op(SPIRVOpcode.OP_TYPE_VOID, VOID));
+    instructions.add(op(SPIRVOpcode.OP_TYPE_INT, INT, 32, 0));
+    instructions.add(pointer(INT_FUNCTION_POINTER, SPIRVOpcode.STORAGE_CLASS_FUNCTION, INT));
+    instructions.add(op(SPIRVOpcode.OP_TYPE_INT, LONG, 64, 0));
+    instructions.add(pointer(INT_GLOBAL_POINTER, STORAGE_CLASS_CROSS_WORKGROUP, INT));
+    instructions.add(op(SPIRVOpcode.OP_TYPE_VECTOR, LONG_VECTOR, LONG, 3));
+    instructions.add(pointer(LONG_GLOBAL_POINTER, STORAGE_CLASS_CROSS_WORKGROUP, LONG));
+    instructions.add(pointer(LONG_VECTOR_INPUT_POINTER, STORAGE_CLASS_INPUT, LONG_VECTOR));
+    instructions.add(
+        op(
+            SPIRVOpcode.OP_TYPE_FUNCTION,
+            KERNEL_TYPE,
+            VOID,
+            INT_GLOBAL_POINTER,
+            LONG_GLOBAL_POINTER));
+    instructions.addAll(globals);
+    instructions.add(op(SPIRVOpcode.OP_FUNCTION, VOID, KERNEL, 0, KERNEL_TYPE));
+    instructions.add(op(SPIRVOpcode.OP_FUNCTION_PARAMETER, INT_GLOBAL_POINTER, INT_PARAMETER));
+    instructions.add(op(SPIRVOpcode.OP_FUNCTION_PARAMETER, LONG_GLOBAL_POINTER, LONG_PARAMETER));
+    instructions.add(op(SPIRVOpcode.OP_LABEL, ENTRY_BLOCK));
+    instructions.addAll(Arrays.asList(body));
+    instructions.add(op(SPIRVOpcode.OP_RETURN));
+    instructions.add(op(SPIRVOpcode.OP_FUNCTION_END));
+
+    int words = 5;
+    for (int[] instruction : instructions) {
+      words += instruction.length;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(words * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(MAGIC_NUMBER).putInt(VERSION_1_2).putInt(0).putInt(BOUND).putInt(0);
+    for (int[] instruction : instructions) {
+      buffer.putInt((instruction.length << 16) | instruction[0]);
+      for (int i = 1; i < instruction.length; i++) {
+        buffer.putInt(instruction[i]);
+      }
+    }
+    return buffer.array();
+  }
+
+  private static List<SPIRVInstruction> find(SPIRVBinaryModule module, int opcode) {
+    return module.getInstructions().stream()
+        .filter(instruction -> instruction.getOpcode() == opcode)
+        .toList();
+  }
+
+  private static SPIRVInstruction definition(SPIRVBinaryModule module, int id) {
+    return module.getInstructions().stream()
+        .filter(instruction -> instruction.getResult() == id)
+        .findFirst()
+        .orElse(null);
+  }
+
+  private static int[] idOperands(SPIRVInstruction instruction) {
+    return Arrays.stream(instruction.getIdOperandIndices())
+        .map(index -> instruction.getOperands()[index])
+        .toArray();
+  }
+
+  private static boolean isAnnotated(SPIRVBinaryModule module, int id) {
+    return module.getInstructions().stream()
+        .anyMatch(
+            instruction ->
+                SPIRVOpcode.isAnnotation(instruction.getOpcode())
+                    && instruction.getOperands()[0] == id);
+  }
+
+  /** Returns the values written by the stores to the given pointer, in program order. */
+  private static int[] storedValues(SPIRVBinaryModule module, int pointer) {
+    return find(module, SPIRVOpcode.OP_STORE).stream()
+        .filter(store -> store.getOperands()[0] == pointer)
+        .mapToInt(store -> store.getOperands()[1])
+        .toArray();
+  }
+
+  @Test
+  public void testLoadStoreForwardingAcrossStores() {
+    SPIRVBinaryModule module =
+        SPIRVBinaryModule.parse(
+            kernel(
+                List.of(constant(INT, 20, 1), constant(INT, 21, 2)),
+                localVariable(50),
+                op(SPIRVOpcode.OP_STORE, 50, 20),
+                op(SPIRVOpcode.OP_LOAD, INT, 40, 50),
+                op(SPIRVOpcode.OP_STORE, INT_PARAMETER, 40),
+                // A second store to the same variable replaces the available value
+                op(SPIRVOpcode.OP_STORE, 50, 21),
+                op(SPIRVOpcode.OP_LOAD, INT, 41, 50),
+                op(SPIRVOpcode.OP_LOAD, INT, 42, 50),
+                op(SPIRVOpcode.OP_I_ADD, INT, 43, 41, 42),
+                op(SPIRVOpcode.OP_STORE, INT_PARAMETER, 43),
+                // Global memory may be written by other work-items: never forwarded
+                op(SPIRVOpcode.OP_LOAD, INT, 44, INT_PARAMETER),
+                op(SPIRVOpcode.OP_STORE, INT_PARAMETER, 44),
+                // Values are only forwarded within a basic block
+                op(SPIRVOpcode.OP_BRANCH, 34),
+                op(SPIRVOpcode.OP_LABEL, 34),
+                op(SPIRVOpcode.OP_LOAD, INT, 45, 50),
+                op(SPIRVOpcode.OP_STORE, INT_PARAMETER, 45)));
+
+    assertEquals(3, new LoadStoreForwardingPass().run(module));
+
+    assertNull(definition(module, 40));
+    assertNull(definition(module, 41));
+    assertNull(definition(module, 42));
+    assertArrayEquals(new int[] {21, 21}, idOperands(definition(module, 43)));
+    assertNotNull(definition(module, 44));
+    assertNotNull(definition(module, 45));
+    assertArrayEquals(new int[] {20, 43, 44, 45}, storedValues(module, INT_PARAMETER));
+  }
+
+  @Test
+  public void testLoadStoreForwardingEscapedVariable() {
+    SPIRVBinaryModule module =
+        SPIRVBinaryModule.parse(
+            kernel(
+                List.of(constant(INT, 20, 1)),
+                localVariable(50),
+                op(SPIRVOpcode.OP_STORE, 50, 20),
+                // The address is used by an instruction that may write through it
+                op(OP_ATOMIC_I_ADD, INT, 40, 50, 20, 20, 20),
+                op(SPIRVOpcode.OP_LOAD, INT, 41, 50),
+                op(SPIRVOpcode.OP_STORE, INT_PARAMETER, 41)));
+
+    assertEquals(0, new LoadStoreForwardingPass().run(module));
+    assertNotNull(definition(module, 41));
+  }
+
+  @Test
+  public void testConstantFoldingOverflow() {
+    SPIRVBinaryModule module =
+        SPIRVBinaryModule.parse(
+            kernel(
+                List.of(
+                    constant(INT, 20, Integer.MAX_VALUE),
+                    constant(INT, 21, 1),
+                    constant(INT, 22, Integer.MIN_VALUE),
+                    constant(INT, 23, 32),
+                    constant(LONG, 24, Long.MAX_VALUE),
+                    constant(LONG, 25, 1)),
+                // Integer.MAX_VALUE + 1 wraps around to the existing Integer.MIN_VALUE
+                op(SPIRVOpcode.OP_I_ADD, INT, 40, 20, 21),
+                // Integer.MAX_VALUE * Integer.MAX_VALUE is 1 modulo 2^32
+                op(SPIRVOpcode.OP_I_MUL, INT, 41, 20, 20),
+                // -Integer.MIN_VALUE is Integer.MIN_VALUE
+                op(SPIRVOpcode.OP_S_NEGATE, INT, 42, 22),
+                // Shifts by the width of the type are undefined
+                op(SPIRVOpcode.OP_SHIFT_LEFT_LOGICAL, INT, 43, 21, 23),
+                op(SPIRVOpcode.OP_STORE, INT_PARAMETER, 40),
+                op(SPIRVOpcode.OP_STORE, INT_PARAMETER, 41),
+                op(SPIRVOpcode.OP_STORE, INT_PARAMETER, 42),
+                op(SPIRVOpcode.OP_STORE, INT_PARAMETER, 43),
+                // Long.MAX_VALUE + 1 needs a new 64-bit constant
+                op(SPIRVOpcode.OP_I_ADD, LONG, 44, 24, 25),
+                op(SPIRVOpcode.OP_STORE, LONG_PARAMETER, 44)));
+
+    assertEquals(4, new ConstantFoldingPass().run(module));
+
+    assertArrayEquals(new int[] {22, 21, 22, 43}, storedValues(module, INT_PARAMETER));
+    assertArrayEquals(new int[] {21, 23}, idOperands(definition(module, 43)));
+
+    int[] longValues = storedValues(module, LONG_PARAMETER);
+    assertEquals(1, longValues.length);
+    SPIRVInstruction newConstant = definition(module, longValues[0]);
+    assertEquals(BOUND, longValues[0]);
+    assertArrayEquals(new int[] {LONG, BOUND, 0, 0x80000000}, newConstant.getOperands());
+    assertTrue(
+        module.getInstructions().indexOf(newConstant)
+            < module.getInstructions().indexOf(definition(module, KERNEL)));
+  }
+
+  @Test
+  public void testCommonSubexpressionEliminationOfNonPureOperations() {
+    SPIRVBinaryModule module =
+        SPIRVBinaryModule.parse(
+            kernel(
+                List.of(
+                    op(SPIRVOpcode.OP_DECORATE, 46, DECORATION_NO_CONTRACTION),
+                    constant(INT, 20, 1),
+                    constant(INT, 21, 1)),
+                op(SPIRVOpcode.OP_LOAD, INT, 40, INT_PARAMETER),
+                op(SPIRVOpcode.OP_STORE, INT_PARAMETER, 20),
+                op(SPIRVOpcode.OP_LOAD, INT, 41, INT_PARAMETER),
+                op(OP_ATOMIC_I_ADD, INT, 42, INT_PARAMETER, 20, 20, 20),
+                op(OP_ATOMIC_I_ADD, INT, 43, INT_PARAMETER, 20, 20, 20),
+                op(SPIRVOpcode.OP_I_ADD, INT, 44, 40, 41),
+                op(SPIRVOpcode.OP_I_ADD, INT, 45, 40, 41),
+                op(SPIRVOpcode.OP_I_ADD, INT, 46, 40, 41),
+                op(SPIRVOpcode.OP_I_ADD, INT, 47, 42, 21),
+                op(SPIRVOpcode.OP_I_ADD, INT, 48, 43, 20),
+                op(SPIRVOpcode.OP_STORE, INT_PARAMETER, 44),
+                op(SPIRVOpcode.OP_STORE, INT_PARAMETER, 45),
+                op(SPIRVOpcode.OP_STORE, INT_PARAMETER, 46),
+                op(SPIRVOpcode.OP_STORE, INT_PARAMETER, 47),
+                op(SPIRVOpcode.OP_STORE, INT_PARAMETER, 48)));
+
+    // The duplicated constant and one addition; the decorated addition is kept
+    assertEquals(2, new CommonSubexpressionEliminationPass().run(module));
+
+    assertNull(definition(module, 21));
+    assertNull(definition(module, 45));
+    assertEquals(2, find(module, SPIRVOpcode.OP_LOAD).size());
+    assertEquals(2, find(module, OP_ATOMIC_I_ADD).size());
+    assertNotNull(definition(module, 46));
+    assertTrue(isAnnotated(module, 46));
+    assertArrayEquals(new int[] {42, 20}, idOperands(definition(module, 47)));
+    assertArrayEquals(new int[] {43, 20}, idOperands(definition(module, 48)));
+    assertArrayEquals(new int[] {20, 44, 44, 46, 47, 48}, storedValues(module, INT_PARAMETER));
+  }
+
+  @Test
+  public void testDeadCodeEliminationKeepsEntryPointAndDecoratedIds() {
+    SPIRVBinaryModule module =
+        SPIRVBinaryModule.parse(
+            kernel(
+                List.of(
+                    // "main" fills a word, so the name ends with a zero word
+                    entryPoint(KERNEL, "main", 60),
+                    name(40, "unused"),
+                    op(
+                        SPIRVOpcode.OP_DECORATE,
+                        60,
+                        DECORATION_BUILTIN,
+                        BUILTIN_GLOBAL_INVOCATION_ID),
+                    op(SPIRVOpcode.OP_DECORATE, 41, DECORATION_NO_CONTRACTION),
+                    op(SPIRVOpcode.OP_DECORATE, 45, DECORATION_NO_CONTRACTION),
+                    constant(INT, 20, 1),
+                    constant(INT, 21, 2),
+                    op(
+                        SPIRVOpcode.OP_VARIABLE,
+                        LONG_VECTOR_INPUT_POINTER,
+                        60,
+                        STORAGE_CLASS_INPUT)),
+                localVariable(50),
+                op(SPIRVOpcode.OP_STORE, 50, 20),
+                op(SPIRVOpcode.OP_I_ADD, INT, 40, 20, 20),
+                op(SPIRVOpcode.OP_I_MUL, INT, 41, 40, 21),
+                op(SPIRVOpcode.OP_LOAD, LONG_VECTOR, 42, 60),
+                op(SPIRVOpcode.OP_LOAD, LONG_VECTOR, 43, 60),
+                op(SPIRVOpcode.OP_COMPOSITE_EXTRACT, LONG, 44, 43, 0),
+                op(SPIRVOpcode.OP_I_ADD, LONG, 45, 44, 44),
+                op(SPIRVOpcode.OP_STORE, LONG_PARAMETER, 45),
+                op(SPIRVOpcode.OP_STORE, INT_PARAMETER, 20)));
+
+    // The write-only variable and its store, the chain 41 -> 40 -> 21, and the load 42
+    assertEquals(6, new DeadCodeEliminationPass().run(module));
+
+    SPIRVInstruction entryPoint = find(module, SPIRVOpcode.OP_ENTRY_POINT).get(0);
+    assertArrayEquals(new int[] {KERNEL, 60}, idOperands(entryPoint));
+    assertNotNull(definition(module, KERNEL));
+    assertNotNull(definition(module, 60));
+    assertTrue(isAnnotated(module, 60));
+    assertNotNull(definition(module, 45));
+    assertTrue(isAnnotated(module, 45));
+    assertNotNull(definition(module, 20));
+
+    for (int removed : new int[] {21, 40, 41, 42, 50}) {
+      assertNull(definition(module, removed));
+      assertTrue(!isAnnotated(module, removed));
+    }
+    assertArrayEquals(new int[0], storedValues(module, 50));
+  }
+
+  @Test
+  public void testOptimizerKeepsInvalidBinary() {
+    byte[] binary = {0x03, 0x02, 0x23, 0x07, 0x00};
+    assertSame(binary, new SPIRVOptimizer().optimize("invalid", binary));
+  }
+
+  @Test
+  public void testOptimizerPipeline() {
+    byte[] binary =
+        kernel(
+            List.of(constant(INT, 20, 3), constant(INT, 21, 4), constant(INT, 22, 3)),
+            localVariable(50),
+            op(SPIRVOpcode.OP_STORE, 50, 20),
+            op(SPIRVOpcode.OP_LOAD, INT, 40, 50),
+            op(SPIRVOpcode.OP_I_MUL, INT, 41, 40, 21),
+            op(SPIRVOpcode.OP_I_MUL, INT, 42, 22, 21),
+            op(SPIRVOpcode.OP_I_ADD, INT, 43, 41, 42),
+            op(SPIRVOpcode.OP_STORE, INT_PARAMETER, 43));
+
+    byte[] optimized = new SPIRVOptimizer().optimize("pipeline", binary);
+
+    // 3 * 4 + 3 * 4 is folded into a single constant stored to the parameter
+    SPIRVBinaryModule module = SPIRVBinaryModule.parse(optimized);
+    assertTrue(optimized.length < binary.length);
+    assertEquals(0, find(module, SPIRVOpcode.OP_VARIABLE).size());
+    assertEquals(0, find(module, SPIRVOpcode.OP_LOAD).size());
+    assertEquals(0, find(module, SPIRVOpcode.OP_I_MUL).size());
+    assertEquals(0, find(module, SPIRVOpcode.OP_I_ADD).size());
+    int[] values = storedValues(module, INT_PARAMETER);
+    assertEquals(1, values.length);
+    assertArrayEquals(new int[] {INT, values[0], 24}, definition(module, values[0]).getOperands());
+    assertEquals(1, find(module, SPIRVOpcode.OP_CONSTANT).size());
+  }
+}
@@ -31,6 +31,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
 import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
@@ -41,6 +43,16 @@ public class SparseMatrixUtils {
 
   private static final boolean VERBOSE = false;
 
+  /** Default slice height (C) of the SELL-C-σ format, the size of a warp. */
+  public static final int SELL_DEFAULT_SLICE_HEIGHT = 32;
+
+  /** Default sorting window (σ) of the SELL-C-σ format. */
+  public static final int SELL_DEFAULT_SIGMA = 1024;
+
+  // Largest ratio of stored entries to non-zeros for which a padded format is selected
+  private static final double ELL_MAX_PADDING = 1.25;
+  private static final double SELL_MAX_PADDING = 1.5;
+
   public static CSRMatrix<DoubleArray> loadMatrixD(final String path) {
     boolean pattern = false;
     boolean symmetric = false;
@@ -358,6 +370,163 @@ public class SparseMatrixUtils {
     return mat;
   }
 
+  /**
+   * Converts a CSR matrix to the ELLPACK format. Every row is padded to the length of the longest
+   * row, and the elements are stored column-major so that the threads of consecutive rows access
+   * contiguous memory. Padding entries have a zero value and column 0.
+   */
+  public static ELLMatrix toELL(final CSRMatrix<FloatArray> csr) {
+    final ELLMatrix mat = new ELLMatrix();
+    mat.n = csr.n;
+    mat.size = csr.size;
+    mat.width = maxRowLength(csr);
+    mat.vals = new FloatArray(Math.max(1, mat.size * mat.width));
+    mat.cols = new IntArray(Math.max(1, mat.size * mat.width));
+    mat.vals.init(0.0f);
+    mat.cols.init(0);
+
+    for (int row = 0; row < csr.size; row++) {
+      final int start = csr.rows.get(row);
+      for (int k = 0; k < rowLength(csr, row); k++) {
+        final int index = k * mat.size + row;
+        mat.vals.set(index, csr.vals.get(start + k));
+        mat.cols.set(index, csr.cols.get(start + k));
+      }
+    }
+    return mat;
+  }
+
+  /**
+   * Converts a CSR matrix to the SELL-C-σ format. The rows are sorted by decreasing length within
+   * windows of {@code sigma} rows, and then grouped in slices of {@code sliceHeight} rows. Each
+   * slice is padded to the length of its longest row and stored column-major. Padding entries have
+   * a zero value and column 0.
+   *
+   * @param csr matrix to convert
+   * @param sliceHeight number of rows per slice (C), usually the width of the SIMD unit or warp
+   * @param sigma number of rows sorted together (σ), a multiple of the slice height
+   */
+  public static SellCSigmaMatrix toSellCSigma(
+      final CSRMatrix<FloatArray> csr, final int sliceHeight, final int sigma) {
+    if (sliceHeight <= 0 || sigma < sliceHeight || sigma % sliceHeight != 0) {
+      throw new IllegalArgumentException(
+          format(
+              "sigma (%d) must be a positive multiple of the slice height (%d)",
+              sigma, sliceHeight));
+    }
+    final SellCSigmaMatrix mat = new SellCSigmaMatrix();
+    mat.n = csr.n;
+    mat.size = csr.size;
+    mat.sliceHeight = sliceHeight;
+    mat.sigma = sigma;
+
+    final int[] order = sortRowsByLength(csr, sigma);
+    final int[] offsets = sliceOffsets(csr, order, sliceHeight);
+    final int numSlices = offsets.length - 1;
+
+    mat.rowOrder = new IntArray(Math.max(1, mat.size));
+    mat.slices = new IntArray(numSlices + 1);
+    for (int slice = 0; slice <= numSlices; slice++) {
+      mat.slices.set(slice, offsets[slice]);
+    }
+    mat.vals = new FloatArray(Math.max(1, offsets[numSlices]));
+    mat.cols = new IntArray(Math.max(1, offsets[numSlices]));
+    mat.vals.init(0.0f);
+    mat.cols.init(0);
+
+    for (int position = 0; position < csr.size; position++) {
+      final int row = order[position];
+      final int start = csr.rows.get(row);
+      final int base = offsets[position / sliceHeight] + position % sliceHeight;
+      mat.rowOrder.set(position, row);
+      for (int k = 0; k < rowLength(csr, row); k++) {
+        final int index = base + k * sliceHeight;
+        mat.vals.set(index, csr.vals.get(start + k));
+        mat.cols.set(index, csr.cols.get(start + k));
+      }
+    }
+    return mat;
+  }
+
+  /**
+   * Selects the sparse format for the SpMV kernels from the row-length statistics of a matrix.
+   *
+   * <ul>
+   *   <li>{@link SparseFormat#ELL} when the rows have similar lengths, so the ELLPACK padding is
+   *       small. ELLPACK has no row pointers and fully coalesced accesses.
+   *   <li>{@link SparseFormat#SELL_C_SIGMA} when the row lengths vary (e.g., power-law matrices),
+   *       but sorting the rows in SELL-C-σ keeps the padding small.
+   *   <li>{@link SparseFormat#CSR} otherwise, for example when a few very long rows would pad whole
+   *       slices.
+   * </ul>
+   */
+  public static SparseFormat selectFormat(final CSRMatrix<FloatArray> csr) {
+    if (csr.n == 0) {
+      return SparseFormat.CSR;
+    }
+    final double ellPadding = (double) csr.size * maxRowLength(csr) / csr.n;
+    if (ellPadding <= ELL_MAX_PADDING) {
+      return SparseFormat.ELL;
+    }
+    final int[] order = sortRowsByLength(csr, SELL_DEFAULT_SIGMA);
+    final int[] offsets = sliceOffsets(csr, order, SELL_DEFAULT_SLICE_HEIGHT);
+    final double sellPadding = (double) offsets[offsets.length - 1] / csr.n;
+    if (sellPadding <= SELL_MAX_PADDING) {
+      return SparseFormat.SELL_C_SIGMA;
+    }
+    return SparseFormat.CSR;
+  }
+
+  private static int rowLength(final CSRMatrix<FloatArray> csr, final int row) {
+    return csr.rows.get(row + 1) - csr.rows.get(row);
+  }
+
+  private static int maxRowLength(final CSRMatrix<FloatArray> csr) {
+    int max = 0;
+    for (int row = 0; row < csr.size; row++) {
+      max = Math.max(max, rowLength(csr, row));
+    }
+    return max;
+  }
+
+  // Rows in order of decreasing length within each window of sigma rows
+  private static int[] sortRowsByLength(final CSRMatrix<FloatArray> csr, final int sigma) {
+    final Integer[] order = new Integer[csr.size];
+    for (int row = 0; row < csr.size; row++) {
+      order[row] = row;
+    }
+    final Comparator<Integer> byLength =
+        Comparator.comparingInt((Integer row) -> rowLength(csr, row)).reversed();
+    for (int start = 0; start < csr.size; start += sigma) {
+      Arrays.sort(order, start, Math.min(start + sigma, csr.size), byLength);
+    }
+    return Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+  }
+
+  // Offset of each slice in the values array, followed by the total number of entries
+  private static int[] sliceOffsets(
+      final CSRMatrix<FloatArray> csr, final int[] order, final int sliceHeight) {
+    final int numSlices = (csr.size + sliceHeight - 1) / sliceHeight;
+    final int[] offsets = new int[numSlices + 1];
+    for (int slice = 0; slice < numSlices; slice++) {
+      int width = 0;
+      for (int position = slice * sliceHeight;
+          position < Math.min((slice + 1) * sliceHeight, csr.size);
+          position++) {
+        width = Math.max(width, rowLength(csr, order[position]));
+      }
+      offsets[slice + 1] = offsets[slice] + width * sliceHeight;
+    }
+    return offsets;
+  }
+
+  /** Sparse matrix formats with an SpMV kernel. */
+  public enum SparseFormat {
+    CSR,
+    ELL,
+    SELL_C_SIGMA
+  }
+
   public static class CSRMatrix<T> {
 
     public int n;
@@ -366,4 +535,35 @@ public class SparseMatrixUtils {
     public IntArray rows;
     public IntArray cols;
   }
+
+  /**
+   * Sparse matrix in the ELLPACK format. The element {@code k} of row {@code i} is stored at {@code
+   * k * size + i}.
+   */
+  public static class ELLMatrix {
+
+    public int n;
+    public int size;
+    public int width;
+    public FloatArray vals;
+    public IntArray cols;
+  }
+
+  /**
+   * Sparse matrix in the SELL-C-σ format. The row at position {@code p} of the sorted order is the
+   * row {@code rowOrder[p]} of the matrix, and belongs to the slice {@code p / sliceHeight}. Its
+   * element {@code k} is stored at {@code slices[p / sliceHeight] + k * sliceHeight + p %
+   * sliceHeight}.
+   */
+  public static class SellCSigmaMatrix {
+
+    public int n;
+    public int size;
+    public int sliceHeight;
+    public int sigma;
+    public FloatArray vals;
+    public IntArray cols;
+    public IntArray slices;
+    public IntArray rowOrder;
+  }
 }
@@ -3,6 +3,7 @@ import uk.ac.manchester.tornado.runtime.TornadoBackendProvider;
 open module tornado.runtime {
   requires java.logging;
   requires jdk.unsupported;
+  requires transitive jdk.jfr;
   requires org.graalvm.collections;
   requires transitive jdk.internal.vm.ci;
   requires transitive jdk.internal.vm.compiler;
@@ -14,6 +15,7 @@ open module tornado.runtime {
   exports uk.ac.manchester.tornado.runtime.common;
   exports uk.ac.manchester.tornado.runtime.common.enums;
   exports uk.ac.manchester.tornado.runtime.common.exceptions;
+  exports uk.ac.manchester.tornado.runtime.costmodel;
   exports uk.ac.manchester.tornado.runtime.directives;
   exports uk.ac.manchester.tornado.runtime.domain;
   exports uk.ac.manchester.tornado.runtime.graal;
@@ -25,6 +27,7 @@ open module tornado.runtime {
   exports uk.ac.manchester.tornado.runtime.graal.phases;
   exports uk.ac.manchester.tornado.runtime.graph;
   exports uk.ac.manchester.tornado.runtime.graph.nodes;
+  exports uk.ac.manchester.tornado.runtime.jfr;
   exports uk.ac.manchester.tornado.runtime.profiler;
   exports uk.ac.manchester.tornado.runtime.sketcher;
   exports uk.ac.manchester.tornado.runtime.tasks;
@@ -49,14 +49,19 @@ import org.graalvm.compiler.lir.phases.PostAllocationOptimizationStage;
 import org.graalvm.compiler.options.OptionKey;
 import org.graalvm.compiler.options.OptionValues;
 import org.graalvm.compiler.printer.GraalDebugHandlersFactory;
+import uk.ac.manchester.tornado.api.SchedulingMetrics;
+import uk.ac.manchester.tornado.api.ShapeCacheMetrics;
 import uk.ac.manchester.tornado.api.TornadoBackend;
 import uk.ac.manchester.tornado.api.TornadoRuntime;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBackendNotFound;
+import uk.ac.manchester.tornado.runtime.common.KernelShapeCache;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
 import uk.ac.manchester.tornado.runtime.common.enums.TornadoBackends;
 import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoSnippetReflectionProvider;
+import uk.ac.manchester.tornado.runtime.interpreter.DeviceScheduler;
 
 public final class TornadoCoreRuntime implements TornadoRuntime {
 
@@ -192,6 +197,23 @@ public final class TornadoCoreRuntime implements TornadoRuntime {
     return TornadoOptions.PROFILER_LOGS_ACCUMULATE() && TornadoOptions.isProfilerEnabled();
   }
 
+  @Override
+  public SchedulingMetrics getSchedulingMetrics(long executionPlanId) {
+    return DeviceScheduler.getMetrics(executionPlanId);
+  }
+
+  @Override
+  public ShapeCacheMetrics getShapeCacheMetrics(TornadoDevice device) {
+    if (device instanceof TornadoXPUDevice xpuDevice && xpuDevice.getShapeCache() != null) {
+      KernelShapeCache shapeCache = xpuDevice.getShapeCache();
+      return new ShapeCacheMetrics(
+          shapeCache.getCompilations(),
+          shapeCache.getGenericHits(),
+          shapeCache.getSpecialisedHits());
+    }
+    return ShapeCacheMetrics.EMPTY;
+  }
+
   public MetaAccessProvider getMetaAccess() {
     return vmBackend.getMetaAccess();
   }
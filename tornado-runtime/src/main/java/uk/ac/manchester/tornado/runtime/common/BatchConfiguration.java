@@ -77,7 +77,22 @@ public class BatchConfiguration {
     LinkedHashSet<Byte> elementSizes = new LinkedHashSet<>();
 
     for (Object o : context.getObjects()) {
-      if (o.getClass().isArray()) {
+      if (o.getClass().isArray() && o.getClass().getComponentType().isArray()) {
+        // Two-dimensional arrays are processed in chunks of rows (packed layout)
+        DataTypeSize dataTypeSize =
+            DataTypeSize.findDataTypeSize(o.getClass().getComponentType().getComponentType());
+        if (dataTypeSize == null || !TornadoOptions.PACKED_MULTIDIM_ARRAYS) {
+          throw new TornadoRuntimeException(
+              "[UNSUPPORTED] Multi-dimensional arrays can only be processed in batches with"
+                  + " -Dtornado.multidim.packed=True");
+        }
+        totalSize = 0;
+        for (int i = 0; i < Array.getLength(o); i++) {
+          totalSize += (long) Array.getLength(Array.get(o, i)) * dataTypeSize.getSize();
+        }
+        elementSizes.add(dataTypeSize.getSize());
+        inputSizes.add(totalSize);
+      } else if (o.getClass().isArray()) {
         Class<?> componentType = o.getClass().getComponentType();
         DataTypeSize dataTypeSize = DataTypeSize.findDataTypeSize(componentType);
         if (dataTypeSize == null) {
@@ -0,0 +1,265 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.common;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
+
+/**
+ * Per-device cache of shape-polymorphic kernels.
+ *
+ * <p>For each task (task-id and method name), the cache keeps one size-generic kernel, in which
+ * array sizes and scalar values are passed as kernel arguments, and a small LRU set of kernels
+ * specialised for the shapes that are executed more often (hot shapes). Once a kernel is in the
+ * cache, switching between shapes does not trigger a new compilation.
+ *
+ * <p>Every kernel is installed under a variant key (see {@link #variantKey}), instead of the name
+ * of the task, so the variants of a task do not replace each other in the code cache of the
+ * backend. When a variant is evicted, the cache notifies the backend with its variant key, so the
+ * installed code is released with it.
+ */
+public class KernelShapeCache {
+
+  private static final TornadoLogger logger = new TornadoLogger(KernelShapeCache.class);
+
+  private final ConcurrentHashMap<String, TaskShapes> tasks = new ConcurrentHashMap<>();
+  private final AtomicInteger genericHits = new AtomicInteger();
+  private final AtomicInteger specialisedHits = new AtomicInteger();
+  private final AtomicInteger compilations = new AtomicInteger();
+  private final Consumer<String> evictionListener;
+
+  public KernelShapeCache() {
+    this(variantKey -> {});
+  }
+
+  /**
+   * @param evictionListener Function called with the variant key of each kernel that is evicted
+   *     from the cache.
+   */
+  public KernelShapeCache(Consumer<String> evictionListener) {
+    this.evictionListener = evictionListener;
+  }
+
+  /**
+   * Builds the key under which a variant of a task is installed in the code cache of a backend.
+   *
+   * @param taskKey Task-id and method name of the task.
+   * @param shape Shape key of the variant, or null for the size-generic kernel.
+   * @return String with the variant key.
+   */
+  public static String variantKey(String taskKey, String shape) {
+    return taskKey + "#" + (shape == null ? "generic" : shape);
+  }
+
+  /**
+   * Builds the shape key of a task from its arguments: the number of elements of native arrays,
+   * the length of Java arrays and the values of scalar arguments. Tasks with other kinds of objects
+   * (e.g., matrix types or user-defined objects) are not considered, because the compiler folds
+   * their fields as constants.
+   *
+   * @param args Task arguments.
+   * @return String with the shape key, or null if the task cannot use shape-polymorphic kernels.
+   */
+  public static String shapeKey(Object[] args) {
+    StringBuilder key = new StringBuilder();
+    for (Object arg : args) {
+      if (arg == null || arg instanceof KernelContext) {
+        key.append("_");
+      } else if (arg instanceof TornadoNativeArray nativeArray) {
+        key.append('n').append(nativeArray.getSize());
+      } else if (arg.getClass().isArray() && arg.getClass().getComponentType().isPrimitive()) {
+        key.append('a').append(java.lang.reflect.Array.getLength(arg));
+      } else if (RuntimeUtilities.isBoxedPrimitiveClass(arg.getClass())) {
+        key.append('s').append(arg);
+      } else {
+        return null;
+      }
+      key.append(',');
+    }
+    return key.toString();
+  }
+
+  /**
+   * Returns the installed code for the shape of the given task. If the shape is hot, it returns
+   * (and compiles the first time) a kernel specialised for that shape. Otherwise, it returns the
+   * size-generic kernel of the task.
+   *
+   * @param task {@link CompilableTask} to compile.
+   * @param methodName Name of the method of the task.
+   * @param compiler Function that compiles the task with the current compiler settings of the task
+   *     meta-data, and installs it under the given variant key.
+   * @return {@link TornadoInstalledCode}
+   */
+  public TornadoInstalledCode lookupOrCompile(
+      CompilableTask task,
+      String methodName,
+      BiFunction<CompilableTask, String, TornadoInstalledCode> compiler) {
+    final Object[] args = task.getArguments();
+    final TaskDataContext meta = task.meta();
+    final String shape = shapeKey(args);
+    final String taskKey = task.getId() + "-" + methodName;
+    if (shape == null) {
+      // Unknown shapes are not cached, so each compilation replaces the previous one.
+      evictionListener.accept(variantKey(taskKey, null));
+      return compileSpecialised(task, variantKey(taskKey, null), compiler);
+    }
+
+    final TaskShapes taskShapes = tasks.computeIfAbsent(taskKey, key -> new TaskShapes());
+    synchronized (taskShapes) {
+      Variant variant = taskShapes.specialised.get(shape);
+      if (variant != null && variant.code.isValid()) {
+        specialisedHits.incrementAndGet();
+        variant.applyTo(meta, args);
+        return variant.code;
+      }
+
+      int hits = taskShapes.hits.merge(shape, 1, Integer::sum);
+      if (hits >= TornadoOptions.SHAPE_POLYMORPHIC_HOT_THRESHOLD || taskShapes.genericUnsupported) {
+        logger.debug("shape-polymorphic: specialising %s for shape [%s]", task.getId(), shape);
+        TornadoInstalledCode code = compileSpecialised(task, variantKey(taskKey, shape), compiler);
+        addVariant(taskKey, taskShapes, shape, new Variant(code, meta.getDomain()));
+        return code;
+      }
+
+      if (taskShapes.generic != null && taskShapes.generic.code.isValid()) {
+        genericHits.incrementAndGet();
+        taskShapes.generic.applyTo(meta, args);
+        return taskShapes.generic.code;
+      }
+
+      meta.resetShapeSpecialisation();
+      compilations.incrementAndGet();
+      TornadoInstalledCode code = compiler.apply(task, variantKey(taskKey, null));
+      if (meta.isShapeSpecialisationRequired()) {
+        // The loop bounds could not be passed as kernel arguments.
+        logger.debug("shape-polymorphic: %s requires specialised kernels", task.getId());
+        taskShapes.genericUnsupported = true;
+        evictionListener.accept(variantKey(taskKey, null));
+        code = compileSpecialised(task, variantKey(taskKey, shape), compiler);
+        addVariant(taskKey, taskShapes, shape, new Variant(code, meta.getDomain()));
+        return code;
+      }
+      DomainTree domain =
+          meta.hasArgumentDependentDomain() ? meta.getArgumentDependentDomain() : meta.getDomain();
+      taskShapes.generic = new Variant(code, domain);
+      return code;
+    }
+  }
+
+  private TornadoInstalledCode compileSpecialised(
+      CompilableTask task,
+      String variantKey,
+      BiFunction<CompilableTask, String, TornadoInstalledCode> compiler) {
+    final TaskDataContext meta = task.meta();
+    compilations.incrementAndGet();
+    meta.disableShapePolymorphism();
+    try {
+      return compiler.apply(task, variantKey);
+    } finally {
+      meta.enableShapePolymorphism();
+    }
+  }
+
+  private void addVariant(String taskKey, TaskShapes taskShapes, String shape, Variant variant) {
+    taskShapes.specialised.put(shape, variant);
+    Iterator<Map.Entry<String, Variant>> iterator = taskShapes.specialised.entrySet().iterator();
+    while (taskShapes.specialised.size() > TornadoOptions.SHAPE_POLYMORPHIC_MAX_VARIANTS
+        && iterator.hasNext()) {
+      String evicted = iterator.next().getKey();
+      iterator.remove();
+      taskShapes.hits.remove(evicted);
+      evictionListener.accept(variantKey(taskKey, evicted));
+    }
+  }
+
+  /** Number of launches served by a size-generic kernel without compilation. */
+  public int getGenericHits() {
+    return genericHits.get();
+  }
+
+  /** Number of launches served by a kernel specialised for a hot shape. */
+  public int getSpecialisedHits() {
+    return specialisedHits.get();
+  }
+
+  /** Number of compilations (generic and specialised) performed through the cache. */
+  public int getCompilations() {
+    return compilations.get();
+  }
+
+  /** Evicts all the variants of all tasks. */
+  public void reset() {
+    for (Map.Entry<String, TaskShapes> entry : tasks.entrySet()) {
+      TaskShapes taskShapes = entry.getValue();
+      synchronized (taskShapes) {
+        if (taskShapes.generic != null) {
+          evictionListener.accept(variantKey(entry.getKey(), null));
+        }
+        for (String shape : taskShapes.specialised.keySet()) {
+          evictionListener.accept(variantKey(entry.getKey(), shape));
+        }
+      }
+    }
+    tasks.clear();
+  }
+
+  private static final class Variant {
+    private final TornadoInstalledCode code;
+    private final DomainTree domain;
+
+    private Variant(TornadoInstalledCode code, DomainTree domain) {
+      this.code = code;
+      this.domain = domain;
+    }
+
+    private void applyTo(TaskDataContext meta, Object[] args) {
+      if (domain == null) {
+        return;
+      }
+      if (domain.isArgumentDependent()) {
+        meta.setArgumentDependentDomain(domain, args);
+      } else {
+        meta.setDomain(domain);
+      }
+    }
+  }
+
+  private static final class TaskShapes {
+    private final Map<String, Integer> hits = new HashMap<>();
+    private final LinkedHashMap<String, Variant> specialised = new LinkedHashMap<>(16, 0.75f, true);
+    private Variant generic;
+    private boolean genericUnsupported;
+  }
+}
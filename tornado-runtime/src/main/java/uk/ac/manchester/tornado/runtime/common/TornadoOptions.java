@@ -103,6 +103,14 @@ public class TornadoOptions {
   public static final long DEVICE_AVAILABLE_MEMORY =
       RuntimeUtilities.parseSize(System.getProperty("tornado.device.memory", "1GB"));
 
+  /**
+   * Oversubscribe the device memory: when an allocation does not fit, buffers kept on the device
+   * by other execution plans are evicted in least-recently-used order (written back to the host if
+   * a kernel modified them) and allocated again on their next use. Disabled by default.
+   */
+  public static final boolean DEVICE_MEMORY_EVICTION =
+      getBooleanValue("tornado.device.memory.eviction", FALSE);
+
   /** Option to enable exceptions for the OpenCL generated code. This is experimental. */
   public static final boolean ENABLE_EXCEPTIONS =
       Boolean.parseBoolean(System.getProperty("tornado.exceptions", FALSE));
@@ -122,12 +130,56 @@ public class TornadoOptions {
   public static final boolean FEATURE_EXTRACTION =
       getBooleanValue("tornado.feature.extraction", FALSE);
 
+  /**
+   * Class name of the {@link uk.ac.manchester.tornado.runtime.costmodel.DeviceCostModel} used by
+   * the {@link uk.ac.manchester.tornado.api.Policy#COST_MODEL} policy.
+   */
+  public static final String COST_MODEL_CLASS =
+      getProperty(
+          "tornado.costmodel.class",
+          "uk.ac.manchester.tornado.runtime.costmodel.RooflineCostModel");
+
+  /**
+   * Run memory-bandwidth and arithmetic-throughput micro-benchmarks on each device the first time
+   * the cost model evaluates it, instead of using typical values for the type of device.
+   */
+  public static final boolean COST_MODEL_CALIBRATION =
+      getBooleanValue("tornado.costmodel.calibrate", FALSE);
+
+  /**
+   * Predicted execution times, in seconds, that replace the cost model for the named devices, with
+   * the format {@code <device name>=<seconds>;<device name>=<seconds>}. It is read when a
+   * task-graph is first scheduled with the cost model.
+   *
+   * @return the profile, or an empty string.
+   */
+  public static String getCostModelProfile() {
+    return getProperty("tornado.costmodel.profile", "");
+  }
+
   /** Enable/Disable FMA Optimizations. True by default. */
   public static final boolean ENABLE_FMA = getBooleanValue("tornado.enable.fma", TRUE);
 
   /** Enable/Disable Fix Reads Optimization. True by default. */
   public static final boolean ENABLE_FIX_READS = getBooleanValue("tornado.enable.fix.reads", TRUE);
 
+  /**
+   * Enable/Disable the OpenCL auto-vectorization of contiguous memory accesses. When enabled, runs
+   * of consecutive scalar loads and stores to the same array (e.g., after loop unrolling or thread
+   * coarsening) are emitted as {@code vloadN}/{@code vstoreN}. False by default.
+   */
+  public static final boolean OPENCL_AUTO_VECTORIZE =
+      getBooleanValue("tornado.opencl.vectorize", FALSE);
+
+  /**
+   * Enable/Disable the OpenCL local-memory tiling of two-dimensional parallel loop nests. When
+   * enabled, read-only data that is reused by the threads of a work-group across a sequential inner
+   * loop is staged into local memory, and the local work size of the task is set to the tile size.
+   * False by default.
+   */
+  public static final boolean OPENCL_LOCAL_MEMORY_TILING =
+      getBooleanValue("tornado.opencl.tiling", FALSE);
+
   /** Enable/Disable events dumping on program finish. False by default. */
   public static final boolean DUMP_EVENTS =
       Boolean.parseBoolean(getProperty("tornado.events.dump", FALSE));
@@ -256,6 +308,16 @@ public class TornadoOptions {
   public static final boolean OPTIMIZE_LOAD_STORE_SPIRV =
       getBooleanValue("tornado.spirv.loadstore", TRUE);
 
+  /**
+   * Optimize the generated SPIR-V modules (load/store forwarding, constant folding, common
+   * subexpression elimination and dead code elimination) before installing them. False by default.
+   */
+  public static final boolean SPIRV_OPTIMIZER = getBooleanValue("tornado.spirv.optimizer", FALSE);
+
+  /** Print the size of each SPIR-V module and the time of each optimization pass. */
+  public static final boolean SPIRV_OPTIMIZER_REPORT =
+      getBooleanValue("tornado.spirv.optimizer.report", FALSE);
+
   /** Use Level Zero Thread Suggestions for the Thread Dispatcher. True by default. */
   public static final boolean USE_LEVELZERO_THREAD_DISPATCHER_SUGGESTIONS =
       getBooleanValue("tornado.spirv.levelzero.thread.dispatcher", TRUE);
@@ -352,6 +414,52 @@ public class TornadoOptions {
    */
   public static final boolean USE_SYNC_FLUSH = getBooleanValue("tornado.opencl.syncflush", FALSE);
 
+  /**
+   * Dispatch the OpenCL enqueue and kernel-argument calls through Foreign Function & Memory
+   * downcalls instead of JNI. Heap-array transfers always use JNI. Disabled by default.
+   */
+  public static final boolean OPENCL_FOREIGN_BINDINGS =
+      getBooleanValue("tornado.opencl.ffm", FALSE);
+
+  /**
+   * Record the kernel launches of an execution plan once their arguments are stable, and replay
+   * them with a single enqueue in the following executions. Supported by the OpenCL backend on
+   * devices that expose {@code cl_khr_command_buffer}. Disabled by default.
+   */
+  public static final boolean LAUNCH_REPLAY = getBooleanValue("tornado.replay", FALSE);
+
+  /**
+   * Schedule the launches and data transfers of all execution plans through the device schedulers,
+   * using the default {@link uk.ac.manchester.tornado.api.SchedulingPolicy} for the plans that do
+   * not set one. Plans with a scheduling policy are always scheduled. Disabled by default.
+   */
+  public static final boolean DEVICE_SCHEDULER = getBooleanValue("tornado.device.scheduler", FALSE);
+
+  /**
+   * Maximum number of scheduled launches and data transfers in flight on a device. Lower values
+   * give the priority classes a finer control of the device. Default is 64.
+   */
+  public static final int DEVICE_SCHEDULER_MAX_IN_FLIGHT =
+      getIntValue("tornado.device.scheduler.inflight", "64");
+
+  /**
+   * Enqueue OpenCL kernel launches and data transfers without requesting an event when it is never
+   * read: in-order queues, {@code tornado.vm.deps=False} and the profiler off. Completion is
+   * observed through the final synchronization of the execution. Disabled by default.
+   */
+  public static final boolean OPENCL_EVENT_FREE_DISPATCH =
+      getBooleanValue("tornado.opencl.eventfree", FALSE);
+
+  /**
+   * Create the OpenCL buffers of off-heap types (e.g., native arrays) with {@code
+   * CL_MEM_USE_HOST_PTR} over the host segment, and synchronise them with map/unmap instead of
+   * copies. Only segments aligned to {@code tornado.opencl.array.align} (see {@code
+   * tornado.panama.segmentAlignment}) on devices with host-unified memory are used; the rest fall
+   * back to copies. Disabled by default.
+   */
+  public static final boolean OPENCL_USE_HOST_POINTER =
+      getBooleanValue("tornado.opencl.usehostptr", FALSE);
+
   /** Run VM Flush when TornadoVM finishes the execution of the TornadoVM interpreter. */
   public static final boolean USE_VM_FLUSH = getBooleanValue("tornado.vmflush", TRUE);
 
@@ -379,6 +487,63 @@ public class TornadoOptions {
   public static final boolean ENABLE_OOO_EXECUTION =
       getBooleanValue("tornado.ooo-execution.enable", FALSE);
 
+  /**
+   * Compile size-generic (shape-polymorphic) kernels. Array sizes and scalar parameters are passed
+   * as kernel arguments instead of being folded as constants. False by default.
+   */
+  public static final boolean SHAPE_POLYMORPHIC_KERNELS =
+      getBooleanValue("tornado.shape.polymorphic", FALSE);
+
+  /**
+   * Number of executions with the same input shape before a shape-polymorphic task gets a
+   * specialised kernel variant for that shape. Default is 3.
+   */
+  public static final int SHAPE_POLYMORPHIC_HOT_THRESHOLD =
+      getIntValue("tornado.shape.polymorphic.hot", "3");
+
+  /** Maximum number of specialised kernel variants kept per task. Default is 4. */
+  public static final int SHAPE_POLYMORPHIC_MAX_VARIANTS =
+      getIntValue("tornado.shape.polymorphic.variants", "4");
+
+  /**
+   * Stage multi-dimensional Java arrays (e.g., float[][]) into a single contiguous device buffer
+   * that is copied with one bulk transfer, instead of allocating and copying every row separately.
+   * False by default.
+   */
+  public static final boolean PACKED_MULTIDIM_ARRAYS =
+      getBooleanValue("tornado.multidim.packed", FALSE);
+
+  /**
+   * Run GPU reductions in a single kernel on the OpenCL and PTX backends: each thread accumulates
+   * many elements with a grid-stride loop before the work-group combine, and the last work-group to
+   * finish merges the per-group partials instead of launching an extra sequential task. False by
+   * default.
+   */
+  public static final boolean REDUCE_SINGLE_PASS =
+      getBooleanValue("tornado.reduce.singlepass", FALSE);
+
+  /**
+   * Number of work-groups launched per compute unit for single-pass reductions. It bounds the
+   * number of partial results merged by the last work-group. Default is 8.
+   */
+  public static final int REDUCE_GROUPS_PER_COMPUTE_UNIT =
+      getIntValue("tornado.reduce.groupsPerCU", "8");
+
+  /**
+   * Use sub-group reduction built-ins for single-pass reductions on OpenCL devices that expose
+   * cl_khr_subgroups or cl_intel_subgroups. True by default.
+   */
+  public static final boolean REDUCE_USE_SUBGROUPS =
+      getBooleanValue("tornado.reduce.subgroups", TRUE);
+
+  /**
+   * Read the {@code @Parallel} loops of task methods from the compile-time index emitted by the
+   * tornado-annotation processor (META-INF/tornado/parallel). When disabled, or when a class has no
+   * index, its class file is parsed instead. True by default.
+   */
+  public static final boolean PARALLEL_ANNOTATION_INDEX =
+      getBooleanValue("tornado.parallel.index", TRUE);
+
   /**
    * Option for enabling partial loop unrolling. The unroll factor can be configured to take any
    * integer value of power of 2 and less than 32.
@@ -154,6 +154,65 @@ public interface TornadoXPUDevice extends TornadoDevice {
    */
   void setAtomicRegion(XPUBuffer bufferAtomics);
 
+  /**
+   * It obtains the cache of shape-polymorphic kernels of the device.
+   *
+   * @return {@link KernelShapeCache}, or null if the device does not support shape-polymorphic
+   *     kernels.
+   */
+  default KernelShapeCache getShapeCache() {
+    return null;
+  }
+
+  /**
+   * It starts recording the kernel launches that an execution plan issues from the current thread,
+   * so they can be replayed later with {@link #replayLaunches}. The launches are still dispatched
+   * while they are recorded.
+   *
+   * @param executionPlanId Execution plan identifier.
+   * @return True if the device has started recording, false if it cannot replay launches.
+   */
+  default boolean beginLaunchRecording(long executionPlanId) {
+    return false;
+  }
+
+  /**
+   * It stops recording the kernel launches of an execution plan.
+   *
+   * @param executionPlanId Execution plan identifier.
+   * @return True if the recorded launches can be replayed.
+   */
+  default boolean endLaunchRecording(long executionPlanId) {
+    return false;
+  }
+
+  /**
+   * It submits the recorded kernel launches of an execution plan with a single enqueue. The kernel
+   * arguments are the ones captured at recording time.
+   *
+   * @param executionPlanId Execution plan identifier.
+   * @return True if the launches were submitted. Otherwise, the caller must dispatch them.
+   */
+  default boolean replayLaunches(long executionPlanId) {
+    return false;
+  }
+
+  /**
+   * It releases the recorded kernel launches of an execution plan, if any.
+   *
+   * @param executionPlanId Execution plan identifier.
+   */
+  default void discardLaunchRecording(long executionPlanId) {}
+
+  /**
+   * It sets whether the profiler records the current execution of an execution plan. The device
+   * waits for and queries the events of its launches and transfers only when it is enabled.
+   *
+   * @param executionPlanId Execution plan identifier.
+   * @param enabled True if the current execution is profiled.
+   */
+  default void setProfilerEnabled(long executionPlanId, boolean enabled) {}
+
   /**
    * It returns from the sketch of a task whether the loop index is written in the output buffer.
    *
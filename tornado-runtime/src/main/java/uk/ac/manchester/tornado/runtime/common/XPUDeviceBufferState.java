@@ -36,6 +36,10 @@ public class XPUDeviceBufferState implements DeviceBufferState {
   private boolean bufferHasContent;
   private boolean lockBuffer;
   private long partialSize;
+  private boolean sharedBuffer;
+  private boolean sharedVirtualMemory;
+  private boolean dirty;
+  private long dirtyPlanId;
 
   @Override
   public void setXPUBuffer(XPUBuffer value) {
@@ -92,6 +96,9 @@ public class XPUDeviceBufferState implements DeviceBufferState {
     } else {
       sb.append(" <unbuffered>");
     }
+    if (sharedBuffer) {
+      sb.append(" <shared>");
+    }
 
     return sb.toString();
   }
@@ -111,6 +118,47 @@ public class XPUDeviceBufferState implements DeviceBufferState {
     return this.partialSize;
   }
 
+  @Override
+  public void setSharedBuffer(boolean sharedBuffer) {
+    this.sharedBuffer = sharedBuffer;
+  }
+
+  @Override
+  public boolean isSharedBuffer() {
+    return sharedBuffer;
+  }
+
+  @Override
+  public void setSharedVirtualMemory(boolean sharedVirtualMemory) {
+    this.sharedVirtualMemory = sharedVirtualMemory;
+  }
+
+  @Override
+  public boolean isSharedVirtualMemory() {
+    return sharedVirtualMemory;
+  }
+
+  @Override
+  public void markDirty(long executionPlanId) {
+    this.dirty = true;
+    this.dirtyPlanId = executionPlanId;
+  }
+
+  @Override
+  public void clearDirty() {
+    this.dirty = false;
+  }
+
+  @Override
+  public boolean isDirty() {
+    return dirty;
+  }
+
+  @Override
+  public long getDirtyPlanId() {
+    return dirtyPlanId;
+  }
+
   public XPUDeviceBufferState createSnapshot() {
     XPUDeviceBufferState xpuDeviceBufferState = new XPUDeviceBufferState();
     xpuDeviceBufferState.setLockBuffer(this.isLockedBuffer());
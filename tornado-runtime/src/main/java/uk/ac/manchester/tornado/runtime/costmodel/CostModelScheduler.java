@@ -0,0 +1,154 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.costmodel;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Selects the device for a task-graph under the {@link
+ * uk.ac.manchester.tornado.api.Policy#COST_MODEL} policy.
+ *
+ * <p>The first selection relies only on the predictions of the {@link DeviceCostModel}. After
+ * each execution the observed time is compared with the prediction, and the ratio is kept per
+ * device as an exponential moving average that scales the following predictions. The first
+ * execution on a device is not used for the refinement, since it includes the JIT compilation.
+ *
+ * <p>Only the selected device is measured, so the correction of a device that was slower than
+ * predicted would otherwise keep it out of the selection for good. After each execution, the
+ * corrections of the other devices decay towards 1 (the plain prediction), and those devices are
+ * tried again once their estimate beats the measured one.
+ *
+ * <p>The predictions of named devices can be replaced with fixed values (e.g., from an offline
+ * profile) with {@code -Dtornado.costmodel.profile="<device name>=<seconds>;..."}.
+ */
+public class CostModelScheduler {
+
+  private static final double SMOOTHING = 0.5;
+  private static final double EXPLORATION_DECAY = 0.1;
+
+  private final DeviceCostModel costModel;
+  private final KernelFeatures features;
+  private double[] predictions;
+  private double[] corrections;
+  private boolean[] warm;
+
+  public CostModelScheduler(KernelFeatures features) {
+    this.costModel = createCostModel(TornadoOptions.COST_MODEL_CLASS);
+    this.features = features;
+  }
+
+  private static DeviceCostModel createCostModel(String className) {
+    try {
+      Class<?> klass = Class.forName(className);
+      return (DeviceCostModel) klass.getDeclaredConstructor().newInstance();
+    } catch (ClassNotFoundException
+        | ClassCastException
+        | NoSuchMethodException
+        | InstantiationException
+        | IllegalAccessException
+        | InvocationTargetException e) {
+      throw new TornadoRuntimeException(
+          "Cannot instantiate the cost model " + className + ": " + e.getMessage());
+    }
+  }
+
+  /** Returns the index of the device with the lowest predicted execution time. */
+  public int selectDevice(List<TornadoDevice> devices) {
+    if (predictions == null || predictions.length != devices.size()) {
+      predictions = new double[devices.size()];
+      corrections = new double[devices.size()];
+      warm = new boolean[devices.size()];
+      Arrays.fill(corrections, 1.0);
+      Map<String, Double> profile = parseProfile(TornadoOptions.getCostModelProfile());
+      for (int i = 0; i < devices.size(); i++) {
+        TornadoDevice device = devices.get(i);
+        Double profiled = profile.get(device.getDeviceName());
+        predictions[i] = profiled != null ? profiled : costModel.predict(features, device);
+      }
+    }
+
+    int selected = 0;
+    for (int i = 1; i < predictions.length; i++) {
+      if (predictions[i] * corrections[i] < predictions[selected] * corrections[selected]) {
+        selected = i;
+      }
+    }
+    if (TornadoOptions.DEBUG) {
+      System.out.println(
+          "[COST MODEL] "
+              + features
+              + " -> device "
+              + selected
+              + " "
+              + Arrays.toString(predictions));
+    }
+    return selected;
+  }
+
+  private static Map<String, Double> parseProfile(String profile) {
+    Map<String, Double> predictions = new HashMap<>();
+    if (profile == null || profile.isBlank()) {
+      return predictions;
+    }
+    for (String entry : profile.split(";")) {
+      int separator = entry.lastIndexOf('=');
+      if (separator <= 0) {
+        throw new TornadoRuntimeException("Invalid cost model profile entry: " + entry);
+      }
+      try {
+        predictions.put(
+            entry.substring(0, separator).trim(),
+            Double.parseDouble(entry.substring(separator + 1).trim()));
+      } catch (NumberFormatException e) {
+        throw new TornadoRuntimeException("Invalid cost model profile entry: " + entry);
+      }
+    }
+    return predictions;
+  }
+
+  /**
+   * Refines the predictions for a device with the observed end-to-end execution time, and decays
+   * the corrections of the devices that were not measured.
+   */
+  public void update(int deviceIndex, long elapsedNanos) {
+    for (int i = 0; i < corrections.length; i++) {
+      if (i != deviceIndex) {
+        corrections[i] += EXPLORATION_DECAY * (1.0 - corrections[i]);
+      }
+    }
+    if (!warm[deviceIndex]) {
+      warm[deviceIndex] = true;
+      return;
+    }
+    double ratio = elapsedNanos * 1e-9 / predictions[deviceIndex];
+    corrections[deviceIndex] = SMOOTHING * ratio + (1 - SMOOTHING) * corrections[deviceIndex];
+  }
+}
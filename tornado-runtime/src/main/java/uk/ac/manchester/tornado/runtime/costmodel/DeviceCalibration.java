@@ -0,0 +1,113 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.costmodel;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Micro-benchmarks that measure the memory bandwidth (STREAM triad) and the arithmetic throughput
+ * (chains of multiply-adds) of a device. Each benchmark is executed once to compile the kernel and
+ * copy the inputs, and then timed without data transfers.
+ */
+final class DeviceCalibration {
+
+  record Result(double bytesPerSecond, double opsPerSecond) {}
+
+  private static final int TRIAD_ELEMENTS = 4 * 1024 * 1024;
+  private static final int FMA_ELEMENTS = 1024 * 1024;
+  private static final int FMA_ITERATIONS = 256;
+  private static final int TIMED_RUNS = 3;
+
+  private DeviceCalibration() {}
+
+  public static void triad(FloatArray a, FloatArray b, FloatArray c) {
+    for (@Parallel int i = 0; i < a.getSize(); i++) {
+      a.set(i, b.get(i) + 3.0f * c.get(i));
+    }
+  }
+
+  public static void fma(FloatArray a, FloatArray b) {
+    for (@Parallel int i = 0; i < a.getSize(); i++) {
+      float x = a.get(i);
+      for (int j = 0; j < FMA_ITERATIONS; j++) {
+        x = x * 0.999f + 0.001f;
+      }
+      b.set(i, x);
+    }
+  }
+
+  static Result run(TornadoDevice device) {
+    FloatArray a = new FloatArray(TRIAD_ELEMENTS);
+    FloatArray b = new FloatArray(TRIAD_ELEMENTS);
+    FloatArray c = new FloatArray(TRIAD_ELEMENTS);
+    b.init(1.0f);
+    c.init(2.0f);
+    TaskGraph triadGraph =
+        new TaskGraph("__costmodelTriad") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, b, c) //
+            .task("triad", DeviceCalibration::triad, a, b, c) //
+            .transferToHost(DataTransferMode.UNDER_DEMAND, a);
+    double triadSeconds = time(triadGraph.snapshot(), device);
+    double bytesPerSecond = 3.0 * TRIAD_ELEMENTS * Float.BYTES / triadSeconds;
+
+    FloatArray x = new FloatArray(FMA_ELEMENTS);
+    FloatArray y = new FloatArray(FMA_ELEMENTS);
+    x.init(1.0f);
+    TaskGraph fmaGraph =
+        new TaskGraph("__costmodelFma") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, x) //
+            .task("fma", DeviceCalibration::fma, x, y) //
+            .transferToHost(DataTransferMode.UNDER_DEMAND, y);
+    double fmaSeconds = time(fmaGraph.snapshot(), device);
+    double opsPerSecond = 2.0 * FMA_ELEMENTS * FMA_ITERATIONS / fmaSeconds;
+
+    if (TornadoOptions.DEBUG) {
+      System.out.printf(
+          "[COST MODEL] Calibrated %s: %.2f GB/s, %.2f GOPS%n",
+          device.getDeviceName(), bytesPerSecond / 1e9, opsPerSecond / 1e9);
+    }
+    return new Result(bytesPerSecond, opsPerSecond);
+  }
+
+  private static double time(ImmutableTaskGraph immutableTaskGraph, TornadoDevice device) {
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.withDevice(device).execute();
+      long start = System.nanoTime();
+      for (int i = 0; i < TIMED_RUNS; i++) {
+        executionPlan.execute();
+      }
+      return (System.nanoTime() - start) * 1e-9 / TIMED_RUNS;
+    } catch (TornadoExecutionPlanException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
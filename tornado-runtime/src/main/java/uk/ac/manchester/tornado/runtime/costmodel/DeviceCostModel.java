@@ -0,0 +1,42 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.costmodel;
+
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+
+/**
+ * Predicts the execution time of a task-graph on a device without running it. It is used by the
+ * {@link uk.ac.manchester.tornado.api.Policy#COST_MODEL} policy to select a device before the
+ * first execution. A custom implementation can be selected with {@code
+ * -Dtornado.costmodel.class=<class name>}; it must provide a public constructor with no
+ * parameters.
+ */
+public interface DeviceCostModel {
+
+  /**
+   * Predicts the end-to-end execution time, in seconds, of the given work on a device, including
+   * the data transfers.
+   */
+  double predict(KernelFeatures features, TornadoDevice device);
+}
@@ -0,0 +1,201 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.costmodel;
+
+import java.lang.reflect.Array;
+import java.util.LinkedHashMap;
+import jdk.vm.ci.meta.JavaKind;
+import org.graalvm.compiler.graph.Graph;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.calc.BinaryArithmeticNode;
+import org.graalvm.compiler.nodes.calc.IntegerDivRemNode;
+import org.graalvm.compiler.nodes.calc.ShiftNode;
+import org.graalvm.compiler.nodes.calc.UnaryArithmeticNode;
+import org.graalvm.compiler.nodes.extended.JavaReadNode;
+import org.graalvm.compiler.nodes.extended.JavaWriteNode;
+import org.graalvm.compiler.nodes.extended.RawLoadNode;
+import org.graalvm.compiler.nodes.extended.RawStoreNode;
+import org.graalvm.compiler.nodes.java.LoadIndexedNode;
+import org.graalvm.compiler.nodes.java.StoreIndexedNode;
+import org.graalvm.compiler.nodes.memory.FloatingReadNode;
+import org.graalvm.compiler.nodes.memory.ReadNode;
+import org.graalvm.compiler.nodes.memory.WriteNode;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelRangeNode;
+import uk.ac.manchester.tornado.runtime.graal.nodes.interfaces.MarkFloatingPointIntrinsicsNode;
+import uk.ac.manchester.tornado.runtime.graal.nodes.interfaces.MarkIntIntrinsicNode;
+import uk.ac.manchester.tornado.runtime.profiler.FeatureExtractionUtilities;
+import uk.ac.manchester.tornado.runtime.profiler.ProfilerCodeFeatures;
+
+/**
+ * Extracts {@link KernelFeatures} from the sketch of a task. Unlike {@code
+ * TornadoFeatureExtraction}, which runs in the low tier of the backend compilers, the sketch graph
+ * is available for every device before any code is compiled, so the features can be used to
+ * select a device ahead of the first execution.
+ *
+ * <p>The per-iteration counts of the IR are scaled by the size of the largest array parameter.
+ * When the kernel contains sequential loops nested in the parallel ones, their trip count is
+ * approximated as the n-th root of the input size, where n is the number of parallel dimensions
+ * (e.g., the inner loop of a 2D matrix multiplication).
+ */
+public final class KernelFeatureExtractor {
+
+  private static final int DEFAULT_ELEMENT_SIZE = 4;
+
+  private KernelFeatureExtractor() {}
+
+  public static LinkedHashMap<ProfilerCodeFeatures, Integer> extractCodeFeatures(Graph graph) {
+    LinkedHashMap<ProfilerCodeFeatures, Integer> features =
+        FeatureExtractionUtilities.initializeFeatureMap();
+    for (Node node : graph.getNodes()) {
+      if (node instanceof BinaryArithmeticNode<?>
+          || node instanceof ShiftNode<?>
+          || node instanceof IntegerDivRemNode) {
+        updateWithType(features, (ValueNode) node);
+      } else if (node instanceof UnaryArithmeticNode<?>
+          || node instanceof MarkFloatingPointIntrinsicsNode) {
+        increment(features, ProfilerCodeFeatures.F_MATH);
+      } else if (node instanceof MarkIntIntrinsicNode) {
+        increment(features, ProfilerCodeFeatures.I_MATH);
+      } else if (node instanceof LoadIndexedNode
+          || node instanceof JavaReadNode
+          || node instanceof RawLoadNode
+          || node instanceof ReadNode
+          || node instanceof FloatingReadNode) {
+        increment(features, ProfilerCodeFeatures.GLOBAL_LOADS);
+      } else if (node instanceof StoreIndexedNode
+          || node instanceof JavaWriteNode
+          || node instanceof RawStoreNode
+          || node instanceof WriteNode) {
+        increment(features, ProfilerCodeFeatures.GLOBAL_STORES);
+      } else if (node instanceof LoopBeginNode) {
+        increment(features, ProfilerCodeFeatures.LOOPS);
+      } else if (node instanceof ParallelRangeNode) {
+        increment(features, ProfilerCodeFeatures.PARALLEL_LOOPS);
+      } else if (node instanceof IfNode) {
+        increment(features, ProfilerCodeFeatures.IFS);
+      }
+    }
+    return features;
+  }
+
+  public static KernelFeatures extract(Graph graph, Object[] arguments) {
+    return scale(extractCodeFeatures(graph), arguments, false);
+  }
+
+  /**
+   * Estimates the features of a task without IR (e.g., a pre-built kernel) as one parallel
+   * iteration per element of the largest parameter.
+   */
+  public static KernelFeatures extract(Object[] arguments) {
+    return scale(FeatureExtractionUtilities.initializeFeatureMap(), arguments, true);
+  }
+
+  private static KernelFeatures scale(
+      LinkedHashMap<ProfilerCodeFeatures, Integer> codeFeatures,
+      Object[] arguments,
+      boolean parallel) {
+    long maxElements = 1;
+    long dataBytes = 0;
+    long elementBytes = 0;
+    int numArrays = 0;
+    for (Object argument : arguments) {
+      if (argument instanceof TornadoNativeArray nativeArray) {
+        maxElements = Math.max(maxElements, nativeArray.getSize());
+        dataBytes += nativeArray.getNumBytesOfSegment();
+        elementBytes += nativeArray.getElementSize();
+        numArrays++;
+      } else if (argument != null && argument.getClass().isArray()) {
+        int length = Array.getLength(argument);
+        int elementSize = elementSizeOf(argument.getClass().getComponentType());
+        maxElements = Math.max(maxElements, length);
+        dataBytes += (long) length * elementSize;
+        elementBytes += elementSize;
+        numArrays++;
+      }
+    }
+    long bytesPerAccess = numArrays == 0 ? DEFAULT_ELEMENT_SIZE : elementBytes / numArrays;
+
+    int parallelLoops = codeFeatures.get(ProfilerCodeFeatures.PARALLEL_LOOPS);
+    int sequentialLoops = codeFeatures.get(ProfilerCodeFeatures.LOOPS) - parallelLoops;
+    long tripCount = 1;
+    if (sequentialLoops > 0) {
+      tripCount = Math.max(1, Math.round(Math.pow(maxElements, 1.0 / Math.max(1, parallelLoops))));
+    }
+    long iterations = maxElements * tripCount;
+
+    long opsPerIteration =
+        codeFeatures.get(ProfilerCodeFeatures.INTEGER_OPS)
+            + codeFeatures.get(ProfilerCodeFeatures.FLOAT_OPS)
+            + codeFeatures.get(ProfilerCodeFeatures.F_MATH)
+            + codeFeatures.get(ProfilerCodeFeatures.I_MATH);
+    long accessesPerIteration =
+        codeFeatures.get(ProfilerCodeFeatures.GLOBAL_LOADS)
+            + codeFeatures.get(ProfilerCodeFeatures.GLOBAL_STORES);
+    if (accessesPerIteration == 0) {
+      accessesPerIteration = numArrays;
+    }
+
+    long accesses = accessesPerIteration * iterations;
+    return new KernelFeatures(
+        Math.max(1, opsPerIteration) * iterations,
+        accesses,
+        accesses * bytesPerAccess,
+        parallel || parallelLoops > 0 ? maxElements : 1,
+        dataBytes);
+  }
+
+  private static void updateWithType(
+      LinkedHashMap<ProfilerCodeFeatures, Integer> features, ValueNode node) {
+    JavaKind kind = node.getStackKind();
+    if (kind == JavaKind.Float) {
+      increment(features, ProfilerCodeFeatures.FLOAT_OPS);
+      increment(features, ProfilerCodeFeatures.FP32);
+    } else if (kind == JavaKind.Double) {
+      increment(features, ProfilerCodeFeatures.FLOAT_OPS);
+      increment(features, ProfilerCodeFeatures.DOUBLES);
+    } else {
+      increment(features, ProfilerCodeFeatures.INTEGER_OPS);
+    }
+  }
+
+  private static void increment(
+      LinkedHashMap<ProfilerCodeFeatures, Integer> features, ProfilerCodeFeatures feature) {
+    features.put(feature, features.get(feature) + 1);
+  }
+
+  private static int elementSizeOf(Class<?> componentType) {
+    if (componentType == byte.class || componentType == boolean.class) {
+      return 1;
+    } else if (componentType == short.class || componentType == char.class) {
+      return 2;
+    } else if (componentType == long.class || componentType == double.class) {
+      return 8;
+    }
+    return DEFAULT_ELEMENT_SIZE;
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.costmodel;
+
+/**
+ * Device-independent description of the work performed by a task-graph, as seen by a {@link
+ * DeviceCostModel}. Operation and memory-access counts are the totals for the whole execution,
+ * obtained by scaling the per-iteration counts of the kernel IR by the input sizes.
+ */
+public final class KernelFeatures {
+
+  private final long computeOps;
+  private final long memoryAccesses;
+  private final long memoryBytes;
+  private final long parallelism;
+  private final long dataBytes;
+
+  public KernelFeatures(
+      long computeOps, long memoryAccesses, long memoryBytes, long parallelism, long dataBytes) {
+    this.computeOps = computeOps;
+    this.memoryAccesses = memoryAccesses;
+    this.memoryBytes = memoryBytes;
+    this.parallelism = parallelism;
+    this.dataBytes = dataBytes;
+  }
+
+  /** Returns the features of running {@code this} and then {@code other} on the same device. */
+  public KernelFeatures merge(KernelFeatures other) {
+    return new KernelFeatures(
+        computeOps + other.computeOps,
+        memoryAccesses + other.memoryAccesses,
+        memoryBytes + other.memoryBytes,
+        Math.max(parallelism, other.parallelism),
+        dataBytes + other.dataBytes);
+  }
+
+  /** Total number of arithmetic operations (integer, floating-point and math intrinsics). */
+  public long getComputeOps() {
+    return computeOps;
+  }
+
+  /** Total number of loads and stores to global memory. */
+  public long getMemoryAccesses() {
+    return memoryAccesses;
+  }
+
+  /** Total number of bytes loaded from or stored to global memory by the kernels. */
+  public long getMemoryBytes() {
+    return memoryBytes;
+  }
+
+  /** Number of independent iterations that can run in parallel ({@code 1} for serial code). */
+  public long getParallelism() {
+    return parallelism;
+  }
+
+  /** Number of bytes of the task-graph parameters that are copied between host and device. */
+  public long getDataBytes() {
+    return dataBytes;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "ops=%d, accesses=%d, memoryBytes=%d, parallelism=%d, dataBytes=%d",
+        computeOps, memoryAccesses, memoryBytes, parallelism, dataBytes);
+  }
+}
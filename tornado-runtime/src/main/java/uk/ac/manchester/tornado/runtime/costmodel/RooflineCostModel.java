@@ -0,0 +1,115 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.costmodel;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import uk.ac.manchester.tornado.api.TornadoTargetDevice;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.enums.TornadoDeviceType;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Default {@link DeviceCostModel}. It follows a roofline model: the kernel time is the maximum of
+ * the compute time (operations divided by the peak throughput of the device) and the memory time
+ * (bytes accessed divided by the memory bandwidth), plus the launch overhead and the time to copy
+ * the parameters to and from the device.
+ *
+ * <p>The peak throughput is derived from the number of compute units and the maximum clock
+ * frequency reported by the {@link TornadoTargetDevice}, and is limited by the parallelism of the
+ * kernel. Since the drivers do not expose the memory bandwidth, a typical value for the type of
+ * device is used, unless the device is calibrated with micro-benchmarks ({@code
+ * -Dtornado.costmodel.calibrate=True}).
+ */
+public class RooflineCostModel implements DeviceCostModel {
+
+  private static final double GIGA = 1e9;
+  private static final double MHZ = 1e6;
+  private static final double DEFAULT_CLOCK_HZ = 1.0 * GIGA;
+
+  private static final Map<String, DeviceCalibration.Result> calibrations =
+      new ConcurrentHashMap<>();
+
+  @Override
+  public double predict(KernelFeatures features, TornadoDevice device) {
+    TornadoDeviceType type = device.getDeviceType();
+    double opsPerSecond = peakOpsPerSecond(device, features.getParallelism());
+    double memoryBandwidth = memoryBandwidth(type);
+    if (TornadoOptions.COST_MODEL_CALIBRATION) {
+      DeviceCalibration.Result result =
+          calibrations.computeIfAbsent(
+              calibrationKey(device), key -> DeviceCalibration.run(device));
+      // Measured throughputs use all lanes of the device, scale them to the kernel parallelism
+      opsPerSecond =
+          result.opsPerSecond() * opsPerSecond / peakOpsPerSecond(device, Long.MAX_VALUE);
+      memoryBandwidth = result.bytesPerSecond();
+    }
+
+    double computeTime = features.getComputeOps() / opsPerSecond;
+    double memoryTime = features.getMemoryBytes() / memoryBandwidth;
+    double transferTime = features.getDataBytes() / transferBandwidth(type);
+    return Math.max(computeTime, memoryTime) + launchOverhead(type) + transferTime;
+  }
+
+  private static String calibrationKey(TornadoDevice device) {
+    return device.getBackendIndex() + ":" + device.getDeviceName();
+  }
+
+  private static double peakOpsPerSecond(TornadoDevice device, long parallelism) {
+    TornadoTargetDevice physicalDevice = device.getPhysicalDevice();
+    long lanes =
+        (long) Math.max(1, physicalDevice.getDeviceMaxComputeUnits())
+            * lanesPerComputeUnit(device.getDeviceType());
+    int frequency = physicalDevice.getDeviceMaxClockFrequency();
+    double clock = frequency > 0 ? frequency * MHZ : DEFAULT_CLOCK_HZ;
+    return Math.min(lanes, Math.max(1, parallelism)) * clock;
+  }
+
+  /** Number of arithmetic lanes per compute unit (SIMD width for CPUs, cores per SM for GPUs). */
+  private static int lanesPerComputeUnit(TornadoDeviceType type) {
+    return switch (type) {
+      case GPU -> 64;
+      case FPGA, ACCELERATOR -> 16;
+      default -> 8;
+    };
+  }
+
+  /** Typical bandwidth, in bytes per second, of the global memory of the device. */
+  private static double memoryBandwidth(TornadoDeviceType type) {
+    return switch (type) {
+      case GPU -> 300 * GIGA;
+      case ACCELERATOR -> 100 * GIGA;
+      default -> 20 * GIGA;
+    };
+  }
+
+  /** Bandwidth of the host-to-device copies: PCIe for discrete devices, memcpy for the CPU. */
+  private static double transferBandwidth(TornadoDeviceType type) {
+    return type == TornadoDeviceType.CPU ? 10 * GIGA : 12 * GIGA;
+  }
+
+  private static double launchOverhead(TornadoDeviceType type) {
+    return type == TornadoDeviceType.CPU ? 5e-6 : 20e-6;
+  }
+}
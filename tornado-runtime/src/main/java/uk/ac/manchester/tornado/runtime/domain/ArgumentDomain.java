@@ -0,0 +1,107 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.domain;
+
+import java.lang.reflect.Array;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+
+/**
+ * Integer domain whose upper bound is not known at compile time, but it is taken from one of the
+ * task arguments at launch time. It is used by shape-polymorphic kernels, in which the loop bounds
+ * are passed as kernel arguments instead of being folded as constants.
+ */
+public class ArgumentDomain implements Domain {
+
+  /** Describes how the upper bound is obtained from the task argument. */
+  public enum BoundKind {
+    /** The number of elements of a {@link TornadoNativeArray}. */
+    NATIVE_ARRAY_SIZE,
+    /** The length of a Java array. */
+    ARRAY_LENGTH,
+    /** The value of a scalar (boxed primitive) argument. */
+    SCALAR_VALUE
+  }
+
+  private final int offset;
+  private final int step;
+  private final int argumentIndex;
+  private final BoundKind kind;
+
+  public ArgumentDomain(int offset, int step, int argumentIndex, BoundKind kind) {
+    this.offset = offset;
+    this.step = step;
+    this.argumentIndex = argumentIndex;
+    this.kind = kind;
+  }
+
+  /**
+   * Computes the upper bound of the domain for the given task arguments.
+   *
+   * @param args Task arguments.
+   * @return int with the upper bound.
+   */
+  public int resolveLength(Object[] args) {
+    Object argument = args[argumentIndex];
+    return switch (kind) {
+      case NATIVE_ARRAY_SIZE -> ((TornadoNativeArray) argument).getSize();
+      case ARRAY_LENGTH -> Array.getLength(argument);
+      case SCALAR_VALUE -> ((Number) argument).intValue();
+    };
+  }
+
+  /**
+   * Creates a concrete {@link IntDomain} for the given task arguments.
+   *
+   * @param args Task arguments.
+   * @return {@link IntDomain}
+   */
+  public IntDomain resolve(Object[] args) {
+    return new IntDomain(offset, step, resolveLength(args));
+  }
+
+  public int getArgumentIndex() {
+    return argumentIndex;
+  }
+
+  public BoundKind getKind() {
+    return kind;
+  }
+
+  @Override
+  public int cardinality() {
+    throw new IllegalStateException("The domain must be resolved with the task arguments");
+  }
+
+  @Override
+  public int map(int index) {
+    return (index * step) + offset;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "ArgumentDomain: {offset=%d, step=%d, bound=%s(arg %d)}",
+        offset, step, kind, argumentIndex);
+  }
+}
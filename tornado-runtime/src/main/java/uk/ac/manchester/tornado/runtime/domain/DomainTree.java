@@ -43,6 +43,40 @@ public class DomainTree {
     return domains.length;
   }
 
+  /**
+   * Checks if any of the domains depends on the task arguments (e.g., loop bounds of
+   * shape-polymorphic kernels).
+   *
+   * @return boolean
+   */
+  public boolean isArgumentDependent() {
+    for (Domain domain : domains) {
+      if (domain instanceof ArgumentDomain) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Creates a new {@link DomainTree} in which all argument-dependent domains are resolved using the
+   * given task arguments.
+   *
+   * @param args Task arguments.
+   * @return {@link DomainTree}
+   */
+  public DomainTree resolve(Object[] args) {
+    DomainTree resolved = new DomainTree(domains.length);
+    for (int i = 0; i < domains.length; i++) {
+      if (domains[i] instanceof ArgumentDomain argumentDomain) {
+        resolved.set(i, argumentDomain.resolve(args));
+      } else {
+        resolved.set(i, domains[i]);
+      }
+    }
+    return resolved;
+  }
+
   @Override
   public String toString() {
     final StringBuilder sb = new StringBuilder();
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.graal.nodes;
+
+import jdk.vm.ci.meta.JavaKind;
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.memory.SingleMemoryKill;
+import org.graalvm.compiler.nodes.spi.Lowerable;
+import org.graalvm.compiler.nodes.spi.LoweringTool;
+import org.graalvm.word.LocationIdentity;
+
+/**
+ * Takes a ticket from the counter that single-pass reductions keep in an element of the output
+ * array. The first 32 bits of the element are atomically incremented, whatever the type of the
+ * array, and the node returns the value before the increment.
+ *
+ * <p>The work-group that obtains the last ticket knows that the partial results of all the other
+ * work-groups have been written. The node is replaced with the atomic increment of each backend in
+ * OCLLoweringProvider and PTXLoweringProvider.
+ */
+@NodeInfo(shortName = "ReductionTicket")
+public class ReductionTicketNode extends FixedWithNextNode implements Lowerable, SingleMemoryKill {
+
+  public static final NodeClass<ReductionTicketNode> TYPE =
+      NodeClass.create(ReductionTicketNode.class);
+
+  @Input ValueNode array;
+  @Input ValueNode index;
+
+  private final JavaKind elementKind;
+
+  public ReductionTicketNode(ValueNode array, ValueNode index, JavaKind elementKind) {
+    super(TYPE, StampFactory.forKind(JavaKind.Int));
+    this.array = array;
+    this.index = index;
+    this.elementKind = elementKind;
+  }
+
+  public ValueNode array() {
+    return array;
+  }
+
+  public ValueNode index() {
+    return index;
+  }
+
+  public JavaKind elementKind() {
+    return elementKind;
+  }
+
+  @Override
+  public LocationIdentity getKilledLocationIdentity() {
+    return LocationIdentity.any();
+  }
+
+  @Override
+  public void lower(LoweringTool loweringTool) {
+    loweringTool.getLowerer().lower(this, loweringTool);
+  }
+}
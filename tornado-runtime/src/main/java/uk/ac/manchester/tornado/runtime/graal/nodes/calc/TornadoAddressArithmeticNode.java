@@ -53,6 +53,10 @@ public class TornadoAddressArithmeticNode extends FloatingNode implements LIRLow
     return base;
   }
 
+  public ValueNode getOffset() {
+    return offset;
+  }
+
   @Override
   public void generate(NodeLIRBuilderTool gen) {
     LIRGeneratorTool tool = gen.getLIRGeneratorTool();
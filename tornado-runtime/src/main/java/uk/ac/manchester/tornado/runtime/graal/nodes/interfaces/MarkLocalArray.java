@@ -27,4 +27,13 @@ package uk.ac.manchester.tornado.runtime.graal.nodes.interfaces;
  * This interface is used for accessing the local array node type outside the scope of opencl-driver
  * package.
  */
-public interface MarkLocalArray {}
+public interface MarkLocalArray {
+
+  /**
+   * Returns true if the length of the array has been set by the compiler and must not be resized
+   * by the local memory allocation phase.
+   */
+  default boolean hasFixedLength() {
+    return false;
+  }
+}
@@ -29,13 +29,28 @@ import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
 public class TornadoLowTierContext extends LowTierContext {
 
   protected final TaskDataContext meta;
+  protected final Object[] args;
 
   public TornadoLowTierContext(Providers copyFrom, TargetProvider target, TaskDataContext meta) {
+    this(copyFrom, target, meta, null);
+  }
+
+  public TornadoLowTierContext(
+      Providers copyFrom, TargetProvider target, TaskDataContext meta, Object[] args) {
     super(copyFrom, target);
     this.meta = meta;
+    this.args = args;
   }
 
   public TaskDataContext getMeta() {
     return meta;
   }
+
+  public Object[] getArgs() {
+    return args;
+  }
+
+  public boolean hasArgs() {
+    return args != null;
+  }
 }
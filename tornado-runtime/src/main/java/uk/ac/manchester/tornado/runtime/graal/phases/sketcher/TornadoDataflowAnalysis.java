@@ -60,6 +60,7 @@ import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
 import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelRangeNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelStrideNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.StoreAtomicIndexedNode;
+import uk.ac.manchester.tornado.runtime.graal.nodes.interfaces.MarkAtomicArrayAccess;
 import uk.ac.manchester.tornado.runtime.graal.nodes.interfaces.MarkVectorStore;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoSketchTierContext;
 
@@ -237,7 +238,8 @@ public class TornadoDataflowAnalysis extends BasePhase<TornadoSketchTierContext>
         isReadField = true;
       } else if (currentNode instanceof MarkVectorStore) {
         isWritten = true;
-      } else if (isNodeFromKnownObject(currentNode)) {
+      } else if (isNodeFromKnownObject(currentNode)
+          || currentNode instanceof MarkAtomicArrayAccess) {
         // All known objects are passed by reference -> R/W (e.g., Atomics)
         isRead = true;
         isWritten = true;
@@ -38,6 +38,7 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.SchedulingPolicy;
 import uk.ac.manchester.tornado.api.TornadoDeviceContext;
 import uk.ac.manchester.tornado.api.common.Access;
 import uk.ac.manchester.tornado.api.common.Event;
@@ -87,8 +88,11 @@ public class TornadoExecutionContext {
   private boolean isDataDependencyDetected;
   private TornadoProfiler profiler;
   private boolean isPrintKernel;
+  private boolean isProfilerSampled;
 
   private long executionPlanId; // This is set at runtime. Thus, no need to clone this value.
+  private long tenantId;
+  private SchedulingPolicy schedulingPolicy;
   private long currentDeviceMemoryUsage;
 
   public TornadoExecutionContext(String id) {
@@ -109,6 +113,7 @@ public class TornadoExecutionContext {
     lastDevices = new HashSet<>();
     currentDeviceMemoryUsage = 0;
     this.profiler = null;
+    this.isProfilerSampled = true;
     this.isDataDependencyDetected = isDataDependencyInTaskGraph();
   }
 
@@ -157,6 +162,13 @@ public class TornadoExecutionContext {
   }
 
   public boolean doesExceedExecutionPlanLimit() {
+    return getDataSize() > getExecutionPlanMemoryLimit();
+  }
+
+  /**
+   * @return the size in bytes of the objects and constants of the task-graph.
+   */
+  public long getDataSize() {
     long totalSize = 0;
 
     for (Object parameter : getObjects()) {
@@ -199,7 +211,7 @@ public class TornadoExecutionContext {
         totalSize += dataTypeSize.getSize();
       }
     }
-    return totalSize > getExecutionPlanMemoryLimit();
+    return totalSize;
   }
 
   public int replaceVariable(Object oldObj, Object newObj) {
@@ -526,7 +538,7 @@ public class TornadoExecutionContext {
         final LocalObjectState localState = objectState.get(i);
         Event event = localState.sync(executionPlanId, object, meta().getXPUDevice());
 
-        if (TornadoOptions.isProfilerEnabled() && event != null) {
+        if (isProfilerEnabled() && event != null) {
           long value = profiler.getTimer(ProfilerType.COPY_OUT_TIME_SYNC);
           value += event.getElapsedTime();
           profiler.setTimer(ProfilerType.COPY_OUT_TIME_SYNC, value);
@@ -628,6 +640,7 @@ public class TornadoExecutionContext {
     newExecutionContext.lastDevices = new HashSet<>(lastDevices);
 
     newExecutionContext.isPrintKernel = this.isPrintKernel;
+    newExecutionContext.isProfilerSampled = this.isProfilerSampled;
 
     newExecutionContext.profiler = this.profiler;
     newExecutionContext.nextTask = this.nextTask;
@@ -636,10 +649,48 @@ public class TornadoExecutionContext {
     return newExecutionContext;
   }
 
+  /**
+   * Sets how the interpreters of the task-graph share their devices with other execution plans.
+   * Like the execution identifier, it is set at runtime.
+   *
+   * @param tenantId identifier of the execution plan that runs the task-graph.
+   * @param schedulingPolicy {@link SchedulingPolicy}, or null if the task-graph is not scheduled.
+   */
+  public void setScheduling(long tenantId, SchedulingPolicy schedulingPolicy) {
+    this.tenantId = tenantId;
+    this.schedulingPolicy = schedulingPolicy;
+  }
+
+  public long getTenantId() {
+    return tenantId;
+  }
+
+  public SchedulingPolicy getSchedulingPolicy() {
+    return schedulingPolicy;
+  }
+
   public long getExecutionPlanId() {
     return this.executionPlanId;
   }
 
+  /**
+   * Sets whether the profiler records the current execution. Like the execution identifier, it is
+   * set at runtime from the frame of the execution plan.
+   *
+   * @param sampled true if the execution is profiled.
+   */
+  public void setProfilerSampled(boolean sampled) {
+    this.isProfilerSampled = sampled;
+  }
+
+  /**
+   * @return true if the profiler is enabled and the current execution of the task-graph is
+   *     sampled.
+   */
+  public boolean isProfilerEnabled() {
+    return isProfilerSampled && TornadoOptions.isProfilerEnabled();
+  }
+
   public void setExecutionPlanId(long executionPlanId) {
     this.executionPlanId = executionPlanId;
   }
@@ -0,0 +1,360 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.interpreter;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import uk.ac.manchester.tornado.api.SchedulingMetrics;
+import uk.ac.manchester.tornado.api.SchedulingPolicy;
+import uk.ac.manchester.tornado.api.exceptions.TornadoMemoryException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+
+/**
+ * Scheduler of the launches and data transfers that the interpreters of different execution plans
+ * dispatch to the same device. There is one scheduler per device context, and each command queue
+ * of a plan (one per execution identifier) is a separate stream in the scheduler.
+ *
+ * <p>A command is dispatched immediately while the device has fewer than {@link
+ * TornadoOptions#DEVICE_SCHEDULER_MAX_IN_FLIGHT} commands in flight. Otherwise it waits, and the
+ * waiting commands are granted by priority class and then by virtual finish time (weighted fair
+ * queuing). A stream that has to wait first drains its own commands in flight, so a stream never
+ * waits for the device while holding part of it. The commands in flight of a stream are retired
+ * when the interpreter synchronises with its queue: at the end of each execution, or when the
+ * stream reaches the limit of its {@link SchedulingPolicy}.
+ *
+ * <p>Each execution reserves the data of its task-graph in the device memory. The reservation is
+ * kept until the device memory of the task-graph is freed, and an execution that does not fit in
+ * the memory left by the other task-graphs waits for it up to the admission timeout of its policy.
+ */
+public final class DeviceScheduler {
+
+  private static final Map<Object, DeviceScheduler> SCHEDULERS = new ConcurrentHashMap<>();
+
+  /** Number of transferred bytes that cost as much as a launch. */
+  private static final long BYTES_PER_COST_UNIT = 1024 * 1024;
+
+  private static final Comparator<Request> GRANT_ORDER =
+      Comparator.<Request>comparingInt(request -> request.priority)
+          .thenComparingDouble(request -> request.finishTag)
+          .thenComparingLong(request -> request.sequence);
+
+  private final long memoryCapacity;
+  private final int maxInFlight;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition changed = lock.newCondition();
+  private final PriorityQueue<Request> waiting = new PriorityQueue<>(GRANT_ORDER);
+  private final Map<Long, Stream> streams = new HashMap<>();
+  private final Map<Object, Reservation> reservations = new HashMap<>();
+
+  private int inFlight;
+  private long reservedMemory;
+  private double virtualTime;
+  private long sequence;
+
+  private DeviceScheduler(long memoryCapacity, int maxInFlight) {
+    this.memoryCapacity = memoryCapacity > 0 ? memoryCapacity : Long.MAX_VALUE;
+    this.maxInFlight = Math.max(1, maxInFlight);
+  }
+
+  /**
+   * @param device {@link TornadoXPUDevice}
+   * @return the scheduler shared by all execution plans that run on the device.
+   */
+  public static DeviceScheduler of(TornadoXPUDevice device) {
+    return SCHEDULERS.computeIfAbsent(
+        device.getDeviceContext(),
+        context ->
+            new DeviceScheduler(
+                device.getMaxGlobalMemory(), TornadoOptions.DEVICE_SCHEDULER_MAX_IN_FLIGHT));
+  }
+
+  /**
+   * @param tenantId identifier of the execution plan.
+   * @return the metrics of all streams of the plan, added over all devices.
+   */
+  public static SchedulingMetrics getMetrics(long tenantId) {
+    SchedulingMetrics metrics = SchedulingMetrics.EMPTY;
+    for (DeviceScheduler scheduler : SCHEDULERS.values()) {
+      metrics = metrics.add(scheduler.metricsOf(tenantId));
+    }
+    return metrics;
+  }
+
+  /**
+   * Releases the device memory reserved by a task-graph on all devices.
+   *
+   * @param owner object that made the reservations (the execution context of the task-graph).
+   */
+  public static void releaseAll(Object owner) {
+    SCHEDULERS.values().forEach(scheduler -> scheduler.release(owner));
+  }
+
+  /**
+   * @param bytes size of a data transfer.
+   * @return the cost of the transfer, in units of the cost of a launch.
+   */
+  static long transferCost(long bytes) {
+    return 1 + Math.max(0, bytes - 1) / BYTES_PER_COST_UNIT;
+  }
+
+  /**
+   * Reserves device memory for the data of a task-graph. A reservation that already covers the
+   * data returns immediately.
+   *
+   * @throws TornadoMemoryException if the memory is not released within the admission timeout.
+   */
+  void admit(
+      long executionPlanId, long tenantId, SchedulingPolicy policy, Object owner, long bytes) {
+    lock.lock();
+    try {
+      Stream stream = stream(executionPlanId, tenantId);
+      Reservation reservation =
+          reservations.computeIfAbsent(owner, key -> new Reservation(executionPlanId));
+      if (bytes <= reservation.bytes) {
+        return;
+      }
+      if (bytes > memoryCapacity) {
+        throw new TornadoMemoryException(
+            "[ERROR] The data of the execution plan ("
+                + bytes
+                + " bytes) exceeds the device memory ("
+                + memoryCapacity
+                + " bytes)");
+      }
+      final long start = System.nanoTime();
+      long remaining = policy.getAdmissionTimeout().toNanos();
+      while (reservedMemory - reservation.bytes + bytes > memoryCapacity) {
+        if (remaining <= 0) {
+          throw new TornadoMemoryException(
+              "[ERROR] Execution plan not admitted: "
+                  + bytes
+                  + " bytes requested, "
+                  + (memoryCapacity - reservedMemory + reservation.bytes)
+                  + " bytes available on the device");
+        }
+        remaining = changed.awaitNanos(remaining);
+      }
+      reservedMemory += bytes - reservation.bytes;
+      reservation.bytes = bytes;
+      stream.admissionDelay += System.nanoTime() - start;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TornadoRuntimeException(e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Waits until a command of a stream can be dispatched to the device and counts it in flight.
+   *
+   * @param cost cost of the command, in units of the cost of a launch.
+   * @param drain synchronises the command queue of the stream. It is called without holding the
+   *     lock of the scheduler.
+   */
+  void acquire(
+      long executionPlanId, long tenantId, SchedulingPolicy policy, long cost, Runnable drain) {
+    lock.lock();
+    try {
+      Stream stream = stream(executionPlanId, tenantId);
+      final int limit = policy.getMaxInFlight();
+      boolean mustDrain = limit > 0 && stream.inFlight >= limit;
+      if (stream.inFlight > 0 && (mustDrain || !canDispatchNow())) {
+        lock.unlock();
+        try {
+          drain.run();
+        } finally {
+          lock.lock();
+        }
+        stream.drains++;
+        retire(stream);
+      }
+
+      final double startTag = Math.max(virtualTime, stream.lastFinishTag);
+      final double finishTag = startTag + (double) cost / policy.getWeight();
+      stream.lastFinishTag = finishTag;
+
+      if (!canDispatchNow()) {
+        Request request =
+            new Request(policy.getPriorityClass().ordinal(), finishTag, sequence++);
+        waiting.add(request);
+        final long start = System.nanoTime();
+        while (waiting.peek() != request || inFlight >= maxInFlight) {
+          changed.awaitUninterruptibly();
+        }
+        waiting.poll();
+        final long delay = System.nanoTime() - start;
+        stream.queuedDispatches++;
+        stream.queueingDelay += delay;
+        stream.maxQueueingDelay = Math.max(stream.maxQueueingDelay, delay);
+        // The next request in the queue may also fit
+        changed.signalAll();
+      }
+
+      virtualTime = Math.max(virtualTime, startTag);
+      inFlight++;
+      stream.inFlight++;
+      stream.dispatches++;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Ends an execution of a stream. The command queue is drained if the stream has commands in
+   * flight, so they can be retired.
+   */
+  void complete(long executionPlanId, Runnable drain) {
+    lock.lock();
+    try {
+      Stream stream = streams.get(executionPlanId);
+      if (stream == null || stream.inFlight == 0) {
+        return;
+      }
+    } finally {
+      lock.unlock();
+    }
+    drain.run();
+    abandon(executionPlanId);
+  }
+
+  /**
+   * Retires the commands in flight of a stream without synchronising with its queue. It is used
+   * when an execution fails, so the commands never block the other streams.
+   */
+  void abandon(long executionPlanId) {
+    lock.lock();
+    try {
+      Stream stream = streams.get(executionPlanId);
+      if (stream != null) {
+        retire(stream);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean canDispatchNow() {
+    return waiting.isEmpty() && inFlight < maxInFlight;
+  }
+
+  private void retire(Stream stream) {
+    inFlight -= stream.inFlight;
+    stream.inFlight = 0;
+    changed.signalAll();
+  }
+
+  private Stream stream(long executionPlanId, long tenantId) {
+    return streams.computeIfAbsent(executionPlanId, key -> new Stream(tenantId));
+  }
+
+  private void release(Object owner) {
+    lock.lock();
+    try {
+      Reservation reservation = reservations.remove(owner);
+      if (reservation == null) {
+        return;
+      }
+      reservedMemory -= reservation.bytes;
+      // The stream and its metrics are dropped with the last reservation of the stream
+      boolean reserved =
+          reservations.values().stream()
+              .anyMatch(other -> other.executionPlanId == reservation.executionPlanId);
+      Stream stream = streams.get(reservation.executionPlanId);
+      if (!reserved && stream != null && stream.inFlight == 0) {
+        streams.remove(reservation.executionPlanId);
+      }
+      changed.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private SchedulingMetrics metricsOf(long tenantId) {
+    lock.lock();
+    try {
+      SchedulingMetrics metrics = SchedulingMetrics.EMPTY;
+      for (Stream stream : streams.values()) {
+        if (stream.tenantId == tenantId) {
+          metrics =
+              metrics.add(
+                  new SchedulingMetrics(
+                      stream.dispatches,
+                      stream.queuedDispatches,
+                      stream.queueingDelay,
+                      stream.maxQueueingDelay,
+                      stream.admissionDelay,
+                      stream.drains));
+        }
+      }
+      return metrics;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static final class Stream {
+    private final long tenantId;
+    private int inFlight;
+    private double lastFinishTag;
+    private long dispatches;
+    private long queuedDispatches;
+    private long queueingDelay;
+    private long maxQueueingDelay;
+    private long admissionDelay;
+    private long drains;
+
+    private Stream(long tenantId) {
+      this.tenantId = tenantId;
+    }
+  }
+
+  private static final class Request {
+    private final int priority;
+    private final double finishTag;
+    private final long sequence;
+
+    private Request(int priority, double finishTag, long sequence) {
+      this.priority = priority;
+      this.finishTag = finishTag;
+      this.sequence = sequence;
+    }
+  }
+
+  private static final class Reservation {
+    private final long executionPlanId;
+    private long bytes;
+
+    private Reservation(long executionPlanId) {
+      this.executionPlanId = executionPlanId;
+    }
+  }
+}
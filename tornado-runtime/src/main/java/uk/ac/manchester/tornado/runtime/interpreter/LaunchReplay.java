@@ -0,0 +1,132 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.interpreter;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+
+/**
+ * Decides when the kernel launches of an interpreter are recorded by the device, and when they are
+ * replayed with a single enqueue instead of being dispatched one by one. It is enabled with {@link
+ * TornadoOptions#LAUNCH_REPLAY}.
+ *
+ * <p>The kernel arguments of an execution are summarised by a signature (device buffers, compiled
+ * kernels and thread grids). When two consecutive executions have the same signature, the
+ * launches of the next one are recorded, and the executions after it replay the recording for as
+ * long as the signature does not change. A different signature discards the recording.
+ *
+ * <p>Launches are replayed at the position of the first one, so only a contiguous run of LAUNCH
+ * bytecodes can be recorded. A task-graph that interleaves launches with allocations or data
+ * transfers is dispatched as usual.
+ */
+final class LaunchReplay {
+
+  private enum State {
+    OBSERVE,
+    RECORDING,
+    READY,
+    DISABLED
+  }
+
+  private final TornadoXPUDevice device;
+  private final long executionPlanId;
+  private State state;
+  private long[] signature;
+
+  private boolean launchRunStarted;
+  private boolean launchRunEnded;
+  private boolean replayed;
+
+  LaunchReplay(TornadoXPUDevice device, long executionPlanId) {
+    this.device = device;
+    this.executionPlanId = executionPlanId;
+    this.state = State.OBSERVE;
+  }
+
+  void beginExecution() {
+    launchRunStarted = false;
+    launchRunEnded = false;
+    replayed = false;
+  }
+
+  /**
+   * Called before every kernel launch of an execution.
+   *
+   * @param currentSignature Computes the signature of the execution. It is only called for the
+   *     first launch.
+   * @return true if the launch has already been submitted by a replay, and must be skipped.
+   */
+  boolean onLaunch(Supplier<long[]> currentSignature) {
+    if (state == State.DISABLED) {
+      return false;
+    }
+    if (launchRunEnded) {
+      // Launches interleaved with other bytecodes cannot be submitted together
+      disable();
+      return false;
+    }
+    if (launchRunStarted) {
+      return replayed;
+    }
+    launchRunStarted = true;
+    long[] current = currentSignature.get();
+    boolean stable = Arrays.equals(current, signature);
+    signature = current;
+    if (state == State.READY) {
+      if (stable && device.replayLaunches(executionPlanId)) {
+        replayed = true;
+      } else {
+        device.discardLaunchRecording(executionPlanId);
+        // A failed replay of a valid recording means that the device cannot replay it
+        state = stable ? State.DISABLED : State.OBSERVE;
+      }
+    } else if (state == State.OBSERVE && stable) {
+      state = device.beginLaunchRecording(executionPlanId) ? State.RECORDING : State.DISABLED;
+    }
+    return replayed;
+  }
+
+  /**
+   * Called for the bytecodes that enqueue commands other than kernel launches (allocations and
+   * data transfers), and at the end of an execution. It closes the current run of launches.
+   */
+  void onCommand() {
+    if (launchRunStarted && !launchRunEnded) {
+      launchRunEnded = true;
+      if (state == State.RECORDING) {
+        state = device.endLaunchRecording(executionPlanId) ? State.READY : State.DISABLED;
+      }
+    }
+  }
+
+  /** Stops recording and replaying launches for the rest of the life of the interpreter. */
+  void disable() {
+    if (state == State.RECORDING || state == State.READY) {
+      device.discardLaunchRecording(executionPlanId);
+    }
+    state = State.DISABLED;
+  }
+}
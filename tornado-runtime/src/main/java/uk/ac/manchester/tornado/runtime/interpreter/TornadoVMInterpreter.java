@@ -32,9 +32,12 @@ import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
 import uk.ac.manchester.tornado.api.GridScheduler;
 import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.SchedulingPolicy;
 import uk.ac.manchester.tornado.api.WorkerGrid;
+import uk.ac.manchester.tornado.api.common.Access;
 import uk.ac.manchester.tornado.api.common.Event;
 import uk.ac.manchester.tornado.api.common.SchedulableTask;
 import uk.ac.manchester.tornado.api.common.TornadoEvents;
@@ -59,6 +62,11 @@ import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
 import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
 import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodeResult;
 import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodes;
+import uk.ac.manchester.tornado.runtime.jfr.AllocationEvent;
+import uk.ac.manchester.tornado.runtime.jfr.BarrierEvent;
+import uk.ac.manchester.tornado.runtime.jfr.DeviceEventBuffer;
+import uk.ac.manchester.tornado.runtime.jfr.KernelLaunchEvent;
+import uk.ac.manchester.tornado.runtime.jfr.TransferEvent;
 import uk.ac.manchester.tornado.runtime.profiler.TimeProfiler;
 import uk.ac.manchester.tornado.runtime.tasks.DataObjectState;
 import uk.ac.manchester.tornado.runtime.tasks.PrebuiltTask;
@@ -98,6 +106,15 @@ public class TornadoVMInterpreter {
 
   private GridScheduler gridScheduler;
 
+  /** Records and replays the kernel launches. It is null when the replay is not enabled. */
+  private final LaunchReplay launchReplay;
+
+  /** Scheduler of the device for the current execution. It is null when it is not scheduled. */
+  private DeviceScheduler scheduler;
+
+  /** Recorded JFR events of the current execution that wait for their device timestamps. */
+  private final DeviceEventBuffer pendingJfrEvents = new DeviceEventBuffer();
+
   private TornadoLogger logger = new TornadoLogger(this.getClass());
 
   /**
@@ -121,6 +138,11 @@ public class TornadoVMInterpreter {
     this.interpreterDevice = device;
 
     useDependencies = VM_USE_DEPS;
+    // Replayed launches are submitted without events, so they rely on an in-order queue
+    launchReplay =
+        (TornadoOptions.LAUNCH_REPLAY && !useDependencies)
+            ? new LaunchReplay(device, graphExecutionContext.getExecutionPlanId())
+            : null;
     totalTime = 0;
     invocations = 0;
 
@@ -253,6 +275,8 @@ public class TornadoVMInterpreter {
   private Event execute(boolean isWarmup) {
     isWarmup = isWarmup || VIRTUAL_DEVICE_ENABLED;
     interpreterDevice.enableThreadSharing();
+    interpreterDevice.setProfilerEnabled(
+        graphExecutionContext.getExecutionPlanId(), graphExecutionContext.isProfilerEnabled());
 
     if (isMemoryLimitEnabled() && graphExecutionContext.doesExceedExecutionPlanLimit()) {
       throw new TornadoMemoryException(
@@ -261,8 +285,27 @@ public class TornadoVMInterpreter {
     }
 
     final long t0 = System.nanoTime();
-    int lastEvent = -1;
     initWaitEventList();
+    pendingJfrEvents.clear();
+
+    final SchedulingPolicy schedulingPolicy = graphExecutionContext.getSchedulingPolicy();
+    scheduler =
+        (isWarmup || schedulingPolicy == null) ? null : DeviceScheduler.of(interpreterDevice);
+    if (scheduler != null) {
+      scheduler.admit(
+          graphExecutionContext.getExecutionPlanId(),
+          graphExecutionContext.getTenantId(),
+          schedulingPolicy,
+          graphExecutionContext,
+          graphExecutionContext.getDataSize());
+    }
+
+    // The profiler needs the event of each launch, so launches are not replayed
+    final LaunchReplay replay =
+        (isWarmup || graphExecutionContext.isProfilerEnabled()) ? null : launchReplay;
+    if (replay != null) {
+      replay.beginExecution();
+    }
 
     StringBuilder tornadoVMBytecodeList = null;
     if (TornadoOptions.PRINT_BYTECODES) {
@@ -277,8 +320,72 @@ public class TornadoVMInterpreter {
           .append("\n");
     }
 
+    try {
+      executeBytecodes(isWarmup, replay, tornadoVMBytecodeList);
+    } catch (RuntimeException | Error e) {
+      if (scheduler != null) {
+        scheduler.abandon(graphExecutionContext.getExecutionPlanId());
+      }
+      throw e;
+    }
+
+    if (replay != null) {
+      replay.onCommand();
+    }
+
+    Event barrier = EMPTY_EVENT;
+    if (!isWarmup) {
+      if (useDependencies) {
+        final int event =
+            interpreterDevice.enqueueMarker(graphExecutionContext.getExecutionPlanId());
+        barrier = interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), event);
+      }
+
+      if (TornadoOptions.USE_VM_FLUSH) {
+        interpreterDevice.flush(graphExecutionContext.getExecutionPlanId());
+      }
+    }
+
+    if (scheduler != null) {
+      scheduler.complete(graphExecutionContext.getExecutionPlanId(), this::drainCommandQueue);
+    }
+
+    // Device timestamps of the recorded JFR events are read once all commands are enqueued
+    pendingJfrEvents.commitAll(graphExecutionContext.getExecutionPlanId(), interpreterDevice);
+
+    final long t1 = System.nanoTime();
+    final double elapsed = (t1 - t0) * 1e-9;
+    if (!isWarmup) {
+      totalTime += elapsed;
+      invocations++;
+    }
+
+    if (graphExecutionContext.meta().isDebug()) {
+      logger.debug(
+          "bc: complete elapsed=%.9f s (%d iterations, %.9f s mean)",
+          elapsed, invocations, (totalTime / invocations));
+    }
+
+    bytecodeResult.reset();
+
+    if (TornadoOptions.PRINT_BYTECODES) {
+      System.out.println(tornadoVMBytecodeList);
+    }
+
+    return barrier;
+  }
+
+  private void executeBytecodes(
+      boolean isWarmup, LaunchReplay replay, StringBuilder tornadoVMBytecodeList) {
+    int lastEvent = -1;
     while (bytecodeResult.hasRemaining()) {
       final byte op = bytecodeResult.get();
+      if (replay != null
+          && op != TornadoVMBytecodes.LAUNCH.value()
+          && op != TornadoVMBytecodes.ADD_DEPENDENCY.value()
+          && op != TornadoVMBytecodes.BARRIER.value()) {
+        replay.onCommand();
+      }
       if (op == TornadoVMBytecodes.ALLOC.value()) {
         final long sizeBatch = bytecodeResult.getLong();
         final int argSize = bytecodeResult.getInt();
@@ -355,9 +462,18 @@ public class TornadoVMInterpreter {
           popArgumentsFromCall(numArgs);
           continue;
         }
+        acquireDevice(1);
+        final boolean replayed = replay != null && replay.onLaunch(this::launchSignature);
         lastEvent =
             executeLaunch(
-                tornadoVMBytecodeList, numArgs, eventList, taskIndex, batchThreads, offset, info);
+                tornadoVMBytecodeList,
+                numArgs,
+                eventList,
+                taskIndex,
+                batchThreads,
+                offset,
+                info,
+                replayed);
       } else if (op == TornadoVMBytecodes.ADD_DEPENDENCY.value()) {
         final int eventList = bytecodeResult.getInt();
         if (isWarmup) {
@@ -383,40 +499,35 @@ public class TornadoVMInterpreter {
         throwErrorInterpreter(op);
       }
     }
+  }
 
-    Event barrier = EMPTY_EVENT;
-    if (!isWarmup) {
-      if (useDependencies) {
-        final int event =
-            interpreterDevice.enqueueMarker(graphExecutionContext.getExecutionPlanId());
-        barrier = interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), event);
-      }
-
-      if (TornadoOptions.USE_VM_FLUSH) {
-        interpreterDevice.flush(graphExecutionContext.getExecutionPlanId());
-      }
-    }
-
-    final long t1 = System.nanoTime();
-    final double elapsed = (t1 - t0) * 1e-9;
-    if (!isWarmup) {
-      totalTime += elapsed;
-      invocations++;
-    }
-
-    if (graphExecutionContext.meta().isDebug()) {
-      logger.debug(
-          "bc: complete elapsed=%.9f s (%d iterations, %.9f s mean)",
-          elapsed, invocations, (totalTime / invocations));
+  /**
+   * Waits until the device scheduler grants the dispatch of a launch or a data transfer. It does
+   * nothing when the execution is not scheduled.
+   *
+   * @param cost cost of the command, in units of the cost of a launch.
+   */
+  private void acquireDevice(long cost) {
+    if (scheduler != null) {
+      scheduler.acquire(
+          graphExecutionContext.getExecutionPlanId(),
+          graphExecutionContext.getTenantId(),
+          graphExecutionContext.getSchedulingPolicy(),
+          cost,
+          this::drainCommandQueue);
     }
+  }
 
-    bytecodeResult.reset();
-
-    if (TornadoOptions.PRINT_BYTECODES) {
-      System.out.println(tornadoVMBytecodeList);
+  private static long transferCost(XPUDeviceBufferState objectState, long sizeBatch) {
+    long bytes = sizeBatch;
+    if (bytes <= 0 && objectState.hasObjectBuffer()) {
+      bytes = objectState.getXPUBuffer().size();
     }
+    return DeviceScheduler.transferCost(bytes);
+  }
 
-    return barrier;
+  private void drainCommandQueue() {
+    interpreterDevice.sync(graphExecutionContext.getExecutionPlanId());
   }
 
   private void initWaitEventList() {
@@ -426,11 +537,15 @@ public class TornadoVMInterpreter {
   }
 
   private int executeAlloc(StringBuilder tornadoVMBytecodeList, int[] args, long sizeBatch) {
+    AllocationEvent allocationEvent = new AllocationEvent();
+    allocationEvent.begin();
     Object[] objects = new Object[args.length];
     XPUDeviceBufferState[] objectStates = new XPUDeviceBufferState[args.length];
     for (int i = 0; i < objects.length; i++) {
       objects[i] = this.objects.get(args[i]);
       objectStates[i] = resolveObjectState(args[i]);
+      objectStates[i].setSharedVirtualMemory(
+          graphExecutionContext.meta().isSharedVirtualMemoryEnabled());
 
       if (TornadoOptions.PRINT_BYTECODES) {
         String verbose =
@@ -445,10 +560,16 @@ public class TornadoVMInterpreter {
     }
 
     long allocationsTotalSize = interpreterDevice.allocateObjects(objects, sizeBatch, objectStates);
+    allocationEvent.record(
+        graphExecutionContext.getExecutionPlanId(),
+        interpreterDevice,
+        objects.length,
+        sizeBatch,
+        allocationsTotalSize);
 
     graphExecutionContext.setCurrentDeviceMemoryUsage(allocationsTotalSize);
 
-    if (TornadoOptions.isProfilerEnabled()) {
+    if (graphExecutionContext.isProfilerEnabled()) {
       // Register allocations in the profiler
       for (XPUDeviceBufferState objectState : objectStates) {
         timeProfiler.addValueToMetric(
@@ -497,6 +618,12 @@ public class TornadoVMInterpreter {
     }
 
     final XPUDeviceBufferState objectState = resolveObjectState(objectIndex);
+    TransferEvent transferEvent = new TransferEvent();
+    transferEvent.begin();
+
+    if (sizeBatch > 0 || !objectState.hasContent() || objectState.isDirty()) {
+      acquireDevice(transferCost(objectState, sizeBatch));
+    }
 
     // We need to stream-in when using batches, because the whole data is not copied
     List<Integer> allEvents;
@@ -518,6 +645,20 @@ public class TornadoVMInterpreter {
               waitList,
               sizeBatch,
               offset);
+      if (allEvents != null) {
+        objectState.clearDirty();
+      }
+    }
+    if (allEvents != null) {
+      transferEvent.record(
+          pendingJfrEvents,
+          graphExecutionContext.getExecutionPlanId(),
+          interpreterDevice,
+          "TRANSFER_HOST_TO_DEVICE_ONCE",
+          object,
+          objectState.getXPUBuffer().size(),
+          offset,
+          lastEventOf(allEvents));
     }
     resetEventIndexes(eventList);
 
@@ -532,7 +673,7 @@ public class TornadoVMInterpreter {
           tornadoVMBytecodeList);
     }
 
-    if (TornadoOptions.isProfilerEnabled() && allEvents != null) {
+    if (graphExecutionContext.isProfilerEnabled() && allEvents != null) {
       for (Integer e : allEvents) {
         Event event = interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), e);
         event.waitForEvents(graphExecutionContext.getExecutionPlanId());
@@ -571,6 +712,9 @@ public class TornadoVMInterpreter {
     }
 
     final XPUDeviceBufferState objectState = resolveObjectState(objectIndex);
+    acquireDevice(transferCost(objectState, sizeBatch));
+    TransferEvent transferEvent = new TransferEvent();
+    transferEvent.begin();
     List<Integer> allEvents =
         interpreterDevice.streamIn(
             graphExecutionContext.getExecutionPlanId(),
@@ -579,10 +723,22 @@ public class TornadoVMInterpreter {
             offset,
             objectState,
             waitList);
+    if (sizeBatch <= 0) {
+      objectState.clearDirty();
+    }
+    transferEvent.record(
+        pendingJfrEvents,
+        graphExecutionContext.getExecutionPlanId(),
+        interpreterDevice,
+        "TRANSFER_HOST_TO_DEVICE_ALWAYS",
+        object,
+        objectState.getXPUBuffer().size(),
+        offset,
+        lastEventOf(allEvents));
 
     resetEventIndexes(eventList);
 
-    if (TornadoOptions.isProfilerEnabled() && allEvents != null) {
+    if (graphExecutionContext.isProfilerEnabled() && allEvents != null) {
       for (Integer e : allEvents) {
         Event event = interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), e);
         event.waitForEvents(graphExecutionContext.getExecutionPlanId());
@@ -631,13 +787,28 @@ public class TornadoVMInterpreter {
     }
 
     final XPUDeviceBufferState objectState = resolveObjectState(objectIndex);
+    acquireDevice(transferCost(objectState, sizeBatch));
+    TransferEvent transferEvent = new TransferEvent();
+    transferEvent.begin();
     int readEvent =
         interpreterDevice.streamOutBlocking(
             graphExecutionContext.getExecutionPlanId(), object, offset, objectState, waitList);
+    if (sizeBatch <= 0 && objectState.getPartialCopySize() == 0) {
+      objectState.clearDirty();
+    }
+    transferEvent.record(
+        pendingJfrEvents,
+        graphExecutionContext.getExecutionPlanId(),
+        interpreterDevice,
+        "TRANSFER_DEVICE_TO_HOST_ALWAYS",
+        object,
+        objectState.getXPUBuffer().size(),
+        offset,
+        readEvent);
 
     resetEventIndexes(eventList);
 
-    if (TornadoOptions.isProfilerEnabled() && readEvent != -1) {
+    if (graphExecutionContext.isProfilerEnabled() && readEvent != -1) {
       Event event =
           interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), readEvent);
       event.waitForEvents(graphExecutionContext.getExecutionPlanId());
@@ -687,12 +858,27 @@ public class TornadoVMInterpreter {
     }
 
     final XPUDeviceBufferState objectState = resolveObjectState(objectIndex);
+    acquireDevice(transferCost(objectState, sizeBatch));
+    TransferEvent transferEvent = new TransferEvent();
+    transferEvent.begin();
 
     final int readEvent =
         interpreterDevice.streamOutBlocking(
             graphExecutionContext.getExecutionPlanId(), object, offset, objectState, waitList);
-
-    if (TornadoOptions.isProfilerEnabled() && readEvent != -1) {
+    if (sizeBatch <= 0 && objectState.getPartialCopySize() == 0) {
+      objectState.clearDirty();
+    }
+    transferEvent.record(
+        pendingJfrEvents,
+        graphExecutionContext.getExecutionPlanId(),
+        interpreterDevice,
+        "TRANSFER_DEVICE_TO_HOST_ALWAYS_BLOCKING",
+        object,
+        objectState.getXPUBuffer().size(),
+        offset,
+        readEvent);
+
+    if (graphExecutionContext.isProfilerEnabled() && readEvent != -1) {
       Event event =
           interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), readEvent);
       event.waitForEvents(graphExecutionContext.getExecutionPlanId());
@@ -742,6 +928,7 @@ public class TornadoVMInterpreter {
 
   private void updateMeta(TaskContextInterface meta) {
     meta.setPrintKernelFlag(graphExecutionContext.meta().isPrintKernelEnabled());
+    meta.setShapePolymorphicFlag(graphExecutionContext.meta().isShapePolymorphicEnabled());
     meta.setCompilerFlags(
         TornadoVMBackendType.OPENCL,
         graphExecutionContext.meta().getCompilerFlags(TornadoVMBackendType.OPENCL));
@@ -861,7 +1048,8 @@ public class TornadoVMInterpreter {
       final int taskIndex,
       final long batchThreads,
       final long offset,
-      XPUExecutionFrame executionFrame) {
+      XPUExecutionFrame executionFrame,
+      final boolean replayed) {
 
     final SchedulableTask task = taskExecutionContexts.get(taskIndex);
     KernelStackFrame stackFrame = executionFrame.stackFrame;
@@ -899,6 +1087,7 @@ public class TornadoVMInterpreter {
     stackFrame.setKernelContext(threadDeploy);
 
     XPUBuffer bufferAtomics = null;
+    final Access[] accesses = task.getArgumentsAccess();
 
     for (int i = 0; i < numArgs; i++) {
       final byte argType = bytecodeResult.get();
@@ -922,6 +1111,10 @@ public class TornadoVMInterpreter {
         if (!isObjectInAtomicRegion(objectState, interpreterDevice, task)) {
           // Add a reference (arrays, vector types, panama regions)
           stackFrame.addCallArgument(objectState.getXPUBuffer().toBuffer(), true);
+          if (accesses == null || i >= accesses.length || accesses[i] != Access.READ_ONLY) {
+            // The device copy may differ from the host copy after the launch
+            objectState.markDirty(graphExecutionContext.getExecutionPlanId());
+          }
         } else {
           atomicsArray =
               interpreterDevice.updateAtomicRegionAndObjectState(
@@ -933,11 +1126,15 @@ public class TornadoVMInterpreter {
     }
 
     if (atomicsArray != null) {
+      if (launchReplay != null) {
+        // The atomics buffer is written before each launch
+        launchReplay.disable();
+      }
       bufferAtomics = interpreterDevice.createOrReuseAtomicsBuffer(atomicsArray);
       List<Integer> allEvents =
           bufferAtomics.enqueueWrite(
               graphExecutionContext.getExecutionPlanId(), null, 0, 0, null, false);
-      if (TornadoOptions.isProfilerEnabled()) {
+      if (graphExecutionContext.isProfilerEnabled()) {
         for (Integer e : allEvents) {
           Event event =
               interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), e);
@@ -968,21 +1165,30 @@ public class TornadoVMInterpreter {
           String.format(
               "bc: "
                   + InterpreterUtilities.debugHighLightBC("LAUNCH")
-                  + " %s on %s, size=%d, offset=%d [event list=%d]",
+                  + " %s on %s, size=%d, offset=%d [event list=%d]%s",
               task.getFullName(),
               interpreterDevice,
               batchThreads,
               offset,
-              eventList);
+              eventList,
+              replayed ? " (replayed)" : "");
       tornadoVMBytecodeList.append(verbose).append("\n");
     }
 
+    if (replayed) {
+      // The kernel was submitted with the replay of the first launch of this execution
+      resetEventIndexes(eventList);
+      return -1;
+    }
+
     if (task.meta() instanceof TaskDataContext dataContext) {
       // We attach the profiler information, grid information and global threads
       dataContext.attachProfiler(timeProfiler);
       dataContext.setGridScheduler(gridScheduler);
       dataContext.setThreadInfoEnabled(graphExecutionContext.meta().isThreadInfoEnabled());
 
+      KernelLaunchEvent launchEvent = new KernelLaunchEvent();
+      launchEvent.begin();
       try {
         int lastEvent =
             useDependencies
@@ -999,6 +1205,13 @@ public class TornadoVMInterpreter {
                     bufferAtomics,
                     dataContext,
                     batchThreads);
+        launchEvent.record(
+            pendingJfrEvents,
+            graphExecutionContext.getExecutionPlanId(),
+            interpreterDevice,
+            task.getId(),
+            batchThreads,
+            lastEvent);
 
         resetEventIndexes(eventList);
         return lastEvent;
@@ -1042,8 +1255,16 @@ public class TornadoVMInterpreter {
               eventList));
     }
 
+    BarrierEvent barrierEvent = new BarrierEvent();
+    barrierEvent.begin();
     int lastEvent =
         interpreterDevice.enqueueMarker(graphExecutionContext.getExecutionPlanId(), waitList);
+    barrierEvent.record(
+        pendingJfrEvents,
+        graphExecutionContext.getExecutionPlanId(),
+        interpreterDevice,
+        waitList == null ? 0 : waitList.length,
+        lastEvent);
 
     resetEventIndexes(eventList);
     return lastEvent;
@@ -1068,6 +1289,10 @@ public class TornadoVMInterpreter {
     return !(object instanceof AtomicInteger);
   }
 
+  private static int lastEventOf(List<Integer> allEvents) {
+    return (allEvents == null || allEvents.isEmpty()) ? -1 : allEvents.getLast();
+  }
+
   private void resetEventIndexes(int eventList) {
     if (eventList != -1) {
       eventsIndexes[eventList] = 0;
@@ -1120,6 +1345,43 @@ public class TornadoVMInterpreter {
     }
   }
 
+  /**
+   * Summarises the kernel arguments of an execution for {@link LaunchReplay}: the device buffers of
+   * all objects, the installed kernels, the kernel stack frames and the thread grids of the tasks.
+   * Scalar arguments are constants of the task-graph, so they do not change between executions.
+   */
+  private long[] launchSignature() {
+    LongStream.Builder signature = LongStream.builder();
+    for (DataObjectState dataObjectState : dataObjectStates) {
+      XPUDeviceBufferState objectState = dataObjectState.getDeviceBufferState(interpreterDevice);
+      XPUBuffer buffer = objectState.getXPUBuffer();
+      signature.add(
+          (buffer == null || objectState.isAtomicRegionPresent()) ? 0 : buffer.toBuffer());
+    }
+    for (TornadoInstalledCode installedCode : installedCodes) {
+      signature.add(System.identityHashCode(installedCode));
+    }
+    for (KernelStackFrame stackFrame : kernelStackFrame) {
+      signature.add(System.identityHashCode(stackFrame));
+    }
+    if (gridScheduler != null) {
+      for (SchedulableTask task : localTaskList) {
+        WorkerGrid workerGrid = gridScheduler.get(task.getId());
+        if (workerGrid != null) {
+          Arrays.stream(workerGrid.getGlobalWork()).forEach(signature::add);
+          Arrays.stream(workerGrid.getGlobalOffset()).forEach(signature::add);
+          if (workerGrid.getLocalWork() != null) {
+            Arrays.stream(workerGrid.getLocalWork()).forEach(signature::add);
+          }
+          if (workerGrid.getCoarseness() != null) {
+            Arrays.stream(workerGrid.getCoarseness()).forEach(signature::add);
+          }
+        }
+      }
+    }
+    return signature.build().toArray();
+  }
+
   private DataObjectState resolveGlobalObjectState(int index) {
     return dataObjectStates[index];
   }
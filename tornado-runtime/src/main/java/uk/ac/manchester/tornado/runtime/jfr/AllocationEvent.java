@@ -0,0 +1,60 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+
+/** {@code ALLOC} bytecode: allocation of the device buffers of a task-graph. */
+@Name("uk.ac.manchester.tornado.Allocation")
+@Label("TornadoVM Allocation")
+@Description("Allocation of device buffers by the ALLOC bytecode")
+public class AllocationEvent extends TornadoDeviceEvent {
+
+  @Label("Objects")
+  private int numObjects;
+
+  @Label("Batch Size")
+  @DataAmount
+  private long batchSize;
+
+  @Label("Allocated")
+  @DataAmount
+  private long bytes;
+
+  public void record(
+      long executionPlanId, TornadoXPUDevice device, int numObjects, long batchSize, long bytes) {
+    end();
+    if (shouldCommit()) {
+      setDevice(executionPlanId, device);
+      this.numObjects = numObjects;
+      this.batchSize = batchSize;
+      this.bytes = bytes;
+      commit();
+    }
+  }
+}
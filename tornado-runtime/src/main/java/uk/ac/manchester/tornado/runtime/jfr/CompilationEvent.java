@@ -0,0 +1,63 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Compilation of a task: the sketch of the Java method, the Graal compilation to the backend
+ * language and the build of the generated code by the device driver.
+ */
+@Name("uk.ac.manchester.tornado.Compilation")
+@Label("TornadoVM Compilation")
+@Description("Sketch, Graal and driver compilation of a task")
+@Category({"TornadoVM", "Compiler"})
+public class CompilationEvent extends jdk.jfr.Event {
+
+  public static final String SKETCH = "SKETCH";
+  public static final String GRAAL = "GRAAL";
+  public static final String DRIVER_BUILD = "DRIVER_BUILD";
+
+  @Label("Stage")
+  private String stage;
+
+  @Label("Task")
+  private String taskId;
+
+  @Label("Device")
+  private String device;
+
+  public void record(String stage, String taskId, Object device) {
+    end();
+    if (shouldCommit()) {
+      this.stage = stage;
+      this.taskId = taskId;
+      this.device = String.valueOf(device);
+      commit();
+    }
+  }
+}
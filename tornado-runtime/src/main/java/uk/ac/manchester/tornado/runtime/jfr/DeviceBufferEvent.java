@@ -0,0 +1,67 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Operations of the device buffer cache of each device. */
+@Name("uk.ac.manchester.tornado.DeviceBuffer")
+@Label("TornadoVM Device Buffer")
+@Description("Allocation, reuse and release of native device buffers")
+@Category({"TornadoVM", "Memory"})
+public class DeviceBufferEvent extends jdk.jfr.Event {
+
+  public static final String ALLOCATE = "ALLOCATE";
+  public static final String REUSE = "REUSE";
+  public static final String RELEASE = "RELEASE";
+
+  @Label("Operation")
+  private String operation;
+
+  @Label("Device")
+  private String device;
+
+  @Label("Size")
+  @DataAmount
+  private long bytes;
+
+  @Label("Available Memory")
+  @DataAmount
+  private long availableBytes;
+
+  public void record(String operation, Object device, long bytes, long availableBytes) {
+    end();
+    if (shouldCommit()) {
+      this.operation = operation;
+      this.device = String.valueOf(device);
+      this.bytes = bytes;
+      this.availableBytes = availableBytes;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.jfr;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import uk.ac.manchester.tornado.api.common.Event;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+
+/**
+ * Recorded {@link TornadoDeviceEvent}s of one execution of an interpreter that wait for their
+ * device-side timestamps. Reading a timestamp requires the command to be finished, so the events
+ * are kept here while the bytecodes are dispatched and committed together once the execution has
+ * been enqueued. Then, the device is synchronised once per execution instead of once per command.
+ */
+public final class DeviceEventBuffer {
+
+  private final List<TornadoDeviceEvent> events = new ArrayList<>();
+
+  void add(TornadoDeviceEvent event) {
+    events.add(event);
+  }
+
+  /** Drops the events of a previous execution that did not complete. */
+  public void clear() {
+    events.clear();
+  }
+
+  /**
+   * Reads the device-side timestamps of all the pending events and commits them.
+   *
+   * @param executionPlanId Execution plan that enqueued the commands.
+   * @param device Device that executed the commands.
+   */
+  public void commitAll(long executionPlanId, TornadoXPUDevice device) {
+    if (events.isEmpty()) {
+      return;
+    }
+    device.sync(executionPlanId);
+    for (TornadoDeviceEvent deviceEvent : events) {
+      Event event = device.resolveEvent(executionPlanId, deviceEvent.deviceEventId);
+      deviceEvent.commitWithTimestamps(event.getStartTime(), event.getEndTime());
+    }
+    events.clear();
+  }
+}
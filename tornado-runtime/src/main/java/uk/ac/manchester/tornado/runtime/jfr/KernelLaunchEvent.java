@@ -0,0 +1,58 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+
+/** {@code LAUNCH} bytecode: dispatch of a kernel. */
+@Name("uk.ac.manchester.tornado.KernelLaunch")
+@Label("TornadoVM Kernel Launch")
+@Description("Kernel dispatch by the LAUNCH bytecode")
+public class KernelLaunchEvent extends TornadoDeviceEvent {
+
+  @Label("Task")
+  private String taskId;
+
+  @Label("Batch Threads")
+  private long batchThreads;
+
+  public void record(
+      DeviceEventBuffer pendingEvents,
+      long executionPlanId,
+      TornadoXPUDevice device,
+      String taskId,
+      long batchThreads,
+      int deviceEvent) {
+    end();
+    if (shouldCommit()) {
+      setDevice(executionPlanId, device);
+      this.taskId = taskId;
+      this.batchThreads = batchThreads;
+      commit(pendingEvents, deviceEvent);
+    }
+  }
+}
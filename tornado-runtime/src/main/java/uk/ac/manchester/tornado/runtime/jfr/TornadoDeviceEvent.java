@@ -0,0 +1,88 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+
+/**
+ * Base class of the JFR events emitted by the TornadoVM interpreter. Besides the host-side duration
+ * recorded by JFR, each event carries the execution plan, the device and, when the bytecode
+ * produced a device event, the device-side timestamps.
+ *
+ * <p>Events are created, begun and ended on every bytecode, but their fields are only populated
+ * inside {@link #shouldCommit()}, so a disabled event costs an allocation that the JIT removes.
+ * Reading the device-side timestamps requires the command to be finished, so recorded events with
+ * a device event are not committed straight away: they are kept in a {@link DeviceEventBuffer} and
+ * committed after the execution.
+ */
+@Category({"TornadoVM", "Interpreter"})
+public abstract class TornadoDeviceEvent extends jdk.jfr.Event {
+
+  @Label("Execution Plan")
+  protected long executionPlanId;
+
+  @Label("Device")
+  protected String device;
+
+  @Label("Device Start Time")
+  @Description("Start timestamp of the command on the device, in nanoseconds")
+  protected long deviceStartTime;
+
+  @Label("Device End Time")
+  @Description("End timestamp of the command on the device, in nanoseconds")
+  protected long deviceEndTime;
+
+  /** Device event of the command, read once the execution has finished. */
+  transient int deviceEventId;
+
+  protected void setDevice(long executionPlanId, TornadoXPUDevice device) {
+    this.executionPlanId = executionPlanId;
+    this.device = device.toString();
+  }
+
+  /**
+   * Commits the event. If the command produced a device event, the commit is deferred until the
+   * buffer of the execution reads the device-side timestamps.
+   *
+   * @param pendingEvents Buffer of the events of the current execution.
+   * @param eventId Device event of the command, or -1 if the command did not produce any.
+   */
+  protected void commit(DeviceEventBuffer pendingEvents, int eventId) {
+    if (eventId == -1) {
+      commit();
+    } else {
+      this.deviceEventId = eventId;
+      pendingEvents.add(this);
+    }
+  }
+
+  void commitWithTimestamps(long deviceStartTime, long deviceEndTime) {
+    this.deviceStartTime = deviceStartTime;
+    this.deviceEndTime = deviceEndTime;
+    commit();
+  }
+}
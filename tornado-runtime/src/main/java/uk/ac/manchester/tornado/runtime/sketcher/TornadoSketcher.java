@@ -68,6 +68,7 @@ import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoCompilerIdentifier;
 import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoSketchTier;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoSketchTierContext;
+import uk.ac.manchester.tornado.runtime.jfr.CompilationEvent;
 
 public class TornadoSketcher {
 
@@ -78,7 +79,7 @@ public class TornadoSketcher {
   private static final OptimisticOptimizations optimisticOpts = OptimisticOptimizations.ALL;
   private static TornadoLogger logger = new TornadoLogger();
 
-  private static boolean cacheContainsSketch(
+  public static boolean cacheContainsSketch(
       ResolvedJavaMethod method, int driverIndex, int deviceIndex) {
     List<TornadoSketcherCacheEntry> entries = cache.get(method);
     if (entries == null) {
@@ -156,6 +157,8 @@ public class TornadoSketcher {
       int backendIndex,
       int deviceIndex) {
     logger.info("Building sketch of %s", resolvedMethod.getName());
+    CompilationEvent compilationEvent = new CompilationEvent();
+    compilationEvent.begin();
     TornadoCompilerIdentifier id =
         new TornadoCompilerIdentifier(
             "sketch-" + resolvedMethod.getName(), sketchId.getAndIncrement());
@@ -226,10 +229,14 @@ public class TornadoSketcher {
                 mergeAccesses(methodAccesses, invoke.callTarget(), sketch.getArgumentsAccess());
               });
 
-      return new Sketch(
-          graph.copy(TornadoCoreRuntime.getDebugContext()),
-          methodAccesses,
-          highTierContext.getBatchWriteThreadIndex());
+      Sketch sketch =
+          new Sketch(
+              graph.copy(TornadoCoreRuntime.getDebugContext()),
+              methodAccesses,
+              highTierContext.getBatchWriteThreadIndex());
+      compilationEvent.record(
+          CompilationEvent.SKETCH, resolvedMethod.getName(), backendIndex + ":" + deviceIndex);
+      return sketch;
 
     } catch (Throwable e) {
       logger.fatal(
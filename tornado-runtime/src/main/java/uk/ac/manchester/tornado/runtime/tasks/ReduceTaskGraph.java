@@ -30,10 +30,12 @@ import static uk.ac.manchester.tornado.runtime.TornadoCoreRuntime.getDebugContex
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import jdk.vm.ci.code.InstalledCode;
 import jdk.vm.ci.code.InvalidInstalledCodeException;
@@ -48,6 +50,7 @@ import uk.ac.manchester.tornado.api.common.TaskPackage;
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.enums.DataTransferMode;
 import uk.ac.manchester.tornado.api.enums.TornadoDeviceType;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoTaskRuntimeException;
 import uk.ac.manchester.tornado.api.runtime.TornadoRuntimeProvider;
@@ -96,6 +99,7 @@ class ReduceTaskGraph {
   private Map<Object, List<Integer>> reduceOperandTable;
   private boolean hybridMode;
   private Map<Object, REDUCE_OPERATION> hybridMergeTable;
+  private Set<Object> singlePassArrays;
   private boolean hybridInitialized;
   private TornadoExecutionPlan executionPlan;
 
@@ -148,6 +152,59 @@ class ReduceTaskGraph {
     };
   }
 
+  /**
+   * Checks if the reduction for the given device is compiled with the single-pass snippets. In this
+   * mode, the number of work-groups is bounded, each work-group stores its partial result into its
+   * own slot of the output array, and the last work-group to finish (detected with an atomic
+   * counter in the last slot) merges them. The SPIR-V backend has no atomics, so it keeps the
+   * default reduction.
+   *
+   * @param driverIndex Index within the Tornado drivers' index
+   * @param device Index of the device within the Tornado's device list.
+   * @return true if the device runs single-pass reductions.
+   */
+  private static boolean isSinglePassReduction(int driverIndex, int device) {
+    if (!TornadoOptions.REDUCE_SINGLE_PASS) {
+      return false;
+    }
+    TornadoVMBackendType backendType =
+        TornadoCoreRuntime.getTornadoRuntime().getBackendType(driverIndex);
+    if (backendType != TornadoVMBackendType.OPENCL && backendType != TornadoVMBackendType.PTX) {
+      return false;
+    }
+    TornadoDeviceType deviceType =
+        TornadoCoreRuntime.getTornadoRuntime()
+            .getBackend(driverIndex)
+            .getDevice(device)
+            .getDeviceType();
+    return deviceType == TornadoDeviceType.GPU || deviceType == TornadoDeviceType.ACCELERATOR;
+  }
+
+  /**
+   * It computes the number of work-groups to launch for a single-pass reduction: enough groups to
+   * fill the device ({@link TornadoOptions#REDUCE_GROUPS_PER_COMPUTE_UNIT} per compute unit), but
+   * never more than one element per thread. The work-group combine runs after the grid-stride loop,
+   * so the global size does not need to divide the input size.
+   *
+   * @param device Input device.
+   * @param inputSize Input size.
+   * @param localWorkGroupSize Local work group size.
+   * @return Number of work-groups.
+   */
+  private static int calculateSinglePassNumGroups(
+      TornadoDevice device, int inputSize, int localWorkGroupSize) {
+    int maxGroups =
+        Math.max(
+            1, device.getAvailableProcessors() * TornadoOptions.REDUCE_GROUPS_PER_COMPUTE_UNIT);
+    return calculateSinglePassNumGroups(inputSize, localWorkGroupSize, maxGroups);
+  }
+
+  private static int calculateSinglePassNumGroups(
+      int inputSize, int localWorkGroupSize, int maxGroups) {
+    int totalGroups = Math.max(1, inputSize / localWorkGroupSize);
+    return Math.min(totalGroups, maxGroups);
+  }
+
   /**
    * It computes the right local work group size for GPUs/FPGAs.
    *
@@ -269,6 +326,25 @@ class ReduceTaskGraph {
     }
   }
 
+  /**
+   * Clears the last slot of a single-pass reduction array. The kernel counts the work-groups that
+   * finished in the first 32 bits of this slot, so all its bits must be zero before the launch.
+   */
+  private void resetSinglePassCounter(Object reduceArray) {
+    switch (reduceArray) {
+      case int[] ints -> ints[ints.length - 1] = 0;
+      case float[] floats -> floats[floats.length - 1] = 0.0f;
+      case double[] doubles -> doubles[doubles.length - 1] = 0.0;
+      case long[] longs -> longs[longs.length - 1] = 0L;
+      case IntArray intArray -> intArray.set(intArray.getSize() - 1, 0);
+      case FloatArray floatArray -> floatArray.set(floatArray.getSize() - 1, 0.0f);
+      case DoubleArray doubleArray -> doubleArray.set(doubleArray.getSize() - 1, 0.0);
+      case LongArray longArray -> longArray.set(longArray.getSize() - 1, 0L);
+      case null, default ->
+          throw new TornadoRuntimeException(EXCEPTION_MESSAGE_ERROR + reduceArray.getClass());
+    }
+  }
+
   private Object createNewReduceArray(Object reduceVariable, int size) {
     if (size == 1) {
       return reduceVariable;
@@ -441,6 +517,34 @@ class ReduceTaskGraph {
     }
   }
 
+  /**
+   * Sets the GLOBAL and LOCAL workgroup size of a single-pass reduction task, so the grid-stride
+   * loop of the kernel visits several elements per thread.
+   *
+   * @return Number of work-groups launched.
+   */
+  private int updateGlobalAndLocalDimensionsSinglePass(
+      final int backendToRun,
+      final int deviceToRun,
+      String taskScheduleReduceName,
+      TaskPackage taskPackage,
+      int inputSize) {
+    TornadoDevice device =
+        TornadoCoreRuntime.getTornadoRuntime().getBackend(backendToRun).getDevice(deviceToRun);
+    int localWorkGroupSize = calculateAcceleratorGroupSize(device, inputSize);
+    int numGroups = calculateSinglePassNumGroups(device, inputSize, localWorkGroupSize);
+    TornadoRuntimeProvider.setProperty(
+        taskScheduleReduceName
+            + "."
+            + taskPackage.getId()
+            + TaskDataContext.GLOBAL_WORKGROUP_SUFFIX,
+        Integer.toString(numGroups * localWorkGroupSize));
+    TornadoRuntimeProvider.setProperty(
+        taskScheduleReduceName + "." + taskPackage.getId() + TaskDataContext.LOCAL_WORKGROUP_SUFFIX,
+        Integer.toString(localWorkGroupSize));
+    return numGroups;
+  }
+
   private Object createHostArrayForHybridMode(
       Object originalReduceArray, TaskPackage taskPackage, int sizeTargetDevice) {
     hybridMode = true;
@@ -542,10 +646,24 @@ class ReduceTaskGraph {
           }
 
           // Set the new array size
-          int sizeReductionArray = obtainSizeArrayResult(backendToRun, deviceToRun, inputSize);
+          int sizeReductionArray;
+          boolean singlePass =
+              !isAheadOfTime() && isSinglePassReduction(backendToRun, deviceToRun);
+          if (singlePass) {
+            int numGroups =
+                updateGlobalAndLocalDimensionsSinglePass(
+                    backendToRun, deviceToRun, taskScheduleReduceName, taskPackage, inputSize);
+            // Result, one partial result per group and the counter of finished groups
+            sizeReductionArray = numGroups + 2;
+          } else {
+            sizeReductionArray = obtainSizeArrayResult(backendToRun, deviceToRun, inputSize);
+          }
           Object newDeviceArray = createNewReduceArray(originalReduceArray, sizeReductionArray);
           Object neutralElement = getNeutralElement(originalReduceArray);
           fillOutputArrayWithNeutral(newDeviceArray, neutralElement);
+          if (singlePass) {
+            resetSinglePassCounter(newDeviceArray);
+          }
 
           neutralElementsNew.put(newDeviceArray, neutralElement);
           neutralElementsOriginal.put(originalReduceArray, neutralElement);
@@ -638,11 +756,27 @@ class ReduceTaskGraph {
         }
 
         List<Object> streamUpdateList = streamReduceTable.get(taskNumber);
+        boolean singlePass = !isAheadOfTime() && isSinglePassReduction(backendToRun, deviceToRun);
 
         for (int i = 0; i < streamUpdateList.size(); i++) {
           Object newArray = streamUpdateList.get(i);
           int sizeReduceArray = sizesReductionArray.get(i);
           for (REDUCE_OPERATION operation : operations) {
+            if (singlePass) {
+              // The last work-group merges the per-group results, so no sequential reduce
+              // task is launched.
+              if (singlePassArrays == null) {
+                singlePassArrays = new HashSet<>();
+              }
+              singlePassArrays.add(newArray);
+              if (hybridMode) {
+                if (hybridMergeTable == null) {
+                  hybridMergeTable = new HashMap<>();
+                }
+                hybridMergeTable.put(newArray, operation);
+              }
+              continue;
+            }
             final String newTaskSequentialName = SEQUENTIAL_TASK_REDUCE_NAME + counterSeqName.get();
             String fullName = rewrittenTaskGraph.getTaskGraphName() + "." + newTaskSequentialName;
             TornadoRuntimeProvider.setProperty(
@@ -766,6 +900,9 @@ class ReduceTaskGraph {
       Object newArray = pair.getKey();
       Object neutralElement = pair.getValue();
       fillOutputArrayWithNeutral(newArray, neutralElement);
+      if (singlePassArrays != null && singlePassArrays.contains(newArray)) {
+        resetSinglePassCounter(newArray);
+      }
 
       // Hybrid Execution
       if (hostHybridVariables != null && hostHybridVariables.containsKey(newArray)) {
@@ -901,7 +1038,7 @@ class ReduceTaskGraph {
    * Copy out the result back to the original buffer.
    *
    * <p>If the hybrid mode is enabled, it performs the final 1D reduction between the two elements
-   * left (one from the accelerator and the other from the CPU)
+   * left (one from the accelerator and the other from the CPU).
    */
   private void updateOutputArrays() {
     joinHostThreads();
@@ -40,6 +40,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -58,11 +59,13 @@ import uk.ac.manchester.tornado.api.GridScheduler;
 import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
 import uk.ac.manchester.tornado.api.KernelContext;
 import uk.ac.manchester.tornado.api.Policy;
+import uk.ac.manchester.tornado.api.SchedulingPolicy;
 import uk.ac.manchester.tornado.api.TaskGraph;
 import uk.ac.manchester.tornado.api.TornadoBackend;
 import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
 import uk.ac.manchester.tornado.api.TornadoRuntime;
 import uk.ac.manchester.tornado.api.TornadoTaskGraphInterface;
+import uk.ac.manchester.tornado.api.common.Access;
 import uk.ac.manchester.tornado.api.common.Event;
 import uk.ac.manchester.tornado.api.common.PrebuiltTaskPackage;
 import uk.ac.manchester.tornado.api.common.SchedulableTask;
@@ -101,6 +104,7 @@ import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.api.types.arrays.LongArray;
 import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
+import uk.ac.manchester.tornado.runtime.TornadoAcceleratorBackend;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
 import uk.ac.manchester.tornado.runtime.TornadoVM;
 import uk.ac.manchester.tornado.runtime.analyzer.MetaReduceCodeAnalysis;
@@ -113,11 +117,15 @@ import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.common.TornadoVMClient;
 import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
 import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
+import uk.ac.manchester.tornado.runtime.costmodel.CostModelScheduler;
+import uk.ac.manchester.tornado.runtime.costmodel.KernelFeatureExtractor;
+import uk.ac.manchester.tornado.runtime.costmodel.KernelFeatures;
 import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoSuitesProvider;
 import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
 import uk.ac.manchester.tornado.runtime.graph.TornadoGraph;
 import uk.ac.manchester.tornado.runtime.graph.TornadoGraphBuilder;
 import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodeBuilder;
+import uk.ac.manchester.tornado.runtime.interpreter.DeviceScheduler;
 import uk.ac.manchester.tornado.runtime.profiler.EmptyProfiler;
 import uk.ac.manchester.tornado.runtime.profiler.TimeProfiler;
 import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
@@ -180,7 +188,13 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
   private List<StreamingObject>
       outputModeObjects; // List of objects with its data transfer mode (OUT)
+
+  private List<Object> persistedObjects; // Objects kept on the device after the execution
+
+  private Map<String, List<Object>>
+      consumedObjects; // Objects shared from the device buffers of other task-graphs
   private ConcurrentHashMap<Policy, Integer> policyTimeTable = new ConcurrentHashMap<>();
+  private CostModelScheduler costModelScheduler;
   private ConcurrentHashMap<Integer, ArrayList<Object>> multiHeapManagerOutputs =
       new ConcurrentHashMap<>();
   private ConcurrentHashMap<Integer, ArrayList<Object>> multiHeapManagerInputs =
@@ -226,6 +240,8 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     streamInObjects = new ArrayList<>();
     inputModesObjects = new ArrayList<>();
     outputModeObjects = new ArrayList<>();
+    persistedObjects = new ArrayList<>();
+    consumedObjects = new HashMap<>();
   }
 
   static void performStreamInObject(
@@ -635,6 +651,61 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     return argumentsLookUp;
   }
 
+  @Override
+  public Set<Object> getAccessedObjects() {
+    Set<Object> accessed = Collections.newSetFromMap(new IdentityHashMap<>());
+    accessed.addAll(argumentsLookUp);
+    for (SchedulableTask task : executionContext.getTasks()) {
+      for (Object argument : task.getArguments()) {
+        if (argument != null && !RuntimeUtilities.isBoxedPrimitive(argument)) {
+          accessed.add(argument);
+        }
+      }
+    }
+    return accessed;
+  }
+
+  /**
+   * Collects the objects that the execution of this task-graph may modify: the task arguments that
+   * the sketcher marked as written, and the objects copied back to the host. Arguments with an
+   * unknown access (e.g., the sketch for the selected device is not built yet) are considered as
+   * written.
+   */
+  @Override
+  public Set<Object> getWrittenObjects() {
+    Set<Object> written = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (SchedulableTask task : executionContext.getTasks()) {
+      Object[] arguments = task.getArguments();
+      Access[] accesses = getArgumentsAccess(task);
+      for (int i = 0; i < arguments.length; i++) {
+        if (arguments[i] == null || RuntimeUtilities.isBoxedPrimitive(arguments[i])) {
+          continue;
+        }
+        if (accesses == null || i >= accesses.length || accesses[i] != Access.READ_ONLY) {
+          written.add(arguments[i]);
+        }
+      }
+    }
+    written.addAll(streamOutObjects);
+    outputModeObjects.forEach(streamingObject -> written.add(streamingObject.getObject()));
+    return written;
+  }
+
+  private Access[] getArgumentsAccess(SchedulableTask task) {
+    if (task instanceof CompilableTask compilableTask) {
+      ResolvedJavaMethod resolvedMethod =
+          TornadoCoreRuntime.getTornadoRuntime().resolveMethod(compilableTask.getMethod());
+      int backendIndex = task.meta().getBackendIndex();
+      int deviceIndex = task.meta().getDeviceIndex();
+      if (!TornadoSketcher.cacheContainsSketch(resolvedMethod, backendIndex, deviceIndex)) {
+        return null;
+      }
+      return TornadoSketcher.lookup(resolvedMethod, backendIndex, deviceIndex)
+          .getArgumentsAccess();
+    }
+    return task.getArgumentsAccess();
+  }
+
   public TornadoTaskGraph createImmutableTaskGraph() {
 
     TornadoTaskGraph newTaskGraph = new TornadoTaskGraph(this.taskGraphName);
@@ -644,6 +715,8 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     newTaskGraph.outputModeObjects = Collections.unmodifiableList(this.outputModeObjects);
 
     newTaskGraph.streamOutObjects = Collections.unmodifiableList(this.streamOutObjects);
+    newTaskGraph.persistedObjects = Collections.unmodifiableList(this.persistedObjects);
+    newTaskGraph.consumedObjects = Collections.unmodifiableMap(this.consumedObjects);
     newTaskGraph.hlBuffer = this.hlBuffer;
 
     newTaskGraph.executionContext = this.executionContext.clone();
@@ -719,6 +792,26 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     meta().disablePrintKernel();
   }
 
+  @Override
+  public void withShapePolymorphicKernels() {
+    meta().enableShapePolymorphism();
+  }
+
+  @Override
+  public void withoutShapePolymorphicKernels() {
+    meta().disableShapePolymorphism();
+  }
+
+  @Override
+  public void withSharedVirtualMemory() {
+    meta().enableSharedVirtualMemory();
+  }
+
+  @Override
+  public void withoutSharedVirtualMemory() {
+    meta().disableSharedVirtualMemory();
+  }
+
   @Override
   public void withGridScheduler(GridScheduler gridScheduler) {
     this.gridScheduler = gridScheduler;
@@ -1100,7 +1193,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
   }
 
   private void updateProfiler() {
-    if (!TornadoOptions.isProfilerEnabled()) {
+    if (!executionContext.isProfilerEnabled()) {
       return;
     }
 
@@ -1291,6 +1384,120 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     }
   }
 
+  @Override
+  public void persistOnDevice(Object... objects) {
+    for (Object parameter : objects) {
+      if (parameter == null) {
+        throw new TornadoRuntimeException(
+            "[ERROR] null object passed into persistOnDevice() in schedule "
+                + executionContext.getId());
+      }
+      if (isANumber(parameter) && !isAtomic(parameter)) {
+        throw new TornadoRuntimeException(
+            "[ERROR] Scalar value cannot be persisted on the device. Use an array or a vector-type"
+                + " instead");
+      }
+
+      // The buffer is locked to keep it allocated after the execution of the task-graph
+      if (!persistedObjects.contains(parameter)) {
+        lockObjectsInMemory(parameter);
+        persistedObjects.add(parameter);
+      }
+      argumentsLookUp.add(parameter);
+    }
+  }
+
+  @Override
+  public void consumeFromDevice(String taskGraphName, Object... objects) {
+    if (taskGraphName.equals(this.taskGraphName)) {
+      throw new TornadoRuntimeException(
+          "[ERROR] Task-graph <" + taskGraphName + "> cannot consume its own objects");
+    }
+    List<Object> consumedList =
+        consumedObjects.computeIfAbsent(taskGraphName, k -> new ArrayList<>());
+    for (Object parameter : objects) {
+      if (parameter == null) {
+        throw new TornadoRuntimeException(
+            "[ERROR] null object passed into consumeFromDevice() in schedule "
+                + executionContext.getId());
+      }
+      if (isANumber(parameter)) {
+        continue;
+      }
+
+      // Consumed objects behave as read-only inputs that are already present on the device, so
+      // they are never copied from the host
+      executionContext.getLocalStateObject(parameter).setStreamIn(false);
+      inputModesObjects.add(new StreamingObject(DataTransferMode.FIRST_EXECUTION, parameter));
+      consumedList.add(parameter);
+      argumentsLookUp.add(parameter);
+    }
+  }
+
+  @Override
+  public Set<String> getConsumedTaskGraphNames() {
+    return consumedObjects.keySet();
+  }
+
+  /**
+   * Links the device buffers of the consumed objects to the buffers persisted by the producer
+   * task-graph. The producer keeps the ownership of the buffers: the states of this task-graph are
+   * marked as shared, so they are never released from this task-graph.
+   *
+   * @param producerTaskGraph Task-graph that persisted the objects on the device.
+   */
+  @Override
+  public void updateConsumedObjectStates(TornadoTaskGraphInterface producerTaskGraph) {
+    List<Object> objects = consumedObjects.get(producerTaskGraph.getTaskGraphName());
+    if (objects == null || objects.isEmpty()) {
+      return;
+    }
+    TornadoTaskGraph producer = (TornadoTaskGraph) producerTaskGraph;
+    final TornadoXPUDevice device = meta().getXPUDevice();
+    final TornadoXPUDevice producerDevice = producer.meta().getXPUDevice();
+    if (!device.equals(producerDevice)) {
+      throw new TornadoRuntimeException(
+          "[ERROR] Task-graph <"
+              + taskGraphName
+              + "> consumes objects from task-graph <"
+              + producer.getTaskGraphName()
+              + "> on a different device. Both task-graphs must run on the same device");
+    }
+    for (Object object : objects) {
+      if (!producer.persistedObjects.contains(object)) {
+        throw new TornadoRuntimeException(
+            "[ERROR] Object <"
+                + object
+                + "> is not persisted on the device by task-graph <"
+                + producer.getTaskGraphName()
+                + ">");
+      }
+      final XPUDeviceBufferState producerState =
+          producer
+              .executionContext
+              .getLocalStateObject(object)
+              .getDataObjectState()
+              .getDeviceBufferState(producerDevice);
+      if (!producerState.hasObjectBuffer()) {
+        throw new TornadoRuntimeException(
+            "[ERROR] Object <"
+                + object
+                + "> has not been allocated on the device by task-graph <"
+                + producer.getTaskGraphName()
+                + ">. Task-graphs that persist objects must run first");
+      }
+      final XPUDeviceBufferState deviceState =
+          executionContext
+              .getLocalStateObject(object)
+              .getDataObjectState()
+              .getDeviceBufferState(device);
+      deviceState.setXPUBuffer(producerState.getXPUBuffer());
+      deviceState.setContents(true);
+      deviceState.setLockBuffer(true);
+      deviceState.setSharedBuffer(true);
+    }
+  }
+
   @Override
   public void dump() {
     final int width = 16;
@@ -1366,7 +1573,9 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         inputStreamObject -> freeDeviceMemoryObject(inputStreamObject.getObject()));
     outputModeObjects.forEach(
         outputStreamObject -> freeDeviceMemoryObject(outputStreamObject.getObject()));
+    persistedObjects.forEach(this::freeDeviceMemoryObject);
     meta().getXPUDevice().getDeviceContext().reset(executionPlanId);
+    DeviceScheduler.releaseAll(executionContext);
   }
 
   private void freeDeviceMemoryObject(Object object) {
@@ -1378,6 +1587,14 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
       final LocalObjectState localState, final TornadoDevice device) {
     final DataObjectState dataObjectState = localState.getDataObjectState();
     final XPUDeviceBufferState deviceBufferState = dataObjectState.getDeviceBufferState(device);
+    if (deviceBufferState.isSharedBuffer()) {
+      // The buffer is owned by the task-graph that persisted it. We only unlink it.
+      deviceBufferState.setXPUBuffer(null);
+      deviceBufferState.setContents(false);
+      deviceBufferState.setLockBuffer(false);
+      deviceBufferState.setSharedBuffer(false);
+      return;
+    }
     deviceBufferState.setLockBuffer(false);
     if (deviceBufferState.hasObjectBuffer()) {
       device.deallocate(deviceBufferState);
@@ -1484,7 +1701,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
       }
     }
 
-    if (TornadoOptions.isProfilerEnabled()) {
+    if (executionContext.isProfilerEnabled()) {
 
       /*
        * Clean the profiler. It avoids the possibility of reporting the `execute`
@@ -1528,7 +1745,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
       event = syncParameter(object, offset, partialCopySize);
     }
 
-    if (TornadoOptions.isProfilerEnabled()) {
+    if (executionContext.isProfilerEnabled()) {
       timeProfiler.clean();
       if (event != null) {
         long value = timeProfiler.getTimer(ProfilerType.COPY_OUT_TIME_SYNC);
@@ -1740,8 +1957,16 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
   @Override
   public TornadoTaskGraphInterface execute(ExecutorFrame executionPackage) {
     executionPlanId = executionPackage.getExecutionPlanId();
+    SchedulingPolicy schedulingPolicy = executionPackage.getSchedulingPolicy();
+    if (schedulingPolicy == null && TornadoOptions.DEVICE_SCHEDULER) {
+      schedulingPolicy = SchedulingPolicy.DEFAULT;
+    }
+    executionContext.setScheduling(executionPackage.getTenantId(), schedulingPolicy);
+    executionContext.setProfilerSampled(executionPackage.isProfilerSampled());
     if (executionPackage.getDynamicReconfigurationPolicy() == null) {
       return execute();
+    } else if (executionPackage.getDynamicReconfigurationPolicy() == Policy.COST_MODEL) {
+      return scheduleWithCostModel();
     } else {
       if (executionPackage.getDRMode() == DRMode.SERIAL) {
         return scheduleDynamicReconfigurationSequential(
@@ -2259,6 +2484,45 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     return this;
   }
 
+  private KernelFeatures extractKernelFeatures() {
+    KernelFeatures features = null;
+    for (SchedulableTask task : executionContext.getTasks()) {
+      KernelFeatures taskFeatures;
+      if (task instanceof CompilableTask compilableTask) {
+        ResolvedJavaMethod resolvedMethod =
+            TornadoCoreRuntime.getTornadoRuntime().resolveMethod(compilableTask.getMethod());
+        Sketch sketch =
+            TornadoSketcher.lookup(
+                resolvedMethod, task.meta().getBackendIndex(), task.meta().getDeviceIndex());
+        taskFeatures =
+            KernelFeatureExtractor.extract(sketch.getGraph(), compilableTask.getArguments());
+      } else {
+        taskFeatures = KernelFeatureExtractor.extract(task.getArguments());
+      }
+      features = features == null ? taskFeatures : features.merge(taskFeatures);
+    }
+    return features;
+  }
+
+  private TornadoTaskGraphInterface scheduleWithCostModel() {
+    if (costModelScheduler == null) {
+      costModelScheduler = new CostModelScheduler(extractKernelFeatures());
+    }
+    TornadoAcceleratorBackend backend =
+        TornadoCoreRuntime.getTornadoRuntime().getBackend(DEFAULT_DRIVER_INDEX);
+    List<TornadoDevice> devices = new ArrayList<>();
+    for (int i = 0; i < backend.getNumDevices(); i++) {
+      devices.add(backend.getDevice(i));
+    }
+
+    int deviceIndex = costModelScheduler.selectDevice(devices);
+    policyTimeTable.put(Policy.COST_MODEL, deviceIndex);
+    long start = System.nanoTime();
+    runTaskGraphParallelSelected(deviceIndex);
+    costModelScheduler.update(deviceIndex, System.nanoTime() - start);
+    return this;
+  }
+
   private Object cloneObject(Object o) {
     if (o instanceof float[] cloneFloat) {
       return cloneFloat.clone();
@@ -65,6 +65,8 @@ public abstract class AbstractRTContext implements TaskContextInterface {
   private boolean threadInfoEnabled;
   private boolean printKernel;
   private boolean resetThreads;
+  private boolean shapePolymorphic;
+  private boolean sharedVirtualMemory;
 
   private final boolean isOpenclGpuBlockXDefined;
   private final int openclGpuBlockX;
@@ -105,6 +107,7 @@ public abstract class AbstractRTContext implements TaskContextInterface {
 
     threadInfoEnabled = TornadoOptions.THREAD_INFO;
     printKernel = TornadoOptions.PRINT_KERNEL_SOURCE;
+    shapePolymorphic = TornadoOptions.SHAPE_POLYMORPHIC_KERNELS;
 
     compilerOptionsPerBackend = new ConcurrentHashMap<>();
     compilerOptionsPerBackend.put(
@@ -373,6 +376,36 @@ public abstract class AbstractRTContext implements TaskContextInterface {
     this.printKernel = false;
   }
 
+  @Override
+  public boolean isShapePolymorphicEnabled() {
+    return shapePolymorphic;
+  }
+
+  @Override
+  public void setShapePolymorphicFlag(boolean shapePolymorphicEnabled) {
+    this.shapePolymorphic = shapePolymorphicEnabled;
+  }
+
+  public void enableShapePolymorphism() {
+    this.shapePolymorphic = true;
+  }
+
+  public void disableShapePolymorphism() {
+    this.shapePolymorphic = false;
+  }
+
+  public boolean isSharedVirtualMemoryEnabled() {
+    return sharedVirtualMemory;
+  }
+
+  public void enableSharedVirtualMemory() {
+    this.sharedVirtualMemory = true;
+  }
+
+  public void disableSharedVirtualMemory() {
+    this.sharedVirtualMemory = false;
+  }
+
   public void setThreadInfoEnabled(boolean threadInfoEnabled) {
     this.threadInfoEnabled = threadInfoEnabled;
   }
@@ -25,32 +25,136 @@ package uk.ac.manchester.tornado.runtime.tasks.meta;
 
 import java.util.Arrays;
 
+/**
+ * Thread-coarsening configuration of a task. For each parallel dimension, the coarseness is the
+ * number of loop iterations that a single thread processes. A coarseness of {@code c} reduces the
+ * global work size of the dimension by {@code c}.
+ *
+ * <p>The generated kernels are independent of the coarsening factors, since the parallel loops
+ * are always compiled with a loop that covers the iteration space with the number of threads
+ * launched. Therefore, factors can be changed between executions without recompilation. The {@link
+ * Layout} selects how the iterations are assigned to each thread, and it is applied at compile
+ * time by the thread-coarsening phase of each backend.
+ */
 public class Coarseness {
 
+  public static final String COARSENESS_SUFFIX = ".coarseness";
+  public static final String LAYOUT_SUFFIX = ".coarseness.layout";
+
+  /** Assignment of loop iterations to threads when coarsening. */
+  public enum Layout {
+    /**
+     * Each thread processes iterations separated by the total number of threads (grid-stride).
+     * Consecutive threads access consecutive elements, which keeps memory accesses coalesced on
+     * GPUs.
+     */
+    STRIDED,
+    /**
+     * Each thread processes a contiguous block of iterations. This improves the locality per
+     * thread, which is preferred on CPUs.
+     */
+    CONSECUTIVE
+  }
+
   private final int[] values;
+  private Layout layout;
 
   public Coarseness(int depth) {
     values = new int[depth];
     Arrays.fill(values, 1);
   }
 
+  /**
+   * Computes the number of threads to launch for a dimension when each thread processes {@code
+   * factor} iterations. If a local work size is given, the result is rounded up to a multiple of
+   * it.
+   *
+   * @param threads Number of threads without coarsening.
+   * @param factor Coarsening factor.
+   * @param local Local work size of the dimension, or 0 if it is not defined.
+   * @return Number of threads to launch.
+   */
+  public static long coarsen(long threads, int factor, long local) {
+    if (factor <= 1 || threads <= 1) {
+      return threads;
+    }
+    long value = Math.max(1, (threads + factor - 1) / factor);
+    if (local > 1) {
+      value = ((value + local - 1) / local) * local;
+    }
+    return value;
+  }
+
+  /**
+   * Applies the coarsening factors to a global work size.
+   *
+   * @param globalWork Number of threads per dimension without coarsening.
+   * @param localWork Local work sizes, or null if the driver selects them.
+   * @param factors Coarsening factor per dimension.
+   * @return The coarsened global work, or {@code globalWork} if all factors are 1.
+   */
+  public static long[] coarsen(long[] globalWork, long[] localWork, int[] factors) {
+    if (factors == null || isIdentity(factors)) {
+      return globalWork;
+    }
+    long[] result = globalWork.clone();
+    for (int i = 0; i < Math.min(result.length, factors.length); i++) {
+      long local = (localWork != null && i < localWork.length) ? localWork[i] : 0;
+      result[i] = coarsen(result[i], factors[i], local);
+    }
+    return result;
+  }
+
+  private static boolean isIdentity(int[] factors) {
+    for (int factor : factors) {
+      if (factor > 1) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   public void applyConfig(String config) {
     String[] str = config.split(",");
-    for (int i = 0; i < values.length; i++) {
-      values[i] = Integer.parseInt(str[i]);
+    for (int i = 0; i < Math.min(values.length, str.length); i++) {
+      values[i] = Math.max(1, Integer.parseInt(str[i].trim()));
     }
   }
 
+  public void applyLayout(String config) {
+    layout = Layout.valueOf(config.trim().toUpperCase());
+  }
+
   public int getCoarseness(int index) {
     return values[index];
   }
 
   public void setCoarseness(int index, int value) {
-    values[index] = value;
+    values[index] = Math.max(1, value);
+  }
+
+  public int[] getValues() {
+    return values;
+  }
+
+  public boolean isCoarsened() {
+    return !isIdentity(values);
+  }
+
+  /**
+   * Returns the layout requested for the task, or null if the backend uses the default layout of
+   * the device.
+   */
+  public Layout getLayout() {
+    return layout;
+  }
+
+  public void setLayout(Layout layout) {
+    this.layout = layout;
   }
 
   @Override
   public String toString() {
-    return Arrays.toString(values);
+    return Arrays.toString(values) + (layout != null ? " " + layout : "");
   }
 }
@@ -51,11 +51,15 @@ public class TaskDataContext extends AbstractRTContext {
   private final int localSize;
   protected Access[] argumentsAccess;
   protected DomainTree domain;
+  private DomainTree argumentDependentDomain;
+  private Coarseness coarseness;
+  private boolean shapeSpecialisationRequired;
   private long[] globalOffset;
   private long[] globalWork;
   private long[] localWork;
   private boolean localWorkDefined;
   private boolean globalWorkDefined;
+  private int localMemoryTile;
 
   public TaskDataContext(ScheduleContext scheduleMetaData, String taskID, int numParameters) {
     super(scheduleMetaData.getId() + "." + taskID, scheduleMetaData);
@@ -179,12 +183,16 @@ public class TaskDataContext extends AbstractRTContext {
   public void setDomain(final DomainTree value) {
 
     domain = value;
-    Coarseness coarseness = new Coarseness(domain.getDepth());
+    coarseness = new Coarseness(domain.getDepth());
 
-    final String config = getProperty(getId() + ".coarseness");
+    final String config = getProperty(getId() + Coarseness.COARSENESS_SUFFIX);
     if (config != null && !config.isEmpty()) {
       coarseness.applyConfig(config);
     }
+    final String layout = getProperty(getId() + Coarseness.LAYOUT_SUFFIX);
+    if (layout != null && !layout.isEmpty()) {
+      coarseness.applyLayout(layout);
+    }
 
     final int dims = domain.getDepth();
     globalOffset = new long[dims];
@@ -201,6 +209,94 @@ public class TaskDataContext extends AbstractRTContext {
     }
   }
 
+  /**
+   * Returns the thread-coarsening configuration of the task, or null if the task has no domain.
+   *
+   * @return {@link Coarseness}
+   */
+  public Coarseness getCoarseness() {
+    return coarseness;
+  }
+
+  /**
+   * Applies thread coarsening to the number of threads to launch. The factors of the worker grid of
+   * the task take precedence over the factors of the task ({@code <task>.coarseness}). Only tasks
+   * with parallel loops are coarsened, since kernels written with the {@link
+   * uk.ac.manchester.tornado.api.KernelContext} API index data directly with the thread-id. Kernels
+   * tiled in local memory are not coarsened either.
+   *
+   * @param globalWork Number of threads per dimension without coarsening.
+   * @param localWork Local work sizes, or null if the driver selects them.
+   * @return The global work to launch.
+   */
+  public long[] coarsenGlobalWork(long[] globalWork, long[] localWork) {
+    if (!isParallel() || isLocalMemoryTiled()) {
+      return globalWork;
+    }
+    int[] factors = null;
+    if (isWorkerGridAvailable()) {
+      factors = getWorkerGrid(getId()).getCoarseness();
+    }
+    if (factors == null && coarseness != null) {
+      factors = coarseness.getValues();
+    }
+    return Coarseness.coarsen(globalWork, localWork, factors);
+  }
+
+  /**
+   * Records that the kernel of the task stages data into local memory in square tiles of the given
+   * size. The local work is fixed to the tile size in each dimension, and the global work is not
+   * coarsened, since every thread of a work-group loads one element of each tile.
+   *
+   * @param tile Number of threads per dimension of a work-group.
+   */
+  public void setLocalMemoryTile(int tile) {
+    localMemoryTile = tile;
+    long[] local = new long[getDims()];
+    Arrays.fill(local, tile);
+    setLocalWork(local);
+  }
+
+  public boolean isLocalMemoryTiled() {
+    return localMemoryTile > 0;
+  }
+
+  /**
+   * Sets a domain whose loop bounds are taken from the task arguments (shape-polymorphic kernels).
+   * The concrete domain is resolved with the given arguments.
+   *
+   * @param value {@link DomainTree} with argument-dependent domains.
+   * @param args Task arguments.
+   */
+  public void setArgumentDependentDomain(final DomainTree value, Object[] args) {
+    argumentDependentDomain = value;
+    setDomain(value.resolve(args));
+  }
+
+  public DomainTree getArgumentDependentDomain() {
+    return argumentDependentDomain;
+  }
+
+  public boolean hasArgumentDependentDomain() {
+    return argumentDependentDomain != null;
+  }
+
+  /**
+   * Marks that the shape-polymorphic compilation could not express the loop bounds of this task as
+   * kernel arguments, and the kernel must be specialised with the sizes of the current arguments.
+   */
+  public void requireShapeSpecialisation() {
+    shapeSpecialisationRequired = true;
+  }
+
+  public boolean isShapeSpecialisationRequired() {
+    return shapeSpecialisationRequired;
+  }
+
+  public void resetShapeSpecialisation() {
+    shapeSpecialisationRequired = false;
+  }
+
   public long[] getGlobalOffset() {
     return globalOffset;
   }
@@ -296,6 +392,9 @@ public class TaskDataContext extends AbstractRTContext {
     deviceDebug.append(
         "\tBackend           : " + getXPUDevice().getTornadoVMBackend().name() + "\n");
     deviceDebug.append("\tDevice            : " + getXPUDevice().getDescription() + "\n");
+    if (coarseness != null && coarseness.isCoarsened()) {
+      deviceDebug.append("\tCoarseness        : " + coarseness + "\n");
+    }
     deviceDebug.append(
         "\tDims              : "
             + (this.isWorkerGridAvailable()
@@ -310,7 +409,10 @@ public class TaskDataContext extends AbstractRTContext {
     }
 
     long[] workGroups =
-        this.isWorkerGridAvailable() ? getWorkerGrid(getId()).getGlobalWork() : globalWork;
+        this.isWorkerGridAvailable()
+            ? coarsenGlobalWork(
+                getWorkerGrid(getId()).getGlobalWork(), getWorkerGrid(getId()).getLocalWork())
+            : globalWork;
 
     if (deviceBelongsToPTX) {
       deviceDebug.append(
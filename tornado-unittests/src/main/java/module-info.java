@@ -1,8 +1,10 @@
 open module tornado.unittests {
   requires transitive junit;
   requires transitive tornado.api;
+  requires tornado.matrices;
   requires lucene.core;
   requires java.desktop;
+  requires jdk.jfr;
   requires jdk.incubator.vector;
   requires com.microsoft.onnxruntime;
 
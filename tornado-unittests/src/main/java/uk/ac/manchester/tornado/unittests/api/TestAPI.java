@@ -500,5 +500,44 @@ public class TestAPI extends TornadoTestBase {
     }
   }
 
+  @Test
+  public void testHalfFloatPrimitiveAccessors() {
+    final int n = 16;
+    HalfFloatArray halfFloatArray = new HalfFloatArray(n);
+    for (int i = 0; i < n; i++) {
+      halfFloatArray.setFloat(i, i * 0.5f);
+    }
+    for (int i = 0; i < n; i++) {
+      assertEquals(i * 0.5f, halfFloatArray.getFloat(i), 0.001f);
+      assertEquals(Float.floatToFloat16(i * 0.5f), halfFloatArray.getShort(i));
+    }
+    halfFloatArray.setShort(3, Float.floatToFloat16(-2.0f));
+    assertEquals(-2.0f, halfFloatArray.get(3).getFloat32(), 0.001f);
+  }
+
+  @Test
+  public void testHalfFloatBulkConversion() {
+    // Odd size to exercise the scalar tail of the vector loops
+    final int n = 1027;
+    FloatArray input = new FloatArray(n);
+    for (int i = 0; i < n; i++) {
+      input.set(i, (i - 512) * 0.37f);
+    }
+    input.set(0, Float.POSITIVE_INFINITY);
+    input.set(1, 1.0e-7f);
+    input.set(2, 70000.0f);
+    input.set(3, -0.0f);
+
+    HalfFloatArray halfFloatArray = HalfFloatArray.fromFloatArray(input);
+    for (int i = 0; i < n; i++) {
+      assertEquals(Float.floatToFloat16(input.get(i)), halfFloatArray.getShort(i));
+    }
+
+    FloatArray output = halfFloatArray.toFloatArray();
+    for (int i = 0; i < n; i++) {
+      assertEquals(Float.float16ToFloat(halfFloatArray.getShort(i)), output.get(i), 0.0f);
+    }
+  }
+
   // CHECKSTYLE:ON
 }
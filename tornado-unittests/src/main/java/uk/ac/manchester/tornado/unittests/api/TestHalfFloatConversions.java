@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.api;
+
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_SHORT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
+import org.junit.Test;
+import uk.ac.manchester.tornado.api.types.utils.HalfFloatConversions;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the bulk float-32 / float-16 conversions. Every input is converted in an array longer
+ * than the vector species, so both the vector loop and the scalar tail are checked.
+ *
+ * <p>How to run?
+ *
+ * <p><code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.api.TestHalfFloatConversions
+ * </code>
+ */
+public class TestHalfFloatConversions extends TornadoTestBase {
+
+  // Vector lanes plus a scalar tail for any species
+  private static final int LENGTH = 67;
+
+  private static final int FLOAT_QUIET_NAN = 0x00400000;
+  private static final short HALF_EXPONENT = 0x7c00;
+  private static final short HALF_QUIET_NAN = 0x0200;
+
+  private static int[] halfToFloat(short... halves) {
+    try (Arena arena = Arena.ofConfined()) {
+      MemorySegment src = arena.allocate((long) halves.length * Short.BYTES);
+      MemorySegment dst = arena.allocate((long) halves.length * Float.BYTES);
+      for (int i = 0; i < halves.length; i++) {
+        src.setAtIndex(JAVA_SHORT, i, halves[i]);
+      }
+      HalfFloatConversions.halfToFloat(src, 0, dst, 0, halves.length);
+      return dst.toArray(JAVA_INT);
+    }
+  }
+
+  private static short[] floatToHalf(int... floatBits) {
+    try (Arena arena = Arena.ofConfined()) {
+      MemorySegment src = arena.allocate((long) floatBits.length * Float.BYTES);
+      MemorySegment dst = arena.allocate((long) floatBits.length * Short.BYTES);
+      for (int i = 0; i < floatBits.length; i++) {
+        src.setAtIndex(JAVA_INT, i, floatBits[i]);
+      }
+      HalfFloatConversions.floatToHalf(src, 0, dst, 0, floatBits.length);
+      return dst.toArray(JAVA_SHORT);
+    }
+  }
+
+  private static int halfToFloatBits(int half) {
+    short[] halves = new short[LENGTH];
+    Arrays.fill(halves, (short) half);
+    int[] floatBits = halfToFloat(halves);
+    for (int i = 1; i < LENGTH; i++) {
+      assertEquals("Element " + i, floatBits[0], floatBits[i]);
+    }
+    return floatBits[0];
+  }
+
+  private static short floatToHalfBits(float value) {
+    int[] floatBits = new int[LENGTH];
+    Arrays.fill(floatBits, Float.floatToRawIntBits(value));
+    return floatToHalfBits(floatBits);
+  }
+
+  private static short floatToHalfBits(int[] floatBits) {
+    short[] halves = floatToHalf(floatBits);
+    for (int i = 1; i < LENGTH; i++) {
+      assertEquals("Element " + i, halves[0], halves[i]);
+    }
+    return halves[0];
+  }
+
+  @Test
+  public void testSignalingNaN() {
+    // Signaling NaNs are quieted and keep their payload
+    assertEquals(0x7fe00000, halfToFloatBits(0x7d00));
+    assertEquals(0x7fc02000, halfToFloatBits(0x7c01));
+    assertEquals(0xffe00000, halfToFloatBits(0xfd00));
+
+    int[] signalingNaN = new int[LENGTH];
+    Arrays.fill(signalingNaN, 0x7f800001);
+    short half = floatToHalfBits(signalingNaN);
+    assertEquals(HALF_EXPONENT, half & HALF_EXPONENT);
+    assertEquals(HALF_QUIET_NAN, half & HALF_QUIET_NAN);
+    assertEquals(0, half & 0x8000);
+  }
+
+  @Test
+  public void testQuietNaN() {
+    assertEquals(0x7fc00000, halfToFloatBits(0x7e00));
+    assertEquals(0x7fc02000, halfToFloatBits(0x7e01));
+    assertEquals(0xffc00000, halfToFloatBits(0xfe00));
+
+    assertEquals((short) 0x7e00, floatToHalfBits(Float.intBitsToFloat(0x7fc00000)));
+    assertEquals((short) 0xfe00, floatToHalfBits(Float.intBitsToFloat(0xffc00000)));
+  }
+
+  @Test
+  public void testAllHalfValues() {
+    short[] halves = new short[1 << 16];
+    for (int i = 0; i < halves.length; i++) {
+      halves[i] = (short) i;
+    }
+    int[] floatBits = halfToFloat(halves);
+    // Every half value is exact in float-32, so the round trip gives the same bits
+    short[] roundTrip = floatToHalf(floatBits);
+    for (int i = 0; i < halves.length; i++) {
+      float expected = Float.float16ToFloat(halves[i]);
+      if (Float.isNaN(expected)) {
+        assertNotEquals(0, floatBits[i] & FLOAT_QUIET_NAN);
+        assertEquals(Float.floatToRawIntBits(expected) | FLOAT_QUIET_NAN, floatBits[i]);
+        assertEquals(halves[i] | HALF_QUIET_NAN, roundTrip[i]);
+      } else {
+        assertEquals(Float.floatToRawIntBits(expected), floatBits[i]);
+        assertEquals(halves[i], roundTrip[i]);
+      }
+    }
+  }
+
+  @Test
+  public void testInfinity() {
+    assertEquals(0x7f800000, halfToFloatBits(0x7c00));
+    assertEquals(0xff800000, halfToFloatBits(0xfc00));
+
+    assertEquals((short) 0x7c00, floatToHalfBits(Float.POSITIVE_INFINITY));
+    assertEquals((short) 0xfc00, floatToHalfBits(Float.NEGATIVE_INFINITY));
+    assertEquals((short) 0x7c00, floatToHalfBits(1.0e10f));
+    assertEquals((short) 0xfc00, floatToHalfBits(-1.0e10f));
+  }
+
+  @Test
+  public void testSubnormals() {
+    // Smallest and largest half subnormals
+    assertEquals(Float.floatToRawIntBits(0x1.0p-24f), halfToFloatBits(0x0001));
+    assertEquals(Float.floatToRawIntBits(0x1.ff8p-15f), halfToFloatBits(0x03ff));
+    assertEquals(Float.floatToRawIntBits(-0x1.0p-24f), halfToFloatBits(0x8001));
+
+    assertEquals((short) 0x0001, floatToHalfBits(0x1.0p-24f));
+    assertEquals((short) 0x03ff, floatToHalfBits(0x1.ff8p-15f));
+    assertEquals((short) 0x8001, floatToHalfBits(-0x1.0p-24f));
+    // Values below half the smallest subnormal flush to signed zero
+    assertEquals((short) 0x0000, floatToHalfBits(0x1.0p-26f));
+    assertEquals((short) 0x8000, floatToHalfBits(-0x1.0p-26f));
+    // Float-32 subnormals
+    assertEquals((short) 0x0000, floatToHalfBits(Float.MIN_VALUE));
+  }
+
+  @Test
+  public void testRoundToNearestEvenTies() {
+    // Normal values: 1 + 2^-11 is halfway between 1 and 1 + 2^-10
+    assertEquals((short) 0x3c00, floatToHalfBits(1.0f + 0x1.0p-11f));
+    assertEquals((short) 0x3c02, floatToHalfBits(1.0f + 0x1.8p-10f));
+    assertEquals((short) 0xbc02, floatToHalfBits(-(1.0f + 0x1.8p-10f)));
+    assertEquals((short) 0x6800, floatToHalfBits(2049.0f));
+    assertEquals((short) 0x6802, floatToHalfBits(2051.0f));
+    // Just above a tie rounds up
+    assertEquals((short) 0x3c01, floatToHalfBits(Math.nextUp(1.0f + 0x1.0p-11f)));
+
+    // Subnormal values: 2^-25 is halfway between 0 and the smallest subnormal
+    assertEquals((short) 0x0000, floatToHalfBits(0x1.0p-25f));
+    assertEquals((short) 0x0002, floatToHalfBits(0x1.8p-24f));
+    assertEquals((short) 0x0001, floatToHalfBits(Math.nextUp(0x1.0p-25f)));
+
+    // Overflow: 65520 is halfway between the largest half (65504) and 65536
+    assertEquals((short) 0x7c00, floatToHalfBits(65520.0f));
+    assertEquals((short) 0x7bff, floatToHalfBits(Math.nextDown(65520.0f)));
+  }
+}
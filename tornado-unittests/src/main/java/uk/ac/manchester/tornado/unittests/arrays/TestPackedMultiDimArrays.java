@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import org.junit.Test;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+import uk.ac.manchester.tornado.unittests.tools.Exceptions.UnsupportedConfigurationException;
+
+/**
+ * Multi-dimensional Java arrays with the per-row device layout and with the packed device layout
+ * ({@code -Dtornado.multidim.packed=True}). Results are checked against the sequential execution,
+ * so the same tests validate both layouts.
+ *
+ * <p>How to run? <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.arrays.TestPackedMultiDimArrays
+ * tornado-test -V --jvm="-Dtornado.multidim.packed=True"
+ * uk.ac.manchester.tornado.unittests.arrays.TestPackedMultiDimArrays
+ * </code>
+ */
+public class TestPackedMultiDimArrays extends TornadoTestBase {
+
+  private static final boolean PACKED =
+      Boolean.parseBoolean(System.getProperty("tornado.multidim.packed", "False"));
+
+  public static void add(float[][] a, float[][] b, float[][] c) {
+    for (@Parallel int i = 0; i < a.length; i++) {
+      for (@Parallel int j = 0; j < a[i].length; j++) {
+        c[i][j] = a[i][j] + b[i][j];
+      }
+    }
+  }
+
+  public static void add(double[][] a, double[][] b, double[][] c) {
+    for (@Parallel int i = 0; i < a.length; i++) {
+      for (@Parallel int j = 0; j < a[i].length; j++) {
+        c[i][j] = a[i][j] + b[i][j];
+      }
+    }
+  }
+
+  public static void add(long[][] a, long[][] b, long[][] c) {
+    for (@Parallel int i = 0; i < a.length; i++) {
+      for (@Parallel int j = 0; j < a[i].length; j++) {
+        c[i][j] = a[i][j] + b[i][j];
+      }
+    }
+  }
+
+  public static void scale(int[][] a, int[][] b) {
+    for (@Parallel int i = 0; i < a.length; i++) {
+      for (int j = 0; j < a[i].length; j++) {
+        b[i][j] = a[i][j] * 3 + i;
+      }
+    }
+  }
+
+  public static void scale(short[][] a, short[][] b) {
+    for (@Parallel int i = 0; i < a.length; i++) {
+      for (int j = 0; j < a[i].length; j++) {
+        b[i][j] = (short) (a[i][j] * 3 + i);
+      }
+    }
+  }
+
+  public static void increment(float[][] a, float[][] b) {
+    for (@Parallel int i = 0; i < a.length; i++) {
+      for (@Parallel int j = 0; j < a[i].length; j++) {
+        b[i][j] = a[i][j] + 100;
+      }
+    }
+  }
+
+  /** Row lengths that are not a multiple of the row alignment and differ between rows. */
+  private static int raggedLength(int row) {
+    return 1 + (row * 13) % 37;
+  }
+
+  @Test
+  public void testRectangularFloat() throws TornadoExecutionPlanException {
+    // 100 floats per row, so rows are padded to the alignment of the packed layout
+    final int rows = 256;
+    final int columns = 100;
+    Random random = new Random(7);
+    float[][] a = new float[rows][columns];
+    float[][] b = new float[rows][columns];
+    float[][] c = new float[rows][columns];
+    float[][] expected = new float[rows][columns];
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < columns; j++) {
+        a[i][j] = random.nextFloat();
+        b[i][j] = random.nextFloat();
+      }
+    }
+    add(a, b, expected);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+            .task("t0", TestPackedMultiDimArrays::add, a, b, c) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+      executionPlan.execute();
+    }
+
+    for (int i = 0; i < rows; i++) {
+      assertArrayEquals(expected[i], c[i], DELTA);
+    }
+  }
+
+  @Test
+  public void testRectangularDouble() throws TornadoExecutionPlanException {
+    final int rows = 64;
+    final int columns = 33;
+    double[][] a = new double[rows][columns];
+    double[][] b = new double[rows][columns];
+    double[][] c = new double[rows][columns];
+    double[][] expected = new double[rows][columns];
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < columns; j++) {
+        a[i][j] = i * 0.5 + j;
+        b[i][j] = j * 0.25 - i;
+      }
+    }
+    add(a, b, expected);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+            .task("t0", TestPackedMultiDimArrays::add, a, b, c) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+      executionPlan.execute();
+    }
+
+    for (int i = 0; i < rows; i++) {
+      assertArrayEquals(expected[i], c[i], DELTA);
+    }
+  }
+
+  @Test
+  public void testRectangularLong() throws TornadoExecutionPlanException {
+    final int rows = 31;
+    final int columns = 17;
+    long[][] a = new long[rows][columns];
+    long[][] b = new long[rows][columns];
+    long[][] c = new long[rows][columns];
+    long[][] expected = new long[rows][columns];
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < columns; j++) {
+        a[i][j] = (long) i << 32;
+        b[i][j] = j;
+      }
+    }
+    add(a, b, expected);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+            .task("t0", TestPackedMultiDimArrays::add, a, b, c) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+      executionPlan.execute();
+    }
+
+    for (int i = 0; i < rows; i++) {
+      assertArrayEquals(expected[i], c[i]);
+    }
+  }
+
+  @Test
+  public void testRaggedInt() throws TornadoExecutionPlanException {
+    final int rows = 100;
+    int[][] a = new int[rows][];
+    int[][] b = new int[rows][];
+    int[][] expected = new int[rows][];
+    for (int i = 0; i < rows; i++) {
+      a[i] = new int[raggedLength(i)];
+      b[i] = new int[raggedLength(i)];
+      expected[i] = new int[raggedLength(i)];
+      for (int j = 0; j < a[i].length; j++) {
+        a[i][j] = i * 1000 + j;
+      }
+    }
+    scale(a, expected);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+            .task("t0", TestPackedMultiDimArrays::scale, a, b) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, b);
+
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+      executionPlan.execute();
+    }
+
+    for (int i = 0; i < rows; i++) {
+      assertArrayEquals(expected[i], b[i]);
+    }
+  }
+
+  @Test
+  public void testRaggedShort() throws TornadoExecutionPlanException {
+    final int rows = 50;
+    short[][] a = new short[rows][];
+    short[][] b = new short[rows][];
+    short[][] expected = new short[rows][];
+    for (int i = 0; i < rows; i++) {
+      a[i] = new short[raggedLength(i)];
+      b[i] = new short[raggedLength(i)];
+      expected[i] = new short[raggedLength(i)];
+      for (int j = 0; j < a[i].length; j++) {
+        a[i][j] = (short) (i + j);
+      }
+    }
+    scale(a, expected);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+            .task("t0", TestPackedMultiDimArrays::scale, a, b) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, b);
+
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+      executionPlan.execute();
+    }
+
+    for (int i = 0; i < rows; i++) {
+      assertArrayEquals(expected[i], b[i]);
+    }
+  }
+
+  @Test
+  public void testRaggedMultipleExecutions() throws TornadoExecutionPlanException {
+    // The staging buffer of the packed layout is reused across executions
+    final int rows = 80;
+    int[][] a = new int[rows][];
+    int[][] b = new int[rows][];
+    int[][] expected = new int[rows][];
+    for (int i = 0; i < rows; i++) {
+      a[i] = new int[raggedLength(i)];
+      b[i] = new int[raggedLength(i)];
+      expected[i] = new int[raggedLength(i)];
+    }
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+            .task("t0", TestPackedMultiDimArrays::scale, a, b) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, b);
+
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+      for (int iteration = 0; iteration < 4; iteration++) {
+        for (int i = 0; i < rows; i++) {
+          for (int j = 0; j < a[i].length; j++) {
+            a[i][j] = iteration * 100 + i + j;
+          }
+        }
+        scale(a, expected);
+
+        executionPlan.execute();
+
+        for (int i = 0; i < rows; i++) {
+          assertArrayEquals(expected[i], b[i]);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRectangularBatches() throws TornadoExecutionPlanException {
+    if (!PACKED) {
+      throw new UnsupportedConfigurationException(
+          "Batches of multi-dimensional arrays require -Dtornado.multidim.packed=True");
+    }
+    // 250 floats (1000 bytes) per row: a batch of 1MB holds 1000 whole rows, so the arrays are
+    // processed in 4 chunks
+    final int rows = 4000;
+    final int columns = 250;
+    float[][] a = new float[rows][columns];
+    float[][] b = new float[rows][columns];
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < columns; j++) {
+        a[i][j] = i + j * 0.5f;
+      }
+    }
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a) //
+            .task("t0", TestPackedMultiDimArrays::increment, a, b) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, b);
+
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+      executionPlan.withBatch("1MB").execute();
+    }
+
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < columns; j++) {
+        assertEquals(a[i][j] + 100, b[i][j], DELTA);
+      }
+    }
+  }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.codegen;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import org.junit.Test;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for kernels with contiguous per-thread accesses. With the {@code tornado.opencl.vectorize}
+ * option, the OpenCL backend emits these accesses as {@code vloadN}/{@code vstoreN}. The results
+ * must be the same with and without the option.
+ *
+ * <p>How to run? <code>
+ * tornado-test -V --printKernel -J"-Dtornado.opencl.vectorize=True"
+ * uk.ac.manchester.tornado.unittests.codegen.TestAutoVectorization
+ * </code>
+ */
+public class TestAutoVectorization extends TornadoTestBase {
+  // CHECKSTYLE:OFF
+
+  private static final int NUM_ELEMENTS = 4096;
+
+  private static void vectorAddFloat4(FloatArray a, FloatArray b, FloatArray c) {
+    for (@Parallel int i = 0; i < c.getSize() / 4; i++) {
+      int base = i * 4;
+      c.set(base, a.get(base) + b.get(base));
+      c.set(base + 1, a.get(base + 1) + b.get(base + 1));
+      c.set(base + 2, a.get(base + 2) + b.get(base + 2));
+      c.set(base + 3, a.get(base + 3) + b.get(base + 3));
+    }
+  }
+
+  private static void scaleInt8(IntArray a, IntArray b) {
+    for (@Parallel int i = 0; i < b.getSize() / 8; i++) {
+      for (int j = 0; j < 8; j++) {
+        b.set(i * 8 + j, a.get(i * 8 + j) * 3);
+      }
+    }
+  }
+
+  private static void swapPairsDouble(DoubleArray a, DoubleArray b) {
+    for (@Parallel int i = 0; i < b.getSize() / 2; i++) {
+      // Lanes are accessed out of order
+      double y = a.get(2 * i + 1);
+      double x = a.get(2 * i);
+      b.set(2 * i + 1, x);
+      b.set(2 * i, y);
+    }
+  }
+
+  private static void incrementThree(FloatArray a, FloatArray b) {
+    for (@Parallel int i = 0; i < b.getSize() / 3; i++) {
+      int base = i * 3;
+      b.set(base, a.get(base) + 1);
+      b.set(base + 1, a.get(base + 1) + 1);
+      b.set(base + 2, a.get(base + 2) + 1);
+    }
+  }
+
+  private static void inPlaceChain(FloatArray a) {
+    for (@Parallel int i = 0; i < a.getSize() / 4; i++) {
+      int base = i * 4;
+      // Every read depends on the previous write of the same array
+      a.set(base, a.get(base) * 2);
+      a.set(base + 1, a.get(base + 1) + a.get(base));
+      a.set(base + 2, a.get(base + 2) + a.get(base + 1));
+      a.set(base + 3, a.get(base + 3) + a.get(base + 2));
+    }
+  }
+
+  private static void shiftPairs(FloatArray a, FloatArray b) {
+    for (@Parallel int i = 0; i < b.getSize() / 4; i++) {
+      int base = i * 4;
+      // When a and b are the same array, the second read sees the first write
+      b.set(base + 1, a.get(base) + 1);
+      b.set(base + 2, a.get(base + 1) + 1);
+    }
+  }
+
+  private static FloatArray randomFloats(int size) {
+    Random r = new Random(7);
+    FloatArray array = new FloatArray(size);
+    for (int i = 0; i < size; i++) {
+      array.set(i, r.nextFloat());
+    }
+    return array;
+  }
+
+  @Test
+  public void testVectorAddFloat4() throws TornadoExecutionPlanException {
+    FloatArray a = randomFloats(NUM_ELEMENTS);
+    FloatArray b = randomFloats(NUM_ELEMENTS);
+    FloatArray c = new FloatArray(NUM_ELEMENTS);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+            .task("t0", TestAutoVectorization::vectorAddFloat4, a, b, c) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.execute();
+    }
+
+    for (int i = 0; i < NUM_ELEMENTS; i++) {
+      assertEquals(a.get(i) + b.get(i), c.get(i), 0.001f);
+    }
+  }
+
+  @Test
+  public void testScaleInt8() throws TornadoExecutionPlanException {
+    IntArray a = new IntArray(NUM_ELEMENTS);
+    IntArray b = new IntArray(NUM_ELEMENTS);
+    for (int i = 0; i < NUM_ELEMENTS; i++) {
+      a.set(i, i);
+    }
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a) //
+            .task("t0", TestAutoVectorization::scaleInt8, a, b) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, b);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.execute();
+    }
+
+    for (int i = 0; i < NUM_ELEMENTS; i++) {
+      assertEquals(i * 3, b.get(i));
+    }
+  }
+
+  @Test
+  public void testSwapPairsDouble() throws TornadoExecutionPlanException {
+    DoubleArray a = new DoubleArray(NUM_ELEMENTS);
+    DoubleArray b = new DoubleArray(NUM_ELEMENTS);
+    for (int i = 0; i < NUM_ELEMENTS; i++) {
+      a.set(i, i);
+    }
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a) //
+            .task("t0", TestAutoVectorization::swapPairsDouble, a, b) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, b);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.execute();
+    }
+
+    for (int i = 0; i < NUM_ELEMENTS; i += 2) {
+      assertEquals(a.get(i + 1), b.get(i), 0.001);
+      assertEquals(a.get(i), b.get(i + 1), 0.001);
+    }
+  }
+
+  @Test
+  public void testPartialRun() throws TornadoExecutionPlanException {
+    final int size = NUM_ELEMENTS * 3;
+    FloatArray a = randomFloats(size);
+    FloatArray b = new FloatArray(size);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a) //
+            .task("t0", TestAutoVectorization::incrementThree, a, b) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, b);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.execute();
+    }
+
+    for (int i = 0; i < size; i++) {
+      assertEquals(a.get(i) + 1, b.get(i), 0.001f);
+    }
+  }
+
+  @Test
+  public void testInPlaceDependencies() throws TornadoExecutionPlanException {
+    FloatArray a = randomFloats(NUM_ELEMENTS);
+    FloatArray expected = new FloatArray(NUM_ELEMENTS);
+    for (int i = 0; i < NUM_ELEMENTS; i++) {
+      expected.set(i, a.get(i));
+    }
+    inPlaceChain(expected);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a) //
+            .task("t0", TestAutoVectorization::inPlaceChain, a) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, a);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.execute();
+    }
+
+    for (int i = 0; i < NUM_ELEMENTS; i++) {
+      assertEquals(expected.get(i), a.get(i), 0.001f);
+    }
+  }
+
+  @Test
+  public void testAliasedArguments() throws TornadoExecutionPlanException {
+    FloatArray a = randomFloats(NUM_ELEMENTS);
+    FloatArray expected = new FloatArray(NUM_ELEMENTS);
+    for (int i = 0; i < NUM_ELEMENTS; i++) {
+      expected.set(i, a.get(i));
+    }
+    shiftPairs(expected, expected);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a) //
+            .task("t0", TestAutoVectorization::shiftPairs, a, a) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, a);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.execute();
+    }
+
+    for (int i = 0; i < NUM_ELEMENTS; i++) {
+      assertEquals(expected.get(i), a.get(i), 0.001f);
+    }
+  }
+  // CHECKSTYLE:ON
+}
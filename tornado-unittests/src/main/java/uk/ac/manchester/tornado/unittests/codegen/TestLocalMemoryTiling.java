@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.codegen;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import org.junit.Test;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for two-dimensional parallel loop nests with data reused across a sequential inner loop.
+ * With the {@code tornado.opencl.tiling} option, the OpenCL backend stages this data in local
+ * memory. The results must be the same with and without the option.
+ *
+ * <p>How to run? <code>
+ * tornado-test -V --printKernel -J"-Dtornado.opencl.tiling=True"
+ * uk.ac.manchester.tornado.unittests.codegen.TestLocalMemoryTiling
+ * </code>
+ */
+public class TestLocalMemoryTiling extends TornadoTestBase {
+  // CHECKSTYLE:OFF
+
+  private static final int SIZE = 256;
+
+  private static void matrixMultiplication(FloatArray a, FloatArray b, FloatArray c, int size) {
+    for (@Parallel int i = 0; i < size; i++) {
+      for (@Parallel int j = 0; j < size; j++) {
+        float sum = 0.0f;
+        for (int k = 0; k < size; k++) {
+          sum += a.get(i * size + k) * b.get(k * size + j);
+        }
+        c.set(i * size + j, sum);
+      }
+    }
+  }
+
+  private static void matrixMultiplicationJavaArrays(float[] a, float[] b, float[] c, int size) {
+    for (@Parallel int i = 0; i < size; i++) {
+      for (@Parallel int j = 0; j < size; j++) {
+        float sum = 0.0f;
+        for (int k = 0; k < size; k++) {
+          sum += a[i * size + k] * b[k * size + j];
+        }
+        c[i * size + j] = sum;
+      }
+    }
+  }
+
+  /** The inner dimension is not a multiple of any tile size. */
+  private static void rectangularProduct(IntArray a, IntArray b, IntArray c, int m, int depth) {
+    for (@Parallel int i = 0; i < m; i++) {
+      for (@Parallel int j = 0; j < m; j++) {
+        int sum = 0;
+        for (int k = 0; k < depth; k++) {
+          sum += a.get(i * depth + k) * b.get(k * m + j);
+        }
+        c.set(i * m + j, sum);
+      }
+    }
+  }
+
+  /** Only the rows of {@code a} are reused, and {@code a} is also read outside the inner loop. */
+  private static void rowSums(FloatArray a, FloatArray b, int size) {
+    for (@Parallel int i = 0; i < size; i++) {
+      for (@Parallel int j = 0; j < size; j++) {
+        float sum = 0.0f;
+        for (int k = 0; k < size; k++) {
+          sum += a.get(i * size + k);
+        }
+        b.set(i * size + j, sum + a.get(i * size + j));
+      }
+    }
+  }
+
+  private static FloatArray randomFloats(int size, long seed) {
+    Random r = new Random(seed);
+    FloatArray array = new FloatArray(size);
+    for (int i = 0; i < size; i++) {
+      array.set(i, r.nextFloat());
+    }
+    return array;
+  }
+
+  @Test
+  public void testMatrixMultiplication() throws TornadoExecutionPlanException {
+    FloatArray a = randomFloats(SIZE * SIZE, 7);
+    FloatArray b = randomFloats(SIZE * SIZE, 11);
+    FloatArray c = new FloatArray(SIZE * SIZE);
+    FloatArray expected = new FloatArray(SIZE * SIZE);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+            .task("t0", TestLocalMemoryTiling::matrixMultiplication, a, b, c, SIZE) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.execute();
+    }
+
+    matrixMultiplication(a, b, expected, SIZE);
+    for (int i = 0; i < SIZE * SIZE; i++) {
+      assertEquals(expected.get(i), c.get(i), 0.01f);
+    }
+  }
+
+  @Test
+  public void testMatrixMultiplicationJavaArrays() throws TornadoExecutionPlanException {
+    float[] a = new float[SIZE * SIZE];
+    float[] b = new float[SIZE * SIZE];
+    float[] c = new float[SIZE * SIZE];
+    float[] expected = new float[SIZE * SIZE];
+    Random r = new Random(3);
+    for (int i = 0; i < a.length; i++) {
+      a[i] = r.nextFloat();
+      b[i] = r.nextFloat();
+    }
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+            .task("t0", TestLocalMemoryTiling::matrixMultiplicationJavaArrays, a, b, c, SIZE) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.execute();
+    }
+
+    matrixMultiplicationJavaArrays(a, b, expected, SIZE);
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], c[i], 0.01f);
+    }
+  }
+
+  @Test
+  public void testRectangularProduct() throws TornadoExecutionPlanException {
+    final int m = 128;
+    final int depth = 100;
+    IntArray a = new IntArray(m * depth);
+    IntArray b = new IntArray(depth * m);
+    IntArray c = new IntArray(m * m);
+    IntArray expected = new IntArray(m * m);
+    for (int i = 0; i < m * depth; i++) {
+      a.set(i, i % 7);
+      b.set(i, i % 5);
+    }
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+            .task("t0", TestLocalMemoryTiling::rectangularProduct, a, b, c, m, depth) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.execute();
+    }
+
+    rectangularProduct(a, b, expected, m, depth);
+    for (int i = 0; i < m * m; i++) {
+      assertEquals(expected.get(i), c.get(i));
+    }
+  }
+
+  @Test
+  public void testRowSums() throws TornadoExecutionPlanException {
+    FloatArray a = randomFloats(SIZE * SIZE, 5);
+    FloatArray b = new FloatArray(SIZE * SIZE);
+    FloatArray expected = new FloatArray(SIZE * SIZE);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a) //
+            .task("t0", TestLocalMemoryTiling::rowSums, a, b, SIZE) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, b);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.execute();
+    }
+
+    rowSums(a, expected, SIZE);
+    for (int i = 0; i < SIZE * SIZE; i++) {
+      assertEquals(expected.get(i), b.get(i), 0.01f);
+    }
+  }
+  // CHECKSTYLE:ON
+}
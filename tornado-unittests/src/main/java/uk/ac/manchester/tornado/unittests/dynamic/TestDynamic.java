@@ -18,16 +18,19 @@
 package uk.ac.manchester.tornado.unittests.dynamic;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 import uk.ac.manchester.tornado.api.DRMode;
 import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
 import uk.ac.manchester.tornado.api.Policy;
 import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoBackend;
 import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.enums.DataTransferMode;
 import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.runtime.TornadoRuntimeProvider;
 import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
@@ -258,4 +261,85 @@ public class TestDynamic extends TornadoTestBase {
       assertEquals(a.get(i) * 2, b.get(i));
     }
   }
+
+  @Test
+  public void testDynamicWithCostModel() throws TornadoExecutionPlanException {
+    int numElements = 16000;
+    IntArray a = new IntArray(numElements);
+    IntArray b = new IntArray(numElements);
+
+    a.init(10);
+
+    TaskGraph taskGraph =
+        new TaskGraph("cm0") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a) //
+            .task("t0", TestDynamic::compute, a, b) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, b); //
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+
+      // The device is predicted before the first execution
+      executionPlan
+          .withDynamicReconfiguration(Policy.COST_MODEL, DRMode.SERIAL) //
+          .execute();
+
+      // Each execution refines the prediction with the observed time
+      for (int i = 0; i < 10; i++) {
+        executionPlan.execute();
+      }
+    }
+
+    for (int i = 0; i < b.getSize(); i++) {
+      assertEquals(a.get(i) * 2, b.get(i));
+    }
+  }
+
+  /**
+   * The predictions are fixed with a profile in which the last device of the default backend is
+   * the fastest, so it must be selected for the first execution.
+   */
+  @Test
+  public void testCostModelSelectsProfiledDevice() throws TornadoExecutionPlanException {
+    int numElements = 16000;
+    IntArray a = new IntArray(numElements);
+    IntArray b = new IntArray(numElements);
+    a.init(10);
+
+    TornadoBackend backend = TornadoRuntimeProvider.getTornadoRuntime().getBackend(0);
+    int fastest = backend.getNumDevices() - 1;
+    StringBuilder profile = new StringBuilder();
+    for (int i = 0; i < fastest; i++) {
+      profile.append(backend.getDevice(i).getDeviceName()).append("=1.0;");
+    }
+    // Devices with the same name get the last value of the profile
+    String expectedDevice = backend.getDevice(fastest).getDeviceName();
+    profile.append(expectedDevice).append("=1e-9");
+
+    TaskGraph taskGraph =
+        new TaskGraph("cm1") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a) //
+            .task("t0", TestDynamic::compute, a, b) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, b); //
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    TornadoRuntimeProvider.setProperty("tornado.costmodel.profile", profile.toString());
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan
+          .withDynamicReconfiguration(Policy.COST_MODEL, DRMode.SERIAL) //
+          .execute();
+    } finally {
+      TornadoRuntimeProvider.setProperty("tornado.costmodel.profile", "");
+    }
+
+    // The selected device is published as the device of each task
+    String selected = TornadoRuntimeProvider.getProperty("cm1.t0.device", "");
+    assertTrue(selected.startsWith("0:"));
+    int selectedIndex = Integer.parseInt(selected.substring(2));
+    assertEquals(expectedDevice, backend.getDevice(selectedIndex).getDeviceName());
+
+    for (int i = 0; i < b.getSize(); i++) {
+      assertEquals(a.get(i) * 2, b.get(i));
+    }
+  }
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.dynsize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import uk.ac.manchester.tornado.api.ShapeCacheMetrics;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.runtime.TornadoRuntimeProvider;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for shape-polymorphic kernels: the same task is executed with different input sizes and
+ * scalar values, reusing the size-generic kernel.
+ *
+ * <p>How to run?
+ *
+ * <p><code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.dynsize.ShapePolymorphicTest
+ * </code>
+ */
+public class ShapePolymorphicTest extends TornadoTestBase {
+
+  private static final int[] SIZES = {256, 1000, 4096, 257, 256};
+
+  public static void saxpy(float alpha, FloatArray x, FloatArray y) {
+    for (@Parallel int i = 0; i < x.getSize(); i++) {
+      y.set(i, alpha * x.get(i) + y.get(i));
+    }
+  }
+
+  public static void prefix(int n, FloatArray x) {
+    for (@Parallel int i = 0; i < n; i++) {
+      x.set(i, x.get(i) + 1.0f);
+    }
+  }
+
+  public static void javaArray(int[] a) {
+    for (@Parallel int i = 0; i < a.length; i++) {
+      a[i] = i * 2;
+    }
+  }
+
+  private static ShapeCacheMetrics getShapeCacheMetrics() {
+    TornadoDevice device = TornadoRuntimeProvider.getTornadoRuntime().getDefaultDevice();
+    return TornadoRuntimeProvider.getTornadoRuntime().getShapeCacheMetrics(device);
+  }
+
+  /**
+   * Checks that a new input size is served by the size-generic kernel compiled for the first size:
+   * the number of compilations does not change and the number of generic hits increases.
+   */
+  private static void assertGenericKernelReused(
+      ShapeCacheMetrics firstSize, ShapeCacheMetrics previous, ShapeCacheMetrics current) {
+    assertEquals(firstSize.getCompilations(), current.getCompilations());
+    assertTrue(current.getGenericHits() > previous.getGenericHits());
+  }
+
+  @Test
+  public void testNativeArraySizes() throws TornadoExecutionPlanException {
+    ShapeCacheMetrics firstSize = null;
+    ShapeCacheMetrics previous = null;
+    for (int size : SIZES) {
+      FloatArray x = new FloatArray(size);
+      FloatArray y = new FloatArray(size);
+      x.init(2.0f);
+      y.init(1.0f);
+      float alpha = size % 2 == 0 ? 3.0f : 0.5f;
+
+      TaskGraph taskGraph =
+          new TaskGraph("s0") //
+              .transferToDevice(DataTransferMode.EVERY_EXECUTION, x, y) //
+              .task("t0", ShapePolymorphicTest::saxpy, alpha, x, y) //
+              .transferToHost(DataTransferMode.EVERY_EXECUTION, y);
+
+      try (TornadoExecutionPlan executionPlan =
+          new TornadoExecutionPlan(taskGraph.snapshot())) {
+        executionPlan.withShapePolymorphicKernels().execute();
+      }
+
+      for (int i = 0; i < size; i++) {
+        assertEquals(alpha * 2.0f + 1.0f, y.get(i), 0.001f);
+      }
+
+      ShapeCacheMetrics current = getShapeCacheMetrics();
+      if (firstSize == null) {
+        firstSize = current;
+      } else {
+        assertGenericKernelReused(firstSize, previous, current);
+      }
+      previous = current;
+    }
+  }
+
+  @Test
+  public void testScalarBound() throws TornadoExecutionPlanException {
+    final int size = 1024;
+    for (int n : new int[] {16, 512, 1000, 16}) {
+      FloatArray x = new FloatArray(size);
+      x.init(1.0f);
+
+      TaskGraph taskGraph =
+          new TaskGraph("s1") //
+              .transferToDevice(DataTransferMode.EVERY_EXECUTION, x) //
+              .task("t0", ShapePolymorphicTest::prefix, n, x) //
+              .transferToHost(DataTransferMode.EVERY_EXECUTION, x);
+
+      try (TornadoExecutionPlan executionPlan =
+          new TornadoExecutionPlan(taskGraph.snapshot())) {
+        executionPlan.withShapePolymorphicKernels().execute();
+      }
+
+      for (int i = 0; i < size; i++) {
+        assertEquals(i < n ? 2.0f : 1.0f, x.get(i), 0.001f);
+      }
+    }
+  }
+
+  @Test
+  public void testJavaArrayLength() throws TornadoExecutionPlanException {
+    ShapeCacheMetrics firstSize = null;
+    ShapeCacheMetrics previous = null;
+    for (int size : SIZES) {
+      int[] a = new int[size];
+
+      TaskGraph taskGraph =
+          new TaskGraph("s2") //
+              .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+              .task("t0", ShapePolymorphicTest::javaArray, a) //
+              .transferToHost(DataTransferMode.EVERY_EXECUTION, a);
+
+      try (TornadoExecutionPlan executionPlan =
+          new TornadoExecutionPlan(taskGraph.snapshot())) {
+        executionPlan.withShapePolymorphicKernels().execute();
+      }
+
+      for (int i = 0; i < size; i++) {
+        assertEquals(i * 2, a[i]);
+      }
+
+      ShapeCacheMetrics current = getShapeCacheMetrics();
+      if (firstSize == null) {
+        firstSize = current;
+      } else {
+        assertGenericKernelReused(firstSize, previous, current);
+      }
+      previous = current;
+    }
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.SchedulingMetrics;
+import uk.ac.manchester.tornado.api.SchedulingPolicy;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.PriorityClass;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for execution plans that share a device with a {@link SchedulingPolicy}.
+ *
+ * <p>How to run? <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.executor.TestDeviceScheduler
+ * </code>
+ */
+public class TestDeviceScheduler extends TornadoTestBase {
+  // CHECKSTYLE:OFF
+
+  private static final int SIZE = 8192;
+  private static final int ITERATIONS = 32;
+
+  private static void vectorAdd(FloatArray a, FloatArray b, FloatArray c) {
+    for (@Parallel int i = 0; i < c.getSize(); i++) {
+      c.set(i, a.get(i) + b.get(i));
+    }
+  }
+
+  private static ImmutableTaskGraph createTaskGraph(
+      String name, FloatArray a, FloatArray b, FloatArray c) {
+    return new TaskGraph(name) //
+        .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+        .task("t0", TestDeviceScheduler::vectorAdd, a, b, c) //
+        .transferToHost(DataTransferMode.EVERY_EXECUTION, c) //
+        .snapshot();
+  }
+
+  private static void check(FloatArray a, FloatArray b, FloatArray c) {
+    for (int i = 0; i < SIZE; i++) {
+      assertEquals(a.get(i) + b.get(i), c.get(i), 0.01f);
+    }
+  }
+
+  @Test
+  public void testMaxInFlight() throws TornadoExecutionPlanException {
+    FloatArray a = new FloatArray(SIZE);
+    FloatArray b = new FloatArray(SIZE);
+    FloatArray c = new FloatArray(SIZE);
+    a.init(1.0f);
+    b.init(2.0f);
+
+    SchedulingMetrics metrics;
+    try (TornadoExecutionPlan executionPlan =
+        new TornadoExecutionPlan(createTaskGraph("s0", a, b, c))) {
+      executionPlan.withSchedulingPolicy(
+          SchedulingPolicy.of(PriorityClass.BATCH).withMaxInFlight(2));
+      for (int i = 0; i < ITERATIONS; i++) {
+        executionPlan.execute();
+      }
+      metrics = executionPlan.getSchedulingMetrics();
+    }
+
+    check(a, b, c);
+    // Two transfers to the device, one launch and one transfer to the host per execution
+    assertTrue(metrics.getDispatches() >= 4L * ITERATIONS);
+    // The launch waits for the two transfers of its execution
+    assertTrue(metrics.getDrains() >= ITERATIONS);
+  }
+
+  @Test
+  public void testWithoutPolicy() throws TornadoExecutionPlanException {
+    FloatArray a = new FloatArray(SIZE);
+    FloatArray b = new FloatArray(SIZE);
+    FloatArray c = new FloatArray(SIZE);
+    a.init(1.0f);
+    b.init(2.0f);
+
+    try (TornadoExecutionPlan executionPlan =
+        new TornadoExecutionPlan(createTaskGraph("s0", a, b, c))) {
+      executionPlan.withSchedulingPolicy(SchedulingPolicy.of(PriorityClass.NORMAL));
+      executionPlan.execute();
+      long dispatches = executionPlan.getSchedulingMetrics().getDispatches();
+      executionPlan.withoutSchedulingPolicy().execute();
+      // Only the first execution was scheduled
+      assertTrue(dispatches > 0);
+      assertEquals(dispatches, executionPlan.getSchedulingMetrics().getDispatches());
+    }
+    check(a, b, c);
+  }
+
+  @Test
+  public void testConcurrentPlans() throws Exception {
+    FloatArray[] latencyData = {new FloatArray(SIZE), new FloatArray(SIZE), new FloatArray(SIZE)};
+    FloatArray[] batchData = {new FloatArray(SIZE), new FloatArray(SIZE), new FloatArray(SIZE)};
+    latencyData[0].init(1.0f);
+    latencyData[1].init(2.0f);
+    batchData[0].init(3.0f);
+    batchData[1].init(4.0f);
+
+    ExecutorService threads = Executors.newFixedThreadPool(2);
+    try (TornadoExecutionPlan latencyPlan =
+            new TornadoExecutionPlan(
+                createTaskGraph("latency", latencyData[0], latencyData[1], latencyData[2]));
+        TornadoExecutionPlan batchPlan =
+            new TornadoExecutionPlan(
+                createTaskGraph("batch", batchData[0], batchData[1], batchData[2]))) {
+      latencyPlan.withSchedulingPolicy(SchedulingPolicy.of(PriorityClass.LATENCY_SENSITIVE));
+      batchPlan.withSchedulingPolicy(
+          SchedulingPolicy.of(PriorityClass.BATCH).withWeight(2).withMaxInFlight(1));
+
+      Future<?> latency =
+          threads.submit(
+              () -> {
+                for (int i = 0; i < ITERATIONS; i++) {
+                  latencyPlan.execute();
+                }
+              });
+      Future<?> batch =
+          threads.submit(
+              () -> {
+                for (int i = 0; i < ITERATIONS; i++) {
+                  batchPlan.execute();
+                }
+              });
+      latency.get();
+      batch.get();
+
+      assertTrue(latencyPlan.getSchedulingMetrics().getDispatches() >= 4L * ITERATIONS);
+      assertTrue(batchPlan.getSchedulingMetrics().getDispatches() >= 4L * ITERATIONS);
+    } finally {
+      threads.shutdown();
+    }
+
+    check(latencyData[0], latencyData[1], latencyData[2]);
+    check(batchData[0], batchData[1], batchData[2]);
+  }
+  // CHECKSTYLE:ON
+}
@@ -233,5 +233,145 @@ public class TestExecutor extends TornadoTestBase {
       assertEquals(INIT_A + 2 * ITERATIONS, a.get(i));
     }
   }
+
+  /**
+   * Test to share device buffers across task-graphs of the same execution plan. The intermediate
+   * result c is produced by the first graph and consumed by the second one without a copy to the
+   * host.
+   */
+  @Test
+  public void test05() throws TornadoExecutionPlanException {
+    int numElements = 16;
+    IntArray a = new IntArray(numElements);
+    IntArray b = new IntArray(numElements);
+    IntArray c = new IntArray(numElements);
+    IntArray d = new IntArray(numElements);
+
+    a.init(1);
+    b.init(2);
+
+    TaskGraph tg1 =
+        new TaskGraph("producer") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+            .task("t0", TestHello::add, a, b, c) //
+            .persistOnDevice(c);
+
+    TaskGraph tg2 =
+        new TaskGraph("consumer") //
+            .consumeFromDevice("producer", c) //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, b) //
+            .task("t0", TestHello::add, c, b, d) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, d);
+
+    try (TornadoExecutionPlan executionPlan =
+        new TornadoExecutionPlan(tg1.snapshot(), tg2.snapshot())) {
+      for (int i = 0; i < 3; i++) {
+        executionPlan.execute();
+      }
+    }
+
+    for (int i = 0; i < d.getSize(); i++) {
+      // c was never copied back to the host
+      assertEquals(0, c.get(i));
+      assertEquals(a.get(i) + 2 * b.get(i), d.get(i));
+    }
+  }
+
+  /**
+   * Test to run independent task-graphs of the same execution plan concurrently. The graphs "g0"
+   * and "g1" share no data, while "g2" reads the output of "g0" and must run after it.
+   */
+  @Test
+  public void test06() throws TornadoExecutionPlanException {
+    int numElements = 256;
+    IntArray a = new IntArray(numElements);
+    IntArray b = new IntArray(numElements);
+    IntArray c = new IntArray(numElements);
+    IntArray d = new IntArray(numElements);
+    IntArray e = new IntArray(numElements);
+
+    a.init(1);
+    c.init(10);
+
+    TaskGraph tg0 =
+        new TaskGraph("g0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+            .task("t0", TestHello::simple, a, b) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, b);
+
+    TaskGraph tg1 =
+        new TaskGraph("g1") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, c) //
+            .task("t0", TestHello::simple, c, d) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, d);
+
+    TaskGraph tg2 =
+        new TaskGraph("g2") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, b) //
+            .task("t0", TestHello::simple, b, e) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, e);
+
+    try (TornadoExecutionPlan executionPlan =
+        new TornadoExecutionPlan(tg0.snapshot(), tg1.snapshot(), tg2.snapshot())) {
+      executionPlan.withConcurrentTaskGraphs();
+      for (int i = 0; i < 3; i++) {
+        executionPlan.execute();
+      }
+    }
+
+    for (int i = 0; i < numElements; i++) {
+      assertEquals(2, b.get(i));
+      assertEquals(11, d.get(i));
+      assertEquals(3, e.get(i));
+    }
+  }
+
+  /**
+   * Test to check that a task-graph that consumes device buffers from another one keeps running
+   * after the producer when the task-graphs of the plan run concurrently.
+   */
+  @Test
+  public void test07() throws TornadoExecutionPlanException {
+    int numElements = 16;
+    IntArray a = new IntArray(numElements);
+    IntArray b = new IntArray(numElements);
+    IntArray c = new IntArray(numElements);
+    IntArray d = new IntArray(numElements);
+    IntArray e = new IntArray(numElements);
+
+    a.init(1);
+    b.init(2);
+
+    TaskGraph tg1 =
+        new TaskGraph("producer") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+            .task("t0", TestHello::add, a, b, c) //
+            .persistOnDevice(c);
+
+    TaskGraph tg2 =
+        new TaskGraph("consumer") //
+            .consumeFromDevice("producer", c) //
+            .task("t0", TestHello::simple, c, d) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, d);
+
+    TaskGraph tg3 =
+        new TaskGraph("independent") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a) //
+            .task("t0", TestHello::simple, a, e) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, e);
+
+    try (TornadoExecutionPlan executionPlan =
+        new TornadoExecutionPlan(tg1.snapshot(), tg2.snapshot(), tg3.snapshot())) {
+      executionPlan.withConcurrentTaskGraphs();
+      for (int i = 0; i < 3; i++) {
+        executionPlan.execute();
+      }
+    }
+
+    for (int i = 0; i < numElements; i++) {
+      assertEquals(a.get(i) + b.get(i) + 1, d.get(i));
+      assertEquals(a.get(i) + 1, e.get(i));
+    }
+  }
   // CHECKSTYLE:ON
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.Test;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.StreamSlot;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.TornadoStreamingPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for {@link TornadoStreamingPlan}.
+ *
+ * <p>How to run? <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.executor.TestStreaming
+ * </code>
+ */
+public class TestStreaming extends TornadoTestBase {
+  // CHECKSTYLE:OFF
+
+  private static final int FRAME_SIZE = 1024;
+  private static final int NUM_FRAMES = 16;
+
+  private static void scale(FloatArray input, FloatArray output) {
+    for (@Parallel int i = 0; i < input.getSize(); i++) {
+      output.set(i, input.get(i) * 2.0f + 1.0f);
+    }
+  }
+
+  /** Slot that receives a frame and returns the sum of the scaled frame. */
+  private static class ScaleSlot implements StreamSlot<float[], Float> {
+
+    private final FloatArray input = new FloatArray(FRAME_SIZE);
+    private final FloatArray output = new FloatArray(FRAME_SIZE);
+    private final ImmutableTaskGraph taskGraph;
+
+    ScaleSlot(int index) {
+      taskGraph =
+          new TaskGraph("stream" + index) //
+              .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+              .task("t0", TestStreaming::scale, input, output) //
+              .transferToHost(DataTransferMode.EVERY_EXECUTION, output) //
+              .snapshot();
+    }
+
+    @Override
+    public ImmutableTaskGraph getTaskGraph() {
+      return taskGraph;
+    }
+
+    @Override
+    public void load(float[] frame) {
+      for (int i = 0; i < FRAME_SIZE; i++) {
+        input.set(i, frame[i]);
+      }
+    }
+
+    @Override
+    public Float getResult() {
+      float sum = 0;
+      for (int i = 0; i < FRAME_SIZE; i++) {
+        sum += output.get(i);
+      }
+      return sum;
+    }
+  }
+
+  private static float[] frame(int index) {
+    float[] frame = new float[FRAME_SIZE];
+    for (int i = 0; i < FRAME_SIZE; i++) {
+      frame[i] = (index + i) % 7;
+    }
+    return frame;
+  }
+
+  private static float expectedSum(int index) {
+    float sum = 0;
+    for (float value : frame(index)) {
+      sum += value * 2.0f + 1.0f;
+    }
+    return sum;
+  }
+
+  @Test
+  public void testStreamFromIterator() throws TornadoExecutionPlanException {
+    List<Float> results = new ArrayList<>();
+    try (TornadoStreamingPlan<float[], Float> plan =
+        TornadoExecutionPlan.streaming(3, ScaleSlot::new)) {
+      plan.run(
+          IntStream.range(0, NUM_FRAMES).mapToObj(TestStreaming::frame).iterator(), results::add);
+    }
+
+    assertEquals(NUM_FRAMES, results.size());
+    for (int i = 0; i < NUM_FRAMES; i++) {
+      assertEquals(expectedSum(i), results.get(i), 0.01f);
+    }
+  }
+
+  @Test
+  public void testStreamFromPublisher() throws TornadoExecutionPlanException, InterruptedException {
+    List<Float> results = new ArrayList<>();
+    Throwable[] failure = new Throwable[1];
+    CountDownLatch done = new CountDownLatch(1);
+
+    try (TornadoStreamingPlan<float[], Float> plan =
+            TornadoExecutionPlan.streaming(2, ScaleSlot::new);
+        SubmissionPublisher<float[]> publisher = new SubmissionPublisher<>()) {
+      publisher.subscribe(plan);
+      plan.subscribe(
+          new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+              this.subscription = subscription;
+              // Request one result at a time to exercise the backpressure
+              subscription.request(1);
+            }
+
+            @Override
+            public void onNext(Float item) {
+              results.add(item);
+              subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+              failure[0] = throwable;
+              done.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+              done.countDown();
+            }
+          });
+
+      for (int i = 0; i < NUM_FRAMES; i++) {
+        publisher.submit(frame(i));
+      }
+      publisher.close();
+      done.await(60, TimeUnit.SECONDS);
+    }
+
+    assertNull(failure[0]);
+    assertEquals(NUM_FRAMES, results.size());
+    for (int i = 0; i < NUM_FRAMES; i++) {
+      assertEquals(expectedSum(i), results.get(i), 0.01f);
+    }
+  }
+  // CHECKSTYLE:ON
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.grid;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import org.junit.Test;
+import uk.ac.manchester.tornado.api.GridScheduler;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.WorkerGrid1D;
+import uk.ac.manchester.tornado.api.WorkerGrid2D;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.arrays.TestArrays;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for thread coarsening of parallel loops.
+ *
+ * <p>How to run? <code>
+ * tornado-test -V --threadInfo uk.ac.manchester.tornado.unittests.grid.TestThreadCoarsening
+ * </code>
+ */
+public class TestThreadCoarsening extends TornadoTestBase {
+  // CHECKSTYLE:OFF
+
+  private static final int NUM_ELEMENTS = 4099;
+
+  private static void saxpy2D(float alpha, FloatArray x, FloatArray y, int rows, int cols) {
+    for (@Parallel int i = 0; i < rows; i++) {
+      for (@Parallel int j = 0; j < cols; j++) {
+        y.set(i * cols + j, alpha * x.get(i * cols + j) + y.get(i * cols + j));
+      }
+    }
+  }
+
+  private static FloatArray randomArray(int size) {
+    Random r = new Random(31);
+    FloatArray array = new FloatArray(size);
+    for (int i = 0; i < size; i++) {
+      array.set(i, r.nextFloat());
+    }
+    return array;
+  }
+
+  private static void checkVectorAdd(FloatArray a, FloatArray b, FloatArray c) {
+    for (int i = 0; i < c.getSize(); i++) {
+      assertEquals(a.get(i) + b.get(i), c.get(i), 0.001f);
+    }
+  }
+
+  @Test
+  public void testCoarseningWorkerGrid() throws TornadoExecutionPlanException {
+    FloatArray a = randomArray(NUM_ELEMENTS);
+    FloatArray b = randomArray(NUM_ELEMENTS);
+    FloatArray c = new FloatArray(NUM_ELEMENTS);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+            .task("t0", TestArrays::vectorAddFloat, a, b, c) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+    WorkerGrid1D worker = new WorkerGrid1D(NUM_ELEMENTS);
+    worker.setCoarseness(4, 1, 1);
+    GridScheduler gridScheduler = new GridScheduler("s0.t0", worker);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.withGridScheduler(gridScheduler).execute();
+    }
+
+    checkVectorAdd(a, b, c);
+  }
+
+  @Test
+  public void testCoarseningWithLocalWork() throws TornadoExecutionPlanException {
+    FloatArray a = randomArray(NUM_ELEMENTS);
+    FloatArray b = randomArray(NUM_ELEMENTS);
+    FloatArray c = new FloatArray(NUM_ELEMENTS);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s1") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+            .task("t0", TestArrays::vectorAddFloat, a, b, c) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+    // The coarsened global work is rounded up to a multiple of the local work
+    WorkerGrid1D worker = new WorkerGrid1D(4096);
+    worker.setLocalWork(64, 1, 1);
+    GridScheduler gridScheduler = new GridScheduler("s1.t0", worker);
+    gridScheduler.setCoarseness("s1.t0", 3, 1, 1);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.withGridScheduler(gridScheduler).execute();
+    }
+
+    checkVectorAdd(a, b, c);
+  }
+
+  /**
+   * The coarsening factor is changed between executions of the same plan, as an auto-tuning search
+   * would do. The kernel is not recompiled.
+   */
+  @Test
+  public void testCoarseningSearch() throws TornadoExecutionPlanException {
+    FloatArray a = randomArray(NUM_ELEMENTS);
+    FloatArray b = randomArray(NUM_ELEMENTS);
+    FloatArray c = new FloatArray(NUM_ELEMENTS);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s2") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+            .task("t0", TestArrays::vectorAddFloat, a, b, c) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+    WorkerGrid1D worker = new WorkerGrid1D(NUM_ELEMENTS);
+    GridScheduler gridScheduler = new GridScheduler("s2.t0", worker);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.withGridScheduler(gridScheduler);
+      for (int factor : new int[] {1, 2, 4, 8, 16}) {
+        c.init(0.0f);
+        worker.setCoarseness(factor, 1, 1);
+        executionPlan.execute();
+        checkVectorAdd(a, b, c);
+      }
+    }
+  }
+
+  @Test
+  public void testCoarsening2D() throws TornadoExecutionPlanException {
+    final int rows = 130;
+    final int cols = 257;
+    FloatArray x = randomArray(rows * cols);
+    FloatArray y = randomArray(rows * cols);
+    FloatArray expected = new FloatArray(rows * cols);
+    for (int i = 0; i < rows * cols; i++) {
+      expected.set(i, 2.0f * x.get(i) + y.get(i));
+    }
+
+    TaskGraph taskGraph =
+        new TaskGraph("s3") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, x, y) //
+            .task("t0", TestThreadCoarsening::saxpy2D, 2.0f, x, y, rows, cols) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, y);
+
+    WorkerGrid2D worker = new WorkerGrid2D(rows, cols);
+    worker.setCoarseness(2, 4, 1);
+    GridScheduler gridScheduler = new GridScheduler("s3.t0", worker);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.withGridScheduler(gridScheduler).execute();
+    }
+
+    for (int i = 0; i < rows * cols; i++) {
+      assertEquals(expected.get(i), y.get(i), 0.001f);
+    }
+  }
+
+  @Test
+  public void testCoarseningConsecutiveLayout() throws TornadoExecutionPlanException {
+    FloatArray a = randomArray(NUM_ELEMENTS);
+    FloatArray b = randomArray(NUM_ELEMENTS);
+    FloatArray c = new FloatArray(NUM_ELEMENTS);
+
+    System.setProperty("s4.t0.coarseness", "4");
+    System.setProperty("s4.t0.coarseness.layout", "consecutive");
+    try {
+      TaskGraph taskGraph =
+          new TaskGraph("s4") //
+              .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+              .task("t0", TestArrays::vectorAddFloat, a, b, c) //
+              .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+      ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+      try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+        executionPlan.execute();
+      }
+    } finally {
+      System.clearProperty("s4.t0.coarseness");
+      System.clearProperty("s4.t0.coarseness.layout");
+    }
+
+    checkVectorAdd(a, b, c);
+  }
+  // CHECKSTYLE:ON
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.kernelcontext.atomics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import uk.ac.manchester.tornado.api.GridScheduler;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.WorkerGrid1D;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.LongArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the atomic operations of the {@link KernelContext} over native arrays.
+ *
+ * <p>How to run? <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.kernelcontext.atomics.TestKernelContextAtomics
+ * </code>
+ */
+public class TestKernelContextAtomics extends TornadoTestBase {
+  // CHECKSTYLE:OFF
+
+  private static final int SIZE = 4096;
+  private static final int BINS = 16;
+
+  public static void histogram(KernelContext context, IntArray input, IntArray bins) {
+    int i = context.globalIdx;
+    context.atomicAdd(bins, input.get(i) % BINS, 1);
+  }
+
+  public static void minMax(KernelContext context, IntArray input, IntArray result) {
+    int i = context.globalIdx;
+    context.atomicMin(result, 0, input.get(i));
+    context.atomicMax(result, 1, input.get(i));
+  }
+
+  public static void sumLong(KernelContext context, IntArray input, LongArray result) {
+    int i = context.globalIdx;
+    context.atomicAdd(result, 0, input.get(i) * 1000000L);
+  }
+
+  public static void minMaxLong(KernelContext context, LongArray input, LongArray result) {
+    int i = context.globalIdx;
+    context.atomicMin(result, 0, input.get(i));
+    context.atomicMax(result, 1, input.get(i));
+  }
+
+  public static void floatOps(KernelContext context, FloatArray input, FloatArray result) {
+    int i = context.globalIdx;
+    context.atomicAdd(result, 0, input.get(i));
+    context.atomicMin(result, 1, input.get(i));
+    context.atomicMax(result, 2, input.get(i));
+  }
+
+  public static void electLeader(KernelContext context, IntArray leader, IntArray winners) {
+    int i = context.globalIdx;
+    if (context.atomicCompareAndExchange(leader, 0, -1, i) == -1) {
+      context.atomicAdd(winners, 0, 1);
+    }
+  }
+
+  public static void exchange(KernelContext context, IntArray slot, IntArray previous) {
+    int i = context.globalIdx;
+    previous.set(i, context.atomicExchange(slot, 0, i + 1));
+  }
+
+  private static void run(TaskGraph taskGraph) throws TornadoExecutionPlanException {
+    GridScheduler gridScheduler = new GridScheduler("s0.t0", new WorkerGrid1D(SIZE));
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.withGridScheduler(gridScheduler).execute();
+    }
+  }
+
+  @Test
+  public void testHistogram() throws TornadoExecutionPlanException {
+    assertNotBackend(TornadoVMBackendType.SPIRV);
+    IntArray input = new IntArray(SIZE);
+    IntArray bins = new IntArray(BINS);
+    for (int i = 0; i < SIZE; i++) {
+      input.set(i, (i * 7) + (i / 3));
+    }
+    bins.init(0);
+
+    run(
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, input, bins) //
+            .task("t0", TestKernelContextAtomics::histogram, new KernelContext(), input, bins) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, bins));
+
+    int[] expected = new int[BINS];
+    for (int i = 0; i < SIZE; i++) {
+      expected[input.get(i) % BINS]++;
+    }
+    for (int i = 0; i < BINS; i++) {
+      assertEquals(expected[i], bins.get(i));
+    }
+  }
+
+  @Test
+  public void testMinMax() throws TornadoExecutionPlanException {
+    assertNotBackend(TornadoVMBackendType.SPIRV);
+    IntArray input = new IntArray(SIZE);
+    IntArray result = new IntArray(2);
+    for (int i = 0; i < SIZE; i++) {
+      input.set(i, ((i * 31) % 1013) - 500);
+    }
+    result.set(0, Integer.MAX_VALUE);
+    result.set(1, Integer.MIN_VALUE);
+
+    run(
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, input, result) //
+            .task("t0", TestKernelContextAtomics::minMax, new KernelContext(), input, result) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, result));
+
+    int min = Integer.MAX_VALUE;
+    int max = Integer.MIN_VALUE;
+    for (int i = 0; i < SIZE; i++) {
+      min = Math.min(min, input.get(i));
+      max = Math.max(max, input.get(i));
+    }
+    assertEquals(min, result.get(0));
+    assertEquals(max, result.get(1));
+  }
+
+  @Test
+  public void testLongAdd() throws TornadoExecutionPlanException {
+    assertNotBackend(TornadoVMBackendType.SPIRV);
+    IntArray input = new IntArray(SIZE);
+    LongArray result = new LongArray(1);
+    for (int i = 0; i < SIZE; i++) {
+      input.set(i, i);
+    }
+    result.init(0);
+
+    run(
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, input, result) //
+            .task("t0", TestKernelContextAtomics::sumLong, new KernelContext(), input, result) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, result));
+
+    long expected = 0;
+    for (int i = 0; i < SIZE; i++) {
+      expected += input.get(i) * 1000000L;
+    }
+    assertEquals(expected, result.get(0));
+  }
+
+  @Test
+  public void testLongMinMax() throws TornadoExecutionPlanException {
+    assertNotBackend(TornadoVMBackendType.SPIRV);
+    LongArray input = new LongArray(SIZE);
+    LongArray result = new LongArray(2);
+    for (int i = 0; i < SIZE; i++) {
+      input.set(i, (((i * 31L) % 1013) - 500) << 33);
+    }
+    result.set(0, Long.MAX_VALUE);
+    result.set(1, Long.MIN_VALUE);
+
+    run(
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, input, result) //
+            .task("t0", TestKernelContextAtomics::minMaxLong, new KernelContext(), input, result) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, result));
+
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+    for (int i = 0; i < SIZE; i++) {
+      min = Math.min(min, input.get(i));
+      max = Math.max(max, input.get(i));
+    }
+    assertEquals(min, result.get(0));
+    assertEquals(max, result.get(1));
+  }
+
+  @Test
+  public void testFloatOperations() throws TornadoExecutionPlanException {
+    assertNotBackend(TornadoVMBackendType.SPIRV);
+    FloatArray input = new FloatArray(SIZE);
+    FloatArray result = new FloatArray(3);
+    for (int i = 0; i < SIZE; i++) {
+      input.set(i, ((i % 64) - 20) * 0.25f);
+    }
+    result.set(0, 0.0f);
+    result.set(1, Float.MAX_VALUE);
+    result.set(2, -Float.MAX_VALUE);
+
+    run(
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, input, result) //
+            .task("t0", TestKernelContextAtomics::floatOps, new KernelContext(), input, result) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, result));
+
+    float sum = 0;
+    float min = Float.MAX_VALUE;
+    float max = -Float.MAX_VALUE;
+    for (int i = 0; i < SIZE; i++) {
+      sum += input.get(i);
+      min = Math.min(min, input.get(i));
+      max = Math.max(max, input.get(i));
+    }
+    // All partial sums are multiples of 0.25 and exactly representable
+    assertEquals(sum, result.get(0), 0.0f);
+    assertEquals(min, result.get(1), 0.0f);
+    assertEquals(max, result.get(2), 0.0f);
+  }
+
+  @Test
+  public void testCompareAndExchange() throws TornadoExecutionPlanException {
+    assertNotBackend(TornadoVMBackendType.SPIRV);
+    IntArray leader = new IntArray(1);
+    IntArray winners = new IntArray(1);
+    leader.init(-1);
+    winners.init(0);
+
+    run(
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, leader, winners) //
+            .task("t0", TestKernelContextAtomics::electLeader, new KernelContext(), leader, winners)
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, leader, winners));
+
+    assertEquals(1, winners.get(0));
+    assertTrue(leader.get(0) >= 0 && leader.get(0) < SIZE);
+  }
+
+  @Test
+  public void testExchange() throws TornadoExecutionPlanException {
+    assertNotBackend(TornadoVMBackendType.SPIRV);
+    IntArray slot = new IntArray(1);
+    IntArray previous = new IntArray(SIZE);
+    slot.init(0);
+
+    run(
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, slot) //
+            .task("t0", TestKernelContextAtomics::exchange, new KernelContext(), slot, previous) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, slot, previous));
+
+    // Every value is seen exactly once, either as a previous value or as the final one
+    long seen = slot.get(0);
+    for (int i = 0; i < SIZE; i++) {
+      seen += previous.get(i);
+    }
+    assertEquals((long) SIZE * (SIZE + 1) / 2, seen);
+  }
+  // CHECKSTYLE:ON
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.kernelcontext.subgroups;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import uk.ac.manchester.tornado.api.GridScheduler;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.WorkerGrid;
+import uk.ac.manchester.tornado.api.WorkerGrid1D;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.LongArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the sub-group operations of the {@link KernelContext}. The expected values are computed
+ * from the sub-group size reported by each thread, so the tests do not depend on the sub-group size
+ * of the device.
+ *
+ * <p>How to run? <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.kernelcontext.subgroups.TestKernelContextSubGroups
+ * </code>
+ */
+public class TestKernelContextSubGroups extends TornadoTestBase {
+  // CHECKSTYLE:OFF
+
+  private static final int SIZE = 1024;
+  private static final int LOCAL_SIZE = 64;
+
+  public static void layout(
+      KernelContext context, IntArray ids, IntArray localIds, IntArray sizes, IntArray groups) {
+    int i = context.globalIdx;
+    ids.set(i, context.subGroupId());
+    localIds.set(i, context.subGroupLocalId());
+    sizes.set(i, context.subGroupSize());
+    groups.set(i, context.numSubGroups());
+  }
+
+  public static void reduceInt(
+      KernelContext context, IntArray input, IntArray output, IntArray sizes) {
+    int i = context.globalIdx;
+    int value = input.get(i);
+    output.set(3 * i, context.subGroupReduceAdd(value));
+    output.set(3 * i + 1, context.subGroupReduceMin(value));
+    output.set(3 * i + 2, context.subGroupReduceMax(value));
+    sizes.set(i, context.subGroupSize());
+  }
+
+  public static void reduceFloat(
+      KernelContext context, FloatArray input, FloatArray output, IntArray sizes) {
+    int i = context.globalIdx;
+    float value = input.get(i);
+    output.set(3 * i, context.subGroupReduceAdd(value));
+    output.set(3 * i + 1, context.subGroupReduceMin(value));
+    output.set(3 * i + 2, context.subGroupReduceMax(value));
+    sizes.set(i, context.subGroupSize());
+  }
+
+  public static void scan(KernelContext context, IntArray input, IntArray output, IntArray sizes) {
+    int i = context.globalIdx;
+    int value = input.get(i);
+    output.set(2 * i, context.subGroupScanInclusiveAdd(value));
+    output.set(2 * i + 1, context.subGroupScanExclusiveAdd(value));
+    sizes.set(i, context.subGroupSize());
+  }
+
+  public static void shuffle(
+      KernelContext context, FloatArray input, FloatArray output, IntArray sizes) {
+    int i = context.globalIdx;
+    float value = input.get(i);
+    int lane = context.subGroupLocalId();
+    int size = context.subGroupSize();
+    output.set(3 * i, context.subGroupShuffle(value, (lane + 1) % size));
+    output.set(3 * i + 1, context.subGroupShuffleXor(value, 1));
+    output.set(3 * i + 2, context.subGroupBroadcast(value, 0));
+    sizes.set(i, size);
+  }
+
+  public static void ballot(
+      KernelContext context, IntArray input, LongArray output, IntArray sizes) {
+    int i = context.globalIdx;
+    output.set(i, context.subGroupBallot(input.get(i) % 3 == 0));
+    sizes.set(i, context.subGroupSize());
+  }
+
+  private static void run(TaskGraph taskGraph) throws TornadoExecutionPlanException {
+    WorkerGrid worker = new WorkerGrid1D(SIZE);
+    worker.setLocalWork(LOCAL_SIZE, 1, 1);
+    GridScheduler gridScheduler = new GridScheduler("s0.t0", worker);
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.withGridScheduler(gridScheduler).execute();
+    }
+  }
+
+  // First thread of the sub-group of thread i, for sub-groups of consecutive threads
+  private static int first(IntArray sizes, int i) {
+    return i - (i % sizes.get(i));
+  }
+
+  private static IntArray input() {
+    IntArray input = new IntArray(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      input.set(i, ((i * 37) % 101) - 50);
+    }
+    return input;
+  }
+
+  @Test
+  public void testLayout() throws TornadoExecutionPlanException {
+    assertNotBackend(TornadoVMBackendType.SPIRV);
+    IntArray ids = new IntArray(SIZE);
+    IntArray localIds = new IntArray(SIZE);
+    IntArray sizes = new IntArray(SIZE);
+    IntArray groups = new IntArray(SIZE);
+
+    run(
+        new TaskGraph("s0") //
+            .task(
+                "t0",
+                TestKernelContextSubGroups::layout,
+                new KernelContext(),
+                ids,
+                localIds,
+                sizes,
+                groups) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, ids, localIds, sizes, groups));
+
+    for (int i = 0; i < SIZE; i++) {
+      int size = sizes.get(i);
+      assertTrue(size > 0 && LOCAL_SIZE % size == 0);
+      assertEquals(i % LOCAL_SIZE, ids.get(i) * size + localIds.get(i));
+      assertEquals(LOCAL_SIZE / size, groups.get(i));
+    }
+  }
+
+  @Test
+  public void testReduceInt() throws TornadoExecutionPlanException {
+    assertNotBackend(TornadoVMBackendType.SPIRV);
+    IntArray input = input();
+    IntArray output = new IntArray(3 * SIZE);
+    IntArray sizes = new IntArray(SIZE);
+
+    run(
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+            .task(
+                "t0",
+                TestKernelContextSubGroups::reduceInt,
+                new KernelContext(),
+                input,
+                output,
+                sizes) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, output, sizes));
+
+    for (int i = 0; i < SIZE; i++) {
+      int sum = 0;
+      int min = Integer.MAX_VALUE;
+      int max = Integer.MIN_VALUE;
+      for (int j = first(sizes, i); j < first(sizes, i) + sizes.get(i); j++) {
+        sum += input.get(j);
+        min = Math.min(min, input.get(j));
+        max = Math.max(max, input.get(j));
+      }
+      assertEquals(sum, output.get(3 * i));
+      assertEquals(min, output.get(3 * i + 1));
+      assertEquals(max, output.get(3 * i + 2));
+    }
+  }
+
+  @Test
+  public void testReduceFloat() throws TornadoExecutionPlanException {
+    assertNotBackend(TornadoVMBackendType.SPIRV);
+    FloatArray input = new FloatArray(SIZE);
+    FloatArray output = new FloatArray(3 * SIZE);
+    IntArray sizes = new IntArray(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      input.set(i, (((i * 37) % 101) - 50) * 0.5f);
+    }
+
+    run(
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+            .task(
+                "t0",
+                TestKernelContextSubGroups::reduceFloat,
+                new KernelContext(),
+                input,
+                output,
+                sizes) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, output, sizes));
+
+    for (int i = 0; i < SIZE; i++) {
+      float sum = 0;
+      float min = Float.MAX_VALUE;
+      float max = -Float.MAX_VALUE;
+      for (int j = first(sizes, i); j < first(sizes, i) + sizes.get(i); j++) {
+        sum += input.get(j);
+        min = Math.min(min, input.get(j));
+        max = Math.max(max, input.get(j));
+      }
+      // Partial sums are multiples of 0.5 and exactly representable in any order
+      assertEquals(sum, output.get(3 * i), 0.0f);
+      assertEquals(min, output.get(3 * i + 1), 0.0f);
+      assertEquals(max, output.get(3 * i + 2), 0.0f);
+    }
+  }
+
+  @Test
+  public void testScan() throws TornadoExecutionPlanException {
+    assertNotBackend(TornadoVMBackendType.SPIRV);
+    IntArray input = input();
+    IntArray output = new IntArray(2 * SIZE);
+    IntArray sizes = new IntArray(SIZE);
+
+    run(
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+            .task(
+                "t0",
+                TestKernelContextSubGroups::scan,
+                new KernelContext(),
+                input,
+                output,
+                sizes) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, output, sizes));
+
+    for (int i = 0; i < SIZE; i++) {
+      int exclusive = 0;
+      for (int j = first(sizes, i); j < i; j++) {
+        exclusive += input.get(j);
+      }
+      assertEquals(exclusive + input.get(i), output.get(2 * i));
+      assertEquals(exclusive, output.get(2 * i + 1));
+    }
+  }
+
+  @Test
+  public void testShuffle() throws TornadoExecutionPlanException {
+    assertNotBackend(TornadoVMBackendType.SPIRV);
+    FloatArray input = new FloatArray(SIZE);
+    FloatArray output = new FloatArray(3 * SIZE);
+    IntArray sizes = new IntArray(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      input.set(i, i * 1.5f);
+    }
+
+    run(
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+            .task(
+                "t0",
+                TestKernelContextSubGroups::shuffle,
+                new KernelContext(),
+                input,
+                output,
+                sizes) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, output, sizes));
+
+    for (int i = 0; i < SIZE; i++) {
+      int first = first(sizes, i);
+      int lane = i - first;
+      int size = sizes.get(i);
+      assertEquals(input.get(first + (lane + 1) % size), output.get(3 * i), 0.0f);
+      if (size > 1) {
+        assertEquals(input.get(first + (lane ^ 1)), output.get(3 * i + 1), 0.0f);
+      }
+      assertEquals(input.get(first), output.get(3 * i + 2), 0.0f);
+    }
+  }
+
+  @Test
+  public void testBallot() throws TornadoExecutionPlanException {
+    assertNotBackend(TornadoVMBackendType.SPIRV);
+    IntArray input = new IntArray(SIZE);
+    LongArray output = new LongArray(SIZE);
+    IntArray sizes = new IntArray(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      input.set(i, i * 7);
+    }
+
+    run(
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+            .task(
+                "t0",
+                TestKernelContextSubGroups::ballot,
+                new KernelContext(),
+                input,
+                output,
+                sizes) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, output, sizes));
+
+    for (int i = 0; i < SIZE; i++) {
+      long mask = 0;
+      int first = first(sizes, i);
+      for (int j = first; j < first + Math.min(sizes.get(i), Long.SIZE); j++) {
+        if (input.get(j) % 3 == 0) {
+          mask |= 1L << (j - first);
+        }
+      }
+      assertEquals(mask, output.get(i));
+    }
+  }
+  // CHECKSTYLE:ON
+}
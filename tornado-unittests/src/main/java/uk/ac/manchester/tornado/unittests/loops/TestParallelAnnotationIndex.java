@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.loops;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.matrix.Matrix2DDouble;
+import uk.ac.manchester.tornado.matrix.MatrixMath;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the {@code @Parallel} loops read from the compile-time index
+ * (META-INF/tornado/parallel) and from the class file when there is no index. The unittests are
+ * built with the index processor, tornado-matrices is not.
+ *
+ * <p>How to run?
+ *
+ * <p><code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.loops.TestParallelAnnotationIndex
+ * </code>
+ *
+ * <p>Ignoring the index, as if it was missing:
+ *
+ * <p><code>
+ * tornado-test -V --jvm="-Dtornado.parallel.index=False"
+ * uk.ac.manchester.tornado.unittests.loops.TestParallelAnnotationIndex
+ * </code>
+ */
+public class TestParallelAnnotationIndex extends TornadoTestBase {
+
+  private static final int SIZE = 64;
+
+  public static void parallel2D(IntArray a, int size) {
+    for (@Parallel int i = 0; i < size; i++) {
+      for (@Parallel int j = 0; j < size; j++) {
+        a.set(i * size + j, i + j);
+      }
+    }
+  }
+
+  /** Each row depends on the previous one, so only the inner loop can be parallel. */
+  public static void sequentialRows(IntArray a, int size) {
+    for (int i = 1; i < size; i++) {
+      for (@Parallel int j = 0; j < size; j++) {
+        a.set(i * size + j, a.get((i - 1) * size + j) + 1);
+      }
+    }
+  }
+
+  @Test
+  public void testParallelLoops() throws TornadoExecutionPlanException {
+    IntArray a = new IntArray(SIZE * SIZE);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .task("t0", TestParallelAnnotationIndex::parallel2D, a, SIZE) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, a);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.execute();
+    }
+
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        assertEquals(i + j, a.get(i * SIZE + j));
+      }
+    }
+  }
+
+  @Test
+  public void testSequentialOuterLoop() throws TornadoExecutionPlanException {
+    IntArray a = new IntArray(SIZE * SIZE);
+    a.init(0);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a) //
+            .task("t0", TestParallelAnnotationIndex::sequentialRows, a, SIZE) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, a);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.execute();
+    }
+
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        assertEquals(i, a.get(i * SIZE + j));
+      }
+    }
+  }
+
+  /** {@link MatrixMath} is compiled without the index processor, so its class file is parsed. */
+  @Test
+  public void testClassWithoutIndex() throws TornadoExecutionPlanException {
+    Matrix2DDouble a = new Matrix2DDouble(SIZE, SIZE);
+    Matrix2DDouble b = new Matrix2DDouble(SIZE, SIZE);
+    Matrix2DDouble c = new Matrix2DDouble(SIZE, SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        a.set(i, j, i);
+        b.set(i, j, (i == j) ? 2 : 0);
+      }
+    }
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+            .task("t0", MatrixMath::dgemm, a, b, c) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.execute();
+    }
+
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        assertEquals(2.0 * i, c.get(i, j), 0.001);
+      }
+    }
+  }
+}
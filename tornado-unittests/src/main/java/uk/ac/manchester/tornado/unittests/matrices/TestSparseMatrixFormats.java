@@ -0,0 +1,426 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.matrices;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.matrix.SparseMatrixUtils;
+import uk.ac.manchester.tornado.matrix.SparseMatrixUtils.CSRMatrix;
+import uk.ac.manchester.tornado.matrix.SparseMatrixUtils.ELLMatrix;
+import uk.ac.manchester.tornado.matrix.SparseMatrixUtils.SellCSigmaMatrix;
+import uk.ac.manchester.tornado.matrix.SparseMatrixUtils.SparseFormat;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Conversions of {@link SparseMatrixUtils} from CSR to the ELLPACK and SELL-C-σ formats, the
+ * format selection, and the SpMV kernels of the three formats.
+ *
+ * <p>How to run? <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.matrices.TestSparseMatrixFormats
+ * </code>
+ */
+public class TestSparseMatrixFormats extends TornadoTestBase {
+  // CHECKSTYLE:OFF
+
+  public static void spmvCsr(
+      final FloatArray val,
+      final IntArray cols,
+      final IntArray rowDelimiters,
+      final FloatArray vec,
+      final int dim,
+      final FloatArray out) {
+    for (@Parallel int i = 0; i < dim; i++) {
+      float t = 0.0f;
+      for (int j = rowDelimiters.get(i); j < rowDelimiters.get(i + 1); j++) {
+        t += val.get(j) * vec.get(cols.get(j));
+      }
+      out.set(i, t);
+    }
+  }
+
+  public static void spmvEll(
+      final FloatArray val,
+      final IntArray cols,
+      final int width,
+      final FloatArray vec,
+      final int dim,
+      final FloatArray out) {
+    for (@Parallel int i = 0; i < dim; i++) {
+      float t = 0.0f;
+      for (int k = 0; k < width; k++) {
+        final int index = k * dim + i;
+        t += val.get(index) * vec.get(cols.get(index));
+      }
+      out.set(i, t);
+    }
+  }
+
+  public static void spmvSellCSigma(
+      final FloatArray val,
+      final IntArray cols,
+      final IntArray slices,
+      final IntArray rowOrder,
+      final int sliceHeight,
+      final FloatArray vec,
+      final int dim,
+      final FloatArray out) {
+    for (@Parallel int i = 0; i < dim; i++) {
+      final int slice = i / sliceHeight;
+      final int start = slices.get(slice) + (i % sliceHeight);
+      final int width = (slices.get(slice + 1) - slices.get(slice)) / sliceHeight;
+      float t = 0.0f;
+      for (int k = 0; k < width; k++) {
+        final int index = start + k * sliceHeight;
+        t += val.get(index) * vec.get(cols.get(index));
+      }
+      out.set(rowOrder.get(i), t);
+    }
+  }
+
+  private static CSRMatrix<FloatArray> toCSR(float[][] dense) {
+    int nnz = 0;
+    for (float[] row : dense) {
+      for (float value : row) {
+        nnz += value != 0.0f ? 1 : 0;
+      }
+    }
+    CSRMatrix<FloatArray> csr = new CSRMatrix<>();
+    csr.n = nnz;
+    csr.size = dense.length;
+    csr.vals = new FloatArray(Math.max(1, nnz));
+    csr.cols = new IntArray(Math.max(1, nnz));
+    csr.rows = new IntArray(dense.length + 1);
+    int index = 0;
+    for (int i = 0; i < dense.length; i++) {
+      csr.rows.set(i, index);
+      for (int j = 0; j < dense[i].length; j++) {
+        if (dense[i][j] != 0.0f) {
+          csr.vals.set(index, dense[i][j]);
+          csr.cols.set(index, j);
+          index++;
+        }
+      }
+    }
+    csr.rows.set(dense.length, index);
+    return csr;
+  }
+
+  /** Square matrix whose row {@code i} has {@code lengths[i]} non-zero elements. */
+  private static float[][] denseWithRowLengths(int[] lengths, int columns) {
+    float[][] dense = new float[lengths.length][columns];
+    for (int i = 0; i < lengths.length; i++) {
+      for (int k = 0; k < lengths[i]; k++) {
+        dense[i][(i + k * 7) % columns] = 1.0f + i + k * 0.5f;
+      }
+    }
+    return dense;
+  }
+
+  private static float[][] randomDense(int rows, int columns, double density, long seed) {
+    Random random = new Random(seed);
+    float[][] dense = new float[rows][columns];
+    for (int i = 0; i < rows; i++) {
+      // Every fifth row is empty
+      if (i % 5 == 3) {
+        continue;
+      }
+      for (int j = 0; j < columns; j++) {
+        if (random.nextDouble() < density) {
+          dense[i][j] = random.nextFloat() + 0.1f;
+        }
+      }
+    }
+    return dense;
+  }
+
+  private static float[][] fromELL(ELLMatrix ell, int columns) {
+    float[][] dense = new float[ell.size][columns];
+    for (int i = 0; i < ell.size; i++) {
+      for (int k = 0; k < ell.width; k++) {
+        int index = k * ell.size + i;
+        dense[i][ell.cols.get(index)] += ell.vals.get(index);
+      }
+    }
+    return dense;
+  }
+
+  private static float[][] fromSellCSigma(SellCSigmaMatrix sell, int columns) {
+    float[][] dense = new float[sell.size][columns];
+    for (int p = 0; p < sell.size; p++) {
+      int slice = p / sell.sliceHeight;
+      int width = (sell.slices.get(slice + 1) - sell.slices.get(slice)) / sell.sliceHeight;
+      for (int k = 0; k < width; k++) {
+        int index = sell.slices.get(slice) + k * sell.sliceHeight + p % sell.sliceHeight;
+        dense[sell.rowOrder.get(p)][sell.cols.get(index)] += sell.vals.get(index);
+      }
+    }
+    return dense;
+  }
+
+  private static int rowLength(CSRMatrix<FloatArray> csr, int row) {
+    return csr.rows.get(row + 1) - csr.rows.get(row);
+  }
+
+  private static void assertSameMatrix(float[][] expected, float[][] actual) {
+    assertEquals(expected.length, actual.length);
+    for (int i = 0; i < expected.length; i++) {
+      assertArrayEquals(expected[i], actual[i], 0.0f);
+    }
+  }
+
+  @Test
+  public void testELLRoundTrip() {
+    final int columns = 60;
+    float[][] dense = randomDense(50, columns, 0.1, 11);
+    CSRMatrix<FloatArray> csr = toCSR(dense);
+    ELLMatrix ell = SparseMatrixUtils.toELL(csr);
+
+    int maxLength = 0;
+    for (int i = 0; i < csr.size; i++) {
+      maxLength = Math.max(maxLength, rowLength(csr, i));
+    }
+    assertEquals(csr.size, ell.size);
+    assertEquals(csr.n, ell.n);
+    assertEquals(maxLength, ell.width);
+    assertSameMatrix(dense, fromELL(ell, columns));
+
+    // Padding entries have a zero value and column 0
+    for (int i = 0; i < ell.size; i++) {
+      for (int k = rowLength(csr, i); k < ell.width; k++) {
+        assertEquals(0.0f, ell.vals.get(k * ell.size + i), 0.0f);
+        assertEquals(0, ell.cols.get(k * ell.size + i));
+      }
+    }
+  }
+
+  @Test
+  public void testELLEmptyMatrix() {
+    CSRMatrix<FloatArray> csr = toCSR(new float[8][8]);
+    ELLMatrix ell = SparseMatrixUtils.toELL(csr);
+    assertEquals(0, ell.width);
+    assertSameMatrix(new float[8][8], fromELL(ell, 8));
+  }
+
+  @Test
+  public void testSellCSigmaRoundTrip() {
+    // The slice height does not divide the number of rows, and the last sigma window is partial
+    final int rows = 70;
+    final int columns = 80;
+    final int sliceHeight = 8;
+    final int sigma = 16;
+    float[][] dense = randomDense(rows, columns, 0.08, 23);
+    CSRMatrix<FloatArray> csr = toCSR(dense);
+    SellCSigmaMatrix sell = SparseMatrixUtils.toSellCSigma(csr, sliceHeight, sigma);
+
+    assertEquals(rows, sell.size);
+    assertEquals(csr.n, sell.n);
+    assertSameMatrix(dense, fromSellCSigma(sell, columns));
+
+    // The row order is a permutation that only sorts rows within each window of sigma rows
+    int[] order = new int[rows];
+    for (int p = 0; p < rows; p++) {
+      order[p] = sell.rowOrder.get(p);
+      assertEquals(p / sigma, order[p] / sigma);
+      if (p % sigma != 0) {
+        assertTrue(rowLength(csr, order[p - 1]) >= rowLength(csr, order[p]));
+      }
+    }
+    int[] sorted = order.clone();
+    Arrays.sort(sorted);
+    for (int p = 0; p < rows; p++) {
+      assertEquals(p, sorted[p]);
+    }
+
+    // Each slice is padded to its longest row, including the last and partial slice
+    final int numSlices = (rows + sliceHeight - 1) / sliceHeight;
+    assertEquals(0, sell.slices.get(0));
+    for (int slice = 0; slice < numSlices; slice++) {
+      int width = 0;
+      for (int p = slice * sliceHeight; p < Math.min(rows, (slice + 1) * sliceHeight); p++) {
+        width = Math.max(width, rowLength(csr, order[p]));
+      }
+      assertEquals(width * sliceHeight, sell.slices.get(slice + 1) - sell.slices.get(slice));
+      for (int p = slice * sliceHeight; p < (slice + 1) * sliceHeight; p++) {
+        int length = p < rows ? rowLength(csr, order[p]) : 0;
+        for (int k = length; k < width; k++) {
+          int index = sell.slices.get(slice) + k * sliceHeight + p % sliceHeight;
+          assertEquals(0.0f, sell.vals.get(index), 0.0f);
+          assertEquals(0, sell.cols.get(index));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSellCSigmaInvalidSigma() {
+    CSRMatrix<FloatArray> csr = toCSR(randomDense(16, 16, 0.2, 5));
+    int[][] invalid = {{0, 8}, {8, 4}, {8, 12}};
+    for (int[] parameters : invalid) {
+      try {
+        SparseMatrixUtils.toSellCSigma(csr, parameters[0], parameters[1]);
+        fail("Expected IllegalArgumentException for C=" + parameters[0] + ", σ=" + parameters[1]);
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+  }
+
+  @Test
+  public void testSelectFormatELL() {
+    // 32 rows of length 5 and 32 rows of length 3: the ELL padding is 64 * 5 / 256 = 1.25
+    int[] lengths = new int[64];
+    for (int i = 0; i < lengths.length; i++) {
+      lengths[i] = i % 2 == 0 ? 5 : 3;
+    }
+    assertEquals(
+        SparseFormat.ELL, SparseMatrixUtils.selectFormat(toCSR(denseWithRowLengths(lengths, 64))));
+  }
+
+  @Test
+  public void testSelectFormatSellCSigma() {
+    // One row less of length 5: the ELL padding is 320 / 254 > 1.25, but sorting the rows leaves
+    // a single padded row in SELL-C-σ
+    int[] lengths = new int[64];
+    for (int i = 0; i < lengths.length; i++) {
+      lengths[i] = (i % 2 == 0 && i != 0) ? 5 : 3;
+    }
+    assertEquals(
+        SparseFormat.SELL_C_SIGMA,
+        SparseMatrixUtils.selectFormat(toCSR(denseWithRowLengths(lengths, 64))));
+
+    // 15 rows of length 4 and 49 rows of length 1: the SELL-C-σ padding is 160 / 109 <= 1.5
+    for (int i = 0; i < lengths.length; i++) {
+      lengths[i] = i < 15 ? 4 : 1;
+    }
+    assertEquals(
+        SparseFormat.SELL_C_SIGMA,
+        SparseMatrixUtils.selectFormat(toCSR(denseWithRowLengths(lengths, 64))));
+  }
+
+  @Test
+  public void testSelectFormatCSR() {
+    // 14 rows of length 4 and 50 rows of length 1: the SELL-C-σ padding is 160 / 106 > 1.5
+    int[] lengths = new int[64];
+    for (int i = 0; i < lengths.length; i++) {
+      lengths[i] = i < 14 ? 4 : 1;
+    }
+    assertEquals(
+        SparseFormat.CSR, SparseMatrixUtils.selectFormat(toCSR(denseWithRowLengths(lengths, 64))));
+
+    // A single long row pads a whole slice
+    lengths = new int[1024];
+    Arrays.fill(lengths, 1);
+    lengths[100] = 1000;
+    assertEquals(
+        SparseFormat.CSR,
+        SparseMatrixUtils.selectFormat(toCSR(denseWithRowLengths(lengths, 1024))));
+
+    // Empty matrix
+    assertEquals(SparseFormat.CSR, SparseMatrixUtils.selectFormat(toCSR(new float[4][4])));
+  }
+
+  @Test
+  public void testSpMVFormats() throws TornadoExecutionPlanException {
+    final int size = 300;
+    float[][] dense = randomDense(size, size, 0.05, 42);
+    CSRMatrix<FloatArray> csr = toCSR(dense);
+    ELLMatrix ell = SparseMatrixUtils.toELL(csr);
+    SellCSigmaMatrix sell = SparseMatrixUtils.toSellCSigma(csr, 32, 64);
+
+    FloatArray vec = new FloatArray(size);
+    for (int i = 0; i < size; i++) {
+      vec.set(i, (i % 17) * 0.25f - 1.0f);
+    }
+    FloatArray outCsr = new FloatArray(size);
+    FloatArray outEll = new FloatArray(size);
+    FloatArray outSell = new FloatArray(size);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(
+                DataTransferMode.FIRST_EXECUTION,
+                csr.vals,
+                csr.cols,
+                csr.rows,
+                ell.vals,
+                ell.cols,
+                sell.vals,
+                sell.cols,
+                sell.slices,
+                sell.rowOrder,
+                vec) //
+            .task(
+                "csr",
+                TestSparseMatrixFormats::spmvCsr,
+                csr.vals,
+                csr.cols,
+                csr.rows,
+                vec,
+                size,
+                outCsr) //
+            .task(
+                "ell",
+                TestSparseMatrixFormats::spmvEll,
+                ell.vals,
+                ell.cols,
+                ell.width,
+                vec,
+                size,
+                outEll) //
+            .task(
+                "sell",
+                TestSparseMatrixFormats::spmvSellCSigma,
+                sell.vals,
+                sell.cols,
+                sell.slices,
+                sell.rowOrder,
+                sell.sliceHeight,
+                vec,
+                size,
+                outSell) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, outCsr, outEll, outSell);
+
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+      executionPlan.execute();
+    }
+
+    for (int i = 0; i < size; i++) {
+      float expected = 0.0f;
+      for (int j = 0; j < size; j++) {
+        expected += dense[i][j] * vec.get(j);
+      }
+      assertEquals(expected, outCsr.get(i), DELTA);
+      assertEquals(outCsr.get(i), outEll.get(i), DELTA);
+      assertEquals(outCsr.get(i), outSell.get(i), DELTA);
+    }
+  }
+  // CHECKSTYLE:ON
+}
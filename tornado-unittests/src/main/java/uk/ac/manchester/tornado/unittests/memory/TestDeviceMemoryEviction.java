@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.TornadoExecutionResult;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.memory.TornadoMemoryProvider;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Execution plans whose combined working sets exceed the device memory. Each plan fits on its own,
+ * so the buffers of the other plans are evicted (and written back if modified on the device).
+ *
+ * <p>How to test?
+ *
+ * <p><code>
+ * tornado-test -V --jvm="-Dtornado.device.memory=20MB -Dtornado.device.memory.eviction=True"
+ * uk.ac.manchester.tornado.unittests.memory.TestDeviceMemoryEviction
+ * </code>
+ */
+public class TestDeviceMemoryEviction extends TornadoTestBase {
+
+  // 8MB per array
+  private static final int NUM_ELEMENTS = 2 * 1024 * 1024;
+
+  public static void scale(FloatArray input, FloatArray output) {
+    for (@Parallel int i = 0; i < output.getSize(); i++) {
+      output.set(i, 2.0f * input.get(i));
+    }
+  }
+
+  public static void increment(FloatArray data) {
+    for (@Parallel int i = 0; i < data.getSize(); i++) {
+      data.set(i, data.get(i) + 1.0f);
+    }
+  }
+
+  private static TornadoExecutionPlan createScalePlan(
+      String name, FloatArray input, FloatArray output) {
+    TaskGraph taskGraph =
+        new TaskGraph(name) //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+            .task("t0", TestDeviceMemoryEviction::scale, input, output) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    return new TornadoExecutionPlan(immutableTaskGraph);
+  }
+
+  @Test
+  public void testEvictionAcrossExecutionPlans() throws TornadoExecutionPlanException {
+    FloatArray inputA = new FloatArray(NUM_ELEMENTS);
+    FloatArray outputA = new FloatArray(NUM_ELEMENTS);
+    FloatArray inputB = new FloatArray(NUM_ELEMENTS);
+    FloatArray outputB = new FloatArray(NUM_ELEMENTS);
+    inputA.init(1.0f);
+    inputB.init(3.0f);
+
+    try (TornadoExecutionPlan planA = createScalePlan("s0", inputA, outputA);
+        TornadoExecutionPlan planB = createScalePlan("s1", inputB, outputB)) {
+
+      planA.execute();
+      // The buffers of plan A are evicted to make room for plan B
+      planB.execute();
+      // The buffers of plan A are allocated and transferred again
+      outputA.init(0.0f);
+      planA.execute();
+
+      for (int i = 0; i < NUM_ELEMENTS; i++) {
+        assertEquals(2.0f, outputA.get(i), 0.001f);
+        assertEquals(6.0f, outputB.get(i), 0.001f);
+      }
+
+      TornadoMemoryProvider memoryProvider =
+          planA.getDevice(0).getDeviceContext().getMemoryManager();
+      assertTrue(memoryProvider.getNumEvictions() > 0);
+    }
+  }
+
+  @Test
+  public void testEvictionWritesBackModifiedBuffers() throws TornadoExecutionPlanException {
+    FloatArray data = new FloatArray(NUM_ELEMENTS);
+    FloatArray inputB = new FloatArray(NUM_ELEMENTS);
+    FloatArray outputB = new FloatArray(NUM_ELEMENTS);
+    data.init(0.0f);
+    inputB.init(1.0f);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s2") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, data) //
+            .task("t0", TestDeviceMemoryEviction::increment, data) //
+            .transferToHost(DataTransferMode.UNDER_DEMAND, data);
+
+    try (TornadoExecutionPlan planA = new TornadoExecutionPlan(taskGraph.snapshot());
+        TornadoExecutionPlan planB = createScalePlan("s3", inputB, outputB)) {
+
+      planA.execute();
+      planA.execute();
+      TornadoMemoryProvider memoryProvider =
+          planA.getDevice(0).getDeviceContext().getMemoryManager();
+      long spilledBytes = memoryProvider.getSpilledBytes();
+
+      // Plan B evicts the modified buffer of plan A, which is copied back to the host
+      planB.execute();
+      assertTrue(memoryProvider.getSpilledBytes() > spilledBytes);
+
+      TornadoExecutionResult executionResult = planA.execute();
+      executionResult.transferToHost(data);
+      for (int i = 0; i < NUM_ELEMENTS; i++) {
+        assertEquals(3.0f, data.get(i), 0.001f);
+      }
+    }
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import uk.ac.manchester.tornado.api.DataRange;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.TornadoExecutionResult;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Transfers of native arrays allocated with {@code CL_MEM_USE_HOST_PTR} buffers
+ * (tornado.opencl.usehostptr), which are synchronised with map/unmap instead of copies. Segments
+ * that are not aligned to tornado.opencl.array.align, devices without host-unified memory, batched
+ * executions and the other backends fall back to the copy path, so the results must be the same in
+ * every configuration.
+ *
+ * <p>How to test?
+ *
+ * <p><code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.memory.TestHostPointerBuffers
+ * </code>
+ *
+ * <p>Host-pointer buffers:
+ *
+ * <p><code>
+ * tornado-test -V --jvm="-Dtornado.opencl.usehostptr=True -Dtornado.panama.segmentAlignment=4096"
+ * uk.ac.manchester.tornado.unittests.memory.TestHostPointerBuffers
+ * </code>
+ */
+public class TestHostPointerBuffers extends TornadoTestBase {
+
+  private static final int NUM_ELEMENTS = 8192;
+
+  // 2MB per array, so a 1MB batch splits the execution
+  private static final int BATCH_ELEMENTS = 1 << 19;
+
+  public static void saxpy(float alpha, FloatArray x, FloatArray y, FloatArray z) {
+    for (@Parallel int i = 0; i < z.getSize(); i++) {
+      z.set(i, alpha * x.get(i) + y.get(i));
+    }
+  }
+
+  public static void addOne(IntArray data) {
+    for (@Parallel int i = 0; i < data.getSize(); i++) {
+      data.set(i, data.get(i) + 1);
+    }
+  }
+
+  /** Writes (unmap) of the inputs and reads (map) of the output on every execution. */
+  @Test
+  public void testReadWriteEveryExecution() throws TornadoExecutionPlanException {
+    FloatArray x = new FloatArray(NUM_ELEMENTS);
+    FloatArray y = new FloatArray(NUM_ELEMENTS);
+    FloatArray z = new FloatArray(NUM_ELEMENTS);
+    for (int i = 0; i < NUM_ELEMENTS; i++) {
+      x.set(i, i);
+      y.set(i, 2 * i);
+    }
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, x, y) //
+            .task("t0", TestHostPointerBuffers::saxpy, 2.0f, x, y, z) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, z);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.execute();
+      for (int i = 0; i < NUM_ELEMENTS; i++) {
+        assertEquals(4.0f * i, z.get(i), 0.001f);
+      }
+
+      // The host updates must reach the device on the next execution
+      y.init(1.0f);
+      executionPlan.execute();
+      for (int i = 0; i < NUM_ELEMENTS; i++) {
+        assertEquals(2.0f * i + 1.0f, z.get(i), 0.001f);
+      }
+
+      x.init(0.0f);
+      executionPlan.execute();
+      for (int i = 0; i < NUM_ELEMENTS; i++) {
+        assertEquals(1.0f, z.get(i), 0.001f);
+      }
+    }
+  }
+
+  /** The buffer stays on the device between executions and is only read back at the end. */
+  @Test
+  public void testReadAfterSeveralExecutions() throws TornadoExecutionPlanException {
+    IntArray data = new IntArray(NUM_ELEMENTS);
+    data.init(10);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s1") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, data) //
+            .task("t0", TestHostPointerBuffers::addOne, data) //
+            .transferToHost(DataTransferMode.UNDER_DEMAND, data);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      TornadoExecutionResult executionResult = null;
+      for (int i = 0; i < 5; i++) {
+        executionResult = executionPlan.execute();
+      }
+      executionResult.transferToHost(data);
+    }
+
+    for (int i = 0; i < NUM_ELEMENTS; i++) {
+      assertEquals(15, data.get(i));
+    }
+  }
+
+  /** Partial reads map only the requested range of the buffer. */
+  @Test
+  public void testPartialReads() throws TornadoExecutionPlanException {
+    IntArray data = new IntArray(NUM_ELEMENTS);
+    data.init(20);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s2") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, data) //
+            .task("t0", TestHostPointerBuffers::addOne, data) //
+            .transferToHost(DataTransferMode.UNDER_DEMAND, data);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      TornadoExecutionResult executionResult = executionPlan.execute();
+
+      DataRange dataRange = new DataRange(data);
+      executionResult.transferToHost(dataRange.withSize(NUM_ELEMENTS / 4));
+      for (int i = 0; i < NUM_ELEMENTS / 4; i++) {
+        assertEquals(21, data.get(i));
+      }
+
+      executionResult.transferToHost(
+          dataRange.withOffset(NUM_ELEMENTS / 4).withSize(3 * NUM_ELEMENTS / 4));
+    }
+
+    for (int i = 0; i < NUM_ELEMENTS; i++) {
+      assertEquals(21, data.get(i));
+    }
+  }
+
+  /** Batched executions keep the buffer provider and the copy path. */
+  @Test
+  public void testBatchedFallback() throws TornadoExecutionPlanException {
+    FloatArray x = new FloatArray(BATCH_ELEMENTS);
+    FloatArray y = new FloatArray(BATCH_ELEMENTS);
+    FloatArray z = new FloatArray(BATCH_ELEMENTS);
+    x.init(1.0f);
+    y.init(3.0f);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s3") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, x, y) //
+            .task("t0", TestHostPointerBuffers::saxpy, 2.0f, x, y, z) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, z);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.withBatch("1MB").execute();
+    }
+
+    for (int i = 0; i < BATCH_ELEMENTS; i++) {
+      assertEquals(5.0f, z.get(i), 0.001f);
+    }
+  }
+}
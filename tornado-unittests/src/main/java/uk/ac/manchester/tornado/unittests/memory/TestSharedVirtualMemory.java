@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Execution plans with shared virtual memory. Devices without fine-grained system SVM fall back to
+ * device buffers, so the results must be the same on every device.
+ *
+ * <p>How to test?
+ *
+ * <p><code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.memory.TestSharedVirtualMemory
+ * </code>
+ */
+public class TestSharedVirtualMemory extends TornadoTestBase {
+
+  private static final int NUM_ELEMENTS = 4096;
+
+  public static void saxpy(float alpha, FloatArray x, FloatArray y, FloatArray z) {
+    for (@Parallel int i = 0; i < z.getSize(); i++) {
+      z.set(i, alpha * x.get(i) + y.get(i));
+    }
+  }
+
+  @Test
+  public void testSharedVirtualMemory() throws TornadoExecutionPlanException {
+    FloatArray x = new FloatArray(NUM_ELEMENTS);
+    FloatArray y = new FloatArray(NUM_ELEMENTS);
+    FloatArray z = new FloatArray(NUM_ELEMENTS);
+    for (int i = 0; i < NUM_ELEMENTS; i++) {
+      x.set(i, i);
+      y.set(i, 2 * i);
+    }
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, x, y) //
+            .task("t0", TestSharedVirtualMemory::saxpy, 2.0f, x, y, z) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, z);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.withSharedVirtualMemory();
+
+      executionPlan.execute();
+      for (int i = 0; i < NUM_ELEMENTS; i++) {
+        assertEquals(4.0f * i, z.get(i), 0.001f);
+      }
+
+      // Update the inputs and run again
+      y.init(1.0f);
+      executionPlan.execute();
+      for (int i = 0; i < NUM_ELEMENTS; i++) {
+        assertEquals(2.0f * i + 1.0f, z.get(i), 0.001f);
+      }
+    }
+  }
+
+  @Test
+  public void testWithoutSharedVirtualMemory() throws TornadoExecutionPlanException {
+    FloatArray x = new FloatArray(NUM_ELEMENTS);
+    FloatArray y = new FloatArray(NUM_ELEMENTS);
+    FloatArray z = new FloatArray(NUM_ELEMENTS);
+    x.init(1.0f);
+    y.init(3.0f);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s1") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, x, y) //
+            .task("t0", TestSharedVirtualMemory::saxpy, 2.0f, x, y, z) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, z);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.withSharedVirtualMemory().withoutSharedVirtualMemory().execute();
+      for (int i = 0; i < NUM_ELEMENTS; i++) {
+        assertEquals(5.0f, z.get(i), 0.001f);
+      }
+    }
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.profiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.TestHello;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Checks the JDK Flight Recorder events emitted by the TornadoVM interpreter.
+ *
+ * <p>How to run? <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.profiler.TestFlightRecorder
+ * </code>
+ */
+public class TestFlightRecorder extends TornadoTestBase {
+
+  private static final String KERNEL_LAUNCH = "uk.ac.manchester.tornado.KernelLaunch";
+  private static final String TRANSFER = "uk.ac.manchester.tornado.Transfer";
+  private static final String ALLOCATION = "uk.ac.manchester.tornado.Allocation";
+
+  private static List<RecordedEvent> eventsOf(List<RecordedEvent> events, String name) {
+    return events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+  }
+
+  @Test
+  public void testInterpreterEvents() throws TornadoExecutionPlanException, IOException {
+    final int numElements = 256;
+    final int numExecutions = 4;
+    IntArray a = new IntArray(numElements);
+    IntArray b = new IntArray(numElements);
+    IntArray c = new IntArray(numElements);
+
+    a.init(1);
+    b.init(2);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+            .task("t0", TestHello::add, a, b, c) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+    Path file = Files.createTempFile("tornado", ".jfr");
+    long executionPlanId;
+    try (Recording recording = new Recording()) {
+      recording.enable(KERNEL_LAUNCH);
+      recording.enable(TRANSFER);
+      recording.enable(ALLOCATION);
+      recording.start();
+
+      try (TornadoExecutionPlan executionPlan =
+          new TornadoExecutionPlan(taskGraph.snapshot())) {
+        executionPlanId = executionPlan.getId();
+        for (int i = 0; i < numExecutions; i++) {
+          executionPlan.execute();
+        }
+      }
+
+      recording.stop();
+      recording.dump(file);
+    }
+
+    List<RecordedEvent> events;
+    try {
+      events = RecordingFile.readAllEvents(file);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+
+    List<RecordedEvent> launches = eventsOf(events, KERNEL_LAUNCH);
+    assertEquals(numExecutions, launches.size());
+    for (RecordedEvent launch : launches) {
+      assertEquals(executionPlanId, launch.getLong("executionPlanId"));
+      assertNotNull(launch.getString("device"));
+      assertTrue(launch.getString("taskId").endsWith("t0"));
+      // The device timestamps are read once the execution has finished
+      long start = launch.getLong("deviceStartTime");
+      long end = launch.getLong("deviceEndTime");
+      assertTrue(start > 0);
+      assertTrue(end >= start);
+      // The event identifier used to read the timestamps is not recorded
+      assertFalse(launch.hasField("deviceEventId"));
+    }
+
+    // a and b are copied in, and c is copied out, on every execution
+    List<RecordedEvent> transfers = eventsOf(events, TRANSFER);
+    assertEquals(3 * numExecutions, transfers.size());
+    long bytesIn = 0;
+    long bytesOut = 0;
+    for (RecordedEvent transfer : transfers) {
+      assertEquals(executionPlanId, transfer.getLong("executionPlanId"));
+      assertEquals(IntArray.class.getName(), transfer.getString("objectType"));
+      if (transfer.getString("bytecode").startsWith("TRANSFER_HOST_TO_DEVICE")) {
+        bytesIn += transfer.getLong("bytes");
+      } else {
+        bytesOut += transfer.getLong("bytes");
+      }
+    }
+    assertEquals(2 * bytesOut, bytesIn);
+    assertTrue(bytesOut >= (long) numExecutions * numElements * Integer.BYTES);
+
+    assertFalse(eventsOf(events, ALLOCATION).isEmpty());
+
+    for (int i = 0; i < numElements; i++) {
+      assertEquals(3, c.get(i));
+    }
+  }
+}
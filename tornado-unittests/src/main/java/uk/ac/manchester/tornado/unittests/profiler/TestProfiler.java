@@ -18,6 +18,7 @@
 package uk.ac.manchester.tornado.unittests.profiler;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Random;
@@ -34,6 +35,7 @@ import uk.ac.manchester.tornado.api.enums.DataTransferMode;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.profiler.ProfilerSampling;
 import uk.ac.manchester.tornado.api.runtime.TornadoRuntimeProvider;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.unittests.TestHello;
@@ -122,6 +124,107 @@ public class TestProfiler extends TornadoTestBase {
     }
   }
 
+  @Test
+  public void testProfilerSampling() throws TornadoExecutionPlanException {
+    int numElements = 16;
+    IntArray a = new IntArray(numElements);
+    IntArray b = new IntArray(numElements);
+    IntArray c = new IntArray(numElements);
+
+    a.init(1);
+    b.init(2);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+            .task("t0", TestHello::add, a, b, c) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+    try (TornadoExecutionPlan plan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+      plan.withProfiler(ProfilerMode.SILENT, ProfilerSampling.everyNExecutions(4));
+
+      long sampledTotalTime = 0;
+      TornadoProfilerResult profilerResult = null;
+      for (int i = 0; i < 10; i++) {
+        profilerResult = plan.execute().getProfilerResult();
+        // Executions 0, 4 and 8 are profiled
+        assertEquals(i % 4 == 0, profilerResult.isSampled());
+        if (profilerResult.isSampled()) {
+          assertTrue(profilerResult.getTotalTime() > 0);
+          sampledTotalTime += profilerResult.getTotalTime();
+        }
+      }
+
+      assertEquals(10, profilerResult.getExecutionCount());
+      assertEquals(3, profilerResult.getSampleCount());
+      assertEquals(sampledTotalTime, profilerResult.getSampledTotalTime());
+      assertTrue(profilerResult.getSampledDeviceReadTime() > 0);
+
+      // Without sampling, all executions are profiled again
+      TornadoProfilerResult result =
+          plan.withProfiler(ProfilerMode.SILENT).execute().getProfilerResult();
+      assertTrue(result.isSampled());
+      assertEquals(0, result.getSampleCount());
+
+      plan.withoutProfiler();
+      assertFalse(plan.execute().getProfilerResult().isSampled());
+    }
+
+    for (int i = 0; i < numElements; i++) {
+      assertEquals(3, c.get(i));
+    }
+  }
+
+  @Test
+  public void testProfilerSamplingPerPlan() throws TornadoExecutionPlanException {
+    int numElements = 16;
+    IntArray a = new IntArray(numElements);
+    IntArray b = new IntArray(numElements);
+    IntArray c = new IntArray(numElements);
+    IntArray d = new IntArray(numElements);
+
+    a.init(1);
+    b.init(2);
+
+    TaskGraph sampledGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+            .task("t0", TestHello::add, a, b, c) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+    TaskGraph profiledGraph =
+        new TaskGraph("s1") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+            .task("t0", TestHello::add, a, b, d) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, d);
+
+    try (TornadoExecutionPlan sampledPlan = new TornadoExecutionPlan(sampledGraph.snapshot());
+        TornadoExecutionPlan profiledPlan = new TornadoExecutionPlan(profiledGraph.snapshot())) {
+      sampledPlan.withProfiler(ProfilerMode.SILENT, ProfilerSampling.everyNExecutions(4));
+      profiledPlan.withProfiler(ProfilerMode.SILENT);
+
+      for (int i = 0; i < 8; i++) {
+        TornadoProfilerResult sampledResult = sampledPlan.execute().getProfilerResult();
+        assertEquals(i % 4 == 0, sampledResult.isSampled());
+
+        // Executions of the sampled plan that are not profiled must not switch off the
+        // profiler of the other plan
+        TornadoProfilerResult profiledResult = profiledPlan.execute().getProfilerResult();
+        assertTrue(profiledResult.isSampled());
+        assertTrue(profiledResult.getDeviceReadTime() > 0);
+        assertTrue(profiledResult.getDeviceKernelTime() > 0);
+      }
+
+      // Executions 0 and 4 were profiled, and the next one (8) is sampled as well
+      assertEquals(3, sampledPlan.execute().getProfilerResult().getSampleCount());
+    }
+
+    for (int i = 0; i < numElements; i++) {
+      assertEquals(3, c.get(i));
+      assertEquals(3, d.get(i));
+    }
+  }
+
   @Test
   public void testProfilerDisabled() throws TornadoExecutionPlanException {
     int numElements = 16;
@@ -0,0 +1,703 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.reductions;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import org.junit.Test;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.annotations.Reduce;
+import uk.ac.manchester.tornado.api.common.TornadoFunctions.Task2;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.math.TornadoMath;
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.LongArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Reductions compiled with the single-pass snippets: each thread accumulates several elements in
+ * the grid-stride loop, the work-group combines once after the loop, and the last work-group to
+ * finish merges the partial results. The input sizes make every thread visit many elements, and
+ * {@link #RAGGED_SIZE} is not a multiple of the number of threads launched.
+ *
+ * <p>How to run? <code>
+ * tornado-test -V --jvm="-Dtornado.reduce.singlepass=True"
+ * uk.ac.manchester.tornado.unittests.reductions.TestSinglePassReductions
+ * </code>
+ */
+public class TestSinglePassReductions extends TornadoTestBase {
+  // CHECKSTYLE:OFF
+
+  private static final int SIZE = 1 << 20;
+  private static final int RAGGED_SIZE = 100_000;
+
+  private static void intSum(IntArray input, @Reduce IntArray result) {
+    for (@Parallel int i = 0; i < input.getSize(); i++) {
+      result.set(0, result.get(0) + input.get(i));
+    }
+  }
+
+  private static void intMult(IntArray input, @Reduce IntArray result) {
+    for (@Parallel int i = 0; i < input.getSize(); i++) {
+      result.set(0, result.get(0) * input.get(i));
+    }
+  }
+
+  private static void intMax(IntArray input, @Reduce IntArray result) {
+    for (@Parallel int i = 0; i < input.getSize(); i++) {
+      result.set(0, TornadoMath.max(result.get(0), input.get(i)));
+    }
+  }
+
+  private static void intMin(IntArray input, @Reduce IntArray result) {
+    for (@Parallel int i = 0; i < input.getSize(); i++) {
+      result.set(0, TornadoMath.min(result.get(0), input.get(i)));
+    }
+  }
+
+  private static void longSum(LongArray input, @Reduce LongArray result) {
+    for (@Parallel int i = 0; i < input.getSize(); i++) {
+      result.set(0, result.get(0) + input.get(i));
+    }
+  }
+
+  private static void longMult(LongArray input, @Reduce LongArray result) {
+    for (@Parallel int i = 0; i < input.getSize(); i++) {
+      result.set(0, result.get(0) * input.get(i));
+    }
+  }
+
+  private static void longMax(LongArray input, @Reduce LongArray result) {
+    for (@Parallel int i = 0; i < input.getSize(); i++) {
+      result.set(0, TornadoMath.max(result.get(0), input.get(i)));
+    }
+  }
+
+  private static void longMin(LongArray input, @Reduce LongArray result) {
+    for (@Parallel int i = 0; i < input.getSize(); i++) {
+      result.set(0, TornadoMath.min(result.get(0), input.get(i)));
+    }
+  }
+
+  private static void floatSum(FloatArray input, @Reduce FloatArray result) {
+    for (@Parallel int i = 0; i < input.getSize(); i++) {
+      result.set(0, result.get(0) + input.get(i));
+    }
+  }
+
+  private static void floatMult(FloatArray input, @Reduce FloatArray result) {
+    for (@Parallel int i = 0; i < input.getSize(); i++) {
+      result.set(0, result.get(0) * input.get(i));
+    }
+  }
+
+  private static void floatMax(FloatArray input, @Reduce FloatArray result) {
+    for (@Parallel int i = 0; i < input.getSize(); i++) {
+      result.set(0, TornadoMath.max(result.get(0), input.get(i)));
+    }
+  }
+
+  private static void floatMin(FloatArray input, @Reduce FloatArray result) {
+    for (@Parallel int i = 0; i < input.getSize(); i++) {
+      result.set(0, TornadoMath.min(result.get(0), input.get(i)));
+    }
+  }
+
+  private static void doubleSum(DoubleArray input, @Reduce DoubleArray result) {
+    for (@Parallel int i = 0; i < input.getSize(); i++) {
+      result.set(0, result.get(0) + input.get(i));
+    }
+  }
+
+  private static void doubleMult(DoubleArray input, @Reduce DoubleArray result) {
+    for (@Parallel int i = 0; i < input.getSize(); i++) {
+      result.set(0, result.get(0) * input.get(i));
+    }
+  }
+
+  private static void doubleMax(DoubleArray input, @Reduce DoubleArray result) {
+    for (@Parallel int i = 0; i < input.getSize(); i++) {
+      result.set(0, TornadoMath.max(result.get(0), input.get(i)));
+    }
+  }
+
+  private static void doubleMin(DoubleArray input, @Reduce DoubleArray result) {
+    for (@Parallel int i = 0; i < input.getSize(); i++) {
+      result.set(0, TornadoMath.min(result.get(0), input.get(i)));
+    }
+  }
+
+  private static <T> void runReduction(Task2<T, T> code, T input, T result)
+      throws TornadoExecutionPlanException {
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+            .task("t0", code, input, result) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, result);
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+      executionPlan.execute();
+    }
+  }
+
+  private static IntArray initIntInput(int size, boolean product) {
+    Random r = new Random(size);
+    IntArray input = new IntArray(size);
+    for (int i = 0; i < size; i++) {
+      // Products use ones and a few twos so the result stays exact for every element type
+      input.set(i, product ? (i % 65537 == 0 ? 2 : 1) : r.nextInt(1 << 12) - (1 << 11));
+    }
+    return input;
+  }
+
+  private static LongArray initLongInput(int size, boolean product) {
+    Random r = new Random(size);
+    LongArray input = new LongArray(size);
+    for (int i = 0; i < size; i++) {
+      input.set(i, product ? (i % 65537 == 0 ? 2L : 1L) : r.nextInt(1 << 12) - (1 << 11));
+    }
+    return input;
+  }
+
+  private static FloatArray initFloatInput(int size, boolean product) {
+    Random r = new Random(size);
+    FloatArray input = new FloatArray(size);
+    for (int i = 0; i < size; i++) {
+      input.set(i, product ? (i % 65537 == 0 ? 2.0f : 1.0f) : r.nextInt(1 << 12) - (1 << 11));
+    }
+    return input;
+  }
+
+  private static DoubleArray initDoubleInput(int size, boolean product) {
+    Random r = new Random(size);
+    DoubleArray input = new DoubleArray(size);
+    for (int i = 0; i < size; i++) {
+      input.set(i, product ? (i % 65537 == 0 ? 2.0 : 1.0) : r.nextInt(1 << 12) - (1 << 11));
+    }
+    return input;
+  }
+
+  @Test
+  public void testIntSum() throws TornadoExecutionPlanException {
+    IntArray input = initIntInput(SIZE, false);
+    IntArray result = new IntArray(1);
+    result.init(0);
+
+    runReduction(TestSinglePassReductions::intSum, input, result);
+
+    IntArray sequential = new IntArray(1);
+    sequential.init(0);
+    intSum(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0));
+  }
+
+  @Test
+  public void testIntSumRagged() throws TornadoExecutionPlanException {
+    IntArray input = initIntInput(RAGGED_SIZE, false);
+    IntArray result = new IntArray(1);
+    result.init(0);
+
+    runReduction(TestSinglePassReductions::intSum, input, result);
+
+    IntArray sequential = new IntArray(1);
+    sequential.init(0);
+    intSum(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0));
+  }
+
+  @Test
+  public void testIntMult() throws TornadoExecutionPlanException {
+    IntArray input = initIntInput(SIZE, true);
+    IntArray result = new IntArray(1);
+    result.init(1);
+
+    runReduction(TestSinglePassReductions::intMult, input, result);
+
+    IntArray sequential = new IntArray(1);
+    sequential.init(1);
+    intMult(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0));
+  }
+
+  @Test
+  public void testIntMultRagged() throws TornadoExecutionPlanException {
+    IntArray input = initIntInput(RAGGED_SIZE, true);
+    IntArray result = new IntArray(1);
+    result.init(1);
+
+    runReduction(TestSinglePassReductions::intMult, input, result);
+
+    IntArray sequential = new IntArray(1);
+    sequential.init(1);
+    intMult(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0));
+  }
+
+  @Test
+  public void testIntMax() throws TornadoExecutionPlanException {
+    IntArray input = initIntInput(SIZE, false);
+    IntArray result = new IntArray(1);
+    result.init(Integer.MIN_VALUE);
+
+    runReduction(TestSinglePassReductions::intMax, input, result);
+
+    IntArray sequential = new IntArray(1);
+    sequential.init(Integer.MIN_VALUE);
+    intMax(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0));
+  }
+
+  @Test
+  public void testIntMaxRagged() throws TornadoExecutionPlanException {
+    IntArray input = initIntInput(RAGGED_SIZE, false);
+    IntArray result = new IntArray(1);
+    result.init(Integer.MIN_VALUE);
+
+    runReduction(TestSinglePassReductions::intMax, input, result);
+
+    IntArray sequential = new IntArray(1);
+    sequential.init(Integer.MIN_VALUE);
+    intMax(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0));
+  }
+
+  @Test
+  public void testIntMin() throws TornadoExecutionPlanException {
+    IntArray input = initIntInput(SIZE, false);
+    IntArray result = new IntArray(1);
+    result.init(Integer.MAX_VALUE);
+
+    runReduction(TestSinglePassReductions::intMin, input, result);
+
+    IntArray sequential = new IntArray(1);
+    sequential.init(Integer.MAX_VALUE);
+    intMin(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0));
+  }
+
+  @Test
+  public void testIntMinRagged() throws TornadoExecutionPlanException {
+    IntArray input = initIntInput(RAGGED_SIZE, false);
+    IntArray result = new IntArray(1);
+    result.init(Integer.MAX_VALUE);
+
+    runReduction(TestSinglePassReductions::intMin, input, result);
+
+    IntArray sequential = new IntArray(1);
+    sequential.init(Integer.MAX_VALUE);
+    intMin(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0));
+  }
+
+  @Test
+  public void testLongSum() throws TornadoExecutionPlanException {
+    LongArray input = initLongInput(SIZE, false);
+    LongArray result = new LongArray(1);
+    result.init(0L);
+
+    runReduction(TestSinglePassReductions::longSum, input, result);
+
+    LongArray sequential = new LongArray(1);
+    sequential.init(0L);
+    longSum(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0));
+  }
+
+  @Test
+  public void testLongSumRagged() throws TornadoExecutionPlanException {
+    LongArray input = initLongInput(RAGGED_SIZE, false);
+    LongArray result = new LongArray(1);
+    result.init(0L);
+
+    runReduction(TestSinglePassReductions::longSum, input, result);
+
+    LongArray sequential = new LongArray(1);
+    sequential.init(0L);
+    longSum(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0));
+  }
+
+  @Test
+  public void testLongMult() throws TornadoExecutionPlanException {
+    LongArray input = initLongInput(SIZE, true);
+    LongArray result = new LongArray(1);
+    result.init(1L);
+
+    runReduction(TestSinglePassReductions::longMult, input, result);
+
+    LongArray sequential = new LongArray(1);
+    sequential.init(1L);
+    longMult(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0));
+  }
+
+  @Test
+  public void testLongMultRagged() throws TornadoExecutionPlanException {
+    LongArray input = initLongInput(RAGGED_SIZE, true);
+    LongArray result = new LongArray(1);
+    result.init(1L);
+
+    runReduction(TestSinglePassReductions::longMult, input, result);
+
+    LongArray sequential = new LongArray(1);
+    sequential.init(1L);
+    longMult(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0));
+  }
+
+  @Test
+  public void testLongMax() throws TornadoExecutionPlanException {
+    LongArray input = initLongInput(SIZE, false);
+    LongArray result = new LongArray(1);
+    result.init(Long.MIN_VALUE);
+
+    runReduction(TestSinglePassReductions::longMax, input, result);
+
+    LongArray sequential = new LongArray(1);
+    sequential.init(Long.MIN_VALUE);
+    longMax(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0));
+  }
+
+  @Test
+  public void testLongMaxRagged() throws TornadoExecutionPlanException {
+    LongArray input = initLongInput(RAGGED_SIZE, false);
+    LongArray result = new LongArray(1);
+    result.init(Long.MIN_VALUE);
+
+    runReduction(TestSinglePassReductions::longMax, input, result);
+
+    LongArray sequential = new LongArray(1);
+    sequential.init(Long.MIN_VALUE);
+    longMax(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0));
+  }
+
+  @Test
+  public void testLongMin() throws TornadoExecutionPlanException {
+    LongArray input = initLongInput(SIZE, false);
+    LongArray result = new LongArray(1);
+    result.init(Long.MAX_VALUE);
+
+    runReduction(TestSinglePassReductions::longMin, input, result);
+
+    LongArray sequential = new LongArray(1);
+    sequential.init(Long.MAX_VALUE);
+    longMin(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0));
+  }
+
+  @Test
+  public void testLongMinRagged() throws TornadoExecutionPlanException {
+    LongArray input = initLongInput(RAGGED_SIZE, false);
+    LongArray result = new LongArray(1);
+    result.init(Long.MAX_VALUE);
+
+    runReduction(TestSinglePassReductions::longMin, input, result);
+
+    LongArray sequential = new LongArray(1);
+    sequential.init(Long.MAX_VALUE);
+    longMin(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0));
+  }
+
+  @Test
+  public void testFloatSum() throws TornadoExecutionPlanException {
+    FloatArray input = initFloatInput(SIZE, false);
+    FloatArray result = new FloatArray(1);
+    result.init(0.0f);
+
+    runReduction(TestSinglePassReductions::floatSum, input, result);
+
+    FloatArray sequential = new FloatArray(1);
+    sequential.init(0.0f);
+    floatSum(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0), 0.0f);
+  }
+
+  @Test
+  public void testFloatSumRagged() throws TornadoExecutionPlanException {
+    FloatArray input = initFloatInput(RAGGED_SIZE, false);
+    FloatArray result = new FloatArray(1);
+    result.init(0.0f);
+
+    runReduction(TestSinglePassReductions::floatSum, input, result);
+
+    FloatArray sequential = new FloatArray(1);
+    sequential.init(0.0f);
+    floatSum(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0), 0.0f);
+  }
+
+  @Test
+  public void testFloatMult() throws TornadoExecutionPlanException {
+    FloatArray input = initFloatInput(SIZE, true);
+    FloatArray result = new FloatArray(1);
+    result.init(1.0f);
+
+    runReduction(TestSinglePassReductions::floatMult, input, result);
+
+    FloatArray sequential = new FloatArray(1);
+    sequential.init(1.0f);
+    floatMult(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0), 0.0f);
+  }
+
+  @Test
+  public void testFloatMultRagged() throws TornadoExecutionPlanException {
+    FloatArray input = initFloatInput(RAGGED_SIZE, true);
+    FloatArray result = new FloatArray(1);
+    result.init(1.0f);
+
+    runReduction(TestSinglePassReductions::floatMult, input, result);
+
+    FloatArray sequential = new FloatArray(1);
+    sequential.init(1.0f);
+    floatMult(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0), 0.0f);
+  }
+
+  @Test
+  public void testFloatMax() throws TornadoExecutionPlanException {
+    FloatArray input = initFloatInput(SIZE, false);
+    FloatArray result = new FloatArray(1);
+    result.init(Float.NEGATIVE_INFINITY);
+
+    runReduction(TestSinglePassReductions::floatMax, input, result);
+
+    FloatArray sequential = new FloatArray(1);
+    sequential.init(Float.NEGATIVE_INFINITY);
+    floatMax(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0), 0.0f);
+  }
+
+  @Test
+  public void testFloatMaxRagged() throws TornadoExecutionPlanException {
+    FloatArray input = initFloatInput(RAGGED_SIZE, false);
+    FloatArray result = new FloatArray(1);
+    result.init(Float.NEGATIVE_INFINITY);
+
+    runReduction(TestSinglePassReductions::floatMax, input, result);
+
+    FloatArray sequential = new FloatArray(1);
+    sequential.init(Float.NEGATIVE_INFINITY);
+    floatMax(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0), 0.0f);
+  }
+
+  @Test
+  public void testFloatMin() throws TornadoExecutionPlanException {
+    FloatArray input = initFloatInput(SIZE, false);
+    FloatArray result = new FloatArray(1);
+    result.init(Float.POSITIVE_INFINITY);
+
+    runReduction(TestSinglePassReductions::floatMin, input, result);
+
+    FloatArray sequential = new FloatArray(1);
+    sequential.init(Float.POSITIVE_INFINITY);
+    floatMin(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0), 0.0f);
+  }
+
+  @Test
+  public void testFloatMinRagged() throws TornadoExecutionPlanException {
+    FloatArray input = initFloatInput(RAGGED_SIZE, false);
+    FloatArray result = new FloatArray(1);
+    result.init(Float.POSITIVE_INFINITY);
+
+    runReduction(TestSinglePassReductions::floatMin, input, result);
+
+    FloatArray sequential = new FloatArray(1);
+    sequential.init(Float.POSITIVE_INFINITY);
+    floatMin(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0), 0.0f);
+  }
+
+  @Test
+  public void testDoubleSum() throws TornadoExecutionPlanException {
+    DoubleArray input = initDoubleInput(SIZE, false);
+    DoubleArray result = new DoubleArray(1);
+    result.init(0.0);
+
+    runReduction(TestSinglePassReductions::doubleSum, input, result);
+
+    DoubleArray sequential = new DoubleArray(1);
+    sequential.init(0.0);
+    doubleSum(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0), 0.0);
+  }
+
+  @Test
+  public void testDoubleSumRagged() throws TornadoExecutionPlanException {
+    DoubleArray input = initDoubleInput(RAGGED_SIZE, false);
+    DoubleArray result = new DoubleArray(1);
+    result.init(0.0);
+
+    runReduction(TestSinglePassReductions::doubleSum, input, result);
+
+    DoubleArray sequential = new DoubleArray(1);
+    sequential.init(0.0);
+    doubleSum(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0), 0.0);
+  }
+
+  @Test
+  public void testDoubleMult() throws TornadoExecutionPlanException {
+    DoubleArray input = initDoubleInput(SIZE, true);
+    DoubleArray result = new DoubleArray(1);
+    result.init(1.0);
+
+    runReduction(TestSinglePassReductions::doubleMult, input, result);
+
+    DoubleArray sequential = new DoubleArray(1);
+    sequential.init(1.0);
+    doubleMult(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0), 0.0);
+  }
+
+  @Test
+  public void testDoubleMultRagged() throws TornadoExecutionPlanException {
+    DoubleArray input = initDoubleInput(RAGGED_SIZE, true);
+    DoubleArray result = new DoubleArray(1);
+    result.init(1.0);
+
+    runReduction(TestSinglePassReductions::doubleMult, input, result);
+
+    DoubleArray sequential = new DoubleArray(1);
+    sequential.init(1.0);
+    doubleMult(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0), 0.0);
+  }
+
+  @Test
+  public void testDoubleMax() throws TornadoExecutionPlanException {
+    DoubleArray input = initDoubleInput(SIZE, false);
+    DoubleArray result = new DoubleArray(1);
+    result.init(Double.NEGATIVE_INFINITY);
+
+    runReduction(TestSinglePassReductions::doubleMax, input, result);
+
+    DoubleArray sequential = new DoubleArray(1);
+    sequential.init(Double.NEGATIVE_INFINITY);
+    doubleMax(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0), 0.0);
+  }
+
+  @Test
+  public void testDoubleMaxRagged() throws TornadoExecutionPlanException {
+    DoubleArray input = initDoubleInput(RAGGED_SIZE, false);
+    DoubleArray result = new DoubleArray(1);
+    result.init(Double.NEGATIVE_INFINITY);
+
+    runReduction(TestSinglePassReductions::doubleMax, input, result);
+
+    DoubleArray sequential = new DoubleArray(1);
+    sequential.init(Double.NEGATIVE_INFINITY);
+    doubleMax(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0), 0.0);
+  }
+
+  @Test
+  public void testDoubleMin() throws TornadoExecutionPlanException {
+    DoubleArray input = initDoubleInput(SIZE, false);
+    DoubleArray result = new DoubleArray(1);
+    result.init(Double.POSITIVE_INFINITY);
+
+    runReduction(TestSinglePassReductions::doubleMin, input, result);
+
+    DoubleArray sequential = new DoubleArray(1);
+    sequential.init(Double.POSITIVE_INFINITY);
+    doubleMin(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0), 0.0);
+  }
+
+  @Test
+  public void testDoubleMinRagged() throws TornadoExecutionPlanException {
+    DoubleArray input = initDoubleInput(RAGGED_SIZE, false);
+    DoubleArray result = new DoubleArray(1);
+    result.init(Double.POSITIVE_INFINITY);
+
+    runReduction(TestSinglePassReductions::doubleMin, input, result);
+
+    DoubleArray sequential = new DoubleArray(1);
+    sequential.init(Double.POSITIVE_INFINITY);
+    doubleMin(input, sequential);
+
+    assertEquals(sequential.get(0), result.get(0), 0.0);
+  }
+  @Test
+  public void testFloatSumRepeated() throws TornadoExecutionPlanException {
+    FloatArray input = initFloatInput(RAGGED_SIZE, false);
+    FloatArray result = new FloatArray(1);
+
+    FloatArray sequential = new FloatArray(1);
+    sequential.init(0.0f);
+    floatSum(input, sequential);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+            .task("t0", TestSinglePassReductions::floatSum, input, result) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, result);
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+      // The counter of finished groups has to start from zero in every execution
+      for (int i = 0; i < 4; i++) {
+        result.init(0.0f);
+        executionPlan.execute();
+        assertEquals(sequential.get(0), result.get(0), 0.0f);
+      }
+    }
+  }
+  // CHECKSTYLE:ON
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.vm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.TornadoExecutionResult;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.ProfilerMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the results read by the host when commands are enqueued without OpenCL events. Only
+ * the last copy to the host is blocking and no barrier is enqueued, so the in-order queue is the
+ * only guarantee that the previous reads have completed when the execution returns.
+ *
+ * <p>How to run? <code>
+ * tornado-test -V -J"-Dtornado.opencl.eventfree=True"
+ * uk.ac.manchester.tornado.unittests.vm.TestEventFreeDispatch
+ * </code>
+ */
+public class TestEventFreeDispatch extends TornadoTestBase {
+  // CHECKSTYLE:OFF
+
+  private static final int NUM_ELEMENTS = 4096;
+  private static final int NUM_EXECUTIONS = 8;
+
+  private static void scale(FloatArray a, FloatArray b, float factor) {
+    for (@Parallel int i = 0; i < a.getSize(); i++) {
+      b.set(i, a.get(i) * factor);
+    }
+  }
+
+  private static void add(FloatArray a, FloatArray b, FloatArray c) {
+    for (@Parallel int i = 0; i < c.getSize(); i++) {
+      c.set(i, a.get(i) + b.get(i));
+    }
+  }
+
+  private static TaskGraph createTaskGraph(FloatArray a, FloatArray b, FloatArray c, FloatArray d) {
+    return new TaskGraph("s0") //
+        .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+        .task("t0", TestEventFreeDispatch::scale, a, b, 2.0f) //
+        .task("t1", TestEventFreeDispatch::add, a, b, c) //
+        .task("t2", TestEventFreeDispatch::add, b, c, d) //
+        .transferToHost(DataTransferMode.EVERY_EXECUTION, b, c, d);
+  }
+
+  private static void checkResults(float value, FloatArray b, FloatArray c, FloatArray d) {
+    for (int i = 0; i < NUM_ELEMENTS; i++) {
+      assertEquals(2 * value, b.get(i), 0.001f);
+      assertEquals(3 * value, c.get(i), 0.001f);
+      assertEquals(5 * value, d.get(i), 0.001f);
+    }
+  }
+
+  @Test
+  public void testReadsWithoutHostBarrier() throws TornadoExecutionPlanException {
+    FloatArray a = new FloatArray(NUM_ELEMENTS);
+    FloatArray b = new FloatArray(NUM_ELEMENTS);
+    FloatArray c = new FloatArray(NUM_ELEMENTS);
+    FloatArray d = new FloatArray(NUM_ELEMENTS);
+
+    ImmutableTaskGraph immutableTaskGraph = createTaskGraph(a, b, c, d).snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      for (int execution = 1; execution <= NUM_EXECUTIONS; execution++) {
+        a.init(execution);
+        executionPlan.execute();
+        // The reads of b and c are not blocking: they are checked without any other call
+        checkResults(execution, b, c, d);
+      }
+    }
+  }
+
+  @Test
+  public void testReadsWithProfilerPerExecution() throws TornadoExecutionPlanException {
+    FloatArray a = new FloatArray(NUM_ELEMENTS);
+    FloatArray b = new FloatArray(NUM_ELEMENTS);
+    FloatArray c = new FloatArray(NUM_ELEMENTS);
+    FloatArray d = new FloatArray(NUM_ELEMENTS);
+
+    ImmutableTaskGraph immutableTaskGraph = createTaskGraph(a, b, c, d).snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      for (int execution = 1; execution <= NUM_EXECUTIONS; execution++) {
+        a.init(execution);
+        if (execution % 2 == 0) {
+          // The commands of this execution are enqueued with events again
+          TornadoExecutionResult executionResult =
+              executionPlan.withProfiler(ProfilerMode.SILENT).execute();
+          assertTrue(executionResult.getProfilerResult().getDeviceKernelTime() > 0);
+          assertTrue(executionResult.getProfilerResult().getDeviceReadTime() > 0);
+        } else {
+          executionPlan.withoutProfiler().execute();
+        }
+        checkResults(execution, b, c, d);
+      }
+    }
+  }
+
+  @Test
+  public void testReadsFromTwoExecutionPlans() throws TornadoExecutionPlanException {
+    FloatArray a0 = new FloatArray(NUM_ELEMENTS);
+    FloatArray b0 = new FloatArray(NUM_ELEMENTS);
+    FloatArray c0 = new FloatArray(NUM_ELEMENTS);
+    FloatArray d0 = new FloatArray(NUM_ELEMENTS);
+    FloatArray a1 = new FloatArray(NUM_ELEMENTS);
+    FloatArray b1 = new FloatArray(NUM_ELEMENTS);
+    FloatArray c1 = new FloatArray(NUM_ELEMENTS);
+    FloatArray d1 = new FloatArray(NUM_ELEMENTS);
+
+    ImmutableTaskGraph immutableTaskGraph0 = createTaskGraph(a0, b0, c0, d0).snapshot();
+    ImmutableTaskGraph immutableTaskGraph1 = createTaskGraph(a1, b1, c1, d1).snapshot();
+    try (TornadoExecutionPlan plan0 = new TornadoExecutionPlan(immutableTaskGraph0);
+        TornadoExecutionPlan plan1 = new TornadoExecutionPlan(immutableTaskGraph1)) {
+      // Only the second plan is profiled: the first one keeps enqueuing its commands without events
+      plan1.withProfiler(ProfilerMode.SILENT);
+      for (int execution = 1; execution <= NUM_EXECUTIONS; execution++) {
+        a0.init(execution);
+        a1.init(-execution);
+        plan0.execute();
+        plan1.execute();
+        checkResults(execution, b0, c0, d0);
+        checkResults(-execution, b1, c1, d1);
+      }
+    }
+  }
+}
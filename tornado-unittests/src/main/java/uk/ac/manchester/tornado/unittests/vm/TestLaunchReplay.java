@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.vm;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import uk.ac.manchester.tornado.api.GridScheduler;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.WorkerGrid1D;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for task-graphs executed many times. With the {@code tornado.replay} option, the kernel
+ * launches are recorded once their arguments are stable and replayed with a single enqueue. The
+ * results must be the same with and without the option.
+ *
+ * <p>How to run? <code>
+ * tornado-test -V -J"-Dtornado.replay=True" uk.ac.manchester.tornado.unittests.vm.TestLaunchReplay
+ * </code>
+ */
+public class TestLaunchReplay extends TornadoTestBase {
+  // CHECKSTYLE:OFF
+
+  private static final int NUM_ELEMENTS = 1024;
+  private static final int NUM_EXECUTIONS = 8;
+
+  private static void increment(FloatArray a) {
+    for (@Parallel int i = 0; i < a.getSize(); i++) {
+      a.set(i, a.get(i) + 1.0f);
+    }
+  }
+
+  private static void add(FloatArray a, FloatArray b, FloatArray c) {
+    for (@Parallel int i = 0; i < c.getSize(); i++) {
+      c.set(i, a.get(i) + b.get(i));
+    }
+  }
+
+  @Test
+  public void testReplayTaskChain() throws TornadoExecutionPlanException {
+    final int numTasks = 16;
+    FloatArray a = new FloatArray(NUM_ELEMENTS);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a);
+    for (int i = 0; i < numTasks; i++) {
+      taskGraph.task("t" + i, TestLaunchReplay::increment, a);
+    }
+    taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, a);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      for (int execution = 1; execution <= NUM_EXECUTIONS; execution++) {
+        executionPlan.execute();
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+          assertEquals(execution * numTasks, a.get(i), 0.001f);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testReplayWithNewInputs() throws TornadoExecutionPlanException {
+    FloatArray a = new FloatArray(NUM_ELEMENTS);
+    FloatArray b = new FloatArray(NUM_ELEMENTS);
+    FloatArray c = new FloatArray(NUM_ELEMENTS);
+    FloatArray d = new FloatArray(NUM_ELEMENTS);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+            .task("t0", TestLaunchReplay::add, a, b, c) //
+            .task("t1", TestLaunchReplay::add, c, b, d) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, d);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      for (int execution = 0; execution < NUM_EXECUTIONS; execution++) {
+        a.init(execution);
+        b.init(2.0f);
+        executionPlan.execute();
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+          assertEquals(execution + 4.0f, d.get(i), 0.001f);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testReplayAfterGridChange() throws TornadoExecutionPlanException {
+    FloatArray a = new FloatArray(NUM_ELEMENTS);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a) //
+            .task("t0", TestLaunchReplay::increment, a) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, a);
+
+    WorkerGrid1D worker = new WorkerGrid1D(NUM_ELEMENTS);
+    GridScheduler gridScheduler = new GridScheduler("s0.t0", worker);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.withGridScheduler(gridScheduler);
+      for (int execution = 0; execution < NUM_EXECUTIONS; execution++) {
+        executionPlan.execute();
+      }
+
+      // A recorded launch must not be replayed with the previous grid
+      worker.setGlobalWork(NUM_ELEMENTS / 2, 1, 1);
+      for (int execution = 0; execution < NUM_EXECUTIONS; execution++) {
+        executionPlan.execute();
+      }
+    }
+
+    for (int i = 0; i < NUM_ELEMENTS / 2; i++) {
+      assertEquals(2 * NUM_EXECUTIONS, a.get(i), 0.001f);
+    }
+    for (int i = NUM_ELEMENTS / 2; i < NUM_ELEMENTS; i++) {
+      assertEquals(NUM_EXECUTIONS, a.get(i), 0.001f);
+    }
+  }
+
+  @Test
+  public void testReplayAfterCoarsenessChange() throws TornadoExecutionPlanException {
+    FloatArray a = new FloatArray(NUM_ELEMENTS);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.FIRST_EXECUTION, a) //
+            .task("t0", TestLaunchReplay::increment, a) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, a);
+
+    WorkerGrid1D worker = new WorkerGrid1D(NUM_ELEMENTS);
+    worker.setCoarseness(2, 1, 1);
+    GridScheduler gridScheduler = new GridScheduler("s0.t0", worker);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      executionPlan.withGridScheduler(gridScheduler);
+      for (int execution = 0; execution < NUM_EXECUTIONS; execution++) {
+        executionPlan.execute();
+      }
+
+      // The global work is the same, but each thread now processes four elements
+      worker.setCoarseness(4, 1, 1);
+      for (int execution = 1; execution <= NUM_EXECUTIONS; execution++) {
+        executionPlan.execute();
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+          assertEquals(NUM_EXECUTIONS + execution, a.get(i), 0.001f);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testInterleavedTransfers() throws TornadoExecutionPlanException {
+    FloatArray a = new FloatArray(NUM_ELEMENTS);
+    FloatArray b = new FloatArray(NUM_ELEMENTS);
+
+    TaskGraph taskGraph =
+        new TaskGraph("s0") //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+            .task("t0", TestLaunchReplay::increment, a) //
+            .transferToDevice(DataTransferMode.EVERY_EXECUTION, b) //
+            .task("t1", TestLaunchReplay::increment, b) //
+            .transferToHost(DataTransferMode.EVERY_EXECUTION, a, b);
+
+    ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+    try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+      for (int execution = 0; execution < NUM_EXECUTIONS; execution++) {
+        a.init(execution);
+        b.init(2 * execution);
+        executionPlan.execute();
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+          assertEquals(execution + 1.0f, a.get(i), 0.001f);
+          assertEquals(2 * execution + 1.0f, b.get(i), 0.001f);
+        }
+      }
+    }
+  }
+  // CHECKSTYLE:ON
+}